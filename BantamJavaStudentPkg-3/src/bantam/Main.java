@@ -44,6 +44,7 @@ import bantam.codegenjvm.JVMCodeGenerator;
 import bantam.codegenmips.MipsCodeGenerator;
 import bantam.codegenx86.X86CodeGenerator;
 import bantam.interp.Interpreter;
+import bantam.interp.Sandbox;
 import bantam.visitor.MainMainVisitor;
 import bantam.visitor.NumLocalVarsVisitor;
 import bantam.visitor.StringConstantsVisitor;
@@ -56,6 +57,12 @@ import bantam.treedrawer.Drawer;
 import bantam.util.ClassTreeNode;
 import bantam.visitor.PrintVisitor;
 
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * bantam.Main class that runs the Bantam compiler
  * Constructs and runs each phase of the compiler
@@ -72,6 +79,7 @@ public class Main {
     private static String outFile = "out.s";
     /**
      * Boolean flag indicating whether garbage collection is enabled - disabled by default
+     * (in interpreter mode, the interpreter's heap is collected and its statistics reported)
      */
     private static boolean gcEnabled = false;
     /**
@@ -97,6 +105,31 @@ public class Main {
      * Interpreter mode (false means compiler mode)
      */
     private static boolean intMode = false;
+    /**
+     * Interpreter engine (Interpreter.ENGINE_AST by default)
+     */
+    private static int intEngine = Interpreter.ENGINE_AST;
+    /**
+     * JIT thresholds: calls and back-edges before a method is compiled (null for defaults)
+     */
+    private static int[] jitThresholds = null;
+    /**
+     * Flag for logging JIT compilations and timings
+     */
+    private static boolean debugJit = false;
+    /**
+     * Number of worker threads in batch mode (0 means a single program is run)
+     */
+    private static int batchThreads = 0;
+    /**
+     * Interpreter limits: instruction budget, timeout (ms), and heap size (bytes), 0 means none
+     * (with -gc, the heap is collected when full and has a default size)
+     */
+    private static long maxSteps = 0, timeoutMillis = 0, heapSize = 0;
+    /**
+     * File receiving the collapsed call stacks of the profiler (null means no profiling)
+     */
+    private static String profileFile = null;
     /**
      * Integer indicating target (0=mips, 1=x86, 2=jvm -- mips by default)
      */
@@ -125,8 +158,10 @@ public class Main {
      */
     private static void showHelp() {
         System.err.println("Usage: bantamc [-h] [-o <output_file>] [-t <architecture>]");
-        System.err.println("               [-gc] [-int] [-bantam.opt <num>] [-dt] [-dl] [-dp] [-ds]");
-        System.err.println("               [-di] [-do] [-dc] [-sl] [-sp] [-ss] [-so]");
+        System.err.println("               [-gc] [-int [ast|vm|vm-nojit]] [-jit <calls>[,<loops>]] [-bantam.opt <num>]");
+        System.err.println("               [-batch <threads>] [-budget <steps>] [-timeout <ms>] [-heap <size>[k|m|g]]");
+        System.err.println("               [-prof <stacks_file>]");
+        System.err.println("               [-dt] [-dl] [-dp] [-ds] [-di] [-dj] [-do] [-dc] [-sl] [-sp] [-ss] [-so]");
         System.err.println("               [-mm] [-sc] [-lv] <input_files>");
         System.err.println("man bantamc for more details");
         System.exit(1);
@@ -200,6 +235,9 @@ public class Main {
             else if (args[i].equals("-di")) {
                 debugInt = true;
             }
+            else if (args[i].equals("-dj")) {
+                debugJit = true;
+            }
             else if (args[i].equals("-do")) {
                 debugOpt = true;
             }
@@ -233,9 +271,90 @@ public class Main {
                 findLogicalVariables = true;
             }
 
-            // if -int turn on interpreter mode
+            // if -int turn on interpreter mode, optionally followed by the engine
             else if (args[i].equals("-int")) {
                 intMode = true;
+                if (i < args.length - 1 && args[i + 1].equals("ast")) {
+                    intEngine = Interpreter.ENGINE_AST;
+                    i++;
+                }
+                // the VM compiles hot code with its JIT ("jit" is kept as another name)
+                else if (i < args.length - 1 &&
+                         (args[i + 1].equals("vm") || args[i + 1].equals("jit"))) {
+                    intEngine = Interpreter.ENGINE_VM;
+                    i++;
+                }
+                else if (i < args.length - 1 && args[i + 1].equals("vm-nojit")) {
+                    intEngine = Interpreter.ENGINE_VM_INTERPRETED;
+                    i++;
+                }
+            }
+
+            // if -jit then set the JIT thresholds (calls and optionally loop back-edges)
+            else if (args[i].equals("-jit")) {
+                // check if no further arguments
+                if (i == args.length - 1) {
+                    // if not, then print error message and call showHelp() (which eventually exits)
+                    System.err.println("Usage error: must specify JIT thresholds with -jit");
+                    showHelp();
+                }
+                i++;
+
+                String[] thresholds = args[i].split(",");
+                jitThresholds = null;
+                try {
+                    if (thresholds.length <= 2) {
+                        int calls = Integer.parseInt(thresholds[0]);
+                        // default to ten times the calls, clamped so it cannot overflow
+                        int loops = (thresholds.length == 2) ?
+                            Integer.parseInt(thresholds[1]) :
+                            (int) Math.min(calls * 10L, Integer.MAX_VALUE);
+                        if (calls >= 0 && loops >= 0) {
+                            jitThresholds = new int[] { calls, loops };
+                        }
+                    }
+                } catch (NumberFormatException e) {
+                }
+
+                if (jitThresholds == null) {
+                    // if not, then print error message and call showHelp() (which eventually exits)
+                    System.err.println("Usage error: JIT thresholds must be non-negative integers");
+                    showHelp();
+                }
+            }
+
+            // if -batch then run each input file (or comma-separated group of files)
+            // as a separate program on a pool of worker threads
+            else if (args[i].equals("-batch")) {
+                intMode = true;
+                batchThreads = (int) parseLimit(args, i++, "number of threads");
+                if (batchThreads == 0) {
+                    System.err.println("Usage error: number of threads must be positive");
+                    showHelp();
+                }
+            }
+
+            // if -budget, -timeout, or -heap then limit each interpreted run
+            else if (args[i].equals("-budget")) {
+                maxSteps = parseLimit(args, i++, "instruction budget");
+            }
+            else if (args[i].equals("-timeout")) {
+                timeoutMillis = parseLimit(args, i++, "timeout");
+            }
+            else if (args[i].equals("-heap")) {
+                heapSize = parseLimit(args, i++, "heap size");
+            }
+
+            // if -prof then profile the interpreted run
+            else if (args[i].equals("-prof")) {
+                // check if no further arguments
+                if (i == args.length - 1) {
+                    // if not, then print error message and call showHelp() (which eventually exits)
+                    System.err.println("Usage error: must specify a stacks file with -prof");
+                    showHelp();
+                }
+                i++;
+                profileFile = args[i];
             }
 
             // if -bantam.opt then turn on optimization
@@ -322,6 +441,12 @@ public class Main {
             }
         }
 
+        // a profile covers a single run
+        if (profileFile != null && batchThreads > 0) {
+            System.err.println("Usage error: -prof cannot be used with -batch");
+            showHelp();
+        }
+
         // make sure at least one input file was specified
         if (cnt == 0) {
             System.err.println("Usage error: must specify some input files");
@@ -335,6 +460,103 @@ public class Main {
             inFiles[i] = tmp[i];
     }
 
+    /**
+     * Writes the call stacks sampled by the profiler to the stacks file
+     *
+     * @param interpreter the interpreter that ran the program
+     */
+    private static void writeProfile(Interpreter interpreter) {
+        try {
+            PrintStream out = new PrintStream(new FileOutputStream(profileFile));
+            interpreter.writeCollapsedStacks(out);
+            out.close();
+        } catch (IOException e) {
+            System.err.println("Error: could not write profile to '" + profileFile + "': " +
+                               e.getMessage());
+        }
+    }
+
+    /**
+     * Parses the non-negative integer argument of a flag
+     * (a heap size may end in k, m, or g)
+     *
+     * @param args list of commandline arguments
+     * @param i index of the flag
+     * @param what description of the argument (for error messages)
+     * @return the value of the argument
+     */
+    private static long parseLimit(String[] args, int i, String what) {
+        // check if no further arguments
+        if (i == args.length - 1) {
+            // if not, then print error message and call showHelp() (which eventually exits)
+            System.err.println("Usage error: must specify a " + what + " with " + args[i]);
+            showHelp();
+        }
+        String value = args[i + 1].toLowerCase();
+        long scale = 1;
+        if (args[i].equals("-heap") && value.length() > 1) {
+            int unit = "kmg".indexOf(value.charAt(value.length() - 1));
+            if (unit >= 0) {
+                scale = 1L << (10 * (unit + 1));
+                value = value.substring(0, value.length() - 1);
+            }
+        }
+        try {
+            long limit = Long.parseLong(value);
+            if (limit >= 0) {
+                return limit * scale;
+            }
+        } catch (NumberFormatException e) {
+        }
+        // if not, then print error message and call showHelp() (which eventually exits)
+        System.err.println("Usage error: " + what + " must be a non-negative integer");
+        showHelp();
+        return 0;
+    }
+
+    /**
+     * Runs each input file (or comma-separated group of files) as a separate
+     * program in a sandbox, printing the output of each run and a summary
+     *
+     * @return exit status (0 if every program exited with status 0)
+     */
+    private static int runBatch() {
+        List<String[]> programs = new ArrayList<String[]>();
+        for (String inFile : inFiles) {
+            programs.add(inFile.split(","));
+        }
+        Sandbox sandbox = new Sandbox(batchThreads, intEngine);
+        sandbox.setLimits(maxSteps, timeoutMillis);
+        sandbox.setHeap(heapSize, gcEnabled);
+        if (jitThresholds != null) {
+            sandbox.setJitThresholds(jitThresholds[0], jitThresholds[1]);
+        }
+
+        long start = System.nanoTime();
+        List<Sandbox.Result> results = sandbox.run(programs);
+        long millis = (System.nanoTime() - start) / 1000000;
+
+        int status = 0, failed = 0;
+        for (Sandbox.Result result : results) {
+            System.out.println("==> " + String.join(",", result.getFiles()) + ": " +
+                    result.getOutcomeString() + ", status " + result.getStatus() + " (" +
+                    result.getSteps() + " steps, " + result.getAllocatedBytes() +
+                    " bytes, " + result.getCollections() + " GC(s) in " +
+                    String.format("%.1f", result.getCollectionMillis()) + " ms, " +
+                    result.getMillis() + " ms)");
+            System.out.print(result.getOutput());
+            System.out.print(result.getErrors());
+            if (result.getStatus() != 0) {
+                status = 1;
+                failed++;
+            }
+        }
+        System.out.println("==> " + results.size() + " program(s), " + failed +
+                " with non-zero status, in " + millis + " ms on " + batchThreads +
+                " thread(s)");
+        return status;
+    }
+
     /**
      * bantam.Main method, which drives compilation
      * builds and runs each phase of the compiler
@@ -345,6 +567,11 @@ public class Main {
         // process flags
         processFlags(args);
 
+        // batch mode compiles and runs every program itself
+        if (batchThreads > 0) {
+            System.exit(runBatch());
+        }
+
         try {
             // lexing
             Lexer lexer = new Lexer(inFiles, debugLexer);
@@ -423,9 +650,23 @@ public class Main {
 
             // if interpreter mode then interpret program and exit
             if (intMode) {
-                Interpreter interpreter = new Interpreter(classTree, debugInt);
-                interpreter.interpret();
-                System.exit(0);
+                Interpreter interpreter = new Interpreter(classTree, debugInt, intEngine);
+                if (jitThresholds != null) {
+                    interpreter.setJitThresholds(jitThresholds[0], jitThresholds[1]);
+                }
+                interpreter.setJitLog(debugJit);
+                interpreter.setLimits(maxSteps, timeoutMillis);
+                interpreter.setHeap(heapSize, gcEnabled);
+                interpreter.setProfiling(profileFile != null);
+                int status = interpreter.interpret();
+                if (gcEnabled) {
+                    System.err.println(interpreter.getHeapReport());
+                }
+                if (profileFile != null) {
+                    System.err.print(interpreter.getProfileReport());
+                    writeProfile(interpreter);
+                }
+                System.exit(status);
             }
 
             // optimization (if specified via -bantam.opt flag)
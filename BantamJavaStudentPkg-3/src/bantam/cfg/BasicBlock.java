@@ -28,6 +28,7 @@ package bantam.cfg;
 
 import java.util.Vector;
 import java.util.Iterator;
+import java.util.HashSet;
 
 /** A class representing a basic block, which is an individual
   * node in the control flow graph.  Each basic block is made
@@ -44,12 +45,12 @@ public class BasicBlock {
     private Vector<TACInst> insn = new Vector<TACInst>();
 
     /** List of incoming edges from other basic blocks.
-      * Empty at first. */
-    private Vector<BasicBlock> inEdges = new Vector<BasicBlock>();
+      * Empty at first (and most blocks have one or two). */
+    private Vector<BasicBlock> inEdges = new Vector<BasicBlock>(2);
 
     /** List of outgoing edges to other basic blocks.
-      * Empty at first. */
-    private Vector<BasicBlock> outEdges = new Vector<BasicBlock>();
+      * Empty at first (and a block has at most two). */
+    private Vector<BasicBlock> outEdges = new Vector<BasicBlock>(2);
 
     /** Number of total basic blocks */
     private static int numBB = 0;
@@ -69,16 +70,17 @@ public class BasicBlock {
     private int ifCnt;
 
     /** Ordered list of blocks -- note: list only used only for
-      * basic blocks that start a subroutine */
-    private Vector<BasicBlock> orderedList = new Vector<BasicBlock>();
-
-    /** Flag indicating whether ordered list has been built yet --
-      * note: flag used only for basic blocks that start a subroutine */
-    private boolean isOrdered = false;
+      * basic blocks that start a subroutine, and rebuilt each time it
+      * is needed since optimizations change the graph (null until then) */
+    private Vector<BasicBlock> orderedList;
 
     /** Comments for the basic block */
     private String comments = "";
 
+    /** Operand table of the enclosing subroutine (null until the
+      * subroutine is numbered -- see numberOperands) */
+    private OperandTable operands;
+
     /** BasicBlock constructor
       * @param startLineNum starting source line number of this block
       * (for debugging -- does not have to be exact)
@@ -147,7 +149,7 @@ public class BasicBlock {
 					       insn.size() + ")");
 
 	// check that call is not adding instruction beyond an IF
-	if (insn.size() > 0) {
+	if (n > 0) {
 	    if (insn.elementAt(n-1).getOpcode() == TACInst.IF) {
 		String bbStr = this.toString() + ":\n";
 		for (int i = 0; i < insn.size(); i++)
@@ -159,6 +161,8 @@ public class BasicBlock {
 	}
 
 	insn.add(n, inst);
+	if (operands != null)
+	    inst.number(operands);
     }
 
     /** Get the number of instructions at this basic block
@@ -199,6 +203,8 @@ public class BasicBlock {
 	    throw new IllegalArgumentException("There is no instruction " +
 					       "at index " + n);
 	insn.set(n, inst);
+	if (operands != null)
+	    inst.number(operands);
     }
 
     /** Remove the nth instruction
@@ -242,6 +248,39 @@ public class BasicBlock {
 	    b.inEdges.add(this);
     }
 
+    /** Replace an outgoing edge, keeping its position among the edges
+      * and redirecting the targets of a final IF
+      * Also replaces the incoming edge of the old and new successors
+      * Throws exception if the old block is not a successor or the new
+      * block already is one
+      * @param oldSucc old successor block
+      * @param newSucc new successor block
+      * */
+    public void replaceOutEdge(BasicBlock oldSucc, BasicBlock newSucc) {
+	int n = outEdges.indexOf(oldSucc);
+	if (n < 0)
+	    throw new RuntimeException("Block " + oldSucc + " is not a successor of " +
+				       toString() + " in BasicBlock.replaceOutEdge");
+	if (outEdges.contains(newSucc))
+	    throw new RuntimeException("Block " + newSucc + " is already a successor of " +
+				       toString() + " in BasicBlock.replaceOutEdge");
+	if (newSucc.inEdges.size() == 3)
+	    throw new RuntimeException("Block " + newSucc.toString() + 
+				       " already has max in edges (3); " +
+				       "can't add another in BasicBlock.replaceOutEdge");
+	outEdges.set(n, newSucc);
+	oldSucc.inEdges.remove(this);
+	newSucc.inEdges.add(this);
+
+	if (insn.size() > 0 && insn.lastElement() instanceof IfInst) {
+	    IfInst inst = (IfInst)insn.lastElement();
+	    if (inst.getTrueTarg() == oldSucc)
+		inst.setTrueTarg(newSucc);
+	    if (inst.getFalseTarg() == oldSucc)
+		inst.setFalseTarg(newSucc);
+	}
+    }
+
     /** Remove an incoming edge to another control flow block
       * Also removes outgoing edge from parameter to this block
       * @param b incoming basic block
@@ -268,7 +307,7 @@ public class BasicBlock {
       * Also removes outgoing edges from source basic blocks
       * */
     public void removeAllInEdges() {
-	while (inEdges.size() >= 0)
+	while (inEdges.size() > 0)
 	    removeInEdge(inEdges.elementAt(0));
     }
 
@@ -276,7 +315,7 @@ public class BasicBlock {
       * Also removes incoming edges in source basic blocks
       * */
     public void removeAllOutEdges() {
-	while (outEdges.size() >= 0)
+	while (outEdges.size() > 0)
 	    removeOutEdge(outEdges.elementAt(0));
     }
 
@@ -501,14 +540,56 @@ public class BasicBlock {
 	System.out.print(getFullString());
     }
 
+    /** Number the operands of all instructions in the subroutine
+      * starting at this block, so that analyses can use the integer
+      * operand identifiers (TACInst.getDefId and TACInst.getUseIds)
+      * -- should only be called for starting blocks, otherwise
+      * exception is thrown.  Numbering again (e.g., after new blocks
+      * are linked in) reuses the table, so identifiers stay stable.
+      * Instructions later added to numbered blocks are numbered
+      * automatically.
+      * @return operand table of the subroutine
+      * */
+    public OperandTable numberOperands() {
+	if (inEdges.size() != 0)
+	    throw new RuntimeException("BasicBlock.numberOperands must be called " +
+				       "with an entrance basic block");
+	if (operands == null)
+	    operands = new OperandTable();
+
+	// visit all reachable blocks (not the cached ordered list,
+	// since the graph may have changed since it was built)
+	HashSet<BasicBlock> visited = new HashSet<BasicBlock>();
+	Vector<BasicBlock> stack = new Vector<BasicBlock>();
+	visited.add(this);
+	stack.add(this);
+	while (stack.size() > 0) {
+	    BasicBlock bb = stack.remove(stack.size() - 1);
+	    bb.operands = operands;
+	    for (int i = 0; i < bb.insn.size(); i++)
+		bb.insn.elementAt(i).number(operands);
+	    for (int i = 0; i < bb.outEdges.size(); i++) {
+		BasicBlock next = bb.outEdges.elementAt(i);
+		if (visited.add(next))
+		    stack.add(next);
+	    }
+	}
+	return operands;
+    }
+
+    /** Get the operand table of the enclosing subroutine
+      * @return operand table (null if the subroutine is not numbered)
+      * */
+    public OperandTable getOperandTable() {
+	return operands;
+    }
+
     /** Get ordered list of blocks -- should only be called
       * for starting blocks, otherwise exception is thrown
       * @return iterated list of ordered blocks
       * */
     public Iterator<BasicBlock> getOrderedBlocks() {
-	// if not already ordered then order blocks
-	if (!isOrdered)
-	    orderBlocks();
+	orderBlocks();
 
 	return orderedList.iterator();
     }
@@ -519,8 +600,7 @@ public class BasicBlock {
       * @return ordered blocks
       * */
     private Vector<BasicBlock> orderBlocksOld() {
-	// set ordered flag
-	isOrdered = true;
+	orderedList = new Vector<BasicBlock>();
 
 	// check for in edges, if there are in edges then this is not
 	// an entrance block
@@ -614,8 +694,7 @@ public class BasicBlock {
       * @return ordered blocks
       * */
     private Vector<BasicBlock> orderBlocks() {
-	// set ordered flag
-	isOrdered = true;
+	orderedList = new Vector<BasicBlock>();
 
 	// check for in edges, if there are in edges then this is not
 	// an entrance block
@@ -653,15 +732,16 @@ public class BasicBlock {
 	    }
 
 	    // add successor blocks to ordered list
+	    int pos = i + 1;
 	    for (int j = 0; j < successors.size(); j++) {
 		// get next successor of bb
 		BasicBlock next = successors.elementAt(j);
 
 		// if not already in one of the lists then add it
 		// note: b/c depth-first we insert it right after bb
-		// and the successors of bb we have already seen
+		// and the successors of bb we have already inserted
 		if (!orderedList.contains(next))
-		    orderedList.add(i+j+1, next);
+		    orderedList.add(pos++, next);
 	    }
 	}
 	    
@@ -672,9 +752,8 @@ public class BasicBlock {
       * Must be called using entrance block as reference object
       * */
     public void printAll() {
-	// if not already ordered, get ordered list of blocks before printing
-	if (!isOrdered)
-	    orderBlocks();
+	// get ordered list of blocks before printing
+	orderBlocks();
 
 	// print out the basic blocks sorted order
 	for (int i = 0; i < orderedList.size(); i++) {
@@ -69,7 +69,7 @@ public class BinaryAddInst extends BinaryInst {
 	    throw new IllegalArgumentException("Bad left source operand '" +
 					       leftSource + "' in BinaryAddInst.setSource; " +
 					       "must be a legal variable or int constant");
-	this.leftSource = leftSource;
+	putUse(0, leftSource);
     }
 
     /** Set the right soure operand
@@ -80,6 +80,6 @@ public class BinaryAddInst extends BinaryInst {
 	    throw new IllegalArgumentException("Bad right source operand '" +
 					       rightSource + "' in BinaryAddInst.setSource; " +
 					       "must be a legal variable or int constant");
-	this.rightSource = rightSource;
+	putUse(1, rightSource);
     }
 }
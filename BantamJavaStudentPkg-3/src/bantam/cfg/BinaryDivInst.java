@@ -69,7 +69,7 @@ public class BinaryDivInst extends BinaryInst {
 	    throw new IllegalArgumentException("Bad left source operand '" +
 					       leftSource + "' in BinaryDivInst.setSource; " +
 					       "must be a legal variable or int constant");
-	this.leftSource = leftSource;
+	putUse(0, leftSource);
     }
 
     /** Set the right soure operand
@@ -80,6 +80,6 @@ public class BinaryDivInst extends BinaryInst {
 	    throw new IllegalArgumentException("Bad right source operand '" +
 					       rightSource + "' in BinaryDivInst.setSource; " +
 					       "must be a legal variable or int constant");
-	this.rightSource = rightSource;
+	putUse(1, rightSource);
     }
 }
@@ -38,15 +38,6 @@ package bantam.cfg;
   * @author Marc Corliss and Lori Pietraszek
   * */
 public abstract class BinaryInst extends TACInst {
-    /** Destination variable */
-    protected String destination;
-
-    /** Left source operand (type of source allowed varies in different binary instructions) */
-    protected String leftSource;
-
-    /** Right source operand (type of source allowed varies in different binary instructions) */
-    protected String rightSource;
-
     /** BinaryInst constructor
       * @param opcode opcode of binary instruction
       * @param destination destination variable
@@ -55,9 +46,8 @@ public abstract class BinaryInst extends TACInst {
       * */
     public BinaryInst(int opcode, String destination, String leftSource, String rightSource) {
 	super(opcode);
-	this.destination = destination;
-	this.leftSource = leftSource;	
-	this.rightSource = rightSource;
+	putDef(destination);
+	putUses(leftSource, rightSource);
 
 	// some error checking
 
@@ -74,7 +64,7 @@ public abstract class BinaryInst extends TACInst {
       * @return destination operand
       * */
     public String getDestination() {
-	return destination;
+	return getDef();
     }
 
     /** Set the destination operand variable
@@ -85,14 +75,14 @@ public abstract class BinaryInst extends TACInst {
 	    throw new IllegalArgumentException("Bad destination operand '" +
 					       destination + "' in BinaryInst.setDestination; " +
 					       "must be a legal variable");
-	this.destination = destination;
+	putDef(destination);
     }
 
     /** Get the left source operand
       * @return left source operand
       * */
     public String getLeftSource() {
-	return leftSource;
+	return getUse(0);
     }
 
     /** Set the left source operand
@@ -104,7 +94,7 @@ public abstract class BinaryInst extends TACInst {
       * @return right source operand
       * */
     public String getRightSource() {
-	return rightSource;
+	return getUse(1);
     }
 
     /** Set the right source operand
@@ -112,6 +102,25 @@ public abstract class BinaryInst extends TACInst {
       * */
     public abstract void setRightSource(String rightSource);
 
+    /** Set the variable defined by this instruction
+      * @param var new defined variable
+      * */
+    public void setDef(String var) {
+	setDestination(var);
+    }
+
+    /** Set the nth used operand (see getUses)
+      * @param n index of the operand
+      * @param operand new operand
+      * */
+    public void setUse(int n, String operand) {
+	checkUse(n);
+	if (n == 0)
+	    setLeftSource(operand);
+	else
+	    setRightSource(operand);
+    }
+
     /** Compares this object with the parameter object
       * @param o object to compare the reference object with
       * @return boolean indicating whether the objects are equivalent
@@ -120,9 +129,9 @@ public abstract class BinaryInst extends TACInst {
 	if (!(o instanceof BinaryInst))
 	    return false;
 	BinaryInst inst = (BinaryInst)o;
-	if (!destination.equals(inst.getDestination()) ||
-	    !leftSource.equals(inst.getLeftSource()) ||
-	    !rightSource.equals(inst.getRightSource()))
+	if (!getDestination().equals(inst.getDestination()) ||
+	    !getLeftSource().equals(inst.getLeftSource()) ||
+	    !getRightSource().equals(inst.getRightSource()))
 	    return false;
 	return true;
     }
@@ -132,6 +141,7 @@ public abstract class BinaryInst extends TACInst {
       * @return string representation of three address code instruction (without comments)
       * */
     public String getString() {
-	return destination + " = " + leftSource + " " + getOp() + " " + rightSource + ";";
+	return getDestination() + " = " + getLeftSource() + " " + getOp() + " " +
+	    getRightSource() + ";";
     }
 }
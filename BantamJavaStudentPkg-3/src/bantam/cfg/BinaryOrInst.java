@@ -70,7 +70,7 @@ public class BinaryOrInst extends BinaryInst {
 					       leftSource + "' in BinaryAndInst.setSource; " +
 					       "must be a legal variable or boolean constant");
 
-	this.leftSource = leftSource;
+	putUse(0, leftSource);
     }
 
     /** Set the right soure operand
@@ -81,6 +81,6 @@ public class BinaryOrInst extends BinaryInst {
 	    throw new IllegalArgumentException("Bad right source operand '" +
 					       rightSource + "' in BinaryAndInst.setSource; " +
 					       "must be a legal variable or boolean constant");
-	this.rightSource = rightSource;
+	putUse(1, rightSource);
     }
 }
@@ -46,12 +46,6 @@ package bantam.cfg;
 public abstract class CallInst extends TACInst {
     /** Type of call (e.g., "indircall", "dircall") */
     protected String callType;
-	
-    /** Target to jump to */
-    protected String target;
-
-    /** (Optional) destination variable to assign result of call (null if none) */
-    protected String destVar;
 
     /** Number of parameters 
 	(both reference and standard parameters but not error parameters) */
@@ -60,16 +54,13 @@ public abstract class CallInst extends TACInst {
     /** CallInst constructor
       * @param opcode opcode of call instruction
       * @param callType type of call (e.g., "indircall", "dircall")
-      * @param target target to jump to
       * @param destVar (Optional) destination variable to assign result of call (null if none)
       * @param numParams number of parameters (both ref. and standard but not error)
       * */
-    public CallInst(int opcode, String callType,
-		    String target, String destVar, int numParams) {
+    public CallInst(int opcode, String callType, String destVar, int numParams) {
 	super(opcode);
 	this.callType = callType;
-	this.target = target;
-	this.destVar = destVar;
+	putDef(destVar);
 	this.numParams = numParams;
 
 	// some error checking
@@ -85,15 +76,13 @@ public abstract class CallInst extends TACInst {
 	    throw new IllegalArgumentException("Number of parameters '" + numParams + 
 					       "' in CallInst constructor cannot be negative");
 
-	// error checking for target done in subclass
+	// target stored and error checked in subclass
     }
 
     /** Get the target of the call
       * @return target
       * */
-    public String getTarget() {
-	return target;
-    }
+    public abstract String getTarget();
 
     /** Set the target of the call
       * @param target new target
@@ -104,7 +93,7 @@ public abstract class CallInst extends TACInst {
       * @return destination variable
       * */
     public String getDestVar() {
-	return destVar;
+	return getDef();
     }
 
     /** Set the destination variable (variable to assign result to -- null if none)
@@ -115,7 +104,7 @@ public abstract class CallInst extends TACInst {
 	    throw new IllegalArgumentException("Bad destination variable '" +
 					       destVar + "' in CallInst.setDestVar; " +
 					       "must be a legal variable name");
-	this.destVar = destVar;
+	putDef(destVar);
     }
 
     /** Get the number of parameters (both ref. and standard but not error)
@@ -136,6 +125,13 @@ public abstract class CallInst extends TACInst {
 	this.numParams = numParams;
     }
 
+    /** Set the variable defined by this instruction
+      * @param var new defined variable
+      * */
+    public void setDef(String var) {
+	setDestVar(var);
+    }
+
     /** Compares this object with the parameter object
       * @param o object to compare the reference object with
       * @return boolean indicating whether the objects are equivalent
@@ -144,8 +140,9 @@ public abstract class CallInst extends TACInst {
 	if (!(o instanceof CallInst))
 	    return false;
 	CallInst inst = (CallInst)o;
+	String destVar = getDestVar();
 	if (opcode != inst.getOpcode() || 
-	    !target.equals(inst.getTarget()) ||
+	    !getTarget().equals(inst.getTarget()) ||
 	    numParams != inst.getNumParam())
 	    return false;
 	if (destVar != null && inst.getDestVar() != null &&
@@ -161,8 +158,9 @@ public abstract class CallInst extends TACInst {
       * @return string representation of three address code instruction (without comments)
       * */
     public String getString() {
+	String destVar = getDestVar();
 	if (destVar != null)
-	    return destVar + " = " + callType + " " + target + ", " + numParams + ";";
-	return callType + " " + target + ", " + numParams + ";";
+	    return destVar + " = " + callType + " " + getTarget() + ", " + numParams + ";";
+	return callType + " " + getTarget() + ", " + numParams + ";";
     }
 }
@@ -36,13 +36,17 @@ package bantam.cfg;
   * @author Marc Corliss and Lori Pietraszek
   * */
 public class DirCallInst extends CallInst {
+    /** Target label to jump to */
+    private String target;
+
     /** DirCallInst constructor
       * @param targLabel target label to jump to
       * @param destVar (Optional) destination variable to assign result of call (null if none)
       * @param numParams number of parameters (both ref. and standard but not error)
       * */
     public DirCallInst(String targLabel, String destVar, int numParams) {
-	super(TACInst.DIRCALL, "dircall", targLabel, destVar, numParams);
+	super(TACInst.DIRCALL, "dircall", destVar, numParams);
+	this.target = targLabel;
 
 	// some error checking
 
@@ -56,6 +60,13 @@ public class DirCallInst extends CallInst {
 					       "must be a legal label");
     }
 
+    /** Get the target of the call
+      * @return target label
+      * */
+    public String getTarget() {
+	return target;
+    }
+
     /** Set the target of the call
       * @param target new target
       * */
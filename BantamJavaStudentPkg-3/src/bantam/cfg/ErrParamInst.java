@@ -141,7 +141,7 @@ public class ErrParamInst extends ParamInst {
 	    return false;
 	ErrParamInst inst = (ErrParamInst)o;
 	if (opcode != inst.getOpcode() || 
-	    !source.equals(inst.getSource()) ||
+	    !getSource().equals(inst.getSource()) ||
 	    type != inst.getType())
 	    return false;
 	return true;
@@ -152,13 +152,18 @@ public class ErrParamInst extends ParamInst {
       * @return string representation of three address code instruction (without comments)
       * */
     public String getString() {
+	String source = getSource();
 	if (type == FILENAME)
 	    return "errparam filename, " + source + ";";
 	else if (type == LINENUM)
 	    return "errparam linenum, " + source + ";";
 	else if (type == OBJECTID)
 	    return "errparam objectid, " + source + ";";
-	else
+	else if (type == TARGETID)
 	    return "errparam targetid, " + source + ";";
+	else if (type == ARRAYSIZEID)
+	    return "errparam arraysizeid, " + source + ";";
+	else
+	    return "errparam arrayidxid, " + source + ";";
     }
 }
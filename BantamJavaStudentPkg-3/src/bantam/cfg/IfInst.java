@@ -60,12 +60,6 @@ public class IfInst extends TACInst {
     /** Type of condition (e.g., IfInst.EQ for '==', etc.) */
     protected int type;
     
-    /** Left source operand in condition */
-    protected String leftSource;
-    
-    /** Right source operand in condition */
-    protected String rightSource;
-    
     /** Target block when condition is true (jump target) */
     protected BasicBlock trueTarg;
 
@@ -83,8 +77,7 @@ public class IfInst extends TACInst {
 		  BasicBlock trueTarg, BasicBlock falseTarg) {
 	super(TACInst.IF);
 	this.type = type;
-	this.leftSource = leftSource;
-	this.rightSource = rightSource;
+	putUses(leftSource, rightSource);
 	this.trueTarg = trueTarg;
 	this.falseTarg = falseTarg;
 
@@ -143,7 +136,7 @@ public class IfInst extends TACInst {
       * @return left source operand
       * */
     public String getLeftSource() {
-	return leftSource;
+	return getUse(0);
     }
 
     /** Set the left soure operand
@@ -154,14 +147,14 @@ public class IfInst extends TACInst {
 	    throw new IllegalArgumentException("Bad left source operand '" +
 					       leftSource + "' in IfInst.setLeftSource; " +
 					       "must be a legal variable name or constant");
-	this.leftSource = leftSource;
+	putUse(0, leftSource);
     }
 
     /** Get the right source operand
       * @return right source operand
       * */
     public String getRightSource() {
-	return rightSource;
+	return getUse(1);
     }
 
     /** Set the right soure operand
@@ -172,7 +165,7 @@ public class IfInst extends TACInst {
 	    throw new IllegalArgumentException("Bad right source operand '" +
 					       rightSource + "' in IfInst.setRightSource; " +
 					       "must be a legal variable name or constant");
-	this.rightSource = rightSource;
+	putUse(1, rightSource);
     }
 
     /** Get the true target block
@@ -209,6 +202,18 @@ public class IfInst extends TACInst {
 	this.falseTarg = falseTarg;
     }
 
+    /** Set the nth used operand (see getUses)
+      * @param n index of the operand
+      * @param operand new operand
+      * */
+    public void setUse(int n, String operand) {
+	checkUse(n);
+	if (n == 0)
+	    setLeftSource(operand);
+	else
+	    setRightSource(operand);
+    }
+
     /** Compares this object with the parameter object
       * @param o object to compare the reference object with
       * @return boolean indicating whether the objects are equivalent
@@ -218,8 +223,8 @@ public class IfInst extends TACInst {
 	    return false;
 	IfInst inst = (IfInst)o;
 	if (opcode != inst.getOpcode() || 
-	    !leftSource.equals(inst.getLeftSource()) ||
-	    !rightSource.equals(inst.getRightSource()) ||
+	    !getLeftSource().equals(inst.getLeftSource()) ||
+	    !getRightSource().equals(inst.getRightSource()) ||
 	    trueTarg != inst.getTrueTarg() ||
 	    falseTarg != inst.getFalseTarg())
 	    return false;
@@ -231,6 +236,8 @@ public class IfInst extends TACInst {
       * @return string representation of three address code instruction (without comments)
       * */
     public String getString() {
+	String leftSource = getLeftSource();
+	String rightSource = getRightSource();
 	if (type == EQ)
 	    return "if (" + leftSource + " == " + rightSource + ") goto " + trueTarg + ";";
 	if (type == NE)
@@ -42,7 +42,8 @@ public class InDirCallInst extends CallInst {
       * @param numParams number of parameters (both ref. and standard but not error)
       * */
     public InDirCallInst(String targVar, String destVar, int numParams) {
-	super(TACInst.INDIRCALL, "indircall", targVar, destVar, numParams);
+	super(TACInst.INDIRCALL, "indircall", destVar, numParams);
+	putUses(targVar);
 
 	// some error checking
 
@@ -56,6 +57,13 @@ public class InDirCallInst extends CallInst {
 					       "must be a legal variable name");
     }
 
+    /** Get the target of the call
+      * @return target variable
+      * */
+    public String getTarget() {
+	return getUse(0);
+    }
+
     /** Set the target of the call
       * @param target new target
       * */
@@ -64,6 +72,15 @@ public class InDirCallInst extends CallInst {
 	    throw new IllegalArgumentException("Bad target variable '" +
 					       target + "' in InDirCallInst.setTarget; " +
 					       "must be a legal variable name");
-	this.target = target;
+	putUse(0, target);
+    }
+
+    /** Set the nth used operand (see getUses)
+      * @param n index of the operand
+      * @param operand new operand
+      * */
+    public void setUse(int n, String operand) {
+	checkUse(n);
+	setTarget(operand);
     }
 }
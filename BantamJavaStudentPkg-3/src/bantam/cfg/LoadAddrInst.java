@@ -35,6 +35,9 @@ package bantam.cfg;
   * @author Marc Corliss and Lori Pietraszek
   * */
 public class LoadAddrInst extends LoadInst {
+    /** Source address (as a String label) */
+    private String source;
+
     /** LoadAddrInst constructor
       * @param destination destination variable
       * @param source source address (as a String label)
@@ -42,6 +45,10 @@ public class LoadAddrInst extends LoadInst {
     public LoadAddrInst(String destination, String source) {
 	super(TACInst.LDADDR, destination, source);
 
+	// the source is a label, not a used operand
+	this.source = source;
+	putUses();
+
 	// add comment so instruction can be differentiated from
 	// other types of loads
 	addComment("load address instruction");
@@ -58,6 +65,13 @@ public class LoadAddrInst extends LoadInst {
 					       "must be a legal label");
     }
 
+    /** Get the source operand
+      * @return source address (as a String label)
+      * */
+    public String getSource() {
+	return source;
+    }
+
     /** Set the source operand
       * @param source new source operand
       * */
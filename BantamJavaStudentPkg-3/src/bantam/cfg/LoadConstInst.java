@@ -112,6 +112,6 @@ public class LoadConstInst extends LoadInst {
 					       source + "' in LoadConstInst.setSource; " +
 					       "must be a legal constant (boolean, int, " + 
 					       "String, or null)");
-	this.source = source;
+	putUse(0, source);
     }
 }
@@ -38,9 +38,6 @@ package bantam.cfg;
   * @author Marc Corliss and Lori Pietraszek
   * */
 public class LoadEntryInst extends LoadInst {
-    /** Index to load entry from in source operand (either int variable or constant) */
-    private String index;
-
     /** LoadEntryInst constructor
       * @param destination destination variable
       * @param source source object (variable or string constant to load from)
@@ -49,7 +46,7 @@ public class LoadEntryInst extends LoadInst {
     public LoadEntryInst(String destination, String source, String index) {
 	super(TACInst.LDENTRY, destination, source);
 
-	this.index = index;
+	putUses(source, index);
 
 	// some error checking
 
@@ -86,14 +83,14 @@ public class LoadEntryInst extends LoadInst {
 	    throw new IllegalArgumentException("Bad source operand '" +
 					       source + "' in LoadEntryInst.setSource; " +
 					       "must be a legal variable or string constant");
-	this.source = source;
+	putUse(0, source);
     }
 
     /** Get the index
       * @return index
       * */
     public String getIndex() {
-	return index;
+	return getUse(1);
     }
 
     /** Set the index
@@ -112,7 +109,19 @@ public class LoadEntryInst extends LoadInst {
 						   idx + "' in LoadEntryInst.setIndex; " +
 						   "must be non-negative");
 	}
-	this.index = index;
+	putUse(1, index);
+    }
+
+    /** Set the nth used operand (see getUses)
+      * @param n index of the operand
+      * @param operand new operand
+      * */
+    public void setUse(int n, String operand) {
+	checkUse(n);
+	if (n == 0)
+	    setSource(operand);
+	else
+	    setIndex(operand);
     }
 
     /** Compares this object with the parameter object
@@ -123,9 +132,9 @@ public class LoadEntryInst extends LoadInst {
 	if (!(o instanceof LoadEntryInst))
 	    return false;
 	LoadEntryInst inst = (LoadEntryInst)o;
-	if (!destination.equals(inst.getDestination()) ||
-	    !source.equals(inst.getSource()) ||
-	    !index.equals(inst.getIndex()))
+	if (!getDestination().equals(inst.getDestination()) ||
+	    !getSource().equals(inst.getSource()) ||
+	    !getIndex().equals(inst.getIndex()))
 	    return false;
 	return true;
     }
@@ -135,6 +144,6 @@ public class LoadEntryInst extends LoadInst {
       * @return string representation of three address code instruction (without comments)
       * */
     public String getString() {
-	return destination + " = " + source + "[" + index + "];";
+	return getDestination() + " = " + getSource() + "[" + getIndex() + "];";
     }
 }
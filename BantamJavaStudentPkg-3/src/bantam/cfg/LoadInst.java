@@ -36,12 +36,6 @@ package bantam.cfg;
   * @author Marc Corliss and Lori Pietraszek
   * */
 public abstract class LoadInst extends TACInst {
-    /** Destination variable */
-    protected String destination;
-
-    /** Source operand (type of source varies in different load instructions) */
-    protected String source;
-
     /** LoadInst constructor
       * @param opcode opcode of load instruction
       * @param destination destination variable
@@ -49,8 +43,8 @@ public abstract class LoadInst extends TACInst {
       * */
     public LoadInst(int opcode, String destination, String source) {
 	super(opcode);
-	this.destination = destination;
-	this.source = source;
+	putDef(destination);
+	putUses(source);
 
 	// some error checking
 
@@ -67,7 +61,7 @@ public abstract class LoadInst extends TACInst {
       * @return destination operand
       * */
     public String getDestination() {
-	return destination;
+	return getDef();
     }
 
     /** Set the destination operand variable
@@ -78,14 +72,14 @@ public abstract class LoadInst extends TACInst {
 	    throw new IllegalArgumentException("Bad destination operand '" +
 					       destination + "' in LoadInst.setDestination; " +
 					       "must be a legal variable");
-	this.destination = destination;
+	putDef(destination);
     }
 
     /** Get the source operand
       * @return source operand
       * */
     public String getSource() {
-	return source;
+	return getUse(0);
     }
 
     /** Set the source operand
@@ -93,6 +87,22 @@ public abstract class LoadInst extends TACInst {
       * */
     public abstract void setSource(String source);
 
+    /** Set the variable defined by this instruction
+      * @param var new defined variable
+      * */
+    public void setDef(String var) {
+	setDestination(var);
+    }
+
+    /** Set the nth used operand (see getUses)
+      * @param n index of the operand
+      * @param operand new operand
+      * */
+    public void setUse(int n, String operand) {
+	checkUse(n);
+	setSource(operand);
+    }
+
     /** Compares this object with the parameter object
       * @param o object to compare the reference object with
       * @return boolean indicating whether the objects are equivalent
@@ -101,8 +111,8 @@ public abstract class LoadInst extends TACInst {
 	if (!(o instanceof LoadInst))
 	    return false;
 	LoadInst inst = (LoadInst)o;
-	if (!destination.equals(inst.getDestination()) ||
-	    !source.equals(inst.getSource()))
+	if (!getDestination().equals(inst.getDestination()) ||
+	    !getSource().equals(inst.getSource()))
 	    return false;
 	return true;
     }
@@ -112,6 +122,6 @@ public abstract class LoadInst extends TACInst {
       * @return string representation of three address code instruction (without comments)
       * */
     public String getString() {
-	return destination + " = " + source + ";";
+	return getDestination() + " = " + getSource() + ";";
     }
 }
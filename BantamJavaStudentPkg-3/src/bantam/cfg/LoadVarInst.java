@@ -65,6 +65,6 @@ public class LoadVarInst extends LoadInst {
 	    throw new IllegalArgumentException("Bad source operand '" +
 					       source + "' in LoadVarInst.setSource; " +
 					       "must be a legal variable");
-	this.source = source;
+	putUse(0, source);
     }
 }
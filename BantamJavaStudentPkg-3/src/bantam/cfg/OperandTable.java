@@ -0,0 +1,243 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.cfg;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/** A class representing the table of operands of one subroutine
+  * (control flow graph).  Each distinct operand string (variable or
+  * constant) is interned once, which classifies it, and gets a dense
+  * integer identifier, so that analyses can index arrays and bit sets
+  * with operands instead of hashing strings.  Identifiers are never
+  * reused, so they stay valid while the subroutine is transformed.
+  * An SSA version of a variable (e.g., x@l.2) has the kind of the
+  * variable it versions, its base (see getBase).
+  *
+  * Instructions are numbered with a table by
+  * BasicBlock.numberOperands (see TACInst.getDefId and
+  * TACInst.getUseIds).
+  * */
+public class OperandTable {
+    /* Variable kinds */
+    /** The 'this' variable */
+    public static final int THIS = 0;
+    /** Parameter (x@p) */
+    public static final int PARAM = 1;
+    /** Local variable (x@l) */
+    public static final int LOCAL = 2;
+    /** Field of 'this' (x@f_C) */
+    public static final int FIELD = 3;
+    /** Compiler-generated temporary (@tN or @oN) */
+    public static final int TEMP = 4;
+
+    /* Constant kinds */
+    /** Int constant */
+    public static final int INT_CONST = 5;
+    /** Boolean constant */
+    public static final int BOOL_CONST = 6;
+    /** String constant */
+    public static final int STR_CONST = 7;
+    /** The null constant */
+    public static final int NULL_CONST = 8;
+
+    /** Identifiers by operand string */
+    private HashMap<String, Integer> ids = new HashMap<String, Integer>();
+
+    /** Operand strings by identifier */
+    private String[] names = new String[16];
+
+    /** Operand kinds by identifier */
+    private byte[] kinds = new byte[16];
+
+    /** Base variables by identifier (the operand itself unless it is an
+      * SSA version) */
+    private int[] bases = new int[16];
+
+    /** Registers of the variables by identifier (see setRegister) */
+    private int[] registers = new int[16];
+
+    /** Number of operands */
+    private int size;
+
+    /** OperandTable constructor
+      * */
+    public OperandTable() {
+	Arrays.fill(registers, -1);
+    }
+
+    /** Intern an operand, classifying it the first time it is seen
+      * Throws exception if the string is not a legal variable or constant
+      * @param operand variable or constant
+      * @return identifier of the operand
+      * */
+    public int intern(String operand) {
+	Integer id = ids.get(operand);
+	if (id != null)
+	    return id;
+	// (the same names, e.g., @t0 or this, recur in every subroutine)
+	operand = operand.intern();
+	int base = -1, kind;
+	int dot = operand.lastIndexOf('.');
+	if (dot >= 0 && TACInst.checkVar(operand)) {
+	    base = intern(operand.substring(0, dot));
+	    kind = kinds[base];
+	}
+	else
+	    kind = classify(operand);
+	if (size == names.length) {
+	    names = Arrays.copyOf(names, size * 2);
+	    kinds = Arrays.copyOf(kinds, size * 2);
+	    bases = Arrays.copyOf(bases, size * 2);
+	    registers = Arrays.copyOf(registers, size * 2);
+	    Arrays.fill(registers, size, size * 2, -1);
+	}
+	names[size] = operand;
+	kinds[size] = (byte)kind;
+	bases[size] = (base < 0) ? size : base;
+	ids.put(operand, size);
+	return size++;
+    }
+
+    /** Look up an operand without interning it
+      * @param operand variable or constant
+      * @return identifier of the operand (-1 if not interned)
+      * */
+    public int lookup(String operand) {
+	Integer id = ids.get(operand);
+	return (id == null) ? -1 : id;
+    }
+
+    /** Get the number of operands interned so far (identifiers are
+      * 0 to size-1)
+      * @return number of operands
+      * */
+    public int size() {
+	return size;
+    }
+
+    /** Get the string of an operand
+      * @param id identifier of the operand
+      * @return operand string
+      * */
+    public String getName(int id) {
+	return names[id];
+    }
+
+    /** Get the kind of an operand
+      * @param id identifier of the operand
+      * @return kind (THIS, PARAM, LOCAL, FIELD, TEMP, INT_CONST,
+      * BOOL_CONST, STR_CONST, or NULL_CONST)
+      * */
+    public int getKind(int id) {
+	return kinds[id];
+    }
+
+    /** Get the base variable of an operand
+      * @param id identifier of the operand
+      * @return identifier of the variable an SSA version versions
+      * (the operand itself otherwise)
+      * */
+    public int getBase(int id) {
+	return bases[id];
+    }
+
+    /** Is this operand a variable?
+      * @param id identifier of the operand
+      * @return flag indicating whether variable
+      * */
+    public boolean isVar(int id) {
+	return kinds[id] <= TEMP;
+    }
+
+    /** Is this operand a constant?
+      * @param id identifier of the operand
+      * @return flag indicating whether constant
+      * */
+    public boolean isConst(int id) {
+	return kinds[id] >= INT_CONST;
+    }
+
+    /** Get the value of an int constant
+      * @param id identifier of the operand (must be an int constant)
+      * @return value
+      * */
+    public int getIntValue(int id) {
+	if (kinds[id] != INT_CONST)
+	    throw new IllegalArgumentException("Operand '" + names[id] +
+					       "' is not an int constant");
+	return Integer.parseInt(names[id]);
+    }
+
+    /** Record the register allocated to a variable (see the register
+      * allocators of bantam.opt).  Registers are numbered for the code
+      * generator: the caller-saved registers first, then the
+      * callee-saved ones (see Optimizer.NUM_CALLER_SAVED).
+      * @param id identifier of the variable
+      * @param register register number (-1 to keep the variable in memory)
+      * */
+    public void setRegister(int id, int register) {
+	registers[id] = register;
+    }
+
+    /** Get the register allocated to a variable
+      * @param id identifier of the operand
+      * @return register number (-1 if the operand is kept in memory or
+      * no register was allocated)
+      * */
+    public int getRegister(int id) {
+	return registers[id];
+    }
+
+    /** Classify an operand
+      * Throws exception if the string is not a legal variable or constant
+      * @param operand variable or constant
+      * @return kind of the operand
+      * */
+    private static int classify(String operand) {
+	if (TACInst.checkIntConst(operand))
+	    return INT_CONST;
+	if (TACInst.checkBoolConst(operand))
+	    return BOOL_CONST;
+	if (TACInst.checkStrConst(operand))
+	    return STR_CONST;
+	if (operand.equals("null"))
+	    return NULL_CONST;
+	if (!TACInst.checkVar(operand))
+	    throw new IllegalArgumentException("Bad operand '" + operand +
+					       "' in OperandTable.intern; " +
+					       "must be a legal variable or constant");
+	if (operand.equals("this"))
+	    return THIS;
+	if (operand.charAt(0) == '@')
+	    return TEMP;
+	if (operand.endsWith("@p"))
+	    return PARAM;
+	if (operand.endsWith("@l"))
+	    return LOCAL;
+	return FIELD;
+    }
+}
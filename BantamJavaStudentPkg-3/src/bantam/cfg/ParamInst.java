@@ -38,9 +38,6 @@ public abstract class ParamInst extends TACInst {
     /** Type of the parameter (e.g., "stdparam", "refparam", errparam") */
     protected String paramType;
 
-    /** Source operand holding result of the actual parameter expression */
-    protected String source;
-
     /** ParamInst constructor
       * @param opcode opcode of load instruction
       * @param paramType type of the parameter (e.g., "stdparam", "refparam", errparam")
@@ -49,7 +46,7 @@ public abstract class ParamInst extends TACInst {
     public ParamInst(int opcode, String paramType, String source) {
 	super(opcode);
 	this.paramType = paramType;
-	this.source = source;
+	putUses(source);
 
 	// some error checking
 
@@ -64,7 +61,7 @@ public abstract class ParamInst extends TACInst {
       * @return source operand
       * */
     public String getSource() {
-	return source;
+	return getUse(0);
     }
 
     /** Set the source operand (result of parameter expression)
@@ -75,7 +72,7 @@ public abstract class ParamInst extends TACInst {
 	    throw new IllegalArgumentException("Bad source operand '" +
 					       source + "' in ParamInst constructor; " +
 					       "must be a legal variable or constant");
-	this.source = source;
+	putUse(0, source);
     }
 
     /** Get the parameter type (e.g., "stdparam", "refparam", errparam")
@@ -85,6 +82,15 @@ public abstract class ParamInst extends TACInst {
 	return paramType;
     }
 
+    /** Set the nth used operand (see getUses)
+      * @param n index of the operand
+      * @param operand new operand
+      * */
+    public void setUse(int n, String operand) {
+	checkUse(n);
+	setSource(operand);
+    }
+
     /** Compares this object with the parameter object
       * @param o object to compare the reference object with
       * @return boolean indicating whether the objects are equivalent
@@ -94,7 +100,7 @@ public abstract class ParamInst extends TACInst {
 	    return false;
 	ParamInst inst = (ParamInst)o;
 	if (opcode != inst.getOpcode() || 
-	    !source.equals(inst.getSource()))
+	    !getSource().equals(inst.getSource()))
 	    return false;
 	return true;
     }
@@ -104,6 +110,6 @@ public abstract class ParamInst extends TACInst {
       * @return string representation of three address code instruction (without comments)
       * */
     public String getString() {
-	return paramType + " " + source + ";";
+	return paramType + " " + getSource() + ";";
     }
 }
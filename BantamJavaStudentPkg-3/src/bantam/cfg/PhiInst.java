@@ -0,0 +1,225 @@
+/* Bantam Java Compiler and Language Toolset.
+
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and 
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following 
+   conditions:
+
+     You may make copies of the toolset for your own use and 
+     modify those copies.
+
+     All copies of the toolset must retain the author names and 
+     copyright notice.
+
+     You may not sell the toolset or distribute it in 
+     conjunction with a commerical product or service without 
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS 
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE 
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A 
+   PARTICULAR PURPOSE. 
+*/
+
+package bantam.cfg;
+
+import java.util.Arrays;
+import java.util.Vector;
+
+/** A class representing a phi instruction (PhiInst), which only
+  * appears in static single assignment (SSA) form.  A phi instruction
+  * at the start of a block assigns its destination variable the
+  * source operand of the predecessor block control came from.  It
+  * consists of a destination variable and one source operand (variable
+  * or constant) per predecessor block.  From TACInst it also inherits
+  * an opcode (PHI).
+  * */
+public class PhiInst extends TACInst {
+    /** Predecessor blocks (parallel to the sources, which are the used
+      * operands -- see getUses) */
+    private Vector<BasicBlock> preds = new Vector<BasicBlock>();
+
+    /** PhiInst constructor (without sources, see addSource)
+      * @param destination destination variable
+      * */
+    public PhiInst(String destination) {
+	super(TACInst.PHI);
+	putDef(destination);
+
+	// check that destination is valid variable
+	if (!TACInst.checkVar(destination))
+	    throw new IllegalArgumentException("Bad destination operand '" +
+					       destination + "' in PhiInst constructor; " +
+					       "must be a legal variable");
+    }
+
+    /** Get the destination variable
+      * @return destination variable
+      * */
+    public String getDestination() {
+	return getDef();
+    }
+
+    /** Set the destination variable
+      * @param destination new destination variable
+      * */
+    public void setDestination(String destination) {
+	if (!TACInst.checkVar(destination))
+	    throw new IllegalArgumentException("Bad destination operand '" +
+					       destination + "' in PhiInst.setDestination; " +
+					       "must be a legal variable");
+	putDef(destination);
+    }
+
+    /** Add the source operand for a predecessor block
+      * Throws exception if the block already has a source
+      * @param pred predecessor block
+      * @param source source operand (variable or constant)
+      * */
+    public void addSource(BasicBlock pred, String source) {
+	if (preds.contains(pred))
+	    throw new IllegalArgumentException("Predecessor " + pred +
+					       " already has a source in PhiInst.addSource");
+	checkSource(source, "addSource");
+	String[] sources = Arrays.copyOf(getUses(), preds.size() + 1);
+	sources[preds.size()] = source;
+	preds.add(pred);
+	putUses(sources);
+    }
+
+    /** Remove the source operand of a predecessor block (if any)
+      * @param pred predecessor block
+      * */
+    public void removeSource(BasicBlock pred) {
+	int n = preds.indexOf(pred);
+	if (n < 0)
+	    return;
+	String[] sources = getUses();
+	String[] rest = new String[sources.length - 1];
+	System.arraycopy(sources, 0, rest, 0, n);
+	System.arraycopy(sources, n + 1, rest, n, rest.length - n);
+	preds.removeElementAt(n);
+	putUses(rest);
+    }
+
+    /** Get the number of source operands
+      * @return number of sources
+      * */
+    public int getNumSources() {
+	return preds.size();
+    }
+
+    /** Get the nth predecessor block
+      * @param n index of the source
+      * @return predecessor block
+      * */
+    public BasicBlock getNthPred(int n) {
+	return preds.elementAt(n);
+    }
+
+    /** Get the nth source operand
+      * @param n index of the source
+      * @return source operand
+      * */
+    public String getNthSource(int n) {
+	return getUse(n);
+    }
+
+    /** Get the source operand of a predecessor block
+      * @param pred predecessor block
+      * @return source operand (null if the block has none)
+      * */
+    public String getSource(BasicBlock pred) {
+	int n = preds.indexOf(pred);
+	return (n < 0) ? null : getUse(n);
+    }
+
+    /** Set the source operand of a predecessor block
+      * Throws exception if the block has no source
+      * @param pred predecessor block
+      * @param source new source operand
+      * */
+    public void setSource(BasicBlock pred, String source) {
+	int n = preds.indexOf(pred);
+	if (n < 0)
+	    throw new IllegalArgumentException("Predecessor " + pred +
+					       " has no source in PhiInst.setSource");
+	setUse(n, source);
+    }
+
+    /** Replace a predecessor block (e.g., when an edge is split)
+      * @param oldPred old predecessor block
+      * @param newPred new predecessor block
+      * */
+    public void replacePred(BasicBlock oldPred, BasicBlock newPred) {
+	int n = preds.indexOf(oldPred);
+	if (n >= 0)
+	    preds.set(n, newPred);
+    }
+
+    /** Check that a source operand is valid
+      * Throws exception if not
+      * @param source source operand
+      * @param method name of the calling method (for the error message)
+      * */
+    private static void checkSource(String source, String method) {
+	if (!TACInst.checkVar(source) && !TACInst.checkConst(source))
+	    throw new IllegalArgumentException("Bad source operand '" +
+					       source + "' in PhiInst." + method + "; " +
+					       "must be a legal variable or constant");
+    }
+
+    /** Set the variable defined by this instruction
+      * @param var new defined variable
+      * */
+    public void setDef(String var) {
+	setDestination(var);
+    }
+
+    /** Set the nth used operand (see getUses)
+      * @param n index of the operand
+      * @param operand new operand
+      * */
+    public void setUse(int n, String operand) {
+	checkUse(n);
+	checkSource(operand, "setUse");
+	putUse(n, operand);
+    }
+
+    /** Compares this object with the parameter object
+      * @param o object to compare the reference object with
+      * @return boolean indicating whether the objects are equivalent
+      * */
+    public boolean equals(Object o) {
+	if (!(o instanceof PhiInst))
+	    return false;
+	PhiInst inst = (PhiInst)o;
+	return getDestination().equals(inst.getDestination()) &&
+	    preds.equals(inst.preds) && Arrays.equals(getUses(), inst.getUses());
+    }
+
+    /** Get the hash code of this object (consistent with equals)
+      * @return hash code of the destination, predecessors and sources
+      * */
+    public int hashCode() {
+	return (getDestination().hashCode() * 31 + preds.hashCode()) * 31 +
+	    Arrays.hashCode(getUses());
+    }
+
+    /** Get string representation of instruction (without comments)
+      * (note: in general, you want to use toString() to get instruction string)
+      * @return string representation of three address code instruction (without comments)
+      * */
+    public String getString() {
+	String result = getDestination() + " = phi(";
+	for (int i = 0; i < preds.size(); i++) {
+	    if (i > 0)
+		result += ", ";
+	    result += preds.elementAt(i) + ": " + getUse(i);
+	}
+	return result + ");";
+    }
+}
@@ -34,15 +34,13 @@ package bantam.cfg;
   * @author Marc Corliss and Lori Pietraszek
   * */
 public class ReturnInst extends TACInst {
-    /** Source operand holding result of the return expression (null if none) */
-    protected String source;
-
     /** ReturnInst constructor
       * @param source source operand holding result of the return expression
       * */
     public ReturnInst(String source) {
 	super(TACInst.RETN);
-	this.source = source;
+	if (source != null)
+	    putUses(source);
 
 	// some error checking
 
@@ -59,7 +57,7 @@ public class ReturnInst extends TACInst {
       * @return source operand
       * */
     public String getSource() {
-	return source;
+	return (getNumUses() == 0) ? null : getUse(0);
     }
 
     /** Set the soure operand (result of return expression, to null if none)
@@ -72,7 +70,19 @@ public class ReturnInst extends TACInst {
 						   source + "' in ReturnInst constructor; " +
 						   "must be a legal variable or constant");
 	}
-	this.source = source;
+	if (source == null)
+	    putUses();
+	else
+	    putUses(source);
+    }
+
+    /** Set the nth used operand (see getUses)
+      * @param n index of the operand
+      * @param operand new operand
+      * */
+    public void setUse(int n, String operand) {
+	checkUse(n);
+	setSource(operand);
     }
 
     /** Compares this object with the parameter object
@@ -83,7 +93,7 @@ public class ReturnInst extends TACInst {
 	if (!(o instanceof ReturnInst))
 	    return false;
 	ReturnInst inst = (ReturnInst)o;
-	if (!source.equals(inst.getSource()))
+	if (!getSource().equals(inst.getSource()))
 	    return false;
 	return true;
     }
@@ -93,6 +103,7 @@ public class ReturnInst extends TACInst {
       * @return string representation of three address code instruction (without comments)
       * */
     public String getString() {
+	String source = getSource();
 	if (source != null)
 	    return "retn " + source + ";";
 	return "retn;";
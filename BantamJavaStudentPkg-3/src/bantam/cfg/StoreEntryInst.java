@@ -37,15 +37,6 @@ package bantam.cfg;
   * @author Marc Corliss and Lori Pietraszek
   * */
 public class StoreEntryInst extends TACInst {
-    /** Destination operand, which must be indexable (e.g., object variable) */
-    protected String destination;
-
-    /** Source operand */
-    protected String source;
-
-    /** Index to store entry to in destination operand (either int variable or constant) */
-    private String index;
-
     /** StoreEntryInst constructor
       * @param destination destination operand (which must be indexable, e.g., an object variable)
       * @param source source operand
@@ -54,9 +45,9 @@ public class StoreEntryInst extends TACInst {
     public StoreEntryInst(String destination, String source, String index) {
 	super(TACInst.STENTRY);
 
-	this.destination = destination;
-	this.source = source;
-	this.index = index;
+	// (the stored-to operand is used, not defined, since only its
+	// entry is written)
+	putUses(destination, source, index);
 
 	// some error checking
 
@@ -95,7 +86,7 @@ public class StoreEntryInst extends TACInst {
       * @return destination operand
       * */
     public String getDestination() {
-	return destination;
+	return getUse(0);
     }
 
     /** Set the destination operand
@@ -106,14 +97,14 @@ public class StoreEntryInst extends TACInst {
 	    throw new IllegalArgumentException("Bad destination operand '" +
 					       destination + "' in StoreEntryInst.setDestination; " +
 					       "must be a legal variable or string constant");
-	this.destination = destination;
+	putUse(0, destination);
     }
 
     /** Get the source operand
       * @return source operand
       * */
     public String getSource() {
-	return source;
+	return getUse(1);
     }
 
     /** Set the source operand
@@ -124,14 +115,14 @@ public class StoreEntryInst extends TACInst {
 	    throw new IllegalArgumentException("Bad source operand '" +
 					       source + "' in StoreEntryInst.setSource; " +
 					       "must be a legal variable or constant");
-	this.source = source;
+	putUse(1, source);
     }
 
     /** Get the index
       * @return index
       * */
     public String getIndex() {
-	return index;
+	return getUse(2);
     }
 
     /** Set the index
@@ -150,7 +141,21 @@ public class StoreEntryInst extends TACInst {
 						   idx + "' in StoreEntryInst.setIndex; " +
 						   "must be non-negative");
 	}
-	this.index = index;
+	putUse(2, index);
+    }
+
+    /** Set the nth used operand (see getUses)
+      * @param n index of the operand
+      * @param operand new operand
+      * */
+    public void setUse(int n, String operand) {
+	checkUse(n);
+	if (n == 0)
+	    setDestination(operand);
+	else if (n == 1)
+	    setSource(operand);
+	else
+	    setIndex(operand);
     }
 
     /** Compares this object with the parameter object
@@ -161,9 +166,9 @@ public class StoreEntryInst extends TACInst {
 	if (!(o instanceof StoreEntryInst))
 	    return false;
 	StoreEntryInst inst = (StoreEntryInst)o;
-	if (!destination.equals(inst.getDestination()) ||
-	    !source.equals(inst.getSource()) ||
-	    !index.equals(inst.getIndex()))
+	if (!getDestination().equals(inst.getDestination()) ||
+	    !getSource().equals(inst.getSource()) ||
+	    !getIndex().equals(inst.getIndex()))
 	    return false;
 	return true;
     }
@@ -173,6 +178,6 @@ public class StoreEntryInst extends TACInst {
       * @return string representation of three address code instruction (without comments)
       * */
     public String getString() {
-	return destination + "[" + index + "] = " + source + ";";
+	return getDestination() + "[" + getIndex() + "] = " + getSource() + ";";
     }
 }
@@ -37,8 +37,13 @@ package bantam.cfg;
   * BinaryInst (which is extended by BinaryAddInst, BinarySubInst, 
   * BinaryMulInst, BinaryDivInst, BinaryModInst, BinaryAndInst, and 
   * BinaryOrInst).
-  * A TACInst contains an opcode and some comments associated with that 
-  * instruction.
+  * A TACInst contains an opcode, its operands (the variable it defines,
+  * if any, and the variables and constants it uses) and some comments
+  * associated with that instruction.
+  * Once the instruction is numbered (see number), its operands are held
+  * only as identifiers in the operand table of its subroutine, and their
+  * strings are derived from the table when they are asked for (e.g., for
+  * printing); until then they are held as strings.
   * 
   * @author Marc Corliss and Lori Pietraszek
   * */
@@ -98,8 +103,12 @@ abstract public class TACInst {
     /** Binary (boolean) OR opcode */
     public static final int BINOR = 20;
 
+    /* SSA operations */
+    /** Phi opcode (selects a source by predecessor block, only in SSA form) */
+    public static final int PHI = 21;
+
     /** Number of instruction types */
-    public static final int NUM_INSN_TYPES = 21;
+    public static final int NUM_INSN_TYPES = 22;
 
     /** Instruction operation */
     protected int opcode;
@@ -107,6 +116,26 @@ abstract public class TACInst {
     /** Comments for instruction */
     protected String comments = "";
 
+    /** Empty operand list */
+    protected static final String[] NO_OPERANDS = new String[0];
+
+    /** Empty operand identifier list */
+    private static final int[] NO_IDS = new int[0];
+
+    /** Defined variable (null if none) and used operands, while the
+      * instruction is not numbered (both null once it is) */
+    private String def;
+    private String[] uses = NO_OPERANDS;
+
+    /** Operand table the operand identifiers refer to (null if not numbered) */
+    private OperandTable operands;
+
+    /** Identifier of the defined variable (-1 if none) */
+    private int defId = -1;
+
+    /** Identifiers of the used operands (null if not numbered) */
+    private int[] useIds;
+
     /** TACInst constructor
       * @param opcode opcode of instruction
       * */
@@ -176,6 +205,13 @@ abstract public class TACInst {
 	return (this instanceof BinaryInst);
     }
 
+    /** Is this a phi instruction?
+      * @return flag indicating whether phi
+      * */
+    public boolean isPhi() {
+	return (this instanceof PhiInst);
+    }
+
     /** Get opcode of instruction
       * @return opcode 
       * */
@@ -264,8 +300,9 @@ abstract public class TACInst {
     public void addComment(String comment) {
 	// is this the first comment?
 	if (comments.equals(""))
-	    // if so set comments to this comment
-	    comments = " # " + comment;
+	    // if so set comments to this comment (interned, since many
+	    // instructions share the same one)
+	    comments = (" # " + comment).intern();
 	// otherwise, multi-line comment
 	else {
 	    // for multi-line comments we need to align comments properly
@@ -303,7 +340,7 @@ abstract public class TACInst {
 	return false;
     }
 
-    /** Check that a variable name is legal
+    /** Check that a variable name is legal (including SSA versions, e.g., x@l.2)
       * @param var variable to check
       * @return boolean indicating whether variable is legal
       * */
@@ -312,6 +349,18 @@ abstract public class TACInst {
 	if (var == null || var.length() < 3)
 	    return false;
 
+	// an SSA version of a variable appends '.' and a version number
+	int dot = var.lastIndexOf('.');
+	if (dot >= 0) {
+	    if (dot == var.length()-1)
+		return false;
+	    for (int i = dot+1; i < var.length(); i++)
+		if (var.charAt(i) < '0' || var.charAt(i) > '9')
+		    return false;
+	    String base = var.substring(0, dot);
+	    return base.indexOf('.') < 0 && checkVar(base);
+	}
+
 	if (var.equals("this"))
 	    return true;
 
@@ -459,6 +508,170 @@ abstract public class TACInst {
 	return true;
     }
 
+    /** Get the variable defined (written) by this instruction
+      * @return defined variable (null if none)
+      * */
+    public String getDef() {
+	if (operands == null)
+	    return def;
+	return (defId < 0) ? null : operands.getName(defId);
+    }
+
+    /** Get the operands used (read) by this instruction, i.e., the
+      * variables and constants that are not labels or the destination
+      * @return used operands (in operand order, possibly with duplicates)
+      * */
+    public String[] getUses() {
+	int n = getNumUses();
+	if (n == 0)
+	    return NO_OPERANDS;
+	String[] result = new String[n];
+	for (int i = 0; i < n; i++)
+	    result[i] = getUse(i);
+	return result;
+    }
+
+    /** Get the number of operands used by this instruction (see getUses)
+      * @return number of used operands
+      * */
+    public int getNumUses() {
+	return (operands == null) ? uses.length : useIds.length;
+    }
+
+    /** Get the nth operand used by this instruction (see getUses)
+      * @param n index of the operand
+      * @return used operand
+      * */
+    public String getUse(int n) {
+	if (operands == null)
+	    return uses[n];
+	return operands.getName(useIds[n]);
+    }
+
+    /** Set the variable defined by this instruction (overridden by
+      * instructions that define a variable)
+      * Throws exception if the instruction defines no variable
+      * @param var new defined variable
+      * */
+    public void setDef(String var) {
+	throw new IllegalArgumentException("Instruction '" + getString() +
+					   "' defines no variable");
+    }
+
+    /** Set the nth operand used by this instruction (see getUses;
+      * overridden by instructions that use operands)
+      * Throws exception if the instruction has no such operand
+      * @param n index of the operand
+      * @param operand new operand
+      * */
+    public void setUse(int n, String operand) {
+	checkUse(n);
+    }
+
+    /** Check that this instruction has an nth used operand
+      * Throws exception if not
+      * @param n index of the operand
+      * */
+    protected void checkUse(int n) {
+	if (n < 0 || n >= getNumUses())
+	    throw new IllegalArgumentException("Instruction '" + getString() +
+					       "' has no used operand " + n);
+    }
+
+    /** Store the defined variable (called by the constructors and
+      * setters of subclasses, which check it)
+      * @param var defined variable (null if none)
+      * */
+    protected void putDef(String var) {
+	if (operands == null)
+	    def = var;
+	else
+	    defId = (var == null) ? -1 : operands.intern(var);
+    }
+
+    /** Store the used operands (called by the constructors and setters
+      * of subclasses, which check them)
+      * @param uses used operands (the array is kept until numbered)
+      * */
+    protected void putUses(String... uses) {
+	if (operands == null) {
+	    this.uses = uses;
+	    return;
+	}
+	useIds = (uses.length == 0) ? NO_IDS : new int[uses.length];
+	for (int i = 0; i < uses.length; i++)
+	    useIds[i] = operands.intern(uses[i]);
+    }
+
+    /** Store the nth used operand (called by the setters of subclasses,
+      * which check it)
+      * @param n index of the operand
+      * @param operand used operand
+      * */
+    protected void putUse(int n, String operand) {
+	if (operands == null)
+	    uses[n] = operand;
+	else {
+	    // (copied, since getUseIds hands out the array)
+	    useIds = useIds.clone();
+	    useIds[n] = operands.intern(operand);
+	}
+    }
+
+    /** Number the operands of this instruction with an operand table,
+      * interning them, after which they are only held as identifiers
+      * (an instruction moved from another subroutine is renumbered with
+      * the table of its new one)
+      * @param operands operand table of the enclosing subroutine
+      * */
+    public void number(OperandTable operands) {
+	if (this.operands == operands)
+	    return;
+	String var = getDef();
+	String[] used = getUses();
+	this.operands = operands;
+	def = null;
+	uses = null;
+	putDef(var);
+	putUses(used);
+    }
+
+    /** Get the operand table this instruction is numbered with
+      * @return operand table (null if not numbered)
+      * */
+    public OperandTable getOperandTable() {
+	return operands;
+    }
+
+    /** Get the identifier of the variable defined by this instruction
+      * Throws exception if the instruction has not been numbered
+      * @return identifier of defined variable (-1 if none)
+      * */
+    public int getDefId() {
+	checkNumbered();
+	return defId;
+    }
+
+    /** Get the identifiers of the operands used by this instruction
+      * (parallel to getUses; the array must not be modified)
+      * Throws exception if the instruction has not been numbered
+      * @return identifiers of used operands
+      * */
+    public int[] getUseIds() {
+	checkNumbered();
+	return useIds;
+    }
+
+    /** Check that this instruction has been numbered
+      * Throws exception if not
+      * */
+    private void checkNumbered() {
+	if (operands == null)
+	    throw new RuntimeException("Instruction '" + getString() +
+				       "' has not been numbered; " +
+				       "use BasicBlock.numberOperands");
+    }
+
     /** Compares this object with the parameter object
       * @param o object to compare the reference object with
       * @return boolean indicating whether the objects are equivalent
@@ -61,6 +61,6 @@ public class UnaryNegInst extends UnaryInst {
 	    throw new IllegalArgumentException("Bad source operand '" +
 					       source + "' in UnaryNegInst.setSource; " +
 					       "must be a legal variable or int constant");
-	this.source = source;
+	putUse(0, source);
     }
 }
@@ -61,6 +61,6 @@ public class UnaryNotInst extends UnaryInst {
 	    throw new IllegalArgumentException("Bad source operand '" +
 					       source + "' in UnaryNotInst.setSource; " +
 					       "must be a legal variable or boolean constant");
-	this.source = source;
+	putUse(0, source);
     }
 }
@@ -36,6 +36,9 @@
 
 package bantam.codegenmips;
 
+import bantam.cfg.BasicBlock;
+import bantam.cfg.OperandTable;
+import bantam.opt.Optimizer;
 import bantam.util.ClassTreeNode;
 
 import java.io.PrintStream;
@@ -54,6 +57,10 @@ import static sun.swing.MenuItemLayoutHelper.max;
  * under SPIM.
  * <p/>
  * This class is incomplete and will need to be implemented by the student.
+ * It generates the data section and the subroutine labels, but no
+ * subroutine bodies: nothing uses the registers that the optimizer
+ * (bantam.opt.RegisterAllocator) allocates to the variables, nor saves
+ * the callee-saved ones.
  */
 public class MipsCodeGenerator {
     /**
@@ -329,6 +336,9 @@ public class MipsCodeGenerator {
     private void generateClassInits() {
         for(String class_ : this.classNames.keySet()) {
             this.assemblySupport.genLabel(class_ + "_init");
+            if (opt && debug) {
+                generateRegisterComments(class_, class_ + "_init");
+            }
         }
     }
 
@@ -342,7 +352,65 @@ public class MipsCodeGenerator {
             for(String method : this.classMethods.get(class_)) {
                 String label = class_ + "." + method;
                 this.assemblySupport.genLabel(label);
+                if (opt && debug) {
+                    generateRegisterComments(class_, label);
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates comments (when debugging) listing the registers the
+     * optimizer allocated to the variables of a subroutine (see
+     * bantam.opt.RegisterAllocator), followed by the callee-saved
+     * registers its prologue would have to save.  The allocator never
+     * leaves a caller-saved register live across a call, so there would
+     * be nothing to save around genDirCall and genInDirCall.  Since the
+     * bodies of the subroutines are not generated yet, this listing is
+     * only for inspecting the allocation: no code loads, stores, or saves
+     * these registers.
+     * @param className name of the class of the subroutine
+     * @param label label of the subroutine
+     */
+    private void generateRegisterComments(String className, String label) {
+        // the optimizer registers the control flow graph of each
+        // subroutine in the method symbol table of its class
+        ClassTreeNode ctn = root.lookupClass(className);
+        Object entrance = ctn.getMethodSymbolTable().lookup(label);
+        if (!(entrance instanceof BasicBlock) ||
+                ((BasicBlock) entrance).getOperandTable() == null) {
+            return;
+        }
+
+        OperandTable operands = ((BasicBlock) entrance).getOperandTable();
+        Set<String> saved = new TreeSet<>();
+        for (int id = 0; id < operands.size(); id++) {
+            int reg = operands.getRegister(id);
+            if (reg >= 0) {
+                assemblySupport.genComment(operands.getName(id) + " in " + getRegister(reg));
+                if (reg >= Optimizer.NUM_CALLER_SAVED) {
+                    saved.add(getRegister(reg));
+                }
             }
         }
+        if (!saved.isEmpty()) {
+            assemblySupport.genComment("callee-saved: " + String.join(" ", saved));
+        }
+    }
+
+    /**
+     * Gets the name of a register allocated by the optimizer
+     * @param reg register number (see OperandTable.setRegister): the
+     *            caller-saved registers first, then the callee-saved ones
+     * @return register name
+     */
+    private String getRegister(int reg) {
+        String[] registers = {
+                assemblySupport.getT0Reg(), assemblySupport.getT1Reg(),
+                assemblySupport.getT2Reg(), assemblySupport.getT3Reg(),
+                assemblySupport.getS0Reg(), assemblySupport.getS1Reg(),
+                assemblySupport.getS2Reg(), assemblySupport.getS3Reg()
+        };
+        return registers[reg];
     }
 }
@@ -0,0 +1,88 @@
+package bantam.interp;
+
+/** The <tt>Budget</tt> class enforces the limits of one run of a
+  * program: an instruction budget and a wall-clock timeout (0 disables
+  * a limit; the size of the heap is limited by <tt>Heap</tt>).  Every run
+  * has its own budget, so runs on different threads never share mutable
+  * state.
+  *
+  * Instructions are counted in steps: every method call and every loop
+  * iteration (backward branch in the VM and in compiled code) is one
+  * step, which bounds the work of the run because the code between two
+  * steps is straight-line.  Counting is a decrement of a countdown; the
+  * budget and the clock are only checked when it reaches zero, every
+  * CHECK_INTERVAL steps (or sooner when the budget is nearly used up).
+  * */
+final class Budget {
+    /** Number of steps between checks of the limits */
+    static final int CHECK_INTERVAL = 4096;
+
+    /** Maximum number of steps (0 for no limit) */
+    private long maxSteps;
+
+    /** Timeout in nanoseconds (0 for no limit) */
+    private long timeout;
+
+    /** Value of System.nanoTime() at which the run times out (valid once started) */
+    private long deadline;
+
+    /** Steps counted before the current countdown started */
+    private long steps;
+
+    /** Length of the current countdown */
+    private int interval = CHECK_INTERVAL;
+
+    /** Steps left before the next check */
+    private int countdown = CHECK_INTERVAL;
+
+    /** Set the limits of the run (0 disables a limit)
+      * @param maxSteps instruction budget in steps
+      * @param timeoutMillis wall-clock timeout in milliseconds
+      * */
+    void setLimits(long maxSteps, long timeoutMillis) {
+	this.maxSteps = maxSteps;
+	this.timeout = timeoutMillis * 1000000L;
+    }
+
+    /** Start the clock (called when the program starts running) */
+    void start() {
+	deadline = System.nanoTime() + timeout;
+	refill();
+    }
+
+    /** Count one step */
+    void step() {
+	if (--countdown <= 0) {
+	    check();
+	}
+    }
+
+    /** Count the finished countdown and check the limits */
+    private void check() {
+	steps += interval;
+	interval = 0;
+	if (maxSteps > 0 && steps >= maxSteps) {
+	    throw new LimitExceeded("instruction budget of " + maxSteps + " steps exhausted\n");
+	}
+	if (timeout > 0 && System.nanoTime() - deadline > 0) {
+	    throw new LimitExceeded("time limit of " + (timeout / 1000000) + " ms exceeded\n");
+	}
+	refill();
+    }
+
+    /** Start a new countdown (stopping exactly at the instruction budget) */
+    private void refill() {
+	interval = CHECK_INTERVAL;
+	if (maxSteps > 0 && maxSteps - steps < interval) {
+	    interval = (int) (maxSteps - steps);
+	}
+	countdown = interval;
+    }
+
+    /** Get the number of steps executed so far
+      * @return number of steps
+      * */
+    long getSteps() {
+	return steps + interval - countdown;
+    }
+}
@@ -0,0 +1,476 @@
+package bantam.interp;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/** The <tt>Builtins</tt> class implements the methods of the built-in
+  * classes (Object, String, TextIO, and Sys) following the semantics of
+  * the runtime system used by the compiled code (lib/exceptions.s).
+  * Each interpreter has its own instance, which owns the program's
+  * input and output streams, its open files, its random number
+  * generator state, its <tt>Heap</tt>, and the <tt>Budget</tt> that
+  * limits the run.
+  * */
+final class Builtins {
+    /** Built-in method ids */
+    static final int OBJECT_CLONE = 0;
+    static final int OBJECT_EQUALS = 1;
+    static final int OBJECT_TO_STRING = 2;
+    static final int STRING_LENGTH = 3;
+    static final int STRING_EQUALS = 4;
+    static final int STRING_TO_STRING = 5;
+    static final int STRING_SUBSTRING = 6;
+    static final int STRING_CONCAT = 7;
+    static final int TEXTIO_READ_STDIN = 8;
+    static final int TEXTIO_READ_FILE = 9;
+    static final int TEXTIO_WRITE_STDOUT = 10;
+    static final int TEXTIO_WRITE_STDERR = 11;
+    static final int TEXTIO_WRITE_FILE = 12;
+    static final int TEXTIO_GET_STRING = 13;
+    static final int TEXTIO_GET_INT = 14;
+    static final int TEXTIO_PUT_STRING = 15;
+    static final int TEXTIO_PUT_INT = 16;
+    static final int SYS_EXIT = 17;
+    static final int SYS_TIME = 18;
+    static final int SYS_RANDOM = 19;
+
+    /** Qualified names of the built-in methods, indexed by id */
+    private static final String[] NAMES = {
+	"Object.clone", "Object.equals", "Object.toString",
+	"String.length", "String.equals", "String.toString", "String.substring",
+	"String.concat",
+	"TextIO.readStdin", "TextIO.readFile", "TextIO.writeStdout", "TextIO.writeStderr",
+	"TextIO.writeFile", "TextIO.getString", "TextIO.getInt", "TextIO.putString",
+	"TextIO.putInt",
+	"Sys.exit", "Sys.time", "Sys.random"
+    };
+
+    /** Maximum number of characters read by getString() and getInt() */
+    private static final int MAX_LINE = 256;
+
+    /** Maximum length of a concatenated string */
+    private static final int MAX_CONCAT = 5000;
+
+    /** Standard input of the program */
+    private final InputStream in;
+
+    /** Standard output of the program */
+    private final PrintStream out;
+
+    /** Standard error of the program */
+    private final PrintStream err;
+
+    /** Files opened for reading, by file descriptor */
+    private final HashMap<Integer, InputStream> readFiles = new HashMap<Integer, InputStream>();
+
+    /** Files opened for writing, by file descriptor */
+    private final HashMap<Integer, PrintStream> writeFiles = new HashMap<Integer, PrintStream>();
+
+    /** Next file descriptor to hand out (0-2 are the standard streams) */
+    private int nextFD = 3;
+
+    /** Whether the program may open files */
+    private boolean fileAccess = true;
+
+    /** Last random number generated by Sys.random() */
+    private int random;
+
+    /** Pseudo addresses reported by Object.toString() */
+    private final IdentityHashMap<RuntimeValue, Integer> addresses =
+	new IdentityHashMap<RuntimeValue, Integer>();
+
+    /** Next pseudo address to hand out */
+    private int nextAddress = 0x10040000;
+
+    /** Limits of the run */
+    final Budget budget = new Budget();
+
+    /** Heap of the run (every object, string, and array is allocated here) */
+    final Heap heap = new Heap();
+
+    /** Profiler of the run (null when not profiling) */
+    Profiler profiler;
+
+    /** The String class (needed to create strings) */
+    private RuntimeClass stringClass;
+
+    /** Offsets of the readFD and writeFD fields of TextIO */
+    private int readFDOffset, writeFDOffset;
+
+    /** Builtins constructor
+      * @param in standard input of the program
+      * @param out standard output of the program
+      * @param err standard error of the program
+      * */
+    Builtins(InputStream in, PrintStream out, PrintStream err) {
+	this.in = in;
+	this.out = out;
+	this.err = err;
+	// the runtime seeds the generator with the current time
+	this.random = currentTime();
+    }
+
+    /** Get the id of a built-in method
+      * @param className name of the built-in class
+      * @param methodName name of the method
+      * @return method id
+      * */
+    static int getId(String className, String methodName) {
+	String qualifiedName = className + "." + methodName;
+	for (int i = 0; i < NAMES.length; i++) {
+	    if (NAMES[i].equals(qualifiedName)) {
+		return i;
+	    }
+	}
+	throw new RuntimeException("Internal error: unknown built-in method " + qualifiedName);
+    }
+
+    /** Set the built-in classes needed by the built-in methods
+      * @param stringClass the String class
+      * @param textIOClass the TextIO class
+      * */
+    void setClasses(RuntimeClass stringClass, RuntimeClass textIOClass) {
+	this.stringClass = stringClass;
+	this.readFDOffset = textIOClass.getFieldOffset("readFD");
+	this.writeFDOffset = textIOClass.getFieldOffset("writeFD");
+    }
+
+    /** Allow or deny opening files (see openReadFile and openWriteFile)
+      * @param fileAccess boolean indicating whether the program may open files
+      * */
+    void setFileAccess(boolean fileAccess) {
+	this.fileAccess = fileAccess;
+    }
+
+    /** Create a new string
+      * @param value character sequence
+      * @return the string object
+      * */
+    RuntimeString newString(String value) {
+	heap.reserve(Heap.stringSize(value.length()));
+	return heap.add(new RuntimeString(stringClass, value));
+    }
+
+    /** Create a string constant (static data, outside the heap)
+      * @param value character sequence
+      * @return the string object
+      * */
+    RuntimeString newConstant(String value) {
+	RuntimeString constant = new RuntimeString(stringClass, value);
+	constant.gcEpoch = -1;
+	return constant;
+    }
+
+    /** Report a run-time error on standard error (after any pending output)
+      * @param message formatted error message
+      * */
+    void reportError(String message) {
+	out.flush();
+	err.print(message);
+    }
+
+    /** Flush the standard streams and close any open files
+      * */
+    void close() {
+	out.flush();
+	err.flush();
+	for (InputStream file : readFiles.values()) {
+	    try {
+		file.close();
+	    } catch (IOException e) {
+		// nothing more can be done at exit
+	    }
+	}
+	for (PrintStream file : writeFiles.values()) {
+	    file.close();
+	}
+	readFiles.clear();
+	writeFiles.clear();
+    }
+
+    /** Invoke a built-in method
+      * @param id method id
+      * @param frame frame holding the receiver and the arguments (laid out
+      *        as for user-defined methods, see <tt>Frame</tt>); int and
+      *        boolean results are left in its intResult
+      * @param site call site (for error reporting)
+      * @return the reference result of the method (null for other methods)
+      * */
+    Object invoke(int id, Frame frame, SourceNode site) {
+	RuntimeValue self = frame.self;
+	// the only reference parameter of a built-in method is the first one
+	Object arg = (frame.refs.length > 1) ? frame.refs[1] : null;
+	int[] ints = frame.ints;
+	switch (id) {
+	    case OBJECT_CLONE:
+		return cloneValue(self);
+	    case OBJECT_EQUALS:
+		frame.intResult = (self == arg) ? 1 : 0;
+		return null;
+	    case OBJECT_TO_STRING:
+		return newString(self.getTypeName() + "@" + getAddress(self));
+	    case STRING_LENGTH:
+		frame.intResult = ((RuntimeString) self).value.length();
+		return null;
+	    case STRING_EQUALS:
+		checkArgument(arg, site);
+		frame.intResult = (arg instanceof RuntimeString &&
+				   ((RuntimeString) self).value.equals(((RuntimeString) arg).value))
+		    ? 1 : 0;
+		return null;
+	    case STRING_TO_STRING:
+		return self;
+	    case STRING_SUBSTRING:
+		return substring((RuntimeString) self, ints[0], ints[1], site);
+	    case STRING_CONCAT: {
+		checkArgument(arg, site);
+		String result = ((RuntimeString) self).value + ((RuntimeString) arg).value;
+		if (result.length() > MAX_CONCAT) {
+		    throw site.error("concatenated string too long (>5000)\n");
+		}
+		return newString(result);
+	    }
+	    case TEXTIO_READ_STDIN:
+		closeReadFile((RuntimeObject) self);
+		((RuntimeObject) self).ints[readFDOffset] = 0;
+		return null;
+	    case TEXTIO_READ_FILE:
+		openReadFile((RuntimeObject) self, arg, site);
+		return null;
+	    case TEXTIO_WRITE_STDOUT:
+		closeWriteFile((RuntimeObject) self);
+		((RuntimeObject) self).ints[writeFDOffset] = 1;
+		return null;
+	    case TEXTIO_WRITE_STDERR:
+		closeWriteFile((RuntimeObject) self);
+		((RuntimeObject) self).ints[writeFDOffset] = 2;
+		return null;
+	    case TEXTIO_WRITE_FILE:
+		openWriteFile((RuntimeObject) self, arg, site);
+		return null;
+	    case TEXTIO_GET_STRING: {
+		String line = readLine((RuntimeObject) self, site);
+		return (line == null) ? null : newString(line);
+	    }
+	    case TEXTIO_GET_INT:
+		frame.intResult = parseInt(readLine((RuntimeObject) self, site));
+		return null;
+	    case TEXTIO_PUT_STRING:
+		checkArgument(arg, site);
+		getWriteStream((RuntimeObject) self, site).print(((RuntimeString) arg).value);
+		return self;
+	    case TEXTIO_PUT_INT:
+		getWriteStream((RuntimeObject) self, site).print(ints[0]);
+		return self;
+	    case SYS_EXIT:
+		throw new ProgramExit(ints[0]);
+	    case SYS_TIME:
+		frame.intResult = currentTime();
+		return null;
+	    case SYS_RANDOM:
+		random = (random * 1103515245 + 12345) & 0x7fffffff;
+		frame.intResult = random;
+		return null;
+	    default:
+		throw new RuntimeException("Internal error: bad built-in method id " + id);
+	}
+    }
+
+    /** Clone an object, string, or array (shallow copy)
+      * @param self the value to clone
+      * @return the copy
+      * */
+    private RuntimeValue cloneValue(RuntimeValue self) {
+	heap.reserve(Heap.sizeOf(self));
+	if (self instanceof RuntimeString) {
+	    return heap.add(new RuntimeString(self.cls, ((RuntimeString) self).value));
+	}
+	else if (self instanceof RuntimeArray) {
+	    RuntimeArray array = (RuntimeArray) self;
+	    return heap.add(new RuntimeArray(array.cls, array.elementType, array.elementClass,
+					     (array.ints == null) ? null : array.ints.clone(),
+					     (array.refs == null) ? null : array.refs.clone()));
+	}
+	RuntimeObject object = (RuntimeObject) self;
+	return heap.add(new RuntimeObject(self.cls, object.ints.clone(), object.refs.clone()));
+    }
+
+    /** Get the pseudo address of a value (assigned on first use)
+      * @param value the value
+      * @return its address
+      * */
+    private int getAddress(RuntimeValue value) {
+	Integer address = addresses.get(value);
+	if (address == null) {
+	    address = nextAddress;
+	    addresses.put(value, address);
+	    nextAddress += 16;
+	}
+	return address;
+    }
+
+    /** Check that a string argument is not null
+      * @param arg the argument
+      * @param site call expression
+      * */
+    private void checkArgument(Object arg, SourceNode site) {
+	if (arg == null) {
+	    throw site.error("string argument is null\n");
+	}
+    }
+
+    /** String.substring() with the index checks of the runtime system
+      * (note: the beginning index must be strictly less than the length)
+      * */
+    private RuntimeString substring(RuntimeString self, int begin, int end, SourceNode site) {
+	String value = self.value;
+	int length = value.length();
+	if (begin < 0 || begin >= length || end < 0 || end > length || begin > end) {
+	    throw site.error("bad string index\n" +
+			     "Start index must be >= 0 and < string length\n" +
+			     "End index must be >= start index and <= string length\n" +
+			     "String: \"" + value + "\"\n" +
+			     "Length: " + length + ", start index: " + begin +
+			     ", end index: " + end + "\n");
+	}
+	return newString(value.substring(begin, end));
+    }
+
+    /** Open a file for reading, setting the readFD field */
+    private void openReadFile(RuntimeObject self, Object name, SourceNode site) {
+	closeReadFile(self);
+	checkArgument(name, site);
+	String filename = ((RuntimeString) name).value;
+	if (!fileAccess) {
+	    throw site.error("can't read from file '" + filename + "' (file access is disabled)\n");
+	}
+	try {
+	    InputStream file = new BufferedInputStream(new FileInputStream(filename));
+	    readFiles.put(nextFD, file);
+	    self.ints[readFDOffset] = nextFD++;
+	} catch (IOException e) {
+	    throw site.error("can't read from file '" + filename + "'\n");
+	}
+    }
+
+    /** Open a file for writing, setting the writeFD field */
+    private void openWriteFile(RuntimeObject self, Object name, SourceNode site) {
+	closeWriteFile(self);
+	checkArgument(name, site);
+	String filename = ((RuntimeString) name).value;
+	if (!fileAccess) {
+	    throw site.error("can't write to file '" + filename + "' (file access is disabled)\n");
+	}
+	try {
+	    PrintStream file = new PrintStream(
+		new BufferedOutputStream(new FileOutputStream(filename)), false);
+	    writeFiles.put(nextFD, file);
+	    self.ints[writeFDOffset] = nextFD++;
+	} catch (IOException e) {
+	    throw site.error("can't write to file '" + filename + "'\n");
+	}
+    }
+
+    /** Close the read file of a TextIO object (if it is not stdin) */
+    private void closeReadFile(RuntimeObject self) {
+	InputStream file = readFiles.remove(self.ints[readFDOffset]);
+	if (file != null) {
+	    try {
+		file.close();
+	    } catch (IOException e) {
+		// the file is no longer used
+	    }
+	}
+    }
+
+    /** Close the write file of a TextIO object (if it is not stdout/stderr) */
+    private void closeWriteFile(RuntimeObject self) {
+	PrintStream file = writeFiles.remove(self.ints[writeFDOffset]);
+	if (file != null) {
+	    file.close();
+	}
+    }
+
+    /** Get the stream a TextIO object writes to */
+    private PrintStream getWriteStream(RuntimeObject self, SourceNode site) {
+	int fd = self.ints[writeFDOffset];
+	if (fd == 1) {
+	    return out;
+	}
+	else if (fd == 2) {
+	    out.flush();
+	    return err;
+	}
+	PrintStream file = writeFiles.get(fd);
+	if (file == null) {
+	    throw site.error("I/O error while attempting to write\n");
+	}
+	return file;
+    }
+
+    /** Read a line (up to newline, end of file, or 256 characters) from
+      * the read file of a TextIO object
+      * @return the line without the newline (null at end of file)
+      * */
+    private String readLine(RuntimeObject self, SourceNode site) {
+	int fd = self.ints[readFDOffset];
+	InputStream stream;
+	if (fd == 0) {
+	    // make sure prompts are visible before blocking on input
+	    out.flush();
+	    stream = in;
+	}
+	else {
+	    stream = readFiles.get(fd);
+	    if (stream == null) {
+		throw site.error("I/O error while attempting to read\n");
+	    }
+	}
+	StringBuilder line = new StringBuilder();
+	try {
+	    while (line.length() < MAX_LINE) {
+		int c = stream.read();
+		if (c < 0) {
+		    return (line.length() == 0) ? null : line.toString();
+		}
+		if (c == '\n') {
+		    break;
+		}
+		line.append((char) c);
+	    }
+	} catch (IOException e) {
+	    throw site.error("I/O error while attempting to read\n");
+	}
+	return line.toString();
+    }
+
+    /** Convert a string to an int like the runtime system's _a2i
+      * (an optional '-' followed by digits, otherwise 0)
+      * */
+    private static int parseInt(String line) {
+	if (line == null) {
+	    return 0;
+	}
+	int i = 0;
+	boolean negative = false;
+	if (line.length() > 0 && line.charAt(0) == '-') {
+	    negative = true;
+	    i++;
+	}
+	int value = 0;
+	for (; i < line.length(); i++) {
+	    char c = line.charAt(i);
+	    if (c < '0' || c > '9') {
+		return 0;
+	    }
+	    value = value * 10 + (c - '0');
+	}
+	return negative ? -value : value;
+    }
+
+    /** Get the current time in seconds since 1970 UTC */
+    private static int currentTime() {
+	return (int) (System.currentTimeMillis() / 1000);
+    }
+}
@@ -0,0 +1,349 @@
+package bantam.interp;
+
+/** The <tt>Bytecode</tt> class defines the instruction set of the
+  * register VM (<tt>VM</tt>) and its encoding in the <tt>int[]</tt> code
+  * array of a <tt>CodeBlock</tt>.
+  *
+  * There are two register files per activation: int registers, which
+  * hold Bantam ints and booleans (0 or 1) unboxed, and reference
+  * registers.  Reference register 0 always holds 'this'.  The first
+  * word of an instruction packs the opcode (bits 0-7) with up to three
+  * register operands A, B, and C (bits 8-15, 16-23, and 24-31, so there
+  * are at most 256 registers of each kind); all other operands follow
+  * in one word each.  Operands are described by a format string with
+  * one character per operand:
+  *   I - int register          R - reference register
+  *   n - immediate int         k - constant pool index
+  *   f - field offset          L - branch target (absolute pc)
+  *   s - constant pool index of the <tt>SourceNode</tt> used to report
+  *       run-time errors
+  * Instructions taking both int and reference operands (e.g., array
+  * stores) are named by the kind of the value they move: I for int or
+  * boolean, R for reference.
+  *
+  * Every block ends with an OSR instruction, which is never reached by
+  * falling through: the VM jumps to it to leave a hot loop for compiled
+  * code (on-stack replacement, see <tt>VM.branch</tt>).
+  *
+  * The opcodes after OSR are never emitted by the compiler as such;
+  * they replace the opcode of an existing instruction in place, keeping
+  * its operands, so code never moves and branch targets stay valid:
+  *   - quick forms are written by the VM when an instruction first
+  *     executes and shows what it will keep doing (a call whose receiver
+  *     class is known, an allocation of a class without field
+  *     initializers);
+  *   - superinstructions are written by the compiler over the first of
+  *     two adjacent instructions that occur together often (chosen from
+  *     the dispatch profile of the test programs, see -di); they do the
+  *     work of both, reading the operands of the second from its own
+  *     words, which stay in place for branches that land on it.
+  * Both have the length and operand format of the instruction they
+  * replace (its base opcode, see <tt>base</tt>).
+  * */
+final class Bytecode {
+    // moves and constants
+    static final int ICONST = 0;
+    static final int RCONST = 1;
+    static final int IMOV = 2;
+    static final int RMOV = 3;
+
+    // arithmetic and logic
+    static final int IADD = 4;
+    static final int ISUB = 5;
+    static final int IMUL = 6;
+    static final int IDIV = 7;
+    static final int IMOD = 8;
+    static final int IADDI = 9;
+    static final int INEG = 10;
+    static final int NOT = 11;
+
+    // comparisons producing booleans
+    static final int ILT = 12;
+    static final int ILE = 13;
+    static final int IGT = 14;
+    static final int IGE = 15;
+    static final int IEQ = 16;
+    static final int INE = 17;
+    static final int REQ = 18;
+    static final int RNE = 19;
+
+    // branches
+    static final int JMP = 20;
+    static final int JT = 21;
+    static final int JF = 22;
+    static final int IFLT = 23;
+    static final int IFLE = 24;
+    static final int IFGT = 25;
+    static final int IFGE = 26;
+    static final int IFEQ = 27;
+    static final int IFNE = 28;
+    static final int IFREQ = 29;
+    static final int IFRNE = 30;
+    static final int IFLTI = 31;
+    static final int IFLEI = 32;
+    static final int IFGTI = 33;
+    static final int IFGEI = 34;
+    static final int IFEQI = 35;
+    static final int IFNEI = 36;
+
+    // fields of 'this'
+    static final int GETI = 37;
+    static final int GETR = 38;
+    static final int PUTI = 39;
+    static final int PUTR = 40;
+
+    // arrays
+    static final int ALEN = 41;
+    static final int ALOADI = 42;
+    static final int ALOADR = 43;
+    static final int ASTOREI = 44;
+    static final int ASTORER = 45;
+
+    // objects
+    static final int NEW = 46;
+    static final int NEWSTR = 47;
+    static final int NEWARR = 48;
+    static final int INSTOF = 49;
+    static final int CAST = 50;
+    static final int NULLCHK = 51;
+
+    // calls and returns
+    static final int CALL = 52;
+    static final int CALLS = 53;
+    static final int RET = 54;
+    static final int RETI = 55;
+    static final int RETR = 56;
+
+    // on-stack replacement exit
+    static final int OSR = 57;
+
+    // quick forms
+    static final int CALLQ = 58;
+    static final int NEWQ = 59;
+
+    // superinstructions
+    static final int IADDI_IFLT = 60;
+    static final int IADDI_IFLE = 61;
+    static final int IADDI_IFLTI = 62;
+    static final int IADDI_IFLEI = 63;
+    static final int ALEN_IFLT = 64;
+    static final int GETI_IADDI = 65;
+    static final int ICONST_PUTI = 66;
+    static final int PUTI_RET = 67;
+
+    /** Number of opcodes */
+    static final int NUM_OPCODES = 68;
+
+    /** The superinstructions: first opcode, second opcode, fused opcode */
+    private static final int[][] SUPERINSTRUCTIONS = {
+	// for loops: update and test
+	{ IADDI, IFLT, IADDI_IFLT },
+	{ IADDI, IFLE, IADDI_IFLE },
+	{ IADDI, IFLTI, IADDI_IFLTI },
+	{ IADDI, IFLEI, IADDI_IFLEI },
+	{ ALEN, IFLT, ALEN_IFLT },
+	// fields: increments, initializers, and setters
+	{ GETI, IADDI, GETI_IADDI },
+	{ ICONST, PUTI, ICONST_PUTI },
+	{ PUTI, RET, PUTI_RET },
+    };
+
+    /** Base opcode of each opcode: the instruction a quick form or
+      * superinstruction replaced (the opcode itself for the others) */
+    private static final int[] BASES = new int[NUM_OPCODES];
+
+    /** Mnemonics, indexed by opcode */
+    static final String[] NAMES = {
+	"ICONST", "RCONST", "IMOV", "RMOV",
+	"IADD", "ISUB", "IMUL", "IDIV", "IMOD", "IADDI", "INEG", "NOT",
+	"ILT", "ILE", "IGT", "IGE", "IEQ", "INE", "REQ", "RNE",
+	"JMP", "JT", "JF", "IFLT", "IFLE", "IFGT", "IFGE", "IFEQ", "IFNE", "IFREQ", "IFRNE",
+	"IFLTI", "IFLEI", "IFGTI", "IFGEI", "IFEQI", "IFNEI",
+	"GETI", "GETR", "PUTI", "PUTR",
+	"ALEN", "ALOADI", "ALOADR", "ASTOREI", "ASTORER",
+	"NEW", "NEWSTR", "NEWARR", "INSTOF", "CAST", "NULLCHK",
+	"CALL", "CALLS", "RET", "RETI", "RETR", "OSR",
+	"CALLQ", "NEWQ",
+	"IADDI_IFLT", "IADDI_IFLE", "IADDI_IFLTI", "IADDI_IFLEI", "ALEN_IFLT",
+	"GETI_IADDI", "ICONST_PUTI", "PUTI_RET"
+    };
+
+    /** Operand formats, indexed by opcode (see the class comment) */
+    static final String[] FORMATS = {
+	"In", "Rk", "II", "RR",
+	"III", "III", "III", "IIIs", "IIIs", "IIn", "II", "II",
+	"III", "III", "III", "III", "III", "III", "IRR", "IRR",
+	"L", "IL", "IL", "IIL", "IIL", "IIL", "IIL", "IIL", "IIL", "RRL", "RRL",
+	"InL", "InL", "InL", "InL", "InL", "InL",
+	"If", "Rf", "fI", "fR",
+	"IRs", "IRIs", "RRIs", "RIIs", "RIRs",
+	"Rk", "R", "RIks", "IRk", "Rks", "Rs",
+	"k", "k", "", "I", "R", "",
+	"k", "Rk",
+	"IIn", "IIn", "IIn", "IIn", "IRs",
+	"If", "In", "fI"
+    };
+
+    static {
+	for (int opcode = 0; opcode < NUM_OPCODES; opcode++) {
+	    BASES[opcode] = opcode;
+	}
+	BASES[CALLQ] = CALL;
+	BASES[NEWQ] = NEW;
+	for (int[] fusion : SUPERINSTRUCTIONS) {
+	    BASES[fusion[2]] = fusion[0];
+	}
+    }
+
+    /** Get the base opcode of an opcode (see the class comment)
+      * @param opcode the opcode
+      * @return the opcode of the instruction it replaced, or the opcode itself
+      * */
+    static int base(int opcode) {
+	return BASES[opcode];
+    }
+
+    /** Replace the opcode of an instruction in place, keeping its operands
+      * @param code the code array
+      * @param pc position of the instruction
+      * @param opcode the new opcode (with the same base opcode)
+      * */
+    static void rewrite(int[] code, int pc, int opcode) {
+	code[pc] = (code[pc] & ~0xff) | opcode;
+    }
+
+    /** Turn the first of every pair of adjacent instructions that has a
+      * superinstruction into it
+      * @param code the code array (as compiled: no quick forms or
+      *        superinstructions yet)
+      * */
+    static void fuse(int[] code) {
+	int pc = 0;
+	while (pc < code.length) {
+	    int first = code[pc] & 0xff;
+	    int next = pc + length(first);
+	    if (next < code.length) {
+		int second = code[next] & 0xff;
+		for (int[] fusion : SUPERINSTRUCTIONS) {
+		    if (fusion[0] == first && fusion[1] == second) {
+			rewrite(code, pc, fusion[2]);
+			break;
+		    }
+		}
+	    }
+	    pc = next;
+	}
+    }
+
+    /** Largest register number that can be encoded */
+    static final int MAX_REG = 255;
+
+    /** Check whether an operand kind is a register packed in the first word */
+    static boolean isRegister(char kind) {
+	return kind == 'I' || kind == 'R';
+    }
+
+    /** Get the length of an instruction
+      * @param opcode the opcode
+      * @return number of code words
+      * */
+    static int length(int opcode) {
+	int length = 1;
+	for (char kind : FORMATS[opcode].toCharArray()) {
+	    if (!isRegister(kind)) {
+		length++;
+	    }
+	}
+	return length;
+    }
+
+    /** Encode an instruction
+      * @param opcode the opcode
+      * @param operands operands in the order of the format string
+      * @return the code words
+      * */
+    static int[] encode(int opcode, int... operands) {
+	String format = FORMATS[opcode];
+	int[] words = new int[length(opcode)];
+	words[0] = opcode;
+	int shift = 8, next = 1;
+	for (int i = 0; i < operands.length; i++) {
+	    if (isRegister(format.charAt(i))) {
+		if (operands[i] < 0 || operands[i] > MAX_REG) {
+		    throw new RuntimeException("Internal error: register " + operands[i] +
+					       " cannot be encoded");
+		}
+		words[0] |= operands[i] << shift;
+		shift += 8;
+	    }
+	    else {
+		words[next++] = operands[i];
+	    }
+	}
+	return words;
+    }
+
+    /** Check whether an instruction is a branch (its last operand is a target)
+      * @param opcode the opcode
+      * @return true for branches
+      * */
+    static boolean isBranch(int opcode) {
+	opcode = base(opcode);
+	return opcode >= JMP && opcode <= IFNEI;
+    }
+
+    /** Produce a readable listing of a code block (used with -di)
+      * @param block the code block
+      * @return the listing, one instruction per line
+      * */
+    static String disassemble(CodeBlock block) {
+	StringBuilder listing = new StringBuilder();
+	int[] code = block.code;
+	for (int pc = 0; pc < code.length; pc += length(code[pc] & 0xff)) {
+	    int opcode = code[pc] & 0xff;
+	    listing.append(String.format("%5d  %-8s", pc, NAMES[opcode]));
+	    String format = FORMATS[opcode];
+	    int shift = 8, next = pc + 1;
+	    for (int i = 0; i < format.length(); i++) {
+		int operand;
+		if (isRegister(format.charAt(i))) {
+		    operand = (code[pc] >>> shift) & 0xff;
+		    shift += 8;
+		}
+		else {
+		    operand = code[next++];
+		}
+		listing.append(i == 0 ? " " : ", ");
+		switch (format.charAt(i)) {
+		    case 'I': listing.append("i").append(operand); break;
+		    case 'R': listing.append("r").append(operand); break;
+		    case 'f': listing.append("field ").append(operand); break;
+		    case 'L': listing.append("-> ").append(operand); break;
+		    case 'k': listing.append(describe(block.constants[operand])); break;
+		    case 's': listing.append("line ").append(
+				  ((SourceNode) block.constants[operand]).lineNum); break;
+		    default: listing.append(operand); break;
+		}
+	    }
+	    listing.append('\n');
+	}
+	return listing.toString();
+    }
+
+    /** Describe a constant pool entry */
+    private static String describe(Object constant) {
+	if (constant == null) {
+	    return "null";
+	}
+	else if (constant instanceof RuntimeString) {
+	    return "\"" + ((RuntimeString) constant).value.replace("\n", "\\n") + "\"";
+	}
+	else if (constant instanceof RuntimeClass) {
+	    return ((RuntimeClass) constant).name;
+	}
+	else if (constant instanceof ExprNode.TypeTest) {
+	    return ((ExprNode.TypeTest) constant).type;
+	}
+	return constant.toString();
+    }
+}
@@ -0,0 +1,1043 @@
+package bantam.interp;
+
+import bantam.ast.*;
+import bantam.visitor.Visitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/** The <tt>BytecodeCompiler</tt> class translates the typed AST of method
+  * bodies and field initializers into register bytecode for the
+  * <tt>VM</tt> (see <tt>Bytecode</tt> for the instruction set).
+  *
+  * Parameters and locals live in fixed registers for as long as they are
+  * in scope (registers are reused once a scope ends, as frame slots are
+  * in <tt>NodeBuilder</tt>); intermediate values use temporary registers
+  * above the locals that are released at the end of every statement.
+  * Expressions are compiled for a target register (field <tt>target</tt>,
+  * -1 when the value is not needed), and conditions of if statements
+  * and loops are compiled directly into conditional branches.
+  * */
+class BytecodeCompiler extends Visitor {
+    /** Run-time classes by name */
+    private HashMap<String, RuntimeClass> classes;
+
+    /** Built-in method implementations (used to create string constants) */
+    private Builtins builtins;
+
+    /** Class whose code is being compiled */
+    private RuntimeClass currentClass;
+
+    /** Method whose body is being compiled (null for field initializers) */
+    private RuntimeMethod currentMethod;
+
+    /** Name of the source file of the current class */
+    private String filename;
+
+    /** Preallocated string constants (so equal literals are the same object) */
+    private HashMap<String, RuntimeString> strings = new HashMap<String, RuntimeString>();
+
+    /** Inline caches of the virtual call sites built so far */
+    final ArrayList<InlineCache> caches = new ArrayList<InlineCache>();
+
+    /** Code of the block being compiled */
+    private int[] code;
+
+    /** Number of code words emitted so far */
+    private int codeSize;
+
+    /** Source line of each code word emitted so far */
+    private int[] lines;
+
+    /** Source line of the statement being compiled */
+    private int line;
+
+    /** Constant pool of the block being compiled */
+    private ArrayList<Object> constants;
+
+    /** Constant pool indices of the shared constants (strings, classes) */
+    private IdentityHashMap<Object, Integer> constantIndices;
+
+    /** Local scopes of the method being compiled (innermost last) */
+    private ArrayList<HashMap<String, Var>> scopes = new ArrayList<HashMap<String, Var>>();
+
+    /** Number of int/reference registers holding variables in scope */
+    private int numIntVars, numRefVars;
+
+    /** Next free int/reference register (temporaries are above the variables) */
+    private int nextInt, nextRef;
+
+    /** Number of int/reference registers needed so far */
+    private int maxInt, maxRef;
+
+    /** Exit labels of the enclosing loops (innermost last) */
+    private ArrayList<Label> breakLabels = new ArrayList<Label>();
+
+    /** Register that must receive the value of the expression being
+      * compiled (-1 if the value is not needed) */
+    private int target;
+
+    /** A parameter or local variable and its register */
+    private static final class Var {
+	final int reg;
+	final boolean isRef;
+
+	Var(int reg, boolean isRef) {
+	    this.reg = reg;
+	    this.isRef = isRef;
+	}
+    }
+
+    /** A branch target; branches emitted before the label is bound are
+      * patched when it is */
+    private static final class Label {
+	int pos = -1;
+	ArrayList<Integer> uses = new ArrayList<Integer>();
+    }
+
+    /** BytecodeCompiler constructor
+      * @param classes run-time classes by name
+      * @param builtins built-in method implementations
+      * */
+    BytecodeCompiler(HashMap<String, RuntimeClass> classes, Builtins builtins) {
+	this.classes = classes;
+	this.builtins = builtins;
+    }
+
+    /** Compile the body of a user-defined method
+      * @param method the method
+      * */
+    void compileMethod(RuntimeMethod method) {
+	begin(method.owner);
+	currentMethod = method;
+	line = method.astNode.getLineNum();
+	enterScope();
+	for (ASTNode node : method.astNode.getFormalList()) {
+	    Formal formal = (Formal) node;
+	    addToScope(formal.getName(), declare(isRef(formal.getType())));
+	}
+	for (ASTNode stmt : method.astNode.getStmtList()) {
+	    compileStmt((Stmt) stmt);
+	}
+	exitScope();
+	emit(Bytecode.RET);
+	method.code = end(method.owner.name + "." + method.name);
+    }
+
+    /** Compile the initializers of the fields declared by a class (the
+      * class's initCode is left null if there are none)
+      * @param cls the class
+      * */
+    void compileInitializers(RuntimeClass cls) {
+	begin(cls);
+	boolean empty = true;
+	for (Field field : cls.declaredFields) {
+	    if (field.getInit() != null) {
+		int offset = cls.getFieldOffset(field.getName());
+		line = field.getLineNum();
+		// (the initializers of built-in classes are not type checked,
+		// so the register kind comes from the field type)
+		int value = newTemp(isRef(field.getType()));
+		compileInto(field.getInit(), value);
+		emit(putOpcode(field.getType()), offset, value);
+		releaseTemps();
+		empty = false;
+	    }
+	}
+	emit(Bytecode.RET);
+	CodeBlock block = end(cls.name + ".<init>");
+	cls.initCode = empty ? null : block;
+    }
+
+    /** Start compiling a code block of the given class */
+    private void begin(RuntimeClass cls) {
+	currentClass = cls;
+	currentMethod = null;
+	filename = cls.treeNode.getASTNode().getFilename();
+	code = new int[64];
+	lines = new int[64];
+	codeSize = 0;
+	constants = new ArrayList<Object>();
+	constantIndices = new IdentityHashMap<Object, Integer>();
+	scopes.clear();
+	breakLabels.clear();
+	numIntVars = nextInt = maxInt = 0;
+	// reference register 0 holds 'this'
+	numRefVars = nextRef = maxRef = 1;
+    }
+
+    /** Finish the code block being compiled */
+    private CodeBlock end(String name) {
+	emit(Bytecode.OSR);
+	int[] finalCode = new int[codeSize];
+	System.arraycopy(code, 0, finalCode, 0, codeSize);
+	Bytecode.fuse(finalCode);
+	int[] finalLines = new int[codeSize];
+	System.arraycopy(lines, 0, finalLines, 0, codeSize);
+	return new CodeBlock(name, finalCode, finalLines, constants.toArray(), maxInt, maxRef);
+    }
+
+    // registers and scopes
+
+    /** Check whether values of a type live in reference registers */
+    private static boolean isRef(String type) {
+	return !"int".equals(type) && !"boolean".equals(type);
+    }
+
+    /** Enter a new local scope */
+    private void enterScope() {
+	scopes.add(new HashMap<String, Var>());
+    }
+
+    /** Exit the innermost local scope, freeing its registers */
+    private void exitScope() {
+	for (Var var : scopes.remove(scopes.size() - 1).values()) {
+	    if (var.isRef) {
+		numRefVars--;
+	    }
+	    else {
+		numIntVars--;
+	    }
+	}
+	releaseTemps();
+    }
+
+    /** Allocate the register of a new variable (not yet visible by name,
+      * so that its initializer cannot see it)
+      * @param isRef whether the variable is a reference
+      * @return the variable
+      * */
+    private Var declare(boolean isRef) {
+	releaseTemps();
+	Var var = new Var(isRef ? numRefVars++ : numIntVars++, isRef);
+	releaseTemps();
+	return var;
+    }
+
+    /** Make a declared variable visible in the innermost scope */
+    private void addToScope(String name, Var var) {
+	scopes.get(scopes.size() - 1).put(name, var);
+    }
+
+    /** Find a parameter or local by name (null if the name is a field) */
+    private Var lookupLocal(String name) {
+	for (int i = scopes.size() - 1; i >= 0; i--) {
+	    Var var = scopes.get(i).get(name);
+	    if (var != null) {
+		return var;
+	    }
+	}
+	return null;
+    }
+
+    /** Allocate a temporary register */
+    private int newTemp(boolean isRef) {
+	if (isRef) {
+	    maxRef = Math.max(maxRef, nextRef + 1);
+	    return nextRef++;
+	}
+	maxInt = Math.max(maxInt, nextInt + 1);
+	return nextInt++;
+    }
+
+    /** Release all temporary registers (done between statements) */
+    private void releaseTemps() {
+	nextInt = numIntVars;
+	nextRef = numRefVars;
+	maxInt = Math.max(maxInt, nextInt);
+	maxRef = Math.max(maxRef, nextRef);
+    }
+
+    /** Get the register an expression must write (a new temporary if
+      * its value is not needed but it must be computed anyway) */
+    private int dest(boolean isRef) {
+	return (target >= 0) ? target : newTemp(isRef);
+    }
+
+    // code emission
+
+    /** Append an instruction */
+    private void emit(int opcode, int... operands) {
+	int[] words = Bytecode.encode(opcode, operands);
+	if (codeSize + words.length > code.length) {
+	    int[] bigger = new int[2 * code.length + words.length];
+	    System.arraycopy(code, 0, bigger, 0, codeSize);
+	    code = bigger;
+	    int[] biggerLines = new int[bigger.length];
+	    System.arraycopy(lines, 0, biggerLines, 0, codeSize);
+	    lines = biggerLines;
+	}
+	System.arraycopy(words, 0, code, codeSize, words.length);
+	Arrays.fill(lines, codeSize, codeSize + words.length, line);
+	codeSize += words.length;
+    }
+
+    /** Append a branch to a label (the target is the last operand) */
+    private void emitBranch(int opcode, Label label, int... operands) {
+	int[] all = new int[operands.length + 1];
+	System.arraycopy(operands, 0, all, 0, operands.length);
+	all[operands.length] = label.pos;
+	emit(opcode, all);
+	if (label.pos < 0) {
+	    label.uses.add(codeSize - 1);
+	}
+    }
+
+    /** Bind a label to the current position */
+    private void bind(Label label) {
+	label.pos = codeSize;
+	for (int use : label.uses) {
+	    code[use] = codeSize;
+	}
+    }
+
+    /** Append a register move (nothing if source and destination are the same) */
+    private void move(boolean isRef, int dst, int src) {
+	if (dst >= 0 && dst != src) {
+	    emit(isRef ? Bytecode.RMOV : Bytecode.IMOV, dst, src);
+	}
+    }
+
+    /** Get the constant pool index of a constant (shared constants are
+      * entered once) */
+    private int constant(Object value) {
+	Integer index = constantIndices.get(value);
+	if (index == null) {
+	    index = constants.size();
+	    constants.add(value);
+	    constantIndices.put(value, index);
+	}
+	return index;
+    }
+
+    /** Get the constant pool index of a new error site for an AST node */
+    private int site(ASTNode node) {
+	return constant(at(new SourceNode(), node));
+    }
+
+    /** Record the source position of an error or call site */
+    private <T extends SourceNode> T at(T site, ASTNode node) {
+	site.filename = filename;
+	site.lineNum = node.getLineNum();
+	return site;
+    }
+
+    /** Get the opcode loading a field of the given type */
+    private static int getOpcode(String type) {
+	return isRef(type) ? Bytecode.GETR : Bytecode.GETI;
+    }
+
+    /** Get the opcode storing a field of the given type */
+    private static int putOpcode(String type) {
+	return isRef(type) ? Bytecode.PUTR : Bytecode.PUTI;
+    }
+
+    // expressions
+
+    /** Compile an expression whose value goes in the given register
+      * @param expr the expression
+      * @param dst destination register (-1 if the value is not needed)
+      * */
+    private void compileInto(Expr expr, int dst) {
+	int saved = target;
+	target = dst;
+	expr.accept(this);
+	target = saved;
+    }
+
+    /** Compile an expression and get the register holding its value.
+      * Variables are used in place, unless one of the expressions
+      * evaluated later (before the value is consumed) may assign a
+      * variable, in which case the value is copied to a temporary.
+      * @param expr the expression
+      * @param later expressions evaluated after this one
+      * @return register holding the value
+      * */
+    private int compileValue(Expr expr, Expr... later) {
+	if (isThis(expr)) {
+	    return 0;
+	}
+	Var var = asLocal(expr);
+	if (var != null) {
+	    if (!mayAssignLocals(later)) {
+		return var.reg;
+	    }
+	    int temp = newTemp(var.isRef);
+	    move(var.isRef, temp, var.reg);
+	    return temp;
+	}
+	int temp = newTemp(isRef(expr.getExprType()));
+	compileInto(expr, temp);
+	return temp;
+    }
+
+    /** Compile a list of argument expressions */
+    private int[] compileArgs(ExprList list) {
+	Expr[] args = new Expr[list.getSize()];
+	for (int i = 0; i < args.length; i++) {
+	    args[i] = (Expr) list.get(i);
+	}
+	int[] regs = new int[args.length];
+	for (int i = 0; i < args.length; i++) {
+	    Expr[] later = new Expr[args.length - i - 1];
+	    System.arraycopy(args, i + 1, later, 0, later.length);
+	    regs[i] = compileValue(args[i], later);
+	}
+	return regs;
+    }
+
+    /** Check whether an expression is 'this' (or 'super') */
+    private static boolean isThis(Expr expr) {
+	if (!(expr instanceof VarExpr) || ((VarExpr) expr).getRef() != null) {
+	    return false;
+	}
+	String name = ((VarExpr) expr).getName();
+	return name.equals("this") || name.equals("super");
+    }
+
+    /** Get the variable an expression names (null if it is not a plain local) */
+    private Var asLocal(Expr expr) {
+	if (!(expr instanceof VarExpr) || ((VarExpr) expr).getRef() != null) {
+	    return null;
+	}
+	return lookupLocal(((VarExpr) expr).getName());
+    }
+
+    /** Check whether evaluating some expressions may assign a local
+      * (conservatively: any assignment or increment counts) */
+    private boolean mayAssignLocals(Expr... exprs) {
+	AssignmentFinder finder = new AssignmentFinder();
+	for (Expr expr : exprs) {
+	    expr.accept(finder);
+	}
+	return finder.found;
+    }
+
+    /** Check whether evaluating an expression has no side effects and
+      * cannot fail, so it does not matter whether it is evaluated before
+      * or after a null check */
+    private static boolean isSimple(Expr expr) {
+	if (expr instanceof ConstExpr) {
+	    return true;
+	}
+	if (!(expr instanceof VarExpr)) {
+	    return false;
+	}
+	// plain names, or fields of this/super (but not array lengths)
+	Expr ref = ((VarExpr) expr).getRef();
+	return ref == null || isThis(ref);
+    }
+
+    /** Visitor looking for assignments and increments */
+    private static final class AssignmentFinder extends Visitor {
+	boolean found;
+
+	public Object visit(AssignExpr node) {
+	    found = true;
+	    return null;
+	}
+
+	public Object visit(UnaryIncrExpr node) {
+	    found = true;
+	    return null;
+	}
+
+	public Object visit(UnaryDecrExpr node) {
+	    found = true;
+	    return null;
+	}
+    }
+
+    /** Compile a condition as a branch taken when the condition has the
+      * given value (falling through otherwise)
+      * @param cond boolean expression
+      * @param jumpIf value of the condition for which the branch is taken
+      * @param label branch target
+      * */
+    private void compileBranch(Expr cond, boolean jumpIf, Label label) {
+	if (cond instanceof BinaryLogicAndExpr || cond instanceof BinaryLogicOrExpr) {
+	    BinaryExpr binary = (BinaryExpr) cond;
+	    boolean isAnd = cond instanceof BinaryLogicAndExpr;
+	    if (isAnd != jumpIf) {
+		// a && b jumps when false if a is false, a || b jumps when true if a is true
+		compileBranch(binary.getLeftExpr(), jumpIf, label);
+		compileBranch(binary.getRightExpr(), jumpIf, label);
+	    }
+	    else {
+		Label skip = new Label();
+		compileBranch(binary.getLeftExpr(), !jumpIf, skip);
+		compileBranch(binary.getRightExpr(), jumpIf, label);
+		bind(skip);
+	    }
+	}
+	else if (cond instanceof UnaryNotExpr) {
+	    compileBranch(((UnaryNotExpr) cond).getExpr(), !jumpIf, label);
+	}
+	else if (cond instanceof ConstBooleanExpr) {
+	    if (((ConstBooleanExpr) cond).getConstant().equals("true") == jumpIf) {
+		emitBranch(Bytecode.JMP, label);
+	    }
+	}
+	else if (cond instanceof BinaryCompExpr) {
+	    BinaryExpr binary = (BinaryExpr) cond;
+	    int opcode = getCompareBranch(binary);
+	    if (!jumpIf) {
+		opcode = negateBranch(opcode);
+	    }
+	    Expr rightExpr = binary.getRightExpr();
+	    if (rightExpr instanceof ConstIntExpr) {
+		// compare with an immediate operand
+		int left = compileValue(binary.getLeftExpr());
+		emitBranch(opcode + (Bytecode.IFLTI - Bytecode.IFLT), label, left,
+			   Integer.parseInt(((ConstIntExpr) rightExpr).getConstant()));
+		return;
+	    }
+	    int left = compileValue(binary.getLeftExpr(), rightExpr);
+	    int right = compileValue(rightExpr);
+	    emitBranch(opcode, label, left, right);
+	}
+	else {
+	    emitBranch(jumpIf ? Bytecode.JT : Bytecode.JF, label, compileValue(cond));
+	}
+    }
+
+    /** Get the compare-and-branch opcode of a comparison */
+    private static int getCompareBranch(BinaryExpr node) {
+	boolean refs = isRef(node.getLeftExpr().getExprType());
+	if (node instanceof BinaryCompEqExpr) {
+	    return refs ? Bytecode.IFREQ : Bytecode.IFEQ;
+	}
+	else if (node instanceof BinaryCompNeExpr) {
+	    return refs ? Bytecode.IFRNE : Bytecode.IFNE;
+	}
+	else if (node instanceof BinaryCompLtExpr) {
+	    return Bytecode.IFLT;
+	}
+	else if (node instanceof BinaryCompLeqExpr) {
+	    return Bytecode.IFLE;
+	}
+	else if (node instanceof BinaryCompGtExpr) {
+	    return Bytecode.IFGT;
+	}
+	return Bytecode.IFGE;
+    }
+
+    /** Get the compare-and-branch opcode testing the opposite condition */
+    private static int negateBranch(int opcode) {
+	switch (opcode) {
+	    case Bytecode.IFLT: return Bytecode.IFGE;
+	    case Bytecode.IFGE: return Bytecode.IFLT;
+	    case Bytecode.IFLE: return Bytecode.IFGT;
+	    case Bytecode.IFGT: return Bytecode.IFLE;
+	    case Bytecode.IFEQ: return Bytecode.IFNE;
+	    case Bytecode.IFNE: return Bytecode.IFEQ;
+	    case Bytecode.IFREQ: return Bytecode.IFRNE;
+	    default: return Bytecode.IFREQ;
+	}
+    }
+
+    /** Compile a boolean expression for its value by branching on it */
+    private void compileCondValue(Expr cond) {
+	int dst = dest(false);
+	Label isFalse = new Label();
+	Label done = new Label();
+	compileBranch(cond, false, isFalse);
+	emit(Bytecode.ICONST, dst, 1);
+	emitBranch(Bytecode.JMP, done);
+	bind(isFalse);
+	emit(Bytecode.ICONST, dst, 0);
+	bind(done);
+    }
+
+    /** Compile a binary operation on two registers */
+    private void compileBinary(BinaryExpr node, int opcode) {
+	int left = compileValue(node.getLeftExpr(), node.getRightExpr());
+	int right = compileValue(node.getRightExpr());
+	if (opcode == Bytecode.IDIV || opcode == Bytecode.IMOD) {
+	    emit(opcode, dest(false), left, right, site(node));
+	}
+	else {
+	    emit(opcode, dest(false), left, right);
+	}
+    }
+
+    /** Get the register of an array named by a variable or a field of this/super */
+    private int compileArrayRef(String name, String refName, ASTNode node, Expr... later) {
+	if (refName == null) {
+	    Var var = lookupLocal(name);
+	    if (var != null) {
+		if (!mayAssignLocals(later)) {
+		    return var.reg;
+		}
+		int temp = newTemp(true);
+		move(true, temp, var.reg);
+		return temp;
+	    }
+	}
+	RuntimeClass cls = (refName == null) ? currentClass : getRefClass(refName);
+	int array = newTemp(true);
+	emit(Bytecode.GETR, array, cls.getFieldOffset(name));
+	return array;
+    }
+
+    /** Get the class whose fields a 'this'/'super' reference names */
+    private RuntimeClass getRefClass(String refName) {
+	if (refName.equals("super")) {
+	    return currentClass.parent;
+	}
+	else if (refName.equals("this")) {
+	    return currentClass;
+	}
+	throw new RuntimeException("Internal error: bad field reference " + refName);
+    }
+
+    /** Get the name of the 'this'/'super' reference of a field access (null if none) */
+    private static String getRefName(Expr ref) {
+	return (ref == null) ? null : ((VarExpr) ref).getName();
+    }
+
+    /** Get the opcode loading an array element of the given type */
+    private static int aloadOpcode(String type) {
+	return isRef(type) ? Bytecode.ALOADR : Bytecode.ALOADI;
+    }
+
+    /** Get the opcode storing an array element of the given type */
+    private static int astoreOpcode(String type) {
+	return isRef(type) ? Bytecode.ASTORER : Bytecode.ASTOREI;
+    }
+
+    /** Create a type test for instanceof, a cast, or an array allocation */
+    private ExprNode.TypeTest getTypeTest(String type) {
+	if (type.endsWith("[]")) {
+	    String elementType = type.substring(0, type.length() - 2);
+	    return new ExprNode.TypeTest(type, classes.get(elementType), true, elementType);
+	}
+	return new ExprNode.TypeTest(type, classes.get(type), false, null);
+    }
+
+    public Object visit(DispatchExpr node) {
+	Expr ref = node.getRefExpr();
+	ExprList actuals = node.getActualList();
+	Expr[] args = new Expr[actuals.getSize()];
+	for (int i = 0; i < args.length; i++) {
+	    args[i] = (Expr) actuals.get(i);
+	}
+
+	RuntimeMethod staticTarget = null;
+	int receiver = 0;
+	if (ref != null && isThis(ref)) {
+	    if (((VarExpr) ref).getName().equals("super")) {
+		// super calls are not dynamically dispatched
+		staticTarget = currentClass.parent.lookupMethod(node.getMethodName());
+	    }
+	}
+	else if (ref != null) {
+	    receiver = compileValue(ref, args);
+	    boolean simpleArgs = true;
+	    for (Expr arg : args) {
+		simpleArgs &= isSimple(arg);
+	    }
+	    if (!simpleArgs) {
+		// the receiver is checked before the arguments are evaluated
+		emit(Bytecode.NULLCHK, receiver, site(node));
+	    }
+	}
+
+	int[] argRegs = compileArgs(actuals);
+	boolean[] argIsRef = new boolean[args.length];
+	for (int i = 0; i < args.length; i++) {
+	    argIsRef[i] = isRef(args[i].getExprType());
+	}
+	boolean resultIsRef = isRef(node.getExprType());
+	int result = "void".equals(node.getExprType()) ? -1 : target;
+	CallSite site = at(new CallSite(node.getMethodName(), staticTarget, receiver,
+					argRegs, argIsRef, result, resultIsRef), node);
+	if (site.cache != null) {
+	    site.cache.caller = currentMethod;
+	    caches.add(site.cache);
+	}
+	emit((staticTarget == null) ? Bytecode.CALL : Bytecode.CALLS, constant(site));
+	return null;
+    }
+
+    public Object visit(NewExpr node) {
+	RuntimeClass cls = classes.get(node.getType());
+	if (cls.name.equals("String")) {
+	    emit(Bytecode.NEWSTR, dest(true));
+	}
+	else {
+	    emit(Bytecode.NEW, dest(true), constant(cls));
+	}
+	return null;
+    }
+
+    public Object visit(NewArrayExpr node) {
+	int size = compileValue(node.getSize());
+	emit(Bytecode.NEWARR, dest(true), size,
+	     constant(getTypeTest(node.getType() + "[]")), site(node));
+	return null;
+    }
+
+    public Object visit(InstanceofExpr node) {
+	int value = compileValue(node.getExpr());
+	emit(Bytecode.INSTOF, dest(false), value, constant(getTypeTest(node.getType())));
+	return null;
+    }
+
+    public Object visit(CastExpr node) {
+	if (node.getUpCast()) {
+	    // upcasts always succeed
+	    compileInto(node.getExpr(), target);
+	    return null;
+	}
+	int dst = dest(true);
+	compileInto(node.getExpr(), dst);
+	emit(Bytecode.CAST, dst, constant(getTypeTest(node.getType())), site(node));
+	return null;
+    }
+
+    public Object visit(AssignExpr node) {
+	Var var = (node.getRefName() == null) ? lookupLocal(node.getName()) : null;
+	if (var != null) {
+	    compileInto(node.getExpr(), var.reg);
+	    move(var.isRef, target, var.reg);
+	    return null;
+	}
+	RuntimeClass cls = (node.getRefName() == null) ? currentClass
+	    : getRefClass(node.getRefName());
+	int offset = cls.getFieldOffset(node.getName());
+	String type = cls.getFieldType(node.getName());
+	int value = compileValue(node.getExpr());
+	emit(putOpcode(type), offset, value);
+	move(isRef(type), target, value);
+	return null;
+    }
+
+    public Object visit(ArrayAssignExpr node) {
+	int array = compileArrayRef(node.getName(), node.getRefName(), node,
+				    node.getIndex(), node.getExpr());
+	if (!isSimple(node.getIndex()) || !isSimple(node.getExpr())) {
+	    // the array is checked before the index and value are evaluated
+	    emit(Bytecode.NULLCHK, array, site(node));
+	}
+	int index = compileValue(node.getIndex(), node.getExpr());
+	int value = compileValue(node.getExpr());
+	String type = node.getExpr().getExprType();
+	emit(astoreOpcode(type), array, index, value, site(node));
+	move(isRef(type), target, value);
+	return null;
+    }
+
+    public Object visit(BinaryCompEqExpr node) {
+	boolean refs = isRef(node.getLeftExpr().getExprType());
+	compileBinary(node, refs ? Bytecode.REQ : Bytecode.IEQ);
+	return null;
+    }
+
+    public Object visit(BinaryCompNeExpr node) {
+	boolean refs = isRef(node.getLeftExpr().getExprType());
+	compileBinary(node, refs ? Bytecode.RNE : Bytecode.INE);
+	return null;
+    }
+
+    public Object visit(BinaryCompLtExpr node) {
+	compileBinary(node, Bytecode.ILT);
+	return null;
+    }
+
+    public Object visit(BinaryCompLeqExpr node) {
+	compileBinary(node, Bytecode.ILE);
+	return null;
+    }
+
+    public Object visit(BinaryCompGtExpr node) {
+	compileBinary(node, Bytecode.IGT);
+	return null;
+    }
+
+    public Object visit(BinaryCompGeqExpr node) {
+	compileBinary(node, Bytecode.IGE);
+	return null;
+    }
+
+    public Object visit(BinaryArithPlusExpr node) {
+	if (node.getRightExpr() instanceof ConstIntExpr) {
+	    int value = compileValue(node.getLeftExpr());
+	    emit(Bytecode.IADDI, dest(false), value,
+		 Integer.parseInt(((ConstIntExpr) node.getRightExpr()).getConstant()));
+	    return null;
+	}
+	compileBinary(node, Bytecode.IADD);
+	return null;
+    }
+
+    public Object visit(BinaryArithMinusExpr node) {
+	if (node.getRightExpr() instanceof ConstIntExpr) {
+	    int value = compileValue(node.getLeftExpr());
+	    emit(Bytecode.IADDI, dest(false), value,
+		 -Integer.parseInt(((ConstIntExpr) node.getRightExpr()).getConstant()));
+	    return null;
+	}
+	compileBinary(node, Bytecode.ISUB);
+	return null;
+    }
+
+    public Object visit(BinaryArithTimesExpr node) {
+	compileBinary(node, Bytecode.IMUL);
+	return null;
+    }
+
+    public Object visit(BinaryArithDivideExpr node) {
+	compileBinary(node, Bytecode.IDIV);
+	return null;
+    }
+
+    public Object visit(BinaryArithModulusExpr node) {
+	compileBinary(node, Bytecode.IMOD);
+	return null;
+    }
+
+    public Object visit(BinaryLogicAndExpr node) {
+	compileCondValue(node);
+	return null;
+    }
+
+    public Object visit(BinaryLogicOrExpr node) {
+	compileCondValue(node);
+	return null;
+    }
+
+    public Object visit(UnaryNegExpr node) {
+	int value = compileValue(node.getExpr());
+	emit(Bytecode.INEG, dest(false), value);
+	return null;
+    }
+
+    public Object visit(UnaryNotExpr node) {
+	int value = compileValue(node.getExpr());
+	emit(Bytecode.NOT, dest(false), value);
+	return null;
+    }
+
+    public Object visit(UnaryIncrExpr node) {
+	compileIncrement(node, 1);
+	return null;
+    }
+
+    public Object visit(UnaryDecrExpr node) {
+	compileIncrement(node, -1);
+	return null;
+    }
+
+    /** Compile ++/-- (the operand is a variable, see UnaryExprVisitor) */
+    private void compileIncrement(UnaryExpr node, int delta) {
+	VarExpr var = (VarExpr) node.getExpr();
+	Var local = (var.getRef() == null) ? lookupLocal(var.getName()) : null;
+	if (local != null) {
+	    if (target < 0 || !node.isPostfix()) {
+		emit(Bytecode.IADDI, local.reg, local.reg, delta);
+		move(false, target, local.reg);
+	    }
+	    else {
+		// the old value must survive the update even if target is the variable
+		int old = (target == local.reg) ? newTemp(false) : target;
+		emit(Bytecode.IMOV, old, local.reg);
+		emit(Bytecode.IADDI, local.reg, local.reg, delta);
+		move(false, target, old);
+	    }
+	    return;
+	}
+	RuntimeClass cls = (var.getRef() == null) ? currentClass
+	    : getRefClass(((VarExpr) var.getRef()).getName());
+	int offset = cls.getFieldOffset(var.getName());
+	int old = (node.isPostfix() && target >= 0) ? target : newTemp(false);
+	int updated = (!node.isPostfix() && target >= 0) ? target : newTemp(false);
+	emit(Bytecode.GETI, old, offset);
+	emit(Bytecode.IADDI, updated, old, delta);
+	emit(Bytecode.PUTI, offset, updated);
+    }
+
+    public Object visit(VarExpr node) {
+	String name = node.getName();
+	Expr ref = node.getRef();
+	if (ref == null) {
+	    if (name.equals("this") || name.equals("super")) {
+		move(true, target, 0);
+		return null;
+	    }
+	    else if (name.equals("null")) {
+		emit(Bytecode.RCONST, dest(true), constant(null));
+		return null;
+	    }
+	    Var var = lookupLocal(name);
+	    if (var != null) {
+		move(var.isRef, target, var.reg);
+		return null;
+	    }
+	}
+	if (ref == null || isThis(ref)) {
+	    RuntimeClass cls = (ref == null) ? currentClass : getRefClass(getRefName(ref));
+	    int offset = cls.getFieldOffset(name);
+	    String type = cls.getFieldType(name);
+	    emit(getOpcode(type), dest(isRef(type)), offset);
+	    return null;
+	}
+	// the only other field of a variable is the length of an array
+	int array = compileValue(ref);
+	emit(Bytecode.ALEN, dest(false), array, site(node));
+	return null;
+    }
+
+    public Object visit(ArrayExpr node) {
+	String refName = getRefName(node.getRef());
+	int array = compileArrayRef(node.getName(), refName, node, node.getIndex());
+	if (!isSimple(node.getIndex())) {
+	    // the array is checked before the index is evaluated
+	    emit(Bytecode.NULLCHK, array, site(node));
+	}
+	int index = compileValue(node.getIndex());
+	String type = node.getExprType();
+	emit(aloadOpcode(type), dest(isRef(type)), array, index, site(node));
+	return null;
+    }
+
+    public Object visit(ConstIntExpr node) {
+	emit(Bytecode.ICONST, dest(false), Integer.parseInt(node.getConstant()));
+	return null;
+    }
+
+    public Object visit(ConstBooleanExpr node) {
+	emit(Bytecode.ICONST, dest(false), node.getConstant().equals("true") ? 1 : 0);
+	return null;
+    }
+
+    public Object visit(ConstStringExpr node) {
+	RuntimeString value = strings.get(node.getConstant());
+	if (value == null) {
+	    value = builtins.newConstant(NodeBuilder.unescape(node.getConstant()));
+	    strings.put(node.getConstant(), value);
+	}
+	emit(Bytecode.RCONST, dest(true), constant(value));
+	return null;
+    }
+
+    // statements
+
+    /** Compile a statement (temporaries are released afterwards) */
+    private void compileStmt(Stmt stmt) {
+	int outerLine = line;
+	line = stmt.getLineNum();
+	releaseTemps();
+	stmt.accept(this);
+	releaseTemps();
+	line = outerLine;
+    }
+
+    /** Compile a statement in its own scope */
+    private void compileScoped(Stmt stmt) {
+	enterScope();
+	compileStmt(stmt);
+	exitScope();
+    }
+
+    public Object visit(DeclStmt node) {
+	Var var = declare(isRef(node.getType()));
+	// the initializer is compiled before the variable comes into scope
+	compileInto(node.getInit(), var.reg);
+	addToScope(node.getName(), var);
+	return null;
+    }
+
+    public Object visit(ExprStmt node) {
+	compileInto(node.getExpr(), -1);
+	return null;
+    }
+
+    public Object visit(IfStmt node) {
+	Label elseLabel = new Label();
+	compileBranch(node.getPredExpr(), false, elseLabel);
+	compileScoped(node.getThenStmt());
+	if (node.getElseStmt() == null) {
+	    bind(elseLabel);
+	    return null;
+	}
+	Label done = new Label();
+	emitBranch(Bytecode.JMP, done);
+	bind(elseLabel);
+	compileScoped(node.getElseStmt());
+	bind(done);
+	return null;
+    }
+
+    public Object visit(WhileStmt node) {
+	// the condition is tested at the bottom so each iteration takes one branch
+	Label body = new Label();
+	Label cond = new Label();
+	Label done = new Label();
+	emitBranch(Bytecode.JMP, cond);
+	bind(body);
+	breakLabels.add(done);
+	compileScoped(node.getBodyStmt());
+	breakLabels.remove(breakLabels.size() - 1);
+	bind(cond);
+	compileBranch(node.getPredExpr(), true, body);
+	releaseTemps();
+	bind(done);
+	return null;
+    }
+
+    public Object visit(ForStmt node) {
+	Label body = new Label();
+	Label cond = new Label();
+	Label done = new Label();
+	if (node.getInitExpr() != null) {
+	    compileInto(node.getInitExpr(), -1);
+	    releaseTemps();
+	}
+	emitBranch(Bytecode.JMP, cond);
+	bind(body);
+	breakLabels.add(done);
+	compileScoped(node.getBodyStmt());
+	breakLabels.remove(breakLabels.size() - 1);
+	if (node.getUpdateExpr() != null) {
+	    compileInto(node.getUpdateExpr(), -1);
+	    releaseTemps();
+	}
+	bind(cond);
+	if (node.getPredExpr() != null) {
+	    compileBranch(node.getPredExpr(), true, body);
+	    releaseTemps();
+	}
+	else {
+	    emitBranch(Bytecode.JMP, body);
+	}
+	bind(done);
+	return null;
+    }
+
+    public Object visit(BreakStmt node) {
+	emitBranch(Bytecode.JMP, breakLabels.get(breakLabels.size() - 1));
+	return null;
+    }
+
+    public Object visit(BlockStmt node) {
+	enterScope();
+	for (ASTNode stmt : node.getStmtList()) {
+	    compileStmt((Stmt) stmt);
+	}
+	exitScope();
+	return null;
+    }
+
+    public Object visit(ReturnStmt node) {
+	if (node.getExpr() == null) {
+	    emit(Bytecode.RET);
+	    return null;
+	}
+	int value = compileValue(node.getExpr());
+	emit(isRef(node.getExpr().getExprType()) ? Bytecode.RETR : Bytecode.RETI, value);
+	return null;
+    }
+}
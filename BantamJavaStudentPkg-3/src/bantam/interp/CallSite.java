@@ -0,0 +1,95 @@
+package bantam.interp;
+
+/** The <tt>CallSite</tt> class describes a method call in bytecode: where
+  * the receiver and the arguments are in the caller's registers, where
+  * they go in the callee's registers, and where the result goes.
+  *
+  * The callee's parameter registers only depend on the parameter types
+  * (int and boolean parameters take int registers 0, 1, ..., reference
+  * parameters take reference registers 1, 2, ..., in declaration order),
+  * and overriding methods have the same parameter types, so the mapping
+  * is the same for every method a virtual call may reach.
+  * */
+final class CallSite extends SourceNode {
+    /** Name of the called method */
+    final String methodName;
+
+    /** Statically bound target (super calls), null for virtual calls */
+    final RuntimeMethod target;
+
+    /** Receiver register */
+    final int receiver;
+
+    /** Caller registers holding the arguments */
+    final int[] argRegs;
+
+    /** Callee registers receiving the arguments */
+    final int[] paramRegs;
+
+    /** Whether each argument is a reference (otherwise an int register is used) */
+    final boolean[] argIsRef;
+
+    /** Result register (-1 if the result is unused) */
+    final int result;
+
+    /** Whether the result goes in a reference register */
+    final boolean resultIsRef;
+
+    /** Method cache of a virtual call (null for statically bound calls) */
+    final InlineCache cache;
+
+    /** Receiver class and method of a virtual call quickened by the VM
+      * (see Bytecode.CALLQ), null before it first executes */
+    RuntimeClass quickClass;
+    RuntimeMethod quickMethod;
+
+    /** Whether the call has reached another receiver class than its
+      * quickened one (it then stays with the inline cache) */
+    boolean polymorphic;
+
+    /** CallSite constructor
+      * @param methodName name of the called method
+      * @param target statically bound target (null for virtual calls)
+      * @param receiver receiver register
+      * @param argRegs caller registers holding the arguments
+      * @param argIsRef whether each argument is a reference
+      * @param result result register (-1 if unused)
+      * @param resultIsRef whether the result is a reference
+      * */
+    CallSite(String methodName, RuntimeMethod target, int receiver, int[] argRegs,
+	     boolean[] argIsRef, int result, boolean resultIsRef) {
+	this.methodName = methodName;
+	this.target = target;
+	this.receiver = receiver;
+	this.argRegs = argRegs;
+	this.argIsRef = argIsRef;
+	this.result = result;
+	this.resultIsRef = resultIsRef;
+	this.cache = (target == null) ? new InlineCache(methodName, this) : null;
+	this.paramRegs = new int[argRegs.length];
+	int numInts = 0, numRefs = 1;
+	for (int i = 0; i < argRegs.length; i++) {
+	    paramRegs[i] = argIsRef[i] ? numRefs++ : numInts++;
+	}
+    }
+
+    /** Get the inline cache of a virtual call (null for a super call) */
+    InlineCache getCache() {
+	return cache;
+    }
+
+    /** Describe the call for bytecode listings, e.g., "r1.get(i0) -> r2" */
+    public String toString() {
+	StringBuilder text = new StringBuilder();
+	text.append((target == null) ? "r" + receiver : target.owner.name);
+	text.append('.').append(methodName).append('(');
+	for (int i = 0; i < argRegs.length; i++) {
+	    text.append((i == 0) ? "" : ", ").append(argIsRef[i] ? "r" : "i").append(argRegs[i]);
+	}
+	text.append(')');
+	if (result >= 0) {
+	    text.append(" -> ").append(resultIsRef ? "r" : "i").append(result);
+	}
+	return text.toString();
+    }
+}
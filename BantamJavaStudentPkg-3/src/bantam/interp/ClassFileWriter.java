@@ -0,0 +1,401 @@
+package bantam.interp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/** The <tt>ClassFileWriter</tt> class assembles a JVM class file with
+  * one method at a time.  It only supports what <tt>JitCompiler</tt>
+  * needs: a constant pool of classes, strings, integers, and member
+  * references, methods with a Code attribute, and forward and backward
+  * branches to labels.
+  *
+  * Class files are written in version 49 (Java 5), which is verified by
+  * type inference, so no StackMapTable attributes have to be computed.
+  * Branch offsets are 16 bits; a method whose code does not fit is
+  * rejected with an <tt>IllegalStateException</tt>.
+  * */
+final class ClassFileWriter {
+    // JVM opcodes used by the JIT
+    static final int ACONST_NULL = 1;
+    static final int ICONST_0 = 3;
+    static final int BIPUSH = 16;
+    static final int SIPUSH = 17;
+    static final int LDC_W = 19;
+    static final int ILOAD = 21;
+    static final int ALOAD = 25;
+    static final int IALOAD = 46;
+    static final int AALOAD = 50;
+    static final int ISTORE = 54;
+    static final int ASTORE = 58;
+    static final int IASTORE = 79;
+    static final int AASTORE = 83;
+    static final int POP = 87;
+    static final int DUP = 89;
+    static final int IADD = 96;
+    static final int ISUB = 100;
+    static final int IMUL = 104;
+    static final int IDIV = 108;
+    static final int IREM = 112;
+    static final int INEG = 116;
+    static final int IXOR = 130;
+    static final int IINC = 132;
+    static final int IFEQ = 153;
+    static final int IFNE = 154;
+    static final int IFLT = 155;
+    static final int IFGE = 156;
+    static final int IFGT = 157;
+    static final int IFLE = 158;
+    static final int IF_ICMPEQ = 159;
+    static final int IF_ICMPNE = 160;
+    static final int IF_ICMPLT = 161;
+    static final int IF_ICMPGE = 162;
+    static final int IF_ICMPGT = 163;
+    static final int IF_ICMPLE = 164;
+    static final int IF_ACMPEQ = 165;
+    static final int IF_ACMPNE = 166;
+    static final int GOTO = 167;
+    static final int IRETURN = 172;
+    static final int ARETURN = 176;
+    static final int RETURN = 177;
+    static final int GETFIELD = 180;
+    static final int PUTFIELD = 181;
+    static final int INVOKEVIRTUAL = 182;
+    static final int INVOKESPECIAL = 183;
+    static final int INVOKESTATIC = 184;
+    static final int ARRAYLENGTH = 190;
+    static final int CHECKCAST = 192;
+    static final int WIDE = 196;
+    static final int IFNULL = 198;
+    static final int IFNONNULL = 199;
+
+    // access flags
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    /** Class file version (Java 5: no stack maps required) */
+    private static final int MAJOR_VERSION = 49;
+
+    /** Maximum size of the code of a method with 16-bit branch offsets */
+    private static final int MAX_CODE = 32767;
+
+    /** Internal name of the class */
+    private final String className;
+
+    /** Internal name of the superclass */
+    private final String superName;
+
+    /** Constant pool (without the unused entry 0) */
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolData = new DataOutputStream(pool);
+
+    /** Constant pool indices by entry (to share equal entries) */
+    private final HashMap<String, Integer> poolIndices = new HashMap<String, Integer>();
+
+    /** Next constant pool index */
+    private int poolSize = 1;
+
+    /** Finished methods */
+    private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+    private int numMethods;
+
+    /** State of the method being written */
+    private int access, nameIndex, descIndex, maxStack, maxLocals;
+    private byte[] code = new byte[256];
+    private int length;
+
+    /** Label positions (-1 while unbound) */
+    private int[] labels = new int[16];
+    private int numLabels;
+
+    /** Pending branches: position of the opcode and the label */
+    private final ArrayList<int[]> fixups = new ArrayList<int[]>();
+
+    /** ClassFileWriter constructor
+      * @param className internal name of the class (e.g., "bantam/interp/Foo")
+      * @param superName internal name of the superclass
+      * */
+    ClassFileWriter(String className, String superName) {
+	this.className = className;
+	this.superName = superName;
+    }
+
+    // constant pool
+
+    /** Add (or find) a constant pool entry
+      * @param key unique description of the entry
+      * @param tag entry tag
+      * @param operands 16-bit operands of the entry (or a single int for
+      *        CONSTANT_Integer)
+      * @return the constant pool index
+      * */
+    private int entry(String key, int tag, int... operands) {
+	Integer index = poolIndices.get(key);
+	if (index != null) {
+	    return index;
+	}
+	try {
+	    poolData.writeByte(tag);
+	    if (tag == 3) {
+		poolData.writeInt(operands[0]);
+	    }
+	    else {
+		for (int operand : operands) {
+		    poolData.writeShort(operand);
+		}
+	    }
+	} catch (IOException e) {
+	    throw new RuntimeException(e);
+	}
+	poolIndices.put(key, poolSize);
+	return poolSize++;
+    }
+
+    /** Add a CONSTANT_Utf8 entry */
+    int utf8(String value) {
+	String key = "U" + value;
+	Integer index = poolIndices.get(key);
+	if (index != null) {
+	    return index;
+	}
+	try {
+	    poolData.writeByte(1);
+	    poolData.writeUTF(value);
+	} catch (IOException e) {
+	    throw new RuntimeException(e);
+	}
+	poolIndices.put(key, poolSize);
+	return poolSize++;
+    }
+
+    /** Add a CONSTANT_Class entry */
+    int classRef(String name) {
+	return entry("C" + name, 7, utf8(name));
+    }
+
+    /** Add a CONSTANT_Integer entry */
+    int integer(int value) {
+	return entry("I" + value, 3, value);
+    }
+
+    /** Add a CONSTANT_NameAndType entry */
+    private int nameAndType(String name, String desc) {
+	return entry("N" + name + " " + desc, 12, utf8(name), utf8(desc));
+    }
+
+    /** Add a CONSTANT_Fieldref entry */
+    int fieldRef(String owner, String name, String desc) {
+	return entry("F" + owner + "." + name + " " + desc, 9,
+		     classRef(owner), nameAndType(name, desc));
+    }
+
+    /** Add a CONSTANT_Methodref entry */
+    int methodRef(String owner, String name, String desc) {
+	return entry("M" + owner + "." + name + " " + desc, 10,
+		     classRef(owner), nameAndType(name, desc));
+    }
+
+    // methods
+
+    /** Start a method
+      * @param access access flags
+      * @param name method name
+      * @param desc method descriptor
+      * @param maxStack maximum operand stack depth
+      * @param maxLocals number of local variable slots (including parameters)
+      * */
+    void beginMethod(int access, String name, String desc, int maxStack, int maxLocals) {
+	this.access = access;
+	this.nameIndex = utf8(name);
+	this.descIndex = utf8(desc);
+	this.maxStack = maxStack;
+	this.maxLocals = maxLocals;
+	length = 0;
+	numLabels = 0;
+	fixups.clear();
+    }
+
+    /** Finish the current method (resolving its branches) */
+    void endMethod() {
+	if (length > MAX_CODE) {
+	    throw new IllegalStateException("method too large (" + length + " bytes)");
+	}
+	for (int[] fixup : fixups) {
+	    int target = labels[fixup[1]];
+	    if (target < 0) {
+		throw new IllegalStateException("unbound label");
+	    }
+	    int offset = target - fixup[0];
+	    code[fixup[0] + 1] = (byte) (offset >> 8);
+	    code[fixup[0] + 2] = (byte) offset;
+	}
+	DataOutputStream out = new DataOutputStream(methods);
+	try {
+	    out.writeShort(access);
+	    out.writeShort(nameIndex);
+	    out.writeShort(descIndex);
+	    out.writeShort(1);
+	    out.writeShort(utf8("Code"));
+	    out.writeInt(12 + length);
+	    out.writeShort(maxStack);
+	    out.writeShort(maxLocals);
+	    out.writeInt(length);
+	    out.write(code, 0, length);
+	    out.writeShort(0);	// no exception handlers
+	    out.writeShort(0);	// no attributes
+	} catch (IOException e) {
+	    throw new RuntimeException(e);
+	}
+	numMethods++;
+    }
+
+    /** Get the size of the code of the current method so far */
+    int getCodeLength() {
+	return length;
+    }
+
+    // code
+
+    /** Append one byte */
+    private void put(int value) {
+	if (length == code.length) {
+	    byte[] bigger = new byte[code.length * 2];
+	    System.arraycopy(code, 0, bigger, 0, length);
+	    code = bigger;
+	}
+	code[length++] = (byte) value;
+    }
+
+    /** Append a 16-bit value */
+    private void put2(int value) {
+	put(value >> 8);
+	put(value);
+    }
+
+    /** Emit an instruction without operands */
+    void op(int opcode) {
+	put(opcode);
+    }
+
+    /** Emit an instruction with a 16-bit constant pool operand */
+    void op(int opcode, int index) {
+	put(opcode);
+	put2(index);
+    }
+
+    /** Emit an instruction that accesses a local variable (iload, astore, ...) */
+    void local(int opcode, int index) {
+	if (index > 255) {
+	    put(WIDE);
+	    put(opcode);
+	    put2(index);
+	}
+	else {
+	    put(opcode);
+	    put(index);
+	}
+    }
+
+    /** Emit an iinc of a local variable */
+    void iinc(int index, int increment) {
+	if (index > 255 || increment < -128 || increment > 127) {
+	    put(WIDE);
+	    put(IINC);
+	    put2(index);
+	    put2(increment);
+	}
+	else {
+	    put(IINC);
+	    put(index);
+	    put(increment);
+	}
+    }
+
+    /** Push an int constant using the shortest instruction */
+    void pushInt(int value) {
+	if (value >= -1 && value <= 5) {
+	    put(ICONST_0 + value);
+	}
+	else if (value >= -128 && value <= 127) {
+	    put(BIPUSH);
+	    put(value);
+	}
+	else if (value >= -32768 && value <= 32767) {
+	    put(SIPUSH);
+	    put2(value);
+	}
+	else {
+	    op(LDC_W, integer(value));
+	}
+    }
+
+    /** Emit a method invocation */
+    void invoke(int opcode, String owner, String name, String desc) {
+	op(opcode, methodRef(owner, name, desc));
+    }
+
+    /** Emit a field access */
+    void field(int opcode, String owner, String name, String desc) {
+	op(opcode, fieldRef(owner, name, desc));
+    }
+
+    // labels and branches
+
+    /** Create an unbound label
+      * @return the label
+      * */
+    int newLabel() {
+	if (numLabels == labels.length) {
+	    int[] bigger = new int[labels.length * 2];
+	    System.arraycopy(labels, 0, bigger, 0, numLabels);
+	    labels = bigger;
+	}
+	labels[numLabels] = -1;
+	return numLabels++;
+    }
+
+    /** Bind a label to the current position */
+    void bind(int label) {
+	labels[label] = length;
+    }
+
+    /** Emit a branch (goto, if*, if_icmp*, if_acmp*, ifnull, ifnonnull) to a label */
+    void branch(int opcode, int label) {
+	fixups.add(new int[] { length, label });
+	put(opcode);
+	put2(0);
+    }
+
+    // class file
+
+    /** Produce the class file
+      * @return the bytes of the class file
+      * */
+    byte[] toByteArray() {
+	int thisIndex = classRef(className);
+	int superIndex = classRef(superName);
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	DataOutputStream out = new DataOutputStream(bytes);
+	try {
+	    out.writeInt(0xCAFEBABE);
+	    out.writeShort(0);
+	    out.writeShort(MAJOR_VERSION);
+	    out.writeShort(poolSize);
+	    pool.writeTo(out);
+	    out.writeShort(ACC_FINAL | ACC_SUPER);
+	    out.writeShort(thisIndex);
+	    out.writeShort(superIndex);
+	    out.writeShort(0);	// no interfaces
+	    out.writeShort(0);	// no fields
+	    out.writeShort(numMethods);
+	    methods.writeTo(out);
+	    out.writeShort(0);	// no attributes
+	} catch (IOException e) {
+	    throw new RuntimeException(e);
+	}
+	return bytes.toByteArray();
+    }
+}
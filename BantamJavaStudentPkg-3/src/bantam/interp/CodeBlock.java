@@ -0,0 +1,112 @@
+package bantam.interp;
+
+/** The <tt>CodeBlock</tt> class holds the bytecode of a method body (or
+  * of the field initializers of a class) as produced by
+  * <tt>BytecodeCompiler</tt>: the code array (with the source line of
+  * each word), its constant pool, and the sizes of the two register
+  * files it needs.
+  * */
+final class CodeBlock {
+    /** Name used in listings (e.g., "Main.main") */
+    final String name;
+
+    /** Instructions (see <tt>Bytecode</tt>) */
+    final int[] code;
+
+    /** Source line of each code word (for the profiler) */
+    final int[] lines;
+
+    /** Constant pool (strings, classes, type tests, call sites, and error sites) */
+    final Object[] constants;
+
+    /** Number of int registers */
+    final int numIntRegs;
+
+    /** Number of reference registers (including register 0, 'this') */
+    final int numRefRegs;
+
+    /** Number of times the block was entered */
+    int invocations;
+
+    /** Number of backward branches taken in the block */
+    int backEdges;
+
+    /** JVM code compiled from the block (null while it is interpreted) */
+    CompiledCode compiled;
+
+    /** JVM code compiled for entering the block at a loop header from the
+      * interpreter (on-stack replacement), indexed by the pc of the header
+      * (null until a loop of the block gets hot) */
+    CompiledCode[] osrCode;
+
+    /** Number of times an activation left the interpreter for osrCode */
+    int osrEntries;
+
+    /** Whether the JIT failed to compile the block (it is not tried again) */
+    boolean notCompilable;
+
+    /** Calls and self time (in ns) spent interpreted and compiled, for the JIT log */
+    long interpretedCalls, interpretedTime, compiledCalls, compiledTime;
+
+    /** Register files of finished activations, reused by later ones
+      * (the first numFreeInts/numFreeRefs entries are valid) */
+    private int[][] freeInts = new int[4][];
+    private Object[][] freeRefs = new Object[4][];
+    private int numFreeInts, numFreeRefs;
+
+    /** CodeBlock constructor
+      * @param name name used in listings
+      * @param code instructions
+      * @param lines source line of each code word
+      * @param constants constant pool
+      * @param numIntRegs number of int registers
+      * @param numRefRegs number of reference registers
+      * */
+    CodeBlock(String name, int[] code, int[] lines, Object[] constants,
+	      int numIntRegs, int numRefRegs) {
+	this.name = name;
+	this.code = code;
+	this.lines = lines;
+	this.constants = constants;
+	this.numIntRegs = numIntRegs;
+	this.numRefRegs = numRefRegs;
+    }
+
+    /** Get an int register file for an activation (a recycled one if
+      * available; registers are always written before they are read, so
+      * recycled files are not cleared)
+      * @return the register file
+      * */
+    int[] newInts() {
+	return (numFreeInts > 0) ? freeInts[--numFreeInts] : new int[numIntRegs];
+    }
+
+    /** Get a reference register file for an activation (see newInts)
+      * @param self 'this' of the activation (stored in register 0)
+      * @return the register file
+      * */
+    Object[] newRefs(Object self) {
+	Object[] refs = (numFreeRefs > 0) ? freeRefs[--numFreeRefs] : new Object[numRefRegs];
+	refs[0] = self;
+	return refs;
+    }
+
+    /** Recycle the register files of an activation that has returned
+      * @param ints int register file (from newInts)
+      * @param refs reference register file (from newRefs)
+      * */
+    void free(int[] ints, Object[] refs) {
+	if (numFreeInts == freeInts.length) {
+	    int[][] bigger = new int[freeInts.length * 2][];
+	    System.arraycopy(freeInts, 0, bigger, 0, numFreeInts);
+	    freeInts = bigger;
+	}
+	freeInts[numFreeInts++] = ints;
+	if (numFreeRefs == freeRefs.length) {
+	    Object[][] bigger = new Object[freeRefs.length * 2][];
+	    System.arraycopy(freeRefs, 0, bigger, 0, numFreeRefs);
+	    freeRefs = bigger;
+	}
+	freeRefs[numFreeRefs++] = refs;
+    }
+}
@@ -0,0 +1,85 @@
+package bantam.interp;
+
+/** The <tt>CompiledCode</tt> class is the base class of the JVM classes
+  * generated by <tt>JitCompiler</tt>.  Each subclass runs one code block
+  * with the VM's calling convention: the registers arrive in (and calls
+  * leave through) <tt>int[]</tt> and <tt>Object[]</tt> register files,
+  * int results are returned, and reference results are left in the VM.
+  * Within the generated method, registers live in JVM local variables.
+  * */
+abstract class CompiledCode {
+    /** Constant pool of the compiled code block */
+    final Object[] constants;
+
+    /** Number of int registers of the compiled code block */
+    final int numIntRegs;
+
+    /** Number of reference registers of the compiled code block */
+    final int numRefRegs;
+
+    /** Register files of returned direct calls, for reuse (see
+      * CodeBlock.freeInts: direct calls would otherwise allocate a pair of
+      * them on every call) */
+    private int[][] freeInts = new int[4][];
+    private Object[][] freeRefs = new Object[4][];
+    private int numFreeInts, numFreeRefs;
+
+    /** CompiledCode constructor
+      * @param constants constant pool of the compiled code block
+      * @param numIntRegs number of int registers of the block
+      * @param numRefRegs number of reference registers of the block
+      * */
+    CompiledCode(Object[] constants, int numIntRegs, int numRefRegs) {
+	this.constants = constants;
+	this.numIntRegs = numIntRegs;
+	this.numRefRegs = numRefRegs;
+    }
+
+    /** Get the int register file of a call made directly from compiled
+      * code (see JitCompiler.call): a recycled one if any, since its
+      * registers are all written before they are read
+      * @return the register file
+      * */
+    int[] newInts() {
+	return (numFreeInts > 0) ? freeInts[--numFreeInts] : new int[numIntRegs];
+    }
+
+    /** Get the reference register file of a call made directly from
+      * compiled code (see newInts)
+      * @param self 'this' of the call (stored in register 0)
+      * @return the register file
+      * */
+    Object[] newRefs(Object self) {
+	Object[] refs = (numFreeRefs > 0) ? freeRefs[--numFreeRefs] : new Object[numRefRegs];
+	refs[0] = self;
+	return refs;
+    }
+
+    /** Recycle the register files of a direct call that has returned (a
+      * call that throws leaves its files to the garbage collector)
+      * @param ints int register file (from newInts)
+      * @param refs reference register file (from newRefs)
+      * */
+    void free(int[] ints, Object[] refs) {
+	if (numFreeInts == freeInts.length) {
+	    int[][] bigger = new int[freeInts.length * 2][];
+	    System.arraycopy(freeInts, 0, bigger, 0, numFreeInts);
+	    freeInts = bigger;
+	}
+	freeInts[numFreeInts++] = ints;
+	if (numFreeRefs == freeRefs.length) {
+	    Object[][] bigger = new Object[freeRefs.length * 2][];
+	    System.arraycopy(freeRefs, 0, bigger, 0, numFreeRefs);
+	    freeRefs = bigger;
+	}
+	freeRefs[numFreeRefs++] = refs;
+    }
+
+    /** Run the compiled code block
+      * @param vm the VM (for calls, allocation, and reference results)
+      * @param ints int registers (parameters already set)
+      * @param refs reference registers ('this' and parameters already set)
+      * @return the int (or boolean) result
+      * */
+    abstract int run(VM vm, int[] ints, Object[] refs);
+}
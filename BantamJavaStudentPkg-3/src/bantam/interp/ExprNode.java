@@ -0,0 +1,837 @@
+package bantam.interp;
+
+/** The <tt>ExprNode</tt> class is the base class of the executable
+  * expression nodes built by <tt>NodeBuilder</tt> from the typed AST.
+  * Variable references have already been resolved to frame slots or
+  * field offsets, so executing a node never consults a symbol table.
+  *
+  * Values are never boxed: nodes producing ints implement
+  * <tt>executeInt()</tt>, nodes producing booleans <tt>executeBoolean()</tt>
+  * (both are available on either, booleans being stored as 0 or 1), and
+  * nodes producing references (<tt>RuntimeValue</tt> or null)
+  * <tt>execute()</tt>.  <tt>NodeBuilder</tt> picks the node kind from the
+  * static type, so a node is only asked for the kind of value it produces;
+  * <tt>executeVoid()</tt> evaluates a node for its effect only.
+  * */
+abstract class ExprNode extends SourceNode {
+    /** Error message for null dereferences */
+    static final String NULL_POINTER = "null pointer referenced\n";
+
+    /** Error message for division (and modulus) by zero */
+    static final String DIVIDE_BY_ZERO = "divide by zero\n";
+
+    /** Get the error message for an out of bounds array index */
+    static String indexError(int index) {
+	return "array index '" + index + "' out of bounds\n";
+    }
+
+    /** Get the error message for a negative array size */
+    static String sizeError(int size) {
+	return "illegal array size '" + size + "' (must be >=0 and <=1500 if GC enabled)\n";
+    }
+
+    /** Get the error message for storing an object of the wrong type in an array */
+    static String storeError(RuntimeValue value, RuntimeArray array) {
+	return "array store error\nCan't assign object of type '" + value.getTypeName() +
+	    "' to element in array of type '" + array.elementType + "'\n";
+    }
+
+    /** Evaluate a reference expression
+      * @param frame frame of the executing method
+      * @return value of the expression
+      * */
+    Object execute(Frame frame) {
+	throw new RuntimeException("Internal error: " + getClass().getSimpleName() +
+				   " does not produce a reference");
+    }
+
+    /** Evaluate an int expression
+      * @param frame frame of the executing method
+      * @return value of the expression
+      * */
+    int executeInt(Frame frame) {
+	throw new RuntimeException("Internal error: " + getClass().getSimpleName() +
+				   " does not produce an int");
+    }
+
+    /** Evaluate a boolean expression
+      * @param frame frame of the executing method
+      * @return value of the expression
+      * */
+    boolean executeBoolean(Frame frame) {
+	throw new RuntimeException("Internal error: " + getClass().getSimpleName() +
+				   " does not produce a boolean");
+    }
+
+    /** Evaluate an expression for its side effects only
+      * @param frame frame of the executing method
+      * */
+    void executeVoid(Frame frame) {
+	execute(frame);
+    }
+
+    /** Check that a reference is not null
+      * @param value reference value
+      * @return the value cast to a RuntimeValue
+      * */
+    final RuntimeValue checkNull(Object value) {
+	if (value == null) {
+	    throw error(NULL_POINTER);
+	}
+	return (RuntimeValue) value;
+    }
+
+    /** Base class of nodes producing ints (or booleans stored as ints) */
+    abstract static class IntNode extends ExprNode {
+	abstract int executeInt(Frame frame);
+
+	boolean executeBoolean(Frame frame) {
+	    return executeInt(frame) != 0;
+	}
+
+	void executeVoid(Frame frame) {
+	    executeInt(frame);
+	}
+    }
+
+    /** Base class of nodes producing booleans */
+    abstract static class BooleanNode extends ExprNode {
+	abstract boolean executeBoolean(Frame frame);
+
+	int executeInt(Frame frame) {
+	    return executeBoolean(frame) ? 1 : 0;
+	}
+
+	void executeVoid(Frame frame) {
+	    executeBoolean(frame);
+	}
+    }
+
+    /** Constant (null, or a preallocated string) */
+    static final class Const extends ExprNode {
+	final Object value;
+
+	Const(Object value) {
+	    this.value = value;
+	}
+
+	Object execute(Frame frame) {
+	    return value;
+	}
+    }
+
+    /** Integer constant */
+    static final class IntConst extends IntNode {
+	final int value;
+
+	IntConst(int value) {
+	    this.value = value;
+	}
+
+	int executeInt(Frame frame) {
+	    return value;
+	}
+    }
+
+    /** Boolean constant */
+    static final class BooleanConst extends BooleanNode {
+	final boolean value;
+
+	BooleanConst(boolean value) {
+	    this.value = value;
+	}
+
+	boolean executeBoolean(Frame frame) {
+	    return value;
+	}
+    }
+
+    /** The 'this' (or 'super') reference */
+    static final class This extends ExprNode {
+	Object execute(Frame frame) {
+	    return frame.self;
+	}
+    }
+
+    /** Load of an int or boolean parameter or local variable */
+    static final class LocalInt extends IntNode {
+	final int slot;
+
+	LocalInt(int slot) {
+	    this.slot = slot;
+	}
+
+	int executeInt(Frame frame) {
+	    return frame.ints[slot];
+	}
+    }
+
+    /** Load of a reference parameter or local variable */
+    static final class LocalRef extends ExprNode {
+	final int slot;
+
+	LocalRef(int slot) {
+	    this.slot = slot;
+	}
+
+	Object execute(Frame frame) {
+	    return frame.refs[slot];
+	}
+    }
+
+    /** Store to an int or boolean parameter or local variable */
+    static final class LocalIntStore extends IntNode {
+	final int slot;
+	final ExprNode value;
+
+	LocalIntStore(int slot, ExprNode value) {
+	    this.slot = slot;
+	    this.value = value;
+	}
+
+	int executeInt(Frame frame) {
+	    return frame.ints[slot] = value.executeInt(frame);
+	}
+    }
+
+    /** Store to a reference parameter or local variable */
+    static final class LocalRefStore extends ExprNode {
+	final int slot;
+	final ExprNode value;
+
+	LocalRefStore(int slot, ExprNode value) {
+	    this.slot = slot;
+	    this.value = value;
+	}
+
+	Object execute(Frame frame) {
+	    return frame.refs[slot] = value.execute(frame);
+	}
+    }
+
+    /** Load of an int or boolean field of 'this' */
+    static final class FieldIntLoad extends IntNode {
+	final int offset;
+
+	FieldIntLoad(int offset) {
+	    this.offset = offset;
+	}
+
+	int executeInt(Frame frame) {
+	    return ((RuntimeObject) frame.self).ints[offset];
+	}
+    }
+
+    /** Load of a reference field of 'this' */
+    static final class FieldRefLoad extends ExprNode {
+	final int offset;
+
+	FieldRefLoad(int offset) {
+	    this.offset = offset;
+	}
+
+	Object execute(Frame frame) {
+	    return ((RuntimeObject) frame.self).refs[offset];
+	}
+    }
+
+    /** Store to an int or boolean field of 'this' */
+    static final class FieldIntStore extends IntNode {
+	final int offset;
+	final ExprNode value;
+
+	FieldIntStore(int offset, ExprNode value) {
+	    this.offset = offset;
+	    this.value = value;
+	}
+
+	int executeInt(Frame frame) {
+	    return ((RuntimeObject) frame.self).ints[offset] = value.executeInt(frame);
+	}
+    }
+
+    /** Store to a reference field of 'this' */
+    static final class FieldRefStore extends ExprNode {
+	final int offset;
+	final ExprNode value;
+
+	FieldRefStore(int offset, ExprNode value) {
+	    this.offset = offset;
+	    this.value = value;
+	}
+
+	Object execute(Frame frame) {
+	    return ((RuntimeObject) frame.self).refs[offset] = value.execute(frame);
+	}
+    }
+
+    /** Pre/post increment or decrement of a local variable */
+    static final class LocalIncrement extends IntNode {
+	final int slot;
+	final int delta;
+	final boolean postfix;
+
+	LocalIncrement(int slot, int delta, boolean postfix) {
+	    this.slot = slot;
+	    this.delta = delta;
+	    this.postfix = postfix;
+	}
+
+	int executeInt(Frame frame) {
+	    int old = frame.ints[slot];
+	    frame.ints[slot] = old + delta;
+	    return postfix ? old : old + delta;
+	}
+    }
+
+    /** Pre/post increment or decrement of a field of 'this' */
+    static final class FieldIncrement extends IntNode {
+	final int offset;
+	final int delta;
+	final boolean postfix;
+
+	FieldIncrement(int offset, int delta, boolean postfix) {
+	    this.offset = offset;
+	    this.delta = delta;
+	    this.postfix = postfix;
+	}
+
+	int executeInt(Frame frame) {
+	    int[] fields = ((RuntimeObject) frame.self).ints;
+	    int old = fields[offset];
+	    fields[offset] = old + delta;
+	    return postfix ? old : old + delta;
+	}
+    }
+
+    /** Length of an array */
+    static final class ArrayLength extends IntNode {
+	final ExprNode array;
+
+	ArrayLength(ExprNode array) {
+	    this.array = array;
+	}
+
+	int executeInt(Frame frame) {
+	    return ((RuntimeArray) checkNull(array.execute(frame))).length();
+	}
+    }
+
+    /** Load of an element of an int or boolean array */
+    static final class ArrayIntLoad extends IntNode {
+	final ExprNode array;
+	final ExprNode index;
+
+	ArrayIntLoad(ExprNode array, ExprNode index) {
+	    this.array = array;
+	    this.index = index;
+	}
+
+	int executeInt(Frame frame) {
+	    int[] elements = ((RuntimeArray) checkNull(array.execute(frame))).ints;
+	    int i = index.executeInt(frame);
+	    if (i < 0 || i >= elements.length) {
+		throw error(indexError(i));
+	    }
+	    return elements[i];
+	}
+    }
+
+    /** Load of an element of a reference array */
+    static final class ArrayRefLoad extends ExprNode {
+	final ExprNode array;
+	final ExprNode index;
+
+	ArrayRefLoad(ExprNode array, ExprNode index) {
+	    this.array = array;
+	    this.index = index;
+	}
+
+	Object execute(Frame frame) {
+	    Object[] elements = ((RuntimeArray) checkNull(array.execute(frame))).refs;
+	    int i = index.executeInt(frame);
+	    if (i < 0 || i >= elements.length) {
+		throw error(indexError(i));
+	    }
+	    return elements[i];
+	}
+    }
+
+    /** Store to an element of an int or boolean array */
+    static final class ArrayIntStore extends IntNode {
+	final ExprNode array;
+	final ExprNode index;
+	final ExprNode value;
+
+	ArrayIntStore(ExprNode array, ExprNode index, ExprNode value) {
+	    this.array = array;
+	    this.index = index;
+	    this.value = value;
+	}
+
+	int executeInt(Frame frame) {
+	    int[] elements = ((RuntimeArray) checkNull(array.execute(frame))).ints;
+	    int i = index.executeInt(frame);
+	    int result = value.executeInt(frame);
+	    if (i < 0 || i >= elements.length) {
+		throw error(indexError(i));
+	    }
+	    elements[i] = result;
+	    return result;
+	}
+    }
+
+    /** Store to an element of a reference array */
+    static final class ArrayRefStore extends ExprNode {
+	final ExprNode array;
+	final ExprNode index;
+	final ExprNode value;
+
+	ArrayRefStore(ExprNode array, ExprNode index, ExprNode value) {
+	    this.array = array;
+	    this.index = index;
+	    this.value = value;
+	}
+
+	Object execute(Frame frame) {
+	    RuntimeArray target = (RuntimeArray) checkNull(array.execute(frame));
+	    int i = index.executeInt(frame);
+	    Object result = value.execute(frame);
+	    if (i < 0 || i >= target.refs.length) {
+		throw error(indexError(i));
+	    }
+	    if (target.elementClass != null && result != null &&
+		!((RuntimeValue) result).cls.isSubclassOf(target.elementClass)) {
+		throw error(storeError((RuntimeValue) result, target));
+	    }
+	    target.refs[i] = result;
+	    return result;
+	}
+    }
+
+    /** Base class of method calls.  Arguments are evaluated into the
+      * callee's frame (int and boolean arguments into its int slots,
+      * references after 'this'); the result is read back from the frame
+      * according to the kind of value the caller asks for, and the frame
+      * is then recycled. */
+    abstract static class Call extends ExprNode {
+	final ExprNode[] args;
+
+	/** Whether each argument is an int or boolean */
+	final boolean[] intArgs;
+
+	Call(ExprNode[] args, boolean[] intArgs) {
+	    this.args = args;
+	    this.intArgs = intArgs;
+	}
+
+	/** Evaluate the receiver of the call
+	  * @param frame frame of the caller
+	  * @return the receiver (not null)
+	  * */
+	abstract RuntimeValue getReceiver(Frame frame);
+
+	/** Find the method a receiver runs
+	  * @param self the receiver
+	  * @return the method
+	  * */
+	abstract RuntimeMethod target(RuntimeValue self);
+
+	/** Build the callee frame and run the method */
+	final Frame invoke(Frame frame, RuntimeValue self, RuntimeMethod method) {
+	    Frame callee = method.newFrame(self);
+	    Heap heap = method.heap;
+	    heap.pushFrame(callee.refs);
+	    int ints = 0, refs = 1;
+	    for (int i = 0; i < args.length; i++) {
+		if (intArgs[i]) {
+		    callee.ints[ints++] = args[i].executeInt(frame);
+		}
+		else {
+		    callee.refs[refs++] = args[i].execute(frame);
+		}
+	    }
+	    method.invoke(callee, this);
+	    heap.popFrame();
+	    return callee;
+	}
+
+	Object execute(Frame frame) {
+	    RuntimeValue self = getReceiver(frame);
+	    RuntimeMethod method = target(self);
+	    Frame callee = invoke(frame, self, method);
+	    Object result = callee.refResult;
+	    method.freeFrame(callee);
+	    return result;
+	}
+
+	int executeInt(Frame frame) {
+	    RuntimeValue self = getReceiver(frame);
+	    RuntimeMethod method = target(self);
+	    Frame callee = invoke(frame, self, method);
+	    int result = callee.intResult;
+	    method.freeFrame(callee);
+	    return result;
+	}
+
+	boolean executeBoolean(Frame frame) {
+	    return executeInt(frame) != 0;
+	}
+
+	void executeVoid(Frame frame) {
+	    RuntimeValue self = getReceiver(frame);
+	    RuntimeMethod method = target(self);
+	    method.freeFrame(invoke(frame, self, method));
+	}
+    }
+
+    /** Dynamically dispatched method call */
+    static final class Dispatch extends Call {
+	final ExprNode receiver;
+	final String methodName;
+	final InlineCache cache;
+
+	Dispatch(ExprNode receiver, String methodName, ExprNode[] args, boolean[] intArgs) {
+	    super(args, intArgs);
+	    this.receiver = receiver;
+	    this.methodName = methodName;
+	    this.cache = new InlineCache(methodName, this);
+	}
+
+	InlineCache getCache() {
+	    return cache;
+	}
+
+	RuntimeValue getReceiver(Frame frame) {
+	    return checkNull(receiver.execute(frame));
+	}
+
+	RuntimeMethod target(RuntimeValue self) {
+	    return cache.lookup(self.cls);
+	}
+    }
+
+    /** Statically bound call on 'this' (used for super.m(...)) */
+    static final class StaticCall extends Call {
+	final RuntimeMethod method;
+
+	StaticCall(RuntimeMethod method, ExprNode[] args, boolean[] intArgs) {
+	    super(args, intArgs);
+	    this.method = method;
+	}
+
+	RuntimeValue getReceiver(Frame frame) {
+	    return frame.self;
+	}
+
+	RuntimeMethod target(RuntimeValue self) {
+	    return method;
+	}
+    }
+
+    /** Object construction */
+    static final class New extends ExprNode {
+	final RuntimeClass cls;
+
+	New(RuntimeClass cls) {
+	    this.cls = cls;
+	}
+
+	Object execute(Frame frame) {
+	    RuntimeObject object = cls.newInstance();
+	    cls.initialize(object);
+	    return object;
+	}
+    }
+
+    /** String construction (new String() is the empty string) */
+    static final class NewString extends ExprNode {
+	final Builtins builtins;
+
+	NewString(Builtins builtins) {
+	    this.builtins = builtins;
+	}
+
+	Object execute(Frame frame) {
+	    return builtins.newString("");
+	}
+    }
+
+    /** Array construction */
+    static final class NewArray extends ExprNode {
+	final Heap heap;
+	final RuntimeClass objectClass;
+	final String elementType;
+	final RuntimeClass elementClass;
+	final ExprNode size;
+
+	NewArray(Heap heap, RuntimeClass objectClass, String elementType,
+		 RuntimeClass elementClass, ExprNode size) {
+	    this.heap = heap;
+	    this.objectClass = objectClass;
+	    this.elementType = elementType;
+	    this.elementClass = elementClass;
+	    this.size = size;
+	}
+
+	Object execute(Frame frame) {
+	    int n = size.executeInt(frame);
+	    if (n < 0) {
+		throw error(sizeError(n));
+	    }
+	    return RuntimeArray.create(heap, objectClass, elementType, elementClass, n);
+	}
+    }
+
+    /** Run-time type test shared by instanceof and casts */
+    static final class TypeTest {
+	/** Name of the target type */
+	final String type;
+
+	/** Target class (the element class for array types, null if primitive) */
+	final RuntimeClass cls;
+
+	/** Whether the target type is an array type */
+	final boolean isArray;
+
+	/** Name of the element type (array types only) */
+	final String elementType;
+
+	TypeTest(String type, RuntimeClass cls, boolean isArray, String elementType) {
+	    this.type = type;
+	    this.cls = cls;
+	    this.isArray = isArray;
+	    this.elementType = elementType;
+	}
+
+	String castError(RuntimeValue value) {
+	    return "illegal class cast\nCan't convert object of type '" +
+		value.getTypeName() + "' to type '" + type + "'\n";
+	}
+
+	boolean test(RuntimeValue value) {
+	    if (isArray) {
+		return value instanceof RuntimeArray &&
+		    ((RuntimeArray) value).isArrayOf(elementType, cls);
+	    }
+	    return value.cls.isSubclassOf(cls);
+	}
+    }
+
+    /** instanceof expression */
+    static final class InstanceOf extends BooleanNode {
+	final ExprNode expr;
+	final TypeTest test;
+
+	InstanceOf(ExprNode expr, TypeTest test) {
+	    this.expr = expr;
+	    this.test = test;
+	}
+
+	boolean executeBoolean(Frame frame) {
+	    Object value = expr.execute(frame);
+	    return value != null && test.test((RuntimeValue) value);
+	}
+    }
+
+    /** Checked downcast */
+    static final class Cast extends ExprNode {
+	final ExprNode expr;
+	final TypeTest test;
+
+	Cast(ExprNode expr, TypeTest test) {
+	    this.expr = expr;
+	    this.test = test;
+	}
+
+	Object execute(Frame frame) {
+	    Object value = expr.execute(frame);
+	    if (value != null && !test.test((RuntimeValue) value)) {
+		throw error(test.castError((RuntimeValue) value));
+	    }
+	    return value;
+	}
+    }
+
+    /** Base class of binary int operations */
+    abstract static class IntBinary extends IntNode {
+	final ExprNode left;
+	final ExprNode right;
+
+	IntBinary(ExprNode left, ExprNode right) {
+	    this.left = left;
+	    this.right = right;
+	}
+    }
+
+    static final class Add extends IntBinary {
+	Add(ExprNode left, ExprNode right) { super(left, right); }
+
+	int executeInt(Frame frame) {
+	    return left.executeInt(frame) + right.executeInt(frame);
+	}
+    }
+
+    static final class Sub extends IntBinary {
+	Sub(ExprNode left, ExprNode right) { super(left, right); }
+
+	int executeInt(Frame frame) {
+	    return left.executeInt(frame) - right.executeInt(frame);
+	}
+    }
+
+    static final class Mul extends IntBinary {
+	Mul(ExprNode left, ExprNode right) { super(left, right); }
+
+	int executeInt(Frame frame) {
+	    return left.executeInt(frame) * right.executeInt(frame);
+	}
+    }
+
+    static final class Div extends IntBinary {
+	Div(ExprNode left, ExprNode right) { super(left, right); }
+
+	int executeInt(Frame frame) {
+	    int dividend = left.executeInt(frame);
+	    int divisor = right.executeInt(frame);
+	    if (divisor == 0) {
+		throw error(DIVIDE_BY_ZERO);
+	    }
+	    return dividend / divisor;
+	}
+    }
+
+    static final class Mod extends IntBinary {
+	Mod(ExprNode left, ExprNode right) { super(left, right); }
+
+	int executeInt(Frame frame) {
+	    int dividend = left.executeInt(frame);
+	    int divisor = right.executeInt(frame);
+	    if (divisor == 0) {
+		throw error(DIVIDE_BY_ZERO);
+	    }
+	    return dividend % divisor;
+	}
+    }
+
+    static final class Neg extends IntNode {
+	final ExprNode expr;
+
+	Neg(ExprNode expr) { this.expr = expr; }
+
+	int executeInt(Frame frame) {
+	    return -expr.executeInt(frame);
+	}
+    }
+
+    /** Base class of binary operations producing booleans */
+    abstract static class BooleanBinary extends BooleanNode {
+	final ExprNode left;
+	final ExprNode right;
+
+	BooleanBinary(ExprNode left, ExprNode right) {
+	    this.left = left;
+	    this.right = right;
+	}
+    }
+
+    static final class Lt extends BooleanBinary {
+	Lt(ExprNode left, ExprNode right) { super(left, right); }
+
+	boolean executeBoolean(Frame frame) {
+	    return left.executeInt(frame) < right.executeInt(frame);
+	}
+    }
+
+    static final class Le extends BooleanBinary {
+	Le(ExprNode left, ExprNode right) { super(left, right); }
+
+	boolean executeBoolean(Frame frame) {
+	    return left.executeInt(frame) <= right.executeInt(frame);
+	}
+    }
+
+    static final class Gt extends BooleanBinary {
+	Gt(ExprNode left, ExprNode right) { super(left, right); }
+
+	boolean executeBoolean(Frame frame) {
+	    return left.executeInt(frame) > right.executeInt(frame);
+	}
+    }
+
+    static final class Ge extends BooleanBinary {
+	Ge(ExprNode left, ExprNode right) { super(left, right); }
+
+	boolean executeBoolean(Frame frame) {
+	    return left.executeInt(frame) >= right.executeInt(frame);
+	}
+    }
+
+    /** == and != on ints */
+    static final class IntEq extends BooleanBinary {
+	final boolean negate;
+
+	IntEq(ExprNode left, ExprNode right, boolean negate) {
+	    super(left, right);
+	    this.negate = negate;
+	}
+
+	boolean executeBoolean(Frame frame) {
+	    return (left.executeInt(frame) == right.executeInt(frame)) != negate;
+	}
+    }
+
+    /** == and != on booleans */
+    static final class BooleanEq extends BooleanBinary {
+	final boolean negate;
+
+	BooleanEq(ExprNode left, ExprNode right, boolean negate) {
+	    super(left, right);
+	    this.negate = negate;
+	}
+
+	boolean executeBoolean(Frame frame) {
+	    return (left.executeBoolean(frame) == right.executeBoolean(frame)) != negate;
+	}
+    }
+
+    /** == and != on references (identity) */
+    static final class RefEq extends BooleanBinary {
+	final boolean negate;
+
+	RefEq(ExprNode left, ExprNode right, boolean negate) {
+	    super(left, right);
+	    this.negate = negate;
+	}
+
+	boolean executeBoolean(Frame frame) {
+	    return (left.execute(frame) == right.execute(frame)) != negate;
+	}
+    }
+
+    static final class And extends BooleanBinary {
+	And(ExprNode left, ExprNode right) { super(left, right); }
+
+	boolean executeBoolean(Frame frame) {
+	    return left.executeBoolean(frame) && right.executeBoolean(frame);
+	}
+    }
+
+    static final class Or extends BooleanBinary {
+	Or(ExprNode left, ExprNode right) { super(left, right); }
+
+	boolean executeBoolean(Frame frame) {
+	    return left.executeBoolean(frame) || right.executeBoolean(frame);
+	}
+    }
+
+    static final class Not extends BooleanNode {
+	final ExprNode expr;
+
+	Not(ExprNode expr) { this.expr = expr; }
+
+	boolean executeBoolean(Frame frame) {
+	    return !expr.executeBoolean(frame);
+	}
+    }
+}
@@ -0,0 +1,53 @@
+package bantam.interp;
+
+/** The <tt>Frame</tt> class is the activation record of an executing
+  * method.  Parameters and local variables live in numbered slots that
+  * the <tt>NodeBuilder</tt> assigns before execution, so variable
+  * accesses are plain array indexing.  As in the VM's register files,
+  * ints and booleans (0 or 1) live in an <tt>int[]</tt> and references
+  * in an <tt>Object[]</tt> whose slot 0 holds 'this'; parameters come
+  * first, in declaration order (int parameters in int slots 0, 1, ...,
+  * reference parameters in reference slots 1, 2, ...).
+  *
+  * Frames never outlive their activation, so the frames of a method are
+  * recycled by <tt>RuntimeMethod</tt> once a call returns; a frame's
+  * slots are therefore not cleared between activations (Bantam variables
+  * are always assigned before they are read).
+  * */
+final class Frame {
+    /** Receiver of the method (the 'this' object, also in refs[0]) */
+    RuntimeValue self;
+
+    /** Int and boolean parameter and local variable slots */
+    final int[] ints;
+
+    /** Reference slots ('this', then parameters and local variables) */
+    final Object[] refs;
+
+    /** Int or boolean value of the last executed return statement */
+    int intResult;
+
+    /** Reference value of the last executed return statement */
+    Object refResult;
+
+    /** Frame constructor
+      * @param self receiver of the method
+      * @param numInts number of int slots needed by the method
+      * @param numRefs number of reference slots needed by the method (at least 1)
+      * */
+    Frame(RuntimeValue self, int numInts, int numRefs) {
+	this.self = self;
+	this.ints = new int[numInts];
+	this.refs = new Object[numRefs];
+	refs[0] = self;
+    }
+
+    /** Reuse this frame for a new activation
+      * @param self receiver of the method
+      * */
+    void reset(RuntimeValue self) {
+	this.self = self;
+	refs[0] = self;
+	refResult = null;
+    }
+}
@@ -0,0 +1,306 @@
+package bantam.interp;
+
+import java.util.Arrays;
+
+/** The <tt>Heap</tt> class manages the memory of one run of a program
+  * the way the runtime of the compiled code does: objects, strings, and
+  * arrays are allocated by bumping a pointer through a heap of a fixed
+  * size, and when the heap is full either the program runs out of
+  * memory or, with garbage collection enabled, a collection makes room.
+  *
+  * Sizes follow the layout of the compiled code: a 12-byte header plus
+  * 4 bytes per field, array element (plus the length), or 4 characters
+  * (plus the length and the terminator).  String constants are static
+  * data and are not allocated in the heap.
+  *
+  * The collector is a semispace copying collector (Cheney).  The heap
+  * keeps its objects in address order in the from-space; a collection
+  * evacuates the objects reachable from the roots into the to-space,
+  * scanning the to-space itself as the queue of objects whose references
+  * are still to be evacuated, and then flips the spaces, so the live data
+  * ends up compacted at the start of the heap and the bump pointer
+  * continues after it.  Dropping an object from the spaces is what
+  * releases it (to the JVM), so a run never holds more than a heap's worth
+  * of dead objects.
+  *
+  * The roots are the reference slots of the active frames (tree-walking
+  * interpreter) and register files (VM and compiled code), pushed and
+  * popped around each activation (compiled code spills its registers to
+  * its register file before anything that can allocate).  Slots that are
+  * no longer used may still hold old references, so (like the stack scan
+  * of the compiled runtime) the roots are conservative.
+  * */
+final class Heap {
+    /** Size of the header of an object, array, or string (in bytes) */
+    static final int HEADER_SIZE = 12;
+
+    /** Heap size used with garbage collection when no size is given */
+    static final long DEFAULT_SIZE = 4 << 20;
+
+    /** Size of the heap in bytes (0 for no limit) */
+    private long size;
+
+    /** Whether the heap is garbage collected */
+    private boolean collecting;
+
+    /** Bump pointer: bytes in use */
+    private long top;
+
+    /** Total bytes allocated by the run */
+    private long allocated;
+
+    /** From-space (objects in address order) and to-space (collecting only) */
+    private RuntimeValue[] fromSpace = new RuntimeValue[0], toSpace = new RuntimeValue[0];
+
+    /** Number of objects in the from-space and in the to-space */
+    private int numFrom, numTo;
+
+    /** Number of the current collection (objects evacuated by it are marked with it) */
+    private int epoch;
+
+    /** Total bytes copied by collections */
+    private long copied;
+
+    /** Total and longest pause of the collections in nanoseconds */
+    private long pauseNanos, maxPauseNanos;
+
+    /** Profiler charged with every allocation (null when not profiling) */
+    private Profiler profiler;
+
+    /** Reference slots of the active frames and register files */
+    private Object[][] frames = new Object[64][];
+    private int numFrames;
+
+    /** Configure the heap (before the run starts)
+      * @param size heap size in bytes (0 for no limit, or DEFAULT_SIZE when
+      *        collecting)
+      * @param collecting whether to collect garbage when the heap is full
+      * */
+    void configure(long size, boolean collecting) {
+	this.size = (size == 0 && collecting) ? DEFAULT_SIZE : size;
+	this.collecting = collecting;
+	if (collecting) {
+	    fromSpace = new RuntimeValue[1024];
+	    toSpace = new RuntimeValue[1024];
+	}
+    }
+
+    /** Charge every allocation to a profiler (before the run starts)
+      * @param profiler the profiler (null to stop charging)
+      * */
+    void setProfiler(Profiler profiler) {
+	this.profiler = profiler;
+    }
+
+    /** Check whether the heap is garbage collected
+      * @return true if collecting
+      * */
+    boolean isCollecting() {
+	return collecting;
+    }
+
+    // allocation
+
+    /** Reserve space for a new value, collecting (or running out of
+      * memory) if it does not fit; the value must be created and added
+      * right after, without any allocation in between
+      * @param bytes size of the value
+      * */
+    void reserve(long bytes) {
+	if (size > 0 && top + bytes > size) {
+	    if (collecting) {
+		collect();
+	    }
+	    if (top + bytes > size) {
+		throw new LimitExceeded("out of memory (" + top + " bytes in use, " + bytes +
+					" requested, heap of " + size + " bytes)\n");
+	    }
+	}
+	top += bytes;
+	allocated += bytes;
+	if (profiler != null) {
+	    profiler.allocated(bytes);
+	}
+    }
+
+    /** Add a new value to the heap (in the space reserved for it)
+      * @param value the value
+      * @return the value
+      * */
+    <T extends RuntimeValue> T add(T value) {
+	if (collecting) {
+	    if (numFrom == fromSpace.length) {
+		fromSpace = Arrays.copyOf(fromSpace, numFrom * 2);
+	    }
+	    fromSpace[numFrom++] = value;
+	}
+	return value;
+    }
+
+    // roots
+
+    /** Push the reference slots of an activation that is starting (roots
+      * are only tracked when collecting) */
+    void pushFrame(Object[] refs) {
+	if (collecting) {
+	    if (numFrames == frames.length) {
+		frames = Arrays.copyOf(frames, numFrames * 2);
+	    }
+	    frames[numFrames++] = refs;
+	}
+    }
+
+    /** Pop the reference slots of the activation that is returning */
+    void popFrame() {
+	if (collecting) {
+	    frames[--numFrames] = null;
+	}
+    }
+
+    // collection
+
+    /** Evacuate everything reachable from the roots to the to-space and flip */
+    private void collect() {
+	long start = System.nanoTime();
+	epoch++;
+	if (toSpace.length < numFrom) {
+	    toSpace = new RuntimeValue[fromSpace.length];
+	}
+	numTo = 0;
+	long newTop = 0;
+	for (int i = 0; i < numFrames; i++) {
+	    Object[] refs = frames[i];
+	    for (int j = 0; j < refs.length; j++) {
+		newTop += evacuate(refs[j]);
+	    }
+	}
+	// the evacuated objects that have not been scanned are the queue
+	for (int scan = 0; scan < numTo; scan++) {
+	    Object[] refs = references(toSpace[scan]);
+	    if (refs != null) {
+		for (int j = 0; j < refs.length; j++) {
+		    newTop += evacuate(refs[j]);
+		}
+	    }
+	}
+
+	RuntimeValue[] space = fromSpace;
+	Arrays.fill(space, 0, numFrom, null);
+	fromSpace = toSpace;
+	toSpace = space;
+	numFrom = numTo;
+	copied += newTop;
+	top = newTop;
+
+	long pause = System.nanoTime() - start;
+	pauseNanos += pause;
+	maxPauseNanos = Math.max(maxPauseNanos, pause);
+    }
+
+    /** Evacuate a value (unless it is null, a constant, or already evacuated)
+      * @param ref the value
+      * @return the number of bytes copied
+      * */
+    private long evacuate(Object ref) {
+	if (ref == null) {
+	    return 0;
+	}
+	RuntimeValue value = (RuntimeValue) ref;
+	if (value.gcEpoch == epoch || value.gcEpoch < 0) {
+	    return 0;
+	}
+	value.gcEpoch = epoch;
+	toSpace[numTo++] = value;
+	return sizeOf(value);
+    }
+
+    /** Get the reference slots of a value (null if it has none) */
+    private static Object[] references(RuntimeValue value) {
+	if (value instanceof RuntimeObject) {
+	    return ((RuntimeObject) value).refs;
+	}
+	else if (value instanceof RuntimeArray) {
+	    return ((RuntimeArray) value).refs;
+	}
+	return null;
+    }
+
+    // statistics
+
+    /** Get the total number of bytes allocated
+      * @return number of bytes
+      * */
+    long getAllocated() {
+	return allocated;
+    }
+
+    /** Get the number of collections
+      * @return number of collections
+      * */
+    int getCollections() {
+	return epoch;
+    }
+
+    /** Get the total pause time of the collections
+      * @return pause time in nanoseconds
+      * */
+    long getPauseNanos() {
+	return pauseNanos;
+    }
+
+    /** Describe the heap and its collections
+      * @return a one-line report
+      * */
+    String report() {
+	String heap = (size == 0) ? "unlimited heap" : "heap of " + size + " bytes";
+	if (!collecting) {
+	    return String.format("Heap: %d bytes allocated, %d in use (%s, no collection)",
+				 allocated, top, heap);
+	}
+	return String.format("Heap: %d bytes allocated, %d in use (%s); %d collection(s) " +
+			     "copied %d bytes, pause %.3f ms total, %.3f ms max",
+			     allocated, top, heap, epoch, copied,
+			     pauseNanos / 1e6, maxPauseNanos / 1e6);
+    }
+
+    // sizes
+
+    /** Get the size of a value
+      * @param value object, string, or array
+      * @return size in bytes
+      * */
+    static long sizeOf(RuntimeValue value) {
+	if (value instanceof RuntimeString) {
+	    return stringSize(((RuntimeString) value).value.length());
+	}
+	else if (value instanceof RuntimeArray) {
+	    return arraySize(((RuntimeArray) value).length());
+	}
+	RuntimeObject object = (RuntimeObject) value;
+	return objectSize(object.ints.length + object.refs.length);
+    }
+
+    /** Get the size of an object
+      * @param numFields number of fields
+      * @return size in bytes
+      * */
+    static long objectSize(int numFields) {
+	return HEADER_SIZE + 4L * numFields;
+    }
+
+    /** Get the size of an array
+      * @param length number of elements
+      * @return size in bytes
+      * */
+    static long arraySize(int length) {
+	return HEADER_SIZE + 4 + 4L * length;
+    }
+
+    /** Get the size of a string
+      * @param length number of characters
+      * @return size in bytes
+      * */
+    static long stringSize(int length) {
+	return HEADER_SIZE + 4 + 4L * ((length + 4) / 4);
+    }
+}
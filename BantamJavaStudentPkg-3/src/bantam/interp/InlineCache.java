@@ -0,0 +1,215 @@
+package bantam.interp;
+
+import java.util.HashMap;
+
+/** The <tt>InlineCache</tt> class caches method lookups at one dynamically
+  * dispatched call site.  Each entry maps the run-time class of a receiver
+  * (there is one <tt>RuntimeClass</tt> per <tt>ClassTreeNode</tt>) to the
+  * method it resolves to; the method carries its own frame layout (frame
+  * slot counts for the node interpreter, register counts for the VM), so a hit
+  * needs nothing else.
+  *
+  * Up to MAX_ENTRIES receiver classes are kept in a small array searched
+  * linearly (monomorphic with one entry, polymorphic with more).  When a
+  * further class shows up, the site becomes megamorphic: the entries move
+  * to a hash table and every later lookup goes through it.
+  *
+  * Each cache counts its hits, misses, and megamorphic lookups so that
+  * the hit rate of every site can be reported (see <tt>report</tt>).
+  * The lookups are counted by the receiver class they find, which also
+  * gives the profiler the calls of the site and of the methods it calls
+  * without counting them again on every call (see <tt>countCalls</tt>).
+  * */
+final class InlineCache {
+    /** Maximum number of receiver classes before the site goes megamorphic */
+    static final int MAX_ENTRIES = 4;
+
+    /** Name of the called method */
+    final String methodName;
+
+    /** The call site (for its source position) */
+    final SourceNode site;
+
+    /** Method whose code holds the call site (null in field initializers),
+      * set by the builder of the code */
+    RuntimeMethod caller;
+
+    /** Cached receiver classes (the first size entries are valid) */
+    private final RuntimeClass[] classes = new RuntimeClass[MAX_ENTRIES];
+
+    /** Cached methods (parallel to classes) */
+    private final RuntimeMethod[] methods = new RuntimeMethod[MAX_ENTRIES];
+
+    /** Lookups that found each entry, including the miss that added it
+      * (parallel to classes) */
+    private final long[] lookups = new long[MAX_ENTRIES];
+
+    /** Number of valid entries */
+    private int size;
+
+    /** Targets by receiver class once the site is megamorphic (null before) */
+    private HashMap<RuntimeClass, Target> megamorphic;
+
+    /** Lookups that added an entry */
+    private long misses;
+
+    /** Lookups answered by the megamorphic table */
+    private long megamorphicLookups;
+
+    /** The <tt>Target</tt> class is an entry of the megamorphic table: the
+      * method a receiver class dispatches to and the lookups that found
+      * it (including those of its entry before the site went megamorphic) */
+    private static final class Target {
+	final RuntimeMethod method;
+	long lookups;
+
+	Target(RuntimeMethod method, long lookups) {
+	    this.method = method;
+	    this.lookups = lookups;
+	}
+    }
+
+    /** InlineCache constructor
+      * @param methodName name of the called method
+      * @param site the call site
+      * */
+    InlineCache(String methodName, SourceNode site) {
+	this.methodName = methodName;
+	this.site = site;
+    }
+
+    /** Find the method a receiver class dispatches to
+      * @param cls run-time class of the receiver
+      * @return the method
+      * */
+    RuntimeMethod lookup(RuntimeClass cls) {
+	if (classes[0] == cls) {
+	    lookups[0]++;
+	    return methods[0];
+	}
+	for (int i = 1; i < size; i++) {
+	    if (classes[i] == cls) {
+		lookups[i]++;
+		return methods[i];
+	    }
+	}
+	return lookupSlow(cls);
+    }
+
+    /** Count a hit of a call that found its method without a lookup (a
+      * quickened call of the VM, see Bytecode.CALLQ)
+      * @param cls run-time class of the receiver
+      * */
+    void countHit(RuntimeClass cls) {
+	for (int i = 0; i < size; i++) {
+	    if (classes[i] == cls) {
+		lookups[i]++;
+		return;
+	    }
+	}
+	lookupSlow(cls);
+    }
+
+    /** Handle a lookup that missed the entries */
+    private RuntimeMethod lookupSlow(RuntimeClass cls) {
+	if (megamorphic != null) {
+	    megamorphicLookups++;
+	    Target target = megamorphic.get(cls);
+	    if (target == null) {
+		target = new Target(cls.lookupMethod(methodName), 0);
+		megamorphic.put(cls, target);
+	    }
+	    target.lookups++;
+	    return target.method;
+	}
+	misses++;
+	RuntimeMethod method = cls.lookupMethod(methodName);
+	if (size < MAX_ENTRIES) {
+	    classes[size] = cls;
+	    methods[size] = method;
+	    lookups[size] = 1;
+	    size++;
+	}
+	else {
+	    megamorphic = new HashMap<RuntimeClass, Target>();
+	    for (int i = 0; i < size; i++) {
+		megamorphic.put(classes[i], new Target(methods[i], lookups[i]));
+		classes[i] = null;
+		methods[i] = null;
+	    }
+	    size = 0;
+	    megamorphic.put(cls, new Target(method, 1));
+	}
+	return method;
+    }
+
+    /** Get the total number of lookups
+      * @return number of lookups
+      * */
+    long getLookups() {
+	long total = 0;
+	for (int i = 0; i < size; i++) {
+	    total += lookups[i];
+	}
+	if (megamorphic != null) {
+	    for (Target target : megamorphic.values()) {
+		total += target.lookups;
+	    }
+	}
+	return total;
+    }
+
+    /** Get the number of lookups answered by an entry
+      * @return number of hits
+      * */
+    long getHits() {
+	return getLookups() - misses - megamorphicLookups;
+    }
+
+    /** Add the lookups of the site to the calls of the methods they found
+      * (on a profiled run, the profiler takes the calls of dynamically
+      * dispatched sites from their caches when the run ends)
+      * */
+    void countCalls() {
+	for (int i = 0; i < size; i++) {
+	    countCalls(methods[i], lookups[i]);
+	}
+	if (megamorphic != null) {
+	    for (Target target : megamorphic.values()) {
+		countCalls(target.method, target.lookups);
+	    }
+	}
+    }
+
+    /** Add calls to the profile of a method (every method called on a
+      * profiled run has one) */
+    private static void countCalls(RuntimeMethod method, long calls) {
+	if (method.profile != null) {
+	    method.profile.calls += calls;
+	}
+    }
+
+    /** Describe the state of the cache
+      * @return "monomorphic", "polymorphic", "megamorphic", or "unused"
+      * */
+    String getState() {
+	if (megamorphic != null) {
+	    return "megamorphic";
+	}
+	return (size == 0) ? "unused" : (size == 1) ? "monomorphic" : "polymorphic";
+    }
+
+    /** Produce one line of statistics for this site
+      * @return the statistics line
+      * */
+    String report() {
+	long total = getLookups();
+	long hits = getHits();
+	int numClasses = (megamorphic != null) ? megamorphic.size() : size;
+	return String.format("%s:%d %s(): %d call(s), %d hit(s), %d miss(es), " +
+			     "%d megamorphic (%.1f%% hits), %d class(es), %s",
+			     site.filename, site.lineNum, methodName, total, hits, misses,
+			     megamorphicLookups, (total == 0) ? 0.0 : 100.0 * hits / total,
+			     numClasses, getState());
+    }
+}
@@ -1,68 +1,433 @@
-/* Bantam Java Compiler and Language Toolset.
-
-   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and 
-                         David Furcy (furcyd@uwosh.edu) and
-                         E Christopher Lewis (lewis@vmware.com).
-   ALL RIGHTS RESERVED.
-
-   The Bantam Java toolset is distributed under the following 
-   conditions:
-
-     You may make copies of the toolset for your own use and 
-     modify those copies.
-
-     All copies of the toolset must retain the author names and 
-     copyright notice.
-
-     You may not sell the toolset or distribute it in 
-     conjunction with a commerical product or service without 
-     the expressed written consent of the authors.
-
-   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS 
-   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE 
-   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A 
-   PARTICULAR PURPOSE. 
-*/
-
-package bantam.interp;
-
-import bantam.util.*;
-
-/** The <tt>Interpreter</tt> class interprets Bantam Java programs.  It
-  * takes the AST representation of the program (which was previously
-  * checked for correctness and annotated with type information) and
-  * runs the program.
-  * 
-  * The interpreter package was originally written by Josh Davis with 
-  * some modifications by Marc Corliss.
-  * 
-  * This class is incomplete and will need to be implemented by the student.
-  * */
-public class Interpreter {
-    /** Root of the class hierarchy tree */
-    private ClassTreeNode root;
-    
-    /** Boolean indicating whether debugging is enabled */
-    private boolean debug = false;
-
-    /** Interpreter constructor
-      * @param root root of the class hierarchy tree
-      * @param debug boolean indicating whether debugging is enabled
-      * */
-    public Interpreter(ClassTreeNode root, boolean debug) {
-	this.root = root;
-	this.debug = debug;
-    }
-
-    /** Interpret the program
-      * See the lab manual for the details.
-      * */
-    public void interpret() {
-	// comment out
-	throw new RuntimeException("Interpreter unimplemented");
-
-	// add code below...
-    }
-}
-
-
+/* Bantam Java Compiler and Language Toolset.
+
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and 
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following 
+   conditions:
+
+     You may make copies of the toolset for your own use and 
+     modify those copies.
+
+     All copies of the toolset must retain the author names and 
+     copyright notice.
+
+     You may not sell the toolset or distribute it in 
+     conjunction with a commerical product or service without 
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS 
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE 
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A 
+   PARTICULAR PURPOSE. 
+*/
+
+package bantam.interp;
+
+import bantam.util.*;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/** The <tt>Interpreter</tt> class interprets Bantam Java programs.  It
+  * takes the AST representation of the program (which was previously
+  * checked for correctness and annotated with type information) and
+  * runs the program.
+  * 
+  * The interpreter package was originally written by Josh Davis with 
+  * some modifications by Marc Corliss.
+  * 
+  * Before running anything, the interpreter lays out every class
+  * (<tt>RuntimeClass</tt>) and translates each method body into a tree of
+  * executable nodes (<tt>NodeBuilder</tt>) in which every variable has
+  * been resolved to a frame slot or a field offset.  Execution then walks
+  * these trees without consulting the symbol tables.
+  *
+  * Alternatively (ENGINE_VM), method bodies are compiled to register
+  * bytecode (<tt>BytecodeCompiler</tt>) and run by the <tt>VM</tt>, which
+  * compiles hot code blocks further to JVM bytecode (<tt>JitCompiler</tt>).
+  * ENGINE_VM_INTERPRETED runs the bytecode without that second tier.
+  *
+  * An interpreter keeps all of its state (classes, I/O streams, caches,
+  * and the limits of the run) in instance fields, so several programs can
+  * be interpreted at once on different threads (see <tt>Sandbox</tt>).
+  * */
+public class Interpreter {
+    /** Engine that walks executable node trees */
+    public static final int ENGINE_AST = 0;
+
+    /** Engine that runs register bytecode and compiles hot code to JVM bytecode */
+    public static final int ENGINE_VM = 1;
+
+    /** Engine that only interprets register bytecode (no JIT) */
+    public static final int ENGINE_VM_INTERPRETED = 2;
+
+    /** Root of the class hierarchy tree */
+    private ClassTreeNode root;
+    
+    /** Boolean indicating whether debugging is enabled */
+    private boolean debug = false;
+
+    /** Execution engine (ENGINE_AST, ENGINE_VM, or ENGINE_VM_INTERPRETED) */
+    private int engine;
+
+    /** Number of entries before the JIT compiles a code block */
+    private int jitCallThreshold = JitCompiler.DEFAULT_CALL_THRESHOLD;
+
+    /** Number of backward branches before the JIT compiles a code block */
+    private int jitBackEdgeThreshold = JitCompiler.DEFAULT_BACK_EDGE_THRESHOLD;
+
+    /** Boolean indicating whether the JIT logs its compilations and timings */
+    private boolean jitLog = false;
+
+    /** Run-time classes by name */
+    private HashMap<String, RuntimeClass> classes = new HashMap<String, RuntimeClass>();
+
+    /** Standard error of the run (run-time errors, and the debugging and
+      * JIT reports) */
+    private PrintStream err;
+
+    /** Built-in method implementations (and the program's I/O state) */
+    private Builtins builtins;
+
+    /** Inline caches of all virtual call sites */
+    private ArrayList<InlineCache> caches;
+
+    /** JIT compiler (ENGINE_VM only) */
+    private JitCompiler jit;
+
+    /** Bytecode VM (ENGINE_VM and ENGINE_VM_INTERPRETED only) */
+    private VM vm;
+
+    /** Profiler of the run (null when not profiling) */
+    private Profiler profiler;
+
+    /** Boolean indicating whether the run was stopped by one of its limits */
+    private boolean limitExceeded = false;
+
+    /** Interpreter constructor
+      * @param root root of the class hierarchy tree
+      * @param debug boolean indicating whether debugging is enabled
+      * */
+    public Interpreter(ClassTreeNode root, boolean debug) {
+	this(root, debug, ENGINE_AST);
+    }
+
+    /** Interpreter constructor
+      * @param root root of the class hierarchy tree
+      * @param debug boolean indicating whether debugging is enabled
+      * @param engine execution engine (ENGINE_AST, ENGINE_VM, or ENGINE_VM_INTERPRETED)
+      * */
+    public Interpreter(ClassTreeNode root, boolean debug, int engine) {
+	this(root, debug, engine, System.in, 
+	     new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)), false),
+	     System.err);
+    }
+
+    /** Interpreter constructor
+      * @param root root of the class hierarchy tree
+      * @param debug boolean indicating whether debugging is enabled
+      * @param engine execution engine (ENGINE_AST, ENGINE_VM, or ENGINE_VM_INTERPRETED)
+      * @param in standard input of the program
+      * @param out standard output of the program
+      * @param err standard error of the program (run-time errors, and the
+      *        debugging and JIT reports, are written here)
+      * */
+    public Interpreter(ClassTreeNode root, boolean debug, int engine,
+		       InputStream in, PrintStream out, PrintStream err) {
+	this.root = root;
+	this.debug = debug;
+	this.engine = engine;
+	this.err = err;
+	this.builtins = new Builtins(new BufferedInputStream(in), out, err);
+    }
+
+    /** Set the thresholds at which the JIT (ENGINE_VM) compiles a code block
+      * @param callThreshold number of entries into the block
+      * @param backEdgeThreshold number of backward branches taken in the block
+      * */
+    public void setJitThresholds(int callThreshold, int backEdgeThreshold) {
+	this.jitCallThreshold = callThreshold;
+	this.jitBackEdgeThreshold = backEdgeThreshold;
+    }
+
+    /** Enable the JIT log on the standard error of the run: each
+      * compilation as it happens and, when the program ends, the time per
+      * call of each compiled method before and after compilation
+      * @param jitLog boolean indicating whether to log
+      * */
+    public void setJitLog(boolean jitLog) {
+	this.jitLog = jitLog;
+    }
+
+    /** Set the limits of the run (0 disables a limit); when a limit is
+      * exceeded the program is stopped with an error and exit status 1
+      * @param maxSteps instruction budget (method calls and loop iterations)
+      * @param timeoutMillis wall-clock timeout in milliseconds
+      * */
+    public void setLimits(long maxSteps, long timeoutMillis) {
+	builtins.budget.setLimits(maxSteps, timeoutMillis);
+    }
+
+    /** Configure the heap of the run (see <tt>Heap</tt>): without garbage
+      * collection the program runs out of memory once it has allocated
+      * heapSize bytes; with it, a collection runs whenever the heap is full
+      * and the program only runs out of memory when its live data does not fit
+      * @param heapSize heap size in bytes (0 for no limit, or the default
+      *        size with garbage collection)
+      * @param collect boolean indicating whether to collect garbage
+      * */
+    public void setHeap(long heapSize, boolean collect) {
+	builtins.heap.configure(heapSize, collect);
+    }
+
+    /** Allow or deny TextIO.readFile() and TextIO.writeFile(); when file
+      * access is denied, opening a file is a run-time error
+      * @param fileAccess boolean indicating whether programs may open files
+      * */
+    public void setFileAccess(boolean fileAccess) {
+	builtins.setFileAccess(fileAccess);
+    }
+
+    /** Profile the run (see <tt>Profiler</tt>): calls, allocated bytes, and
+      * sampled self and total time per method and per source line, and
+      * the sampled call stacks
+      * @param profiling boolean indicating whether to profile
+      * */
+    public void setProfiling(boolean profiling) {
+	profiler = profiling ? new Profiler() : null;
+	builtins.profiler = profiler;
+	builtins.heap.setProfiler(profiler);
+    }
+
+    /** Describe the profile of the last run (setProfiling must have been
+      * enabled): the busiest methods and lines by self time
+      * @return the report (several lines)
+      * */
+    public String getProfileReport() {
+	return profiler.report(30);
+    }
+
+    /** Write the call stacks sampled by the profiler during the last run in
+      * the collapsed format of flame-graph tools (one stack per line, e.g.
+      * "Main.main;Main.fib 1234", weighted in microseconds)
+      * @param out the stream to write to
+      * */
+    public void writeCollapsedStacks(PrintStream out) {
+	profiler.writeCollapsedStacks(out);
+    }
+
+    /** Get the number of steps (method calls and loop iterations) executed
+      * @return number of steps
+      * */
+    public long getSteps() {
+	return builtins.budget.getSteps();
+    }
+
+    /** Get the number of bytes allocated by the program
+      * @return number of bytes
+      * */
+    public long getAllocatedBytes() {
+	return builtins.heap.getAllocated();
+    }
+
+    /** Get the number of garbage collections
+      * @return number of collections
+      * */
+    public int getCollections() {
+	return builtins.heap.getCollections();
+    }
+
+    /** Get the total pause time of the garbage collections
+      * @return pause time in milliseconds
+      * */
+    public double getCollectionMillis() {
+	return builtins.heap.getPauseNanos() / 1e6;
+    }
+
+    /** Describe the heap of the last run: bytes allocated and in use and,
+      * with garbage collection, the number of collections, bytes copied, and
+      * pause times
+      * @return a one-line report
+      * */
+    public String getHeapReport() {
+	return builtins.heap.report();
+    }
+
+    /** Check whether the last run was stopped by one of its limits
+      * @return true if a limit was exceeded
+      * */
+    public boolean exceededLimit() {
+	return limitExceeded;
+    }
+
+    /** Interpret the program
+      * Creates a Main object and invokes its main() method.
+      * @return the exit status of the program (0 on normal termination,
+      * the argument of Sys.exit(), or 1 after a run-time error or when a
+      * limit is exceeded)
+      * */
+    public int interpret() {
+	prepare();
+	builtins.budget.start();
+	if (profiler != null) {
+	    profiler.start();
+	}
+	try {
+	    RuntimeClass mainClass = classes.get("Main");
+	    RuntimeMethod method = mainClass.lookupMethod("main");
+	    if (engine != ENGINE_AST) {
+		if (engine == ENGINE_VM) {
+		    jit = new JitCompiler(jitCallThreshold, jitBackEdgeThreshold,
+					  jitLog ? err : null, builtins.heap.isCollecting(),
+					  profiler != null);
+		}
+		vm = new VM(builtins, classes.get("Object"), jit, debug);
+		vm.invoke(vm.newObject(mainClass), method);
+		return 0;
+	    }
+	    RuntimeObject main = mainClass.newInstance();
+	    mainClass.initialize(main);
+	    Frame frame = new Frame(main, method.numIntSlots, method.numRefSlots);
+	    builtins.heap.pushFrame(frame.refs);
+	    method.invoke(frame, null);
+	    return 0;
+	} catch (ProgramExit e) {
+	    return e.status;
+	} catch (RuntimeError e) {
+	    builtins.reportError(e.getMessage());
+	    return 1;
+	} catch (LimitExceeded e) {
+	    limitExceeded = true;
+	    builtins.reportError("limit exceeded: " + e.getMessage());
+	    return 1;
+	} catch (StackOverflowError e) {
+	    // the program recursed deeper than the stack of the thread allows
+	    limitExceeded = true;
+	    builtins.reportError("limit exceeded: stack overflow (calls nested too deeply)\n");
+	    return 1;
+	} finally {
+	    if (profiler != null) {
+		profiler.stop(caches);
+	    }
+	    builtins.close();
+	    if (debug) {
+		reportCaches();
+		if (vm != null) {
+		    vm.reportDispatches(err, 30);
+		}
+	    }
+	    if (jit != null && jitLog) {
+		jit.report(err);
+	    }
+	}
+    }
+
+    /** List the inline caches of the call sites that were executed on
+      * the standard error of the run, busiest first
+      * */
+    private void reportCaches() {
+	ArrayList<InlineCache> used = new ArrayList<InlineCache>();
+	for (InlineCache cache : caches) {
+	    if (cache.getLookups() > 0) {
+		used.add(cache);
+	    }
+	}
+	Collections.sort(used, new Comparator<InlineCache>() {
+		public int compare(InlineCache c1, InlineCache c2) {
+		    return Long.compare(c2.getLookups(), c1.getLookups());
+		}
+	    });
+	err.println("Inline caches (" + used.size() + " of " + caches.size() +
+			   " call site(s) executed):");
+	for (InlineCache cache : used) {
+	    err.println("  " + cache.report());
+	}
+    }
+
+    /** Lay out the classes and translate all method bodies and field
+      * initializers for the selected engine
+      * */
+    private void prepare() {
+	addClass(root, null);
+	builtins.setClasses(classes.get("String"), classes.get("TextIO"));
+	if (engine != ENGINE_AST) {
+	    compileBytecode();
+	}
+	else {
+	    buildNodes();
+	}
+    }
+
+    /** Translate all method bodies and field initializers into executable nodes
+      * */
+    private void buildNodes() {
+	NodeBuilder builder = new NodeBuilder(classes, builtins);
+	caches = builder.caches;
+	for (RuntimeClass cls : classes.values()) {
+	    builder.buildInitializers(cls);
+	    if (cls.treeNode.isBuiltIn()) {
+		continue;
+	    }
+	    for (RuntimeMethod method : cls.methods.values()) {
+		if (method.owner == cls) {
+		    builder.buildMethod(method);
+		    if (debug) {
+			err.println(cls.name + "." + method.name + ": " +
+					   method.numParams + " parameter(s), " +
+					   method.numIntSlots + " int and " +
+					   method.numRefSlots + " reference frame slot(s)");
+		    }
+		}
+	    }
+	}
+    }
+
+    /** Compile all method bodies and field initializers into bytecode
+      * (with debugging enabled, the bytecode is listed on the standard
+      * error of the run)
+      * */
+    private void compileBytecode() {
+	BytecodeCompiler compiler = new BytecodeCompiler(classes, builtins);
+	caches = compiler.caches;
+	for (RuntimeClass cls : classes.values()) {
+	    compiler.compileInitializers(cls);
+	    if (debug && cls.initCode != null) {
+		err.print(cls.initCode.name + ":\n" + Bytecode.disassemble(cls.initCode));
+	    }
+	    if (cls.treeNode.isBuiltIn()) {
+		continue;
+	    }
+	    for (RuntimeMethod method : cls.methods.values()) {
+		if (method.owner == cls) {
+		    compiler.compileMethod(method);
+		    if (debug) {
+			err.print(method.code.name + ": " + method.code.numIntRegs +
+					 " int register(s), " + method.code.numRefRegs +
+					 " reference register(s)\n" +
+					 Bytecode.disassemble(method.code));
+		    }
+		}
+	    }
+	}
+    }
+
+    /** Create the run-time class of a class tree node and its descendants
+      * (parents are created before their children)
+      * @param treeNode class tree node
+      * @param parent run-time class of the parent (null for Object)
+      * */
+    private void addClass(ClassTreeNode treeNode, RuntimeClass parent) {
+	RuntimeClass cls = new RuntimeClass(treeNode, parent, builtins);
+	classes.put(cls.name, cls);
+	for (Iterator<ClassTreeNode> it = treeNode.getChildrenList(); it.hasNext(); ) {
+	    addClass(it.next(), cls);
+	}
+    }
+}
@@ -0,0 +1,982 @@
+package bantam.interp;
+
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** The <tt>JitCompiler</tt> class is the second execution tier of the
+  * VM.  Every code block entered through the VM is counted (entries
+  * here, backward branches in <tt>VM.execute</tt>); once a block reaches
+  * either threshold it is translated into a JVM class, defined as a
+  * hidden class in this package, and run from then on as JVM code that
+  * HotSpot profiles and compiles like any other Java method.  Cold blocks
+  * stay interpreted.
+  *
+  * The translation is one JVM instruction sequence per VM instruction:
+  * int and reference registers become JVM locals, branches become JVM
+  * branches, and everything that can fail or needs the run-time system
+  * (array accesses, allocation, type tests, calls) calls the same VM
+  * helper methods the interpreter uses, so both tiers behave identically.
+  * A call to a method that is already compiled goes straight to its
+  * code: the VM only finds the target (see <tt>VM.compiledTarget</tt>)
+  * and the arguments go from the JVM locals to the callee's new register
+  * files.  Any other call spills its receiver and argument registers to
+  * the register arrays the block was entered with and goes through the
+  * VM, which dispatches to interpreted or compiled callees; so do all
+  * calls when the heap is garbage collected or the compilations are
+  * logged, since the VM keeps the frames of the collector and times the
+  * calls (on a profiled run, the VM enters the profiler's frame of a
+  * direct call and the compiled code leaves it).  Every loop header
+  * counts a step of the run's <tt>Budget</tt>, like a backward branch in
+  * the VM, so compiled loops stay bounded by its limits.  When the heap
+  * is garbage collected, all reference registers are spilled before
+  * anything that can allocate, so that the register arrays (the roots of
+  * the collector) are up to date.
+  *
+  * A block that gets hot while it runs (from its loop counts) uses its
+  * compiled code from its next entry on, and the running activation
+  * moves to compiled code too (on-stack replacement): at its next
+  * backward branch the VM hands it over at the loop header, to a second
+  * translation of the block whose prologue loads the registers like the
+  * normal one (the register files hold the whole interpreter state) and
+  * then jumps to the header.  That translation is kept per loop header,
+  * and the normal one keeps a single entry so that HotSpot sees its loops
+  * as they are.
+  *
+  * With a log stream, each compilation is logged and every entry is
+  * timed (self time, excluding callees), so the log can report the
+  * per-call cost of each method before and after compilation.
+  * */
+final class JitCompiler {
+    /** Default number of entries before a block is compiled */
+    static final int DEFAULT_CALL_THRESHOLD = 1000;
+
+    /** Default number of backward branches before a block is compiled */
+    static final int DEFAULT_BACK_EDGE_THRESHOLD = 10000;
+
+    // internal names of the classes the generated code refers to
+    private static final String COMPILED = "bantam/interp/CompiledCode";
+    private static final String VM_CLASS = "bantam/interp/VM";
+    private static final String SOURCE_NODE = "bantam/interp/SourceNode";
+    private static final String TYPE_TEST = "bantam/interp/ExprNode$TypeTest";
+    private static final String CALL_SITE = "bantam/interp/CallSite";
+    private static final String RUNTIME_CLASS = "bantam/interp/RuntimeClass";
+    private static final String RUNTIME_OBJECT = "bantam/interp/RuntimeObject";
+    private static final String OBJECT = "java/lang/Object";
+
+    /** Descriptor of the constructor of CompiledCode */
+    private static final String INIT_DESC = "([L" + OBJECT + ";II)V";
+
+    /** Descriptor of CompiledCode.run */
+    private static final String RUN_DESC = "(L" + VM_CLASS + ";[I[L" + OBJECT + ";)I";
+
+    /** Descriptor shared by VM.callVirtual and VM.callStatic */
+    private static final String CALL_DESC = "(L" + CALL_SITE + ";[I[L" + OBJECT + ";)V";
+
+    // JVM locals of the generated run method (registers follow)
+    private static final int LOCAL_VM = 1;
+    private static final int LOCAL_INTS = 2;
+    private static final int LOCAL_REFS = 3;
+    private static final int LOCAL_INT_FIELDS = 4;
+    private static final int LOCAL_REF_FIELDS = 5;
+    private static final int LOCAL_CONSTANTS = 6;
+    private static final int LOCAL_TARGET = 7;
+    private static final int LOCAL_LINE = 8;
+    private static final int LOCAL_CALLEE_INTS = 9;
+    private static final int LOCAL_CALLEE_REFS = 10;
+    private static final int FIRST_REGISTER = 11;
+
+    /** Operand stack depth sufficient for every translated instruction */
+    private static final int MAX_STACK = 8;
+
+    /** Number of entries before a block is compiled */
+    private final int callThreshold;
+
+    /** Number of backward branches before a block is compiled */
+    private final int backEdgeThreshold;
+
+    /** Stream of the compilation log (null for no log and no timing) */
+    private final PrintStream log;
+
+    /** Whether the heap is garbage collected (registers are spilled before allocations) */
+    private final boolean collecting;
+
+    /** Whether the run is profiled (direct calls leave the profiler's frame) */
+    private final boolean profiling;
+
+    /** Whether calls to compiled methods bypass the VM (see call) */
+    private final boolean directCalls;
+
+    /** Maximum number of generated classes kept for reuse (see CLASSES) */
+    private static final int MAX_SHARED_CLASSES = 4096;
+
+    /** Generated classes by class file, shared by all compilers: a block
+      * that translates to the same class file as an earlier one (the same
+      * program run again, e.g., in batch mode) reuses its class, and with
+      * it the machine code HotSpot already compiled for it.  The classes
+      * keep all run state in their instances (the constant pool) and in
+      * the VM they are given, so sharing them shares no mutable state
+      * between runs. */
+    private static final ConcurrentHashMap<ByteBuffer, Class<?>> CLASSES =
+	new ConcurrentHashMap<ByteBuffer, Class<?>>();
+
+    /** Lookup in this package, used to define the generated classes */
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /** Compiled blocks, in order of compilation */
+    private final ArrayList<CodeBlock> compiledBlocks = new ArrayList<CodeBlock>();
+
+    /** Time the compiler was created (the log reports times relative to it) */
+    private final long startTime = System.nanoTime();
+
+    /** Time spent in callees of the block being timed (see runTimed) */
+    private long childTime;
+
+    // state of the translation
+    private ClassFileWriter writer;
+    private int intBase, refBase, numRefRegs;
+
+    /** Whether the block keeps the line of its profiled frame in a local
+      * (on a profiled run, in blocks with loops, see emitLine) */
+    private boolean tracksLine;
+
+    /** JitCompiler constructor
+      * @param callThreshold number of entries before a block is compiled
+      * @param backEdgeThreshold number of backward branches before a block is compiled
+      * @param log stream of the compilation log (null for no log)
+      * @param collecting whether the heap is garbage collected
+      * @param profiling whether the run is profiled
+      * */
+    JitCompiler(int callThreshold, int backEdgeThreshold, PrintStream log, boolean collecting,
+		boolean profiling) {
+	this.callThreshold = callThreshold;
+	this.backEdgeThreshold = backEdgeThreshold;
+	this.log = log;
+	this.collecting = collecting;
+	this.profiling = profiling;
+	this.directCalls = !collecting && log == null;
+    }
+
+    /** Get the number of backward branches before a block is compiled
+      * @return the threshold
+      * */
+    int getBackEdgeThreshold() {
+	return backEdgeThreshold;
+    }
+
+    /** Run a code block for the VM, compiling it first if it became hot
+      * (or, at its first entry, if an earlier run already generated the
+      * class of its code, see CLASSES)
+      * @param vm the VM
+      * @param block the code block
+      * @param ints int registers (parameters already set)
+      * @param refs reference registers ('this' and parameters already set)
+      * @return the int (or boolean) result; reference results are left in the VM
+      * */
+    int run(VM vm, CodeBlock block, int[] ints, Object[] refs) {
+	CompiledCode compiled = block.compiled;
+	if (compiled == null && !block.notCompilable) {
+	    if (++block.invocations >= callThreshold || block.backEdges >= backEdgeThreshold) {
+		compiled = compile(block, -1, false);
+	    }
+	    else if (block.invocations == 1) {
+		compiled = compile(block, -1, true);
+	    }
+	}
+	if (log != null) {
+	    return runTimed(vm, block, compiled, ints, refs);
+	}
+	return (compiled != null) ? compiled.run(vm, ints, refs) : vm.execute(block, ints, refs);
+    }
+
+    /** Continue an interpreted activation of a hot block in compiled code
+      * (on-stack replacement), compiling the block for entry at the loop
+      * header first if needed
+      * @param vm the VM
+      * @param block the code block
+      * @param ints int registers of the activation
+      * @param refs reference registers of the activation
+      * @param header pc of the loop header the activation continues at
+      * @return the int (or boolean) result; reference results are left in the VM
+      * */
+    int enterLoop(VM vm, CodeBlock block, int[] ints, Object[] refs, int header) {
+	CompiledCode compiled = (block.osrCode != null) ? block.osrCode[header] : null;
+	if (compiled == null) {
+	    compiled = compile(block, header, false);
+	    if (compiled == null) {
+		// the block stays interpreted
+		return vm.execute(block, ints, refs, header);
+	    }
+	}
+	block.osrEntries++;
+	return compiled.run(vm, ints, refs);
+    }
+
+    /** Run a code block and add its self time to the tier it ran in */
+    private int runTimed(VM vm, CodeBlock block, CompiledCode compiled,
+			 int[] ints, Object[] refs) {
+	long outerChildTime = childTime;
+	childTime = 0;
+	long start = System.nanoTime();
+	int result = (compiled != null) ? compiled.run(vm, ints, refs) : vm.execute(block, ints, refs);
+	long time = System.nanoTime() - start;
+	long selfTime = time - childTime;
+	childTime = outerChildTime + time;
+	if (compiled != null) {
+	    block.compiledCalls++;
+	    block.compiledTime += selfTime;
+	}
+	else {
+	    block.interpretedCalls++;
+	    block.interpretedTime += selfTime;
+	}
+	return result;
+    }
+
+    /** Compile a code block into a hidden class (on failure, the block
+      * is marked so that it stays interpreted)
+      * @param block the code block
+      * @param entry pc of the loop header at which the compiled code starts
+      *        (on-stack replacement), or -1 to start at the beginning
+      * @param sharedOnly whether to only use a class generated by an
+      *        earlier compilation (see CLASSES), not define a new one
+      * @return the compiled code (null on failure, or if sharedOnly and
+      *         there is no such class)
+      * */
+    private CompiledCode compile(CodeBlock block, int entry, boolean sharedOnly) {
+	long start = System.nanoTime();
+	try {
+	    byte[] classFile = translate(block, entry);
+	    Class<?> cls = sharedOnly ? CLASSES.get(ByteBuffer.wrap(classFile)) : define(classFile);
+	    if (cls == null) {
+		return null;
+	    }
+	    CompiledCode compiled = (CompiledCode) cls
+		.getDeclaredConstructor(Object[].class, int.class, int.class)
+		.newInstance(block.constants, block.numIntRegs, block.numRefRegs);
+	    if (entry < 0) {
+		block.compiled = compiled;
+	    }
+	    else {
+		if (block.osrCode == null) {
+		    block.osrCode = new CompiledCode[block.code.length];
+		}
+		block.osrCode[entry] = compiled;
+	    }
+	    if (!compiledBlocks.contains(block)) {
+		compiledBlocks.add(block);
+	    }
+	    if (log != null && sharedOnly) {
+		log.printf("JIT: compiled %s at %.1f ms on its first call, reusing the class " +
+			   "of an earlier compilation, in %.2f ms%n", block.name,
+			   (start - startTime) / 1e6, (System.nanoTime() - start) / 1e6);
+	    }
+	    else if (log != null) {
+		log.printf("JIT: compiled %s%s at %.1f ms after %d call(s) and %d back-edge(s): " +
+			   "%d bytecode words -> %d byte class in %.2f ms%n",
+			   block.name, (entry < 0) ? "" : " for OSR at " + entry,
+			   (start - startTime) / 1e6, block.invocations,
+			   block.backEdges, block.code.length, classFile.length,
+			   (System.nanoTime() - start) / 1e6);
+	    }
+	    return compiled;
+	} catch (ReflectiveOperationException | LinkageError | IllegalStateException e) {
+	    block.notCompilable = true;
+	    if (log != null) {
+		log.println("JIT: could not compile " + block.name + ": " + e);
+	    }
+	    return null;
+	}
+    }
+
+    /** Get the class of a class file, defining it unless an earlier
+      * compilation already did (see CLASSES)
+      * @param classFile the class file
+      * @return the class
+      * */
+    private static Class<?> define(byte[] classFile) throws IllegalAccessException {
+	ByteBuffer key = ByteBuffer.wrap(classFile);
+	Class<?> cls = CLASSES.get(key);
+	if (cls == null) {
+	    cls = LOOKUP.defineHiddenClass(classFile, true).lookupClass();
+	    if (CLASSES.size() < MAX_SHARED_CLASSES) {
+		Class<?> other = CLASSES.putIfAbsent(key, cls);
+		if (other != null) {
+		    cls = other;
+		}
+	    }
+	}
+	return cls;
+    }
+
+    /** Print the per-block summary of the log: calls and average self
+      * time per call in each tier, and the resulting speedup
+      * @param out the stream to print on
+      * */
+    void report(PrintStream out) {
+	out.println("JIT: " + compiledBlocks.size() + " block(s) compiled (thresholds: " +
+		    callThreshold + " call(s), " + backEdgeThreshold + " back-edge(s))");
+	for (CodeBlock block : compiledBlocks) {
+	    double interpreted = (block.interpretedCalls == 0) ? 0 :
+		block.interpretedTime / 1e3 / block.interpretedCalls;
+	    double compiled = (block.compiledCalls == 0) ? 0 :
+		block.compiledTime / 1e3 / block.compiledCalls;
+	    String speedup = (interpreted > 0 && compiled > 0) ?
+		String.format("%.1fx", interpreted / compiled) : "n/a";
+	    out.printf("  %s: %d interpreted call(s) at %.3f us, %d compiled call(s) at %.3f us, " +
+		       "speedup %s, %d OSR entr%s%n", block.name, block.interpretedCalls,
+		       interpreted, block.compiledCalls, compiled, speedup, block.osrEntries,
+		       (block.osrEntries == 1) ? "y" : "ies");
+	}
+    }
+
+    // translation
+
+    /** Translate a code block into a class file: a subclass of
+      * CompiledCode whose run method executes the block
+      * @param block the code block
+      * @param entry pc of the loop header at which the run method starts
+      *        (on-stack replacement), or -1 to start at the beginning
+      * @return the class file
+      * */
+    private byte[] translate(CodeBlock block, int entry) {
+	writer = new ClassFileWriter("bantam/interp/Compiled_" +
+				     block.name.replaceAll("[^A-Za-z0-9_]", "_") +
+				     ((entry < 0) ? "" : "_osr" + entry), COMPILED);
+	intBase = FIRST_REGISTER;
+	refBase = intBase + block.numIntRegs;
+	numRefRegs = block.numRefRegs;
+
+	// constructor: pass the constant pool and register counts to CompiledCode
+	writer.beginMethod(ClassFileWriter.ACC_PUBLIC, "<init>", INIT_DESC, 4, 4);
+	writer.local(ClassFileWriter.ALOAD, 0);
+	writer.local(ClassFileWriter.ALOAD, 1);
+	writer.local(ClassFileWriter.ILOAD, 2);
+	writer.local(ClassFileWriter.ILOAD, 3);
+	writer.invoke(ClassFileWriter.INVOKESPECIAL, COMPILED, "<init>", INIT_DESC);
+	writer.op(ClassFileWriter.RETURN);
+	writer.endMethod();
+
+	writer.beginMethod(ClassFileWriter.ACC_FINAL, "run", RUN_DESC, MAX_STACK,
+			   refBase + block.numRefRegs);
+	int[] code = block.code;
+	int[] labels = findLabels(code);
+	int[] loopLines = findLoopHeaders(block);
+	tracksLine = false;
+	for (int line : loopLines) {
+	    tracksLine |= profiling && line > 0;
+	}
+	emitPrologue(block);
+	// the interpreter already counted the step of the backward branch
+	// it leaves from, so the entry is past the step of the header
+	int entryLabel = -1;
+	if (entry >= 0) {
+	    entryLabel = writer.newLabel();
+	    writer.branch(ClassFileWriter.GOTO, entryLabel);
+	}
+	for (int pc = 0; pc < code.length; pc += Bytecode.length(code[pc] & 0xff)) {
+	    if (labels[pc] >= 0) {
+		writer.bind(labels[pc]);
+	    }
+	    if (loopLines[pc] > 0) {
+		writer.local(ClassFileWriter.ALOAD, LOCAL_VM);
+		writer.invoke(ClassFileWriter.INVOKEVIRTUAL, VM_CLASS, "step", "()V");
+		if (tracksLine) {
+		    emitLine(loopLines[pc]);
+		}
+	    }
+	    if (pc == entry) {
+		writer.bind(entryLabel);
+	    }
+	    translate(block, code, pc, labels);
+	}
+	writer.endMethod();
+	byte[] classFile = writer.toByteArray();
+	writer = null;
+	return classFile;
+    }
+
+    /** On a profiled run, put the frame at the line of a loop unless it
+      * is already there: the last line the code put it at is kept in a
+      * local, which calls reset since they put the frame at the line of
+      * the call, so an inner loop only sets its line on its first
+      * iteration rather than on every one
+      * @param line the line of the loop
+      * */
+    private void emitLine(int line) {
+	int skip = writer.newLabel();
+	writer.local(ClassFileWriter.ILOAD, LOCAL_LINE);
+	writer.pushInt(line);
+	writer.branch(ClassFileWriter.IF_ICMPEQ, skip);
+	writer.local(ClassFileWriter.ALOAD, LOCAL_VM);
+	writer.pushInt(line);
+	writer.invoke(ClassFileWriter.INVOKEVIRTUAL, VM_CLASS, "at", "(I)V");
+	writer.pushInt(line);
+	writer.local(ClassFileWriter.ISTORE, LOCAL_LINE);
+	writer.bind(skip);
+    }
+
+    /** Load the fields of 'this', the constant pool, and all registers into locals */
+    private void emitPrologue(CodeBlock block) {
+	writer.local(ClassFileWriter.ALOAD, LOCAL_REFS);
+	writer.pushInt(0);
+	writer.op(ClassFileWriter.AALOAD);
+	writer.op(ClassFileWriter.CHECKCAST, writer.classRef(RUNTIME_OBJECT));
+	writer.op(ClassFileWriter.DUP);
+	writer.field(ClassFileWriter.GETFIELD, RUNTIME_OBJECT, "ints", "[I");
+	writer.local(ClassFileWriter.ASTORE, LOCAL_INT_FIELDS);
+	writer.field(ClassFileWriter.GETFIELD, RUNTIME_OBJECT, "refs", "[L" + OBJECT + ";");
+	writer.local(ClassFileWriter.ASTORE, LOCAL_REF_FIELDS);
+	writer.local(ClassFileWriter.ALOAD, 0);
+	writer.field(ClassFileWriter.GETFIELD, COMPILED, "constants", "[L" + OBJECT + ";");
+	writer.local(ClassFileWriter.ASTORE, LOCAL_CONSTANTS);
+	if (tracksLine) {
+	    writer.pushInt(0);
+	    writer.local(ClassFileWriter.ISTORE, LOCAL_LINE);
+	}
+	for (int i = 0; i < block.numIntRegs; i++) {
+	    writer.local(ClassFileWriter.ALOAD, LOCAL_INTS);
+	    writer.pushInt(i);
+	    writer.op(ClassFileWriter.IALOAD);
+	    writer.local(ClassFileWriter.ISTORE, intBase + i);
+	}
+	for (int i = 0; i < block.numRefRegs; i++) {
+	    writer.local(ClassFileWriter.ALOAD, LOCAL_REFS);
+	    writer.pushInt(i);
+	    writer.op(ClassFileWriter.AALOAD);
+	    writer.local(ClassFileWriter.ASTORE, refBase + i);
+	}
+    }
+
+    /** Create a label for every branch target
+      * @param code the bytecode
+      * @return labels indexed by pc (-1 where no branch lands)
+      * */
+    private int[] findLabels(int[] code) {
+	int[] labels = new int[code.length];
+	Arrays.fill(labels, -1);
+	for (int pc = 0; pc < code.length; pc += Bytecode.length(code[pc] & 0xff)) {
+	    int opcode = code[pc] & 0xff;
+	    if (Bytecode.isBranch(opcode)) {
+		int target = code[pc + Bytecode.length(opcode) - 1];
+		if (labels[target] < 0) {
+		    labels[target] = writer.newLabel();
+		}
+	    }
+	}
+	return labels;
+    }
+
+    /** Find the targets of backward branches (loop headers)
+      * @param block the code block
+      * @return source line of the loop (of its backward branch) at each
+      *         header, 0 elsewhere, indexed by pc
+      * */
+    private static int[] findLoopHeaders(CodeBlock block) {
+	int[] code = block.code;
+	int[] headers = new int[code.length];
+	for (int pc = 0; pc < code.length; pc += Bytecode.length(code[pc] & 0xff)) {
+	    int opcode = code[pc] & 0xff;
+	    if (Bytecode.isBranch(opcode)) {
+		int target = code[pc + Bytecode.length(opcode) - 1];
+		if (target <= pc) {
+		    headers[target] = Math.max(block.lines[pc], 1);
+		}
+	    }
+	}
+	return headers;
+    }
+
+    /** Translate one VM instruction */
+    private void translate(CodeBlock block, int[] code, int pc, int[] labels) {
+	// quick forms and superinstructions are translated as the instruction
+	// they replaced (the second half of a superinstruction follows it)
+	int insn = (code[pc] & ~0xff) | Bytecode.base(code[pc] & 0xff);
+	int a = (insn >>> 8) & 0xff, b = (insn >>> 16) & 0xff, c = insn >>> 24;
+	switch (insn & 0xff) {
+	    case Bytecode.ICONST:
+		writer.pushInt(code[pc + 1]);
+		storeInt(a);
+		break;
+	    case Bytecode.RCONST:
+		loadConstant(code[pc + 1], null);
+		storeRef(a);
+		break;
+	    case Bytecode.IMOV:
+		loadInt(b);
+		storeInt(a);
+		break;
+	    case Bytecode.RMOV:
+		loadRef(b);
+		storeRef(a);
+		break;
+
+	    case Bytecode.IADD:
+		binary(ClassFileWriter.IADD, a, b, c);
+		break;
+	    case Bytecode.ISUB:
+		binary(ClassFileWriter.ISUB, a, b, c);
+		break;
+	    case Bytecode.IMUL:
+		binary(ClassFileWriter.IMUL, a, b, c);
+		break;
+	    case Bytecode.IDIV:
+	    case Bytecode.IMOD:
+		loadInt(b);
+		loadInt(c);
+		loadConstant(code[pc + 1], SOURCE_NODE);
+		callStatic(((insn & 0xff) == Bytecode.IDIV) ? "divide" : "remainder",
+			   "(IIL" + SOURCE_NODE + ";)I");
+		storeInt(a);
+		break;
+	    case Bytecode.IADDI:
+		if (a == b) {
+		    writer.iinc(intBase + a, code[pc + 1]);
+		}
+		else {
+		    loadInt(b);
+		    writer.pushInt(code[pc + 1]);
+		    writer.op(ClassFileWriter.IADD);
+		    storeInt(a);
+		}
+		break;
+	    case Bytecode.INEG:
+		loadInt(b);
+		writer.op(ClassFileWriter.INEG);
+		storeInt(a);
+		break;
+	    case Bytecode.NOT:
+		loadInt(b);
+		writer.pushInt(1);
+		writer.op(ClassFileWriter.IXOR);
+		storeInt(a);
+		break;
+
+	    case Bytecode.ILT:
+		compare(ClassFileWriter.IF_ICMPLT, false, a, b, c);
+		break;
+	    case Bytecode.ILE:
+		compare(ClassFileWriter.IF_ICMPLE, false, a, b, c);
+		break;
+	    case Bytecode.IGT:
+		compare(ClassFileWriter.IF_ICMPGT, false, a, b, c);
+		break;
+	    case Bytecode.IGE:
+		compare(ClassFileWriter.IF_ICMPGE, false, a, b, c);
+		break;
+	    case Bytecode.IEQ:
+		compare(ClassFileWriter.IF_ICMPEQ, false, a, b, c);
+		break;
+	    case Bytecode.INE:
+		compare(ClassFileWriter.IF_ICMPNE, false, a, b, c);
+		break;
+	    case Bytecode.REQ:
+		compare(ClassFileWriter.IF_ACMPEQ, true, a, b, c);
+		break;
+	    case Bytecode.RNE:
+		compare(ClassFileWriter.IF_ACMPNE, true, a, b, c);
+		break;
+
+	    case Bytecode.JMP:
+		writer.branch(ClassFileWriter.GOTO, labels[code[pc + 1]]);
+		break;
+	    case Bytecode.JT:
+		loadInt(a);
+		writer.branch(ClassFileWriter.IFNE, labels[code[pc + 1]]);
+		break;
+	    case Bytecode.JF:
+		loadInt(a);
+		writer.branch(ClassFileWriter.IFEQ, labels[code[pc + 1]]);
+		break;
+	    case Bytecode.IFLT:
+	    case Bytecode.IFLE:
+	    case Bytecode.IFGT:
+	    case Bytecode.IFGE:
+	    case Bytecode.IFEQ:
+	    case Bytecode.IFNE:
+		loadInt(a);
+		loadInt(b);
+		writer.branch(intCompare(insn & 0xff, Bytecode.IFLT), labels[code[pc + 1]]);
+		break;
+	    case Bytecode.IFREQ:
+	    case Bytecode.IFRNE:
+		loadRef(a);
+		loadRef(b);
+		writer.branch(((insn & 0xff) == Bytecode.IFREQ) ?
+			      ClassFileWriter.IF_ACMPEQ : ClassFileWriter.IF_ACMPNE,
+			      labels[code[pc + 1]]);
+		break;
+	    case Bytecode.IFLTI:
+	    case Bytecode.IFLEI:
+	    case Bytecode.IFGTI:
+	    case Bytecode.IFGEI:
+	    case Bytecode.IFEQI:
+	    case Bytecode.IFNEI: {
+		int compare = intCompare(insn & 0xff, Bytecode.IFLTI);
+		loadInt(a);
+		if (code[pc + 1] == 0) {
+		    // compare with zero: ifeq...ifle parallel if_icmpeq...if_icmple
+		    compare += ClassFileWriter.IFEQ - ClassFileWriter.IF_ICMPEQ;
+		}
+		else {
+		    writer.pushInt(code[pc + 1]);
+		}
+		writer.branch(compare, labels[code[pc + 2]]);
+		break;
+	    }
+
+	    case Bytecode.GETI:
+		writer.local(ClassFileWriter.ALOAD, LOCAL_INT_FIELDS);
+		writer.pushInt(code[pc + 1]);
+		writer.op(ClassFileWriter.IALOAD);
+		storeInt(a);
+		break;
+	    case Bytecode.GETR:
+		writer.local(ClassFileWriter.ALOAD, LOCAL_REF_FIELDS);
+		writer.pushInt(code[pc + 1]);
+		writer.op(ClassFileWriter.AALOAD);
+		storeRef(a);
+		break;
+	    case Bytecode.PUTI:
+		writer.local(ClassFileWriter.ALOAD, LOCAL_INT_FIELDS);
+		writer.pushInt(code[pc + 1]);
+		loadInt(a);
+		writer.op(ClassFileWriter.IASTORE);
+		break;
+	    case Bytecode.PUTR:
+		writer.local(ClassFileWriter.ALOAD, LOCAL_REF_FIELDS);
+		writer.pushInt(code[pc + 1]);
+		loadRef(a);
+		writer.op(ClassFileWriter.AASTORE);
+		break;
+
+	    case Bytecode.ALEN:
+		loadRef(b);
+		loadConstant(code[pc + 1], SOURCE_NODE);
+		callStatic("length", "(L" + OBJECT + ";L" + SOURCE_NODE + ";)I");
+		storeInt(a);
+		break;
+	    case Bytecode.ALOADI:
+		loadRef(b);
+		loadInt(c);
+		loadConstant(code[pc + 1], SOURCE_NODE);
+		callStatic("loadInt", "(L" + OBJECT + ";IL" + SOURCE_NODE + ";)I");
+		storeInt(a);
+		break;
+	    case Bytecode.ALOADR:
+		loadRef(b);
+		loadInt(c);
+		loadConstant(code[pc + 1], SOURCE_NODE);
+		callStatic("load", "(L" + OBJECT + ";IL" + SOURCE_NODE + ";)L" + OBJECT + ";");
+		storeRef(a);
+		break;
+	    case Bytecode.ASTOREI:
+		loadRef(a);
+		loadInt(b);
+		loadInt(c);
+		loadConstant(code[pc + 1], SOURCE_NODE);
+		callStatic("storeInt", "(L" + OBJECT + ";IIL" + SOURCE_NODE + ";)V");
+		break;
+	    case Bytecode.ASTORER:
+		loadRef(a);
+		loadInt(b);
+		loadRef(c);
+		loadConstant(code[pc + 1], SOURCE_NODE);
+		callStatic("storeRef", "(L" + OBJECT + ";IL" + OBJECT + ";L" + SOURCE_NODE + ";)V");
+		break;
+
+	    case Bytecode.NEW:
+		spillForCollection();
+		writer.local(ClassFileWriter.ALOAD, LOCAL_VM);
+		loadConstant(code[pc + 1], RUNTIME_CLASS);
+		writer.invoke(ClassFileWriter.INVOKEVIRTUAL, VM_CLASS, "newObject",
+			      "(L" + RUNTIME_CLASS + ";)L" + RUNTIME_OBJECT + ";");
+		storeRef(a);
+		break;
+	    case Bytecode.NEWSTR:
+		spillForCollection();
+		writer.local(ClassFileWriter.ALOAD, LOCAL_VM);
+		writer.invoke(ClassFileWriter.INVOKEVIRTUAL, VM_CLASS, "newString",
+			      "()Lbantam/interp/RuntimeString;");
+		storeRef(a);
+		break;
+	    case Bytecode.NEWARR:
+		spillForCollection();
+		writer.local(ClassFileWriter.ALOAD, LOCAL_VM);
+		loadConstant(code[pc + 1], TYPE_TEST);
+		loadInt(b);
+		loadConstant(code[pc + 2], SOURCE_NODE);
+		writer.invoke(ClassFileWriter.INVOKEVIRTUAL, VM_CLASS, "newArray",
+			      "(L" + TYPE_TEST + ";IL" + SOURCE_NODE +
+			      ";)Lbantam/interp/RuntimeArray;");
+		storeRef(a);
+		break;
+	    case Bytecode.INSTOF:
+		loadRef(b);
+		loadConstant(code[pc + 1], TYPE_TEST);
+		callStatic("isInstance", "(L" + OBJECT + ";L" + TYPE_TEST + ";)Z");
+		storeInt(a);
+		break;
+	    case Bytecode.CAST:
+		loadRef(a);
+		loadConstant(code[pc + 1], TYPE_TEST);
+		loadConstant(code[pc + 2], SOURCE_NODE);
+		callStatic("cast", "(L" + OBJECT + ";L" + TYPE_TEST + ";L" + SOURCE_NODE + ";)V");
+		break;
+	    case Bytecode.NULLCHK:
+		loadRef(a);
+		loadConstant(code[pc + 1], SOURCE_NODE);
+		callStatic("nullCheck", "(L" + OBJECT + ";L" + SOURCE_NODE + ";)V");
+		break;
+
+	    case Bytecode.CALL:
+	    case Bytecode.CALLS:
+		call((CallSite) block.constants[code[pc + 1]], code[pc + 1]);
+		break;
+	    case Bytecode.RET:
+		writer.local(ClassFileWriter.ALOAD, LOCAL_VM);
+		writer.op(ClassFileWriter.ACONST_NULL);
+		setRefResult();
+		break;
+	    case Bytecode.RETI:
+		loadInt(a);
+		writer.op(ClassFileWriter.IRETURN);
+		break;
+	    case Bytecode.RETR:
+		writer.local(ClassFileWriter.ALOAD, LOCAL_VM);
+		loadRef(a);
+		setRefResult();
+		break;
+	    case Bytecode.OSR:
+		// only the VM branches here
+		break;
+
+	    default:
+		throw new IllegalStateException("bad opcode " + (insn & 0xff) + " at " + pc);
+	}
+    }
+
+    /** Translate a call: with directCalls, first ask the VM for the
+      * compiled code of the target and, if there is one, run it with
+      * register files (recycled once it returns) holding the receiver and
+      * the arguments; otherwise spill the receiver and the arguments to
+      * the register arrays, call through the VM, and reload the result */
+    private void call(CallSite site, int constant) {
+	int receiver = (site.target == null) ? site.receiver : 0;
+	int slow = writer.newLabel(), done = writer.newLabel();
+	if (directCalls) {
+	    writer.local(ClassFileWriter.ALOAD, LOCAL_VM);
+	    loadConstant(constant, CALL_SITE);
+	    loadRef(receiver);
+	    writer.invoke(ClassFileWriter.INVOKEVIRTUAL, VM_CLASS, "compiledTarget",
+			  "(L" + CALL_SITE + ";L" + OBJECT + ";)L" + COMPILED + ";");
+	    writer.local(ClassFileWriter.ASTORE, LOCAL_TARGET);
+	    writer.local(ClassFileWriter.ALOAD, LOCAL_TARGET);
+	    writer.branch(ClassFileWriter.IFNULL, slow);
+	    writer.local(ClassFileWriter.ALOAD, LOCAL_TARGET);
+	    writer.local(ClassFileWriter.ALOAD, LOCAL_VM);
+	    writer.local(ClassFileWriter.ALOAD, LOCAL_TARGET);
+	    writer.invoke(ClassFileWriter.INVOKEVIRTUAL, COMPILED, "newInts", "()[I");
+	    writer.op(ClassFileWriter.DUP);
+	    writer.local(ClassFileWriter.ASTORE, LOCAL_CALLEE_INTS);
+	    for (int i = 0; i < site.argRegs.length; i++) {
+		if (!site.argIsRef[i]) {
+		    writer.op(ClassFileWriter.DUP);
+		    writer.pushInt(site.paramRegs[i]);
+		    loadInt(site.argRegs[i]);
+		    writer.op(ClassFileWriter.IASTORE);
+		}
+	    }
+	    writer.local(ClassFileWriter.ALOAD, LOCAL_TARGET);
+	    loadRef(receiver);
+	    writer.invoke(ClassFileWriter.INVOKEVIRTUAL, COMPILED, "newRefs",
+			  "(L" + OBJECT + ";)[L" + OBJECT + ";");
+	    writer.op(ClassFileWriter.DUP);
+	    writer.local(ClassFileWriter.ASTORE, LOCAL_CALLEE_REFS);
+	    for (int i = 0; i < site.argRegs.length; i++) {
+		if (site.argIsRef[i]) {
+		    writer.op(ClassFileWriter.DUP);
+		    writer.pushInt(site.paramRegs[i]);
+		    loadRef(site.argRegs[i]);
+		    writer.op(ClassFileWriter.AASTORE);
+		}
+	    }
+	    writer.invoke(ClassFileWriter.INVOKEVIRTUAL, COMPILED, "run", RUN_DESC);
+	    writer.local(ClassFileWriter.ALOAD, LOCAL_TARGET);
+	    writer.local(ClassFileWriter.ALOAD, LOCAL_CALLEE_INTS);
+	    writer.local(ClassFileWriter.ALOAD, LOCAL_CALLEE_REFS);
+	    writer.invoke(ClassFileWriter.INVOKEVIRTUAL, COMPILED, "free",
+			  "([I[L" + OBJECT + ";)V");
+	    if (profiling) {
+		writer.local(ClassFileWriter.ALOAD, LOCAL_VM);
+		writer.invoke(ClassFileWriter.INVOKEVIRTUAL, VM_CLASS, "exitCompiled", "()V");
+	    }
+	    if (site.result >= 0 && !site.resultIsRef) {
+		storeInt(site.result);
+	    }
+	    else {
+		writer.op(ClassFileWriter.POP);
+		if (site.result >= 0) {
+		    writer.local(ClassFileWriter.ALOAD, LOCAL_VM);
+		    writer.field(ClassFileWriter.GETFIELD, VM_CLASS, "refResult",
+				 "L" + OBJECT + ";");
+		    storeRef(site.result);
+		}
+	    }
+	    writer.branch(ClassFileWriter.GOTO, done);
+	    writer.bind(slow);
+	}
+
+	if (collecting) {
+	    spillForCollection();
+	}
+	else if (site.target == null) {
+	    spillRef(site.receiver);
+	}
+	for (int i = 0; i < site.argRegs.length; i++) {
+	    if (site.argIsRef[i] && !collecting) {
+		spillRef(site.argRegs[i]);
+	    }
+	    else if (!site.argIsRef[i]) {
+		writer.local(ClassFileWriter.ALOAD, LOCAL_INTS);
+		writer.pushInt(site.argRegs[i]);
+		loadInt(site.argRegs[i]);
+		writer.op(ClassFileWriter.IASTORE);
+	    }
+	}
+	writer.local(ClassFileWriter.ALOAD, LOCAL_VM);
+	loadConstant(constant, CALL_SITE);
+	writer.local(ClassFileWriter.ALOAD, LOCAL_INTS);
+	writer.local(ClassFileWriter.ALOAD, LOCAL_REFS);
+	writer.invoke(ClassFileWriter.INVOKEVIRTUAL, VM_CLASS,
+		      directCalls ? "callResolved" :
+		      (site.target == null) ? "callVirtual" : "callStatic", CALL_DESC);
+	if (site.result >= 0) {
+	    if (site.resultIsRef) {
+		writer.local(ClassFileWriter.ALOAD, LOCAL_REFS);
+		writer.pushInt(site.result);
+		writer.op(ClassFileWriter.AALOAD);
+		storeRef(site.result);
+	    }
+	    else {
+		writer.local(ClassFileWriter.ALOAD, LOCAL_INTS);
+		writer.pushInt(site.result);
+		writer.op(ClassFileWriter.IALOAD);
+		storeInt(site.result);
+	    }
+	}
+	if (directCalls) {
+	    writer.bind(done);
+	}
+	if (tracksLine) {
+	    // the call put the frame at its line (see emitLine)
+	    writer.pushInt(0);
+	    writer.local(ClassFileWriter.ISTORE, LOCAL_LINE);
+	}
+    }
+
+    /** With a garbage collected heap, copy all reference registers (but
+      * 'this', which never changes) to the reference array */
+    private void spillForCollection() {
+	if (collecting) {
+	    for (int reg = 1; reg < numRefRegs; reg++) {
+		spillRef(reg);
+	    }
+	}
+    }
+
+    /** Copy a reference register to the reference array */
+    private void spillRef(int reg) {
+	writer.local(ClassFileWriter.ALOAD, LOCAL_REFS);
+	writer.pushInt(reg);
+	loadRef(reg);
+	writer.op(ClassFileWriter.AASTORE);
+    }
+
+    /** Store the reference on the stack (above the VM) in VM.refResult and return 0 */
+    private void setRefResult() {
+	writer.field(ClassFileWriter.PUTFIELD, VM_CLASS, "refResult", "L" + OBJECT + ";");
+	writer.pushInt(0);
+	writer.op(ClassFileWriter.IRETURN);
+    }
+
+    /** Get the if_icmp opcode of a VM compare-and-branch opcode
+      * @param opcode the VM opcode
+      * @param first the first opcode of its group (IFLT or IFLTI)
+      * */
+    private static int intCompare(int opcode, int first) {
+	switch (opcode - first) {
+	    case 0: return ClassFileWriter.IF_ICMPLT;
+	    case 1: return ClassFileWriter.IF_ICMPLE;
+	    case 2: return ClassFileWriter.IF_ICMPGT;
+	    case 3: return ClassFileWriter.IF_ICMPGE;
+	    case 4: return ClassFileWriter.IF_ICMPEQ;
+	    default: return ClassFileWriter.IF_ICMPNE;
+	}
+    }
+
+    /** Translate a binary int operation */
+    private void binary(int opcode, int a, int b, int c) {
+	loadInt(b);
+	loadInt(c);
+	writer.op(opcode);
+	storeInt(a);
+    }
+
+    /** Translate a comparison producing a boolean (0 or 1) */
+    private void compare(int branch, boolean refs, int a, int b, int c) {
+	int isTrue = writer.newLabel(), done = writer.newLabel();
+	if (refs) {
+	    loadRef(b);
+	    loadRef(c);
+	}
+	else {
+	    loadInt(b);
+	    loadInt(c);
+	}
+	writer.branch(branch, isTrue);
+	writer.pushInt(0);
+	writer.branch(ClassFileWriter.GOTO, done);
+	writer.bind(isTrue);
+	writer.pushInt(1);
+	writer.bind(done);
+	storeInt(a);
+    }
+
+    private void loadInt(int reg) {
+	writer.local(ClassFileWriter.ILOAD, intBase + reg);
+    }
+
+    private void storeInt(int reg) {
+	writer.local(ClassFileWriter.ISTORE, intBase + reg);
+    }
+
+    private void loadRef(int reg) {
+	writer.local(ClassFileWriter.ALOAD, refBase + reg);
+    }
+
+    private void storeRef(int reg) {
+	writer.local(ClassFileWriter.ASTORE, refBase + reg);
+    }
+
+    /** Push a constant pool entry of the block
+      * @param index index in the block's constant pool
+      * @param type internal name of the type to cast it to (null for Object)
+      * */
+    private void loadConstant(int index, String type) {
+	writer.local(ClassFileWriter.ALOAD, LOCAL_CONSTANTS);
+	writer.pushInt(index);
+	writer.op(ClassFileWriter.AALOAD);
+	if (type != null) {
+	    writer.op(ClassFileWriter.CHECKCAST, writer.classRef(type));
+	}
+    }
+
+    /** Call a static helper of the VM */
+    private void callStatic(String name, String desc) {
+	writer.invoke(ClassFileWriter.INVOKESTATIC, VM_CLASS, name, desc);
+    }
+}
@@ -0,0 +1,16 @@
+package bantam.interp;
+
+/** The <tt>LimitExceeded</tt> class unwinds the interpreter when a run
+  * exceeds one of its limits (see <tt>Budget</tt>).
+  * */
+final class LimitExceeded extends RuntimeException {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
+    /** LimitExceeded constructor
+      * @param message description of the exceeded limit (including trailing newline)
+      * */
+    LimitExceeded(String message) {
+	super(message, null, false, false);
+    }
+}
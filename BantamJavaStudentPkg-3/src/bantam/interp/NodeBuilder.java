@@ -0,0 +1,595 @@
+package bantam.interp;
+
+import bantam.ast.*;
+import bantam.visitor.Visitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/** The <tt>NodeBuilder</tt> class translates the typed AST of method
+  * bodies and field initializers into executable node trees.  This is
+  * where names are resolved: parameters and locals are assigned frame
+  * slots (reusing the slots of variables whose scope has ended), field
+  * references become field offsets, super calls are bound statically,
+  * and string constants are preallocated.  It is also where each
+  * variable access, call argument, and return is specialized to ints
+  * (int and boolean) or references from the static types, so that the
+  * nodes never box primitive values.
+  * */
+class NodeBuilder extends Visitor {
+    /** Run-time classes by name */
+    private HashMap<String, RuntimeClass> classes;
+
+    /** Built-in method implementations (used to create string constants) */
+    private Builtins builtins;
+
+    /** Class whose code is being translated */
+    private RuntimeClass currentClass;
+
+    /** Method whose body is being translated (null for field initializers) */
+    private RuntimeMethod currentMethod;
+
+    /** Name of the source file of the current class */
+    private String filename;
+
+    /** A parameter or local variable: its frame slot and kind */
+    private static final class Var {
+	final int slot;
+	final boolean isInt;
+
+	Var(int slot, boolean isInt) {
+	    this.slot = slot;
+	    this.isInt = isInt;
+	}
+    }
+
+    /** Local scopes of the method being translated (innermost last) */
+    private ArrayList<HashMap<String, Var>> scopes = new ArrayList<HashMap<String, Var>>();
+
+    /** Next free int and reference frame slots */
+    private int nextIntSlot, nextRefSlot;
+
+    /** Number of int and reference frame slots needed so far */
+    private int maxIntSlots, maxRefSlots;
+
+    /** Whether the method being translated returns an int or boolean */
+    private boolean returnsInt;
+
+    /** Preallocated string constants (so equal literals are the same object) */
+    private HashMap<String, RuntimeString> strings = new HashMap<String, RuntimeString>();
+
+    /** Inline caches of the virtual call sites built so far */
+    final ArrayList<InlineCache> caches = new ArrayList<InlineCache>();
+
+    /** NodeBuilder constructor
+      * @param classes run-time classes by name
+      * @param builtins built-in method implementations
+      * */
+    NodeBuilder(HashMap<String, RuntimeClass> classes, Builtins builtins) {
+	this.classes = classes;
+	this.builtins = builtins;
+    }
+
+    /** Build the initializers of the fields declared by a class
+      * @param cls the class
+      * */
+    void buildInitializers(RuntimeClass cls) {
+	setClass(cls);
+	ArrayList<ExprNode> exprs = new ArrayList<ExprNode>();
+	for (Field field : cls.declaredFields) {
+	    if (field.getInit() != null) {
+		ExprNode value = build(field.getInit());
+		exprs.add(at(storeField(cls, field.getName(), value), field));
+	    }
+	}
+	cls.initExprs = exprs.toArray(new ExprNode[exprs.size()]);
+    }
+
+    /** Build the body of a user-defined method, resolving its parameters
+      * and locals to frame slots
+      * @param method the method
+      * */
+    void buildMethod(RuntimeMethod method) {
+	setClass(method.owner);
+	currentMethod = method;
+	scopes.clear();
+	nextIntSlot = maxIntSlots = 0;
+	nextRefSlot = maxRefSlots = 1;	// slot 0 holds 'this'
+	returnsInt = RuntimeClass.isPrimitive(method.astNode.getReturnType());
+	enterScope();
+	for (ASTNode formal : method.astNode.getFormalList()) {
+	    declare(((Formal) formal).getName(), ((Formal) formal).getType());
+	}
+	method.body = buildBlock(method.astNode.getStmtList());
+	exitScope();
+	method.numIntSlots = maxIntSlots;
+	method.numRefSlots = maxRefSlots;
+    }
+
+    /** Set the class whose code is being translated */
+    private void setClass(RuntimeClass cls) {
+	currentClass = cls;
+	currentMethod = null;
+	filename = cls.treeNode.getASTNode().getFilename();
+    }
+
+    /** Enter a new local scope */
+    private void enterScope() {
+	scopes.add(new HashMap<String, Var>());
+    }
+
+    /** Exit the innermost local scope, freeing its slots */
+    private void exitScope() {
+	HashMap<String, Var> scope = scopes.remove(scopes.size() - 1);
+	for (Var var : scope.values()) {
+	    if (var.isInt) {
+		nextIntSlot--;
+	    }
+	    else {
+		nextRefSlot--;
+	    }
+	}
+    }
+
+    /** Declare a parameter or local in the innermost scope
+      * @param name variable name
+      * @param type declared type of the variable
+      * @return the variable
+      * */
+    private Var declare(String name, String type) {
+	Var var;
+	if (RuntimeClass.isPrimitive(type)) {
+	    var = new Var(nextIntSlot++, true);
+	    maxIntSlots = Math.max(maxIntSlots, nextIntSlot);
+	}
+	else {
+	    var = new Var(nextRefSlot++, false);
+	    maxRefSlots = Math.max(maxRefSlots, nextRefSlot);
+	}
+	scopes.get(scopes.size() - 1).put(name, var);
+	return var;
+    }
+
+    /** Find a parameter or local
+      * @param name variable name
+      * @return the variable (null if the name is not a local, i.e., it is a field)
+      * */
+    private Var lookupLocal(String name) {
+	for (int i = scopes.size() - 1; i >= 0; i--) {
+	    Var var = scopes.get(i).get(name);
+	    if (var != null) {
+		return var;
+	    }
+	}
+	return null;
+    }
+
+    /** Check whether an expression produces an int or boolean
+      * @param expr typed expression
+      * @return true for int and boolean expressions
+      * */
+    private static boolean isInt(Expr expr) {
+	String type = expr.getExprType();
+	return type != null && RuntimeClass.isPrimitive(type);
+    }
+
+    /** Get the class whose fields a 'this'/'super' reference names
+      * @param refName "this" or "super"
+      * @return the class
+      * */
+    private RuntimeClass getRefClass(String refName) {
+	if (refName.equals("super")) {
+	    return currentClass.parent;
+	}
+	else if (refName.equals("this")) {
+	    return currentClass;
+	}
+	throw new RuntimeException("Internal error: bad field reference " + refName);
+    }
+
+    /** Record the source position of a node
+      * @param node executable node
+      * @param ast corresponding AST node
+      * @return the executable node
+      * */
+    private ExprNode at(ExprNode node, ASTNode ast) {
+	node.filename = filename;
+	node.lineNum = ast.getLineNum();
+	return node;
+    }
+
+    /** Translate an expression */
+    private ExprNode build(Expr expr) {
+	return (ExprNode) expr.accept(this);
+    }
+
+    /** Translate an optional expression */
+    private ExprNode buildOptional(Expr expr) {
+	return (expr == null) ? null : build(expr);
+    }
+
+    /** Translate a list of expressions */
+    private ExprNode[] buildList(ExprList list) {
+	ExprNode[] nodes = new ExprNode[list.getSize()];
+	for (int i = 0; i < nodes.length; i++) {
+	    nodes[i] = build((Expr) list.get(i));
+	}
+	return nodes;
+    }
+
+    /** Translate a statement in its own scope */
+    private StmtNode buildScoped(Stmt stmt) {
+	enterScope();
+	StmtNode node = (StmtNode) stmt.accept(this);
+	exitScope();
+	return node;
+    }
+
+    /** Translate a statement list (the caller manages the scope) */
+    private StmtNode buildBlock(StmtList list) {
+	StmtNode[] stmts = new StmtNode[list.getSize()];
+	for (int i = 0; i < stmts.length; i++) {
+	    stmts[i] = (StmtNode) list.get(i).accept(this);
+	}
+	return (stmts.length == 1) ? stmts[0] : new StmtNode.Block(stmts);
+    }
+
+    /** Create a load of a named variable (local or field of 'this') */
+    private ExprNode load(String name, ASTNode ast) {
+	Var var = lookupLocal(name);
+	if (var != null) {
+	    return at(var.isInt ? new ExprNode.LocalInt(var.slot)
+		      : new ExprNode.LocalRef(var.slot), ast);
+	}
+	return at(loadField(currentClass, name), ast);
+    }
+
+    /** Create a load of a field of 'this'
+      * @param cls class in which the name is looked up
+      * @param name field name
+      * @return the (unpositioned) load node
+      * */
+    private static ExprNode loadField(RuntimeClass cls, String name) {
+	int offset = cls.getFieldOffset(name);
+	if (RuntimeClass.isPrimitive(cls.getFieldType(name))) {
+	    return new ExprNode.FieldIntLoad(offset);
+	}
+	return new ExprNode.FieldRefLoad(offset);
+    }
+
+    /** Create a store to a field of 'this'
+      * @param cls class in which the name is looked up
+      * @param name field name
+      * @param value stored value
+      * @return the (unpositioned) store node
+      * */
+    private static ExprNode storeField(RuntimeClass cls, String name, ExprNode value) {
+	int offset = cls.getFieldOffset(name);
+	if (RuntimeClass.isPrimitive(cls.getFieldType(name))) {
+	    return new ExprNode.FieldIntStore(offset, value);
+	}
+	return new ExprNode.FieldRefStore(offset, value);
+    }
+
+    /** Create a type test for instanceof or a cast */
+    private ExprNode.TypeTest getTypeTest(String type) {
+	if (type.endsWith("[]")) {
+	    String elementType = type.substring(0, type.length() - 2);
+	    return new ExprNode.TypeTest(type, classes.get(elementType), true, elementType);
+	}
+	return new ExprNode.TypeTest(type, classes.get(type), false, null);
+    }
+
+    /** Convert a string constant lexeme (with quotes and escapes) to its value */
+    static String unescape(String lexeme) {
+	StringBuilder value = new StringBuilder();
+	for (int i = 1; i < lexeme.length() - 1; i++) {
+	    char c = lexeme.charAt(i);
+	    if (c == '\\' && i + 1 < lexeme.length() - 1) {
+		c = lexeme.charAt(++i);
+		switch (c) {
+		    case 'n': c = '\n'; break;
+		    case 't': c = '\t'; break;
+		    case 'f': c = '\f'; break;
+		    default: break; // '\"' and '\\'
+		}
+	    }
+	    value.append(c);
+	}
+	return value.toString();
+    }
+
+    // statements
+
+    public Object visit(DeclStmt node) {
+	// translate the initializer before the variable comes into scope
+	ExprNode init = build(node.getInit());
+	Var var = declare(node.getName(), node.getType());
+	StmtNode stmt = var.isInt ? new StmtNode.IntDecl(var.slot, init)
+	    : new StmtNode.RefDecl(var.slot, init);
+	stmt.lineNum = node.getLineNum();
+	return stmt;
+    }
+
+    public Object visit(ExprStmt node) {
+	StmtNode stmt = new StmtNode.Expr(build(node.getExpr()));
+	stmt.lineNum = node.getLineNum();
+	return stmt;
+    }
+
+    public Object visit(IfStmt node) {
+	ExprNode pred = build(node.getPredExpr());
+	StmtNode thenStmt = buildScoped(node.getThenStmt());
+	StmtNode elseStmt = (node.getElseStmt() == null) ? null : buildScoped(node.getElseStmt());
+	StmtNode stmt = new StmtNode.If(pred, thenStmt, elseStmt);
+	stmt.lineNum = node.getLineNum();
+	return stmt;
+    }
+
+    public Object visit(WhileStmt node) {
+	StmtNode stmt = new StmtNode.While(build(node.getPredExpr()),
+					   buildScoped(node.getBodyStmt()), builtins.budget,
+					   builtins.profiler);
+	stmt.lineNum = node.getLineNum();
+	return stmt;
+    }
+
+    public Object visit(ForStmt node) {
+	StmtNode stmt = new StmtNode.For(buildOptional(node.getInitExpr()),
+					 buildOptional(node.getPredExpr()),
+					 buildOptional(node.getUpdateExpr()),
+					 buildScoped(node.getBodyStmt()), builtins.budget,
+					 builtins.profiler);
+	stmt.lineNum = node.getLineNum();
+	return stmt;
+    }
+
+    public Object visit(BreakStmt node) {
+	StmtNode stmt = new StmtNode.Break();
+	stmt.lineNum = node.getLineNum();
+	return stmt;
+    }
+
+    public Object visit(BlockStmt node) {
+	enterScope();
+	StmtNode stmt = buildBlock(node.getStmtList());
+	exitScope();
+	return stmt;
+    }
+
+    public Object visit(ReturnStmt node) {
+	ExprNode expr = buildOptional(node.getExpr());
+	StmtNode stmt = (expr != null && returnsInt) ? new StmtNode.IntReturn(expr)
+	    : new StmtNode.Return(expr);
+	stmt.lineNum = node.getLineNum();
+	return stmt;
+    }
+
+    // expressions
+
+    public Object visit(DispatchExpr node) {
+	ExprNode[] args = buildList(node.getActualList());
+	boolean[] intArgs = new boolean[args.length];
+	for (int i = 0; i < args.length; i++) {
+	    intArgs[i] = isInt((Expr) node.getActualList().get(i));
+	}
+	Expr ref = node.getRefExpr();
+	if (ref instanceof VarExpr && ((VarExpr) ref).getRef() == null &&
+	    ((VarExpr) ref).getName().equals("super")) {
+	    // super calls are not dynamically dispatched
+	    RuntimeMethod method = currentClass.parent.lookupMethod(node.getMethodName());
+	    return at(new ExprNode.StaticCall(method, args, intArgs), node);
+	}
+	ExprNode receiver = (ref == null) ? at(new ExprNode.This(), node) : build(ref);
+	ExprNode.Dispatch dispatch = new ExprNode.Dispatch(receiver, node.getMethodName(),
+							      args, intArgs);
+	dispatch.cache.caller = currentMethod;
+	caches.add(dispatch.cache);
+	return at(dispatch, node);
+    }
+
+    public Object visit(NewExpr node) {
+	RuntimeClass cls = classes.get(node.getType());
+	if (cls.name.equals("String")) {
+	    return at(new ExprNode.NewString(builtins), node);
+	}
+	return at(new ExprNode.New(cls), node);
+    }
+
+    public Object visit(NewArrayExpr node) {
+	return at(new ExprNode.NewArray(builtins.heap, classes.get("Object"), node.getType(),
+					classes.get(node.getType()), build(node.getSize())),
+		  node);
+    }
+
+    public Object visit(InstanceofExpr node) {
+	return at(new ExprNode.InstanceOf(build(node.getExpr()), getTypeTest(node.getType())),
+		  node);
+    }
+
+    public Object visit(CastExpr node) {
+	ExprNode expr = build(node.getExpr());
+	if (node.getUpCast()) {
+	    // upcasts always succeed
+	    return expr;
+	}
+	return at(new ExprNode.Cast(expr, getTypeTest(node.getType())), node);
+    }
+
+    public Object visit(AssignExpr node) {
+	ExprNode value = build(node.getExpr());
+	if (node.getRefName() != null) {
+	    return at(storeField(getRefClass(node.getRefName()), node.getName(), value), node);
+	}
+	Var var = lookupLocal(node.getName());
+	if (var != null) {
+	    return at(var.isInt ? new ExprNode.LocalIntStore(var.slot, value)
+		      : new ExprNode.LocalRefStore(var.slot, value), node);
+	}
+	return at(storeField(currentClass, node.getName(), value), node);
+    }
+
+    public Object visit(ArrayAssignExpr node) {
+	ExprNode array;
+	if (node.getRefName() != null) {
+	    array = at(loadField(getRefClass(node.getRefName()), node.getName()), node);
+	}
+	else {
+	    array = load(node.getName(), node);
+	}
+	ExprNode index = build(node.getIndex());
+	ExprNode value = build(node.getExpr());
+	if (isInt(node.getExpr())) {
+	    return at(new ExprNode.ArrayIntStore(array, index, value), node);
+	}
+	return at(new ExprNode.ArrayRefStore(array, index, value), node);
+    }
+
+    public Object visit(BinaryCompEqExpr node) {
+	return buildEquality(node, false);
+    }
+
+    public Object visit(BinaryCompNeExpr node) {
+	return buildEquality(node, true);
+    }
+
+    /** Translate == or != according to the static type of the operands */
+    private ExprNode buildEquality(BinaryExpr node, boolean negate) {
+	ExprNode left = build(node.getLeftExpr());
+	ExprNode right = build(node.getRightExpr());
+	String type = node.getLeftExpr().getExprType();
+	if ("int".equals(type)) {
+	    return at(new ExprNode.IntEq(left, right, negate), node);
+	}
+	else if ("boolean".equals(type)) {
+	    return at(new ExprNode.BooleanEq(left, right, negate), node);
+	}
+	return at(new ExprNode.RefEq(left, right, negate), node);
+    }
+
+    public Object visit(BinaryCompLtExpr node) {
+	return at(new ExprNode.Lt(build(node.getLeftExpr()), build(node.getRightExpr())), node);
+    }
+
+    public Object visit(BinaryCompLeqExpr node) {
+	return at(new ExprNode.Le(build(node.getLeftExpr()), build(node.getRightExpr())), node);
+    }
+
+    public Object visit(BinaryCompGtExpr node) {
+	return at(new ExprNode.Gt(build(node.getLeftExpr()), build(node.getRightExpr())), node);
+    }
+
+    public Object visit(BinaryCompGeqExpr node) {
+	return at(new ExprNode.Ge(build(node.getLeftExpr()), build(node.getRightExpr())), node);
+    }
+
+    public Object visit(BinaryArithPlusExpr node) {
+	return at(new ExprNode.Add(build(node.getLeftExpr()), build(node.getRightExpr())), node);
+    }
+
+    public Object visit(BinaryArithMinusExpr node) {
+	return at(new ExprNode.Sub(build(node.getLeftExpr()), build(node.getRightExpr())), node);
+    }
+
+    public Object visit(BinaryArithTimesExpr node) {
+	return at(new ExprNode.Mul(build(node.getLeftExpr()), build(node.getRightExpr())), node);
+    }
+
+    public Object visit(BinaryArithDivideExpr node) {
+	return at(new ExprNode.Div(build(node.getLeftExpr()), build(node.getRightExpr())), node);
+    }
+
+    public Object visit(BinaryArithModulusExpr node) {
+	return at(new ExprNode.Mod(build(node.getLeftExpr()), build(node.getRightExpr())), node);
+    }
+
+    public Object visit(BinaryLogicAndExpr node) {
+	return at(new ExprNode.And(build(node.getLeftExpr()), build(node.getRightExpr())), node);
+    }
+
+    public Object visit(BinaryLogicOrExpr node) {
+	return at(new ExprNode.Or(build(node.getLeftExpr()), build(node.getRightExpr())), node);
+    }
+
+    public Object visit(UnaryNegExpr node) {
+	return at(new ExprNode.Neg(build(node.getExpr())), node);
+    }
+
+    public Object visit(UnaryNotExpr node) {
+	return at(new ExprNode.Not(build(node.getExpr())), node);
+    }
+
+    public Object visit(UnaryIncrExpr node) {
+	return buildIncrement(node, 1);
+    }
+
+    public Object visit(UnaryDecrExpr node) {
+	return buildIncrement(node, -1);
+    }
+
+    /** Translate ++/-- (the operand is a variable, see UnaryExprVisitor) */
+    private ExprNode buildIncrement(UnaryExpr node, int delta) {
+	VarExpr var = (VarExpr) node.getExpr();
+	if (var.getRef() == null) {
+	    Var local = lookupLocal(var.getName());
+	    if (local != null) {
+		return at(new ExprNode.LocalIncrement(local.slot, delta, node.isPostfix()), node);
+	    }
+	    return at(new ExprNode.FieldIncrement(currentClass.getFieldOffset(var.getName()),
+						  delta, node.isPostfix()), node);
+	}
+	int offset = getRefClass(((VarExpr) var.getRef()).getName()).getFieldOffset(var.getName());
+	return at(new ExprNode.FieldIncrement(offset, delta, node.isPostfix()), node);
+    }
+
+    public Object visit(VarExpr node) {
+	String name = node.getName();
+	if (node.getRef() == null) {
+	    if (name.equals("this") || name.equals("super")) {
+		return at(new ExprNode.This(), node);
+	    }
+	    else if (name.equals("null")) {
+		return at(new ExprNode.Const(null), node);
+	    }
+	    return load(name, node);
+	}
+	VarExpr ref = (VarExpr) node.getRef();
+	if (ref.getRef() == null && (ref.getName().equals("this") || ref.getName().equals("super"))) {
+	    return at(loadField(getRefClass(ref.getName()), name), node);
+	}
+	// the only other field of a variable is the length of an array
+	return at(new ExprNode.ArrayLength(build(ref)), node);
+    }
+
+    public Object visit(ArrayExpr node) {
+	ExprNode array;
+	if (node.getRef() != null) {
+	    array = at(loadField(getRefClass(((VarExpr) node.getRef()).getName()),
+				 node.getName()), node);
+	}
+	else {
+	    array = load(node.getName(), node);
+	}
+	if (isInt(node)) {
+	    return at(new ExprNode.ArrayIntLoad(array, build(node.getIndex())), node);
+	}
+	return at(new ExprNode.ArrayRefLoad(array, build(node.getIndex())), node);
+    }
+
+    public Object visit(ConstIntExpr node) {
+	return at(new ExprNode.IntConst(Integer.parseInt(node.getConstant())), node);
+    }
+
+    public Object visit(ConstBooleanExpr node) {
+	return at(new ExprNode.BooleanConst(node.getConstant().equals("true")), node);
+    }
+
+    public Object visit(ConstStringExpr node) {
+	RuntimeString value = strings.get(node.getConstant());
+	if (value == null) {
+	    value = builtins.newConstant(unescape(node.getConstant()));
+	    strings.put(node.getConstant(), value);
+	}
+	return at(new ExprNode.Const(value), node);
+    }
+}
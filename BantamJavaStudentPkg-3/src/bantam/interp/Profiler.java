@@ -0,0 +1,528 @@
+package bantam.interp;
+
+import bantam.ast.StmtList;
+
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/** The <tt>Profiler</tt> class profiles one run of a program per method
+  * and per source line, on any engine.
+  *
+  * The interpreter keeps a shadow stack of the active methods: every
+  * call (of a user-defined or a built-in method) pushes the callee and
+  * puts the caller at the line of the call, and every loop iteration
+  * puts the current frame at the line of the loop, so the line of each
+  * frame is the last call or loop it reached.  Calls (per method and per
+  * call site) and allocated bytes are counted exactly on the way, except
+  * for the calls of dynamically dispatched sites, which their inline
+  * caches count anyway and which are taken from them when the run ends.
+  *
+  * Time is sampled: a daemon thread wakes up every INTERVAL_MILLIS, reads
+  * the shadow stack, and charges the time elapsed since its last sample
+  * to the method and line on top (self time), to every method and line
+  * on the stack (total time, counted once per sample for recursive
+  * methods), and to the stack itself, which is written out in the
+  * collapsed format read by flame-graph tools ("Main.main;Main.fib 1234",
+  * with the weights in microseconds).  The interpreter publishes the
+  * depth of the stack with a release store after the frames below it,
+  * and the sampler reads the depth first, so it only reads frames that
+  * were pushed; a sample taken while the interpreter calls or returns
+  * may still be off by a frame, or see a frame at its previous line,
+  * which is the price of keeping the interpreter free of any locking.
+  * */
+final class Profiler {
+    /** Time between samples in milliseconds */
+    static final int INTERVAL_MILLIS = 1;
+
+    /** Maximum number of frames of a sampled stack (deeper stacks keep
+      * their outermost frame and their innermost frames) */
+    static final int MAX_SAMPLE_DEPTH = 256;
+
+    /** Frame standing for the frames left out of a deep stack */
+    private static final String ELIDED = "[...]";
+
+    /** Shadow stack: for each active method, the id of its profile (in
+      * the low half) and the line it was called from (in the high half),
+      * which is the line of the frame below while the method is active
+      * (see lineOf).  A call pushes its frame with a single store: also
+      * storing the line in the caller's frame made calls of compiled code
+      * about 10% slower */
+    private long[] stack = new long[64];
+
+    /** Depth of the shadow stack (in the low half) and line of the frame
+      * on top (in the high half: the line of the last loop it reached,
+      * ENTERED or RETURNED).  The interpreter only writes it through
+      * TOP.setRelease, after the frames and arrays it publishes, and the
+      * sampler reads it first, like any volatile field; a release store
+      * orders the writes before it like a volatile write, without the
+      * fence that would double the cost of a call (the interpreter, its
+      * only writer, reads it with a plain TOP.get) */
+    private volatile long top;
+    private static final VarHandle TOP;
+
+    /** Lines of the frame on top in top when it was just called (it is at
+      * its first line) and when a method it called just returned (it is
+      * at the line of that call, which is still in the frame above it) */
+    private static final int ENTERED = 0, RETURNED = -1;
+
+    static {
+	try {
+	    TOP = MethodHandles.lookup().findVarHandle(Profiler.class, "top", long.class);
+	} catch (ReflectiveOperationException e) {
+	    throw new ExceptionInInitializerError(e);
+	}
+    }
+
+    /** Profiles of all the methods called, indexed by id (in order of
+      * first call) */
+    private MethodProfile[] profiles = new MethodProfile[64];
+    private int numProfiles;
+
+    /** Call sites that made calls and the method each belongs to (the
+      * sites count their calls themselves) */
+    private final ArrayList<SourceNode> sites = new ArrayList<SourceNode>();
+    private final ArrayList<MethodProfile> siteCallers = new ArrayList<MethodProfile>();
+
+    /** Bytes allocated outside of any method (by the initializers of the
+      * Main object on the AST engine) */
+    private long unattributedBytes;
+
+    /** Sampled time in nanoseconds of each collapsed stack */
+    private final HashMap<String, long[]> stacks = new HashMap<String, long[]>();
+
+    /** Number of samples, and the time they charged to methods (samples
+      * taken outside of any method charge nothing) */
+    private long samples, sampledNanos;
+
+    /** Number of the current sample (frames already charged by it are
+      * marked with it) */
+    private int mark;
+
+    /** Start and length of the profiled run */
+    private long startNanos, elapsedNanos;
+
+    /** Sampler thread and whether it should keep sampling */
+    private Thread sampler;
+    private volatile boolean sampling;
+
+    /** The <tt>MethodProfile</tt> class holds the counts of one method and
+      * of its lines (per-line arrays are indexed by line number and grow
+      * on demand) */
+    static final class MethodProfile {
+	/** Index of the profile in the profiler's table */
+	final int id;
+
+	/** Qualified name of the method (e.g., "Main.fib") */
+	final String name;
+
+	/** Source file and first line of the method's body (the parser
+	  * numbers the declaration itself with the line after the body) */
+	final String filename;
+	final int line;
+
+	/** Whether the method is built in */
+	final boolean builtin;
+
+	/** Calls of the method (see enter and stop) and bytes
+	  * allocated while it was on top, and the calls made (added up
+	  * from the call sites) and bytes allocated at each line (counted
+	  * by the interpreter) */
+	long calls, allocated;
+	long[] lineCalls = new long[0], lineAllocated = new long[0];
+
+	/** Sampled self and total time of the method and of each line in
+	  * nanoseconds (charged by the sampler) */
+	long selfNanos, totalNanos;
+	long[] lineSelf = new long[0], lineTotal = new long[0];
+
+	/** Last sample that charged total time to the method and to each line */
+	int mark;
+	int[] lineMarks = new int[0];
+
+	MethodProfile(RuntimeMethod method, int id) {
+	    this.id = id;
+	    this.name = method.owner.name + "." + method.name;
+	    this.filename = method.owner.treeNode.getASTNode().getFilename();
+	    // (built-in methods have no line)
+	    StmtList body = method.astNode.getStmtList();
+	    int first = (body.getSize() > 0) ?
+		Math.min(body.get(0).getLineNum(), method.astNode.getLineNum()) :
+		method.astNode.getLineNum();
+	    this.line = Math.max(first, 0);
+	    this.builtin = method.builtin >= 0;
+	}
+
+	/** Get the number of lines with counts */
+	int numLines() {
+	    return Math.max(Math.max(lineCalls.length, lineAllocated.length),
+			    Math.max(lineSelf.length, lineTotal.length));
+	}
+    }
+
+    /** Add an amount to an element of a per-line array, growing it if needed
+      * @return the array (a new one if it grew)
+      * */
+    private static long[] add(long[] counts, int index, long amount) {
+	if (index >= counts.length) {
+	    counts = Arrays.copyOf(counts, Math.max(index + 1, 2 * counts.length));
+	}
+	counts[index] += amount;
+	return counts;
+    }
+
+    /** Pack an id or a depth with a line (see stack and top) */
+    private static long pack(int low, int line) {
+	return ((long) line << 32) | low;
+    }
+
+    /** Get the line of a frame of the shadow stack (see stack and top)
+      * @param s the stack
+      * @param p the profiles
+      * @param i the index of the frame
+      * @param t the depth and line of the frame on top
+      * */
+    private static int lineOf(long[] s, MethodProfile[] p, int i, long t) {
+	int line = (int) (t >>> 32);
+	if (i < (int) t - 1 || line == RETURNED) {
+	    return (i + 1 < s.length) ? (int) (s[i + 1] >>> 32) : 0;
+	}
+	return (line == ENTERED) ? p[(int) s[i]].line : line;
+    }
+
+    /** Get an element of a per-line array (0 if it has not grown that far) */
+    private static long get(long[] counts, int index) {
+	return (index < counts.length) ? counts[index] : 0;
+    }
+
+    // events (on the interpreter's thread)
+
+    /** A method is called from a dynamically dispatched site, whose
+      * inline cache counts the call (see stop), so that the call only
+      * pushes the callee: this is the path of the compiled calls
+      * @param method the callee
+      * @param site the call site
+      * */
+    void enterDispatched(RuntimeMethod method, SourceNode site) {
+	MethodProfile profile = method.profile;
+	long t = (long) TOP.get(this);
+	int d = (int) t;
+	long[] s = stack;
+	// (kept small enough for HotSpot to inline it into compiled calls)
+	if (profile == null || d == s.length) {
+	    prepareEnter(method);
+	    enterDispatched(method, site);
+	    return;
+	}
+	s[d] = pack(profile.id, site.lineNum);
+	TOP.setRelease(this, pack(d + 1, ENTERED));
+    }
+
+    /** A method is called (from any site: the calls of a site without an
+      * inline cache, a statically bound one, are counted here)
+      * @param method the callee
+      * @param site the call site (null for a call of the runtime, of main
+      * or of an initializer, which leaves the caller at its line)
+      * */
+    void enter(RuntimeMethod method, SourceNode site) {
+	if (site != null && site.getCache() != null) {
+	    enterDispatched(method, site);
+	    return;
+	}
+	prepareEnter(method);
+	MethodProfile profile = method.profile;
+	long t = (long) TOP.get(this);
+	int d = (int) t;
+	profile.calls++;
+	int line;
+	if (site != null) {
+	    line = site.lineNum;
+	    if (d > 0 && site.profiledCalls++ == 0) {
+		addSite(site, profiles[(int) stack[d - 1]]);
+	    }
+	}
+	else {
+	    line = (d > 0) ? lineOf(stack, profiles, d - 1, t) : 0;
+	}
+	stack[d] = pack(profile.id, line);
+	TOP.setRelease(this, pack(d + 1, ENTERED));
+    }
+
+    /** Prepare a call: create the profile of the callee on its first call
+      * and grow the stack if it is full */
+    private void prepareEnter(RuntimeMethod method) {
+	if (method.profile == null) {
+	    if (numProfiles == profiles.length) {
+		profiles = Arrays.copyOf(profiles, 2 * numProfiles);
+	    }
+	    method.profile = new MethodProfile(method, numProfiles);
+	    profiles[numProfiles++] = method.profile;
+	}
+	if ((int) (long) TOP.get(this) == stack.length) {
+	    // the sampler may still read the old array, which stays valid
+	    stack = Arrays.copyOf(stack, 2 * stack.length);
+	}
+    }
+
+    /** Add a call site on its first call (its calls are added to the lines
+      * of the calling method when reporting) */
+    private void addSite(SourceNode site, MethodProfile caller) {
+	// (the calls of field initializers are made on behalf of another class)
+	if (site.filename != null && site.filename.equals(caller.filename)) {
+	    sites.add(site);
+	    siteCallers.add(caller);
+	}
+    }
+
+    /** The method on top returns */
+    void exit() {
+	TOP.setRelease(this, pack((int) (long) TOP.get(this) - 1, RETURNED));
+    }
+
+    /** The method on top reaches a line (a loop iteration)
+      * @param line the line
+      * */
+    void at(int line) {
+	long t = (long) TOP.get(this);
+	// (a loop reaches the same line on every iteration)
+	if ((int) (t >>> 32) != line && (int) t > 0) {
+	    TOP.setRelease(this, pack((int) t, line));
+	}
+    }
+
+    /** Bytes are allocated by the method on top
+      * @param bytes number of bytes
+      * */
+    void allocated(long bytes) {
+	long t = (long) TOP.get(this);
+	int d = (int) t;
+	if (d == 0) {
+	    unattributedBytes += bytes;
+	    return;
+	}
+	MethodProfile profile = profiles[(int) stack[d - 1]];
+	profile.allocated += bytes;
+	profile.lineAllocated = add(profile.lineAllocated,
+				    Math.max(lineOf(stack, profiles, d - 1, t), 0), bytes);
+    }
+
+    // sampling
+
+    /** Start sampling (when the run starts) */
+    void start() {
+	startNanos = System.nanoTime();
+	sampling = true;
+	sampler = new Thread(this::takeSamples, "bantam-profiler");
+	sampler.setDaemon(true);
+	sampler.start();
+    }
+
+    /** Stop sampling (when the run ends) and take the calls of the
+      * dynamically dispatched sites from their inline caches; the counts
+      * may be read afterwards
+      * @param caches inline caches of all the call sites of the run
+      * */
+    void stop(List<InlineCache> caches) {
+	sampling = false;
+	sampler.interrupt();
+	try {
+	    sampler.join();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	}
+	elapsedNanos = System.nanoTime() - startNanos;
+	for (InlineCache cache : caches) {
+	    long calls = cache.getLookups();
+	    // (the sites of field initializers have no caller, see addSite)
+	    if (calls > 0 && cache.caller != null && cache.caller.profile != null) {
+		MethodProfile caller = cache.caller.profile;
+		caller.lineCalls = add(caller.lineCalls, cache.site.lineNum, calls);
+	    }
+	    cache.countCalls();
+	}
+    }
+
+    /** Take samples until stopped (the sampler thread) */
+    private void takeSamples() {
+	long last = startNanos;
+	while (sampling) {
+	    try {
+		Thread.sleep(INTERVAL_MILLIS);
+	    } catch (InterruptedException e) {
+		// stopped: the last sample covers the rest of the run
+	    }
+	    long now = System.nanoTime();
+	    sample(now - last);
+	    last = now;
+	}
+    }
+
+    /** Charge a period of time to the current stack
+      * @param nanos length of the period
+      * */
+    private void sample(long nanos) {
+	// top is read first (see top): the frames below its depth, the stack
+	// holding them and the profiles they name are then visible
+	long t = top;
+	long[] s = stack;
+	MethodProfile[] p = profiles;
+	int d = Math.min((int) t, s.length);
+	samples++;
+	if (d == 0) {
+	    return;
+	}
+	sampledNanos += nanos;
+	mark++;
+	StringBuilder key = new StringBuilder();
+	for (int i = 0; i < d; i++) {
+	    if (i == 1 && d > MAX_SAMPLE_DEPTH) {
+		key.append(ELIDED).append(';');
+		i = d - MAX_SAMPLE_DEPTH + 1;
+	    }
+	    MethodProfile profile = p[(int) s[i]];
+	    if (profile == null) {
+		continue;
+	    }
+	    key.append(profile.name).append(';');
+	    if (profile.mark != mark) {
+		profile.mark = mark;
+		profile.totalNanos += nanos;
+	    }
+	    int line = Math.max(lineOf(s, p, i, t), 0);
+	    if (line >= profile.lineMarks.length) {
+		profile.lineMarks = Arrays.copyOf(profile.lineMarks,
+						  Math.max(line + 1, 2 * profile.lineMarks.length));
+	    }
+	    if (profile.lineMarks[line] != mark) {
+		profile.lineMarks[line] = mark;
+		profile.lineTotal = add(profile.lineTotal, line, nanos);
+	    }
+	    if (i == d - 1) {
+		profile.selfNanos += nanos;
+		profile.lineSelf = add(profile.lineSelf, line, nanos);
+	    }
+	}
+	if (key.length() == 0) {
+	    return;
+	}
+	key.setLength(key.length() - 1);
+	String stackKey = key.toString();
+	long[] weight = stacks.get(stackKey);
+	if (weight == null) {
+	    stacks.put(stackKey, weight = new long[1]);
+	}
+	weight[0] += nanos;
+    }
+
+    // reports (after the run)
+
+    /** Describe the profile: the methods and then the lines, by self time
+      * @param maxLines maximum number of methods and of lines listed
+      * @return the report (several lines)
+      * */
+    String report(int maxLines) {
+	for (int i = 0; i < sites.size(); i++) {
+	    SourceNode site = sites.get(i);
+	    MethodProfile caller = siteCallers.get(i);
+	    caller.lineCalls = add(caller.lineCalls, site.lineNum, site.profiledCalls);
+	    site.profiledCalls = 0;
+	}
+	sites.clear();
+	siteCallers.clear();
+
+	StringBuilder report = new StringBuilder();
+	long allocated = unattributedBytes;
+	for (int i = 0; i < numProfiles; i++) {
+	    allocated += profiles[i].allocated;
+	}
+	report.append(String.format("Profile: %d sample(s) every %d ms, %.1f ms in methods " +
+				    "of %.1f ms run, %d bytes allocated%n",
+				    samples, INTERVAL_MILLIS, sampledNanos / 1e6,
+				    elapsedNanos / 1e6, allocated));
+	String columns = String.format("  %10s %6s %10s %6s %12s %12s  ",
+				       "self ms", "%", "total ms", "%", "calls", "alloc B");
+
+	ArrayList<MethodProfile> methods =
+	    new ArrayList<MethodProfile>(Arrays.asList(profiles).subList(0, numProfiles));
+	Collections.sort(methods, new Comparator<MethodProfile>() {
+		public int compare(MethodProfile p1, MethodProfile p2) {
+		    int c = Long.compare(p2.selfNanos, p1.selfNanos);
+		    return (c != 0) ? c : Long.compare(p2.calls, p1.calls);
+		}
+	    });
+	report.append("Methods by self time:\n");
+	report.append(columns).append("method\n");
+	for (int i = 0; i < methods.size() && i < maxLines; i++) {
+	    MethodProfile p = methods.get(i);
+	    report.append(row(p.selfNanos, p.totalNanos, p.calls, p.allocated,
+			      p.builtin ? p.name + " (built-in)"
+			      : p.name + " (" + p.filename + ":" + p.line + ")"));
+	}
+
+	ArrayList<long[]> lineRows = new ArrayList<long[]>();
+	for (int m = 0; m < numProfiles; m++) {
+	    MethodProfile p = profiles[m];
+	    if (p.builtin) {
+		continue;
+	    }
+	    for (int i = 0; i < p.numLines(); i++) {
+		long self = get(p.lineSelf, i), total = get(p.lineTotal, i);
+		long calls = get(p.lineCalls, i), bytes = get(p.lineAllocated, i);
+		if (self != 0 || total != 0 || calls != 0 || bytes != 0) {
+		    lineRows.add(new long[] { self, total, calls, bytes, m, i });
+		}
+	    }
+	}
+	Collections.sort(lineRows, new Comparator<long[]>() {
+		public int compare(long[] r1, long[] r2) {
+		    for (int k = 0; k < 4; k++) {
+			int c = Long.compare(r2[k], r1[k]);
+			if (c != 0) {
+			    return c;
+			}
+		    }
+		    return 0;
+		}
+	    });
+	report.append("Lines by self time:\n");
+	report.append(columns).append("line\n");
+	for (int i = 0; i < lineRows.size() && i < maxLines; i++) {
+	    long[] r = lineRows.get(i);
+	    MethodProfile p = profiles[(int) r[4]];
+	    report.append(row(r[0], r[1], r[2], r[3],
+			      p.filename + ":" + r[5] + " (" + p.name + ")"));
+	}
+	return report.toString();
+    }
+
+    /** Format a row of the report */
+    private String row(long self, long total, long calls, long bytes, String what) {
+	double percent = (sampledNanos > 0) ? 100.0 / sampledNanos : 0;
+	return String.format("  %10.1f %6.1f %10.1f %6.1f %12d %12d  %s%n",
+			     self / 1e6, self * percent, total / 1e6, total * percent,
+			     calls, bytes, what);
+    }
+
+    /** Write the sampled stacks in collapsed format, one stack per line
+      * with its time in microseconds (stacks of less than a microsecond
+      * are left out)
+      * @param out the stream to write to
+      * */
+    void writeCollapsedStacks(PrintStream out) {
+	ArrayList<String> keys = new ArrayList<String>(stacks.keySet());
+	Collections.sort(keys);
+	for (String key : keys) {
+	    long micros = stacks.get(key)[0] / 1000;
+	    if (micros > 0) {
+		out.println(key + " " + micros);
+	    }
+	}
+	out.flush();
+    }
+}
@@ -0,0 +1,20 @@
+package bantam.interp;
+
+/** The <tt>ProgramExit</tt> class unwinds the interpreter when the
+  * program calls <tt>Sys.exit()</tt>.
+  * */
+final class ProgramExit extends RuntimeException {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
+    /** Exit status passed to Sys.exit() */
+    final int status;
+
+    /** ProgramExit constructor
+      * @param status exit status
+      * */
+    ProgramExit(int status) {
+	super("exit " + status, null, false, false);
+	this.status = status;
+    }
+}
@@ -0,0 +1,83 @@
+package bantam.interp;
+
+/** The <tt>RuntimeArray</tt> class represents a Bantam array.  Arrays
+  * are Objects as far as dispatch is concerned; the element type is
+  * kept so that casts, instanceof, and array stores can be checked.
+  * Arrays of ints and booleans (0 or 1) keep their elements in an
+  * <tt>int[]</tt>, arrays of references in an <tt>Object[]</tt>.
+  * */
+final class RuntimeArray extends RuntimeValue {
+    /** Elements of an int or boolean array (null for reference arrays) */
+    final int[] ints;
+
+    /** Elements of a reference array (null for int and boolean arrays) */
+    final Object[] refs;
+
+    /** Name of the element type */
+    final String elementType;
+
+    /** Class of the elements (null if the elements are primitive) */
+    final RuntimeClass elementClass;
+
+    /** RuntimeArray constructor
+      * @param objectClass the Object class
+      * @param elementType name of the element type
+      * @param elementClass class of the elements (null if primitive)
+      * @param ints elements of an int or boolean array (null otherwise)
+      * @param refs elements of a reference array (null otherwise)
+      * */
+    RuntimeArray(RuntimeClass objectClass, String elementType,
+		 RuntimeClass elementClass, int[] ints, Object[] refs) {
+	super(objectClass);
+	this.elementType = elementType;
+	this.elementClass = elementClass;
+	this.ints = ints;
+	this.refs = refs;
+    }
+
+    /** Create an array with every element set to the default value
+      * @param heap heap of the run (the array is allocated here)
+      * @param objectClass the Object class
+      * @param elementType name of the element type
+      * @param elementClass class of the elements (null if primitive)
+      * @param size number of elements (non-negative)
+      * @return the array
+      * */
+    static RuntimeArray create(Heap heap, RuntimeClass objectClass, String elementType,
+			       RuntimeClass elementClass, int size) {
+	heap.reserve(Heap.arraySize(size));
+	if (RuntimeClass.isPrimitive(elementType)) {
+	    return heap.add(new RuntimeArray(objectClass, elementType, elementClass,
+					     new int[size], null));
+	}
+	return heap.add(new RuntimeArray(objectClass, elementType, elementClass,
+					 null, new Object[size]));
+    }
+
+    /** Get the number of elements
+      * @return the length of the array
+      * */
+    int length() {
+	return (ints != null) ? ints.length : refs.length;
+    }
+
+    /** Get the name of the dynamic type of this array
+      * @return type name
+      * */
+    String getTypeName() {
+	return elementType + "[]";
+    }
+
+    /** Check whether this array can be viewed as an array of the given
+      * element type (reference arrays are covariant)
+      * @param type name of the element type
+      * @param typeClass class of the element type (null if primitive)
+      * @return true if compatible
+      * */
+    boolean isArrayOf(String type, RuntimeClass typeClass) {
+	if (typeClass == null || elementClass == null) {
+	    return elementType.equals(type);
+	}
+	return elementClass.isSubclassOf(typeClass);
+    }
+}
@@ -0,0 +1,184 @@
+package bantam.interp;
+
+import bantam.ast.*;
+import bantam.util.ClassTreeNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/** The <tt>RuntimeClass</tt> class holds the run-time description of
+  * a Bantam class: its field layout, its (flattened) method table, the
+  * initializers of the fields it declares, and an ancestor display used
+  * for constant-time subtype checks.  All names are resolved to offsets
+  * and methods before the program starts running, so nothing here is
+  * consulted through a symbol table during execution.
+  * */
+final class RuntimeClass {
+    /** Name of the class */
+    final String name;
+
+    /** Parent class (null for Object) */
+    final RuntimeClass parent;
+
+    /** Class tree node of the class */
+    final ClassTreeNode treeNode;
+
+    /** Depth in the class hierarchy (0 for Object) */
+    final int depth;
+
+    /** Ancestor display: ancestors[d] is the ancestor at depth d
+      * (ancestors[depth] == this) */
+    final RuntimeClass[] ancestors;
+
+    /** Field offsets by name, including inherited fields.  Int and
+      * boolean fields are numbered separately from reference fields
+      * (see <tt>RuntimeObject</tt>).  A field that hides an inherited
+      * field of the same name gets a new offset. */
+    final HashMap<String, Integer> fieldOffsets;
+
+    /** Field types by name, including inherited fields */
+    final HashMap<String, String> fieldTypes;
+
+    /** Number of int and boolean fields (including inherited fields) */
+    final int numIntFields;
+
+    /** Number of reference fields (including inherited fields) */
+    final int numRefFields;
+
+    /** Methods by name, including inherited methods */
+    final HashMap<String, RuntimeMethod> methods;
+
+    /** Fields declared (and initialized) by this class */
+    final ArrayList<Field> declaredFields = new ArrayList<Field>();
+
+    /** Stores of the initial values of the fields declared by this class,
+      * in declaration order */
+    ExprNode[] initExprs = new ExprNode[0];
+
+    /** Bytecode of the initializers of the fields declared by this class
+      * when running on the VM (null if there are none) */
+    CodeBlock initCode;
+
+    /** Heap of the run (instances are allocated here) */
+    private final Heap heap;
+
+    /** RuntimeClass constructor
+      * @param treeNode class tree node of the class
+      * @param parent parent class (null for Object)
+      * @param builtins the built-in method implementations
+      * */
+    RuntimeClass(ClassTreeNode treeNode, RuntimeClass parent, Builtins builtins) {
+	this.name = treeNode.getName();
+	this.parent = parent;
+	this.treeNode = treeNode;
+	this.depth = (parent == null) ? 0 : parent.depth + 1;
+	this.heap = builtins.heap;
+	this.ancestors = new RuntimeClass[depth + 1];
+	if (parent != null) {
+	    System.arraycopy(parent.ancestors, 0, ancestors, 0, depth);
+	}
+	ancestors[depth] = this;
+
+	int ints = 0, refs = 0;
+	if (parent != null) {
+	    fieldOffsets = new HashMap<String, Integer>(parent.fieldOffsets);
+	    fieldTypes = new HashMap<String, String>(parent.fieldTypes);
+	    methods = new HashMap<String, RuntimeMethod>(parent.methods);
+	    ints = parent.numIntFields;
+	    refs = parent.numRefFields;
+	}
+	else {
+	    fieldOffsets = new HashMap<String, Integer>();
+	    fieldTypes = new HashMap<String, String>();
+	    methods = new HashMap<String, RuntimeMethod>();
+	}
+
+	for (ASTNode member : treeNode.getASTNode().getMemberList()) {
+	    if (member instanceof Field) {
+		Field field = (Field) member;
+		fieldOffsets.put(field.getName(), isPrimitive(field.getType()) ? ints++ : refs++);
+		fieldTypes.put(field.getName(), field.getType());
+		declaredFields.add(field);
+	    }
+	    else {
+		Method method = (Method) member;
+		methods.put(method.getName(), new RuntimeMethod(this, method, builtins));
+	    }
+	}
+
+	numIntFields = ints;
+	numRefFields = refs;
+    }
+
+    /** Check whether values of a type are stored as ints (int and boolean)
+      * @param type type name
+      * @return true for int and boolean, false for reference types
+      * */
+    static boolean isPrimitive(String type) {
+	return type.equals("int") || type.equals("boolean");
+    }
+
+    /** Allocate an instance with every field set to its default value
+      * (0, false, or null); the field initializers are not run
+      * @return the new object
+      * */
+    RuntimeObject newInstance() {
+	heap.reserve(Heap.objectSize(numIntFields + numRefFields));
+	return heap.add(new RuntimeObject(this, new int[numIntFields], new Object[numRefFields]));
+    }
+
+    /** Check whether this class is the given class or one of its subclasses
+      * @param other possible ancestor
+      * @return true if this class is a subclass of other
+      * */
+    boolean isSubclassOf(RuntimeClass other) {
+	return depth >= other.depth && ancestors[other.depth] == other;
+    }
+
+    /** Look up a method by name
+      * @param methodName name of the method
+      * @return the method (null if not found)
+      * */
+    RuntimeMethod lookupMethod(String methodName) {
+	return methods.get(methodName);
+    }
+
+    /** Get the type of a field (inherited or declared)
+      * @param fieldName name of the field
+      * @return type name
+      * */
+    String getFieldType(String fieldName) {
+	return fieldTypes.get(fieldName);
+    }
+
+    /** Get the offset of a field (inherited or declared)
+      * @param fieldName name of the field
+      * @return field offset
+      * */
+    int getFieldOffset(String fieldName) {
+	Integer offset = fieldOffsets.get(fieldName);
+	if (offset == null) {
+	    throw new RuntimeException("Internal error: no field " + fieldName +
+				       " in class " + name);
+	}
+	return offset;
+    }
+
+    /** Run the field initializers of this class and its ancestors on a
+      * newly allocated object (ancestors first)
+      * @param object the new object
+      * */
+    void initialize(RuntimeObject object) {
+	if (parent != null) {
+	    parent.initialize(object);
+	}
+	if (initExprs.length > 0) {
+	    Frame frame = new Frame(object, 0, 1);
+	    heap.pushFrame(frame.refs);
+	    for (int i = 0; i < initExprs.length; i++) {
+		initExprs[i].executeVoid(frame);
+	    }
+	    heap.popFrame();
+	}
+    }
+}
@@ -0,0 +1,21 @@
+package bantam.interp;
+
+/** The <tt>RuntimeError</tt> class reports a Bantam run-time error
+  * (e.g., a null pointer dereference or an out of bounds array index).
+  * The message is formatted like the errors reported by the runtime
+  * system of the compiled code: "file:line:runtime error: ...".
+  * */
+final class RuntimeError extends RuntimeException {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
+    /** RuntimeError constructor
+      * @param filename name of the source file of the failing expression
+      * @param lineNum line number of the failing expression
+      * @param message error message (including trailing newline)
+      * */
+    RuntimeError(String filename, int lineNum, String message) {
+	// run-time errors are expected control flow, so skip the stack trace
+	super(filename + ":" + lineNum + ":runtime error: " + message, null, false, false);
+    }
+}
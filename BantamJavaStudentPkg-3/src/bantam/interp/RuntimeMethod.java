@@ -0,0 +1,128 @@
+package bantam.interp;
+
+import bantam.ast.ASTNode;
+import bantam.ast.Formal;
+import bantam.ast.Method;
+
+/** The <tt>RuntimeMethod</tt> class holds an executable method: either
+  * the node tree built from a user-defined method body, or a built-in
+  * method implemented by <tt>Builtins</tt>.
+  * */
+final class RuntimeMethod {
+    /** Class that declares the method */
+    final RuntimeClass owner;
+
+    /** AST node of the method */
+    final Method astNode;
+
+    /** Name of the method */
+    final String name;
+
+    /** Number of parameters */
+    final int numParams;
+
+    /** Built-in method id (see <tt>Builtins</tt>), -1 for user-defined methods */
+    final int builtin;
+
+    /** Built-in method implementations */
+    final Builtins builtins;
+
+    /** Heap of the run (frames are pushed here as roots) */
+    final Heap heap;
+
+    /** Profiler of the run (null when not profiling) */
+    final Profiler profiler;
+
+    /** Profile of the method (created by the profiler on the first call) */
+    Profiler.MethodProfile profile;
+
+    /** Number of int frame slots (int and boolean parameters and locals) */
+    int numIntSlots;
+
+    /** Number of reference frame slots ('this', reference parameters and locals) */
+    int numRefSlots;
+
+    /** Executable body (null for built-in methods) */
+    StmtNode body;
+
+    /** Bytecode of the body when running on the VM (null for built-in methods) */
+    CodeBlock code;
+
+    /** Frames of finished activations, reused by later calls */
+    private Frame[] freeFrames = new Frame[4];
+
+    /** Number of valid entries of freeFrames */
+    private int numFreeFrames;
+
+    /** RuntimeMethod constructor
+      * @param owner class that declares the method
+      * @param astNode AST node of the method
+      * @param builtins the built-in method implementations
+      * */
+    RuntimeMethod(RuntimeClass owner, Method astNode, Builtins builtins) {
+	this.owner = owner;
+	this.astNode = astNode;
+	this.name = astNode.getName();
+	this.numParams = astNode.getFormalList().getSize();
+	this.builtins = builtins;
+	this.heap = builtins.heap;
+	this.profiler = builtins.profiler;
+	this.builtin = owner.treeNode.isBuiltIn() ?
+	    Builtins.getId(owner.name, name) : -1;
+	this.numRefSlots = 1;
+	for (ASTNode formal : astNode.getFormalList()) {
+	    if (RuntimeClass.isPrimitive(((Formal) formal).getType())) {
+		numIntSlots++;
+	    }
+	    else {
+		numRefSlots++;
+	    }
+	}
+    }
+
+    /** Get a frame for a call (a recycled one if available)
+      * @param self receiver of the call
+      * @return the frame, with 'this' set
+      * */
+    Frame newFrame(RuntimeValue self) {
+	if (numFreeFrames > 0) {
+	    Frame frame = freeFrames[--numFreeFrames];
+	    frame.reset(self);
+	    return frame;
+	}
+	return new Frame(self, numIntSlots, numRefSlots);
+    }
+
+    /** Recycle the frame of a call that has returned (and whose result
+      * has been read)
+      * @param frame the frame (obtained from newFrame)
+      * */
+    void freeFrame(Frame frame) {
+	if (numFreeFrames == freeFrames.length) {
+	    Frame[] bigger = new Frame[freeFrames.length * 2];
+	    System.arraycopy(freeFrames, 0, bigger, 0, numFreeFrames);
+	    freeFrames = bigger;
+	}
+	freeFrames[numFreeFrames++] = frame;
+    }
+
+    /** Invoke the method (the result is left in frame.intResult or frame.refResult)
+      * @param frame frame of the callee (receiver and arguments already set)
+      * @param site the call expression (used to report errors in built-ins)
+      * */
+    void invoke(Frame frame, SourceNode site) {
+	if (profiler != null) {
+	    profiler.enter(this, site);
+	}
+	if (builtin >= 0) {
+	    frame.refResult = builtins.invoke(builtin, frame, site);
+	}
+	else {
+	    builtins.budget.step();
+	    body.execute(frame);
+	}
+	if (profiler != null) {
+	    profiler.exit();
+	}
+    }
+}
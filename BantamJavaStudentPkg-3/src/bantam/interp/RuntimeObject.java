@@ -0,0 +1,27 @@
+package bantam.interp;
+
+/** The <tt>RuntimeObject</tt> class represents an instance of a Bantam
+  * class (other than String).  Fields are stored in two flat arrays, one
+  * for int and boolean fields (booleans as 0 or 1) and one for reference
+  * fields, indexed by the offsets computed in <tt>RuntimeClass</tt>
+  * (inherited fields first, mirroring the object layout used by the code
+  * generators), so primitive fields are never boxed.
+  * */
+final class RuntimeObject extends RuntimeValue {
+    /** Values of the int and boolean fields indexed by field offset */
+    final int[] ints;
+
+    /** Values of the reference fields indexed by field offset */
+    final Object[] refs;
+
+    /** RuntimeObject constructor
+      * @param cls class of the object
+      * @param ints int and boolean field values (ownership is transferred to the object)
+      * @param refs reference field values (ownership is transferred to the object)
+      * */
+    RuntimeObject(RuntimeClass cls, int[] ints, Object[] refs) {
+	super(cls);
+	this.ints = ints;
+	this.refs = refs;
+    }
+}
@@ -0,0 +1,20 @@
+package bantam.interp;
+
+/** The <tt>RuntimeString</tt> class represents a Bantam String object.
+  * Strings are immutable so the character sequence is simply a Java
+  * string; identity (==) is that of the wrapper, so string constants
+  * are shared while clone() and concat() produce new objects.
+  * */
+final class RuntimeString extends RuntimeValue {
+    /** Character sequence */
+    final String value;
+
+    /** RuntimeString constructor
+      * @param cls the String class
+      * @param value character sequence
+      * */
+    RuntimeString(RuntimeClass cls, String value) {
+	super(cls);
+	this.value = value;
+    }
+}
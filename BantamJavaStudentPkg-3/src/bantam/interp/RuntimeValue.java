@@ -0,0 +1,29 @@
+package bantam.interp;
+
+/** The <tt>RuntimeValue</tt> class is the base class of every reference
+  * value manipulated by the interpreter (objects, strings, and arrays).
+  * Each value records its dynamic class, which is all that dispatch,
+  * casts, and instanceof checks need to look at.
+  * */
+abstract class RuntimeValue {
+    /** Dynamic class of this value */
+    final RuntimeClass cls;
+
+    /** Number of the last garbage collection that evacuated this value
+      * (-1 for constants, which are not in the heap; see <tt>Heap</tt>) */
+    int gcEpoch;
+
+    /** RuntimeValue constructor
+      * @param cls dynamic class of the value
+      * */
+    RuntimeValue(RuntimeClass cls) {
+	this.cls = cls;
+    }
+
+    /** Get the name of the dynamic type of this value (used in error messages)
+      * @return type name
+      * */
+    String getTypeName() {
+	return cls.name;
+    }
+}
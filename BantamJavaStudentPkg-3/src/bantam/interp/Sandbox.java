@@ -0,0 +1,363 @@
+package bantam.interp;
+
+import bantam.ast.Program;
+import bantam.lexer.Lexer;
+import bantam.parser.Parser;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.ClassTreeNode;
+import bantam.util.ErrorHandler;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/** The <tt>Sandbox</tt> class runs many Bantam Java programs concurrently
+  * on a fixed pool of worker threads.  Each program is compiled (lexed,
+  * parsed, and checked) and interpreted on its own worker by its own
+  * front end and <tt>Interpreter</tt>, with its own instruction budget
+  * and timeout (see <tt>Budget</tt>), its own heap (see <tt>Heap</tt>),
+  * its own copy of the standard input, and its output captured in
+  * memory up to a limit, so runs share no mutable state and a runaway
+  * program only stops itself.  Programs may not open files, so a batch
+  * of untrusted programs can neither read nor overwrite the files of the
+  * host, and a program that recurses too deeply is stopped like one that
+  * exceeds its budget.
+  * */
+public class Sandbox {
+    /** Number of worker threads */
+    private final int numThreads;
+
+    /** Execution engine (Interpreter.ENGINE_AST, ENGINE_VM, or ENGINE_VM_INTERPRETED) */
+    private final int engine;
+
+    /** Limits of each run (0 disables a limit) */
+    private long maxSteps, timeoutMillis;
+
+    /** Maximum number of bytes captured of the standard output (and of
+      * the standard error) of each run, by default */
+    private static final long DEFAULT_MAX_OUTPUT = 1 << 20;
+
+    /** Maximum number of bytes captured of each output stream of a run (0 for no limit) */
+    private long maxOutput = DEFAULT_MAX_OUTPUT;
+
+    /** Heap size of each run (0 for no limit) */
+    private long heapSize;
+
+    /** Whether the heap of each run is garbage collected */
+    private boolean collect;
+
+    /** JIT thresholds (null for the defaults) */
+    private int[] jitThresholds;
+
+    /** Standard input given to every program */
+    private byte[] input = new byte[0];
+
+    /** Sandbox constructor
+      * @param numThreads number of worker threads
+      * @param engine execution engine (Interpreter.ENGINE_AST, ENGINE_VM,
+      *        or ENGINE_VM_INTERPRETED)
+      * */
+    public Sandbox(int numThreads, int engine) {
+	this.numThreads = numThreads;
+	this.engine = engine;
+    }
+
+    /** Set the limits of each run (0 disables a limit)
+      * @param maxSteps instruction budget (method calls and loop iterations)
+      * @param timeoutMillis wall-clock timeout in milliseconds
+      * */
+    public void setLimits(long maxSteps, long timeoutMillis) {
+	this.maxSteps = maxSteps;
+	this.timeoutMillis = timeoutMillis;
+    }
+
+    /** Set the maximum number of bytes captured of the standard output,
+      * and of the standard error, of each run; a program that prints more
+      * is stopped as if it exceeded its budget
+      * @param maxOutput maximum number of bytes (0 for no limit)
+      * */
+    public void setMaxOutput(long maxOutput) {
+	this.maxOutput = maxOutput;
+    }
+
+    /** Configure the heap of each run (see <tt>Interpreter.setHeap</tt>)
+      * @param heapSize heap size in bytes (0 for no limit, or the default
+      *        size with garbage collection)
+      * @param collect boolean indicating whether to collect garbage
+      * */
+    public void setHeap(long heapSize, boolean collect) {
+	this.heapSize = heapSize;
+	this.collect = collect;
+    }
+
+    /** Set the thresholds at which the JIT (ENGINE_VM) compiles a code block
+      * @param callThreshold number of entries into the block
+      * @param backEdgeThreshold number of backward branches taken in the block
+      * */
+    public void setJitThresholds(int callThreshold, int backEdgeThreshold) {
+	this.jitThresholds = new int[] { callThreshold, backEdgeThreshold };
+    }
+
+    /** Set the standard input given to every program
+      * @param input contents of the standard input
+      * */
+    public void setInput(byte[] input) {
+	this.input = input;
+    }
+
+    /** Run programs concurrently
+      * @param programs source files of each program
+      * @return the results, in the order of the programs
+      * */
+    public List<Result> run(List<String[]> programs) {
+	ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+	try {
+	    List<Future<Result>> futures = new ArrayList<Future<Result>>();
+	    for (final String[] files : programs) {
+		futures.add(pool.submit(() -> run(files)));
+	    }
+	    List<Result> results = new ArrayList<Result>();
+	    for (int i = 0; i < futures.size(); i++) {
+		try {
+		    results.add(futures.get(i).get());
+		} catch (ExecutionException e) {
+		    // the run failed inside the toolset (a bug)
+		    results.add(new Result(programs.get(i), Result.INTERNAL_ERROR, 1, "",
+					   e.getCause() + "\n", 0, 0, 0, 0, 0));
+		} catch (InterruptedException e) {
+		    Thread.currentThread().interrupt();
+		    throw new RuntimeException("Internal error: sandbox interrupted", e);
+		}
+	    }
+	    return results;
+	} finally {
+	    pool.shutdownNow();
+	}
+    }
+
+    /** Compile and interpret one program (on a worker thread)
+      * @param files source files of the program
+      * @return the result of the run
+      * */
+    private Result run(String[] files) {
+	long start = System.nanoTime();
+	ByteArrayOutputStream out = new BoundedOutputStream(maxOutput, "standard output");
+	ByteArrayOutputStream err = new BoundedOutputStream(maxOutput, "standard error");
+	PrintStream outStream = new PrintStream(out, false);
+	PrintStream errStream = new PrintStream(err, false);
+
+	ClassTreeNode classTree = compile(files, outStream, errStream);
+	if (classTree == null) {
+	    outStream.flush();
+	    errStream.flush();
+	    return new Result(files, Result.COMPILE_ERROR, 1, out.toString(), err.toString(),
+			      0, 0, 0, 0, System.nanoTime() - start);
+	}
+
+	Interpreter interpreter = new Interpreter(classTree, false, engine,
+						  new ByteArrayInputStream(input),
+						  outStream, errStream);
+	if (jitThresholds != null) {
+	    interpreter.setJitThresholds(jitThresholds[0], jitThresholds[1]);
+	}
+	interpreter.setLimits(maxSteps, timeoutMillis);
+	interpreter.setHeap(heapSize, collect);
+	interpreter.setFileAccess(false);
+	int status = interpreter.interpret();
+	outStream.flush();
+	errStream.flush();
+	return new Result(files, interpreter.exceededLimit() ? Result.LIMIT_EXCEEDED : Result.EXITED,
+			  status, out.toString(), err.toString(), interpreter.getSteps(),
+			  interpreter.getAllocatedBytes(), interpreter.getCollections(),
+			  interpreter.getCollectionMillis(), System.nanoTime() - start);
+    }
+
+    /** Run the front end on a program, reporting errors like bantam.Main
+      * (but on the given streams)
+      * @param files source files of the program
+      * @param out standard output of the run
+      * @param err standard error of the run
+      * @return the checked class hierarchy (null if there were errors)
+      * */
+    private static ClassTreeNode compile(String[] files, PrintStream out, PrintStream err) {
+	// the lexer exits the JVM on a missing file, so check for them first
+	for (String file : files) {
+	    if (!new File(file).isFile()) {
+		err.println("Error: file '" + file + "' not found");
+		return null;
+	    }
+	}
+	Parser parser = new Parser(new Lexer(files, false));
+	Program program;
+	try {
+	    program = (Program) parser.parse().value;
+	} catch (Exception e) {
+	    reportErrors(e, parser.getErrorHandler(), out, err);
+	    return null;
+	}
+	SemanticAnalyzer semanticAnalyzer = new SemanticAnalyzer(program, false);
+	try {
+	    return semanticAnalyzer.analyze();
+	} catch (Exception e) {
+	    reportErrors(e, semanticAnalyzer.getErrorHandler(), out, err);
+	    return null;
+	}
+    }
+
+    /** Report compilation errors */
+    private static void reportErrors(Exception e, ErrorHandler errorHandler,
+				     PrintStream out, PrintStream err) {
+	out.println(e.getMessage());
+	for (ErrorHandler.Error error : errorHandler.getErrorList()) {
+	    err.println(error.toString() + "\n");
+	}
+    }
+
+    /** The <tt>BoundedOutputStream</tt> class captures an output stream
+      * of a run in memory and stops the run (with LimitExceeded) once the
+      * program has written more than a maximum number of bytes.  The
+      * bytes written after that (the interpreter's report of the limit)
+      * are still kept.
+      * */
+    private static final class BoundedOutputStream extends ByteArrayOutputStream {
+	/** Maximum number of bytes (0 for no limit) */
+	private final long maxBytes;
+
+	/** Name of the stream, for the error message */
+	private final String name;
+
+	/** Whether the limit has been exceeded */
+	private boolean exceeded;
+
+	/** BoundedOutputStream constructor
+	  * @param maxBytes maximum number of bytes (0 for no limit)
+	  * @param name name of the stream
+	  * */
+	BoundedOutputStream(long maxBytes, String name) {
+	    this.maxBytes = maxBytes;
+	    this.name = name;
+	}
+
+	@Override
+	public synchronized void write(int b) {
+	    write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public synchronized void write(byte[] b, int off, int len) {
+	    if (maxBytes == 0 || exceeded || count + len <= maxBytes) {
+		super.write(b, off, len);
+		return;
+	    }
+	    super.write(b, off, (int) (maxBytes - count));
+	    exceeded = true;
+	    throw new LimitExceeded(name + " limit of " + maxBytes + " bytes exceeded\n");
+	}
+    }
+
+    /** The <tt>Result</tt> class holds the outcome of one run */
+    public static final class Result {
+	/** The program ran to completion (normally, by Sys.exit(), or
+	    after a run-time error) */
+	public static final int EXITED = 0;
+
+	/** The program was stopped by one of its limits */
+	public static final int LIMIT_EXCEEDED = 1;
+
+	/** The program did not compile */
+	public static final int COMPILE_ERROR = 2;
+
+	/** The toolset failed while running the program */
+	public static final int INTERNAL_ERROR = 3;
+
+	/** Descriptions of the outcomes, indexed by outcome */
+	private static final String[] OUTCOMES = {
+	    "exited", "limit exceeded", "compile error", "internal error"
+	};
+
+	private final String[] files;
+	private final int outcome;
+	private final int status;
+	private final String output;
+	private final String errors;
+	private final long steps;
+	private final long allocatedBytes;
+	private final int collections;
+	private final double collectionMillis;
+	private final long nanos;
+
+	Result(String[] files, int outcome, int status, String output, String errors,
+	       long steps, long allocatedBytes, int collections, double collectionMillis,
+	       long nanos) {
+	    this.files = files;
+	    this.outcome = outcome;
+	    this.status = status;
+	    this.output = output;
+	    this.errors = errors;
+	    this.steps = steps;
+	    this.allocatedBytes = allocatedBytes;
+	    this.collections = collections;
+	    this.collectionMillis = collectionMillis;
+	    this.nanos = nanos;
+	}
+
+	/** Get the source files of the program */
+	public String[] getFiles() {
+	    return files;
+	}
+
+	/** Get the outcome (EXITED, LIMIT_EXCEEDED, COMPILE_ERROR, or INTERNAL_ERROR) */
+	public int getOutcome() {
+	    return outcome;
+	}
+
+	/** Get a description of the outcome */
+	public String getOutcomeString() {
+	    return OUTCOMES[outcome];
+	}
+
+	/** Get the exit status */
+	public int getStatus() {
+	    return status;
+	}
+
+	/** Get the standard output of the run */
+	public String getOutput() {
+	    return output;
+	}
+
+	/** Get the standard error of the run */
+	public String getErrors() {
+	    return errors;
+	}
+
+	/** Get the number of steps executed */
+	public long getSteps() {
+	    return steps;
+	}
+
+	/** Get the number of bytes allocated by the program */
+	public long getAllocatedBytes() {
+	    return allocatedBytes;
+	}
+
+	/** Get the number of garbage collections */
+	public int getCollections() {
+	    return collections;
+	}
+
+	/** Get the total pause time of the garbage collections in milliseconds */
+	public double getCollectionMillis() {
+	    return collectionMillis;
+	}
+
+	/** Get the wall-clock time of the run (compilation included) in milliseconds */
+	public long getMillis() {
+	    return nanos / 1000000;
+	}
+    }
+}
@@ -0,0 +1,34 @@
+package bantam.interp;
+
+/** The <tt>SourceNode</tt> class is the base class of anything that
+  * executes on behalf of a position in the source program (the nodes
+  * of the tree-walking interpreter and the instructions of the bytecode
+  * VM that can fail).  It knows how to build run-time errors that point
+  * at that position.
+  * */
+class SourceNode {
+    /** Name of the source file */
+    String filename;
+
+    /** Line number in the source file */
+    int lineNum;
+
+    /** Number of calls made from this position (counted by the profiler
+      * for call sites without an inline cache, see Profiler.enter) */
+    long profiledCalls;
+
+    /** Get the inline cache of a dynamically dispatched call site
+      * @return the cache (null if this is not such a site)
+      * */
+    InlineCache getCache() {
+	return null;
+    }
+
+    /** Create a run-time error at this position
+      * @param message error message (including trailing newline)
+      * @return the error (to be thrown by the caller)
+      * */
+    final RuntimeError error(String message) {
+	return new RuntimeError(filename, lineNum, message);
+    }
+}
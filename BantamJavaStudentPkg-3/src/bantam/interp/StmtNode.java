@@ -0,0 +1,231 @@
+package bantam.interp;
+
+/** The <tt>StmtNode</tt> class is the base class of the executable
+  * statement nodes built by <tt>NodeBuilder</tt>.  Executing a statement
+  * returns a completion code instead of throwing exceptions for break
+  * and return, which keeps loops and calls cheap.
+  * */
+abstract class StmtNode {
+    /** Completion code: statement completed normally */
+    static final int NORMAL = 0;
+
+    /** Completion code: a break statement was executed */
+    static final int BREAK = 1;
+
+    /** Completion code: a return statement was executed (value in frame.intResult
+      * or frame.refResult) */
+    static final int RETURN = 2;
+
+    /** Line number of the statement */
+    int lineNum;
+
+    /** Execute the statement
+      * @param frame frame of the executing method
+      * @return completion code (NORMAL, BREAK, or RETURN)
+      * */
+    abstract int execute(Frame frame);
+
+    /** Declaration of an int or boolean local variable (the initializer
+      * is stored in the slot) */
+    static final class IntDecl extends StmtNode {
+	final int slot;
+	final ExprNode init;
+
+	IntDecl(int slot, ExprNode init) {
+	    this.slot = slot;
+	    this.init = init;
+	}
+
+	int execute(Frame frame) {
+	    frame.ints[slot] = init.executeInt(frame);
+	    return NORMAL;
+	}
+    }
+
+    /** Declaration of a reference local variable (the initializer is
+      * stored in the slot) */
+    static final class RefDecl extends StmtNode {
+	final int slot;
+	final ExprNode init;
+
+	RefDecl(int slot, ExprNode init) {
+	    this.slot = slot;
+	    this.init = init;
+	}
+
+	int execute(Frame frame) {
+	    frame.refs[slot] = init.execute(frame);
+	    return NORMAL;
+	}
+    }
+
+    /** Expression statement */
+    static final class Expr extends StmtNode {
+	final ExprNode expr;
+
+	Expr(ExprNode expr) {
+	    this.expr = expr;
+	}
+
+	int execute(Frame frame) {
+	    expr.executeVoid(frame);
+	    return NORMAL;
+	}
+    }
+
+    /** Statement block */
+    static final class Block extends StmtNode {
+	final StmtNode[] stmts;
+
+	Block(StmtNode[] stmts) {
+	    this.stmts = stmts;
+	}
+
+	int execute(Frame frame) {
+	    for (int i = 0; i < stmts.length; i++) {
+		int completion = stmts[i].execute(frame);
+		if (completion != NORMAL) {
+		    return completion;
+		}
+	    }
+	    return NORMAL;
+	}
+    }
+
+    /** If statement (elseStmt may be null) */
+    static final class If extends StmtNode {
+	final ExprNode pred;
+	final StmtNode thenStmt;
+	final StmtNode elseStmt;
+
+	If(ExprNode pred, StmtNode thenStmt, StmtNode elseStmt) {
+	    this.pred = pred;
+	    this.thenStmt = thenStmt;
+	    this.elseStmt = elseStmt;
+	}
+
+	int execute(Frame frame) {
+	    if (pred.executeBoolean(frame)) {
+		return thenStmt.execute(frame);
+	    }
+	    else if (elseStmt != null) {
+		return elseStmt.execute(frame);
+	    }
+	    return NORMAL;
+	}
+    }
+
+    /** While loop (each iteration is a step of the run's budget and, when
+      * profiling, puts the profiled frame at the loop's line) */
+    static final class While extends StmtNode {
+	final ExprNode pred;
+	final StmtNode body;
+	final Budget budget;
+	final Profiler profiler;
+
+	While(ExprNode pred, StmtNode body, Budget budget, Profiler profiler) {
+	    this.pred = pred;
+	    this.body = body;
+	    this.budget = budget;
+	    this.profiler = profiler;
+	}
+
+	int execute(Frame frame) {
+	    while (pred.executeBoolean(frame)) {
+		budget.step();
+		if (profiler != null) {
+		    profiler.at(lineNum);
+		}
+		int completion = body.execute(frame);
+		if (completion != NORMAL) {
+		    if (completion == BREAK) {
+			break;
+		    }
+		    return completion;
+		}
+	    }
+	    return NORMAL;
+	}
+    }
+
+    /** For loop (init, pred, and update may be null; each iteration is a
+      * step of the run's budget, as for While) */
+    static final class For extends StmtNode {
+	final ExprNode init;
+	final ExprNode pred;
+	final ExprNode update;
+	final StmtNode body;
+	final Budget budget;
+	final Profiler profiler;
+
+	For(ExprNode init, ExprNode pred, ExprNode update, StmtNode body, Budget budget,
+	    Profiler profiler) {
+	    this.init = init;
+	    this.pred = pred;
+	    this.update = update;
+	    this.body = body;
+	    this.budget = budget;
+	    this.profiler = profiler;
+	}
+
+	int execute(Frame frame) {
+	    if (init != null) {
+		init.executeVoid(frame);
+	    }
+	    while (pred == null || pred.executeBoolean(frame)) {
+		budget.step();
+		if (profiler != null) {
+		    profiler.at(lineNum);
+		}
+		int completion = body.execute(frame);
+		if (completion != NORMAL) {
+		    if (completion == BREAK) {
+			break;
+		    }
+		    return completion;
+		}
+		if (update != null) {
+		    update.executeVoid(frame);
+		}
+	    }
+	    return NORMAL;
+	}
+    }
+
+    /** Break statement */
+    static final class Break extends StmtNode {
+	int execute(Frame frame) {
+	    return BREAK;
+	}
+    }
+
+    /** Return statement (expr is null in void methods) */
+    static final class Return extends StmtNode {
+	final ExprNode expr;
+
+	Return(ExprNode expr) {
+	    this.expr = expr;
+	}
+
+	int execute(Frame frame) {
+	    if (expr != null) {
+		frame.refResult = expr.execute(frame);
+	    }
+	    return RETURN;
+	}
+    }
+
+    /** Return statement of a method returning an int or boolean */
+    static final class IntReturn extends StmtNode {
+	final ExprNode expr;
+
+	IntReturn(ExprNode expr) {
+	    this.expr = expr;
+	}
+
+	int execute(Frame frame) {
+	    frame.intResult = expr.executeInt(frame);
+	    return RETURN;
+	}
+    }
+}
@@ -0,0 +1,862 @@
+package bantam.interp;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/** The <tt>VM</tt> class executes the register bytecode produced by
+  * <tt>BytecodeCompiler</tt>.  Each activation gets an <tt>int[]</tt>
+  * register file for ints and booleans and an <tt>Object[]</tt> register
+  * file for references, and the body runs in a single switch-dispatched
+  * loop.  Objects and arrays also keep ints and booleans in <tt>int[]</tt>
+  * storage, so int and boolean values are never boxed.
+  *
+  * The code quickens as it runs (see <tt>Bytecode</tt>): the first
+  * execution of a virtual call rewrites it to a direct call of the method
+  * of its receiver class, guarded by a class check (a second class sends
+  * it back to the inline cache for good), and the first allocation of a
+  * class without field initializers rewrites it to a bare allocation.
+  * With profiling, the dispatches of each opcode and of each pair of
+  * consecutive opcodes are counted to find candidate superinstructions.
+  *
+  * Objects, strings, arrays, run-time errors, and built-in methods are
+  * shared with the tree-walking interpreter, so both engines behave
+  * identically.
+  *
+  * With a <tt>JitCompiler</tt> (the default, see
+  * <tt>Interpreter.ENGINE_VM</tt>), every code block is entered through
+  * it, so that hot blocks are compiled to JVM bytecode; the compiled code
+  * calls back into the VM for run-time operations and for calls to
+  * methods that are not compiled yet.  The interpreter loop here is the
+  * first tier: it runs cold code and warms up the blocks, while the
+  * speedup over the tree-walking engine comes from the compiled code
+  * (see EngineBenchmarkTest).
+  * */
+final class VM {
+    /** Built-in method implementations */
+    private final Builtins builtins;
+
+    /** Limits of the run (calls and backward branches count steps) */
+    private final Budget budget;
+
+    /** Heap of the run (register files are pushed here as roots) */
+    private final Heap heap;
+
+    /** Profiler of the run (null when not profiling) */
+    private final Profiler profiler;
+
+    /** The Object class (the class of arrays) */
+    private final RuntimeClass objectClass;
+
+    /** Reference value returned by the last RETR (int values are returned directly) */
+    Object refResult;
+
+    /** Method found by the last compiledTarget that returned null */
+    private RuntimeMethod resolved;
+
+    /** JIT compiler for hot code blocks (null to only interpret) */
+    private final JitCompiler jit;
+
+    /** Number of backward branches of a block after which its loops leave
+      * the interpreter for compiled code (never without a JIT) */
+    private final int osrThreshold;
+
+    /** Loop header at which the activation leaving the interpreter
+      * continues (see branch) */
+    private int osrTarget;
+
+    /** Dispatch profile: executions of each opcode and of each pair of
+      * consecutive opcodes (index first * NUM_OPCODES + second) within a
+      * block, or null when not profiling */
+    private final long[] opcodeCounts, pairCounts;
+
+    /** VM constructor
+      * @param builtins built-in method implementations
+      * @param objectClass the Object class
+      * @param jit JIT compiler for hot code blocks (null to only interpret)
+      * @param profile boolean indicating whether to count the dispatches
+      *        (see <tt>reportDispatches</tt>)
+      * */
+    VM(Builtins builtins, RuntimeClass objectClass, JitCompiler jit, boolean profile) {
+	this.builtins = builtins;
+	this.budget = builtins.budget;
+	this.heap = builtins.heap;
+	this.profiler = builtins.profiler;
+	this.objectClass = objectClass;
+	this.jit = jit;
+	this.osrThreshold = (jit != null) ? jit.getBackEdgeThreshold() : Integer.MAX_VALUE;
+	this.opcodeCounts = profile ? new long[Bytecode.NUM_OPCODES] : null;
+	this.pairCounts = profile ? new long[Bytecode.NUM_OPCODES * Bytecode.NUM_OPCODES] : null;
+    }
+
+    /** Allocate and initialize an object
+      * @param cls class of the object (not String)
+      * @return the new object
+      * */
+    RuntimeObject newObject(RuntimeClass cls) {
+	RuntimeObject object = cls.newInstance();
+	initialize(cls, object);
+	return object;
+    }
+
+    /** Run the field initializers of a class and its ancestors (ancestors first) */
+    private void initialize(RuntimeClass cls, RuntimeObject object) {
+	if (cls.parent != null) {
+	    initialize(cls.parent, object);
+	}
+	CodeBlock block = cls.initCode;
+	if (block != null) {
+	    int[] ints = block.newInts();
+	    Object[] refs = block.newRefs(object);
+	    heap.pushFrame(refs);
+	    run(block, ints, refs);
+	    heap.popFrame();
+	    block.free(ints, refs);
+	}
+    }
+
+    /** Invoke a user-defined method that takes no arguments (e.g., main)
+      * @param receiver receiver of the method
+      * @param method the method
+      * */
+    void invoke(RuntimeObject receiver, RuntimeMethod method) {
+	CodeBlock block = method.code;
+	Object[] refs = new Object[block.numRefRegs];
+	refs[0] = receiver;
+	heap.pushFrame(refs);
+	if (profiler != null) {
+	    profiler.enter(method, null);
+	}
+	run(block, new int[block.numIntRegs], refs);
+	if (profiler != null) {
+	    profiler.exit();
+	}
+    }
+
+    /** Call a virtual method from a call site
+      * @param site the call site
+      * @param ints int registers of the caller
+      * @param refs reference registers of the caller
+      * */
+    void callVirtual(CallSite site, int[] ints, Object[] refs) {
+	Object receiver = refs[site.receiver];
+	if (receiver == null) {
+	    throw site.error(ExprNode.NULL_POINTER);
+	}
+	RuntimeValue value = (RuntimeValue) receiver;
+	call(site, site.cache.lookup(value.cls), value, ints, refs);
+    }
+
+    /** Call a statically bound method (super.m(...)) on 'this' from a call site
+      * @param site the call site
+      * @param ints int registers of the caller
+      * @param refs reference registers of the caller
+      * */
+    void callStatic(CallSite site, int[] ints, Object[] refs) {
+	call(site, site.target, (RuntimeValue) refs[0], ints, refs);
+    }
+
+    /** Find the target of a call from compiled code and, if the JIT has
+      * compiled it, count the call (and enter it in the profiler) and
+      * return its code, which the caller then runs directly (see
+      * JitCompiler.call); otherwise the caller calls callResolved
+      * @param site the call site
+      * @param receiver receiver of the call ('this' for statically bound calls)
+      * @return compiled code of the target method, or null
+      * */
+    CompiledCode compiledTarget(CallSite site, Object receiver) {
+	if (receiver == null) {
+	    return null;
+	}
+	RuntimeMethod method = (site.target != null) ? site.target
+	    : site.cache.lookup(((RuntimeValue) receiver).cls);
+	if (method.builtin < 0 && method.code.compiled != null) {
+	    budget.step();
+	    if (profiler != null) {
+		// (the cache of a virtual call counts it, see Profiler.stop)
+		if (site.target == null) {
+		    profiler.enterDispatched(method, site);
+		}
+		else {
+		    profiler.enter(method, site);
+		}
+	    }
+	    return method.code.compiled;
+	}
+	resolved = method;
+	return null;
+    }
+
+    /** A method called directly from compiled code returns (on a profiled run) */
+    void exitCompiled() {
+	profiler.exit();
+    }
+
+    /** Call the method found by the last compiledTarget from compiled code
+      * @param site the call site
+      * @param ints int registers of the caller
+      * @param refs reference registers of the caller
+      * */
+    void callResolved(CallSite site, int[] ints, Object[] refs) {
+	Object receiver = refs[(site.target != null) ? 0 : site.receiver];
+	if (receiver == null) {
+	    throw site.error(ExprNode.NULL_POINTER);
+	}
+	call(site, resolved, (RuntimeValue) receiver, ints, refs);
+    }
+
+    /** Call a method from a call site
+      * @param site the call site
+      * @param method the method to run
+      * @param receiver receiver of the call
+      * @param ints int registers of the caller
+      * @param refs reference registers of the caller
+      * */
+    private void call(CallSite site, RuntimeMethod method, RuntimeValue receiver,
+		      int[] ints, Object[] refs) {
+	if (profiler != null) {
+	    profiler.enter(method, site);
+	}
+	if (method.builtin >= 0) {
+	    callBuiltin(site, method, receiver, ints, refs);
+	    if (profiler != null) {
+		profiler.exit();
+	    }
+	    return;
+	}
+
+	int[] argRegs = site.argRegs;
+	boolean[] argIsRef = site.argIsRef;
+	int[] paramRegs = site.paramRegs;
+	budget.step();
+	CodeBlock block = method.code;
+	int[] calleeInts = block.newInts();
+	Object[] calleeRefs = block.newRefs(receiver);
+	for (int i = 0; i < argRegs.length; i++) {
+	    if (argIsRef[i]) {
+		calleeRefs[paramRegs[i]] = refs[argRegs[i]];
+	    }
+	    else {
+		calleeInts[paramRegs[i]] = ints[argRegs[i]];
+	    }
+	}
+	heap.pushFrame(calleeRefs);
+	int result = run(block, calleeInts, calleeRefs);
+	heap.popFrame();
+	block.free(calleeInts, calleeRefs);
+	if (profiler != null) {
+	    profiler.exit();
+	}
+	if (site.result >= 0) {
+	    if (site.resultIsRef) {
+		refs[site.result] = refResult;
+	    }
+	    else {
+		ints[site.result] = result;
+	    }
+	}
+    }
+
+    /** Call a built-in method from a call site (built-in methods take their
+      * arguments in a frame laid out like registers) */
+    private void callBuiltin(CallSite site, RuntimeMethod method, RuntimeValue receiver,
+			     int[] ints, Object[] refs) {
+	int[] argRegs = site.argRegs;
+	boolean[] argIsRef = site.argIsRef;
+	int[] paramRegs = site.paramRegs;
+	Frame frame = method.newFrame(receiver);
+	for (int i = 0; i < argRegs.length; i++) {
+	    if (argIsRef[i]) {
+		frame.refs[paramRegs[i]] = refs[argRegs[i]];
+	    }
+	    else {
+		frame.ints[paramRegs[i]] = ints[argRegs[i]];
+	    }
+	}
+	Object result = builtins.invoke(method.builtin, frame, site);
+	if (site.result >= 0) {
+	    if (site.resultIsRef) {
+		refs[site.result] = result;
+	    }
+	    else {
+		ints[site.result] = frame.intResult;
+	    }
+	}
+	method.freeFrame(frame);
+    }
+
+    /** Run a code block, as JVM code if the JIT has compiled it
+      * @param block the code block
+      * @param ints int registers (parameters already set)
+      * @param refs reference registers ('this' and parameters already set)
+      * @return the int (or boolean) result; reference results are left in refResult
+      * */
+    private int run(CodeBlock block, int[] ints, Object[] refs) {
+	if (jit != null) {
+	    return jit.run(this, block, ints, refs);
+	}
+	return execute(block, ints, refs);
+    }
+
+    /** Interpret a code block
+      * @param block the code block
+      * @param ints int registers (parameters already set)
+      * @param refs reference registers ('this' and parameters already set)
+      * @return the int (or boolean) result; reference results are left in refResult
+      * */
+    int execute(CodeBlock block, int[] ints, Object[] refs) {
+	return execute(block, ints, refs, 0);
+    }
+
+    /** Interpret a code block from a given instruction on
+      * @param block the code block
+      * @param ints int registers
+      * @param refs reference registers
+      * @param pc position of the first instruction to execute
+      * @return the int (or boolean) result; reference results are left in refResult
+      * */
+    int execute(CodeBlock block, int[] ints, Object[] refs, int pc) {
+	final int[] code = block.code;
+	final Object[] constants = block.constants;
+	// only user-defined methods and initializers run here, so 'this' is an object
+	final RuntimeObject self = (RuntimeObject) refs[0];
+	final int[] intFields = self.ints;
+	final Object[] refFields = self.refs;
+	final long[] pairs = pairCounts;
+	int previous = -1;
+	while (true) {
+	    // opcode and the packed register operands A, B, and C
+	    final int insn = code[pc];
+	    if (pairs != null) {
+		previous = count(previous, insn & 0xff);
+	    }
+	    switch (insn & 0xff) {
+		case Bytecode.ICONST:
+		    ints[a(insn)] = code[pc + 1];
+		    pc += 2;
+		    break;
+		case Bytecode.RCONST:
+		    refs[a(insn)] = constants[code[pc + 1]];
+		    pc += 2;
+		    break;
+		case Bytecode.IMOV:
+		    ints[a(insn)] = ints[b(insn)];
+		    pc++;
+		    break;
+		case Bytecode.RMOV:
+		    refs[a(insn)] = refs[b(insn)];
+		    pc++;
+		    break;
+
+		case Bytecode.IADD:
+		    ints[a(insn)] = ints[b(insn)] + ints[c(insn)];
+		    pc++;
+		    break;
+		case Bytecode.ISUB:
+		    ints[a(insn)] = ints[b(insn)] - ints[c(insn)];
+		    pc++;
+		    break;
+		case Bytecode.IMUL:
+		    ints[a(insn)] = ints[b(insn)] * ints[c(insn)];
+		    pc++;
+		    break;
+		case Bytecode.IDIV:
+		    ints[a(insn)] = divide(ints[b(insn)], ints[c(insn)], site(constants, code[pc + 1]));
+		    pc += 2;
+		    break;
+		case Bytecode.IMOD:
+		    ints[a(insn)] = remainder(ints[b(insn)], ints[c(insn)],
+					      site(constants, code[pc + 1]));
+		    pc += 2;
+		    break;
+		case Bytecode.IADDI:
+		    ints[a(insn)] = ints[b(insn)] + code[pc + 1];
+		    pc += 2;
+		    break;
+		case Bytecode.INEG:
+		    ints[a(insn)] = -ints[b(insn)];
+		    pc++;
+		    break;
+		case Bytecode.NOT:
+		    ints[a(insn)] = ints[b(insn)] ^ 1;
+		    pc++;
+		    break;
+
+		case Bytecode.ILT:
+		    ints[a(insn)] = (ints[b(insn)] < ints[c(insn)]) ? 1 : 0;
+		    pc++;
+		    break;
+		case Bytecode.ILE:
+		    ints[a(insn)] = (ints[b(insn)] <= ints[c(insn)]) ? 1 : 0;
+		    pc++;
+		    break;
+		case Bytecode.IGT:
+		    ints[a(insn)] = (ints[b(insn)] > ints[c(insn)]) ? 1 : 0;
+		    pc++;
+		    break;
+		case Bytecode.IGE:
+		    ints[a(insn)] = (ints[b(insn)] >= ints[c(insn)]) ? 1 : 0;
+		    pc++;
+		    break;
+		case Bytecode.IEQ:
+		    ints[a(insn)] = (ints[b(insn)] == ints[c(insn)]) ? 1 : 0;
+		    pc++;
+		    break;
+		case Bytecode.INE:
+		    ints[a(insn)] = (ints[b(insn)] != ints[c(insn)]) ? 1 : 0;
+		    pc++;
+		    break;
+		case Bytecode.REQ:
+		    ints[a(insn)] = (refs[b(insn)] == refs[c(insn)]) ? 1 : 0;
+		    pc++;
+		    break;
+		case Bytecode.RNE:
+		    ints[a(insn)] = (refs[b(insn)] != refs[c(insn)]) ? 1 : 0;
+		    pc++;
+		    break;
+
+		case Bytecode.JMP:
+		    pc = branch(block, pc, code[pc + 1]);
+		    break;
+		case Bytecode.JT:
+		    pc = (ints[a(insn)] != 0) ? branch(block, pc, code[pc + 1]) : pc + 2;
+		    break;
+		case Bytecode.JF:
+		    pc = (ints[a(insn)] == 0) ? branch(block, pc, code[pc + 1]) : pc + 2;
+		    break;
+		case Bytecode.IFLT:
+		    pc = (ints[a(insn)] < ints[b(insn)]) ? branch(block, pc, code[pc + 1]) : pc + 2;
+		    break;
+		case Bytecode.IFLE:
+		    pc = (ints[a(insn)] <= ints[b(insn)]) ? branch(block, pc, code[pc + 1]) : pc + 2;
+		    break;
+		case Bytecode.IFGT:
+		    pc = (ints[a(insn)] > ints[b(insn)]) ? branch(block, pc, code[pc + 1]) : pc + 2;
+		    break;
+		case Bytecode.IFGE:
+		    pc = (ints[a(insn)] >= ints[b(insn)]) ? branch(block, pc, code[pc + 1]) : pc + 2;
+		    break;
+		case Bytecode.IFEQ:
+		    pc = (ints[a(insn)] == ints[b(insn)]) ? branch(block, pc, code[pc + 1]) : pc + 2;
+		    break;
+		case Bytecode.IFNE:
+		    pc = (ints[a(insn)] != ints[b(insn)]) ? branch(block, pc, code[pc + 1]) : pc + 2;
+		    break;
+		case Bytecode.IFREQ:
+		    pc = (refs[a(insn)] == refs[b(insn)]) ? branch(block, pc, code[pc + 1]) : pc + 2;
+		    break;
+		case Bytecode.IFRNE:
+		    pc = (refs[a(insn)] != refs[b(insn)]) ? branch(block, pc, code[pc + 1]) : pc + 2;
+		    break;
+		case Bytecode.IFLTI:
+		    pc = (ints[a(insn)] < code[pc + 1]) ? branch(block, pc, code[pc + 2]) : pc + 3;
+		    break;
+		case Bytecode.IFLEI:
+		    pc = (ints[a(insn)] <= code[pc + 1]) ? branch(block, pc, code[pc + 2]) : pc + 3;
+		    break;
+		case Bytecode.IFGTI:
+		    pc = (ints[a(insn)] > code[pc + 1]) ? branch(block, pc, code[pc + 2]) : pc + 3;
+		    break;
+		case Bytecode.IFGEI:
+		    pc = (ints[a(insn)] >= code[pc + 1]) ? branch(block, pc, code[pc + 2]) : pc + 3;
+		    break;
+		case Bytecode.IFEQI:
+		    pc = (ints[a(insn)] == code[pc + 1]) ? branch(block, pc, code[pc + 2]) : pc + 3;
+		    break;
+		case Bytecode.IFNEI:
+		    pc = (ints[a(insn)] != code[pc + 1]) ? branch(block, pc, code[pc + 2]) : pc + 3;
+		    break;
+
+		case Bytecode.GETI:
+		    ints[a(insn)] = intFields[code[pc + 1]];
+		    pc += 2;
+		    break;
+		case Bytecode.GETR:
+		    refs[a(insn)] = refFields[code[pc + 1]];
+		    pc += 2;
+		    break;
+		case Bytecode.PUTI:
+		    intFields[code[pc + 1]] = ints[a(insn)];
+		    pc += 2;
+		    break;
+		case Bytecode.PUTR:
+		    refFields[code[pc + 1]] = refs[a(insn)];
+		    pc += 2;
+		    break;
+
+		case Bytecode.ALEN:
+		    ints[a(insn)] = length(refs[b(insn)], site(constants, code[pc + 1]));
+		    pc += 2;
+		    break;
+		case Bytecode.ALOADI:
+		    ints[a(insn)] = loadInt(refs[b(insn)], ints[c(insn)], site(constants, code[pc + 1]));
+		    pc += 2;
+		    break;
+		case Bytecode.ALOADR:
+		    refs[a(insn)] = load(refs[b(insn)], ints[c(insn)], site(constants, code[pc + 1]));
+		    pc += 2;
+		    break;
+		case Bytecode.ASTOREI:
+		    storeInt(refs[a(insn)], ints[b(insn)], ints[c(insn)], site(constants, code[pc + 1]));
+		    pc += 2;
+		    break;
+		case Bytecode.ASTORER:
+		    storeRef(refs[a(insn)], ints[b(insn)], refs[c(insn)],
+			     site(constants, code[pc + 1]));
+		    pc += 2;
+		    break;
+
+		case Bytecode.NEW: {
+		    RuntimeClass cls = (RuntimeClass) constants[code[pc + 1]];
+		    if (!hasInitializers(cls)) {
+			Bytecode.rewrite(code, pc, Bytecode.NEWQ);
+		    }
+		    refs[a(insn)] = newObject(cls);
+		    pc += 2;
+		    break;
+		}
+		case Bytecode.NEWQ:
+		    // no initializers to run
+		    refs[a(insn)] = ((RuntimeClass) constants[code[pc + 1]]).newInstance();
+		    pc += 2;
+		    break;
+		case Bytecode.NEWSTR:
+		    refs[a(insn)] = newString();
+		    pc++;
+		    break;
+		case Bytecode.NEWARR:
+		    refs[a(insn)] = newArray((ExprNode.TypeTest) constants[code[pc + 1]],
+					     ints[b(insn)], site(constants, code[pc + 2]));
+		    pc += 3;
+		    break;
+		case Bytecode.INSTOF:
+		    ints[a(insn)] = isInstance(refs[b(insn)],
+					       (ExprNode.TypeTest) constants[code[pc + 1]]) ? 1 : 0;
+		    pc += 2;
+		    break;
+		case Bytecode.CAST:
+		    cast(refs[a(insn)], (ExprNode.TypeTest) constants[code[pc + 1]],
+			 site(constants, code[pc + 2]));
+		    pc += 3;
+		    break;
+		case Bytecode.NULLCHK:
+		    nullCheck(refs[a(insn)], site(constants, code[pc + 1]));
+		    pc += 2;
+		    break;
+
+		case Bytecode.CALL: {
+		    CallSite site = (CallSite) constants[code[pc + 1]];
+		    Object receiver = refs[site.receiver];
+		    if (receiver != null && !site.polymorphic) {
+			site.quickClass = ((RuntimeValue) receiver).cls;
+			site.quickMethod = site.quickClass.lookupMethod(site.methodName);
+			Bytecode.rewrite(code, pc, Bytecode.CALLQ);
+		    }
+		    callVirtual(site, ints, refs);
+		    pc += 2;
+		    break;
+		}
+		case Bytecode.CALLQ: {
+		    CallSite site = (CallSite) constants[code[pc + 1]];
+		    Object receiver = refs[site.receiver];
+		    if (receiver != null && ((RuntimeValue) receiver).cls == site.quickClass) {
+			site.cache.countHit(site.quickClass);
+			call(site, site.quickMethod, (RuntimeValue) receiver, ints, refs);
+		    }
+		    else {
+			if (receiver != null) {
+			    // another receiver class: back to the inline cache for good
+			    site.polymorphic = true;
+			    Bytecode.rewrite(code, pc, Bytecode.CALL);
+			}
+			callVirtual(site, ints, refs);
+		    }
+		    pc += 2;
+		    break;
+		}
+		case Bytecode.CALLS:
+		    callStatic((CallSite) constants[code[pc + 1]], ints, refs);
+		    pc += 2;
+		    break;
+		case Bytecode.RET:
+		    refResult = null;
+		    return 0;
+		case Bytecode.RETI:
+		    return ints[a(insn)];
+		case Bytecode.RETR:
+		    refResult = refs[a(insn)];
+		    return 0;
+		case Bytecode.OSR:
+		    // a loop got hot: the activation continues in compiled code
+		    return jit.enterLoop(this, block, ints, refs, osrTarget);
+
+		// superinstructions: the second instruction starts at next
+		case Bytecode.IADDI_IFLT: {
+		    ints[a(insn)] = ints[b(insn)] + code[pc + 1];
+		    final int next = code[pc + 2];
+		    pc = (ints[a(next)] < ints[b(next)]) ? branch(block, pc + 2, code[pc + 3]) : pc + 4;
+		    break;
+		}
+		case Bytecode.IADDI_IFLE: {
+		    ints[a(insn)] = ints[b(insn)] + code[pc + 1];
+		    final int next = code[pc + 2];
+		    pc = (ints[a(next)] <= ints[b(next)]) ? branch(block, pc + 2, code[pc + 3]) : pc + 4;
+		    break;
+		}
+		case Bytecode.IADDI_IFLTI:
+		    ints[a(insn)] = ints[b(insn)] + code[pc + 1];
+		    pc = (ints[a(code[pc + 2])] < code[pc + 3]) ? branch(block, pc + 2, code[pc + 4])
+			: pc + 5;
+		    break;
+		case Bytecode.IADDI_IFLEI:
+		    ints[a(insn)] = ints[b(insn)] + code[pc + 1];
+		    pc = (ints[a(code[pc + 2])] <= code[pc + 3]) ? branch(block, pc + 2, code[pc + 4])
+			: pc + 5;
+		    break;
+		case Bytecode.ALEN_IFLT: {
+		    ints[a(insn)] = length(refs[b(insn)], site(constants, code[pc + 1]));
+		    final int next = code[pc + 2];
+		    pc = (ints[a(next)] < ints[b(next)]) ? branch(block, pc + 2, code[pc + 3]) : pc + 4;
+		    break;
+		}
+		case Bytecode.GETI_IADDI: {
+		    ints[a(insn)] = intFields[code[pc + 1]];
+		    final int next = code[pc + 2];
+		    ints[a(next)] = ints[b(next)] + code[pc + 3];
+		    pc += 4;
+		    break;
+		}
+		case Bytecode.ICONST_PUTI:
+		    ints[a(insn)] = code[pc + 1];
+		    intFields[code[pc + 3]] = ints[a(code[pc + 2])];
+		    pc += 4;
+		    break;
+		case Bytecode.PUTI_RET:
+		    intFields[code[pc + 1]] = ints[a(insn)];
+		    refResult = null;
+		    return 0;
+
+		default:
+		    throw new RuntimeException("Internal error: bad opcode " + (insn & 0xff) +
+					       " at " + block.name + ":" + pc);
+	    }
+	}
+    }
+
+    /** Count the dispatch of an opcode (when profiling)
+      * @param previous the opcode dispatched before in the same block (-1 at its entry)
+      * @param opcode the opcode
+      * @return the opcode
+      * */
+    private int count(int previous, int opcode) {
+	opcodeCounts[opcode]++;
+	if (previous >= 0) {
+	    pairCounts[previous * Bytecode.NUM_OPCODES + opcode]++;
+	}
+	return opcode;
+    }
+
+    /** List the most frequently dispatched opcodes and pairs of consecutive
+      * opcodes (the candidates for superinstructions) on a stream; only
+      * interpreted code is counted
+      * @param out the stream
+      * @param limit maximum number of opcodes and of pairs listed
+      * */
+    void reportDispatches(PrintStream out, int limit) {
+	if (opcodeCounts == null) {
+	    return;
+	}
+	long total = 0;
+	for (long count : opcodeCounts) {
+	    total += count;
+	}
+	out.println("Dispatches (" + total + " interpreted instruction(s)):");
+	report(out, opcodeCounts, total, limit, false);
+	out.println("Pairs of consecutive instructions:");
+	report(out, pairCounts, total, limit, true);
+    }
+
+    /** List the largest counts of a dispatch profile */
+    private static void report(PrintStream out, long[] counts, long total, int limit,
+			       boolean pairs) {
+	Integer[] order = new Integer[counts.length];
+	for (int i = 0; i < order.length; i++) {
+	    order[i] = i;
+	}
+	Arrays.sort(order, (i, j) -> Long.compare(counts[j], counts[i]));
+	for (int i = 0; i < limit && i < order.length && counts[order[i]] > 0; i++) {
+	    int index = order[i];
+	    String name = pairs ? Bytecode.NAMES[index / Bytecode.NUM_OPCODES] + " " +
+		Bytecode.NAMES[index % Bytecode.NUM_OPCODES] : Bytecode.NAMES[index];
+	    out.println(String.format("  %-16s %12d  %5.1f%%", name, counts[index],
+				      100.0 * counts[index] / total));
+	}
+    }
+
+    /** Check whether creating an object of a class runs field initializers */
+    private static boolean hasInitializers(RuntimeClass cls) {
+	for (; cls != null; cls = cls.parent) {
+	    if (cls.initCode != null) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /** Get register operand A of an instruction word */
+    private static int a(int insn) {
+	return (insn >>> 8) & 0xff;
+    }
+
+    /** Get register operand B of an instruction word */
+    private static int b(int insn) {
+	return (insn >>> 16) & 0xff;
+    }
+
+    /** Get register operand C of an instruction word */
+    private static int c(int insn) {
+	return insn >>> 24;
+    }
+
+    /** Get an error site from the constant pool */
+    private static SourceNode site(Object[] constants, int index) {
+	return (SourceNode) constants[index];
+    }
+
+    /** Take a branch, counting backward branches (loop iterations, which
+      * also put the profiled frame at the line of the loop); once the
+      * block is hot, a backward branch goes to the OSR instruction at the
+      * end of the block instead, to continue at the loop header in
+      * compiled code (the registers are all in the register files)
+      * */
+    private int branch(CodeBlock block, int pc, int target) {
+	if (target <= pc) {
+	    block.backEdges++;
+	    budget.step();
+	    if (profiler != null) {
+		profiler.at(block.lines[pc]);
+	    }
+	    if (block.backEdges >= osrThreshold && !block.notCompilable) {
+		osrTarget = target;
+		return block.code.length - 1;
+	    }
+	}
+	return target;
+    }
+
+    // operations shared with the code generated by the JIT
+
+    /** Count a step of the run (a loop iteration of compiled code) */
+    void step() {
+	budget.step();
+    }
+
+    /** Put the profiled frame at the line of a loop of compiled code
+      * (only called on a profiled run, see JitCompiler.emitLine)
+      * @param line source line of the loop
+      * */
+    void at(int line) {
+	profiler.at(line);
+    }
+
+    /** Create an empty string */
+    RuntimeString newString() {
+	return builtins.newString("");
+    }
+
+    /** Create an array with its elements set to the default value */
+    RuntimeArray newArray(ExprNode.TypeTest type, int size, SourceNode site) {
+	if (size < 0) {
+	    throw site.error(ExprNode.sizeError(size));
+	}
+	return RuntimeArray.create(builtins.heap, objectClass, type.elementType, type.cls, size);
+    }
+
+    /** Divide with the division by zero check */
+    static int divide(int dividend, int divisor, SourceNode site) {
+	if (divisor == 0) {
+	    throw site.error(ExprNode.DIVIDE_BY_ZERO);
+	}
+	return dividend / divisor;
+    }
+
+    /** Compute a remainder with the division by zero check */
+    static int remainder(int dividend, int divisor, SourceNode site) {
+	if (divisor == 0) {
+	    throw site.error(ExprNode.DIVIDE_BY_ZERO);
+	}
+	return dividend % divisor;
+    }
+
+    /** Check that a reference is not null */
+    static void nullCheck(Object value, SourceNode site) {
+	if (value == null) {
+	    throw site.error(ExprNode.NULL_POINTER);
+	}
+    }
+
+    /** Test instanceof (false for null) */
+    static boolean isInstance(Object value, ExprNode.TypeTest test) {
+	return value != null && test.test((RuntimeValue) value);
+    }
+
+    /** Check a cast (null always passes) */
+    static void cast(Object value, ExprNode.TypeTest test, SourceNode site) {
+	if (value != null && !test.test((RuntimeValue) value)) {
+	    throw site.error(test.castError((RuntimeValue) value));
+	}
+    }
+
+    /** Get the length of an array with the null check */
+    static int length(Object array, SourceNode site) {
+	return getArray(array, site).length();
+    }
+
+    /** Check that a reference is a (non-null) array */
+    private static RuntimeArray getArray(Object value, SourceNode site) {
+	if (value == null) {
+	    throw site.error(ExprNode.NULL_POINTER);
+	}
+	return (RuntimeArray) value;
+    }
+
+    /** Load an element of a reference array with the null and bounds checks */
+    static Object load(Object array, int index, SourceNode site) {
+	Object[] elements = getArray(array, site).refs;
+	if (index < 0 || index >= elements.length) {
+	    throw site.error(ExprNode.indexError(index));
+	}
+	return elements[index];
+    }
+
+    /** Store a reference in an array element with the null, bounds, and
+      * element type checks */
+    static void storeRef(Object array, int index, Object value, SourceNode site) {
+	RuntimeArray target = getArray(array, site);
+	if (index < 0 || index >= target.refs.length) {
+	    throw site.error(ExprNode.indexError(index));
+	}
+	if (target.elementClass != null && value != null &&
+	    !((RuntimeValue) value).cls.isSubclassOf(target.elementClass)) {
+	    throw site.error(ExprNode.storeError((RuntimeValue) value, target));
+	}
+	target.refs[index] = value;
+    }
+
+    /** Load an element of an int or boolean array with the null and bounds checks */
+    static int loadInt(Object array, int index, SourceNode site) {
+	int[] elements = getArray(array, site).ints;
+	if (index < 0 || index >= elements.length) {
+	    throw site.error(ExprNode.indexError(index));
+	}
+	return elements[index];
+    }
+
+    /** Store an element of an int or boolean array with the null and bounds checks */
+    static void storeInt(Object array, int index, int value, SourceNode site) {
+	int[] elements = getArray(array, site).ints;
+	if (index < 0 || index >= elements.length) {
+	    throw site.error(ExprNode.indexError(index));
+	}
+	elements[index] = value;
+    }
+}
@@ -407,10 +407,10 @@ public class Lexer implements java_cup.runtime.Scanner {
 		/* 52 */ YY_NO_ANCHOR,
 		/* 53 */ YY_NO_ANCHOR,
 		/* 54 */ YY_NO_ANCHOR,
-		/* 55 */ YY_NOT_ACCEPT,
+		/* 55 */ YY_NO_ANCHOR,
 		/* 56 */ YY_NO_ANCHOR,
-		/* 57 */ YY_NO_ANCHOR,
-		/* 58 */ YY_NOT_ACCEPT,
+		/* 57 */ YY_NOT_ACCEPT,
+		/* 58 */ YY_NO_ANCHOR,
 		/* 59 */ YY_NO_ANCHOR,
 		/* 60 */ YY_NOT_ACCEPT,
 		/* 61 */ YY_NO_ANCHOR,
@@ -454,49 +454,50 @@ public class Lexer implements java_cup.runtime.Scanner {
 		/* 99 */ YY_NO_ANCHOR,
 		/* 100 */ YY_NO_ANCHOR,
 		/* 101 */ YY_NO_ANCHOR,
-		/* 102 */ YY_NO_ANCHOR
+		/* 102 */ YY_NO_ANCHOR,
+		/* 103 */ YY_NO_ANCHOR
 	};
 	private int yy_cmap[] = unpackFromString(1,130,
-"2:8,5:2,46,2,5,4,2:18,5,27,45,47,43,32,28,47,35,36,3,26,34,25,41,1,42:10,47" +
-",33,29,24,31,47:2,44:26,37,47,38,47,44,47,8,22,6,19,14,10,44,21,16,44,23,7," +
-"44,13,11,44:2,12,9,18,20,44,15,17,44:2,39,30,40,47,2,0:2")[0];
+"2:8,6:2,5,2,6,4,2:18,6,28,46,48,44,33,29,48,36,37,3,27,35,26,42,1,43:10,48," +
+"34,30,25,32,48:2,45:26,38,47,39,48,45,48,9,23,7,20,15,11,45,22,17,45,24,8,4" +
+"5,14,12,45:2,13,10,19,21,45,16,18,45:2,40,31,41,48,2,0:2")[0];
 
-	private int yy_rmap[] = unpackFromString(1,103,
-"0,1,2,1:2,3,4,5,6,7,8,1,9,10,11,1:9,12,13,14,15,16,17,1:5,12,1,18,17:2,19,1" +
-",17:9,20,21,12,22,18,23,24,19,25,26,27,28,29,30,31,32,33,34,35,36,37,38,39," +
-"40,41,42,43,44,45,46,47,48,49,50,51,52,53,54,55,56,57,58,59,60,61,62,63,17," +
-"64,65,66,67")[0];
+	private int yy_rmap[] = unpackFromString(1,104,
+"0,1,2,1:2,3,4,5,6,7,8,9,10,11,1:9,12,13,14,15,16,17,1:6,12,1:2,17:2,1:2,17:" +
+"9,18,19,20,12,21,22:2,23,24,25,26,27,28,29,30,31,32,33,34,35,36,37,38,39,40" +
+",41,42,43,44,45,46,47,48,49,50,51,52,53,54,55,56,57,58,59,60,61,62,63,17,64" +
+",65,66,67")[0];
 
-	private int yy_nxt[][] = unpackFromString(68,48,
-"1,2,3,4,5:2,6,98:3,71,98,100,72,82,101,52,98,83,98:3,102,98,7,8,9,10,11,12," +
-"13,14,15,16,17,18,19,20,21,22,23,24,25,56,98,26,5,53,-1:49,27,-1,28,-1:26,5" +
-"3,-1:10,53,-1,53,-1:3,53,-1:4,5:2,-1:40,5,-1:7,98,84,98:16,-1:18,98,-1,98,-" +
-"1:27,30,-1:48,31,-1:48,32,-1:45,33,-1:47,34,-1:24,53,-1:28,35,-1:10,53,-1,5" +
-"3,-1:3,53,-1:24,36,-1:24,53,-1:28,53,-1:10,53,-1,53,-1:3,53,-1:6,98:18,-1:1" +
-"8,25,-1,98,-1:4,26:3,54,26:40,37,57,26,-1,27:3,-1,27:41,-1,27,-1,28:2,51,28" +
-":44,-1:6,98:18,-1:18,98,-1,98,-1:4,55:3,-1,55:40,37,58,55,-1,58:3,-1,58:40," +
-"40,58:2,-1,41,28,60,28:44,-1:6,98:4,29,98:2,88,98:10,-1:18,98,-1,98,-1:4,54" +
-":44,-1,54:2,-1,53,-1:4,98:18,-1:6,53,-1:10,53,98,53,98,-1:2,53,-1,57:3,54,5" +
-"7:40,40,57:2,-1:6,98:6,38,98:11,-1:18,98,-1,98,-1:5,28,60,28:44,-1:6,98:9,3" +
-"9,98:8,-1:18,98,-1,98,-1:9,98:8,42,98:9,-1:18,98,-1,98,-1:9,98:8,43,98:9,-1" +
-":18,98,-1,98,-1:9,98:3,44,98:14,-1:18,98,-1,98,-1:9,98:8,45,98:9,-1:18,98,-" +
-"1,98,-1:9,98:8,46,98:9,-1:18,98,-1,98,-1:9,98:17,47,-1:18,98,-1,98,-1:9,98:" +
-"7,48,98:10,-1:18,98,-1,98,-1:9,98:3,49,98:14,-1:18,98,-1,98,-1:9,98:4,50,98" +
-":13,-1:18,98,-1,98,-1:9,98:2,85,98:2,59,98:12,-1:18,98,-1,98,-1:9,98:8,61,9" +
-"8:9,-1:18,98,-1,98,-1:9,98:3,62,98:14,-1:18,98,-1,98,-1:9,98:14,63,98:3,-1:" +
-"18,98,-1,98,-1:9,98:3,64,98:14,-1:18,98,-1,98,-1:9,98:3,65,98:14,-1:18,98,-" +
-"1,98,-1:9,98,66,98:16,-1:18,98,-1,98,-1:9,98:2,67,98:15,-1:18,98,-1,98,-1:9" +
-",98:6,68,98:11,-1:18,98,-1,98,-1:9,98:13,69,98:4,-1:18,98,-1,98,-1:9,98:5,7" +
-"0,98:12,-1:18,98,-1,98,-1:9,98,73,98:9,99,98:6,-1:18,98,-1,98,-1:9,98:6,74," +
-"98:11,-1:18,98,-1,98,-1:9,98:2,75,98:15,-1:18,98,-1,98,-1:9,98,76,98:16,-1:" +
-"18,98,-1,98,-1:9,98:12,90,98:5,-1:18,98,-1,98,-1:9,98:10,77,98:7,-1:18,98,-" +
-"1,98,-1:9,98:3,92,98:14,-1:18,98,-1,98,-1:9,98:8,78,98:9,-1:18,98,-1,98,-1:" +
-"9,98:14,79,98:3,-1:18,98,-1,98,-1:9,98:8,93,98:9,-1:18,98,-1,98,-1:9,98:12," +
-"94,98:5,-1:18,98,-1,98,-1:9,98:7,80,98:10,-1:18,98,-1,98,-1:9,98:2,95,98:15" +
-",-1:18,98,-1,98,-1:9,98:7,96,98:10,-1:18,98,-1,98,-1:9,97,98:17,-1:18,98,-1" +
-",98,-1:9,98:8,81,98:9,-1:18,98,-1,98,-1:9,98:12,91,98:5,-1:18,98,-1,98,-1:9" +
-",98:8,86,98:9,-1:18,98,-1,98,-1:9,98:15,87,98:2,-1:18,98,-1,98,-1:9,98:6,89" +
-",98:11,-1:18,98,-1,98,-1:3");
+	private int yy_nxt[][] = unpackFromString(68,49,
+"1,2,3,4,5:3,6,99:3,72,99,101,73,83,102,53,99,84,99:3,103,99,7,8,9,10,52,11," +
+"12,13,14,15,16,17,18,19,20,21,22,23,24,58,99,25,54:2,-1:50,26,-1,27,-1:27,5" +
+"4,-1:10,54,-1,54,-1:2,54:2,-1:4,5:3,-1:49,99,85,99:16,-1:18,99,-1,99,-1:28," +
+"29,-1:49,30,-1:49,31,-1:46,32,-1:48,34,-1:24,54,-1:29,35,-1:10,54,-1,54,-1:" +
+"2,54:2,-1:25,36,-1:24,54,-1:29,54,-1:10,54,-1,54,-1:2,54:2,-1:7,99:18,-1:18" +
+",24,-1,99,-1:4,25:4,55,25:40,37,59,25,-1,26:3,-1:2,26:43,-1,27:2,51,27:45,-" +
+"1:7,99:18,-1:18,99,-1,99,-1:4,41,27,51,27:45,-1:29,33,-1:26,99:4,28,99:2,89" +
+",99:10,-1:18,99,-1,99,-1:4,55:45,40,55:2,-1,57:4,-1,57:40,37,60,57,-1,54,-1" +
+":5,99:18,-1:6,54,-1:10,54,99,54,99,-1,54:2,-1,25:4,55,25:40,56,25:2,-1,57:4" +
+",-1,57:43,-1:7,99:6,38,99:11,-1:18,99,-1,99,-1:10,99:9,39,99:8,-1:18,99,-1," +
+"99,-1:10,99:8,42,99:9,-1:18,99,-1,99,-1:10,99:8,43,99:9,-1:18,99,-1,99,-1:1" +
+"0,99:3,44,99:14,-1:18,99,-1,99,-1:10,99:8,45,99:9,-1:18,99,-1,99,-1:10,99:8" +
+",46,99:9,-1:18,99,-1,99,-1:10,99:17,47,-1:18,99,-1,99,-1:10,99:7,48,99:10,-" +
+"1:18,99,-1,99,-1:10,99:3,49,99:14,-1:18,99,-1,99,-1:10,99:4,50,99:13,-1:18," +
+"99,-1,99,-1:10,99:2,86,99:2,61,99:12,-1:18,99,-1,99,-1:10,99:8,62,99:9,-1:1" +
+"8,99,-1,99,-1:10,99:3,63,99:14,-1:18,99,-1,99,-1:10,99:14,64,99:3,-1:18,99," +
+"-1,99,-1:10,99:3,65,99:14,-1:18,99,-1,99,-1:10,99:3,66,99:14,-1:18,99,-1,99" +
+",-1:10,99,67,99:16,-1:18,99,-1,99,-1:10,99:2,68,99:15,-1:18,99,-1,99,-1:10," +
+"99:6,69,99:11,-1:18,99,-1,99,-1:10,99:13,70,99:4,-1:18,99,-1,99,-1:10,99:5," +
+"71,99:12,-1:18,99,-1,99,-1:10,99,74,99:9,100,99:6,-1:18,99,-1,99,-1:10,99:6" +
+",75,99:11,-1:18,99,-1,99,-1:10,99:2,76,99:15,-1:18,99,-1,99,-1:10,99,77,99:" +
+"16,-1:18,99,-1,99,-1:10,99:12,91,99:5,-1:18,99,-1,99,-1:10,99:10,78,99:7,-1" +
+":18,99,-1,99,-1:10,99:3,93,99:14,-1:18,99,-1,99,-1:10,99:8,79,99:9,-1:18,99" +
+",-1,99,-1:10,99:14,80,99:3,-1:18,99,-1,99,-1:10,99:8,94,99:9,-1:18,99,-1,99" +
+",-1:10,99:12,95,99:5,-1:18,99,-1,99,-1:10,99:7,81,99:10,-1:18,99,-1,99,-1:1" +
+"0,99:2,96,99:15,-1:18,99,-1,99,-1:10,99:7,97,99:10,-1:18,99,-1,99,-1:10,98," +
+"99:17,-1:18,99,-1,99,-1:10,99:8,82,99:9,-1:18,99,-1,99,-1:10,99:12,92,99:5," +
+"-1:18,99,-1,99,-1:10,99:8,87,99:9,-1:18,99,-1,99,-1:10,99:15,88,99:2,-1:18," +
+"99,-1,99,-1:10,99:6,90,99:11,-1:18,99,-1,99,-1:3");
 
 	public java_cup.runtime.Symbol next_token ()
 		throws java.io.IOException {
@@ -616,76 +617,71 @@ public class Lexer implements java_cup.runtime.Scanner {
 					case -11:
 						break;
 					case 11:
-						{ return new Symbol(TokenIds.AND,
-						    new Token("AND", yyline)); }
+						{ return new Symbol(TokenIds.LT,
+						    new Token("LT", yyline)); }
 					case -12:
 						break;
 					case 12:
-						{ return new Symbol(TokenIds.LT,
-						    new Token("LT", yyline)); }
+						{ return new Symbol(TokenIds.LEX_ERROR,
+                                  new Token("ILLEGAL_CHAR", yytext(), yyline)); }
 					case -13:
 						break;
 					case 13:
-						{ return new Symbol(TokenIds.LEX_ERROR,
-                            new Token("ILLEGAL_CHAR", yytext(), yyline)); }
-					case -14:
-						break;
-					case 14:
 						{ return new Symbol(TokenIds.GT,
 						    new Token("GT", yyline)); }
-					case -15:
+					case -14:
 						break;
-					case 15:
+					case 14:
 						{ return new Symbol(TokenIds.MODULUS,
 						    new Token("MODULUS", yyline)); }
-					case -16:
+					case -15:
 						break;
-					case 16:
+					case 15:
 						{ return new Symbol(TokenIds.SEMI,
 						    new Token("SEMI", yyline)); }
-					case -17:
+					case -16:
 						break;
-					case 17:
+					case 16:
 						{ return new Symbol(TokenIds.COMMA,
 						    new Token("COMMA", yyline)); }
-					case -18:
+					case -17:
 						break;
-					case 18:
+					case 17:
 						{ return new Symbol(TokenIds.LPAREN,
 						    new Token("LPAREN", yyline)); }
-					case -19:
+					case -18:
 						break;
-					case 19:
+					case 18:
 						{ return new Symbol(TokenIds.RPAREN,
 						    new Token("RPAREN", yyline)); }
-					case -20:
+					case -19:
 						break;
-					case 20:
+					case 19:
 						{ return new Symbol(TokenIds.LSQBRACE,
 						    new Token("LSQBRACE", yyline)); }
-					case -21:
+					case -20:
 						break;
-					case 21:
+					case 20:
 						{ return new Symbol(TokenIds.RSQBRACE,
 					 	    new Token("RSQBRACE", yyline)); }
-					case -22:
+					case -21:
 						break;
-					case 22:
+					case 21:
 						{ return new Symbol(TokenIds.LBRACE,
 						    new Token("LBRACE", yyline)); }
-					case -23:
+					case -22:
 						break;
-					case 23:
+					case 22:
 						{ return new Symbol(TokenIds.RBRACE,
 						    new Token("RBRACE", yyline)); }
-					case -24:
+					case -23:
 						break;
-					case 24:
+					case 23:
 						{ return new Symbol(TokenIds.DOT,
 						    new Token("DOT", yyline)); }
-					case -25:
+					case -24:
 						break;
-					case 25:
+					case 24:
 						{
     try {
         int x = Integer.parseInt(yytext());
@@ -697,45 +693,50 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.INT_CONST,
 	                    new Token("INT_CONST", yytext(), yyline));
 }
+					case -25:
+						break;
+					case 25:
+						{ return new Symbol(TokenIds.LEX_ERROR,
+                                  new Token("UNTERMINATED_STRING", yytext(), yyline)); }
 					case -26:
 						break;
 					case 26:
-						{ return new Symbol(TokenIds.LEX_ERROR,
-                            new Token("UNTERMINATED_STRING", yytext(), yyline)); }
+						{  }
 					case -27:
 						break;
 					case 27:
-						{  }
+						{ return new Symbol(TokenIds.LEX_ERROR,
+						                                    new Token("UNTERMINATED_COMMENT", yyline)); }
 					case -28:
 						break;
 					case 28:
-						{ return new Symbol(TokenIds.LEX_ERROR,
-						                                    new Token("UNTERMINATED_COMMENT", yyline)); }
+						{ return new Symbol(TokenIds.IF,
+						    new Token("IF", yyline)); }
 					case -29:
 						break;
 					case 29:
-						{ return new Symbol(TokenIds.IF,
-						    new Token("IF", yyline)); }
+						{ return new Symbol(TokenIds.EQ,
+						    new Token("EQ", yyline)); }
 					case -30:
 						break;
 					case 30:
-						{ return new Symbol(TokenIds.EQ,
-						    new Token("EQ", yyline)); }
+						{ return new Symbol(TokenIds.DECR,
+						    new Token("DECR", yyline)); }
 					case -31:
 						break;
 					case 31:
-						{ return new Symbol(TokenIds.DECR,
-						    new Token("DECR", yyline)); }
+						{ return new Symbol(TokenIds.INCR,
+						    new Token("INCR", yyline)); }
 					case -32:
 						break;
 					case 32:
-						{ return new Symbol(TokenIds.INCR,
-						    new Token("INCR", yyline)); }
+						{ return new Symbol(TokenIds.NE,
+						    new Token("NE", yyline)); }
 					case -33:
 						break;
 					case 33:
-						{ return new Symbol(TokenIds.NE,
-						    new Token("NE", yyline)); }
+						{ return new Symbol(TokenIds.AND,
+						    new Token("AND", yyline)); }
 					case -34:
 						break;
 					case 34:
@@ -790,7 +791,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 40:
 						{ return new Symbol(TokenIds.LEX_ERROR,
-                            new Token("MULTILINE_STRING", yyline)); }
+                                  new Token("MULTILINE_STRING", yyline)); }
 					case -41:
 						break;
 					case 41:
@@ -843,6 +844,11 @@ public class Lexer implements java_cup.runtime.Scanner {
 					case -51:
 						break;
 					case 52:
+						{ throw new RuntimeException("Unmatched lexeme " +
+                          yytext() + " at line " + yyline); }
+					case -52:
+						break;
+					case 53:
 						{
     int initialChar = yytext().charAt(0);
     if(initialChar == '_' || initialChar == '$' || Character.isDigit(initialChar)) {
@@ -851,35 +857,24 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -52:
-						break;
-					case 53:
-						{ return new Symbol(TokenIds.LEX_ERROR,
-                            new Token("ILLEGAL_CHAR", yytext(), yyline)); }
 					case -53:
 						break;
 					case 54:
 						{ return new Symbol(TokenIds.LEX_ERROR,
-                            new Token("UNTERMINATED_STRING", yytext(), yyline)); }
+                                  new Token("ILLEGAL_CHAR", yytext(), yyline)); }
 					case -54:
 						break;
-					case 56:
-						{
-    int initialChar = yytext().charAt(0);
-    if(initialChar == '_' || initialChar == '$' || Character.isDigit(initialChar)) {
-        return new Symbol(TokenIds.LEX_ERROR, new Token("ILLEGAL_ID", yytext(), yyline));
-    }
-    return new Symbol(TokenIds.ID,
-    new Token("ID", yytext(), yyline));
-}
+					case 55:
+						{ return new Symbol(TokenIds.LEX_ERROR,
+                                  new Token("UNTERMINATED_STRING", yytext(), yyline)); }
 					case -55:
 						break;
-					case 57:
+					case 56:
 						{ return new Symbol(TokenIds.LEX_ERROR,
-                            new Token("UNTERMINATED_STRING", yytext(), yyline)); }
+                                  new Token("MULTILINE_STRING", yyline)); }
 					case -56:
 						break;
-					case 59:
+					case 58:
 						{
     int initialChar = yytext().charAt(0);
     if(initialChar == '_' || initialChar == '$' || Character.isDigit(initialChar)) {
@@ -890,6 +885,11 @@ public class Lexer implements java_cup.runtime.Scanner {
 }
 					case -57:
 						break;
+					case 59:
+						{ return new Symbol(TokenIds.LEX_ERROR,
+                                  new Token("UNTERMINATED_STRING", yytext(), yyline)); }
+					case -58:
+						break;
 					case 61:
 						{
     int initialChar = yytext().charAt(0);
@@ -899,7 +899,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -58:
+					case -59:
 						break;
 					case 62:
 						{
@@ -910,7 +910,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -59:
+					case -60:
 						break;
 					case 63:
 						{
@@ -921,7 +921,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -60:
+					case -61:
 						break;
 					case 64:
 						{
@@ -932,7 +932,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -61:
+					case -62:
 						break;
 					case 65:
 						{
@@ -943,7 +943,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -62:
+					case -63:
 						break;
 					case 66:
 						{
@@ -954,7 +954,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -63:
+					case -64:
 						break;
 					case 67:
 						{
@@ -965,7 +965,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -64:
+					case -65:
 						break;
 					case 68:
 						{
@@ -976,7 +976,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -65:
+					case -66:
 						break;
 					case 69:
 						{
@@ -987,7 +987,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -66:
+					case -67:
 						break;
 					case 70:
 						{
@@ -998,7 +998,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -67:
+					case -68:
 						break;
 					case 71:
 						{
@@ -1009,7 +1009,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -68:
+					case -69:
 						break;
 					case 72:
 						{
@@ -1020,7 +1020,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -69:
+					case -70:
 						break;
 					case 73:
 						{
@@ -1031,7 +1031,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -70:
+					case -71:
 						break;
 					case 74:
 						{
@@ -1042,7 +1042,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -71:
+					case -72:
 						break;
 					case 75:
 						{
@@ -1053,7 +1053,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -72:
+					case -73:
 						break;
 					case 76:
 						{
@@ -1064,7 +1064,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -73:
+					case -74:
 						break;
 					case 77:
 						{
@@ -1075,7 +1075,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -74:
+					case -75:
 						break;
 					case 78:
 						{
@@ -1086,7 +1086,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -75:
+					case -76:
 						break;
 					case 79:
 						{
@@ -1097,7 +1097,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -76:
+					case -77:
 						break;
 					case 80:
 						{
@@ -1108,7 +1108,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -77:
+					case -78:
 						break;
 					case 81:
 						{
@@ -1119,7 +1119,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -78:
+					case -79:
 						break;
 					case 82:
 						{
@@ -1130,7 +1130,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -79:
+					case -80:
 						break;
 					case 83:
 						{
@@ -1141,7 +1141,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -80:
+					case -81:
 						break;
 					case 84:
 						{
@@ -1152,7 +1152,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -81:
+					case -82:
 						break;
 					case 85:
 						{
@@ -1163,7 +1163,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -82:
+					case -83:
 						break;
 					case 86:
 						{
@@ -1174,7 +1174,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -83:
+					case -84:
 						break;
 					case 87:
 						{
@@ -1185,7 +1185,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -84:
+					case -85:
 						break;
 					case 88:
 						{
@@ -1196,7 +1196,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -85:
+					case -86:
 						break;
 					case 89:
 						{
@@ -1207,7 +1207,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -86:
+					case -87:
 						break;
 					case 90:
 						{
@@ -1218,7 +1218,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -87:
+					case -88:
 						break;
 					case 91:
 						{
@@ -1229,7 +1229,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -88:
+					case -89:
 						break;
 					case 92:
 						{
@@ -1240,7 +1240,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -89:
+					case -90:
 						break;
 					case 93:
 						{
@@ -1251,7 +1251,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -90:
+					case -91:
 						break;
 					case 94:
 						{
@@ -1262,7 +1262,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -91:
+					case -92:
 						break;
 					case 95:
 						{
@@ -1273,7 +1273,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -92:
+					case -93:
 						break;
 					case 96:
 						{
@@ -1284,7 +1284,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -93:
+					case -94:
 						break;
 					case 97:
 						{
@@ -1295,7 +1295,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -94:
+					case -95:
 						break;
 					case 98:
 						{
@@ -1306,7 +1306,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -95:
+					case -96:
 						break;
 					case 99:
 						{
@@ -1317,7 +1317,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -96:
+					case -97:
 						break;
 					case 100:
 						{
@@ -1328,7 +1328,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -97:
+					case -98:
 						break;
 					case 101:
 						{
@@ -1339,7 +1339,7 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -98:
+					case -99:
 						break;
 					case 102:
 						{
@@ -1350,7 +1350,18 @@ public class Lexer implements java_cup.runtime.Scanner {
     return new Symbol(TokenIds.ID,
     new Token("ID", yytext(), yyline));
 }
-					case -99:
+					case -100:
+						break;
+					case 103:
+						{
+    int initialChar = yytext().charAt(0);
+    if(initialChar == '_' || initialChar == '$' || Character.isDigit(initialChar)) {
+        return new Symbol(TokenIds.LEX_ERROR, new Token("ILLEGAL_ID", yytext(), yyline));
+    }
+    return new Symbol(TokenIds.ID,
+    new Token("ID", yytext(), yyline));
+}
+					case -101:
 						break;
 					default:
 						yy_error(YY_E_INTERNAL,false);
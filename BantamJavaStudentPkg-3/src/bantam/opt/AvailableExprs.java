@@ -0,0 +1,92 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>AvailableExprs</tt> class computes the available
+  * expressions of a subroutine: a forward "must" problem whose facts
+  * are the expressions of an ExprTable.  An expression is available
+  * at a point if every path from the entrance computes it and does
+  * not redefine its operands afterwards.  A call kills the expressions
+  * reading fields.
+  * */
+class AvailableExprs extends Dataflow {
+    /** Expressions of the subroutine */
+    private ExprTable exprs;
+
+    /** AvailableExprs constructor (solves the problem)
+      * @param entrance entrance block of a numbered subroutine
+      * @param exprs expressions of the subroutine (shared with other analyses)
+      * */
+    AvailableExprs(BasicBlock entrance, ExprTable exprs) {
+	super(entrance, true, false);
+	this.exprs = exprs;
+	solve();
+    }
+
+    /** Get the number of facts
+      * @return number of expressions
+      * */
+    int size() {
+	exprs.scan(entrance);
+	return exprs.size();
+    }
+
+    /** Get the value at the entrance
+      * @return no expressions
+      * */
+    BitSet boundary() {
+	return new BitSet();
+    }
+
+    /** Compute the gen and kill sets of an instruction
+      * @param inst instruction
+      * @param gen empty set receiving the expression computed (unless the
+      * instruction redefines one of its operands)
+      * @param kill empty set receiving the expressions reading the
+      * variable defined
+      * */
+    void transfer(TACInst inst, BitSet gen, BitSet kill) {
+	int def = inst.getDefId();
+	if (def >= 0)
+	    exprs.addUsers(def, kill);
+	if (inst.isCall())
+	    exprs.addUsers(getFields(), kill);
+	int e = exprs.lookup(inst);
+	if (e >= 0 && !kill.get(e))
+	    gen.set(e);
+    }
+
+    /** Get the expressions this analysis works on
+      * @return expression table
+      * */
+    ExprTable getExprTable() {
+	return exprs;
+    }
+}
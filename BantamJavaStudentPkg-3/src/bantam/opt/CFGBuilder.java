@@ -0,0 +1,1283 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+import bantam.ast.*;
+import bantam.util.*;
+import bantam.visitor.Visitor;
+
+import java.util.*;
+
+/** The <tt>CFGBuilder</tt> class lowers the typed AST of the
+  * initialization subroutines and methods into control flow graphs
+  * of basic blocks containing three-address code.
+  *
+  * Variables are named as TACInst.checkVar expects: parameters are
+  * <tt>x@p</tt>, locals <tt>x@l</tt>, fields of <tt>this</tt>
+  * <tt>x@f_C</tt> (C is the class declaring the field), and the
+  * temporaries of a subroutine <tt>@tN</tt> (ints, booleans, and
+  * addresses) or <tt>@oN</tt> (object references).
+  *
+  * The code follows the layout of the runtime: an object holds its
+  * class id at index 0, its size at index 1, its dispatch table at
+  * index 2, and its fields from index 3 (those of its parent first);
+  * an array holds its length at index 3 and its elements from index 4.
+  * Class ids are assigned in depth-first order, so the subclasses of a
+  * class have the ids right after it, up to the id of its last
+  * descendant.  An array of class C has the type id
+  * (number of classes + id of C), int[] and boolean[] follow the array
+  * types of the classes.  Objects are created by cloning their template
+  * (<tt>Object.clone</tt>) and calling the initialization subroutine,
+  * arrays by the runtime subroutine <tt>_new_array</tt> (length and type
+  * id).  The array store check reads the id of the last descendant of
+  * the element class from <tt>class_max_id_table</tt>.
+  *
+  * Every run-time check (null receiver or array, array index and size,
+  * division by zero, class cast, and array store) is an explicit IF
+  * branching to a block that passes the error parameters and calls the
+  * error subroutine of the runtime, so later passes can remove the
+  * checks they prove redundant.
+  * */
+class CFGBuilder extends Visitor {
+    /** Index of the class id in an object */
+    static final int CLASS_ID_INDEX = 0;
+
+    /** Index of the dispatch table in an object */
+    static final int DISPATCH_INDEX = 2;
+
+    /** Index of the first field in an object */
+    static final int FIELDS_INDEX = 3;
+
+    /** Index of the length in an array */
+    static final int LENGTH_INDEX = 3;
+
+    /** Index of the first element in an array */
+    static final int ELEMENTS_INDEX = 4;
+
+    /** Class ids (depth-first order) by class name */
+    private HashMap<String, Integer> classIds = new HashMap<String, Integer>();
+
+    /** Id of the last descendant of each class by class name */
+    private HashMap<String, Integer> maxIds = new HashMap<String, Integer>();
+
+    /** Dispatch tables (labels "Class.method" in slot order) by class name */
+    private HashMap<String, Vector<String>> dispatchTables = new HashMap<String, Vector<String>>();
+
+    /** Class whose code is being lowered */
+    private ClassTreeNode currClass;
+
+    /** Source file of the current class (quoted, for error parameters) */
+    private String filename;
+
+    /** Local scopes (names to TAC variables) of the current subroutine */
+    private Vector<HashMap<String, String>> scopes = new Vector<HashMap<String, String>>();
+
+    /** Number of temporaries created in the current subroutine */
+    private int numTemps;
+
+    /** All the blocks created for the current subroutine */
+    private Vector<BasicBlock> blocks = new Vector<BasicBlock>();
+
+    /** Block receiving the instructions */
+    private BasicBlock current;
+
+    /** Loop and if counts of the blocks being created */
+    private int loopCnt, ifCnt;
+
+    /** Temporaries holding newly created objects and arrays (never null) */
+    private HashSet<String> newObjects = new HashSet<String>();
+
+    /** Exit blocks of the enclosing loops (innermost last), targets of break */
+    private Vector<BasicBlock> breakTargets = new Vector<BasicBlock>();
+
+    /** Class hierarchy used to make dynamic dispatches direct (null to
+      * keep them all dynamic) */
+    private ClassHierarchy hierarchy;
+
+    /** Number of dynamic dispatches made direct */
+    private int numDevirtualized;
+
+    /** CFGBuilder constructor
+      * @param orderedClassList class tree nodes in depth-first order
+      * @param hierarchy class hierarchy of the program, used to make the
+      * dispatches that can only reach one method direct (null for none)
+      * */
+    CFGBuilder(Vector<ClassTreeNode> orderedClassList, ClassHierarchy hierarchy) {
+	this.hierarchy = hierarchy;
+	for (int i = 0; i < orderedClassList.size(); i++) {
+	    ClassTreeNode ctn = orderedClassList.elementAt(i);
+	    classIds.put(ctn.getName(), i);
+	}
+	// a class is followed by its descendants, so the last descendant is
+	// the last class before a class that is not below it
+	for (int i = 0; i < orderedClassList.size(); i++) {
+	    ClassTreeNode ctn = orderedClassList.elementAt(i);
+	    int last = i;
+	    while (last + 1 < orderedClassList.size() &&
+		   isSubclass(orderedClassList.elementAt(last + 1), ctn))
+		last++;
+	    maxIds.put(ctn.getName(), last);
+	    buildDispatchTable(ctn);
+	}
+    }
+
+    /** Check whether a class is a (non-strict) subclass of another
+      * @param ctn class to check
+      * @param ancestor possible ancestor
+      * @return true if ctn is ancestor or one of its descendants
+      * */
+    private static boolean isSubclass(ClassTreeNode ctn, ClassTreeNode ancestor) {
+	for (; ctn != null; ctn = ctn.getParent())
+	    if (ctn == ancestor)
+		return true;
+	return false;
+    }
+
+    /** Build the dispatch table of a class: the table of the parent with
+      * the overridden methods replaced, followed by the new methods
+      * (the parent's table must already be built)
+      * @param ctn the class
+      * */
+    private void buildDispatchTable(ClassTreeNode ctn) {
+	Vector<String> table = new Vector<String>();
+	if (ctn.getParent() != null)
+	    table.addAll(dispatchTables.get(ctn.getParent().getName()));
+	Iterator<ASTNode> iter = ctn.getASTNode().getMemberList().iterator();
+	while (iter.hasNext()) {
+	    Member m = (Member)iter.next();
+	    if (m instanceof Method) {
+		String name = ((Method)m).getName();
+		int slot = findSlot(table, name);
+		if (slot >= 0)
+		    table.set(slot, ctn.getName() + "." + name);
+		else
+		    table.add(ctn.getName() + "." + name);
+	    }
+	}
+	dispatchTables.put(ctn.getName(), table);
+    }
+
+    /** Find the slot of a method in a dispatch table
+      * @param table dispatch table
+      * @param name method name
+      * @return slot (-1 if not found)
+      * */
+    private static int findSlot(Vector<String> table, String name) {
+	for (int i = 0; i < table.size(); i++)
+	    if (table.elementAt(i).endsWith("." + name))
+		return i;
+	return -1;
+    }
+
+    /** Build the control flow graph of the initialization subroutine of a
+      * class: initialize the parent part of the object and then the fields
+      * with initializers
+      * @param ctn the class
+      * @return entrance block
+      * */
+    BasicBlock buildInit(ClassTreeNode ctn) {
+	BasicBlock entrance = startSubroutine(ctn, ctn.getASTNode().getLineNum());
+	if (ctn.getParent() != null) {
+	    emit(new RefParamInst("this"));
+	    emit(new DirCallInst(ctn.getParent().getName() + "_init", null, 1));
+	}
+	Iterator<ASTNode> iter = ctn.getASTNode().getMemberList().iterator();
+	while (iter.hasNext()) {
+	    Member m = (Member)iter.next();
+	    if (m instanceof Field && ((Field)m).getInit() != null) {
+		Field f = (Field)m;
+		move(fieldVar(ctn, f.getName()), lower(f.getInit()));
+	    }
+	}
+	emit(new ReturnInst(null));
+	return endSubroutine(entrance);
+    }
+
+    /** Build the control flow graph of a method
+      * @param ctn the class declaring the method
+      * @param method the method
+      * @return entrance block
+      * */
+    BasicBlock buildMethod(ClassTreeNode ctn, Method method) {
+	BasicBlock entrance = startSubroutine(ctn, method.getLineNum());
+	enterScope();
+	Iterator<ASTNode> iter = method.getFormalList().iterator();
+	while (iter.hasNext()) {
+	    Formal formal = (Formal)iter.next();
+	    scopes.lastElement().put(formal.getName(), formal.getName() + "@p");
+	}
+	lowerList(method.getStmtList());
+	exitScope();
+	// falling off the end of a method returns (void methods only, the
+	// semantic analyzer rejects others, whose end is unreachable)
+	emit(new ReturnInst(null));
+	return endSubroutine(entrance);
+    }
+
+    /** Get the number of dynamic dispatches made direct so far
+      * @return number of dispatches
+      * */
+    int getNumDevirtualized() {
+	return numDevirtualized;
+    }
+
+    /** Find the variables of a subroutine known to hold arrays: those
+      * indexed by a variable (the fields of an object are at constant
+      * indices) and those created by <tt>_new_array</tt>.  The entry at
+      * LENGTH_INDEX is the length of an array, but the first field of
+      * an object (see Inliner).
+      * @param blocks blocks of the subroutine
+      * @param operands operand table of the subroutine
+      * @return flags by operand identifier of the base variable (see
+      * OperandTable.getBase)
+      * */
+    static boolean[] findArrays(Vector<BasicBlock> blocks, OperandTable operands) {
+	boolean[] arrays = new boolean[operands.size()];
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		int[] uses = inst.getUseIds();
+		if (inst.getOpcode() == TACInst.LDENTRY && operands.isVar(uses[1]))
+		    arrays[operands.getBase(uses[0])] = true;
+		else if (inst.getOpcode() == TACInst.STENTRY && operands.isVar(uses[2]))
+		    arrays[operands.getBase(uses[0])] = true;
+		else if (inst.getOpcode() == TACInst.DIRCALL && inst.getDefId() >= 0 &&
+			 ((CallInst)inst).getTarget().equals("_new_array"))
+		    arrays[operands.getBase(inst.getDefId())] = true;
+	    }
+	}
+	return arrays;
+    }
+
+    /** Is an entry of an object or array never written after allocation?
+      * @param operands operand table of the subroutine
+      * @param index identifier of the index
+      * @param isArray flag indicating whether the object is known to be
+      * an array (see findArrays)
+      * @return flag indicating whether the index is a constant below
+      * FIELDS_INDEX (class id, size, or dispatch table), or the length
+      * of an array
+      * */
+    static boolean isHeaderEntry(OperandTable operands, int index, boolean isArray) {
+	if (operands.getKind(index) != OperandTable.INT_CONST)
+	    return false;
+	int value = operands.getIntValue(index);
+	return value < FIELDS_INDEX || (isArray && value == LENGTH_INDEX);
+    }
+
+    /** Start lowering a subroutine
+      * @param ctn class of the subroutine
+      * @param lineNum source line of the subroutine
+      * @return entrance block
+      * */
+    private BasicBlock startSubroutine(ClassTreeNode ctn, int lineNum) {
+	currClass = ctn;
+	filename = "\"" + ctn.getASTNode().getFilename() + "\"";
+	scopes.clear();
+	blocks.clear();
+	breakTargets.clear();
+	newObjects.clear();
+	numTemps = 0;
+	loopCnt = ifCnt = 0;
+	current = newBlock(lineNum);
+	return current;
+    }
+
+    /** Finish lowering a subroutine: unlink the blocks that cannot be
+      * reached (code after return and break, and branches on constants)
+      * so that reachable blocks only have reachable predecessors
+      * @param entrance entrance block
+      * @return entrance block
+      * */
+    private BasicBlock endSubroutine(BasicBlock entrance) {
+	HashSet<BasicBlock> reached = new HashSet<BasicBlock>();
+	Vector<BasicBlock> worklist = new Vector<BasicBlock>();
+	reached.add(entrance);
+	worklist.add(entrance);
+	while (worklist.size() > 0) {
+	    BasicBlock bb = worklist.remove(worklist.size() - 1);
+	    for (int i = 0; i < bb.getNumOutEdges(); i++) {
+		BasicBlock next = bb.getNthOutEdge(i);
+		if (reached.add(next))
+		    worklist.add(next);
+	    }
+	}
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    if (!reached.contains(bb))
+		while (bb.getNumOutEdges() > 0)
+		    bb.removeOutEdge(bb.getNthOutEdge(0));
+	}
+	blocks.clear();
+	return entrance;
+    }
+
+    // blocks and instructions
+
+    /** Create a block with the current loop and if counts
+      * @param lineNum source line of the block
+      * @return the block
+      * */
+    private BasicBlock newBlock(int lineNum) {
+	BasicBlock bb = new BasicBlock(Math.max(lineNum, 0), loopCnt, ifCnt);
+	blocks.add(bb);
+	return bb;
+    }
+
+    /** Append an instruction to the current block */
+    private void emit(TACInst inst) {
+	current.addInst(inst);
+    }
+
+    /** End the current block with a jump to another block */
+    private void jump(BasicBlock target) {
+	current.addOutEdge(target);
+    }
+
+    /** End the current block with a conditional branch
+      * @param type IfInst comparison type
+      * @param left left operand
+      * @param right right operand
+      * @param trueTarg block taken if the comparison holds
+      * @param falseTarg block taken otherwise
+      * */
+    private void branch(int type, String left, String right,
+			BasicBlock trueTarg, BasicBlock falseTarg) {
+	emit(new IfInst(type, left, right, trueTarg, falseTarg));
+	current.addOutEdge(trueTarg);
+	current.addOutEdge(falseTarg);
+    }
+
+    /** End the current block with a return and continue in a new
+      * (unreachable) block
+      * @param source returned value (null for none)
+      * @param lineNum source line
+      * */
+    private void ret(String source, int lineNum) {
+	emit(new ReturnInst(source));
+	current = newBlock(lineNum);
+    }
+
+    /** Create a new temporary
+      * @param type Bantam type of the value it holds
+      * @return temporary name
+      * */
+    private String newTemp(String type) {
+	if (type == null || type.equals("int") || type.equals("boolean"))
+	    return "@t" + numTemps++;
+	return "@o" + numTemps++;
+    }
+
+    /** Copy an operand into a variable */
+    private void move(String dest, String source) {
+	if (TACInst.checkConst(source))
+	    emit(new LoadConstInst(dest, source));
+	else if (!dest.equals(source))
+	    emit(new LoadVarInst(dest, source));
+    }
+
+    /** Check whether an operand names a source variable (parameter, local,
+      * or field), which later code may assign
+      * */
+    private static boolean isSourceVar(String operand) {
+	return operand.indexOf('@') > 0;
+    }
+
+    /** Keep an operand from being changed by code lowered after it: a
+      * source variable is copied into a temporary if any of the later
+      * expressions may assign variables
+      * @param operand the operand
+      * @param type Bantam type of the operand
+      * @param later expressions evaluated before the operand is used
+      * @return operand to use
+      * */
+    private String stable(String operand, String type, Expr... later) {
+	if (!isSourceVar(operand) || !WriteFinder.mayWrite(operand.contains("@f_"), later))
+	    return operand;
+	String temp = newTemp(type);
+	move(temp, operand);
+	return temp;
+    }
+
+    // scopes and names
+
+    /** Enter a new local scope */
+    private void enterScope() {
+	scopes.add(new HashMap<String, String>());
+    }
+
+    /** Exit the innermost local scope */
+    private void exitScope() {
+	scopes.removeElementAt(scopes.size() - 1);
+    }
+
+    /** Get the variable of a name that is not qualified with this or super
+      * @param name source name
+      * @return parameter or local if declared, field of the current class otherwise
+      * */
+    private String lookupVar(String name) {
+	for (int i = scopes.size() - 1; i >= 0; i--) {
+	    String var = scopes.elementAt(i).get(name);
+	    if (var != null)
+		return var;
+	}
+	return fieldVar(currClass, name);
+    }
+
+    /** Get the variable of a field
+      * @param ctn class where the lookup starts
+      * @param name field name
+      * @return field variable, named after the declaring class
+      * */
+    private static String fieldVar(ClassTreeNode ctn, String name) {
+	for (; ctn != null; ctn = ctn.getParent()) {
+	    Iterator<ASTNode> iter = ctn.getASTNode().getMemberList().iterator();
+	    while (iter.hasNext()) {
+		Member m = (Member)iter.next();
+		if (m instanceof Field && ((Field)m).getName().equals(name))
+		    return name + "@f_" + ctn.getName();
+	    }
+	}
+	throw new RuntimeException("Internal error: field " + name + " not found");
+    }
+
+    /** Get the class a this/super qualifier refers to */
+    private ClassTreeNode refClass(String refName) {
+	return refName.equals("super") ? currClass.getParent() : currClass;
+    }
+
+    /** Get the variable of a possibly qualified name
+      * @param refName "this", "super", or null
+      * @param name source name
+      * @return the variable
+      * */
+    private String qualifiedVar(String refName, String name) {
+	if (refName == null)
+	    return lookupVar(name);
+	return fieldVar(refClass(refName), name);
+    }
+
+    // run-time checks
+
+    /** Create a block calling an error subroutine
+      * @param routine label of the error subroutine
+      * @param lineNum source line of the error
+      * @param params additional error parameters
+      * @return the error block
+      * */
+    private BasicBlock errorBlock(String routine, int lineNum, ErrParamInst... params) {
+	BasicBlock saved = current;
+	current = newBlock(lineNum);
+	BasicBlock error = current;
+	emit(new ErrParamInst(ErrParamInst.FILENAME, filename));
+	emit(new ErrParamInst(ErrParamInst.LINENUM, String.valueOf(Math.max(lineNum, 0))));
+	for (int i = 0; i < params.length; i++)
+	    emit(params[i]);
+	emit(new DirCallInst(routine, null, 0));
+	// the error subroutine does not return
+	emit(new ReturnInst(null));
+	current = saved;
+	return error;
+    }
+
+    /** Branch to an error block if a comparison holds and continue in a
+      * new block otherwise */
+    private void check(int type, String left, String right, BasicBlock error, int lineNum) {
+	BasicBlock next = newBlock(lineNum);
+	branch(type, left, right, error, next);
+	current = next;
+    }
+
+    /** Check that a reference is not null (this, string constants, and
+      * new objects never are)
+      * @param ref the reference
+      * @param lineNum source line
+      * @return the reference as a variable or string constant
+      * */
+    private String checkNull(String ref, int lineNum) {
+	if (ref.equals("this") || TACInst.checkStrConst(ref) || newObjects.contains(ref))
+	    return ref;
+	if (TACInst.checkConst(ref)) {
+	    String temp = newTemp("Object");
+	    move(temp, ref);
+	    ref = temp;
+	}
+	check(IfInst.EQ, ref, "null", errorBlock("_null_pointer_error", lineNum), lineNum);
+	return ref;
+    }
+
+    /** Check that an array index is within bounds
+      * @param array the array (not null)
+      * @param index the index
+      * @param lineNum source line
+      * */
+    private void checkIndex(String array, String index, int lineNum) {
+	String length = newTemp("int");
+	emit(new LoadEntryInst(length, array, String.valueOf(LENGTH_INDEX)));
+	BasicBlock error = errorBlock("_array_index_error", lineNum,
+				      new ErrParamInst(ErrParamInst.ARRAYIDXID, index));
+	if (!TACInst.checkIntConst(index) || Integer.parseInt(index) < 0)
+	    check(IfInst.LT, index, "0", error, lineNum);
+	check(IfInst.GE, index, length, error, lineNum);
+    }
+
+    /** Get the index of an array element in the array object
+      * @param index element index (checked)
+      * @return entry index
+      * */
+    private String elementIndex(String index) {
+	if (TACInst.checkIntConst(index))
+	    return String.valueOf(Integer.parseInt(index) + ELEMENTS_INDEX);
+	String entry = newTemp("int");
+	emit(new BinaryAddInst(entry, index, String.valueOf(ELEMENTS_INDEX)));
+	return entry;
+    }
+
+    /** Check that a divisor is not zero */
+    private void checkDivisor(String divisor, int lineNum) {
+	if (TACInst.checkIntConst(divisor) && Integer.parseInt(divisor) != 0)
+	    return;
+	check(IfInst.EQ, divisor, "0", errorBlock("_divide_zero_error", lineNum), lineNum);
+    }
+
+    // types
+
+    /** Get the run-time type id of a class or array type
+      * @param type type name
+      * @return type id
+      * */
+    private int typeId(String type) {
+	if (!type.endsWith("[]"))
+	    return classIds.get(type);
+	String elementType = type.substring(0, type.length() - 2);
+	if (elementType.equals("int"))
+	    return 2 * classIds.size();
+	else if (elementType.equals("boolean"))
+	    return 2 * classIds.size() + 1;
+	return classIds.size() + classIds.get(elementType);
+    }
+
+    /** Get the largest type id of a type and its subtypes */
+    private int maxTypeId(String type) {
+	if (!type.endsWith("[]"))
+	    return maxIds.get(type);
+	String elementType = type.substring(0, type.length() - 2);
+	if (elementType.equals("int") || elementType.equals("boolean"))
+	    return typeId(type);
+	return classIds.size() + maxIds.get(elementType);
+    }
+
+    /** Check whether a class or array type is a subtype of another
+      * @param type the type
+      * @param target the possible supertype
+      * @return true if every value of type is a value of target
+      * */
+    private boolean isSubtype(String type, String target) {
+	if (target.equals("Object") || type.equals(target))
+	    return true;
+	int id = typeId(type);
+	return typeId(target) <= id && id <= maxTypeId(target);
+    }
+
+    /** Branch on whether a non-null object is an instance of a type
+      * @param obj the object
+      * @param type class or array type
+      * @param trueTarg block taken if it is
+      * @param falseTarg block taken otherwise
+      * @param lineNum source line
+      * */
+    private void typeTest(String obj, String type, BasicBlock trueTarg,
+			  BasicBlock falseTarg, int lineNum) {
+	if (type.equals("Object")) {
+	    jump(trueTarg);
+	    return;
+	}
+	String id = newTemp("int");
+	emit(new LoadEntryInst(id, obj, String.valueOf(CLASS_ID_INDEX)));
+	int lo = typeId(type), hi = maxTypeId(type);
+	if (lo == hi) {
+	    branch(IfInst.EQ, id, String.valueOf(lo), trueTarg, falseTarg);
+	    return;
+	}
+	BasicBlock next = newBlock(lineNum);
+	branch(IfInst.LT, id, String.valueOf(lo), falseTarg, next);
+	current = next;
+	branch(IfInst.LE, id, String.valueOf(hi), trueTarg, falseTarg);
+    }
+
+    /** Check whether a type is int or boolean */
+    private static boolean isPrimitive(String type) {
+	return type.equals("int") || type.equals("boolean");
+    }
+
+    // statements
+
+    /** Lower a statement list */
+    private void lowerList(StmtList list) {
+	for (int i = 0; i < list.getSize(); i++)
+	    list.get(i).accept(this);
+    }
+
+    /** Lower a statement in its own scope */
+    private void lowerScoped(Stmt stmt) {
+	enterScope();
+	stmt.accept(this);
+	exitScope();
+    }
+
+    public Object visit(DeclStmt node) {
+	// lower the initializer before the variable comes into scope
+	String init;
+	if (node.getInit() != null)
+	    init = lower(node.getInit());
+	else if (isPrimitive(node.getType()))
+	    init = node.getType().equals("int") ? "0" : "false";
+	else
+	    init = "null";
+	String var = node.getName() + "@l";
+	scopes.lastElement().put(node.getName(), var);
+	move(var, init);
+	return null;
+    }
+
+    public Object visit(ExprStmt node) {
+	lower(node.getExpr());
+	return null;
+    }
+
+    public Object visit(IfStmt node) {
+	BasicBlock join = newBlock(node.getLineNum());
+	ifCnt++;
+	BasicBlock thenBlock = newBlock(node.getThenStmt().getLineNum());
+	BasicBlock elseBlock = (node.getElseStmt() == null) ? null
+	    : newBlock(node.getElseStmt().getLineNum());
+	lowerCond(node.getPredExpr(), thenBlock, (elseBlock == null) ? join : elseBlock);
+	current = thenBlock;
+	lowerScoped(node.getThenStmt());
+	jump(join);
+	if (elseBlock != null) {
+	    current = elseBlock;
+	    lowerScoped(node.getElseStmt());
+	    jump(join);
+	}
+	ifCnt--;
+	current = join;
+	return null;
+    }
+
+    public Object visit(WhileStmt node) {
+	BasicBlock exit = newBlock(node.getLineNum());
+	loopCnt++;
+	BasicBlock header = newBlock(node.getPredExpr().getLineNum());
+	BasicBlock body = newBlock(node.getBodyStmt().getLineNum());
+	jump(header);
+	current = header;
+	lowerCond(node.getPredExpr(), body, exit);
+	current = body;
+	breakTargets.add(exit);
+	lowerScoped(node.getBodyStmt());
+	breakTargets.removeElementAt(breakTargets.size() - 1);
+	jump(header);
+	loopCnt--;
+	current = exit;
+	return null;
+    }
+
+    public Object visit(ForStmt node) {
+	if (node.getInitExpr() != null)
+	    lower(node.getInitExpr());
+	BasicBlock exit = newBlock(node.getLineNum());
+	loopCnt++;
+	BasicBlock header = newBlock(node.getLineNum());
+	BasicBlock body = newBlock(node.getBodyStmt().getLineNum());
+	BasicBlock update = newBlock(node.getLineNum());
+	jump(header);
+	current = header;
+	if (node.getPredExpr() != null)
+	    lowerCond(node.getPredExpr(), body, exit);
+	else
+	    jump(body);
+	current = body;
+	breakTargets.add(exit);
+	lowerScoped(node.getBodyStmt());
+	breakTargets.removeElementAt(breakTargets.size() - 1);
+	jump(update);
+	current = update;
+	if (node.getUpdateExpr() != null)
+	    lower(node.getUpdateExpr());
+	jump(header);
+	loopCnt--;
+	current = exit;
+	return null;
+    }
+
+    public Object visit(BreakStmt node) {
+	jump(breakTargets.lastElement());
+	current = newBlock(node.getLineNum());
+	return null;
+    }
+
+    public Object visit(BlockStmt node) {
+	enterScope();
+	lowerList(node.getStmtList());
+	exitScope();
+	return null;
+    }
+
+    public Object visit(ReturnStmt node) {
+	String value = (node.getExpr() == null) ? null : lower(node.getExpr());
+	ret(value, node.getLineNum());
+	return null;
+    }
+
+    // conditions
+
+    /** Lower a boolean expression as branches
+      * @param expr the expression
+      * @param trueTarg block taken if it is true
+      * @param falseTarg block taken if it is false
+      * */
+    private void lowerCond(Expr expr, BasicBlock trueTarg, BasicBlock falseTarg) {
+	if (expr instanceof ConstBooleanExpr) {
+	    boolean value = ((ConstBooleanExpr)expr).getConstant().equals("true");
+	    jump(value ? trueTarg : falseTarg);
+	}
+	else if (expr instanceof UnaryNotExpr)
+	    lowerCond(((UnaryNotExpr)expr).getExpr(), falseTarg, trueTarg);
+	else if (expr instanceof BinaryLogicAndExpr) {
+	    BinaryExpr and = (BinaryExpr)expr;
+	    BasicBlock right = newBlock(expr.getLineNum());
+	    lowerCond(and.getLeftExpr(), right, falseTarg);
+	    current = right;
+	    lowerCond(and.getRightExpr(), trueTarg, falseTarg);
+	}
+	else if (expr instanceof BinaryLogicOrExpr) {
+	    BinaryExpr or = (BinaryExpr)expr;
+	    BasicBlock right = newBlock(expr.getLineNum());
+	    lowerCond(or.getLeftExpr(), trueTarg, right);
+	    current = right;
+	    lowerCond(or.getRightExpr(), trueTarg, falseTarg);
+	}
+	else if (expr instanceof BinaryCompExpr) {
+	    BinaryExpr comp = (BinaryExpr)expr;
+	    String left = stable(lower(comp.getLeftExpr()), comp.getLeftExpr().getExprType(),
+				 comp.getRightExpr());
+	    String right = lower(comp.getRightExpr());
+	    branch(compType(comp), left, right, trueTarg, falseTarg);
+	}
+	else if (expr instanceof InstanceofExpr) {
+	    InstanceofExpr test = (InstanceofExpr)expr;
+	    String obj = lower(test.getExpr());
+	    boolean nonNullObj = obj.equals("this") || TACInst.checkStrConst(obj) ||
+		newObjects.contains(obj);
+	    // (the semantic analyzer marks every instanceof as an up check)
+	    boolean upCheck = isSubtype(test.getExpr().getExprType(), test.getType());
+	    if (obj.equals("null"))
+		jump(falseTarg);
+	    else if (upCheck && nonNullObj)
+		jump(trueTarg);
+	    else if (upCheck)
+		branch(IfInst.NE, obj, "null", trueTarg, falseTarg);
+	    else {
+		if (!nonNullObj) {
+		    BasicBlock nonNull = newBlock(expr.getLineNum());
+		    branch(IfInst.EQ, obj, "null", falseTarg, nonNull);
+		    current = nonNull;
+		}
+		typeTest(obj, test.getType(), trueTarg, falseTarg, expr.getLineNum());
+	    }
+	}
+	else
+	    branch(IfInst.EQ, lower(expr), "true", trueTarg, falseTarg);
+    }
+
+    /** Get the IfInst type of a comparison */
+    private static int compType(BinaryExpr comp) {
+	if (comp instanceof BinaryCompEqExpr)
+	    return IfInst.EQ;
+	else if (comp instanceof BinaryCompNeExpr)
+	    return IfInst.NE;
+	else if (comp instanceof BinaryCompLtExpr)
+	    return IfInst.LT;
+	else if (comp instanceof BinaryCompLeqExpr)
+	    return IfInst.LE;
+	else if (comp instanceof BinaryCompGtExpr)
+	    return IfInst.GT;
+	return IfInst.GE;
+    }
+
+    /** Lower a boolean expression into a temporary set on both branches */
+    private String lowerCondValue(Expr expr) {
+	String result = newTemp("boolean");
+	BasicBlock trueBlock = newBlock(expr.getLineNum());
+	BasicBlock falseBlock = newBlock(expr.getLineNum());
+	BasicBlock join = newBlock(expr.getLineNum());
+	lowerCond(expr, trueBlock, falseBlock);
+	current = trueBlock;
+	emit(new LoadConstInst(result, "true"));
+	jump(join);
+	current = falseBlock;
+	emit(new LoadConstInst(result, "false"));
+	jump(join);
+	current = join;
+	return result;
+    }
+
+    // expressions
+
+    /** Lower an expression
+      * @param expr the expression
+      * @return operand holding its value (variable or constant)
+      * */
+    private String lower(Expr expr) {
+	return (String)expr.accept(this);
+    }
+
+    public Object visit(DispatchExpr node) {
+	Expr ref = node.getRefExpr();
+	ExprList actuals = node.getActualList();
+	Expr[] args = new Expr[actuals.getSize()];
+	for (int i = 0; i < args.length; i++)
+	    args[i] = (Expr)actuals.get(i);
+	String type = node.getExprType();
+	String result = type.equals("void") ? null : newTemp(type);
+	int lineNum = node.getLineNum();
+
+	// super calls are not dynamically dispatched
+	if (ref instanceof VarExpr && ((VarExpr)ref).getRef() == null &&
+	    ((VarExpr)ref).getName().equals("super")) {
+	    String[] values = lowerArgs(args);
+	    emit(new RefParamInst("this"));
+	    for (int i = 0; i < values.length; i++)
+		emit(new StdParamInst(values[i]));
+	    Vector<String> table = dispatchTables.get(currClass.getParent().getName());
+	    String target = table.elementAt(findSlot(table, node.getMethodName()));
+	    emit(new DirCallInst(target, result, args.length + 1));
+	    return result;
+	}
+
+	String receiver = "this";
+	String refType = currClass.getName();
+	if (ref != null) {
+	    receiver = stable(lower(ref), ref.getExprType(), args);
+	    refType = ref.getExprType().endsWith("[]") ? "Object" : ref.getExprType();
+	    receiver = checkNull(receiver, lineNum);
+	}
+	String[] values = lowerArgs(args);
+	String target = null;
+	if (hierarchy != null)
+	    target = hierarchy.getTarget(ref == null ? refType : ref.getExprType(),
+					 node.getMethodName());
+	if (target != null) {
+	    // only one method can be reached (the receiver is not null)
+	    emit(new RefParamInst(receiver));
+	    for (int i = 0; i < values.length; i++)
+		emit(new StdParamInst(values[i]));
+	    emit(new DirCallInst(target, result, args.length + 1));
+	    numDevirtualized++;
+	    return result;
+	}
+	Vector<String> table = dispatchTables.get(refType);
+	String dispatch = newTemp("int");
+	String method = newTemp("int");
+	emit(new LoadEntryInst(dispatch, receiver, String.valueOf(DISPATCH_INDEX)));
+	emit(new LoadEntryInst(method, dispatch,
+			       String.valueOf(findSlot(table, node.getMethodName()))));
+	emit(new RefParamInst(receiver));
+	for (int i = 0; i < values.length; i++)
+	    emit(new StdParamInst(values[i]));
+	emit(new InDirCallInst(method, result, args.length + 1));
+	return result;
+    }
+
+    /** Lower actual parameters, in order
+      * @param args the actual parameters
+      * @return their operands
+      * */
+    private String[] lowerArgs(Expr[] args) {
+	String[] values = new String[args.length];
+	for (int i = 0; i < args.length; i++)
+	    values[i] = stable(lower(args[i]), args[i].getExprType(),
+			       Arrays.copyOfRange(args, i + 1, args.length));
+	return values;
+    }
+
+    public Object visit(NewExpr node) {
+	String template = newTemp("int");
+	String obj = newTemp(node.getType());
+	emit(new LoadAddrInst(template, node.getType() + "_template"));
+	emit(new RefParamInst(template));
+	emit(new DirCallInst("Object.clone", obj, 1));
+	emit(new RefParamInst(obj));
+	emit(new DirCallInst(node.getType() + "_init", null, 1));
+	newObjects.add(obj);
+	return obj;
+    }
+
+    public Object visit(NewArrayExpr node) {
+	String size = lower(node.getSize());
+	if (!TACInst.checkIntConst(size) || Integer.parseInt(size) < 0)
+	    check(IfInst.LT, size, "0",
+		  errorBlock("_array_size_error", node.getLineNum(),
+			     new ErrParamInst(ErrParamInst.ARRAYSIZEID, size)),
+		  node.getLineNum());
+	String array = newTemp(node.getType() + "[]");
+	emit(new StdParamInst(size));
+	emit(new StdParamInst(String.valueOf(typeId(node.getType() + "[]"))));
+	emit(new DirCallInst("_new_array", array, 2));
+	newObjects.add(array);
+	return array;
+    }
+
+    public Object visit(InstanceofExpr node) {
+	return lowerCondValue(node);
+    }
+
+    public Object visit(CastExpr node) {
+	String obj = lower(node.getExpr());
+	// upcasts always succeed, as does casting null
+	if (node.getUpCast() || obj.equals("null"))
+	    return obj;
+	int lineNum = node.getLineNum();
+	BasicBlock ok = newBlock(lineNum);
+	if (!obj.equals("this") && !TACInst.checkStrConst(obj) && !newObjects.contains(obj)) {
+	    BasicBlock nonNull = newBlock(lineNum);
+	    branch(IfInst.EQ, obj, "null", ok, nonNull);
+	    current = nonNull;
+	}
+	String source = obj;
+	if (TACInst.checkStrConst(obj)) {
+	    source = newTemp("String");
+	    move(source, obj);
+	}
+	BasicBlock error = errorBlock("_class_cast_error", lineNum,
+				      new ErrParamInst(ErrParamInst.OBJECTID, source),
+				      new ErrParamInst(ErrParamInst.TARGETID,
+						       String.valueOf(typeId(node.getType()))));
+	typeTest(obj, node.getType(), ok, error, lineNum);
+	current = ok;
+	return obj;
+    }
+
+    public Object visit(AssignExpr node) {
+	String value = lower(node.getExpr());
+	String var = qualifiedVar(node.getRefName(), node.getName());
+	move(var, value);
+	return var;
+    }
+
+    public Object visit(ArrayAssignExpr node) {
+	int lineNum = node.getLineNum();
+	String array = stable(qualifiedVar(node.getRefName(), node.getName()), "Object",
+			      node.getIndex(), node.getExpr());
+	array = checkNull(array, lineNum);
+	String index = stable(lower(node.getIndex()), "int", node.getExpr());
+	String value = lower(node.getExpr());
+	checkIndex(array, index, lineNum);
+	String type = node.getExpr().getExprType();
+	if (!isPrimitive(type) && !value.equals("null"))
+	    checkStore(array, value, lineNum);
+	emit(new StoreEntryInst(array, value, elementIndex(index)));
+	return value;
+    }
+
+    /** Check that an object can be stored in an array: its class must be
+      * the element class of the array or one of its descendants (arrays
+      * of classes without descendants need no check)
+      * @param array the array
+      * @param value the object
+      * @param lineNum source line
+      * */
+    private void checkStore(String array, String value, int lineNum) {
+	BasicBlock store = newBlock(lineNum);
+	if (!value.equals("this") && !TACInst.checkStrConst(value) && !newObjects.contains(value)) {
+	    BasicBlock nonNull = newBlock(lineNum);
+	    branch(IfInst.EQ, value, "null", store, nonNull);
+	    current = nonNull;
+	}
+	String source = value;
+	if (TACInst.checkStrConst(value)) {
+	    source = newTemp("String");
+	    move(source, value);
+	}
+	String arrayId = newTemp("int");
+	String lo = newTemp("int");
+	emit(new LoadEntryInst(arrayId, array, String.valueOf(CLASS_ID_INDEX)));
+	emit(new BinarySubInst(lo, arrayId, String.valueOf(classIds.size())));
+	BasicBlock error = errorBlock("_array_store_error", lineNum,
+				      new ErrParamInst(ErrParamInst.OBJECTID, source),
+				      new ErrParamInst(ErrParamInst.TARGETID, lo));
+	String id = newTemp("int");
+	emit(new LoadEntryInst(id, source, String.valueOf(CLASS_ID_INDEX)));
+	check(IfInst.LT, id, lo, error, lineNum);
+	String table = newTemp("int");
+	String hi = newTemp("int");
+	emit(new LoadAddrInst(table, "class_max_id_table"));
+	emit(new LoadEntryInst(hi, table, lo));
+	branch(IfInst.GT, id, hi, error, store);
+	current = store;
+    }
+
+    public Object visit(BinaryCompEqExpr node) {
+	return lowerCondValue(node);
+    }
+
+    public Object visit(BinaryCompNeExpr node) {
+	return lowerCondValue(node);
+    }
+
+    public Object visit(BinaryCompLtExpr node) {
+	return lowerCondValue(node);
+    }
+
+    public Object visit(BinaryCompLeqExpr node) {
+	return lowerCondValue(node);
+    }
+
+    public Object visit(BinaryCompGtExpr node) {
+	return lowerCondValue(node);
+    }
+
+    public Object visit(BinaryCompGeqExpr node) {
+	return lowerCondValue(node);
+    }
+
+    public Object visit(BinaryArithPlusExpr node) {
+	return lowerArith(node);
+    }
+
+    public Object visit(BinaryArithMinusExpr node) {
+	return lowerArith(node);
+    }
+
+    public Object visit(BinaryArithTimesExpr node) {
+	return lowerArith(node);
+    }
+
+    public Object visit(BinaryArithDivideExpr node) {
+	return lowerArith(node);
+    }
+
+    public Object visit(BinaryArithModulusExpr node) {
+	return lowerArith(node);
+    }
+
+    /** Lower an arithmetic expression (checking divisors) */
+    private String lowerArith(BinaryExpr node) {
+	String left = stable(lower(node.getLeftExpr()), "int", node.getRightExpr());
+	String right = lower(node.getRightExpr());
+	String result = newTemp("int");
+	if (node instanceof BinaryArithPlusExpr)
+	    emit(new BinaryAddInst(result, left, right));
+	else if (node instanceof BinaryArithMinusExpr)
+	    emit(new BinarySubInst(result, left, right));
+	else if (node instanceof BinaryArithTimesExpr)
+	    emit(new BinaryMulInst(result, left, right));
+	else {
+	    checkDivisor(right, node.getLineNum());
+	    if (node instanceof BinaryArithDivideExpr)
+		emit(new BinaryDivInst(result, left, right));
+	    else
+		emit(new BinaryModInst(result, left, right));
+	}
+	return result;
+    }
+
+    public Object visit(BinaryLogicAndExpr node) {
+	return lowerLogic(node);
+    }
+
+    public Object visit(BinaryLogicOrExpr node) {
+	return lowerLogic(node);
+    }
+
+    /** Lower && or || as a value: when the right operand is a variable or
+      * constant evaluating it cannot matter and the operator is an
+      * instruction, otherwise it is short-circuited with branches
+      * */
+    private String lowerLogic(BinaryExpr node) {
+	Expr rightExpr = node.getRightExpr();
+	if (!(rightExpr instanceof ConstBooleanExpr) &&
+	    !(rightExpr instanceof VarExpr && ((VarExpr)rightExpr).getRef() == null))
+	    return lowerCondValue(node);
+	String left = lower(node.getLeftExpr());
+	String right = lower(rightExpr);
+	String result = newTemp("boolean");
+	if (node instanceof BinaryLogicAndExpr)
+	    emit(new BinaryAndInst(result, left, right));
+	else
+	    emit(new BinaryOrInst(result, left, right));
+	return result;
+    }
+
+    public Object visit(UnaryNegExpr node) {
+	String result = newTemp("int");
+	emit(new UnaryNegInst(result, lower(node.getExpr())));
+	return result;
+    }
+
+    public Object visit(UnaryNotExpr node) {
+	String result = newTemp("boolean");
+	emit(new UnaryNotInst(result, lower(node.getExpr())));
+	return result;
+    }
+
+    public Object visit(UnaryIncrExpr node) {
+	return lowerIncrement(node, true);
+    }
+
+    public Object visit(UnaryDecrExpr node) {
+	return lowerIncrement(node, false);
+    }
+
+    /** Lower ++/-- (the operand is a variable, see UnaryExprVisitor)
+      * @param node the expression
+      * @param incr true for ++, false for --
+      * @return the old value (postfix) or the new value (prefix)
+      * */
+    private String lowerIncrement(UnaryExpr node, boolean incr) {
+	VarExpr varExpr = (VarExpr)node.getExpr();
+	String var = (varExpr.getRef() == null) ? lookupVar(varExpr.getName())
+	    : fieldVar(refClass(((VarExpr)varExpr.getRef()).getName()), varExpr.getName());
+	String result = newTemp("int");
+	if (node.isPostfix())
+	    move(result, var);
+	if (incr)
+	    emit(new BinaryAddInst(var, var, "1"));
+	else
+	    emit(new BinarySubInst(var, var, "1"));
+	if (!node.isPostfix())
+	    move(result, var);
+	return result;
+    }
+
+    public Object visit(VarExpr node) {
+	String name = node.getName();
+	if (node.getRef() == null) {
+	    if (name.equals("this") || name.equals("super"))
+		return "this";
+	    else if (name.equals("null"))
+		return "null";
+	    return lookupVar(name);
+	}
+	VarExpr ref = (VarExpr)node.getRef();
+	if (ref.getRef() == null && (ref.getName().equals("this") ||
+				     ref.getName().equals("super")))
+	    return fieldVar(refClass(ref.getName()), name);
+	// the only other field of a variable is the length of an array
+	String array = checkNull(lower(ref), node.getLineNum());
+	String length = newTemp("int");
+	emit(new LoadEntryInst(length, array, String.valueOf(LENGTH_INDEX)));
+	return length;
+    }
+
+    public Object visit(ArrayExpr node) {
+	int lineNum = node.getLineNum();
+	String array;
+	if (node.getRef() != null)
+	    array = fieldVar(refClass(((VarExpr)node.getRef()).getName()), node.getName());
+	else
+	    array = lookupVar(node.getName());
+	array = checkNull(stable(array, "Object", node.getIndex()), lineNum);
+	String index = lower(node.getIndex());
+	checkIndex(array, index, lineNum);
+	String result = newTemp(node.getExprType());
+	emit(new LoadEntryInst(result, array, elementIndex(index)));
+	return result;
+    }
+
+    public Object visit(ConstIntExpr node) {
+	return node.getConstant();
+    }
+
+    public Object visit(ConstBooleanExpr node) {
+	return node.getConstant();
+    }
+
+    public Object visit(ConstStringExpr node) {
+	return node.getConstant();
+    }
+
+    /** Finds whether lowering expressions may assign variables:
+      * assignments and increments assign them directly, calls and object
+      * creation may also assign fields
+      * */
+    private static class WriteFinder extends Visitor {
+	/** Whether calls count as writes (checking for a field) */
+	private boolean calls;
+
+	/** Whether a write was found */
+	private boolean found;
+
+	/** Check expressions for writes
+	  * @param field whether the variable that may be assigned is a field
+	  * @param exprs expressions (null entries are skipped)
+	  * @return true if any may assign the variable
+	  * */
+	static boolean mayWrite(boolean field, Expr... exprs) {
+	    WriteFinder finder = new WriteFinder();
+	    finder.calls = field;
+	    for (int i = 0; i < exprs.length && !finder.found; i++)
+		if (exprs[i] != null)
+		    exprs[i].accept(finder);
+	    return finder.found;
+	}
+
+	public Object visit(DispatchExpr node) {
+	    if (calls)
+		found = true;
+	    return super.visit(node);
+	}
+
+	public Object visit(NewExpr node) {
+	    if (calls)
+		found = true;
+	    return null;
+	}
+
+	public Object visit(AssignExpr node) {
+	    found = true;
+	    return null;
+	}
+
+	public Object visit(ArrayAssignExpr node) {
+	    found = true;
+	    return null;
+	}
+
+	public Object visit(UnaryIncrExpr node) {
+	    found = true;
+	    return null;
+	}
+
+	public Object visit(UnaryDecrExpr node) {
+	    found = true;
+	    return null;
+	}
+    }
+}
@@ -0,0 +1,98 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>CFGCleanup</tt> class removes the empty blocks of a
+  * subroutine (outside SSA form), linking their predecessors straight
+  * to their successor, so that they do not cost a jump.  CFGBuilder
+  * leaves empty blocks at joins and loop entries, and other passes
+  * leave more when they remove instructions and branches.
+  *
+  * A block is kept when bypassing it would break the rules checked by
+  * BasicBlock.check: a predecessor that already jumps to the successor
+  * (an IF would then have a single out edge), a successor with more
+  * than 3 in edges, or loop counts that differ too much.
+  * */
+class CFGCleanup {
+    /** Entrance block of the subroutine */
+    private BasicBlock entrance;
+
+    /** CFGCleanup constructor
+      * @param entrance entrance block of a subroutine
+      * */
+    CFGCleanup(BasicBlock entrance) {
+	this.entrance = entrance;
+    }
+
+    /** Remove the empty blocks that can be bypassed
+      * @return number of blocks removed
+      * */
+    int run() {
+	Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrance);
+	int numRemoved = 0;
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    if (bb == entrance || bb.getNumInsn() > 0 || bb.getNumOutEdges() != 1 ||
+		!canBypass(bb))
+		continue;
+	    BasicBlock succ = bb.getNthOutEdge(0);
+	    bb.removeOutEdge(succ);
+	    while (bb.getNumInEdges() > 0)
+		bb.getNthInEdge(0).replaceOutEdge(bb, succ);
+	    numRemoved++;
+	}
+	return numRemoved;
+    }
+
+    /** Can the predecessors of an empty block be linked straight to its
+      * successor?
+      * @param bb empty block with one successor
+      * @return flag indicating whether it can be bypassed
+      * */
+    private boolean canBypass(BasicBlock bb) {
+	BasicBlock succ = bb.getNthOutEdge(0);
+	if (succ == bb || succ.getNumInEdges() - 1 + bb.getNumInEdges() > 3)
+	    return false;
+	for (int i = 0; i < bb.getNumInEdges(); i++) {
+	    BasicBlock pred = bb.getNthInEdge(i);
+	    if (pred.containsOutEdge(succ) ||
+		Math.abs(pred.getLoopCnt() - succ.getLoopCnt()) > 1)
+		return false;
+	    // at most one successor may differ from pred in loop count
+	    if (succ.getLoopCnt() != pred.getLoopCnt())
+		for (int j = 0; j < pred.getNumOutEdges(); j++) {
+		    BasicBlock other = pred.getNthOutEdge(j);
+		    if (other != bb && other.getLoopCnt() != pred.getLoopCnt())
+			return false;
+		}
+	}
+	return true;
+    }
+}
@@ -0,0 +1,833 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>CheckElimination</tt> class removes the runtime checks of a
+  * subroutine in SSA form (see SSA) that cannot fail: the null checks
+  * of references and the bounds checks of array indices (IFs to error
+  * blocks calling <tt>_null_pointer_error</tt> or
+  * <tt>_array_index_error</tt>, see CFGBuilder).
+  *
+  * A reference is known not to be null if it is created by a clone or
+  * <tt>_new_array</tt>, is <tt>this</tt> or a string, is a copy or a phi
+  * of such references, or is compared to null by an IF whose non-null
+  * edge dominates the check.  The last case includes an earlier check
+  * of the same reference: in SSA form a variable holds one value, so a
+  * dominating check stays valid.
+  *
+  * Bounds checks are removed by a simple range analysis.  The lower
+  * bound of each variable is found by an optimistic fixpoint over its
+  * definitions (constants, copies, sums, subtracting a constant,
+  * multiplying by a non-negative constant, array lengths, and phis),
+  * widened to unknown once a phi has dropped several times (a
+  * decreasing loop).  An arithmetic result could wrap around, so it
+  * only keeps its bound when the largest values of its operands, from
+  * the dominating IFs comparing them to constants, array lengths or
+  * the sizes of arrays already created (all below 2^30), cannot
+  * overflow.  The comparisons of the IFs dominating a check then
+  * tighten the bounds: <tt>i &gt;= 0</tt> on the taken edge, and
+  * <tt>i &lt; a.length</tt>, <tt>i &lt; n</tt> or <tt>i &lt;= n</tt>
+  * for an array <tt>a</tt> created with size <tt>n</tt> or <tt>n +
+  * c</tt> (<tt>c &gt; 0</tt> for the last), which make <tt>i</tt>, and
+  * <tt>i - c</tt> for a constant <tt>c &gt;= 0</tt> that cannot wrap
+  * around, valid indices of <tt>a</tt>.  A phi whose sources are all below the
+  * length of an array (assuming the phi itself is, which an induction
+  * on the iterations of its loop justifies) is below it too, so a loop
+  * counting down from the length needs no upper check.
+  *
+  * The dominator tree is walked in preorder, keeping the facts the IFs
+  * establish on the edges into the blocks with a single predecessor,
+  * and undoing them when leaving the subtree of the block.
+  * */
+class CheckElimination {
+    /** Lower bound of an unknown value */
+    private static final long BOTTOM = Long.MIN_VALUE;
+
+    /** Lower bound of a value not computed yet */
+    private static final long TOP = Long.MAX_VALUE;
+
+    /** Number of times a lower bound may drop before it is widened */
+    private static final int MAX_DROPS = 3;
+
+    /** Bound on the length of an array (a 32-bit address space holds
+      * fewer words) */
+    private static final int MAX_LENGTH = 1 << 30;
+
+    /** Number of definitions followed to bound an operand in a block */
+    private static final int MAX_DEPTH = 4;
+
+    /** Entrance block of the subroutine */
+    private BasicBlock entrance;
+
+    /** Operand table of the subroutine */
+    private OperandTable operands;
+
+    /** Dominator tree of the subroutine */
+    private Dominators doms;
+
+    /** Defining instruction of each variable (by operand identifier) */
+    private TACInst[] defs;
+
+    /** Block of each defining instruction (by operand identifier) */
+    private BasicBlock[] defBlocks;
+
+    /** Blocks creating arrays, by operand identifier of their size */
+    private HashMap<Integer, Vector<BasicBlock>> sizes;
+
+    /** Lower bounds of the variables, from their definitions (by
+      * operand identifier) */
+    private long[] lows;
+
+    /** Flags indicating whether each variable is known not to be null
+      * from its definition (by operand identifier) */
+    private boolean[] nonNull;
+
+    /** Lower bounds known in the current block, from the dominating
+      * IFs (by operand identifier) */
+    private HashMap<Integer, Long> lowerFacts;
+
+    /** Operands each variable is known to be smaller than in the
+      * current block (by operand identifier) */
+    private HashMap<Integer, Vector<Integer>> lessFacts;
+
+    /** Operands each variable is known to be at most in the current
+      * block (by operand identifier) */
+    private HashMap<Integer, Vector<Integer>> atMostFacts;
+
+    /** Variables known not to be null in the current block */
+    private HashSet<Integer> nonNullFacts;
+
+    /** Facts to undo when leaving the blocks of the walk: the kind
+      * (0 for a lower bound, 1 for a less-than fact, 2 for an at-most
+      * fact, 3 for a non-null fact), the variable, and the previous
+      * lower bound */
+    private Vector<long[]> trail;
+
+    /** Number of null checks removed */
+    private int numNullChecks;
+
+    /** Number of bounds checks removed */
+    private int numBoundsChecks;
+
+    /** CheckElimination constructor
+      * @param entrance entrance block of a numbered subroutine in SSA form
+      * */
+    CheckElimination(BasicBlock entrance) {
+	this.entrance = entrance;
+	operands = entrance.getOperandTable();
+	if (operands == null)
+	    throw new RuntimeException("Internal error: check elimination in " +
+				       "a subroutine that has not been numbered");
+    }
+
+    /** Remove the checks that cannot fail
+      * @return flag indicating whether the subroutine changed
+      * */
+    boolean run() {
+	numNullChecks = numBoundsChecks = 0;
+	doms = new Dominators(entrance);
+	Vector<BasicBlock> blocks = doms.getBlocks();
+	defs = new TACInst[operands.size()];
+	defBlocks = new BasicBlock[operands.size()];
+	sizes = new HashMap<Integer, Vector<BasicBlock>>();
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		if (inst.getDefId() >= 0 && isLocal(inst.getDefId())) {
+		    defs[inst.getDefId()] = inst;
+		    defBlocks[inst.getDefId()] = bb;
+		}
+		int size = arraySize(inst.getDefId());
+		if (size >= 0) {
+		    if (!sizes.containsKey(size))
+			sizes.put(size, new Vector<BasicBlock>());
+		    sizes.get(size).add(bb);
+		}
+	    }
+	}
+	computeLows(blocks);
+	computeNonNull(blocks);
+
+	lowerFacts = new HashMap<Integer, Long>();
+	lessFacts = new HashMap<Integer, Vector<Integer>>();
+	atMostFacts = new HashMap<Integer, Vector<Integer>>();
+	nonNullFacts = new HashSet<Integer>();
+	trail = new Vector<long[]>();
+	Vector<BasicBlock> stack = new Vector<BasicBlock>();
+	Vector<Integer> nextChild = new Vector<Integer>();
+	Vector<Integer> marks = new Vector<Integer>();
+	stack.add(entrance);
+	nextChild.add(0);
+	marks.add(trail.size());
+	visit(entrance);
+	while (stack.size() > 0) {
+	    int top = stack.size() - 1;
+	    BasicBlock bb = stack.elementAt(top);
+	    int c = nextChild.elementAt(top);
+	    Vector<BasicBlock> kids = doms.getChildren(bb);
+	    if (c < kids.size()) {
+		nextChild.set(top, c + 1);
+		stack.add(kids.elementAt(c));
+		nextChild.add(0);
+		marks.add(trail.size());
+		visit(kids.elementAt(c));
+	    }
+	    else {
+		undo(marks.elementAt(top));
+		stack.removeElementAt(top);
+		nextChild.removeElementAt(top);
+		marks.removeElementAt(top);
+	    }
+	}
+	return numNullChecks + numBoundsChecks > 0;
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* facts from the definitions                                        */
+    /* ---------------------------------------------------------------- */
+
+    /** Compute the lower bounds of the variables from their definitions
+      * @param blocks blocks of the subroutine
+      * */
+    private void computeLows(Vector<BasicBlock> blocks) {
+	int n = operands.size();
+	lows = new long[n];
+	Arrays.fill(lows, BOTTOM);
+	Vector<Vector<TACInst>> users = new Vector<Vector<TACInst>>(n);
+	for (int v = 0; v < n; v++) {
+	    users.add(null);
+	    if (defs[v] != null)
+		lows[v] = TOP;
+	}
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		int[] uses = inst.getUseIds();
+		for (int k = 0; k < uses.length; k++) {
+		    if (defs[uses[k]] == null)
+			continue;
+		    if (users.elementAt(uses[k]) == null)
+			users.set(uses[k], new Vector<TACInst>());
+		    users.elementAt(uses[k]).add(inst);
+		}
+	    }
+	}
+
+	int[] drops = new int[n];
+	Vector<Integer> worklist = new Vector<Integer>();
+	for (int v = 0; v < n; v++)
+	    if (defs[v] != null)
+		worklist.add(v);
+	while (worklist.size() > 0) {
+	    int v = worklist.remove(worklist.size() - 1);
+	    long low = Math.min(lows[v], evaluate(defs[v], defBlocks[v]));
+	    if (low == lows[v])
+		continue;
+	    if (lows[v] != TOP && ++drops[v] > MAX_DROPS)
+		low = BOTTOM;
+	    lows[v] = low;
+	    Vector<TACInst> defUsers = users.elementAt(v);
+	    for (int k = 0; defUsers != null && k < defUsers.size(); k++) {
+		int def = defUsers.elementAt(k).getDefId();
+		if (def >= 0 && defs[def] != null)
+		    worklist.add(def);
+	    }
+	}
+    }
+
+    /** Get the lower bound of a variable from its definition
+      * @param inst defining instruction
+      * @param bb block of the instruction
+      * @return lower bound (TOP if its operands are not known yet)
+      * */
+    private long evaluate(TACInst inst, BasicBlock bb) {
+	int[] uses = inst.getUseIds();
+	switch (inst.getOpcode()) {
+	case TACInst.LDCONST: case TACInst.LDVAR:
+	    return low(uses[0]);
+	case TACInst.LDENTRY:
+	    return isLength(inst) ? 0 : BOTTOM;
+	case TACInst.PHI:
+	    long low = TOP;
+	    for (int k = 0; k < uses.length; k++)
+		low = Math.min(low, low(uses[k]));
+	    return low;
+	case TACInst.BINADD:
+	    return bound(low(uses[0]) + (double)low(uses[1]), uses[0], uses[1], 1, bb);
+	case TACInst.BINSUB:
+	    if (operands.getKind(uses[1]) != OperandTable.INT_CONST)
+		return BOTTOM;
+	    return bound(low(uses[0]) - (double)operands.getIntValue(uses[1]),
+			 uses[0], uses[1], -1, bb);
+	case TACInst.BINMUL:
+	    if (operands.getKind(uses[1]) != OperandTable.INT_CONST ||
+		operands.getIntValue(uses[1]) < 0)
+		return BOTTOM;
+	    return bound(low(uses[0]) * (double)operands.getIntValue(uses[1]),
+			 uses[0], uses[1], 0, bb);
+	default:
+	    return BOTTOM;
+	}
+    }
+
+    /** Get the lower bound of a sum, difference, or product by a
+      * non-negative constant, if it cannot wrap around
+      * @param low lower bound computed from those of the operands
+      * @param left identifier of the left operand
+      * @param right identifier of the right operand (a constant unless
+      * adding)
+      * @param sign 1 for a sum, -1 for a difference, 0 for a product
+      * @param bb block of the instruction
+      * @return lower bound
+      * */
+    private long bound(double low, int left, int right, int sign, BasicBlock bb) {
+	long l = low(left), r = low(right);
+	if (l == TOP || r == TOP)
+	    return TOP;
+	if (l == BOTTOM || r == BOTTOM || low < Integer.MIN_VALUE)
+	    return BOTTOM;
+	// the largest value must not wrap around either
+	double high = (sign == 0) ? upperLimit(left, bb, MAX_DEPTH) * (double)r :
+	    upperLimit(left, bb, MAX_DEPTH) +
+	    ((sign > 0) ? upperLimit(right, bb, MAX_DEPTH) : -(double)r);
+	return (high > Integer.MAX_VALUE) ? BOTTOM : (long)low;
+    }
+
+    /** Get the lower bound of an operand from its definition
+      * @param id identifier of the operand
+      * @return lower bound
+      * */
+    private long low(int id) {
+	if (operands.getKind(id) == OperandTable.INT_CONST)
+	    return operands.getIntValue(id);
+	return lows[id];
+    }
+
+    /** Get the largest value of an operand in a block, from the IFs
+      * dominating the block
+      * @param id identifier of the operand
+      * @param bb block
+      * @param depth number of operands that may still be followed
+      * @return upper bound (the largest int if unknown)
+      * */
+    private long upperLimit(int id, BasicBlock bb, int depth) {
+	if (operands.getKind(id) == OperandTable.INT_CONST)
+	    return operands.getIntValue(id);
+	if (!isLocal(id))
+	    return Integer.MAX_VALUE;
+	if (defs[id] != null && isLength(defs[id]))
+	    return MAX_LENGTH;
+	long limit = Integer.MAX_VALUE;
+	for (BasicBlock b = bb; b != null; b = doms.getIdom(b)) {
+	    if (b.getNumInEdges() != 1)
+		continue;
+	    IfInst test = finalIf(b.getNthInEdge(0));
+	    if (test == null)
+		continue;
+	    int type = (b == test.getTrueTarg()) ? test.getType() : negate(test.getType());
+	    int[] uses = test.getUseIds();
+	    for (int side = 0; side < 2; side++) {
+		int t = (side == 0) ? type : swap(type);
+		if (uses[side] != id || (t != IfInst.LT && t != IfInst.LE && t != IfInst.EQ))
+		    continue;
+		long other = sizeLimit(uses[1 - side], bb);
+		if (other == Integer.MAX_VALUE && depth > 0)
+		    other = upperLimit(uses[1 - side], bb, depth - 1);
+		limit = Math.min(limit, (t == IfInst.LT) ? other - 1 : other);
+	    }
+	}
+	return limit;
+    }
+
+    /** Get the largest value of an operand in a block, from the sizes of
+      * the arrays created before it: an array of words in a 32-bit
+      * address space has fewer than MAX_LENGTH elements
+      * @param id identifier of the operand
+      * @param bb block
+      * @return upper bound (the largest int if unknown)
+      * */
+    private long sizeLimit(int id, BasicBlock bb) {
+	if (operands.getKind(id) == OperandTable.INT_CONST)
+	    return operands.getIntValue(id);
+	if (!isLocal(id))
+	    return Integer.MAX_VALUE;
+	if ((defs[id] != null && isLength(defs[id])) || isCreated(id, bb))
+	    return MAX_LENGTH;
+	// an array of size id + c
+	Iterator<Integer> iter = sizes.keySet().iterator();
+	while (iter.hasNext()) {
+	    int size = iter.next();
+	    int c = offset(size, id);
+	    if (c >= 0 && isCreated(size, bb))
+		return MAX_LENGTH - c;
+	}
+	return Integer.MAX_VALUE;
+    }
+
+    /** Has an array of a size been created before a block?
+      * @param size identifier of the size
+      * @param bb block
+      * @return flag indicating whether a block creating such an array
+      * strictly dominates the block
+      * */
+    private boolean isCreated(int size, BasicBlock bb) {
+	Vector<BasicBlock> creators = sizes.get(size);
+	for (int i = 0; creators != null && i < creators.size(); i++)
+	    if (creators.elementAt(i) != bb && doms.dominates(creators.elementAt(i), bb))
+		return true;
+	return false;
+    }
+
+    /** Get the constant an operand adds to a variable
+      * @param id identifier of the operand
+      * @param var identifier of the variable
+      * @return c if the operand is defined as var + c (or is var, for
+      * 0), -1 otherwise (including negative constants)
+      * */
+    private int offset(int id, int var) {
+	if (id == var)
+	    return 0;
+	TACInst def = isLocal(id) ? defs[id] : null;
+	if (def == null || def.getOpcode() != TACInst.BINADD)
+	    return -1;
+	int[] uses = def.getUseIds();
+	for (int side = 0; side < 2; side++)
+	    if (uses[side] == var && operands.getKind(uses[1 - side]) == OperandTable.INT_CONST)
+		return Math.max(operands.getIntValue(uses[1 - side]), -1);
+	return -1;
+    }
+
+    /** Find the variables known not to be null from their definitions
+      * (optimistically for copies and phis, which may be circular)
+      * @param blocks blocks of the subroutine
+      * */
+    private void computeNonNull(Vector<BasicBlock> blocks) {
+	nonNull = new boolean[operands.size()];
+	for (int v = 0; v < nonNull.length; v++) {
+	    TACInst def = defs[v];
+	    if (def == null)
+		continue;
+	    switch (def.getOpcode()) {
+	    case TACInst.DIRCALL:
+		String target = ((CallInst)def).getTarget();
+		nonNull[v] = target.equals("Object.clone") || target.equals("_new_array");
+		break;
+	    case TACInst.LDCONST:
+		nonNull[v] = operands.getKind(def.getUseIds()[0]) == OperandTable.STR_CONST;
+		break;
+	    case TACInst.LDVAR: case TACInst.PHI: case TACInst.LDADDR:
+		nonNull[v] = true;
+		break;
+	    }
+	}
+	boolean changed = true;
+	while (changed) {
+	    changed = false;
+	    for (int v = 0; v < nonNull.length; v++) {
+		int opcode = (defs[v] == null) ? -1 : defs[v].getOpcode();
+		if (!nonNull[v] || (opcode != TACInst.LDVAR && opcode != TACInst.PHI))
+		    continue;
+		int[] uses = defs[v].getUseIds();
+		for (int k = 0; k < uses.length && nonNull[v]; k++)
+		    if (!isNonNull(uses[k])) {
+			nonNull[v] = false;
+			changed = true;
+		    }
+	    }
+	}
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* walk                                                              */
+    /* ---------------------------------------------------------------- */
+
+    /** Visit a block of the walk: add the facts of the edge into it,
+      * then remove its final check if it cannot fail
+      * @param bb block whose dominators have been visited
+      * */
+    private void visit(BasicBlock bb) {
+	if (bb.getNumInEdges() == 1) {
+	    IfInst test = finalIf(bb.getNthInEdge(0));
+	    if (test != null)
+		addFacts(test, bb == test.getTrueTarg());
+	}
+
+	IfInst check = finalIf(bb);
+	if (check == null || !Inliner.isErrorBlock(check.getTrueTarg()))
+	    return;
+	BasicBlock error = check.getTrueTarg();
+	String routine = ((CallInst)error.getNthInst(error.getNumInsn() - 2)).getTarget();
+	int[] uses = check.getUseIds();
+	boolean redundant = false;
+	if (routine.equals("_null_pointer_error") && check.getType() == IfInst.EQ) {
+	    if (operands.getKind(uses[1]) == OperandTable.NULL_CONST)
+		redundant = isNonNull(uses[0]);
+	    else if (operands.getKind(uses[0]) == OperandTable.NULL_CONST)
+		redundant = isNonNull(uses[1]);
+	    if (redundant)
+		numNullChecks++;
+	}
+	else if (routine.equals("_array_index_error")) {
+	    if (check.getType() == IfInst.LT && operands.getKind(uses[1]) == OperandTable.INT_CONST &&
+		operands.getIntValue(uses[1]) == 0)
+		redundant = lower(uses[0], MAX_DEPTH) >= 0;
+	    else if (check.getType() == IfInst.GE && isLocal(uses[1]) && defs[uses[1]] != null &&
+		     isLength(defs[uses[1]]))
+		redundant = isBelowLength(uses[0], defs[uses[1]].getUseIds()[0],
+					  new HashSet<Integer>(), MAX_DEPTH);
+	    if (redundant)
+		numBoundsChecks++;
+	}
+	if (redundant) {
+	    bb.removeNthInst(bb.getNumInsn() - 1);
+	    SCCP.removeEdge(bb, error);
+	}
+    }
+
+    /** Add the facts an IF establishes on one of its edges
+      * @param test IF
+      * @param taken flag indicating whether the edge is the one taken
+      * when the condition holds
+      * */
+    private void addFacts(IfInst test, boolean taken) {
+	int type = taken ? test.getType() : negate(test.getType());
+	int[] uses = test.getUseIds();
+	for (int side = 0; side < 2; side++) {
+	    int var = uses[side], other = uses[1 - side];
+	    int t = (side == 0) ? type : swap(type);
+	    if (!isLocal(var))
+		continue;
+	    if (operands.getKind(other) == OperandTable.NULL_CONST) {
+		if (t == IfInst.NE && nonNullFacts.add(var))
+		    trail.add(new long[] {3, var, 0});
+		continue;
+	    }
+	    long low = lower(other, MAX_DEPTH);
+	    switch (t) {
+	    case IfInst.LT:
+		addFact(lessFacts, 1, var, other);
+		break;
+	    case IfInst.LE:
+		addFact(atMostFacts, 2, var, other);
+		break;
+	    case IfInst.GT:
+		if (low != BOTTOM)
+		    addLowerFact(var, low + 1);
+		break;
+	    case IfInst.GE:
+		if (low != BOTTOM)
+		    addLowerFact(var, low);
+		break;
+	    case IfInst.EQ:
+		addFact(atMostFacts, 2, var, other);
+		if (low != BOTTOM)
+		    addLowerFact(var, low);
+		break;
+	    }
+	}
+    }
+
+    /** Add a relation to the facts
+      * @param facts facts of the relation
+      * @param kind kind of the facts (see trail)
+      * @param var identifier of a variable
+      * @param other identifier of the operand it relates to
+      * */
+    private void addFact(HashMap<Integer, Vector<Integer>> facts, int kind, int var, int other) {
+	Vector<Integer> others = facts.get(var);
+	if (others == null)
+	    facts.put(var, others = new Vector<Integer>());
+	others.add(other);
+	trail.add(new long[] {kind, var, 0});
+    }
+
+    /** Add a lower bound to the facts
+      * @param var identifier of a variable
+      * @param low lower bound
+      * */
+    private void addLowerFact(int var, long low) {
+	Long old = lowerFacts.get(var);
+	if (old != null && old >= low)
+	    return;
+	trail.add(new long[] {0, var, (old == null) ? BOTTOM : old});
+	lowerFacts.put(var, low);
+    }
+
+    /** Undo the facts added after a point of the trail
+      * @param mark size of the trail at that point
+      * */
+    private void undo(int mark) {
+	while (trail.size() > mark) {
+	    long[] fact = trail.remove(trail.size() - 1);
+	    int var = (int)fact[1];
+	    if (fact[0] == 0) {
+		if (fact[2] == BOTTOM)
+		    lowerFacts.remove(var);
+		else
+		    lowerFacts.put(var, fact[2]);
+	    }
+	    else if (fact[0] == 1 || fact[0] == 2) {
+		Vector<Integer> others = ((fact[0] == 1) ? lessFacts : atMostFacts).get(var);
+		others.removeElementAt(others.size() - 1);
+	    }
+	    else
+		nonNullFacts.remove(var);
+	}
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* queries                                                           */
+    /* ---------------------------------------------------------------- */
+
+    /** Get the lower bound of an operand in the current block
+      * @param id identifier of the operand
+      * @param depth number of definitions that may still be followed
+      * @return lower bound (BOTTOM if unknown)
+      * */
+    private long lower(int id, int depth) {
+	long low = low(id);
+	if (low == TOP)
+	    // only in unreachable code
+	    low = BOTTOM;
+	if (!isLocal(id))
+	    return low;
+	Long fact = lowerFacts.get(id);
+	if (fact != null)
+	    low = Math.max(low, fact);
+	TACInst def = defs[id];
+	if (depth == 0 || def == null)
+	    return low;
+	int[] uses = def.getUseIds();
+	long derived = BOTTOM;
+	switch (def.getOpcode()) {
+	case TACInst.LDVAR:
+	    derived = lower(uses[0], depth - 1);
+	    break;
+	case TACInst.BINADD: case TACInst.BINSUB:
+	    // only decreasing by a constant, which cannot wrap around when
+	    // the result stays above the smallest int
+	    if (operands.getKind(uses[1]) != OperandTable.INT_CONST)
+		break;
+	    long c = operands.getIntValue(uses[1]);
+	    if (def.getOpcode() == TACInst.BINSUB)
+		c = -c;
+	    if (c > 0)
+		break;
+	    derived = lower(uses[0], depth - 1);
+	    if (derived != BOTTOM && derived + c >= Integer.MIN_VALUE)
+		derived += c;
+	    else
+		derived = BOTTOM;
+	    break;
+	}
+	return Math.max(low, derived);
+    }
+
+    /** Is an operand known to be smaller than the length of an array in
+      * the current block?
+      * @param id identifier of the operand
+      * @param array identifier of the array
+      * @param phis phis assumed to be (those being checked)
+      * @param depth number of definitions that may still be followed
+      * @return flag indicating whether a valid upper index
+      * */
+    private boolean isBelowLength(int id, int array, HashSet<Integer> phis, int depth) {
+	int size = arraySize(array);
+	if (operands.getKind(id) == OperandTable.INT_CONST)
+	    return size >= 0 && operands.getKind(size) == OperandTable.INT_CONST &&
+		operands.getIntValue(id) < operands.getIntValue(size);
+	if (!isLocal(id))
+	    return false;
+	if (phis.contains(id))
+	    return true;
+	// i < a.length, i < n or i <= n - 1 for an array of size n, or
+	// i < j or i <= j for an index j
+	Vector<Integer> less = lessFacts.get(id);
+	for (int k = 0; less != null && k < less.size(); k++) {
+	    int other = less.elementAt(k);
+	    if ((isLocal(other) && defs[other] != null && isLength(defs[other]) &&
+		 defs[other].getUseIds()[0] == array) || (size >= 0 && offset(size, other) >= 0))
+		return true;
+	    if (depth > 0 && isBelowLength(other, array, phis, depth - 1))
+		return true;
+	}
+	Vector<Integer> atMost = atMostFacts.get(id);
+	for (int k = 0; atMost != null && k < atMost.size(); k++) {
+	    int other = atMost.elementAt(k);
+	    if (size >= 0 && offset(size, other) > 0)
+		return true;
+	    if (depth > 0 && isBelowLength(other, array, phis, depth - 1))
+		return true;
+	}
+	TACInst def = defs[id];
+	if (depth == 0 || def == null)
+	    return false;
+	int[] uses = def.getUseIds();
+	switch (def.getOpcode()) {
+	case TACInst.LDVAR:
+	    return isBelowLength(uses[0], array, phis, depth - 1);
+	case TACInst.BINADD: case TACInst.BINSUB:
+	    if (operands.getKind(uses[1]) != OperandTable.INT_CONST)
+		return false;
+	    long c = operands.getIntValue(uses[1]);
+	    if (def.getOpcode() == TACInst.BINSUB)
+		c = -c;
+	    // i - c for c > 0 is below the length if i is at most the
+	    // length, and does not wrap around
+	    long low = lower(uses[0], depth - 1);
+	    if (c > 0 || low == BOTTOM || low + c < Integer.MIN_VALUE)
+		return false;
+	    if (c < 0 && isLocal(uses[0]) && defs[uses[0]] != null &&
+		isLength(defs[uses[0]]) && defs[uses[0]].getUseIds()[0] == array)
+		return true;
+	    return isBelowLength(uses[0], array, phis, depth - 1);
+	case TACInst.PHI:
+	    phis.add(id);
+	    for (int k = 0; k < uses.length; k++)
+		if (!isBelowLength(uses[k], array, phis, depth - 1)) {
+		    phis.remove(id);
+		    return false;
+		}
+	    phis.remove(id);
+	    return true;
+	default:
+	    return false;
+	}
+    }
+
+    /** Get the size of an array created in the subroutine
+      * @param array identifier of the array (-1 for none)
+      * @return identifier of the size operand (-1 if not known)
+      * */
+    private int arraySize(int array) {
+	TACInst def = (array >= 0) ? defs[array] : null;
+	if (def == null || def.getOpcode() != TACInst.DIRCALL ||
+	    !((CallInst)def).getTarget().equals("_new_array"))
+	    return -1;
+	// the size is the first of the two parameters before the call
+	BasicBlock bb = defBlocks[array];
+	int j = bb.indexOf(def);
+	if (j < 2 || bb.getNthInst(j - 2).getOpcode() != TACInst.STDPARAM)
+	    return -1;
+	return bb.getNthInst(j - 2).getUseIds()[0];
+    }
+
+    /** Is an operand known not to be null in the current block?
+      * @param id identifier of the operand
+      * @return flag indicating whether non-null
+      * */
+    private boolean isNonNull(int id) {
+	int kind = operands.getKind(id);
+	return kind == OperandTable.THIS || kind == OperandTable.STR_CONST ||
+	    (isLocal(id) && (nonNull[id] || (nonNullFacts != null && nonNullFacts.contains(id))));
+    }
+
+    /** Does an instruction load the length of an array?
+      * @param inst instruction
+      * @return flag indicating whether it loads the entry at LENGTH_INDEX
+      * of a variable indexed by the checks that use it
+      * */
+    private boolean isLength(TACInst inst) {
+	if (inst.getOpcode() != TACInst.LDENTRY)
+	    return false;
+	int index = inst.getUseIds()[1];
+	return operands.getKind(index) == OperandTable.INT_CONST &&
+	    operands.getIntValue(index) == CFGBuilder.LENGTH_INDEX;
+    }
+
+    /** Get the final IF of a block
+      * @param bb block
+      * @return IF (null if the block does not end with one, or its
+      * targets are the same)
+      * */
+    private static IfInst finalIf(BasicBlock bb) {
+	int n = bb.getNumInsn();
+	if (n == 0 || !bb.getNthInst(n - 1).isIf())
+	    return null;
+	IfInst test = (IfInst)bb.getNthInst(n - 1);
+	return (test.getTrueTarg() == test.getFalseTarg()) ? null : test;
+    }
+
+    /** Negate a comparison type
+      * @param type comparison type (e.g., IfInst.LT)
+      * @return type of the negated comparison (e.g., IfInst.GE)
+      * */
+    static int negate(int type) {
+	switch (type) {
+	case IfInst.EQ: return IfInst.NE;
+	case IfInst.NE: return IfInst.EQ;
+	case IfInst.LT: return IfInst.GE;
+	case IfInst.LE: return IfInst.GT;
+	case IfInst.GT: return IfInst.LE;
+	default: return IfInst.LT;
+	}
+    }
+
+    /** Swap the operands of a comparison type
+      * @param type comparison type (e.g., IfInst.LT)
+      * @return type comparing the operands the other way (e.g., IfInst.GT)
+      * */
+    static int swap(int type) {
+	switch (type) {
+	case IfInst.LT: return IfInst.GT;
+	case IfInst.LE: return IfInst.GE;
+	case IfInst.GT: return IfInst.LT;
+	case IfInst.GE: return IfInst.LE;
+	default: return type;
+	}
+    }
+
+    /** Is an operand a parameter, local, or temporary?
+      * @param id identifier of an operand
+      * @return flag indicating whether local
+      * */
+    private boolean isLocal(int id) {
+	int kind = operands.getKind(id);
+	return kind == OperandTable.PARAM || kind == OperandTable.LOCAL ||
+	    kind == OperandTable.TEMP;
+    }
+
+    /** Get the number of null checks removed by the last run
+      * @return number of checks
+      * */
+    int getNumNullChecks() {
+	return numNullChecks;
+    }
+
+    /** Get the number of bounds checks removed by the last run
+      * @return number of checks
+      * */
+    int getNumBoundsChecks() {
+	return numBoundsChecks;
+    }
+}
@@ -0,0 +1,203 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.ast.*;
+import bantam.util.*;
+import bantam.visitor.Visitor;
+
+import java.util.*;
+
+/** The <tt>ClassHierarchy</tt> class finds the methods a dynamic
+  * dispatch can reach.  Bantam has no dynamic class loading, so the
+  * whole class tree is known when compiling, and a call whose receiver
+  * can only be of classes sharing one implementation of the method can
+  * be made direct (see CFGBuilder).
+  *
+  * Class hierarchy analysis alone allows the classes below the static
+  * type of the receiver; rapid type analysis (Bacon and Sweeney, "Fast
+  * Static Analysis of C++ Virtual Function Calls") further restricts
+  * them to the classes the program can instantiate: the types of its
+  * <tt>new</tt> expressions, the built-in classes (the runtime creates
+  * strings, for instance), and <tt>Main</tt>.  Cloning copies an object
+  * of a class already instantiated, so it adds none.  Every
+  * <tt>new</tt> expression counts, reachable or not, which keeps the
+  * analysis a single pass over the program.
+  *
+  * Arrays dispatch through the table of <tt>Object</tt>, so a receiver
+  * of type <tt>Object</tt> may also reach the methods of
+  * <tt>Object</tt>.
+  * */
+class ClassHierarchy {
+    /** Class tree nodes in depth-first order */
+    private Vector<ClassTreeNode> classes;
+
+    /** Positions of the classes in depth-first order (by name) */
+    private HashMap<String, Integer> positions = new HashMap<String, Integer>();
+
+    /** Names of the classes that can be instantiated */
+    private HashSet<String> instantiated = new HashSet<String>();
+
+    /** Implementations ("Class.method") of the methods of each class,
+      * declared or inherited (by class name, then method name) */
+    private HashMap<String, HashMap<String, String>> implementations =
+	new HashMap<String, HashMap<String, String>>();
+
+    /** Field variables of each class, inherited ones included, in the
+      * order of their entries (by class name) */
+    private HashMap<String, Vector<String>> fields = new HashMap<String, Vector<String>>();
+
+    /** Index of each field in the objects of its class (by field
+      * variable, see CFGBuilder) */
+    private HashMap<String, Integer> fieldIndices = new HashMap<String, Integer>();
+
+    /** Type of each field (by field variable) */
+    private HashMap<String, String> fieldTypes = new HashMap<String, String>();
+
+    /** ClassHierarchy constructor
+      * @param orderedClassList class tree nodes in depth-first order
+      * */
+    ClassHierarchy(Vector<ClassTreeNode> orderedClassList) {
+	classes = orderedClassList;
+	Visitor newFinder = new Visitor() {
+		public Object visit(NewExpr node) {
+		    instantiated.add(node.getType());
+		    return null;
+		}
+	    };
+	instantiated.add("Main");
+	for (int i = 0; i < classes.size(); i++) {
+	    ClassTreeNode ctn = classes.elementAt(i);
+	    positions.put(ctn.getName(), i);
+
+	    // a class is after its parent in depth-first order
+	    HashMap<String, String> methods = new HashMap<String, String>();
+	    Vector<String> vars = new Vector<String>();
+	    if (ctn.getParent() != null) {
+		methods.putAll(implementations.get(ctn.getParent().getName()));
+		vars.addAll(fields.get(ctn.getParent().getName()));
+	    }
+	    Iterator<ASTNode> iter = ctn.getASTNode().getMemberList().iterator();
+	    while (iter.hasNext()) {
+		Member m = (Member)iter.next();
+		if (m instanceof Method)
+		    methods.put(((Method)m).getName(),
+				ctn.getName() + "." + ((Method)m).getName());
+		else {
+		    String var = ((Field)m).getName() + "@f_" + ctn.getName();
+		    fieldIndices.put(var, CFGBuilder.FIELDS_INDEX + vars.size());
+		    fieldTypes.put(var, ((Field)m).getType());
+		    vars.add(var);
+		}
+	    }
+	    implementations.put(ctn.getName(), methods);
+	    fields.put(ctn.getName(), vars);
+
+	    if (ctn.isBuiltIn())
+		instantiated.add(ctn.getName());
+	    else
+		ctn.getASTNode().accept(newFinder);
+	}
+    }
+
+    /** Can a class be instantiated?
+      * @param type class name
+      * @return flag indicating whether the program can create objects
+      * of exactly this class
+      * */
+    boolean isInstantiated(String type) {
+	return instantiated.contains(type);
+    }
+
+    /** Get the only method a dynamic dispatch can reach
+      * @param type static type of the receiver (a class, or an array type)
+      * @param method method name
+      * @return label of the method ("Class.method"), null if several
+      * methods can be reached
+      * */
+    String getTarget(String type, String method) {
+	if (type.endsWith("[]"))
+	    return implementations.get("Object").get(method);
+	String target = implementations.get(type).get(method);
+	// the subclasses of a class follow it in depth-first order
+	int pos = positions.get(type);
+	ClassTreeNode ctn = classes.elementAt(pos);
+	for (int i = pos; i < classes.size() && isSubclass(classes.elementAt(i), ctn); i++) {
+	    String name = classes.elementAt(i).getName();
+	    if (instantiated.contains(name) &&
+		!implementations.get(name).get(method).equals(target))
+		return null;
+	}
+	return target;
+    }
+
+    /** Get the run-time class id of a class (its position in
+      * depth-first order, see CFGBuilder)
+      * @param type class name
+      * @return class id
+      * */
+    int getClassId(String type) {
+	return positions.get(type);
+    }
+
+    /** Get the fields of the objects of a class
+      * @param type class name
+      * @return field variables (<tt>x@f_C</tt>), inherited ones first, in
+      * the order of their entries (the list must not be modified)
+      * */
+    Vector<String> getFields(String type) {
+	return fields.get(type);
+    }
+
+    /** Get the index of a field in the objects of its class (and
+      * subclasses)
+      * @param var field variable (<tt>x@f_C</tt>)
+      * @return index of the entry holding the field
+      * */
+    int getFieldIndex(String var) {
+	return fieldIndices.get(var);
+    }
+
+    /** Get the type of a field
+      * @param var field variable (<tt>x@f_C</tt>)
+      * @return Bantam type
+      * */
+    String getFieldType(String var) {
+	return fieldTypes.get(var);
+    }
+
+    /** Check whether a class is a (non-strict) subclass of another
+      * @param ctn class to check
+      * @param ancestor possible ancestor
+      * @return true if ctn is ancestor or one of its descendants
+      * */
+    private static boolean isSubclass(ClassTreeNode ctn, ClassTreeNode ancestor) {
+	for (; ctn != null; ctn = ctn.getParent())
+	    if (ctn == ancestor)
+		return true;
+	return false;
+    }
+}
@@ -0,0 +1,360 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>Dataflow</tt> class is a generic iterative solver for
+  * bit-vector data-flow problems over the control flow graph of a
+  * subroutine (whose operands have been numbered, see
+  * BasicBlock.numberOperands).
+  *
+  * A subclass chooses the direction (forward or backward), the meet
+  * (union for "may" problems, intersection for "must" problems), the
+  * size of the universe of facts, the value at the boundary (entrance
+  * for forward problems, exits for backward ones), and the gen and
+  * kill sets of each instruction.  The solver composes the gen and
+  * kill sets of each block once and then iterates a worklist ordered
+  * by reverse postorder (of the reversed graph for backward problems)
+  * until the values no longer change, sweeping over the pending blocks
+  * in that order.  Since every value only grows (may problems) or only
+  * shrinks (must problems), the number of sweeps is bounded by the
+  * loop nesting depth plus two, and a sweep only visits the blocks
+  * whose predecessors changed.
+  *
+  * In memory, fields of <tt>this</tt> are the only variables that
+  * other subroutines can see, so a call implicitly uses and may
+  * define every field (see getFields), and fields are live at exits.
+  * */
+abstract class Dataflow {
+    /** Entrance block of the subroutine */
+    protected BasicBlock entrance;
+
+    /** Operand table of the subroutine */
+    protected OperandTable operands;
+
+    /** Flag indicating whether the problem is forward (else backward) */
+    private boolean forward;
+
+    /** Flag indicating whether the meet is union (else intersection) */
+    private boolean union;
+
+    /** Blocks reachable from the entrance in solving order */
+    private Vector<BasicBlock> blocks;
+
+    /** Positions of the blocks in the solving order */
+    private HashMap<BasicBlock, Integer> positions;
+
+    /** Gen and kill sets of the blocks (by position) */
+    private BitSet[] gen, kill;
+
+    /** Values at block entries and exits (by position) */
+    private BitSet[] in, out;
+
+    /** Number of facts */
+    private int size;
+
+    /** Field variables of the subroutine */
+    private BitSet fields;
+
+    /** Number of block visits made by the last solve */
+    private int numVisits;
+
+    /** Scratch sets for the gen and kill sets of one instruction */
+    private BitSet instGen = new BitSet(), instKill = new BitSet();
+
+    /** Dataflow constructor
+      * @param entrance entrance block of a numbered subroutine
+      * @param forward flag indicating whether the problem is forward
+      * @param union flag indicating whether the meet is union
+      * */
+    Dataflow(BasicBlock entrance, boolean forward, boolean union) {
+	this.entrance = entrance;
+	this.forward = forward;
+	this.union = union;
+	operands = entrance.getOperandTable();
+	if (operands == null)
+	    throw new RuntimeException("Internal error: data-flow analysis of " +
+				       "a subroutine that has not been numbered");
+	fields = new BitSet();
+	for (int i = 0; i < operands.size(); i++)
+	    if (operands.getKind(i) == OperandTable.FIELD)
+		fields.set(i);
+    }
+
+    /** Get the number of facts (the solver works on facts 0 to size-1)
+      * @return number of facts
+      * */
+    abstract int size();
+
+    /** Get the value at the boundary: at the entrance for forward
+      * problems, at blocks without successors for backward problems
+      * @return boundary value (not modified by the solver)
+      * */
+    abstract BitSet boundary();
+
+    /** Compute the gen and kill sets of an instruction, where the
+      * value after the instruction (in the direction of the problem)
+      * is gen + (value before - kill)
+      * @param inst instruction
+      * @param gen empty set receiving the facts generated
+      * @param kill empty set receiving the facts killed
+      * */
+    abstract void transfer(TACInst inst, BitSet gen, BitSet kill);
+
+    /** Solve the problem for the current instructions of the subroutine
+      * (call again after transforming it)
+      * */
+    void solve() {
+	size = size();
+	blocks = reversePostorder(entrance);
+	if (!forward)
+	    // postorder of the graph approximates the reverse
+	    // postorder of the reversed graph
+	    Collections.reverse(blocks);
+	int n = blocks.size();
+	positions = new HashMap<BasicBlock, Integer>();
+	for (int i = 0; i < n; i++)
+	    positions.put(blocks.elementAt(i), i);
+
+	gen = new BitSet[n];
+	kill = new BitSet[n];
+	in = new BitSet[n];
+	out = new BitSet[n];
+	BitSet top = new BitSet();
+	if (!union)
+	    top.set(0, size);
+	for (int i = 0; i < n; i++) {
+	    computeGenKill(i);
+	    in[i] = (BitSet)top.clone();
+	    out[i] = (BitSet)top.clone();
+	}
+
+	// iterate the worklist in sweeps over the pending blocks
+	BitSet pending = new BitSet(n);
+	pending.set(0, n);
+	BitSet boundary = boundary();
+	BitSet after = new BitSet();
+	numVisits = 0;
+	for (int i = 0; i >= 0; i = nextPending(pending, i)) {
+	    pending.clear(i);
+	    numVisits++;
+	    BasicBlock bb = blocks.elementAt(i);
+
+	    // meet the values of the predecessors (in the direction of
+	    // the problem) into the value before the block
+	    BitSet before = forward ? in[i] : out[i];
+	    int numPreds = forward ? bb.getNumInEdges() : bb.getNumOutEdges();
+	    boolean first = true;
+	    for (int j = 0; j < numPreds; j++) {
+		Integer pred = positions.get(forward ? bb.getNthInEdge(j) : bb.getNthOutEdge(j));
+		if (pred == null)
+		    continue;  // unreachable predecessor
+		BitSet value = forward ? out[pred] : in[pred];
+		if (first)
+		    copy(before, value);
+		else if (union)
+		    before.or(value);
+		else
+		    before.and(value);
+		first = false;
+	    }
+	    if (first)
+		copy(before, boundary);
+
+	    // apply the transfer function of the block
+	    copy(after, before);
+	    after.andNot(kill[i]);
+	    after.or(gen[i]);
+	    BitSet old = forward ? out[i] : in[i];
+	    if (after.equals(old))
+		continue;
+	    copy(old, after);
+
+	    // the successors must be revisited
+	    int numSuccs = forward ? bb.getNumOutEdges() : bb.getNumInEdges();
+	    for (int j = 0; j < numSuccs; j++) {
+		Integer succ = positions.get(forward ? bb.getNthOutEdge(j) : bb.getNthInEdge(j));
+		if (succ != null)
+		    pending.set(succ);
+	    }
+	}
+    }
+
+    /** Get the next pending block: sweeps go over the pending blocks in
+      * solving order, so a change carried back by a loop edge waits for
+      * the next sweep instead of sending the solver back over all the
+      * blocks after the loop
+      * @param pending pending blocks (by position)
+      * @param i position of the block just visited
+      * @return position of the next block to visit (-1 if none)
+      * */
+    private static int nextPending(BitSet pending, int i) {
+	int next = pending.nextSetBit(i + 1);
+	return (next >= 0) ? next : pending.nextSetBit(0);
+    }
+
+    /** Compose the gen and kill sets of the instructions of a block
+      * @param i position of the block
+      * */
+    private void computeGenKill(int i) {
+	BasicBlock bb = blocks.elementAt(i);
+	BitSet g = new BitSet(), k = new BitSet();
+	int numInsn = bb.getNumInsn();
+	for (int j = 0; j < numInsn; j++) {
+	    TACInst inst = bb.getNthInst(forward ? j : numInsn - 1 - j);
+	    instGen.clear();
+	    instKill.clear();
+	    transfer(inst, instGen, instKill);
+	    g.andNot(instKill);
+	    g.or(instGen);
+	    k.or(instKill);
+	}
+	gen[i] = g;
+	kill[i] = k;
+    }
+
+    /** Overwrite a set with another
+      * @param dest set to overwrite
+      * @param src set to copy
+      * */
+    private static void copy(BitSet dest, BitSet src) {
+	dest.clear();
+	dest.or(src);
+    }
+
+    /** Get the value at the entry of a block
+      * @param bb block reachable from the entrance
+      * @return value (must not be modified)
+      * */
+    BitSet getIn(BasicBlock bb) {
+	return in[positions.get(bb)];
+    }
+
+    /** Get the value at the exit of a block
+      * @param bb block reachable from the entrance
+      * @return value (must not be modified)
+      * */
+    BitSet getOut(BasicBlock bb) {
+	return out[positions.get(bb)];
+    }
+
+    /** Get the values at each point of a block
+      * @param bb block reachable from the entrance
+      * @return values, where element n (for n less than the number of
+      * instructions) holds the value just before instruction n and the
+      * last element the value at the exit of the block
+      * */
+    BitSet[] getInstValues(BasicBlock bb) {
+	int numInsn = bb.getNumInsn();
+	BitSet[] values = new BitSet[numInsn + 1];
+	if (forward) {
+	    values[0] = (BitSet)getIn(bb).clone();
+	    for (int j = 0; j < numInsn; j++)
+		values[j + 1] = apply(bb.getNthInst(j), values[j]);
+	}
+	else {
+	    values[numInsn] = (BitSet)getOut(bb).clone();
+	    for (int j = numInsn - 1; j >= 0; j--)
+		values[j] = apply(bb.getNthInst(j), values[j + 1]);
+	}
+	return values;
+    }
+
+    /** Apply the transfer function of an instruction
+      * @param inst instruction
+      * @param value value before the instruction (in the direction of the problem)
+      * @return new value after the instruction
+      * */
+    private BitSet apply(TACInst inst, BitSet value) {
+	instGen.clear();
+	instKill.clear();
+	transfer(inst, instGen, instKill);
+	BitSet result = (BitSet)value.clone();
+	result.andNot(instKill);
+	result.or(instGen);
+	return result;
+    }
+
+    /** Get the blocks reachable from the entrance in solving order
+      * @return blocks (must not be modified)
+      * */
+    Vector<BasicBlock> getBlocks() {
+	return blocks;
+    }
+
+    /** Get the number of block visits made by the last solve
+      * @return number of visits
+      * */
+    int getNumVisits() {
+	return numVisits;
+    }
+
+    /** Get the field variables of the subroutine (used and possibly
+      * defined by every call)
+      * @return field variables (must not be modified)
+      * */
+    BitSet getFields() {
+	return fields;
+    }
+
+    /** Get the blocks reachable from an entrance in reverse postorder
+      * (a depth-first search taking the out edges in order)
+      * @param entrance entrance block
+      * @return blocks in reverse postorder
+      * */
+    static Vector<BasicBlock> reversePostorder(BasicBlock entrance) {
+	Vector<BasicBlock> order = new Vector<BasicBlock>();
+	HashSet<BasicBlock> visited = new HashSet<BasicBlock>();
+	Vector<BasicBlock> stack = new Vector<BasicBlock>();
+	Vector<Integer> nextEdges = new Vector<Integer>();
+	visited.add(entrance);
+	stack.add(entrance);
+	nextEdges.add(0);
+	while (stack.size() > 0) {
+	    int top = stack.size() - 1;
+	    BasicBlock bb = stack.elementAt(top);
+	    int edge = nextEdges.elementAt(top);
+	    if (edge < bb.getNumOutEdges()) {
+		nextEdges.set(top, edge + 1);
+		BasicBlock next = bb.getNthOutEdge(edge);
+		if (visited.add(next)) {
+		    stack.add(next);
+		    nextEdges.add(0);
+		}
+	    }
+	    else {
+		order.add(bb);
+		stack.removeElementAt(top);
+		nextEdges.removeElementAt(top);
+	    }
+	}
+	Collections.reverse(order);
+	return order;
+    }
+}
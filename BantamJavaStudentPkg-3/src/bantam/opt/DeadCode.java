@@ -0,0 +1,164 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>DeadCode</tt> class removes the dead definitions of a
+  * subroutine (whose operands have been numbered, see
+  * BasicBlock.numberOperands): instructions without side effects that
+  * define a parameter, local, or temporary whose value never reaches an
+  * instruction with side effects.  The needed variables are marked
+  * starting from the operands of the instructions with side effects,
+  * then through the operands of the definitions of each needed
+  * variable, so a dead cycle (e.g., a counter only incremented) is
+  * removed too.
+  *
+  * Runtime errors are raised by explicit checks (IFs to error blocks),
+  * so loads, arithmetic (including division), and phis have no side
+  * effects; calls do, and are kept even if their result is unused.
+  * Fields are memory and are never removed.
+  * */
+class DeadCode {
+    /** Entrance block of the subroutine */
+    private BasicBlock entrance;
+
+    /** Operand table of the subroutine */
+    private OperandTable operands;
+
+    /** DeadCode constructor
+      * @param entrance entrance block of a numbered subroutine
+      * */
+    DeadCode(BasicBlock entrance) {
+	this.entrance = entrance;
+	operands = entrance.getOperandTable();
+	if (operands == null)
+	    throw new RuntimeException("Internal error: dead code elimination in " +
+				       "a subroutine that has not been numbered");
+    }
+
+    /** Can an instruction be removed when its definition is dead?
+      * @param inst instruction
+      * @return flag indicating whether it has no side effects
+      * */
+    static boolean isRemovable(TACInst inst) {
+	switch (inst.getOpcode()) {
+	case TACInst.LDVAR: case TACInst.LDCONST: case TACInst.LDADDR:
+	case TACInst.LDENTRY: case TACInst.UNNEG: case TACInst.UNNOT:
+	case TACInst.BINADD: case TACInst.BINSUB: case TACInst.BINMUL:
+	case TACInst.BINDIV: case TACInst.BINMOD: case TACInst.BINAND:
+	case TACInst.BINOR: case TACInst.PHI:
+	    return true;
+	default:
+	    return false;
+	}
+    }
+
+    /** Remove the dead definitions
+      * @return number of instructions removed
+      * */
+    int run() {
+	Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrance);
+	int numVars = operands.size();
+
+	// collect the removable definitions of each variable, and the
+	// variables read by the other instructions
+	Vector<Vector<TACInst>> defs = new Vector<Vector<TACInst>>(numVars);
+	for (int v = 0; v < numVars; v++)
+	    defs.add(null);
+	boolean[] needed = new boolean[numVars];
+	Vector<Integer> worklist = new Vector<Integer>();
+	int numRemovable = 0;
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		int def = inst.getDefId();
+		if (def >= 0 && isRemovable(inst) && isLocal(def)) {
+		    if (defs.elementAt(def) == null)
+			defs.set(def, new Vector<TACInst>());
+		    defs.elementAt(def).add(inst);
+		    numRemovable++;
+		}
+		else
+		    need(inst, needed, worklist);
+	    }
+	}
+
+	// mark the definitions of the needed variables
+	Set<TACInst> live = Collections.newSetFromMap(new IdentityHashMap<TACInst, Boolean>());
+	while (worklist.size() > 0) {
+	    Vector<TACInst> varDefs = defs.elementAt(worklist.remove(worklist.size() - 1));
+	    if (varDefs == null)
+		continue;
+	    for (int i = 0; i < varDefs.size(); i++)
+		if (live.add(varDefs.elementAt(i)))
+		    need(varDefs.elementAt(i), needed, worklist);
+	}
+
+	// sweep the other removable definitions
+	int numRemoved = numRemovable - live.size();
+	if (numRemoved == 0)
+	    return 0;
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = bb.getNumInsn() - 1; j >= 0; j--) {
+		TACInst inst = bb.getNthInst(j);
+		int def = inst.getDefId();
+		if (def >= 0 && isRemovable(inst) && isLocal(def) && !live.contains(inst))
+		    bb.removeNthInst(j);
+	    }
+	}
+	return numRemoved;
+    }
+
+    /** Is a variable local to the subroutine (a parameter, local, or
+      * temporary, rather than this or a field)?
+      * @param var identifier of a variable
+      * @return flag indicating whether local
+      * */
+    private boolean isLocal(int var) {
+	int kind = operands.getKind(var);
+	return kind == OperandTable.PARAM || kind == OperandTable.LOCAL ||
+	    kind == OperandTable.TEMP;
+    }
+
+    /** Mark the variables read by an instruction as needed
+      * @param inst instruction
+      * @param needed needed variables
+      * @param worklist variables marked but not processed yet
+      * */
+    private void need(TACInst inst, boolean[] needed, Vector<Integer> worklist) {
+	int[] uses = inst.getUseIds();
+	for (int k = 0; k < uses.length; k++)
+	    if (!needed[uses[k]]) {
+		needed[uses[k]] = true;
+		worklist.add(uses[k]);
+	    }
+    }
+}
@@ -0,0 +1,243 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>Dominators</tt> class computes the dominator tree and the
+  * dominance frontiers of the control flow graph of a subroutine.  A
+  * block d dominates a block b if every path from the entrance to b
+  * goes through d; the immediate dominator of b is its closest strict
+  * dominator.  The dominance frontier of d holds the blocks where the
+  * dominance of d ends: those with a predecessor dominated by d that
+  * are not strictly dominated by d themselves.
+  *
+  * The tree is computed with the iterative algorithm of Cooper, Harvey
+  * and Kennedy ("A Simple, Fast Dominance Algorithm"), which intersects
+  * the dominators of the predecessors of each block in reverse
+  * postorder until nothing changes (two passes for the reducible graphs
+  * built from Bantam code), and the frontiers by walking up the tree
+  * from the predecessors of each join block.  The result describes the
+  * graph when it was computed; recompute it after changing edges.
+  * */
+class Dominators {
+    /** Blocks reachable from the entrance in reverse postorder */
+    private Vector<BasicBlock> blocks;
+
+    /** Positions of the blocks in reverse postorder */
+    private HashMap<BasicBlock, Integer> positions = new HashMap<BasicBlock, Integer>();
+
+    /** Immediate dominator of each block (by position, the entrance
+      * is its own immediate dominator) */
+    private int[] idoms;
+
+    /** Children of each block in the dominator tree (by position) */
+    private Vector<Vector<BasicBlock>> children;
+
+    /** Preorder and postorder numbers in the dominator tree (by
+      * position), used to answer dominance queries in constant time */
+    private int[] preorder, postorder;
+
+    /** Dominance frontier of each block (by position) */
+    private Vector<Vector<BasicBlock>> frontiers;
+
+    /** Dominators constructor
+      * @param entrance entrance block of a subroutine
+      * */
+    Dominators(BasicBlock entrance) {
+	blocks = Dataflow.reversePostorder(entrance);
+	int n = blocks.size();
+	for (int i = 0; i < n; i++)
+	    positions.put(blocks.elementAt(i), i);
+	computeIdoms();
+	computeTree();
+	computeFrontiers();
+    }
+
+    /** Compute the immediate dominators
+      * */
+    private void computeIdoms() {
+	int n = blocks.size();
+	idoms = new int[n];
+	Arrays.fill(idoms, -1);
+	idoms[0] = 0;
+	boolean changed = true;
+	while (changed) {
+	    changed = false;
+	    for (int b = 1; b < n; b++) {
+		BasicBlock bb = blocks.elementAt(b);
+		int idom = -1;
+		for (int i = 0; i < bb.getNumInEdges(); i++) {
+		    Integer p = positions.get(bb.getNthInEdge(i));
+		    // skip unreachable predecessors and those not processed yet
+		    if (p == null || idoms[p] < 0)
+			continue;
+		    idom = (idom < 0) ? p : intersect(p, idom);
+		}
+		if (idoms[b] != idom) {
+		    idoms[b] = idom;
+		    changed = true;
+		}
+	    }
+	}
+    }
+
+    /** Find the closest common dominator of two blocks
+      * @param b1 position of a block
+      * @param b2 position of another block
+      * @return position of the common dominator
+      * */
+    private int intersect(int b1, int b2) {
+	// a dominator comes before the blocks it dominates in reverse
+	// postorder, so walk up from the later block
+	while (b1 != b2) {
+	    while (b1 > b2)
+		b1 = idoms[b1];
+	    while (b2 > b1)
+		b2 = idoms[b2];
+	}
+	return b1;
+    }
+
+    /** Build the children lists and number the dominator tree
+      * */
+    private void computeTree() {
+	int n = blocks.size();
+	children = new Vector<Vector<BasicBlock>>(n);
+	for (int i = 0; i < n; i++)
+	    children.add(new Vector<BasicBlock>());
+	// children are added in reverse postorder
+	for (int i = 1; i < n; i++)
+	    children.elementAt(idoms[i]).add(blocks.elementAt(i));
+
+	preorder = new int[n];
+	postorder = new int[n];
+	int pre = 0, post = 0;
+	Vector<Integer> stack = new Vector<Integer>();
+	Vector<Integer> nextChild = new Vector<Integer>();
+	stack.add(0);
+	nextChild.add(0);
+	preorder[0] = pre++;
+	while (stack.size() > 0) {
+	    int top = stack.size() - 1;
+	    int b = stack.elementAt(top);
+	    int c = nextChild.elementAt(top);
+	    Vector<BasicBlock> kids = children.elementAt(b);
+	    if (c < kids.size()) {
+		nextChild.set(top, c + 1);
+		int child = positions.get(kids.elementAt(c));
+		preorder[child] = pre++;
+		stack.add(child);
+		nextChild.add(0);
+	    }
+	    else {
+		postorder[b] = post++;
+		stack.removeElementAt(top);
+		nextChild.removeElementAt(top);
+	    }
+	}
+    }
+
+    /** Compute the dominance frontiers
+      * */
+    private void computeFrontiers() {
+	int n = blocks.size();
+	frontiers = new Vector<Vector<BasicBlock>>(n);
+	for (int i = 0; i < n; i++)
+	    frontiers.add(new Vector<BasicBlock>());
+	for (int b = 0; b < n; b++) {
+	    BasicBlock bb = blocks.elementAt(b);
+	    if (bb.getNumInEdges() < 2)
+		continue;
+	    for (int i = 0; i < bb.getNumInEdges(); i++) {
+		Integer p = positions.get(bb.getNthInEdge(i));
+		if (p == null)
+		    continue;
+		// every block from the predecessor up to (not including) the
+		// immediate dominator of the join has it in its frontier
+		for (int runner = p; runner != idoms[b]; runner = idoms[runner]) {
+		    Vector<BasicBlock> frontier = frontiers.elementAt(runner);
+		    if (frontier.size() > 0 && frontier.lastElement() == bb)
+			break;  // already added through another predecessor
+		    frontier.add(bb);
+		}
+	    }
+	}
+    }
+
+    /** Get the blocks reachable from the entrance in reverse postorder
+      * @return blocks (must not be modified)
+      * */
+    Vector<BasicBlock> getBlocks() {
+	return blocks;
+    }
+
+    /** Is a block reachable from the entrance (when computed)?
+      * @param bb block
+      * @return flag indicating whether reachable
+      * */
+    boolean isReachable(BasicBlock bb) {
+	return positions.containsKey(bb);
+    }
+
+    /** Get the immediate dominator of a block
+      * @param bb reachable block
+      * @return immediate dominator (null for the entrance)
+      * */
+    BasicBlock getIdom(BasicBlock bb) {
+	int b = positions.get(bb);
+	return (b == 0) ? null : blocks.elementAt(idoms[b]);
+    }
+
+    /** Get the children of a block in the dominator tree (the blocks it
+      * immediately dominates)
+      * @param bb reachable block
+      * @return children, in reverse postorder (must not be modified)
+      * */
+    Vector<BasicBlock> getChildren(BasicBlock bb) {
+	return children.elementAt(positions.get(bb));
+    }
+
+    /** Does a block dominate another (every block dominates itself)?
+      * @param d reachable block
+      * @param bb reachable block
+      * @return flag indicating whether d dominates bb
+      * */
+    boolean dominates(BasicBlock d, BasicBlock bb) {
+	int dp = positions.get(d), bp = positions.get(bb);
+	return preorder[dp] <= preorder[bp] && postorder[bp] <= postorder[dp];
+    }
+
+    /** Get the dominance frontier of a block
+      * @param bb reachable block
+      * @return frontier (must not be modified)
+      * */
+    Vector<BasicBlock> getFrontier(BasicBlock bb) {
+	return frontiers.elementAt(positions.get(bb));
+    }
+}
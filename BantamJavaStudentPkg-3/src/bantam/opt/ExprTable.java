@@ -0,0 +1,184 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>ExprTable</tt> class numbers the expressions computed by
+  * the unary and binary instructions of a subroutine, so that the
+  * expression analyses (AvailableExprs, VeryBusyExprs) can use them as
+  * facts.  An expression is an opcode and its operand identifiers (the
+  * operands of commutative operators are sorted, so a+b and b+a are
+  * the same expression).  Identifiers are never reused, so they stay
+  * valid while the subroutine is transformed.
+  * */
+class ExprTable {
+    /** Identifiers by key (opcode and operand identifiers) */
+    private HashMap<String, Integer> ids = new HashMap<String, Integer>();
+
+    /** Opcode of each expression */
+    private Vector<Integer> opcodes = new Vector<Integer>();
+
+    /** Operand identifiers of each expression */
+    private Vector<int[]> operandIds = new Vector<int[]>();
+
+    /** Expressions reading each variable (by operand identifier) */
+    private Vector<BitSet> users = new Vector<BitSet>();
+
+    /** Operand table of the subroutine */
+    private OperandTable operands;
+
+    /** ExprTable constructor
+      * @param entrance entrance block of a numbered subroutine
+      * */
+    ExprTable(BasicBlock entrance) {
+	operands = entrance.getOperandTable();
+	scan(entrance);
+    }
+
+    /** Number the expressions of the current instructions (those already
+      * numbered keep their identifiers)
+      * @param entrance entrance block of the subroutine
+      * */
+    void scan(BasicBlock entrance) {
+	Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrance);
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++)
+		intern(bb.getNthInst(j));
+	}
+    }
+
+    /** Get the number of expressions
+      * @return number of expressions
+      * */
+    int size() {
+	return opcodes.size();
+    }
+
+    /** Get the key of the expression computed by an instruction
+      * @param inst instruction
+      * @return key (null if the instruction is not unary or binary)
+      * */
+    private static String key(TACInst inst) {
+	if (!inst.isUnary() && !inst.isBinary())
+	    return null;
+	int[] uses = inst.getUseIds();
+	int op = inst.getOpcode();
+	if (uses.length == 1)
+	    return op + " " + uses[0];
+	int left = uses[0], right = uses[1];
+	if (isCommutative(op) && right < left) {
+	    left = uses[1];
+	    right = uses[0];
+	}
+	return op + " " + left + " " + right;
+    }
+
+    /** Is an operator commutative?
+      * @param opcode opcode of a binary instruction
+      * @return flag indicating whether commutative
+      * */
+    static boolean isCommutative(int opcode) {
+	return opcode == TACInst.BINADD || opcode == TACInst.BINMUL ||
+	    opcode == TACInst.BINAND || opcode == TACInst.BINOR;
+    }
+
+    /** Get the expression computed by an instruction, numbering it if new
+      * @param inst instruction
+      * @return expression identifier (-1 if the instruction is not unary or binary)
+      * */
+    int intern(TACInst inst) {
+	String key = key(inst);
+	if (key == null)
+	    return -1;
+	Integer id = ids.get(key);
+	if (id != null)
+	    return id;
+	int e = opcodes.size();
+	ids.put(key, e);
+	opcodes.add(inst.getOpcode());
+	int[] uses = inst.getUseIds().clone();
+	operandIds.add(uses);
+	for (int i = 0; i < uses.length; i++) {
+	    if (!operands.isVar(uses[i]))
+		continue;
+	    while (users.size() <= uses[i])
+		users.add(new BitSet());
+	    users.elementAt(uses[i]).set(e);
+	}
+	return e;
+    }
+
+    /** Get the expression computed by an instruction
+      * @param inst instruction
+      * @return expression identifier (-1 if none or not numbered)
+      * */
+    int lookup(TACInst inst) {
+	String key = key(inst);
+	if (key == null)
+	    return -1;
+	Integer id = ids.get(key);
+	return (id == null) ? -1 : id;
+    }
+
+    /** Get the opcode of an expression
+      * @param e expression identifier
+      * @return opcode
+      * */
+    int getOpcode(int e) {
+	return opcodes.elementAt(e);
+    }
+
+    /** Get the operands of an expression
+      * @param e expression identifier
+      * @return operand identifiers, in the order of the first instruction
+      * computing it (must not be modified)
+      * */
+    int[] getOperandIds(int e) {
+	return operandIds.elementAt(e);
+    }
+
+    /** Add the expressions reading a variable to a set
+      * @param var operand identifier of the variable
+      * @param set set receiving the expressions
+      * */
+    void addUsers(int var, BitSet set) {
+	if (var < users.size())
+	    set.or(users.elementAt(var));
+    }
+
+    /** Add the expressions reading some variables to a set
+      * @param vars operand identifiers of the variables
+      * @param set set receiving the expressions
+      * */
+    void addUsers(BitSet vars, BitSet set) {
+	for (int v = vars.nextSetBit(0); v >= 0; v = vars.nextSetBit(v + 1))
+	    addUsers(v, set);
+    }
+}
@@ -0,0 +1,449 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>GVN</tt> class performs global value numbering on a
+  * subroutine in SSA form (see SSA), walking the dominator tree with a
+  * scoped table of the values computed so far (Briggs, Cooper, and
+  * Simpson, "Value Numbering").
+  *
+  * Each SSA version gets a value number: the variable (or constant)
+  * already holding its value.  A copy gets the value number of its
+  * source, a phi whose sources all have the same value number gets
+  * that number, and an instruction computing a value already computed
+  * by a dominating instruction gets the variable that instruction
+  * defines.  Every use is then replaced by its value number, so the
+  * redundant instructions are left without uses and are removed (see
+  * DeadCode).  An expression is its opcode and the value numbers of
+  * its operands (sorted for commutative operators, see ExprTable).
+  *
+  * Memory is versioned: the array entries by stores and calls, the
+  * fields by their definitions and calls.  A block starts with the
+  * memory of its immediate dominator unless a path between them may
+  * write it, and a load is only redundant with a load (or a store) of
+  * the same memory version.  The headers of objects and arrays (class
+  * id, dispatch table, and the length of the variables known to be
+  * arrays, see CFGBuilder.findArrays) are never written after
+  * allocation, so their loads do not depend on memory.  Inlining (see
+  * Inliner) accesses the fields of other objects as entries, at
+  * constant indices, and the object may be <tt>this</tt>: in a
+  * subroutine with both, a field definition also writes the entries,
+  * and an entry store the fields.
+  *
+  * Partial redundancies (values computed on some paths only) are not
+  * removed.
+  * */
+class GVN {
+    /** Entrance block of the subroutine */
+    private BasicBlock entrance;
+
+    /** Operand table of the subroutine */
+    private OperandTable operands;
+
+    /** Dominator tree of the subroutine */
+    private Dominators doms;
+
+    /** Value numbers by operand identifier: the operand (variable or
+      * constant) holding the same value, the operand itself by default */
+    private int[] values;
+
+    /** Variables holding the values computed by the blocks on the
+      * current path of the dominator tree (by expression key) */
+    private HashMap<String, Integer> table;
+
+    /** Flags indicating whether each block may write array entries or
+      * fields (by block) */
+    private HashSet<BasicBlock> writesArrays, writesFields;
+
+    /** Flags indicating whether each variable is known to hold an
+      * array (by base operand identifier, see CFGBuilder.findArrays) */
+    private boolean[] arrays;
+
+    /** Flag indicating whether entries may be fields of <tt>this</tt>
+      * (the subroutine accesses both fields and entries at constant
+      * indices past the header) */
+    private boolean fieldEntries;
+
+    /** Memory versions (array entries and fields) at the exit of each
+      * block visited */
+    private HashMap<BasicBlock, int[]> memories;
+
+    /** Last memory version created */
+    private int lastMemory;
+
+    /** Number of redundant instructions found */
+    private int numRedundant;
+
+    /** GVN constructor
+      * @param entrance entrance block of a numbered subroutine in SSA form
+      * */
+    GVN(BasicBlock entrance) {
+	this.entrance = entrance;
+	operands = entrance.getOperandTable();
+	if (operands == null)
+	    throw new RuntimeException("Internal error: value numbering in " +
+				       "a subroutine that has not been numbered");
+    }
+
+    /** Number the values and remove the redundant instructions
+      * @return flag indicating whether the subroutine changed
+      * */
+    boolean run() {
+	doms = new Dominators(entrance);
+	Vector<BasicBlock> blocks = doms.getBlocks();
+	values = new int[operands.size()];
+	for (int v = 0; v < values.length; v++)
+	    values[v] = v;
+	table = new HashMap<String, Integer>();
+	writesArrays = new HashSet<BasicBlock>();
+	writesFields = new HashSet<BasicBlock>();
+	arrays = CFGBuilder.findArrays(blocks, operands);
+	boolean usesFields = false, usesEntries = false;
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		int[] uses = inst.getUseIds();
+		for (int k = 0; k < uses.length; k++)
+		    usesFields |= isField(uses[k]);
+		usesFields |= isField(inst.getDefId());
+		if (inst.getOpcode() == TACInst.LDENTRY)
+		    usesEntries |= isFieldEntry(uses[0], uses[1]);
+		else if (inst.getOpcode() == TACInst.STENTRY)
+		    usesEntries |= isFieldEntry(uses[0], uses[2]);
+	    }
+	}
+	fieldEntries = usesFields && usesEntries;
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		boolean storesEntry = inst.getOpcode() == TACInst.STENTRY;
+		boolean definesField = isField(inst.getDefId());
+		if (inst.isCall() || storesEntry || (fieldEntries && definesField))
+		    writesArrays.add(bb);
+		if (inst.isCall() || definesField || (fieldEntries && storesEntry))
+		    writesFields.add(bb);
+	    }
+	}
+	memories = new HashMap<BasicBlock, int[]>();
+	lastMemory = 0;
+	numRedundant = 0;
+
+	// walk the dominator tree, removing the keys entered by a block
+	// once its subtree is done
+	Vector<BasicBlock> stack = new Vector<BasicBlock>();
+	Vector<Integer> nextChild = new Vector<Integer>();
+	Vector<Vector<String>> entered = new Vector<Vector<String>>();
+	stack.add(entrance);
+	nextChild.add(0);
+	entered.add(visit(entrance));
+	while (stack.size() > 0) {
+	    int top = stack.size() - 1;
+	    BasicBlock bb = stack.elementAt(top);
+	    int c = nextChild.elementAt(top);
+	    Vector<BasicBlock> kids = doms.getChildren(bb);
+	    if (c < kids.size()) {
+		nextChild.set(top, c + 1);
+		stack.add(kids.elementAt(c));
+		nextChild.add(0);
+		entered.add(visit(kids.elementAt(c)));
+	    }
+	    else {
+		Vector<String> keys = entered.elementAt(top);
+		for (int k = 0; k < keys.size(); k++)
+		    table.remove(keys.elementAt(k));
+		stack.removeElementAt(top);
+		nextChild.removeElementAt(top);
+		entered.removeElementAt(top);
+	    }
+	}
+	int numRemoved = new DeadCode(entrance).run();
+	return numRedundant + numRemoved > 0;
+    }
+
+    /** Number the values of a block (whose immediate dominator has been
+      * visited) and replace the uses by their value numbers
+      * @param bb block reachable from the entrance
+      * @return keys entered into the table
+      * */
+    private Vector<String> visit(BasicBlock bb) {
+	Vector<String> keys = new Vector<String>();
+	int[] memory = new int[2];
+	BasicBlock idom = doms.getIdom(bb);
+	if (idom != null) {
+	    int[] before = memories.get(idom);
+	    memory[0] = mayWrite(bb, idom, writesArrays) ? ++lastMemory : before[0];
+	    memory[1] = mayWrite(bb, idom, writesFields) ? ++lastMemory : before[1];
+	}
+
+	for (int j = 0; j < bb.getNumInsn(); j++) {
+	    TACInst inst = bb.getNthInst(j);
+	    int def = inst.getDefId();
+	    if (!inst.isPhi())
+		replaceUses(inst);
+	    if (inst.isCall()) {
+		memory[0] = ++lastMemory;
+		memory[1] = ++lastMemory;
+	    }
+	    else if (inst.getOpcode() == TACInst.STENTRY) {
+		// a load of the entry stored reads the value stored
+		memory[0] = ++lastMemory;
+		if (fieldEntries)
+		    memory[1] = ++lastMemory;
+		int[] uses = inst.getUseIds();
+		enter(entryKey(uses[0], uses[2], memory), uses[1], keys);
+	    }
+	    else if (isField(def)) {
+		memory[1] = ++lastMemory;
+		if (fieldEntries)
+		    memory[0] = ++lastMemory;
+		if (inst.getOpcode() == TACInst.LDVAR)
+		    enter("F " + def + " " + memory[1], inst.getUseIds()[0], keys);
+	    }
+	    if (def < 0 || !isLocal(def))
+		continue;
+
+	    if (inst.getOpcode() == TACInst.LDVAR && isLocal(inst.getUseIds()[0])) {
+		values[def] = values[inst.getUseIds()[0]];
+		continue;
+	    }
+	    if (inst.isPhi() && setPhiValue((PhiInst)inst, bb))
+		continue;
+	    String key = key(inst, bb, memory);
+	    if (key == null)
+		continue;
+	    Integer holder = table.get(key);
+	    if (holder != null) {
+		values[def] = holder;
+		numRedundant++;
+	    }
+	    else
+		enter(key, def, keys);
+	}
+
+	// the phi sources for the edges out of the block are its uses
+	for (int k = 0; k < bb.getNumOutEdges(); k++) {
+	    BasicBlock succ = bb.getNthOutEdge(k);
+	    for (int j = 0; j < succ.getNumInsn() && succ.getNthInst(j).isPhi(); j++) {
+		PhiInst phi = (PhiInst)succ.getNthInst(j);
+		int source = operands.lookup(phi.getSource(bb));
+		if (source >= 0 && values[source] != source)
+		    phi.setSource(bb, operands.getName(values[source]));
+	    }
+	}
+	memories.put(bb, memory);
+	return keys;
+    }
+
+    /** Give a phi the value number shared by all its sources (other
+      * than the phi itself), if any
+      * @param phi phi instruction
+      * @param bb block of the phi
+      * @return flag indicating whether the sources share a value number
+      * */
+    private boolean setPhiValue(PhiInst phi, BasicBlock bb) {
+	int def = phi.getDefId();
+	int value = -1;
+	for (int k = 0; k < phi.getNumSources(); k++) {
+	    int source = values[operands.lookup(phi.getNthSource(k))];
+	    if (source == def)
+		continue;
+	    if (value >= 0 && source != value)
+		return false;
+	    value = source;
+	}
+	if (value < 0 || !operands.isVar(value))
+	    return false;
+	values[def] = value;
+	numRedundant++;
+	return true;
+    }
+
+    /** Replace the uses of an instruction by their value numbers
+      * @param inst instruction (not a phi)
+      * */
+    private void replaceUses(TACInst inst) {
+	int[] uses = inst.getUseIds();
+	for (int k = 0; k < uses.length; k++)
+	    if (values[uses[k]] != uses[k])
+		inst.setUse(k, operands.getName(values[uses[k]]));
+    }
+
+    /** Enter a value into the table, if held by a variable that is
+      * not written again
+      * @param key expression key
+      * @param holder identifier of the operand holding the value
+      * @param keys keys entered by the current block
+      * */
+    private void enter(String key, int holder, Vector<String> keys) {
+	if (!isLocal(holder) || table.containsKey(key))
+	    return;
+	table.put(key, holder);
+	keys.add(key);
+    }
+
+    /** Get the key of the value computed by an instruction
+      * @param inst instruction defining a parameter, local, or temporary
+      * @param bb block of the instruction
+      * @param memory memory versions (array entries and fields) before
+      * the instruction
+      * @return key (null if the value is not numbered)
+      * */
+    private String key(TACInst inst, BasicBlock bb, int[] memory) {
+	int[] uses = inst.getUseIds();
+	switch (inst.getOpcode()) {
+	case TACInst.LDVAR:
+	    // a field (a copy of a local was handled by the caller)
+	    if (isField(uses[0]))
+		return "F " + uses[0] + " " + memory[1];
+	    return null;
+	case TACInst.LDADDR:
+	    return "A " + ((LoadAddrInst)inst).getSource();
+	case TACInst.LDENTRY:
+	    return entryKey(uses[0], uses[1], memory);
+	case TACInst.PHI:
+	    // phis of the same block merging the same values
+	    PhiInst phi = (PhiInst)inst;
+	    String key = "P " + bb.getID();
+	    for (int k = 0; k < bb.getNumInEdges(); k++) {
+		String source = phi.getSource(bb.getNthInEdge(k));
+		key += " " + (source == null ? -1 : values[operands.lookup(source)]);
+	    }
+	    return key;
+	default:
+	    if (!inst.isUnary() && !inst.isBinary())
+		return null;
+	    for (int k = 0; k < uses.length; k++)
+		if (isField(uses[k]))
+		    return null;
+	    int op = inst.getOpcode();
+	    if (uses.length == 1)
+		return op + " " + uses[0];
+	    int left = uses[0], right = uses[1];
+	    if (ExprTable.isCommutative(op) && right < left) {
+		left = uses[1];
+		right = uses[0];
+	    }
+	    return op + " " + left + " " + right;
+	}
+    }
+
+    /** Get the key of an array or object entry
+      * @param base identifier of the array or object
+      * @param index identifier of the index
+      * @param memory memory versions (array entries and fields)
+      * @return key
+      * */
+    private String entryKey(int base, int index, int[] memory) {
+	String key = "E " + values[base] + " " + values[index];
+	if (isField(base) || isField(index))
+	    // the field may then hold another array or object
+	    key += " F " + memory[1];
+	if (CFGBuilder.isHeaderEntry(operands, index, isArray(base)))
+	    return key;
+	return key + " " + memory[0];
+    }
+
+    /** May a path from a dominator to a block write memory?
+      * @param bb block reachable from the entrance
+      * @param idom immediate dominator of the block
+      * @param writers blocks that may write the memory
+      * @return flag indicating whether a block on a path from idom
+      * (excluded) to bb (excluded, unless it is on a cycle) may write
+      * */
+    private boolean mayWrite(BasicBlock bb, BasicBlock idom, HashSet<BasicBlock> writers) {
+	if (writers.isEmpty())
+	    return false;
+	if (bb.getNumInEdges() == 1 && bb.getNthInEdge(0) == idom)
+	    return false;
+	// search backward from the predecessors, stopping at idom
+	HashSet<BasicBlock> visited = new HashSet<BasicBlock>();
+	Vector<BasicBlock> worklist = new Vector<BasicBlock>();
+	for (int k = 0; k < bb.getNumInEdges(); k++)
+	    worklist.add(bb.getNthInEdge(k));
+	while (worklist.size() > 0) {
+	    BasicBlock pred = worklist.remove(worklist.size() - 1);
+	    if (pred == idom || !doms.isReachable(pred) || !visited.add(pred))
+		continue;
+	    if (writers.contains(pred))
+		return true;
+	    for (int k = 0; k < pred.getNumInEdges(); k++)
+		worklist.add(pred.getNthInEdge(k));
+	}
+	return false;
+    }
+
+    /** Is an operand a field of <tt>this</tt>?
+      * @param id identifier of an operand (-1 for none)
+      * @return flag indicating whether a field
+      * */
+    private boolean isField(int id) {
+	return id >= 0 && operands.getKind(id) == OperandTable.FIELD;
+    }
+
+    /** May an entry be a field (of an object that may be <tt>this</tt>)?
+      * @param base identifier of the object
+      * @param index identifier of the index
+      * @return flag indicating whether the index is a constant past the
+      * header and the object is not known to be an array
+      * */
+    private boolean isFieldEntry(int base, int index) {
+	return operands.getKind(index) == OperandTable.INT_CONST &&
+	    operands.getIntValue(index) >= CFGBuilder.FIELDS_INDEX && !isArray(base);
+    }
+
+    /** Is an operand known to hold an array?
+      * @param id identifier of an operand
+      * @return flag indicating whether an array (see CFGBuilder.findArrays)
+      * */
+    private boolean isArray(int id) {
+	int base = operands.getBase(id);
+	return base < arrays.length && arrays[base];
+    }
+
+    /** Is an operand a parameter, local, or temporary (a variable
+      * defined once in SSA form)?
+      * @param id identifier of an operand
+      * @return flag indicating whether local
+      * */
+    private boolean isLocal(int id) {
+	int kind = operands.getKind(id);
+	return kind == OperandTable.PARAM || kind == OperandTable.LOCAL ||
+	    kind == OperandTable.TEMP;
+    }
+
+    /** Get the number of redundant instructions found by the last run
+      * @return number of instructions
+      * */
+    int getNumRedundant() {
+	return numRedundant;
+    }
+}
@@ -0,0 +1,347 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>GraphColoring</tt> class allocates registers to the
+  * variables of a subroutine by coloring their interference graph, in
+  * the manner of Chaitin, with the optimistic coloring and conservative
+  * coalescing of Briggs ("Improvements to Graph Coloring Register
+  * Allocation", Briggs, Cooper and Torczon).
+  *
+  * Two variables interfere when one is written where the other is live
+  * (see Liveness), except that a copy <tt>x = y</tt> does not make x
+  * interfere with y, and the variables live at the entrance interfere
+  * with each other.  The copies between variables that do not interfere
+  * are then coalesced, the most frequent first, when the merged node has
+  * fewer neighbors of significant degree (at least their number of
+  * registers) than it has registers (the Briggs test), so coalescing
+  * never makes the graph harder to color.  The graph is then simplified:
+  * a node with fewer neighbors than registers can always be colored, so
+  * it is removed and pushed on a stack; when none is left, the node
+  * with the lowest spill cost per neighbor is pushed instead, in the
+  * hope that its neighbors will share colors.  Popping the stack gives
+  * each node a register its colored neighbors do not use, or spills it
+  * if there is none.
+  *
+  * The spill cost of a variable is the number of its reads and writes,
+  * each weighted by 10 to the loop count of its block
+  * (BasicBlock.getLoopCnt), so the variables of the inner loops keep
+  * their registers.  A variable live across a call only has the
+  * callee-saved registers (see RegisterAllocator).  A spilled variable
+  * stays in its stack slot, so the code does not change and there is
+  * no need to build the graph again.
+  *
+  * The graph and the coalescing make this allocator slower than
+  * LinearScan, so it is used at the top levels.
+  * */
+class GraphColoring extends RegisterAllocator {
+    /** Neighbors of each node (by operand identifier, null for the
+      * variables that are not nodes) */
+    private BitSet[] adj;
+
+    /** Nodes of the graph (the candidates that occur, less the ones
+      * coalesced into others) */
+    private BitSet nodes;
+
+    /** Node each variable was coalesced into (by operand identifier,
+      * the variable itself if none -- see find) */
+    private int[] alias;
+
+    /** Variables live across a call (by operand identifier) */
+    private boolean[] spansCall;
+
+    /** Spill costs (by operand identifier) */
+    private double[] costs;
+
+    /** Copies between candidates (destination and source) */
+    private Vector<int[]> moves = new Vector<int[]>();
+
+    /** Execution weights of the copies (parallel to moves) */
+    private Vector<Double> moveWeights = new Vector<Double>();
+
+    /** Number of copies coalesced */
+    private int numCoalesced;
+
+    /** GraphColoring constructor
+      * @param entrance entrance block of a numbered subroutine (not in
+      * SSA form)
+      * @param numCallerSaved number of caller-saved registers
+      * @param numCalleeSaved number of callee-saved registers
+      * */
+    GraphColoring(BasicBlock entrance, int numCallerSaved, int numCalleeSaved) {
+	super(entrance, numCallerSaved, numCalleeSaved);
+    }
+
+    /** Allocate the registers, recording them in the operand table
+      * @return flag indicating whether some variable got a register
+      * */
+    boolean run() {
+	numAllocated = numSpilled = numCoalesced = 0;
+	for (int id = 0; id < operands.size(); id++)
+	    operands.setRegister(id, -1);
+	build();
+	BitSet occurring = (BitSet)nodes.clone();
+	coalesce();
+	int[] colors = select(simplify());
+	for (int id = occurring.nextSetBit(0); id >= 0; id = occurring.nextSetBit(id + 1)) {
+	    int reg = colors[find(id)];
+	    operands.setRegister(id, reg);
+	    if (reg >= 0)
+		numAllocated++;
+	    else
+		numSpilled++;
+	}
+	return numAllocated > 0;
+    }
+
+    /** Get the number of copies coalesced by the last run
+      * @return number of copies
+      * */
+    int getNumCoalesced() {
+	return numCoalesced;
+    }
+
+    /** Build the interference graph, the spill costs and the copies
+      * */
+    private void build() {
+	int size = operands.size();
+	adj = new BitSet[size];
+	nodes = new BitSet();
+	alias = new int[size];
+	spansCall = new boolean[size];
+	costs = new double[size];
+	moves.clear();
+	moveWeights.clear();
+	for (int id = 0; id < size; id++)
+	    alias[id] = id;
+
+	Liveness liveness = new Liveness(entrance);
+	BitSet entry = liveness.getIn(entrance);
+	for (int a = entry.nextSetBit(0); a >= 0; a = entry.nextSetBit(a + 1))
+	    for (int b = entry.nextSetBit(a + 1); b >= 0; b = entry.nextSetBit(b + 1))
+		addEdge(a, b);
+	Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrance);
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    BitSet[] live = liveness.getInstValues(bb);
+	    double weight = Math.pow(10, bb.getLoopCnt());
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		int[] uses = inst.getUseIds();
+		for (int k = 0; k < uses.length; k++)
+		    if (addNode(uses[k]))
+			costs[uses[k]] += weight;
+		int def = inst.getDefId();
+		if (def >= 0 && addNode(def)) {
+		    costs[def] += weight;
+		    // a copy does not make its destination interfere with
+		    // its source, which may then share its register
+		    int source = -1;
+		    if (inst.getOpcode() == TACInst.LDVAR && addNode(uses[0]) && uses[0] != def) {
+			source = uses[0];
+			moves.add(new int[] {def, source});
+			moveWeights.add(weight);
+		    }
+		    BitSet out = live[j + 1];
+		    for (int id = out.nextSetBit(0); id >= 0; id = out.nextSetBit(id + 1))
+			if (id != def && id != source)
+			    addEdge(def, id);
+		}
+		if (inst.isCall()) {
+		    BitSet across = (BitSet)live[j].clone();
+		    across.and(live[j + 1]);
+		    for (int id = across.nextSetBit(0); id >= 0; id = across.nextSetBit(id + 1))
+			if (id != def)
+			    spansCall[id] = true;
+		}
+	    }
+	}
+    }
+
+    /** Add a variable to the graph if it can get a register
+      * @param id operand identifier
+      * @return flag indicating whether the operand is a node
+      * */
+    private boolean addNode(int id) {
+	if (!isCandidate(operands, id))
+	    return false;
+	if (adj[id] == null) {
+	    adj[id] = new BitSet();
+	    nodes.set(id);
+	}
+	return true;
+    }
+
+    /** Make two variables interfere (if both can get a register)
+      * @param a operand identifier of one variable
+      * @param b operand identifier of the other
+      * */
+    private void addEdge(int a, int b) {
+	if (addNode(a) && addNode(b)) {
+	    adj[a].set(b);
+	    adj[b].set(a);
+	}
+    }
+
+    /** Get the node a variable was coalesced into
+      * @param id operand identifier of the variable
+      * @return node
+      * */
+    private int find(int id) {
+	while (alias[id] != id)
+	    id = alias[id];
+	return id;
+    }
+
+    /** Get the number of registers a node can get
+      * @param id node
+      * @return number of registers
+      * */
+    private int getNumColors(int id) {
+	return spansCall[id] ? numRegisters - numCallerSaved : numRegisters;
+    }
+
+    /** Coalesce the copies, the most frequent first, until no more
+      * passes the Briggs test
+      * */
+    private void coalesce() {
+	Vector<Integer> order = new Vector<Integer>();
+	for (int i = 0; i < moves.size(); i++)
+	    order.add(i);
+	Collections.sort(order, new Comparator<Integer>() {
+		public int compare(Integer a, Integer b) {
+		    return Double.compare(moveWeights.elementAt(b), moveWeights.elementAt(a));
+		}
+	    });
+
+	// coalescing may lower the degrees of common neighbors, so a copy
+	// rejected once may pass later
+	boolean changed = true;
+	while (changed) {
+	    changed = false;
+	    for (int i = 0; i < order.size(); i++) {
+		int[] move = moves.elementAt(order.elementAt(i));
+		int a = find(move[0]), b = find(move[1]);
+		if (a == b || adj[a].get(b) || !isConservative(a, b))
+		    continue;
+		alias[b] = a;
+		for (int n = adj[b].nextSetBit(0); n >= 0; n = adj[b].nextSetBit(n + 1)) {
+		    adj[n].clear(b);
+		    adj[n].set(a);
+		}
+		adj[a].or(adj[b]);
+		nodes.clear(b);
+		spansCall[a] |= spansCall[b];
+		costs[a] += costs[b];
+		numCoalesced++;
+		changed = true;
+	    }
+	}
+    }
+
+    /** Can two nodes be merged without making the graph harder to color
+      * (Briggs test)?
+      * @param a one node
+      * @param b the other node
+      * @return true if the merged node would have fewer neighbors of
+      * significant degree than registers
+      * */
+    private boolean isConservative(int a, int b) {
+	BitSet neighbors = (BitSet)adj[a].clone();
+	neighbors.or(adj[b]);
+	int numColors = (spansCall[a] || spansCall[b]) ? numRegisters - numCallerSaved :
+	    numRegisters;
+	int significant = 0;
+	for (int n = neighbors.nextSetBit(0); n >= 0; n = neighbors.nextSetBit(n + 1))
+	    if (adj[n].cardinality() >= getNumColors(n))
+		significant++;
+	return significant < numColors;
+    }
+
+    /** Simplify the graph, removing the nodes that can be colored, or
+      * else the cheapest to spill, until it is empty
+      * @return nodes in the order they were removed
+      * */
+    private Vector<Integer> simplify() {
+	int[] degrees = new int[adj.length];
+	for (int id = nodes.nextSetBit(0); id >= 0; id = nodes.nextSetBit(id + 1))
+	    degrees[id] = adj[id].cardinality();
+	BitSet remaining = (BitSet)nodes.clone();
+	Vector<Integer> stack = new Vector<Integer>();
+	while (!remaining.isEmpty()) {
+	    int node = -1;
+	    for (int id = remaining.nextSetBit(0); id >= 0 && node < 0;
+		 id = remaining.nextSetBit(id + 1))
+		if (degrees[id] < getNumColors(id))
+		    node = id;
+	    if (node < 0) {
+		// optimistically push the cheapest node to spill
+		node = remaining.nextSetBit(0);
+		double best = costs[node] / degrees[node];
+		for (int id = remaining.nextSetBit(0); id >= 0; id = remaining.nextSetBit(id + 1))
+		    if (costs[id] / degrees[id] < best) {
+			best = costs[id] / degrees[id];
+			node = id;
+		    }
+	    }
+	    remaining.clear(node);
+	    stack.add(node);
+	    for (int n = adj[node].nextSetBit(0); n >= 0; n = adj[node].nextSetBit(n + 1))
+		if (remaining.get(n))
+		    degrees[n]--;
+	}
+	return stack;
+    }
+
+    /** Color the nodes in the reverse order of their removal, giving
+      * the caller-saved registers first to the nodes not live across a
+      * call
+      * @param stack nodes in the order they were removed
+      * @return register of each node (by operand identifier, -1 if
+      * spilled)
+      * */
+    private int[] select(Vector<Integer> stack) {
+	int[] colors = new int[adj.length];
+	Arrays.fill(colors, -1);
+	boolean[] used = new boolean[numRegisters];
+	for (int i = stack.size() - 1; i >= 0; i--) {
+	    int node = stack.elementAt(i);
+	    Arrays.fill(used, false);
+	    for (int n = adj[node].nextSetBit(0); n >= 0; n = adj[node].nextSetBit(n + 1))
+		if (colors[n] >= 0)
+		    used[colors[n]] = true;
+	    for (int r = spansCall[node] ? numCallerSaved : 0; r < numRegisters && colors[node] < 0; r++)
+		if (!used[r])
+		    colors[node] = r;
+	}
+	return colors;
+    }
+}
@@ -0,0 +1,669 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+import bantam.ast.*;
+
+import java.util.*;
+
+/** The <tt>Inliner</tt> class replaces direct calls (including the
+  * dispatches made direct, see ClassHierarchy) by a copy of the called
+  * subroutine, so the call costs nothing and the optimizations see the
+  * code of the callee with the arguments of the call site.
+  *
+  * The caller block is split at the call: the parameters become copies
+  * into fresh locals of the caller (the receiver replaces
+  * <tt>this</tt>), the block jumps to the copy of the callee, and each
+  * return of the copy assigns the result of the call and jumps to the
+  * rest of the block.  The locals, parameters, and temporaries of the
+  * callee are renamed so they cannot clash with those of the caller.
+  * The returns of error blocks (see CFGBuilder) stay returns, since the
+  * error subroutines do not return.  The fields of the callee are those
+  * of the receiver: when it is not <tt>this</tt>, they become entries
+  * of the receiver (see ClassHierarchy.getFieldIndex), which GVN and
+  * LICM know may be fields of <tt>this</tt>.
+  *
+  * The subroutines are done callees first (in reverse topological
+  * order of the strongly connected components of the call graph), so
+  * the copy of a callee already has its own calls inlined.  The calls
+  * of a copy are not considered again, except recursive calls (to the
+  * component of the caller), which may be inlined up to the recursion
+  * cutoff.  A callee is only inlined if it is small enough (the size
+  * budget, in instructions outside error blocks), if its inlined calls
+  * are not nested too deep, if the caller is not already too large, and
+  * if it has at most 3 returns (the in edges of a block).
+  * */
+class Inliner {
+    /** Largest caller inlined into (in instructions outside error
+      * blocks) */
+    static final int MAX_CALLER_SIZE = 2000;
+
+    /** Largest number of returns of a callee */
+    static final int MAX_RETURNS = 3;
+
+    /** Class hierarchy (field layout) */
+    private ClassHierarchy hierarchy;
+
+    /** Largest callee inlined (in instructions outside error blocks) */
+    private int maxSize;
+
+    /** Deepest nesting of inlined calls */
+    private int maxDepth;
+
+    /** Number of times a recursive call may be inlined in a row */
+    private int maxRecursion;
+
+    /** Flag indicating whether the decisions are reported */
+    private boolean debug;
+
+    /** Labels of the subroutines (in the order added) */
+    private Vector<String> labels = new Vector<String>();
+
+    /** Entrance blocks of the subroutines (by label) */
+    private HashMap<String, BasicBlock> entrances = new HashMap<String, BasicBlock>();
+
+    /** Formal parameters of the methods (by label, none for the
+      * initialization subroutines) */
+    private HashMap<String, String[]> formals = new HashMap<String, String[]>();
+
+    /** Nesting depth of the inlined calls of each subroutine (by label) */
+    private HashMap<String, Integer> depths = new HashMap<String, Integer>();
+
+    /** Strongly connected component of each subroutine in the call
+      * graph (by label) */
+    private HashMap<String, Integer> components = new HashMap<String, Integer>();
+
+    /** Number of calls inlined */
+    private int numInlined;
+
+    /** Label of the caller being inlined into */
+    private String caller;
+
+    /** Operand table of the caller */
+    private OperandTable operands;
+
+    /** Size of the caller (in instructions outside error blocks) */
+    private int callerSize;
+
+    /** Number of the next temporary of the caller */
+    private int nextTemp;
+
+    /** Locals created for the caller (not yet in its operand table) */
+    private HashSet<String> created = new HashSet<String>();
+
+    /** Inliner constructor
+      * @param hierarchy class hierarchy of the program
+      * @param maxSize size budget: largest callee inlined (in
+      * instructions outside error blocks)
+      * @param maxDepth deepest nesting of inlined calls (1 inlines
+      * callees that have no inlined calls)
+      * @param maxRecursion recursion cutoff: number of times a
+      * recursive call may be inlined in a row (0 for none)
+      * @param debug flag indicating whether the decisions are reported
+      * (on standard error)
+      * */
+    Inliner(ClassHierarchy hierarchy, int maxSize, int maxDepth,
+	    int maxRecursion, boolean debug) {
+	this.hierarchy = hierarchy;
+	this.maxSize = maxSize;
+	this.maxDepth = maxDepth;
+	this.maxRecursion = maxRecursion;
+	this.debug = debug;
+    }
+
+    /** Add a subroutine that calls may be inlined into and that may be
+      * inlined
+      * @param label label of the subroutine (<Class>_init or
+      * <Class>.<method>)
+      * @param entrance entrance block of the numbered subroutine
+      * @param method method (null for an initialization subroutine)
+      * */
+    void addSubroutine(String label, BasicBlock entrance, Method method) {
+	String[] names = new String[0];
+	if (method != null) {
+	    names = new String[method.getFormalList().getSize()];
+	    for (int i = 0; i < names.length; i++)
+		names[i] = ((Formal)method.getFormalList().get(i)).getName() + "@p";
+	}
+	labels.add(label);
+	entrances.put(label, entrance);
+	formals.put(label, names);
+	depths.put(label, 0);
+    }
+
+    /** Inline the calls of all the subroutines added
+      * @return number of calls inlined
+      * */
+    int run() {
+	numInlined = 0;
+	Vector<Vector<String>> sccs = findComponents();
+	for (int c = 0; c < sccs.size(); c++)
+	    for (int i = 0; i < sccs.elementAt(c).size(); i++)
+		inlineInto(sccs.elementAt(c).elementAt(i));
+	return numInlined;
+    }
+
+    /** Get the number of calls inlined by the last run
+      * @return number of calls
+      * */
+    int getNumInlined() {
+	return numInlined;
+    }
+
+    // call graph
+
+    /** Find the strongly connected components of the call graph
+      * (Tarjan's algorithm), which only has the direct calls to the
+      * subroutines added
+      * @return components, callees first (reverse topological order)
+      * */
+    private Vector<Vector<String>> findComponents() {
+	Vector<Vector<String>> sccs = new Vector<Vector<String>>();
+	HashMap<String, Integer> index = new HashMap<String, Integer>();
+	HashMap<String, Integer> low = new HashMap<String, Integer>();
+	Vector<String> stack = new Vector<String>();
+	for (int i = 0; i < labels.size(); i++)
+	    if (!index.containsKey(labels.elementAt(i)))
+		visit(labels.elementAt(i), index, low, stack, sccs);
+	return sccs;
+    }
+
+    /** Visit a subroutine of the call graph (see findComponents)
+      * @param label label of the subroutine
+      * @param index depth-first numbers of the subroutines visited
+      * @param low lowest number reached from each subroutine on the stack
+      * @param stack subroutines visited whose component is not done
+      * @param sccs components done
+      * */
+    private void visit(String label, HashMap<String, Integer> index,
+		       HashMap<String, Integer> low, Vector<String> stack,
+		       Vector<Vector<String>> sccs) {
+	index.put(label, index.size());
+	low.put(label, index.get(label));
+	stack.add(label);
+	Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrances.get(label));
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		if (inst.getOpcode() != TACInst.DIRCALL)
+		    continue;
+		String callee = ((CallInst)inst).getTarget();
+		if (!entrances.containsKey(callee))
+		    continue;
+		if (!index.containsKey(callee)) {
+		    visit(callee, index, low, stack, sccs);
+		    low.put(label, Math.min(low.get(label), low.get(callee)));
+		}
+		else if (stack.contains(callee))
+		    low.put(label, Math.min(low.get(label), index.get(callee)));
+	    }
+	}
+	if (low.get(label).equals(index.get(label))) {
+	    Vector<String> scc = new Vector<String>();
+	    String member;
+	    do {
+		member = stack.remove(stack.size() - 1);
+		scc.add(member);
+		components.put(member, sccs.size());
+	    } while (!member.equals(label));
+	    sccs.add(scc);
+	}
+    }
+
+    // inlining
+
+    /** Inline the calls of a subroutine
+      * @param label label of the caller
+      * */
+    private void inlineInto(String label) {
+	caller = label;
+	BasicBlock entrance = entrances.get(label);
+	operands = entrance.getOperandTable();
+	created.clear();
+	nextTemp = 0;
+	for (int id = 0; id < operands.size(); id++) {
+	    String name = operands.getName(id);
+	    if (operands.getKind(id) == OperandTable.TEMP && operands.getBase(id) == id)
+		nextTemp = Math.max(nextTemp, Integer.parseInt(name.substring(2)) + 1);
+	}
+	callerSize = size(Dataflow.reversePostorder(entrance));
+
+	// the calls to consider, with the number of recursive calls
+	// inlined in a row to reach them
+	IdentityHashMap<TACInst, Integer> calls = new IdentityHashMap<TACInst, Integer>();
+	Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrance);
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++)
+		if (bb.getNthInst(j).getOpcode() == TACInst.DIRCALL)
+		    calls.put(bb.getNthInst(j), 0);
+	}
+
+	// the copies are reached through the blocks calling them, and the
+	// rest of a block split at a call through the copy
+	HashSet<BasicBlock> visited = new HashSet<BasicBlock>();
+	Vector<BasicBlock> worklist = new Vector<BasicBlock>();
+	visited.add(entrance);
+	worklist.add(entrance);
+	boolean changed = false;
+	while (worklist.size() > 0) {
+	    BasicBlock bb = worklist.remove(worklist.size() - 1);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		Integer recursion = calls.remove(bb.getNthInst(j));
+		if (recursion != null && inline(bb, j, recursion, calls)) {
+		    changed = true;
+		    break;
+		}
+	    }
+	    for (int i = 0; i < bb.getNumOutEdges(); i++)
+		if (visited.add(bb.getNthOutEdge(i)))
+		    worklist.add(bb.getNthOutEdge(i));
+	}
+	if (changed)
+	    entrance.numberOperands();
+    }
+
+    /** Inline a call if the heuristics allow it
+      * @param bb block of the call
+      * @param j position of the call in the block
+      * @param recursion number of recursive calls inlined in a row to
+      * reach the call
+      * @param calls calls to consider (the recursive calls of the copy
+      * are added)
+      * @return flag indicating whether inlined (the instructions after
+      * the call are then in a new block, reached through the copy)
+      * */
+    private boolean inline(BasicBlock bb, int j, int recursion,
+			   IdentityHashMap<TACInst, Integer> calls) {
+	CallInst call = (CallInst)bb.getNthInst(j);
+	String callee = call.getTarget();
+	BasicBlock entrance = entrances.get(callee);
+	int n = call.getNumParam();
+	// built-in methods and the runtime have no graph
+	if (entrance == null || n != formals.get(callee).length + 1 || j < n)
+	    return false;
+	for (int k = 0; k < n; k++)
+	    if (bb.getNthInst(j - n + k).getOpcode() !=
+		(k == 0 ? TACInst.REFPARAM : TACInst.STDPARAM))
+		return false;
+	String receiver = ((ParamInst)bb.getNthInst(j - n)).getSource();
+
+	Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrance);
+	boolean recursive = components.get(callee).equals(components.get(caller));
+	int size = size(blocks);
+	String reason = null;
+	if (recursive && recursion >= maxRecursion)
+	    reason = "recursive";
+	else if (size > maxSize)
+	    reason = "too large (" + size + " instructions)";
+	else if (depths.get(callee) + 1 > maxDepth)
+	    reason = "too deep (" + (depths.get(callee) + 1) + " levels)";
+	else if (callerSize + size > MAX_CALLER_SIZE)
+	    reason = "caller too large (" + callerSize + " instructions)";
+	else if (numReturns(blocks) > MAX_RETURNS)
+	    reason = "too many returns (" + numReturns(blocks) + ")";
+	else if (TACInst.checkConst(receiver))
+	    reason = "constant receiver";
+	if (debug)
+	    System.err.println(caller + ": " + (reason == null ? "inlined " : "not inlined ") +
+			       callee + (reason == null ? "" : ", " + reason));
+	if (reason != null)
+	    return false;
+
+	// copy the callee (before splitting the block, which may be in
+	// it), each return jumping to the rest of the block
+	HashMap<String, String> renames = new HashMap<String, String>();
+	String self = receiver;
+	if (isField(receiver))
+	    // a call in the copy may change the field
+	    self = newTemp("Object");
+	renames.put("this", self);
+	HashMap<BasicBlock, BasicBlock> copies = new HashMap<BasicBlock, BasicBlock>();
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock orig = blocks.elementAt(i);
+	    copies.put(orig, new BasicBlock(orig.getStartLineNum(),
+					    orig.getLoopCnt() + bb.getLoopCnt(),
+					    orig.getIfCnt() + bb.getIfCnt()));
+	}
+	Vector<BasicBlock> exits = new Vector<BasicBlock>();
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock orig = blocks.elementAt(i);
+	    BasicBlock copy = copies.get(orig);
+	    boolean error = isErrorBlock(orig);
+	    for (int k = 0; k < orig.getNumInsn(); k++) {
+		TACInst inst = orig.getNthInst(k);
+		if (inst.isReturn() && !error) {
+		    String source = ((ReturnInst)inst).getSource();
+		    if (call.getDestVar() != null && source != null)
+			copy.addInst(move(call.getDestVar(), use(source, copy, renames, self)));
+		    exits.add(copy);
+		    continue;
+		}
+		TACInst instCopy = copyInst(inst, copy, copies, renames, self);
+		if (inst.getOpcode() == TACInst.DIRCALL && recursion + 1 < maxRecursion &&
+		    components.containsKey(((CallInst)inst).getTarget()) &&
+		    components.get(((CallInst)inst).getTarget()).equals(components.get(caller)))
+		    calls.put(instCopy, recursion + 1);
+	    }
+	    for (int k = 0; k < orig.getNumOutEdges(); k++)
+		copy.addOutEdge(copies.get(orig.getNthOutEdge(k)));
+	}
+
+	// split the block after the call
+	BasicBlock rest = new BasicBlock(bb.getStartLineNum(), bb.getLoopCnt(), bb.getIfCnt());
+	while (bb.getNumInsn() > j + 1) {
+	    TACInst inst = bb.getNthInst(j + 1);
+	    bb.removeNthInst(j + 1);
+	    rest.addInst(inst);
+	}
+	while (bb.getNumOutEdges() > 0) {
+	    BasicBlock succ = bb.getNthOutEdge(0);
+	    bb.removeOutEdge(succ);
+	    rest.addOutEdge(succ);
+	}
+
+	// pass the parameters in fresh variables instead
+	String[] sources = new String[n];
+	for (int k = 0; k < n; k++) {
+	    sources[k] = ((ParamInst)bb.getNthInst(j - n)).getSource();
+	    bb.removeNthInst(j - n);
+	}
+	bb.removeNthInst(j - n);
+	if (!self.equals(receiver))
+	    bb.addInst(new LoadVarInst(self, receiver));
+	String[] params = formals.get(callee);
+	for (int k = 0; k < params.length; k++)
+	    bb.addInst(move(rename(params[k], renames), sources[k + 1]));
+
+	bb.addOutEdge(copies.get(entrance));
+	for (int i = 0; i < exits.size(); i++) {
+	    // step down one loop at a time (see BasicBlock.check)
+	    BasicBlock exit = exits.elementAt(i);
+	    for (int cnt = exit.getLoopCnt() - 1; cnt > rest.getLoopCnt(); cnt--) {
+		BasicBlock step = new BasicBlock(exit.getStartLineNum(), cnt, exit.getIfCnt());
+		exit.addOutEdge(step);
+		exit = step;
+	    }
+	    exit.addOutEdge(rest);
+	}
+	if (exits.size() == 0)
+	    unlinkUnreachable(rest);
+
+	depths.put(caller, Math.max(depths.get(caller), depths.get(callee) + 1));
+	callerSize += size;
+	numInlined++;
+	return true;
+    }
+
+    /** Copy an instruction of the callee to the end of a block of the
+      * caller, renaming its variables (and accessing the fields of
+      * another object through its entries)
+      * @param inst instruction of the callee (not a return)
+      * @param bb copy of the block of the instruction
+      * @param copies copies of the blocks of the callee
+      * @param renames variables of the caller replacing those of the callee
+      * @param self receiver of the call (variable of the caller)
+      * @return copy of the instruction
+      * */
+    private TACInst copyInst(TACInst inst, BasicBlock bb, HashMap<BasicBlock, BasicBlock> copies,
+			  HashMap<String, String> renames, String self) {
+	TACInst copy = copy(inst, copies);
+
+	// rename the variables, loading the fields of another object
+	// before and storing them after
+	String[] uses = copy.getUses();
+	for (int k = 0; k < uses.length; k++)
+	    copy.setUse(k, use(uses[k], bb, renames, self));
+	String def = copy.getDef();
+	if (def != null && isField(def) && !self.equals("this")) {
+	    String temp = newTemp(hierarchy.getFieldType(def));
+	    copy.setDef(temp);
+	    bb.addInst(copy);
+	    bb.addInst(new StoreEntryInst(self, temp,
+					  String.valueOf(hierarchy.getFieldIndex(def))));
+	    return copy;
+	}
+	if (def != null)
+	    copy.setDef(rename(def, renames));
+	bb.addInst(copy);
+	return copy;
+    }
+
+    /** Copy an instruction, with the same operands
+      * @param inst instruction (not a phi)
+      * @param copies copies of the blocks (the targets of an IF are
+      * replaced by their copies)
+      * @return copy of the instruction (not in a block)
+      * */
+    static TACInst copy(TACInst inst, HashMap<BasicBlock, BasicBlock> copies) {
+	TACInst copy;
+	switch (inst.getOpcode()) {
+	case TACInst.IF:
+	    IfInst test = (IfInst)inst;
+	    copy = new IfInst(test.getType(), test.getLeftSource(), test.getRightSource(),
+			      copies.get(test.getTrueTarg()), copies.get(test.getFalseTarg()));
+	    break;
+	case TACInst.INDIRCALL:
+	    copy = new InDirCallInst(((CallInst)inst).getTarget(), ((CallInst)inst).getDestVar(),
+				     ((CallInst)inst).getNumParam());
+	    break;
+	case TACInst.DIRCALL:
+	    copy = new DirCallInst(((CallInst)inst).getTarget(), ((CallInst)inst).getDestVar(),
+				   ((CallInst)inst).getNumParam());
+	    break;
+	case TACInst.RETN:
+	    copy = new ReturnInst(((ReturnInst)inst).getSource());
+	    break;
+	case TACInst.STDPARAM:
+	    copy = new StdParamInst(((ParamInst)inst).getSource());
+	    break;
+	case TACInst.REFPARAM:
+	    copy = new RefParamInst(((ParamInst)inst).getSource());
+	    break;
+	case TACInst.ERRPARAM:
+	    copy = new ErrParamInst(((ErrParamInst)inst).getType(), ((ParamInst)inst).getSource());
+	    break;
+	case TACInst.LDVAR:
+	    copy = new LoadVarInst(((LoadInst)inst).getDestination(), ((LoadInst)inst).getSource());
+	    break;
+	case TACInst.LDCONST:
+	    copy = new LoadConstInst(((LoadInst)inst).getDestination(), ((LoadInst)inst).getSource());
+	    break;
+	case TACInst.LDADDR:
+	    copy = new LoadAddrInst(((LoadInst)inst).getDestination(), ((LoadInst)inst).getSource());
+	    break;
+	case TACInst.LDENTRY:
+	    copy = new LoadEntryInst(((LoadInst)inst).getDestination(), ((LoadInst)inst).getSource(),
+				     ((LoadEntryInst)inst).getIndex());
+	    break;
+	case TACInst.STENTRY:
+	    StoreEntryInst store = (StoreEntryInst)inst;
+	    copy = new StoreEntryInst(store.getDestination(), store.getSource(), store.getIndex());
+	    break;
+	case TACInst.UNNEG:
+	    copy = new UnaryNegInst(((UnaryInst)inst).getDestination(), ((UnaryInst)inst).getSource());
+	    break;
+	case TACInst.UNNOT:
+	    copy = new UnaryNotInst(((UnaryInst)inst).getDestination(), ((UnaryInst)inst).getSource());
+	    break;
+	default:
+	    if (!inst.isBinary())
+		throw new RuntimeException("Internal error: cannot copy instruction '" +
+					   inst.getString() + "'");
+	    BinaryInst bin = (BinaryInst)inst;
+	    String dest = bin.getDestination(), left = bin.getLeftSource(),
+		right = bin.getRightSource();
+	    switch (inst.getOpcode()) {
+	    case TACInst.BINADD: copy = new BinaryAddInst(dest, left, right); break;
+	    case TACInst.BINSUB: copy = new BinarySubInst(dest, left, right); break;
+	    case TACInst.BINMUL: copy = new BinaryMulInst(dest, left, right); break;
+	    case TACInst.BINDIV: copy = new BinaryDivInst(dest, left, right); break;
+	    case TACInst.BINMOD: copy = new BinaryModInst(dest, left, right); break;
+	    case TACInst.BINAND: copy = new BinaryAndInst(dest, left, right); break;
+	    default: copy = new BinaryOrInst(dest, left, right); break;
+	    }
+	}
+	return copy;
+    }
+
+    /** Get the operand of the caller to use instead of an operand of
+      * the callee, loading a field of another object into a temporary
+      * @param operand operand used by the callee
+      * @param bb copy of the block of the use (the load is appended)
+      * @param renames variables of the caller replacing those of the callee
+      * @param self receiver of the call (variable of the caller)
+      * @return operand of the caller
+      * */
+    private String use(String operand, BasicBlock bb, HashMap<String, String> renames,
+		       String self) {
+	if (!isField(operand) || self.equals("this"))
+	    return rename(operand, renames);
+	String temp = newTemp(hierarchy.getFieldType(operand));
+	bb.addInst(new LoadEntryInst(temp, self,
+				     String.valueOf(hierarchy.getFieldIndex(operand))));
+	return temp;
+    }
+
+    /** Get the variable of the caller replacing an operand of the callee
+      * (a fresh local for a parameter or local, a fresh temporary for a
+      * temporary, created the first time)
+      * @param operand operand of the callee
+      * @param renames variables of the caller replacing those of the
+      * callee (<tt>this</tt> included)
+      * @return operand of the caller (constants and fields unchanged)
+      * */
+    private String rename(String operand, HashMap<String, String> renames) {
+	if (TACInst.checkConst(operand) || isField(operand))
+	    return operand;
+	String var = renames.get(operand);
+	if (var != null)
+	    return var;
+	if (operand.startsWith("@"))
+	    var = "@" + operand.charAt(1) + nextTemp++;
+	else {
+	    String base = operand.substring(0, operand.indexOf('@'));
+	    for (int k = 1; var == null; k++) {
+		var = base + "_" + k + "@l";
+		if (operands.lookup(var) >= 0 || !created.add(var))
+		    var = null;
+	    }
+	}
+	renames.put(operand, var);
+	return var;
+    }
+
+    /** Is an operand a field (of <tt>this</tt>)?
+      * @param operand operand
+      * @return flag indicating whether a field
+      * */
+    private static boolean isField(String operand) {
+	return !TACInst.checkConst(operand) && operand.indexOf("@f_") > 0;
+    }
+
+    /** Create a fresh temporary of the caller
+      * @param type Bantam type of the value it holds
+      * @return temporary name
+      * */
+    private String newTemp(String type) {
+	if (type.equals("int") || type.equals("boolean"))
+	    return "@t" + nextTemp++;
+	return "@o" + nextTemp++;
+    }
+
+    /** Create a copy of an operand into a variable
+      * @param dest destination variable
+      * @param source source operand
+      * @return copy instruction
+      * */
+    static TACInst move(String dest, String source) {
+	return TACInst.checkConst(source) ?
+	    new LoadConstInst(dest, source) : new LoadVarInst(dest, source);
+    }
+
+    /** Unlink the blocks that cannot be reached anymore, starting at the
+      * rest of a block split at a call whose copy never returns, so that
+      * reachable blocks only have reachable predecessors
+      * @param rest rest of the block
+      * */
+    private void unlinkUnreachable(BasicBlock rest) {
+	HashSet<BasicBlock> reached =
+	    new HashSet<BasicBlock>(Dataflow.reversePostorder(entrances.get(caller)));
+	Vector<BasicBlock> worklist = new Vector<BasicBlock>();
+	worklist.add(rest);
+	while (worklist.size() > 0) {
+	    BasicBlock bb = worklist.remove(worklist.size() - 1);
+	    if (reached.contains(bb))
+		continue;
+	    while (bb.getNumOutEdges() > 0) {
+		worklist.add(bb.getNthOutEdge(0));
+		bb.removeOutEdge(bb.getNthOutEdge(0));
+	    }
+	}
+    }
+
+    // callee properties
+
+    /** Is a block an error block (see CFGBuilder.errorBlock): a call to
+      * an error subroutine of the runtime, which does not return?
+      * @param bb block
+      * @return flag indicating whether an error block
+      * */
+    static boolean isErrorBlock(BasicBlock bb) {
+	int n = bb.getNumInsn();
+	return n >= 2 && bb.getNthInst(n - 1).isReturn() &&
+	    bb.getNthInst(n - 2).getOpcode() == TACInst.DIRCALL &&
+	    ((CallInst)bb.getNthInst(n - 2)).getTarget().startsWith("_");
+    }
+
+    /** Get the size of a subroutine
+      * @param blocks blocks of the subroutine
+      * @return number of instructions outside error blocks
+      * */
+    private static int size(Vector<BasicBlock> blocks) {
+	int size = 0;
+	for (int i = 0; i < blocks.size(); i++)
+	    if (!isErrorBlock(blocks.elementAt(i)))
+		size += blocks.elementAt(i).getNumInsn();
+	return size;
+    }
+
+    /** Get the number of returns of a subroutine
+      * @param blocks blocks of the subroutine
+      * @return number of returns outside error blocks
+      * */
+    private static int numReturns(Vector<BasicBlock> blocks) {
+	int returns = 0;
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    if (bb.getNumInsn() > 0 && bb.getNthInst(bb.getNumInsn() - 1).isReturn() &&
+		!isErrorBlock(bb))
+		returns++;
+	}
+	return returns;
+    }
+}
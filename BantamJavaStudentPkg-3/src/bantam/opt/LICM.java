@@ -0,0 +1,343 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>LICM</tt> class performs loop-invariant code motion on a
+  * subroutine in SSA form (see SSA): instructions computing the same
+  * value on every iteration of a loop are moved to the preheader of the
+  * loop (see LoopNest), so they run once each time the loop is entered.
+  * Loops are processed innermost first, so an instruction moved out of
+  * an inner loop can then move out of the loops around it.
+  *
+  * An instruction is invariant if its operands are constants or
+  * variables defined outside the loop (or by invariant instructions):
+  * in SSA form, a variable has a single definition, so its value cannot
+  * change inside the loop.  Fields are memory: a field read is only
+  * invariant if nothing in the loop (a definition, a call, or a store
+  * to an entry that may be a field of <tt>this</tt>, see Inliner) can
+  * write a field.
+  *
+  * Only computations and loads into temporaries move: a copy or a
+  * constant load saves nothing, and moving the definition of a local
+  * would make its versions interfere, leaving copies behind when
+  * translating out of SSA.
+  *
+  * Moved instructions may now run when the loop would not have run
+  * them, so they must not be able to fail.  Arithmetic cannot, since
+  * runtime errors are raised by explicit checks (IFs to error blocks),
+  * except division and modulus, which are only moved with a non-zero
+  * constant divisor: the zero check of another divisor stays in the
+  * loop, where it must run first.  For the same reason, a load from an
+  * array or object is only moved if the object cannot be null where it
+  * lands (it is <tt>this</tt>, a dispatch table, a new object or
+  * array, or a variable compared to null by a dominating IF that jumps
+  * to the preheader's side when it is not null), and only from its header (class id, dispatch table,
+  * or the length of a variable known to be an array, which are never
+  * written after allocation, see CFGBuilder.isHeaderEntry) or from a
+  * dispatch table, so no index check is skipped.
+  * */
+class LICM {
+    /** Entrance block of the subroutine */
+    private BasicBlock entrance;
+
+    /** Operand table of the subroutine */
+    private OperandTable operands;
+
+    /** Defining instruction of each variable (by operand identifier) */
+    private TACInst[] defs;
+
+    /** Block of each defining instruction (by operand identifier) */
+    private BasicBlock[] defBlocks;
+
+    /** Flags indicating whether each variable is known to hold an
+      * array (by base operand identifier, see CFGBuilder.findArrays) */
+    private boolean[] arrays;
+
+    /** Number of preheaders inserted */
+    private int numPreheaders;
+
+    /** Number of instructions moved out of a loop (counting each
+      * instruction once per loop it leaves) */
+    private int numHoisted;
+
+    /** LICM constructor
+      * @param entrance entrance block of a numbered subroutine in SSA form
+      * */
+    LICM(BasicBlock entrance) {
+	this.entrance = entrance;
+	operands = entrance.getOperandTable();
+	if (operands == null)
+	    throw new RuntimeException("Internal error: loop-invariant code motion in " +
+				       "a subroutine that has not been numbered");
+    }
+
+    /** Move the invariant instructions out of the loops
+      * @return flag indicating whether the subroutine changed
+      * */
+    boolean run() {
+	numPreheaders = numHoisted = 0;
+	LoopNest nest = new LoopNest(entrance);
+	if (nest.getLoops().size() == 0)
+	    return false;
+	for (int l = 0; l < nest.getLoops().size(); l++) {
+	    Loop loop = nest.getLoops().elementAt(l);
+	    if (loop.getPreheader() == null && LoopNest.insertPreheader(loop) != null)
+		numPreheaders++;
+	}
+	if (numPreheaders > 0) {
+	    // give the new blocks the operand table, and find the loops
+	    // with them
+	    entrance.numberOperands();
+	    nest = new LoopNest(entrance);
+	}
+
+	defs = new TACInst[operands.size()];
+	defBlocks = new BasicBlock[operands.size()];
+	Vector<BasicBlock> blocks = nest.getDominators().getBlocks();
+	arrays = CFGBuilder.findArrays(blocks, operands);
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		if (inst.getDefId() >= 0) {
+		    defs[inst.getDefId()] = inst;
+		    defBlocks[inst.getDefId()] = bb;
+		}
+	    }
+	}
+	for (int l = 0; l < nest.getLoops().size(); l++)
+	    hoist(nest.getLoops().elementAt(l), nest.getDominators());
+	return numPreheaders + numHoisted > 0;
+    }
+
+    /** Move the invariant instructions of a loop to its preheader
+      * @param loop loop (whose inner loops are done)
+      * @param doms dominator tree (the preheaders are in it)
+      * */
+    private void hoist(Loop loop, Dominators doms) {
+	BasicBlock preheader = loop.getPreheader();
+	if (preheader == null)
+	    return;
+	Vector<BasicBlock> body = loop.getBlocks();
+	boolean writesFields = false;
+	for (int i = 0; i < body.size() && !writesFields; i++) {
+	    BasicBlock bb = body.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		if (inst.isCall() || isField(inst.getDefId()))
+		    writesFields = true;
+		else if (inst.getOpcode() == TACInst.STENTRY) {
+		    // the fields of an object are at constant indices
+		    int[] uses = inst.getUseIds();
+		    if (operands.getKind(uses[2]) == OperandTable.INT_CONST &&
+			!isArray(uses[0]))
+			writesFields = true;
+		}
+	    }
+	}
+
+	// the blocks are in reverse postorder, so the definitions of
+	// the operands of an instruction are visited before it, except
+	// through phis (which are not invariant)
+	for (int i = 0; i < body.size(); i++) {
+	    BasicBlock bb = body.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		if (!isInvariant(inst, loop, writesFields) ||
+		    !canMove(inst, preheader, doms))
+		    continue;
+		bb.removeNthInst(j--);
+		preheader.addInst(inst);
+		defBlocks[inst.getDefId()] = preheader;
+		numHoisted++;
+	    }
+	}
+    }
+
+    /** Does an instruction compute the same value on every iteration
+      * of a loop?
+      * @param inst instruction of the loop
+      * @param loop loop
+      * @param writesFields flag indicating whether the loop may write
+      * fields
+      * @return flag indicating whether invariant
+      * */
+    private boolean isInvariant(TACInst inst, Loop loop, boolean writesFields) {
+	int def = inst.getDefId();
+	if (def < 0 || operands.getKind(def) != OperandTable.TEMP)
+	    return false;
+	switch (inst.getOpcode()) {
+	case TACInst.LDVAR:
+	    // only a field read saves work
+	    if (!isField(inst.getUseIds()[0]))
+		return false;
+	    break;
+	case TACInst.LDADDR:
+	case TACInst.LDENTRY: case TACInst.UNNEG: case TACInst.UNNOT:
+	case TACInst.BINADD: case TACInst.BINSUB: case TACInst.BINMUL:
+	case TACInst.BINDIV: case TACInst.BINMOD: case TACInst.BINAND:
+	case TACInst.BINOR:
+	    break;
+	default:
+	    return false;
+	}
+	int[] uses = inst.getUseIds();
+	for (int k = 0; k < uses.length; k++) {
+	    if (!operands.isVar(uses[k]))
+		continue;
+	    if (isField(uses[k])) {
+		if (writesFields)
+		    return false;
+	    }
+	    else if (defBlocks[uses[k]] != null && loop.contains(defBlocks[uses[k]]))
+		return false;
+	}
+	return true;
+    }
+
+    /** Can an invariant instruction run in the preheader without
+      * failing?
+      * @param inst invariant instruction
+      * @param preheader preheader of the loop
+      * @param doms dominator tree
+      * @return flag indicating whether it cannot fail
+      * */
+    private boolean canMove(TACInst inst, BasicBlock preheader, Dominators doms) {
+	int[] uses = inst.getUseIds();
+	switch (inst.getOpcode()) {
+	case TACInst.BINDIV: case TACInst.BINMOD:
+	    return operands.getKind(uses[1]) == OperandTable.INT_CONST &&
+		operands.getIntValue(uses[1]) != 0;
+	case TACInst.LDENTRY:
+	    if (isDispatchTable(uses[0]))
+		return true;
+	    if (!CFGBuilder.isHeaderEntry(operands, uses[1], isArray(uses[0])))
+		return false;
+	    return isNonNull(uses[0], preheader, doms);
+	default:
+	    return true;
+	}
+    }
+
+    /** Is a variable a dispatch table (loaded from an object header)?
+      * @param var identifier of a variable
+      * @return flag indicating whether a dispatch table
+      * */
+    private boolean isDispatchTable(int var) {
+	TACInst def = defs[var];
+	if (def == null || def.getOpcode() != TACInst.LDENTRY)
+	    return false;
+	int index = def.getUseIds()[1];
+	return operands.getKind(index) == OperandTable.INT_CONST &&
+	    operands.getIntValue(index) == CFGBuilder.DISPATCH_INDEX;
+    }
+
+    /** Is a variable known not to be null at the end of a block?
+      * @param var identifier of a variable
+      * @param bb block
+      * @param doms dominator tree
+      * @return flag indicating whether it is this, a dispatch table, a
+      * new object or array, or a parameter, local, or temporary
+      * compared to null by an IF whose non-null edge dominates the block
+      * */
+    private boolean isNonNull(int var, BasicBlock bb, Dominators doms) {
+	if (operands.getKind(var) == OperandTable.THIS || isDispatchTable(var))
+	    return true;
+	if (!isLocal(var))
+	    return false;
+	if (defs[var] != null && defs[var].getOpcode() == TACInst.DIRCALL) {
+	    String target = ((CallInst)defs[var]).getTarget();
+	    if (target.equals("Object.clone") || target.equals("_new_array"))
+		return true;
+	}
+	String name = operands.getName(var);
+	for (BasicBlock b = bb; doms.getIdom(b) != null; b = doms.getIdom(b)) {
+	    BasicBlock idom = doms.getIdom(b);
+	    if (b.getNumInEdges() != 1 || idom.getNumInsn() == 0)
+		continue;
+	    TACInst last = idom.getNthInst(idom.getNumInsn() - 1);
+	    if (!last.isIf())
+		continue;
+	    IfInst test = (IfInst)last;
+	    boolean compares =
+		(test.getLeftSource().equals(name) && test.getRightSource().equals("null")) ||
+		(test.getRightSource().equals(name) && test.getLeftSource().equals("null"));
+	    if (!compares)
+		continue;
+	    if ((test.getType() == IfInst.EQ && test.getFalseTarg() == b) ||
+		(test.getType() == IfInst.NE && test.getTrueTarg() == b))
+		return true;
+	}
+	return false;
+    }
+
+    /** Is an operand a field of <tt>this</tt>?
+      * @param id identifier of an operand (-1 for none)
+      * @return flag indicating whether a field
+      * */
+    private boolean isField(int id) {
+	return id >= 0 && operands.getKind(id) == OperandTable.FIELD;
+    }
+
+    /** Is an operand known to hold an array?
+      * @param id identifier of an operand
+      * @return flag indicating whether an array (see CFGBuilder.findArrays)
+      * */
+    private boolean isArray(int id) {
+	int base = operands.getBase(id);
+	return base < arrays.length && arrays[base];
+    }
+
+    /** Is an operand a parameter, local, or temporary (a variable
+      * defined once in SSA form)?
+      * @param id identifier of an operand
+      * @return flag indicating whether local
+      * */
+    private boolean isLocal(int id) {
+	int kind = operands.getKind(id);
+	return kind == OperandTable.PARAM || kind == OperandTable.LOCAL ||
+	    kind == OperandTable.TEMP;
+    }
+
+    /** Get the number of preheaders inserted by the last run
+      * @return number of blocks
+      * */
+    int getNumPreheaders() {
+	return numPreheaders;
+    }
+
+    /** Get the number of instructions moved out of a loop by the last
+      * run (an instruction leaving several loops counts once per loop)
+      * @return number of instructions
+      * */
+    int getNumHoisted() {
+	return numHoisted;
+    }
+}
@@ -0,0 +1,195 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>LinearScan</tt> class allocates registers to the variables
+  * of a subroutine with the linear scan algorithm of Poletto and Sarkar
+  * ("Linear Scan Register Allocation").  The blocks are laid out in
+  * reverse postorder and numbered in sequence with their instructions,
+  * and the lifetime interval of a variable runs from the first to the
+  * last position where it is live (see Liveness) -- a single range,
+  * which may cover holes where the variable is dead.  The intervals are
+  * then scanned by increasing start, keeping the active ones (those
+  * holding a register) sorted by end: the ones ending before the next
+  * interval starts free their registers, and when no register is free,
+  * the active interval ending last is spilled if it ends after the new
+  * one, which takes its register, and the new one is spilled otherwise.
+  * An interval spanning a call only takes a callee-saved register (see
+  * RegisterAllocator).
+  *
+  * The scan is fast, and is the allocator of the lower levels;
+  * GraphColoring allocates better, more slowly.
+  * */
+class LinearScan extends RegisterAllocator {
+    /** Start and end positions of the interval of each variable (by
+      * operand identifier, -1 if the variable does not occur) */
+    private int[] start, end;
+
+    /** Positions of the calls, in increasing order */
+    private Vector<Integer> calls = new Vector<Integer>();
+
+    /** LinearScan constructor
+      * @param entrance entrance block of a numbered subroutine (not in
+      * SSA form)
+      * @param numCallerSaved number of caller-saved registers
+      * @param numCalleeSaved number of callee-saved registers
+      * */
+    LinearScan(BasicBlock entrance, int numCallerSaved, int numCalleeSaved) {
+	super(entrance, numCallerSaved, numCalleeSaved);
+    }
+
+    /** Allocate the registers, recording them in the operand table
+      * @return flag indicating whether some variable got a register
+      * */
+    boolean run() {
+	numAllocated = numSpilled = 0;
+	buildIntervals();
+
+	// the intervals by increasing start
+	Vector<Integer> intervals = new Vector<Integer>();
+	for (int id = 0; id < operands.size(); id++) {
+	    operands.setRegister(id, -1);
+	    if (start[id] >= 0 && isCandidate(operands, id))
+		intervals.add(id);
+	}
+	Collections.sort(intervals, new Comparator<Integer>() {
+		public int compare(Integer a, Integer b) {
+		    return start[a] - start[b];
+		}
+	    });
+
+	Vector<Integer> active = new Vector<Integer>();
+	boolean[] free = new boolean[numRegisters];
+	Arrays.fill(free, true);
+	for (int i = 0; i < intervals.size(); i++) {
+	    int id = intervals.elementAt(i);
+	    while (active.size() > 0 && end[active.elementAt(0)] < start[id])
+		free[operands.getRegister(active.remove(0))] = true;
+
+	    boolean spansCall = spansCall(start[id], end[id]);
+	    int reg = -1;
+	    for (int r = spansCall ? numCallerSaved : 0; r < numRegisters && reg < 0; r++)
+		if (free[r])
+		    reg = r;
+	    if (reg < 0) {
+		// spill the active interval ending last among those whose
+		// register the new one can take, or the new one
+		int victim = -1;
+		for (int j = active.size() - 1; j >= 0 && victim < 0; j--)
+		    if (!spansCall || operands.getRegister(active.elementAt(j)) >= numCallerSaved)
+			victim = active.elementAt(j);
+		numSpilled++;
+		if (victim < 0 || end[victim] <= end[id])
+		    continue;
+		reg = operands.getRegister(victim);
+		operands.setRegister(victim, -1);
+		active.remove((Integer)victim);
+		numAllocated--;
+	    }
+	    operands.setRegister(id, reg);
+	    free[reg] = false;
+	    numAllocated++;
+	    int pos = active.size();
+	    while (pos > 0 && end[active.elementAt(pos - 1)] > end[id])
+		pos--;
+	    active.add(pos, id);
+	}
+	return numAllocated > 0;
+    }
+
+    /** Compute the lifetime intervals and the positions of the calls.
+      * Each block has a position at its entrance and one at its exit,
+      * and each instruction two: one where it reads its operands and,
+      * after it, one where it writes its destination, so a variable
+      * read for the last time and one written by the same instruction
+      * can share a register.
+      * */
+    private void buildIntervals() {
+	start = new int[operands.size()];
+	end = new int[operands.size()];
+	Arrays.fill(start, -1);
+	calls.clear();
+	Liveness liveness = new Liveness(entrance);
+	Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrance);
+	int pos = 0;
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    extend(liveness.getIn(bb), pos);
+	    pos += 2;
+	    for (int j = 0; j < bb.getNumInsn(); j++, pos += 2) {
+		TACInst inst = bb.getNthInst(j);
+		int[] uses = inst.getUseIds();
+		for (int k = 0; k < uses.length; k++)
+		    if (operands.isVar(uses[k]))
+			extend(uses[k], pos);
+		if (inst.getDefId() >= 0)
+		    extend(inst.getDefId(), pos + 1);
+		if (inst.isCall())
+		    calls.add(pos);
+	    }
+	    extend(liveness.getOut(bb), pos);
+	    pos += 2;
+	}
+    }
+
+    /** Extend the intervals of a set of variables to a position
+      * @param vars operand identifiers of the variables
+      * @param pos position
+      * */
+    private void extend(BitSet vars, int pos) {
+	for (int id = vars.nextSetBit(0); id >= 0; id = vars.nextSetBit(id + 1))
+	    extend(id, pos);
+    }
+
+    /** Extend the interval of a variable to a position
+      * @param id operand identifier of the variable
+      * @param pos position
+      * */
+    private void extend(int id, int pos) {
+	if (start[id] < 0 || pos < start[id])
+	    start[id] = pos;
+	if (pos > end[id])
+	    end[id] = pos;
+    }
+
+    /** Does an interval span a call (is the variable live both before
+      * and after it)?
+      * @param from start of the interval
+      * @param to end of the interval
+      * @return flag indicating whether some call is inside the interval
+      * */
+    private boolean spansCall(int from, int to) {
+	for (int i = 0; i < calls.size() && calls.elementAt(i) < to; i++)
+	    if (calls.elementAt(i) > from && calls.elementAt(i) + 1 < to)
+		return true;
+	return false;
+    }
+}
@@ -0,0 +1,86 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>Liveness</tt> class computes the live variables of a
+  * subroutine: a backward "may" problem whose facts are the operand
+  * identifiers of variables.  A variable is live at a point if some
+  * path from the point reads it before writing it.  Fields are live
+  * at the exits and read by every call.
+  * */
+class Liveness extends Dataflow {
+    /** Liveness constructor (solves the problem)
+      * @param entrance entrance block of a numbered subroutine
+      * */
+    Liveness(BasicBlock entrance) {
+	super(entrance, false, true);
+	solve();
+    }
+
+    /** Get the number of facts
+      * @return number of operands
+      * */
+    int size() {
+	return operands.size();
+    }
+
+    /** Get the value at the exits
+      * @return fields
+      * */
+    BitSet boundary() {
+	return getFields();
+    }
+
+    /** Compute the gen (uses) and kill (definition) sets of an instruction
+      * @param inst instruction
+      * @param gen empty set receiving the variables read
+      * @param kill empty set receiving the variable written
+      * */
+    void transfer(TACInst inst, BitSet gen, BitSet kill) {
+	int def = inst.getDefId();
+	if (def >= 0)
+	    kill.set(def);
+	int[] uses = inst.getUseIds();
+	for (int i = 0; i < uses.length; i++)
+	    if (operands.isVar(uses[i]))
+		gen.set(uses[i]);
+	if (inst.isCall())
+	    gen.or(getFields());
+    }
+
+    /** Is a variable live at the exit of a block?
+      * @param bb block
+      * @param var operand identifier of the variable
+      * @return flag indicating whether live
+      * */
+    boolean isLiveOut(BasicBlock bb, int var) {
+	return getOut(bb).get(var);
+    }
+}
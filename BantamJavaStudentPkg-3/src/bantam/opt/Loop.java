@@ -0,0 +1,173 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>Loop</tt> class represents a natural loop of a subroutine
+  * (see LoopNest): a header block dominating the blocks of the loop,
+  * and the back edges from blocks of the loop to the header.
+  * */
+class Loop {
+    /** Header block */
+    private BasicBlock header;
+
+    /** Blocks of the loop (the header first, then the others in
+      * reverse postorder) */
+    private Vector<BasicBlock> blocks = new Vector<BasicBlock>();
+
+    /** Set of the blocks of the loop */
+    private HashSet<BasicBlock> blockSet = new HashSet<BasicBlock>();
+
+    /** Innermost enclosing loop (null if outermost) */
+    private Loop parent;
+
+    /** Loops immediately nested in this one */
+    private Vector<Loop> children = new Vector<Loop>();
+
+    /** Nesting depth (1 for an outermost loop) */
+    private int depth;
+
+    /** Loop constructor
+      * @param header header block
+      * */
+    Loop(BasicBlock header) {
+	this.header = header;
+    }
+
+    /** Get the header block
+      * @return header
+      * */
+    BasicBlock getHeader() {
+	return header;
+    }
+
+    /** Add a block to the loop
+      * @param bb block (ignored if already in the loop)
+      * */
+    void addBlock(BasicBlock bb) {
+	if (blockSet.add(bb))
+	    blocks.add(bb);
+    }
+
+    /** Get the blocks of the loop
+      * @return blocks (must not be modified)
+      * */
+    Vector<BasicBlock> getBlocks() {
+	return blocks;
+    }
+
+    /** Is a block in the loop (or a loop nested in it)?
+      * @param bb block
+      * @return flag indicating whether in the loop
+      * */
+    boolean contains(BasicBlock bb) {
+	return blockSet.contains(bb);
+    }
+
+    /** Get the innermost enclosing loop
+      * @return parent loop (null if outermost)
+      * */
+    Loop getParent() {
+	return parent;
+    }
+
+    /** Set the innermost enclosing loop
+      * @param parent parent loop
+      * */
+    void setParent(Loop parent) {
+	this.parent = parent;
+	parent.children.add(this);
+    }
+
+    /** Get the loops immediately nested in this one
+      * @return loops (must not be modified)
+      * */
+    Vector<Loop> getChildren() {
+	return children;
+    }
+
+    /** Get the nesting depth
+      * @return depth (1 for an outermost loop)
+      * */
+    int getDepth() {
+	return depth;
+    }
+
+    /** Set the nesting depth
+      * @param depth depth (1 for an outermost loop)
+      * */
+    void setDepth(int depth) {
+	this.depth = depth;
+    }
+
+    /** Get the blocks outside the loop that branch to the header
+      * @return entering blocks
+      * */
+    Vector<BasicBlock> getEntries() {
+	Vector<BasicBlock> entries = new Vector<BasicBlock>();
+	for (int i = 0; i < header.getNumInEdges(); i++)
+	    if (!contains(header.getNthInEdge(i)))
+		entries.add(header.getNthInEdge(i));
+	return entries;
+    }
+
+    /** Get the preheader: the only block entering the loop, if the
+      * header is its only successor
+      * @return preheader (null if none, see LoopNest.insertPreheader)
+      * */
+    BasicBlock getPreheader() {
+	Vector<BasicBlock> entries = getEntries();
+	if (entries.size() != 1 || entries.elementAt(0).getNumOutEdges() != 1)
+	    return null;
+	return entries.elementAt(0);
+    }
+
+    /** Get the blocks outside the loop that blocks of the loop branch to
+      * @return exit blocks
+      * */
+    Vector<BasicBlock> getExits() {
+	Vector<BasicBlock> exits = new Vector<BasicBlock>();
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumOutEdges(); j++) {
+		BasicBlock succ = bb.getNthOutEdge(j);
+		if (!contains(succ) && !exits.contains(succ))
+		    exits.add(succ);
+	    }
+	}
+	return exits;
+    }
+
+    /** Get a string representation of the loop (for debugging output)
+      * @return header, depth, and size
+      * */
+    public String toString() {
+	return "loop " + header + " (depth " + depth + ", " + blocks.size() + " blocks)";
+    }
+}
@@ -0,0 +1,193 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>LoopNest</tt> class finds the natural loops of a subroutine
+  * and how they nest.
+  *
+  * An edge is a back edge if its target (the header) dominates its
+  * source (see Dominators).  The natural loop of a back edge is the
+  * header plus the blocks that reach the source without going through
+  * the header; the back edges into the same header share one loop.
+  * The loops of a subroutine are then either nested or disjoint, and
+  * the parent of a loop is the smallest other loop containing its
+  * header.  Bantam loops (while and for statements) are always natural,
+  * since the CFG builder only enters them through their header.
+  *
+  * The CFG builder counts the loops around each block as it builds
+  * (see BasicBlock.getLoopCnt); this class finds the loops of the
+  * current graph, after transformations.
+  * */
+class LoopNest {
+    /** Dominator tree of the subroutine */
+    private Dominators doms;
+
+    /** Loops, innermost first (by increasing size) */
+    private Vector<Loop> loops = new Vector<Loop>();
+
+    /** Innermost loop of each block in a loop */
+    private HashMap<BasicBlock, Loop> innermost = new HashMap<BasicBlock, Loop>();
+
+    /** LoopNest constructor (finds the loops)
+      * @param entrance entrance block of the subroutine
+      * */
+    LoopNest(BasicBlock entrance) {
+	doms = new Dominators(entrance);
+	Vector<BasicBlock> blocks = doms.getBlocks();
+	HashMap<BasicBlock, Loop> byHeader = new HashMap<BasicBlock, Loop>();
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumOutEdges(); j++) {
+		BasicBlock header = bb.getNthOutEdge(j);
+		if (!doms.dominates(header, bb))
+		    continue;
+		Loop loop = byHeader.get(header);
+		if (loop == null) {
+		    loop = new Loop(header);
+		    byHeader.put(header, loop);
+		    loops.add(loop);
+		}
+		addBody(loop, bb);
+	    }
+	}
+
+	// sort the blocks of each loop in reverse postorder (the header
+	// comes first, since it dominates them), and the loops by size
+	final HashMap<BasicBlock, Integer> positions = new HashMap<BasicBlock, Integer>();
+	for (int i = 0; i < blocks.size(); i++)
+	    positions.put(blocks.elementAt(i), i);
+	for (int l = 0; l < loops.size(); l++) {
+	    Loop loop = loops.elementAt(l);
+	    Vector<BasicBlock> body = new Vector<BasicBlock>(loop.getBlocks());
+	    Collections.sort(body, new Comparator<BasicBlock>() {
+		    public int compare(BasicBlock b1, BasicBlock b2) {
+			return positions.get(b1) - positions.get(b2);
+		    }
+		});
+	    Loop sorted = new Loop(loop.getHeader());
+	    for (int i = 0; i < body.size(); i++)
+		sorted.addBlock(body.elementAt(i));
+	    loops.set(l, sorted);
+	}
+	Collections.sort(loops, new Comparator<Loop>() {
+		public int compare(Loop l1, Loop l2) {
+		    return l1.getBlocks().size() - l2.getBlocks().size();
+		}
+	    });
+
+	// nest the loops: the parent of a loop is the smallest larger
+	// loop containing its header
+	for (int l = 0; l < loops.size(); l++) {
+	    Loop loop = loops.elementAt(l);
+	    for (int m = l + 1; m < loops.size(); m++)
+		if (loops.elementAt(m).contains(loop.getHeader())) {
+		    loop.setParent(loops.elementAt(m));
+		    break;
+		}
+	    Vector<BasicBlock> body = loop.getBlocks();
+	    for (int i = 0; i < body.size(); i++)
+		if (!innermost.containsKey(body.elementAt(i)))
+		    innermost.put(body.elementAt(i), loop);
+	}
+	for (int l = loops.size() - 1; l >= 0; l--) {
+	    Loop loop = loops.elementAt(l);
+	    loop.setDepth(loop.getParent() == null ? 1 : loop.getParent().getDepth() + 1);
+	}
+    }
+
+    /** Add the blocks reaching the source of a back edge without going
+      * through the header to a loop
+      * @param loop loop of the back edge
+      * @param source source block of the back edge
+      * */
+    private void addBody(Loop loop, BasicBlock source) {
+	loop.addBlock(loop.getHeader());
+	Vector<BasicBlock> worklist = new Vector<BasicBlock>();
+	worklist.add(source);
+	while (worklist.size() > 0) {
+	    BasicBlock bb = worklist.remove(worklist.size() - 1);
+	    if (loop.contains(bb) || !doms.isReachable(bb))
+		continue;
+	    loop.addBlock(bb);
+	    for (int i = 0; i < bb.getNumInEdges(); i++)
+		worklist.add(bb.getNthInEdge(i));
+	}
+    }
+
+    /** Get the loops
+      * @return loops, innermost first (a loop comes before the loops
+      * containing it; must not be modified)
+      * */
+    Vector<Loop> getLoops() {
+	return loops;
+    }
+
+    /** Get the innermost loop containing a block
+      * @param bb block
+      * @return loop (null if the block is in no loop)
+      * */
+    Loop getLoop(BasicBlock bb) {
+	return innermost.get(bb);
+    }
+
+    /** Get the dominator tree the loops were found with
+      * @return dominators
+      * */
+    Dominators getDominators() {
+	return doms;
+    }
+
+    /** Insert a preheader before the header of a loop, unless the loop
+      * already has one: a new block that the only block entering the
+      * loop branches to instead of the header, and that falls into the
+      * header.  Code placed there runs once each time the loop is
+      * entered.  The loops and dominators of this object are not
+      * updated (the preheader is in the loops containing the entering
+      * block), so find the loops again before using them.
+      * @param loop loop
+      * @return preheader (null if several blocks enter the loop)
+      * */
+    static BasicBlock insertPreheader(Loop loop) {
+	BasicBlock preheader = loop.getPreheader();
+	if (preheader != null)
+	    return preheader;
+	Vector<BasicBlock> entries = loop.getEntries();
+	if (entries.size() != 1)
+	    return null;
+	BasicBlock header = loop.getHeader(), entry = entries.elementAt(0);
+	preheader = new BasicBlock(header.getStartLineNum(),
+				   entry.getLoopCnt(), entry.getIfCnt());
+	entry.replaceOutEdge(header, preheader);
+	preheader.addOutEdge(header);
+	for (int j = 0; j < header.getNumInsn() && header.getNthInst(j).isPhi(); j++)
+	    ((PhiInst)header.getNthInst(j)).replacePred(entry, preheader);
+	return preheader;
+    }
+}
@@ -0,0 +1,442 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>LoopUnroller</tt> class unrolls the small counted loops of a
+  * subroutine (outside SSA form): the body of the loop is copied a
+  * number of times (the factor), and the copies run in a row after a
+  * single test, so the test and the jump back run once per group of
+  * iterations.  The original loop stays behind the copies to run the
+  * remaining iterations.
+  *
+  * A loop is counted if it is innermost, its header ends with the only
+  * IF leaving it (apart from the checks jumping to error blocks, see
+  * CFGBuilder), and that IF compares a variable <tt>i</tt> to a bound
+  * <tt>n</tt> that the loop does not write (a constant, parameter,
+  * local, or temporary; fields may change in calls).  <tt>i</tt> must be
+  * written once in the loop, by adding a constant step <tt>c</tt> (or
+  * copying <tt>i + c</tt>), in a block that every iteration runs: one
+  * dominating the only back edge.  For the ways up (<tt>i &lt; n</tt>
+  * or <tt>i &lt;= n</tt> with <tt>c &gt; 0</tt>) and down (<tt>i &gt;
+  * n</tt> or <tt>i &gt;= n</tt> with <tt>c &lt; 0</tt>), the next
+  * <tt>factor</tt> iterations all pass the test if <tt>i</tt> passes it
+  * against <tt>n - (factor - 1) * c</tt>, computed once before the loop;
+  * if that subtraction wraps around (which a constant or an array
+  * length rules out), the unrolled loop is skipped.
+  * Other loops (a test of a field, an increment in a branch, a break)
+  * are left alone, as are loops whose bodies are larger than a limit.
+  *
+  * The header is split before its IF, so the instructions computing
+  * the test run once per iteration and the test itself once per group:
+  * <pre>
+  *     preheader: lim = n - K; if (lim &gt; n) goto wrap; (else) unrolled
+  *     unrolled:  header code; if (i &lt; lim) goto body_1; (else) test
+  *     body_1 ... back edge to header code, then body_2 ... body_factor,
+  *                whose back edge returns to unrolled
+  *     wrap:      goto test
+  *     header:    header code
+  *     test:      if (i &lt; n) goto body; (else) exit
+  *     body ...   back edge to header
+  * </pre>
+  * The copies use the same variables as the original loop: outside SSA
+  * form, variables may be written in several places.  Each copy of a
+  * check gets its own copy of its error block, since a block has at
+  * most 3 predecessors.
+  * */
+class LoopUnroller {
+    /** Entrance block of the subroutine */
+    private BasicBlock entrance;
+
+    /** Operand table of the subroutine */
+    private OperandTable operands;
+
+    /** Number of copies of the body run after one test */
+    private int factor;
+
+    /** Largest loop unrolled (in instructions, checks included) */
+    private int maxSize;
+
+    /** Blocks of the subroutine */
+    private Vector<BasicBlock> blocks;
+
+    /** Flags indicating whether each variable is known to hold an
+      * array (by base operand identifier, see CFGBuilder.findArrays) */
+    private boolean[] arrays;
+
+    /** Number of the next temporary created */
+    private int nextTemp;
+
+    /** Number of loops unrolled */
+    private int numUnrolled;
+
+    /** LoopUnroller constructor
+      * @param entrance entrance block of a numbered subroutine outside
+      * SSA form
+      * @param factor number of copies of the body run after one test
+      * @param maxSize largest loop unrolled (in instructions)
+      * */
+    LoopUnroller(BasicBlock entrance, int factor, int maxSize) {
+	this.entrance = entrance;
+	this.factor = factor;
+	this.maxSize = maxSize;
+	operands = entrance.getOperandTable();
+	if (operands == null)
+	    throw new RuntimeException("Internal error: loop unrolling in " +
+				       "a subroutine that has not been numbered");
+    }
+
+    /** Unroll the small counted loops
+      * @return flag indicating whether the subroutine changed
+      * */
+    boolean run() {
+	numUnrolled = 0;
+	if (factor < 2)
+	    return false;
+	LoopNest nest = new LoopNest(entrance);
+	boolean inserted = false;
+	for (int l = 0; l < nest.getLoops().size(); l++) {
+	    Loop loop = nest.getLoops().elementAt(l);
+	    if (loop.getChildren().size() == 0 && loop.getPreheader() == null &&
+		LoopNest.insertPreheader(loop) != null)
+		inserted = true;
+	}
+	if (inserted) {
+	    entrance.numberOperands();
+	    nest = new LoopNest(entrance);
+	}
+	blocks = nest.getDominators().getBlocks();
+	arrays = CFGBuilder.findArrays(blocks, operands);
+	nextTemp = 0;
+	for (int id = 0; id < operands.size(); id++)
+	    if (operands.getKind(id) == OperandTable.TEMP && operands.getBase(id) == id)
+		nextTemp = Math.max(nextTemp,
+				    Integer.parseInt(operands.getName(id).substring(2)) + 1);
+
+	// innermost loops are disjoint, so unrolling one leaves the
+	// others (and their dominators) as they were
+	for (int l = 0; l < nest.getLoops().size(); l++) {
+	    Loop loop = nest.getLoops().elementAt(l);
+	    if (loop.getChildren().size() == 0 && unroll(loop, nest.getDominators()))
+		numUnrolled++;
+	}
+	if (inserted || numUnrolled > 0)
+	    entrance.numberOperands();
+	return inserted || numUnrolled > 0;
+    }
+
+    /** Unroll a loop if it is counted and small enough
+      * @param loop innermost loop
+      * @param doms dominator tree
+      * @return flag indicating whether unrolled
+      * */
+    private boolean unroll(Loop loop, Dominators doms) {
+	BasicBlock header = loop.getHeader(), preheader = loop.getPreheader();
+	if (preheader == null || header.getNumInEdges() != 2 || header.getNumInsn() == 0 ||
+	    !header.getNthInst(header.getNumInsn() - 1).isIf())
+	    return false;
+	BasicBlock latch = header.getNthInEdge(0) == preheader ?
+	    header.getNthInEdge(1) : header.getNthInEdge(0);
+	IfInst test = (IfInst)header.getNthInst(header.getNumInsn() - 1);
+	boolean stays = loop.contains(test.getTrueTarg());
+	if (stays == loop.contains(test.getFalseTarg()))
+	    return false;
+	BasicBlock body = stays ? test.getTrueTarg() : test.getFalseTarg();
+
+	// the loop is only left from the header, or to report an error
+	Vector<BasicBlock> loopBlocks = loop.getBlocks();
+	int size = 0;
+	for (int i = 0; i < loopBlocks.size(); i++) {
+	    BasicBlock bb = loopBlocks.elementAt(i);
+	    size += bb.getNumInsn();
+	    for (int j = 0; j < bb.getNumOutEdges() && bb != header; j++) {
+		BasicBlock succ = bb.getNthOutEdge(j);
+		if (!loop.contains(succ) && !Inliner.isErrorBlock(succ))
+		    return false;
+		if (!loop.contains(succ))
+		    size += succ.getNumInsn();
+	    }
+	}
+	if (size > maxSize)
+	    return false;
+
+	// the test, as i <relation> n to stay in the loop
+	int type = stays ? test.getType() : CheckElimination.negate(test.getType());
+	int var = test.getUseIds()[0], bound = test.getUseIds()[1];
+	long step = getStep(var, loop, latch, doms);
+	if (step == 0) {
+	    type = CheckElimination.swap(type);
+	    var = test.getUseIds()[1];
+	    bound = test.getUseIds()[0];
+	    step = getStep(var, loop, latch, doms);
+	}
+	if (step == 0 || var == bound || !isInvariant(bound, loop))
+	    return false;
+	boolean up;
+	if (step > 0 && (type == IfInst.LT || type == IfInst.LE))
+	    up = true;
+	else if (step < 0 && (type == IfInst.GT || type == IfInst.GE))
+	    up = false;
+	else
+	    return false;
+
+	// the bound of the unrolled test
+	long offset = (factor - 1) * Math.abs(step);
+	String limit, n = operands.getName(bound);
+	boolean guarded = false;
+	if (operands.getKind(bound) == OperandTable.INT_CONST) {
+	    long value = operands.getIntValue(bound) + (up ? -offset : offset);
+	    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+		return false;
+	    limit = String.valueOf(value);
+	}
+	else {
+	    if (offset > Integer.MAX_VALUE)
+		return false;
+	    limit = "@t" + nextTemp++;
+	    preheader.addInst(up ? new BinarySubInst(limit, n, String.valueOf(offset)) :
+			      new BinaryAddInst(limit, n, String.valueOf(offset)));
+	    // a length is not negative, so subtracting cannot wrap around
+	    guarded = !up || !isLength(bound);
+	}
+
+	// split the header before its IF
+	BasicBlock exit = stays ? test.getFalseTarg() : test.getTrueTarg();
+	BasicBlock split = newBlock(header);
+	header.removeNthInst(header.getNumInsn() - 1);
+	header.removeOutEdge(test.getTrueTarg());
+	header.removeOutEdge(test.getFalseTarg());
+	header.addOutEdge(split);
+	split.addInst(test);
+	split.addOutEdge(test.getTrueTarg());
+	split.addOutEdge(test.getFalseTarg());
+
+	// the unrolled header, reached from the preheader unless the
+	// limit wrapped around
+	BasicBlock unrolled = newBlock(header);
+	copyCode(header, unrolled);
+	preheader.replaceOutEdge(header, unrolled);
+	if (guarded) {
+	    BasicBlock wrap = new BasicBlock(preheader.getStartLineNum(),
+					     preheader.getLoopCnt(), preheader.getIfCnt());
+	    preheader.addInst(new IfInst(up ? IfInst.GT : IfInst.LT, limit, n, wrap, unrolled));
+	    preheader.addOutEdge(wrap);
+	    wrap.addOutEdge(split);
+	}
+
+	// the copies of the body, each entered from a copy of the header
+	// code (the first one from the unrolled header) and branching
+	// back to the next one
+	BasicBlock next = unrolled;
+	for (int k = factor; k >= 1; k--) {
+	    HashMap<BasicBlock, BasicBlock> copies = new HashMap<BasicBlock, BasicBlock>();
+	    copies.put(header, next);
+	    for (int i = 0; i < loopBlocks.size(); i++) {
+		BasicBlock bb = loopBlocks.elementAt(i);
+		if (bb == header)
+		    continue;
+		copies.put(bb, newBlock(bb));
+		for (int j = 0; j < bb.getNumOutEdges(); j++)
+		    if (!loop.contains(bb.getNthOutEdge(j)))
+			copies.put(bb.getNthOutEdge(j), newBlock(bb.getNthOutEdge(j)));
+	    }
+	    Iterator<BasicBlock> iter = copies.keySet().iterator();
+	    while (iter.hasNext()) {
+		BasicBlock bb = iter.next();
+		if (bb == header)
+		    continue;
+		BasicBlock copy = copies.get(bb);
+		for (int j = 0; j < bb.getNumInsn(); j++)
+		    copy.addInst(Inliner.copy(bb.getNthInst(j), copies));
+		for (int j = 0; j < bb.getNumOutEdges(); j++)
+		    copy.addOutEdge(copies.get(bb.getNthOutEdge(j)));
+	    }
+	    if (k > 1) {
+		next = newBlock(header);
+		copyCode(header, next);
+		next.addOutEdge(copies.get(body));
+	    }
+	    else {
+		unrolled.addInst(new IfInst(type, operands.getName(var), limit,
+					    copies.get(body), split));
+		unrolled.addOutEdge(copies.get(body));
+		unrolled.addOutEdge(split);
+	    }
+	}
+	return true;
+    }
+
+    /** Get the step of a variable written once per iteration of a loop
+      * @param var identifier of the variable
+      * @param loop loop
+      * @param latch source block of the only back edge
+      * @param doms dominator tree
+      * @return constant added to the variable on each iteration (0 if
+      * the variable is not a counter)
+      * */
+    private long getStep(int var, Loop loop, BasicBlock latch, Dominators doms) {
+	if (!isLocal(var))
+	    return 0;
+	TACInst def = null;
+	BasicBlock defBlock = null;
+	Vector<BasicBlock> loopBlocks = loop.getBlocks();
+	for (int i = 0; i < loopBlocks.size(); i++) {
+	    BasicBlock bb = loopBlocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++)
+		if (bb.getNthInst(j).getDefId() == var) {
+		    if (def != null)
+			return 0;
+		    def = bb.getNthInst(j);
+		    defBlock = bb;
+		}
+	}
+	if (def == null || defBlock == loop.getHeader() || !doms.dominates(defBlock, latch))
+	    return 0;
+
+	// a copy of var + c computed in the same block
+	if (def.getOpcode() == TACInst.LDVAR) {
+	    int source = def.getUseIds()[0];
+	    if (!isLocal(source) || source == var)
+		return 0;
+	    TACInst sum = null;
+	    for (int j = defBlock.indexOf(def) - 1; j >= 0 && sum == null; j--)
+		if (defBlock.getNthInst(j).getDefId() == source)
+		    sum = defBlock.getNthInst(j);
+	    for (int i = 0; i < loopBlocks.size() && sum != null; i++) {
+		BasicBlock bb = loopBlocks.elementAt(i);
+		for (int j = 0; j < bb.getNumInsn(); j++)
+		    if (bb.getNthInst(j).getDefId() == source && bb.getNthInst(j) != sum)
+			return 0;
+	    }
+	    if (sum == null)
+		return 0;
+	    def = sum;
+	}
+
+	int[] uses = def.getUseIds();
+	switch (def.getOpcode()) {
+	case TACInst.BINADD:
+	    if (uses[0] == var && operands.getKind(uses[1]) == OperandTable.INT_CONST)
+		return operands.getIntValue(uses[1]);
+	    if (uses[1] == var && operands.getKind(uses[0]) == OperandTable.INT_CONST)
+		return operands.getIntValue(uses[0]);
+	    return 0;
+	case TACInst.BINSUB:
+	    if (uses[0] == var && operands.getKind(uses[1]) == OperandTable.INT_CONST)
+		return -(long)operands.getIntValue(uses[1]);
+	    return 0;
+	default:
+	    return 0;
+	}
+    }
+
+    /** Is an operand invariant in a loop?
+      * @param id identifier of the operand
+      * @param loop loop
+      * @return flag indicating whether it is an int constant, or a
+      * parameter, local, or temporary that no instruction of the loop
+      * writes
+      * */
+    private boolean isInvariant(int id, Loop loop) {
+	if (operands.getKind(id) == OperandTable.INT_CONST)
+	    return true;
+	if (!isLocal(id))
+	    return false;
+	Vector<BasicBlock> loopBlocks = loop.getBlocks();
+	for (int i = 0; i < loopBlocks.size(); i++) {
+	    BasicBlock bb = loopBlocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++)
+		if (bb.getNthInst(j).getDefId() == id)
+		    return false;
+	}
+	return true;
+    }
+
+    /** Is a variable an array length?
+      * @param var identifier of a variable
+      * @return flag indicating whether all its definitions load the
+      * length of an array
+      * */
+    private boolean isLength(int var) {
+	boolean defined = false;
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		if (inst.getDefId() != var)
+		    continue;
+		if (inst.getOpcode() != TACInst.LDENTRY)
+		    return false;
+		int[] uses = inst.getUseIds();
+		int base = operands.getBase(uses[0]);
+		if (base >= arrays.length || !arrays[base] ||
+		    operands.getKind(uses[1]) != OperandTable.INT_CONST ||
+		    operands.getIntValue(uses[1]) != CFGBuilder.LENGTH_INDEX)
+		    return false;
+		defined = true;
+	    }
+	}
+	return defined;
+    }
+
+    /** Copy the instructions of a header (without its IF) to a block
+      * @param header header block, split before its IF
+      * @param bb block
+      * */
+    private static void copyCode(BasicBlock header, BasicBlock bb) {
+	for (int j = 0; j < header.getNumInsn(); j++)
+	    bb.addInst(Inliner.copy(header.getNthInst(j), null));
+    }
+
+    /** Create an empty block like another
+      * @param bb block
+      * @return block with the same line and loop and if counts
+      * */
+    private static BasicBlock newBlock(BasicBlock bb) {
+	return new BasicBlock(bb.getStartLineNum(), bb.getLoopCnt(), bb.getIfCnt());
+    }
+
+    /** Is an operand a parameter, local, or temporary?
+      * @param id identifier of an operand
+      * @return flag indicating whether local
+      * */
+    private boolean isLocal(int id) {
+	int kind = operands.getKind(id);
+	return kind == OperandTable.PARAM || kind == OperandTable.LOCAL ||
+	    kind == OperandTable.TEMP;
+    }
+
+    /** Get the number of loops unrolled by the last run
+      * @return number of loops
+      * */
+    int getNumUnrolled() {
+	return numUnrolled;
+    }
+}
@@ -49,9 +49,60 @@ public class Optimizer {
     /** Boolean indicating whether debugging is enabled */
     private boolean debug = false;
 
-    /** Ordered list of class tree nodes (in depth-first order).
-      * Will need to add class tree nodes to this list. */
-    private static Vector<ClassTreeNode> orderedClassList = new Vector<ClassTreeNode>();
+    /** Number of objects replaced by scalars (see ScalarReplacement) */
+    private int numReplaced = 0;
+
+    /** Number of multiplications replaced by additions (see
+      * StrengthReduction) */
+    private int numReduced = 0;
+
+    /** Number of loops unrolled (see LoopUnroller) */
+    private int numUnrolled = 0;
+
+    /** Number of variables allocated a register (see
+      * RegisterAllocator) */
+    private int numAllocated = 0;
+
+    /** Number of variables spilled by the register allocator */
+    private int numSpilled = 0;
+
+    /** Number of copies coalesced by the register allocator (see
+      * GraphColoring) */
+    private int numCoalesced = 0;
+
+    /** Registers available to the register allocator: number of
+      * caller-saved registers, numbered first (MipsSupport.getT0Reg to
+      * getT3Reg) */
+    public static final int NUM_CALLER_SAVED = 4;
+
+    /** Registers available to the register allocator: number of
+      * callee-saved registers, numbered after the caller-saved ones
+      * (MipsSupport.getS0Reg to getS3Reg) */
+    public static final int NUM_CALLEE_SAVED = 4;
+
+    /** Inlining limits by optimization level (see Inliner): size
+      * budget (largest callee inlined, in instructions) */
+    private static final int[] INLINE_SIZE = {0, 0, 12, 30, 60};
+
+    /** Inlining limits by optimization level: deepest nesting of
+      * inlined calls */
+    private static final int[] INLINE_DEPTH = {0, 0, 2, 3, 4};
+
+    /** Inlining limits by optimization level: recursion cutoff (number
+      * of times a recursive call may be inlined in a row) */
+    private static final int[] INLINE_RECURSION = {0, 0, 0, 0, 1};
+
+    /** Unrolling limits by optimization level (see LoopUnroller):
+      * number of copies of the body run after one test (1 for none) */
+    private static final int[] UNROLL_FACTOR = {1, 1, 2, 4, 4};
+
+    /** Unrolling limits by optimization level: largest loop unrolled
+      * (in instructions) */
+    private static final int[] UNROLL_SIZE = {0, 0, 16, 24, 32};
+
+    /** Ordered list of class tree nodes (in depth-first order), built
+      * by optimize for the program of this optimizer */
+    private Vector<ClassTreeNode> orderedClassList = new Vector<ClassTreeNode>();
 
     /** Optimizer constructor
       * @param root root of the class hierarchy tree
@@ -65,20 +116,256 @@ public class Optimizer {
     }
 
     /** Optimize the program
-      * In particular, will need to do the following:
-      *   0 - build any data structures needed like an ordered
-      *       class list (which is needed by print)
-      *   1 - build the control flow graph (bantam.cfg)
-      *       (a) if bantam.opt level > 1 then perform high-level
-      *           transformations as building bantam.cfg
-      *   2 - if bantam.opt level > 2 then perform low-level bantam.opt.
-      * See the lab manual for the details.
+      *   0 - build the ordered class list (which is needed by print)
+      *   1 - build the control flow graph (bantam.cfg) of each
+      *       initialization subroutine and method (see CFGBuilder)
+      *       and register its entrance block in the method symbol
+      *       table of the class (as <Class>_init and <Class>.<method>),
+      *       numbering its operands (see BasicBlock.numberOperands),
+      *       then run the passes of the level (see PassManager and
+      *       addPasses): at level 1, remove the empty blocks and
+      *       allocate registers to the variables (recorded in the
+      *       operand table of the subroutine, for the code generator)
+      *   2 - also make the dynamic dispatches that can only reach one
+      *       method direct calls when building (see ClassHierarchy),
+      *       inline the small callees, and run the SSA optimizations
+      *       and the loop transformations (see addPasses)
+      *   3 - inline larger callees, deeper, unroll loops further, and
+      *       allocate the registers by coloring the interference graph
+      *   4 - also inline recursive calls once
       * */
     public void optimize() {
-	// comment out
-	throw new RuntimeException("Optimizer unimplemented");
+	// build the ordered class list
+	orderedClassList.clear();
+	addClasses(root);
+
+	// build the control flow graphs, registering the entrance of each
+	// subroutine in the method symbol table of its class
+	ClassHierarchy hierarchy = null;
+	Inliner inliner = null;
+	if (optLevel >= 2) {
+	    hierarchy = new ClassHierarchy(orderedClassList);
+	    int level = Math.min(optLevel, INLINE_SIZE.length - 1);
+	    inliner = new Inliner(hierarchy, INLINE_SIZE[level], INLINE_DEPTH[level],
+				  INLINE_RECURSION[level], debug);
+	}
+	CFGBuilder builder = new CFGBuilder(orderedClassList, hierarchy);
+	PassManager manager = new PassManager(optLevel, debug);
+	for (int i = 0; i < orderedClassList.size(); i++) {
+	    ClassTreeNode ctn = orderedClassList.elementAt(i);
+	    SymbolTable st = ctn.getMethodSymbolTable();
+	    String name = ctn.getName() + "_init";
+	    BasicBlock entrance = addSubroutine(st, name, builder.buildInit(ctn));
+	    manager.addSubroutine(name, entrance);
+	    if (inliner != null)
+		inliner.addSubroutine(name, entrance, null);
+	    if (!ctn.isBuiltIn()) {
+		Iterator<ASTNode> iter = ctn.getASTNode().getMemberList().iterator();
+		while (iter.hasNext()) {
+		    Member m = (Member)iter.next();
+		    if (!(m instanceof Method))
+			continue;
+		    name = ctn.getName() + "." + ((Method)m).getName();
+		    entrance = addSubroutine(st, name, builder.buildMethod(ctn, (Method)m));
+		    manager.addSubroutine(name, entrance);
+		    if (inliner != null)
+			inliner.addSubroutine(name, entrance, (Method)m);
+		}
+	    }
+	}
+	if (debug && hierarchy != null)
+	    System.err.println("made " + builder.getNumDevirtualized() +
+			       " dynamic dispatch(es) direct");
 
-	// add code below...
+	numReplaced = numReduced = numUnrolled = numAllocated = numSpilled = numCoalesced = 0;
+	addPasses(manager, hierarchy, inliner);
+	manager.run();
+	if (debug && optLevel >= 2) {
+	    System.err.println("replaced " + numReplaced + " object(s) by locals");
+	    System.err.println("reduced " + numReduced + " multiplication(s) and unrolled " +
+			       numUnrolled + " loop(s)");
+	}
+	if (debug)
+	    System.err.println("allocated registers to " + numAllocated +
+			       " variable(s) and spilled " + numSpilled);
+	if (debug && optLevel >= 3)
+	    System.err.println("coalesced " + numCoalesced + " copies");
+    }
+
+    /** Number the operands of a subroutine and register its entrance
+      * block in a method symbol table
+      * @param st method symbol table of the class
+      * @param name name of the subroutine
+      * @param entrance entrance block of the subroutine
+      * @return entrance block
+      * */
+    private BasicBlock addSubroutine(SymbolTable st, String name, BasicBlock entrance) {
+	entrance.numberOperands();
+	st.add(name, entrance);
+	return entrance;
+    }
+
+    /** Register the passes with their levels, in the order they run:
+      *   2 - inline the small callees (see Inliner, before optimizing,
+      *       so the copies are optimized with the code around their
+      *       call sites; the limits grow with the level)
+      *   2 - convert each subroutine into pruned SSA form (see SSA), on
+      *       which the sparse optimizations work:
+      *   2 - sparse conditional constant propagation (see SCCP)
+      *   2 - global value numbering (see GVN)
+      *   2 - replacement of the objects that do not escape by locals
+      *       (see ScalarReplacement, then SSA, SCCP and GVN again)
+      *   2 - removal of the null and bounds checks that cannot fail
+      *       (see CheckElimination)
+      *   2 - loop-invariant code motion (see LICM)
+      *   2 - strength reduction of the multiplications of induction
+      *       variables (see StrengthReduction)
+      *   2 - translation out of SSA form
+      *   1 - removal of the empty blocks (see CFGCleanup)
+      *   2 - unrolling of the small counted loops (see LoopUnroller,
+      *       the factor grows with the level)
+      *   1 - register allocation (see LinearScan, last, since the
+      *       passes above rename and add variables; from level 3, see
+      *       GraphColoring)
+      * @param manager pass manager
+      * @param hierarchy class hierarchy of the program (null below level 2)
+      * @param inliner inliner holding the subroutines (null below level 2)
+      * */
+    private void addPasses(PassManager manager, final ClassHierarchy hierarchy,
+			   final Inliner inliner) {
+	// the SSA form of each subroutine, kept from construction to
+	// destruction
+	final HashMap<BasicBlock, SSA> forms = new HashMap<BasicBlock, SSA>();
+
+	manager.addPass(new Pass("inlining", 2) {
+		boolean run(Vector<String> names, Vector<BasicBlock> entrances) {
+		    inliner.run();
+		    if (debug)
+			System.err.println("inlined " + inliner.getNumInlined() + " call(s)");
+		    return inliner.getNumInlined() > 0;
+		}
+	    });
+	manager.addPass(new Pass("SSA construction", 2) {
+		boolean run(String name, BasicBlock entrance) {
+		    SSA ssa = new SSA(entrance);
+		    ssa.build(true);
+		    forms.put(entrance, ssa);
+		    return true;
+		}
+	    });
+	manager.addPass(new Pass("SCCP", 2) {
+		boolean run(String name, BasicBlock entrance) {
+		    return new SCCP(entrance).run();
+		}
+	    });
+	manager.addPass(new Pass("GVN", 2) {
+		boolean run(String name, BasicBlock entrance) {
+		    return new GVN(entrance).run();
+		}
+	    });
+	manager.addPass(new Pass("scalar replacement", 2) {
+		boolean run(String name, BasicBlock entrance) {
+		    ScalarReplacement replacement = new ScalarReplacement(entrance, hierarchy);
+		    boolean changed = replacement.foldClassIds() > 0;
+		    if (changed)
+			new SCCP(entrance).run();
+		    if (!replacement.run())
+			return changed;
+		    // the fields became locals defined several times, and the
+		    // loads from them copies to propagate
+		    numReplaced += replacement.getNumReplaced();
+		    SSA ssa = forms.get(entrance);
+		    ssa.destroy();
+		    ssa.build(true);
+		    new SCCP(entrance).run();
+		    new GVN(entrance).run();
+		    return true;
+		}
+	    });
+	manager.addPass(new Pass("check elimination", 2) {
+		boolean run(String name, BasicBlock entrance) {
+		    CheckElimination checks = new CheckElimination(entrance);
+		    if (!checks.run())
+			return false;
+		    if (debug)
+			System.err.println(name + ": removed " + checks.getNumNullChecks() +
+					   " null check(s) and " + checks.getNumBoundsChecks() +
+					   " bounds check(s)");
+		    return true;
+		}
+	    });
+	manager.addPass(new Pass("LICM", 2) {
+		boolean run(String name, BasicBlock entrance) {
+		    return new LICM(entrance).run();
+		}
+	    });
+	manager.addPass(new Pass("strength reduction", 2) {
+		boolean run(String name, BasicBlock entrance) {
+		    StrengthReduction reduction = new StrengthReduction(entrance);
+		    if (!reduction.run())
+			return false;
+		    numReduced += reduction.getNumReduced();
+		    return true;
+		}
+	    });
+	manager.addPass(new Pass("SSA destruction", 2) {
+		boolean run(String name, BasicBlock entrance) {
+		    forms.remove(entrance).destroy();
+		    return true;
+		}
+	    });
+	manager.addPass(new Pass("CFG cleanup", 1) {
+		boolean run(String name, BasicBlock entrance) {
+		    return new CFGCleanup(entrance).run() > 0;
+		}
+	    });
+
+	// unroll once the empty blocks are gone, so the loop tests are in
+	// the headers
+	int level = Math.min(optLevel, UNROLL_FACTOR.length - 1);
+	final int factor = UNROLL_FACTOR[level], size = UNROLL_SIZE[level];
+	manager.addPass(new Pass("loop unrolling", 2) {
+		boolean run(String name, BasicBlock entrance) {
+		    LoopUnroller unroller = new LoopUnroller(entrance, factor, size);
+		    if (!unroller.run())
+			return false;
+		    numUnrolled += unroller.getNumUnrolled();
+		    new CFGCleanup(entrance).run();
+		    return true;
+		}
+	    });
+
+	// color at the top levels, where the speed of the code matters
+	// more than the time to allocate
+	final boolean coloring = optLevel >= 3;
+	manager.addPass(new Pass("register allocation", 1) {
+		boolean run(String name, BasicBlock entrance) {
+		    RegisterAllocator allocator;
+		    if (coloring)
+			allocator = new GraphColoring(entrance, NUM_CALLER_SAVED,
+						      NUM_CALLEE_SAVED);
+		    else
+			allocator = new LinearScan(entrance, NUM_CALLER_SAVED,
+						   NUM_CALLEE_SAVED);
+		    boolean allocated = allocator.run();
+		    numAllocated += allocator.getNumAllocated();
+		    numSpilled += allocator.getNumSpilled();
+		    if (coloring)
+			numCoalesced += ((GraphColoring)allocator).getNumCoalesced();
+		    return allocated;
+		}
+	    });
+    }
+
+    /** Add a class and its descendants to the ordered class list
+      * (depth-first order)
+      * @param ctn class tree node
+      * */
+    private void addClasses(ClassTreeNode ctn) {
+	orderedClassList.add(ctn);
+	Iterator<ClassTreeNode> iter = ctn.getChildrenList();
+	while (iter.hasNext())
+	    addClasses(iter.next());
     }
 
     /** Print out program
@@ -110,7 +397,7 @@ public class Optimizer {
 	    // only need to generate code for non-builtin methods
 	    if (!ctn.isBuiltIn()) {
 		// iterate over members looking for methods
-		Iterator iter = ctn.getASTNode().getMemberList().iterator();
+		Iterator<ASTNode> iter = ctn.getASTNode().getMemberList().iterator();
 		while (iter.hasNext()) {
 		    // get next member and see if it is a method
 		    Member m = (Member)iter.next();
@@ -0,0 +1,99 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>Pass</tt> class is a step of the optimizer, registered with
+  * a pass manager (see PassManager) along with the lowest optimization
+  * level that runs it.  Most passes transform one subroutine at a time
+  * and override run(String, BasicBlock); a pass over the whole program
+  * (inlining, for instance) overrides run(Vector, Vector) instead.
+  * */
+abstract class Pass {
+    /** Name of the pass (for debugging output) */
+    private String name;
+
+    /** Lowest optimization level running the pass */
+    private int level;
+
+    /** Pass constructor
+      * @param name name of the pass
+      * @param level lowest optimization level running the pass
+      * */
+    Pass(String name, int level) {
+	this.name = name;
+	this.level = level;
+    }
+
+    /** Get the name of the pass
+      * @return name
+      * */
+    String getName() {
+	return name;
+    }
+
+    /** Get the lowest optimization level running the pass
+      * @return level
+      * */
+    int getLevel() {
+	return level;
+    }
+
+    /** Run the pass over the program (on each subroutine in turn,
+      * unless overridden)
+      * @param names names of the subroutines
+      * @param entrances entrance blocks of the subroutines (parallel to
+      * names)
+      * @return flag indicating whether the program changed
+      * */
+    boolean run(Vector<String> names, Vector<BasicBlock> entrances) {
+	boolean changed = false;
+	for (int i = 0; i < entrances.size(); i++)
+	    if (run(names.elementAt(i), entrances.elementAt(i)))
+		changed = true;
+	return changed;
+    }
+
+    /** Run the pass on a subroutine (nothing, unless overridden)
+      * @param name name of the subroutine
+      * @param entrance entrance block of the subroutine
+      * @return flag indicating whether the subroutine changed
+      * */
+    boolean run(String name, BasicBlock entrance) {
+	return false;
+    }
+
+    /** Get a string representation of the pass (for debugging output)
+      * @return name
+      * */
+    public String toString() {
+	return name;
+    }
+}
@@ -0,0 +1,179 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>PassManager</tt> class runs the passes of the optimizer (see
+  * Pass) over the subroutines of a program, in the order they were
+  * added, skipping the passes registered for a level above the
+  * optimization level.
+  *
+  * The pipeline of each level (see Optimizer.addPasses):
+  *   0 - no passes (the control flow graphs are only built)
+  *   1 - removal of the empty blocks and register allocation by
+  *       linear scan
+  *   2 - inlining, SSA construction, SCCP, GVN, scalar replacement,
+  *       check elimination, LICM, strength reduction, SSA
+  *       destruction, removal of the empty blocks, loop unrolling, and
+  *       register allocation by linear scan
+  *   3 - the passes of level 2 with larger inlining and unrolling
+  *       limits, and register allocation by graph coloring instead
+  *   4 - the passes of level 3 with larger inlining limits, and the
+  *       inlining of recursive calls once
+  * Levels 3 and 4 add no passes of their own: they only change the
+  * limits the Optimizer gives the passes and the register allocator.
+  *
+  * With debugging enabled, the manager verifies the control flow graph
+  * of every subroutine after each pass (see BasicBlock.check), so a
+  * malformed graph is reported with the pass that left it, and then
+  * prints a table of the passes: wall time, and the numbers of
+  * instructions and blocks of the program before and after each pass.
+  * Counting and checking walk every subroutine, so they only happen
+  * when debugging; the times do not include them.
+  * */
+class PassManager {
+    /** Optimization level */
+    private int optLevel;
+
+    /** Boolean indicating whether debugging is enabled */
+    private boolean debug;
+
+    /** Passes, in the order they run */
+    private Vector<Pass> passes = new Vector<Pass>();
+
+    /** Names of the subroutines */
+    private Vector<String> names = new Vector<String>();
+
+    /** Entrance blocks of the subroutines (parallel to names) */
+    private Vector<BasicBlock> entrances = new Vector<BasicBlock>();
+
+    /** PassManager constructor
+      * @param optLevel optimization level
+      * @param debug boolean indicating whether debugging is enabled
+      * */
+    PassManager(int optLevel, boolean debug) {
+	this.optLevel = optLevel;
+	this.debug = debug;
+    }
+
+    /** Add a pass after the others
+      * @param pass pass
+      * */
+    void addPass(Pass pass) {
+	passes.add(pass);
+    }
+
+    /** Add a subroutine to optimize
+      * @param name name of the subroutine
+      * @param entrance entrance block of the subroutine
+      * */
+    void addSubroutine(String name, BasicBlock entrance) {
+	names.add(name);
+	entrances.add(entrance);
+    }
+
+    /** Run the passes of the optimization level
+      * */
+    void run() {
+	Vector<Pass> ran = new Vector<Pass>();
+	Vector<long[]> stats = new Vector<long[]>();
+	for (int p = 0; p < passes.size(); p++) {
+	    Pass pass = passes.elementAt(p);
+	    if (pass.getLevel() > optLevel)
+		continue;
+	    // time, instructions and blocks before, and after
+	    long[] stat = new long[5];
+	    if (debug)
+		count(stat, 1);
+	    long start = System.nanoTime();
+	    pass.run(names, entrances);
+	    stat[0] = System.nanoTime() - start;
+	    if (debug) {
+		count(stat, 3);
+		verify(pass);
+	    }
+	    ran.add(pass);
+	    stats.add(stat);
+	}
+	if (debug)
+	    print(ran, stats);
+    }
+
+    /** Count the instructions and blocks of the program
+      * @param stat statistics of a pass
+      * @param k index of the instruction count in stat (the block
+      * count follows)
+      * */
+    private void count(long[] stat, int k) {
+	for (int i = 0; i < entrances.size(); i++) {
+	    Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrances.elementAt(i));
+	    stat[k + 1] += blocks.size();
+	    for (int j = 0; j < blocks.size(); j++)
+		stat[k] += blocks.elementAt(j).getNumInsn();
+	}
+    }
+
+    /** Check the blocks of every subroutine after a pass
+      * Throws exception if a block is malformed
+      * @param pass pass that just ran
+      * */
+    private void verify(Pass pass) {
+	for (int i = 0; i < entrances.size(); i++) {
+	    Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrances.elementAt(i));
+	    for (int j = 0; j < blocks.size(); j++) {
+		try {
+		    blocks.elementAt(j).check();
+		}
+		catch (RuntimeException e) {
+		    throw new RuntimeException("Internal error: " + pass + " left a malformed " +
+					       "block in " + names.elementAt(i) + ": " +
+					       e.getMessage());
+		}
+	    }
+	}
+    }
+
+    /** Print the statistics of the passes that ran
+      * @param ran passes that ran
+      * @param stats statistics of each pass (parallel to ran)
+      * */
+    private void print(Vector<Pass> ran, Vector<long[]> stats) {
+	System.err.println(String.format("%-22s %10s %10s %10s %11s %11s", "pass", "time (ms)",
+					 "insts in", "insts out", "blocks in", "blocks out"));
+	long total = 0;
+	for (int p = 0; p < ran.size(); p++) {
+	    long[] stat = stats.elementAt(p);
+	    System.err.println(String.format("%-22s %10.3f %10d %10d %11d %11d", ran.elementAt(p),
+					     stat[0] / 1e6, stat[1], stat[3], stat[2], stat[4]));
+	    total += stat[0];
+	}
+	System.err.println(String.format("%-22s %10.3f", "total", total / 1e6));
+    }
+}
@@ -0,0 +1,172 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>ReachingDefs</tt> class computes the reaching definitions
+  * of a subroutine: a forward "may" problem whose facts are definition
+  * sites.  A definition reaches a point if some path from it to the
+  * point does not redefine its variable.
+  *
+  * Each instruction that defines a variable is a site, each call is
+  * also a site for every field (a call may or may not write a field,
+  * so these sites do not kill the other definitions of the field),
+  * and <tt>this</tt>, the parameters and the fields (not their SSA
+  * versions) have a site at the entrance (with a null instruction)
+  * standing for their incoming values.
+  * */
+class ReachingDefs extends Dataflow {
+    /** Instruction of each site (null for the entrance sites) */
+    private Vector<TACInst> siteInsts = new Vector<TACInst>();
+
+    /** Variable of each site */
+    private Vector<Integer> siteVars = new Vector<Integer>();
+
+    /** First site of each defining instruction (the sites of an
+      * instruction are consecutive) */
+    private IdentityHashMap<TACInst, Integer> firstSites = new IdentityHashMap<TACInst, Integer>();
+
+    /** Sites of each variable (by operand identifier) */
+    private Vector<BitSet> varSites = new Vector<BitSet>();
+
+    /** Entrance sites */
+    private BitSet entranceSites = new BitSet();
+
+    /** ReachingDefs constructor (solves the problem)
+      * @param entrance entrance block of a numbered subroutine
+      * */
+    ReachingDefs(BasicBlock entrance) {
+	super(entrance, true, true);
+	solve();
+    }
+
+    /** Number the sites of the current instructions
+      * @return number of sites
+      * */
+    int size() {
+	siteInsts.clear();
+	siteVars.clear();
+	firstSites.clear();
+	varSites.clear();
+	entranceSites.clear();
+	for (int var = 0; var < operands.size(); var++) {
+	    int kind = operands.getKind(var);
+	    if ((kind == OperandTable.THIS || kind == OperandTable.PARAM ||
+		 kind == OperandTable.FIELD) && operands.getBase(var) == var) {
+		entranceSites.set(siteInsts.size());
+		addSite(null, var);
+	    }
+	}
+
+	Vector<BasicBlock> blocks = reversePostorder(entrance);
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		int def = inst.getDefId();
+		if (def < 0 && !inst.isCall())
+		    continue;
+		firstSites.put(inst, siteInsts.size());
+		if (def >= 0)
+		    addSite(inst, def);
+		if (inst.isCall()) {
+		    BitSet fields = getFields();
+		    for (int f = fields.nextSetBit(0); f >= 0; f = fields.nextSetBit(f + 1))
+			addSite(inst, f);
+		}
+	    }
+	}
+	return siteInsts.size();
+    }
+
+    /** Add a definition site
+      * @param inst instruction of the site (null for the entrance)
+      * @param var operand identifier of the variable defined
+      * */
+    private void addSite(TACInst inst, int var) {
+	while (varSites.size() <= var)
+	    varSites.add(new BitSet());
+	varSites.elementAt(var).set(siteInsts.size());
+	siteInsts.add(inst);
+	siteVars.add(var);
+    }
+
+    /** Get the value at the entrance
+      * @return entrance sites
+      * */
+    BitSet boundary() {
+	return entranceSites;
+    }
+
+    /** Compute the gen and kill sets of an instruction
+      * @param inst instruction
+      * @param gen empty set receiving the sites of the instruction
+      * @param kill empty set receiving the other sites of the variable
+      * it defines
+      * */
+    void transfer(TACInst inst, BitSet gen, BitSet kill) {
+	Integer first = firstSites.get(inst);
+	if (first == null)
+	    return;
+	int site = first;
+	int def = inst.getDefId();
+	if (def >= 0) {
+	    kill.or(varSites.elementAt(def));
+	    gen.set(site++);
+	}
+	if (inst.isCall())
+	    gen.set(site, site + getFields().cardinality());
+    }
+
+    /** Get the instruction of a definition site
+      * @param site definition site
+      * @return instruction (null for an entrance site)
+      * */
+    TACInst getSiteInst(int site) {
+	return siteInsts.elementAt(site);
+    }
+
+    /** Get the variable of a definition site
+      * @param site definition site
+      * @return operand identifier of the variable
+      * */
+    int getSiteVar(int site) {
+	return siteVars.elementAt(site);
+    }
+
+    /** Get the definition sites of a variable
+      * @param var operand identifier of the variable
+      * @return definition sites (must not be modified)
+      * */
+    BitSet getVarSites(int var) {
+	if (var >= varSites.size())
+	    return new BitSet();
+	return varSites.elementAt(var);
+    }
+}
@@ -0,0 +1,110 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+/** The <tt>RegisterAllocator</tt> class is the base of the register
+  * allocators (see LinearScan and GraphColoring), which assign the
+  * registers of the code generator to the variables of a subroutine and
+  * record them in its operand table (see OperandTable.setRegister).
+  *
+  * Registers are numbered with the caller-saved ones first, then the
+  * callee-saved ones.  A call clobbers the caller-saved registers, so a
+  * variable live across a call only gets a callee-saved register, while
+  * the others prefer the caller-saved registers, which cost nothing to
+  * save: the code generator saves the callee-saved registers a
+  * subroutine uses on entry, and has no register to save around its
+  * calls.  Only the parameters, locals and temporaries get registers
+  * ('this' has a register of its own, and the fields live in the
+  * object); a spilled variable stays in its stack slot.
+  * */
+abstract class RegisterAllocator {
+    /** Entrance block of the subroutine */
+    protected BasicBlock entrance;
+
+    /** Operand table of the subroutine */
+    protected OperandTable operands;
+
+    /** Number of caller-saved registers (numbered first) */
+    protected int numCallerSaved;
+
+    /** Total number of registers */
+    protected int numRegisters;
+
+    /** Number of variables allocated a register */
+    protected int numAllocated;
+
+    /** Number of variables spilled */
+    protected int numSpilled;
+
+    /** RegisterAllocator constructor
+      * @param entrance entrance block of a numbered subroutine (not in
+      * SSA form)
+      * @param numCallerSaved number of caller-saved registers
+      * @param numCalleeSaved number of callee-saved registers
+      * */
+    RegisterAllocator(BasicBlock entrance, int numCallerSaved, int numCalleeSaved) {
+	this.entrance = entrance;
+	this.numCallerSaved = numCallerSaved;
+	numRegisters = numCallerSaved + numCalleeSaved;
+	operands = entrance.getOperandTable();
+	if (operands == null)
+	    throw new RuntimeException("Internal error: register allocation in " +
+				       "a subroutine that has not been numbered");
+    }
+
+    /** Allocate the registers, recording them in the operand table
+      * @return flag indicating whether some variable got a register
+      * */
+    abstract boolean run();
+
+    /** Get the number of variables allocated a register by the last run
+      * @return number of variables
+      * */
+    int getNumAllocated() {
+	return numAllocated;
+    }
+
+    /** Get the number of variables spilled by the last run
+      * @return number of variables
+      * */
+    int getNumSpilled() {
+	return numSpilled;
+    }
+
+    /** Can a variable get a register?
+      * @param operands operand table of the subroutine
+      * @param id operand identifier
+      * @return true for parameters, locals and temporaries
+      * */
+    static boolean isCandidate(OperandTable operands, int id) {
+	int kind = operands.getKind(id);
+	return kind == OperandTable.PARAM || kind == OperandTable.LOCAL ||
+	    kind == OperandTable.TEMP;
+    }
+}
@@ -0,0 +1,565 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>SCCP</tt> class performs sparse conditional constant
+  * propagation (Wegman and Zadeck, "Constant Propagation with
+  * Conditional Branches") on a subroutine in SSA form (see SSA).
+  *
+  * Each SSA version has a value in the lattice top (not known yet),
+  * int or boolean constant, or bottom (not constant); the other
+  * variables (this, fields, parameters on entrance, and version 0 of
+  * locals and temporaries) are bottom.  Starting from the entrance,
+  * the analysis only visits the blocks reachable through edges it has
+  * found executable, and an IF whose operands are constant only makes
+  * the edge it takes executable.  Two worklists drive it: executable
+  * edges, and instructions whose operands changed (found through the
+  * def-use chains).  Since values only go down the lattice, every
+  * instruction is evaluated a bounded number of times.
+  *
+  * The subroutine is then transformed: definitions of constants become
+  * constant loads and constant operands replace their variables (except
+  * in phis), IFs
+  * with constant operands are removed along with the edges they never
+  * take, the blocks never reached are unlinked, phis left with a single
+  * source become copies, and the definitions no longer needed are
+  * removed (see DeadCode).
+  * */
+class SCCP {
+    /** Lattice value of an operand that is not known yet */
+    private static final int TOP = -1;
+
+    /** Lattice value of an operand that is not constant */
+    private static final int BOTTOM = -2;
+
+    /** Entrance block of the subroutine */
+    private BasicBlock entrance;
+
+    /** Operand table of the subroutine */
+    private OperandTable operands;
+
+    /** Lattice values by operand identifier: TOP, BOTTOM, or the
+      * identifier of an int or boolean constant */
+    private int[] values;
+
+    /** Instructions using each operand (by identifier) */
+    private Vector<Vector<TACInst>> users;
+
+    /** Block of each instruction */
+    private IdentityHashMap<TACInst, BasicBlock> blockOf;
+
+    /** Executable blocks */
+    private HashSet<BasicBlock> executable;
+
+    /** Sources of the executable edges into each block */
+    private HashMap<BasicBlock, Vector<BasicBlock>> executablePreds;
+
+    /** Worklist of edges (sources and parallel targets) */
+    private Vector<BasicBlock> edgeSources, edgeTargets;
+
+    /** Worklist of instructions whose operands changed */
+    private Vector<TACInst> instWorklist;
+
+    /** Number of instructions folded into constant loads */
+    private int numFolded;
+
+    /** Number of IFs resolved */
+    private int numBranches;
+
+    /** Number of blocks unlinked */
+    private int numBlocks;
+
+    /** SCCP constructor
+      * @param entrance entrance block of a numbered subroutine in SSA form
+      * */
+    SCCP(BasicBlock entrance) {
+	this.entrance = entrance;
+	operands = entrance.getOperandTable();
+	if (operands == null)
+	    throw new RuntimeException("Internal error: constant propagation in " +
+				       "a subroutine that has not been numbered");
+    }
+
+    /** Propagate the constants and transform the subroutine
+      * @return flag indicating whether the subroutine changed
+      * */
+    boolean run() {
+	Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrance);
+	analyze(blocks);
+	numFolded = numBranches = numBlocks = 0;
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    if (executable.contains(bb))
+		rewrite(bb);
+	}
+	// resolve the IFs first, so the edges left into the blocks never
+	// reached come from blocks never reached
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    if (executable.contains(bb))
+		resolveBranch(bb);
+	}
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    if (!executable.contains(bb)) {
+		while (bb.getNumOutEdges() > 0)
+		    removeEdge(bb, bb.getNthOutEdge(0));
+		while (bb.getNumInEdges() > 0)
+		    removeEdge(bb.getNthInEdge(0), bb);
+		numBlocks++;
+	    }
+	}
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    if (executable.contains(bb))
+		simplifyPhis(bb);
+	}
+	int numRemoved = new DeadCode(entrance).run();
+	return numFolded + numBranches + numBlocks + numRemoved > 0;
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* analysis                                                          */
+    /* ---------------------------------------------------------------- */
+
+    /** Find the executable blocks and the lattice values
+      * @param blocks blocks reachable from the entrance
+      * */
+    private void analyze(Vector<BasicBlock> blocks) {
+	int numOperands = operands.size();
+	values = new int[numOperands];
+	for (int id = 0; id < numOperands; id++)
+	    values[id] = initialValue(id);
+	users = new Vector<Vector<TACInst>>(numOperands);
+	for (int id = 0; id < numOperands; id++)
+	    users.add(null);
+	blockOf = new IdentityHashMap<TACInst, BasicBlock>();
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		blockOf.put(inst, bb);
+		int[] uses = inst.getUseIds();
+		for (int k = 0; k < uses.length; k++) {
+		    if (values[uses[k]] != TOP)
+			continue;  // never changes
+		    if (users.elementAt(uses[k]) == null)
+			users.set(uses[k], new Vector<TACInst>());
+		    users.elementAt(uses[k]).add(inst);
+		}
+	    }
+	}
+
+	executable = new HashSet<BasicBlock>();
+	executablePreds = new HashMap<BasicBlock, Vector<BasicBlock>>();
+	edgeSources = new Vector<BasicBlock>();
+	edgeTargets = new Vector<BasicBlock>();
+	instWorklist = new Vector<TACInst>();
+	executable.add(entrance);
+	visitBlock(entrance);
+	while (edgeSources.size() > 0 || instWorklist.size() > 0) {
+	    while (edgeSources.size() > 0) {
+		int last = edgeSources.size() - 1;
+		BasicBlock pred = edgeSources.remove(last), bb = edgeTargets.remove(last);
+		Vector<BasicBlock> preds = executablePreds.get(bb);
+		if (preds == null)
+		    executablePreds.put(bb, preds = new Vector<BasicBlock>());
+		else if (preds.contains(pred))
+		    continue;
+		preds.add(pred);
+		if (executable.add(bb))
+		    visitBlock(bb);
+		else
+		    // only the phis see the new edge
+		    for (int j = 0; j < bb.getNumInsn() && bb.getNthInst(j).isPhi(); j++)
+			visit(bb.getNthInst(j), bb);
+	    }
+	    while (instWorklist.size() > 0) {
+		TACInst inst = instWorklist.remove(instWorklist.size() - 1);
+		BasicBlock bb = blockOf.get(inst);
+		if (executable.contains(bb))
+		    visit(inst, bb);
+	    }
+	}
+    }
+
+    /** Get the initial lattice value of an operand
+      * @param id identifier of the operand
+      * @return TOP for SSA versions, the constant itself for int and
+      * boolean constants, BOTTOM for the others
+      * */
+    private int initialValue(int id) {
+	switch (operands.getKind(id)) {
+	case OperandTable.INT_CONST: case OperandTable.BOOL_CONST:
+	    return id;
+	case OperandTable.PARAM: case OperandTable.LOCAL: case OperandTable.TEMP:
+	    return (operands.getBase(id) != id) ? TOP : BOTTOM;
+	default:
+	    return BOTTOM;
+	}
+    }
+
+    /** Get the lattice value of an operand
+      * @param id identifier of the operand
+      * @return lattice value
+      * */
+    private int valueOf(int id) {
+	// operands interned since the analysis started are constants
+	// created by folding
+	return (id < values.length) ? values[id] : initialValue(id);
+    }
+
+    /** Visit a block that just became executable
+      * @param bb block
+      * */
+    private void visitBlock(BasicBlock bb) {
+	for (int j = 0; j < bb.getNumInsn(); j++)
+	    visit(bb.getNthInst(j), bb);
+	int n = bb.getNumInsn();
+	if (n == 0 || !bb.getNthInst(n - 1).isIf())
+	    for (int j = 0; j < bb.getNumOutEdges(); j++)
+		addEdge(bb, bb.getNthOutEdge(j));
+    }
+
+    /** Add an edge to the worklist
+      * @param pred source block
+      * @param bb target block
+      * */
+    private void addEdge(BasicBlock pred, BasicBlock bb) {
+	edgeSources.add(pred);
+	edgeTargets.add(bb);
+    }
+
+    /** Is an edge executable?
+      * @param pred source block
+      * @param bb target block
+      * @return flag indicating whether executable
+      * */
+    private boolean isExecutable(BasicBlock pred, BasicBlock bb) {
+	Vector<BasicBlock> preds = executablePreds.get(bb);
+	return preds != null && preds.contains(pred);
+    }
+
+    /** Evaluate an instruction of an executable block
+      * @param inst instruction
+      * @param bb block of the instruction
+      * */
+    private void visit(TACInst inst, BasicBlock bb) {
+	if (inst.isIf()) {
+	    IfInst ifInst = (IfInst)inst;
+	    int[] uses = inst.getUseIds();
+	    int left = valueOf(uses[0]), right = valueOf(uses[1]);
+	    if (left >= 0 && right >= 0)
+		addEdge(bb, compare(ifInst.getType(), left, right) ?
+			ifInst.getTrueTarg() : ifInst.getFalseTarg());
+	    else {
+		// in strict SSA the operands of an executable IF are known,
+		// so this is bottom
+		addEdge(bb, ifInst.getTrueTarg());
+		addEdge(bb, ifInst.getFalseTarg());
+	    }
+	    return;
+	}
+
+	int def = inst.getDefId();
+	if (def < 0 || values[def] == BOTTOM)
+	    return;
+	int value;
+	if (inst.isPhi()) {
+	    PhiInst phi = (PhiInst)inst;
+	    int[] uses = inst.getUseIds();
+	    value = TOP;
+	    for (int k = 0; k < uses.length; k++)
+		if (isExecutable(phi.getNthPred(k), bb))
+		    value = meet(value, valueOf(uses[k]));
+	}
+	else
+	    value = evaluate(inst);
+	value = meet(values[def], value);
+	if (value == values[def])
+	    return;
+	values[def] = value;
+	Vector<TACInst> defUsers = users.elementAt(def);
+	if (defUsers != null)
+	    instWorklist.addAll(defUsers);
+    }
+
+    /** Meet two lattice values
+      * @param v1 lattice value
+      * @param v2 lattice value
+      * @return meet
+      * */
+    private int meet(int v1, int v2) {
+	if (v1 == TOP)
+	    return v2;
+	if (v2 == TOP || v1 == v2)
+	    return v1;
+	if (v1 >= 0 && v2 >= 0 && operands.getName(v1).equals(operands.getName(v2)))
+	    return v1;
+	if (v1 >= 0 && v2 >= 0 && operands.getKind(v1) == OperandTable.INT_CONST &&
+	    operands.getKind(v2) == OperandTable.INT_CONST &&
+	    operands.getIntValue(v1) == operands.getIntValue(v2))
+	    return v1;  // same value spelled differently
+	return BOTTOM;
+    }
+
+    /** Evaluate an instruction defining a variable
+      * @param inst instruction
+      * @return lattice value of the result
+      * */
+    private int evaluate(TACInst inst) {
+	int[] uses = inst.getUseIds();
+	int opcode = inst.getOpcode();
+	switch (opcode) {
+	case TACInst.LDVAR: case TACInst.LDCONST:
+	    return valueOf(uses[0]);
+	case TACInst.UNNEG: case TACInst.UNNOT: {
+	    int source = valueOf(uses[0]);
+	    if (source < 0)
+		return source;
+	    return (opcode == TACInst.UNNEG) ? intConst(-intValue(source)) :
+		boolConst(!boolValue(source));
+	}
+	case TACInst.BINADD: case TACInst.BINSUB: case TACInst.BINMUL:
+	case TACInst.BINDIV: case TACInst.BINMOD: case TACInst.BINAND:
+	case TACInst.BINOR: {
+	    int left = valueOf(uses[0]), right = valueOf(uses[1]);
+	    if (left == BOTTOM || right == BOTTOM)
+		return BOTTOM;
+	    if (left == TOP || right == TOP)
+		return TOP;
+	    if (opcode == TACInst.BINAND)
+		return boolConst(boolValue(left) && boolValue(right));
+	    if (opcode == TACInst.BINOR)
+		return boolConst(boolValue(left) || boolValue(right));
+	    int l = intValue(left), r = intValue(right);
+	    switch (opcode) {
+	    case TACInst.BINADD:
+		return intConst(l + r);
+	    case TACInst.BINSUB:
+		return intConst(l - r);
+	    case TACInst.BINMUL:
+		return intConst(l * r);
+	    default:
+		// a zero divisor is caught by the preceding check, and the
+		// overflowing division is left to the target
+		if (r == 0 || (l == Integer.MIN_VALUE && r == -1))
+		    return BOTTOM;
+		return intConst((opcode == TACInst.BINDIV) ? l / r : l % r);
+	    }
+	}
+	default:
+	    // calls, entry loads, and addresses
+	    return BOTTOM;
+	}
+    }
+
+    /** Compare two constants
+      * @param type comparison type (e.g., IfInst.EQ)
+      * @param left identifier of the left constant
+      * @param right identifier of the right constant
+      * @return result of the comparison
+      * */
+    private boolean compare(int type, int left, int right) {
+	if (operands.getKind(left) == OperandTable.BOOL_CONST) {
+	    boolean equal = boolValue(left) == boolValue(right);
+	    return (type == IfInst.EQ) ? equal : !equal;
+	}
+	int l = intValue(left), r = intValue(right);
+	switch (type) {
+	case IfInst.EQ:
+	    return l == r;
+	case IfInst.NE:
+	    return l != r;
+	case IfInst.LT:
+	    return l < r;
+	case IfInst.LE:
+	    return l <= r;
+	case IfInst.GT:
+	    return l > r;
+	default:
+	    return l >= r;
+	}
+    }
+
+    /** Get the value of an int constant
+      * @param id identifier of the constant
+      * @return value
+      * */
+    private int intValue(int id) {
+	return operands.getIntValue(id);
+    }
+
+    /** Get the value of a boolean constant
+      * @param id identifier of the constant
+      * @return value
+      * */
+    private boolean boolValue(int id) {
+	return operands.getName(id).equals("true");
+    }
+
+    /** Get an int constant
+      * @param value value
+      * @return identifier of the constant
+      * */
+    private int intConst(int value) {
+	return operands.intern(Integer.toString(value));
+    }
+
+    /** Get a boolean constant
+      * @param value value
+      * @return identifier of the constant
+      * */
+    private int boolConst(boolean value) {
+	return operands.intern(value ? "true" : "false");
+    }
+
+    /* ---------------------------------------------------------------- */
+    /* transformation                                                    */
+    /* ---------------------------------------------------------------- */
+
+    /** Replace the definitions of constants with constant loads and
+      * the constant operands with constants
+      * @param bb executable block
+      * */
+    private void rewrite(BasicBlock bb) {
+	int numPhis = 0;
+	Vector<TACInst> loads = new Vector<TACInst>();
+	for (int j = 0; j < bb.getNumInsn(); j++) {
+	    TACInst inst = bb.getNthInst(j);
+	    int def = inst.getDefId();
+	    if (def >= 0 && valueOf(def) >= 0) {
+		String value = operands.getName(valueOf(def));
+		if (inst.isPhi()) {
+		    // phis stay first in the block, so the load goes after them
+		    bb.removeNthInst(j--);
+		    loads.add(new LoadConstInst(inst.getDef(), value));
+		    numFolded++;
+		}
+		else if (inst.getOpcode() != TACInst.LDCONST) {
+		    bb.setNthInst(j, new LoadConstInst(inst.getDef(), value));
+		    numFolded++;
+		}
+		continue;
+	    }
+	    if (inst.isPhi()) {
+		// a constant source would become a copy on every edge
+		// out of SSA, while the definition it replaces is shared
+		numPhis++;
+		continue;
+	    }
+	    int[] uses = inst.getUseIds();
+	    for (int k = 0; k < uses.length; k++)
+		if (operands.isVar(uses[k]) && valueOf(uses[k]) >= 0)
+		    inst.setUse(k, operands.getName(valueOf(uses[k])));
+	}
+	for (int j = 0; j < loads.size(); j++)
+	    bb.addInst(loads.elementAt(j), numPhis + j);
+    }
+
+    /** Remove a final IF that only takes one of its edges, and the other
+      * edge
+      * @param bb executable block
+      * */
+    private void resolveBranch(BasicBlock bb) {
+	int n = bb.getNumInsn();
+	if (n == 0 || !bb.getNthInst(n - 1).isIf())
+	    return;
+	Vector<BasicBlock> dead = new Vector<BasicBlock>();
+	for (int j = 0; j < bb.getNumOutEdges(); j++)
+	    if (!isExecutable(bb, bb.getNthOutEdge(j)))
+		dead.add(bb.getNthOutEdge(j));
+	if (dead.size() != 1)
+	    return;
+	bb.removeNthInst(n - 1);
+	removeEdge(bb, dead.elementAt(0));
+	numBranches++;
+    }
+
+    /** Remove an edge, along with the phi sources for it
+      * @param pred source block
+      * @param bb target block
+      * */
+    static void removeEdge(BasicBlock pred, BasicBlock bb) {
+	for (int j = 0; j < bb.getNumInsn() && bb.getNthInst(j).isPhi(); j++)
+	    ((PhiInst)bb.getNthInst(j)).removeSource(pred);
+	pred.removeOutEdge(bb);
+    }
+
+    /** Replace the phis whose sources are all the same (e.g., left with
+      * a single source) with copies after the other phis -- the source
+      * cannot be another phi of the block, since it reaches the block
+      * from a predecessor the block does not dominate
+      * @param bb executable block
+      * */
+    private void simplifyPhis(BasicBlock bb) {
+	int numPhis = 0;
+	Vector<TACInst> copies = new Vector<TACInst>();
+	for (int j = 0; j < bb.getNumInsn() && bb.getNthInst(j).isPhi(); j++) {
+	    PhiInst phi = (PhiInst)bb.getNthInst(j);
+	    String source = phi.getNthSource(0);
+	    boolean same = true;
+	    for (int k = 1; k < phi.getNumSources(); k++)
+		same &= phi.getNthSource(k).equals(source);
+	    if (!same) {
+		numPhis++;
+		continue;
+	    }
+	    bb.removeNthInst(j--);
+	    copies.add(TACInst.checkConst(source) ?
+		       new LoadConstInst(phi.getDestination(), source) :
+		       new LoadVarInst(phi.getDestination(), source));
+	}
+	for (int j = 0; j < copies.size(); j++)
+	    bb.addInst(copies.elementAt(j), numPhis + j);
+    }
+
+    /** Get the number of instructions folded into constant loads by the
+      * last run
+      * @return number of instructions
+      * */
+    int getNumFolded() {
+	return numFolded;
+    }
+
+    /** Get the number of IFs resolved by the last run
+      * @return number of IFs
+      * */
+    int getNumBranches() {
+	return numBranches;
+    }
+
+    /** Get the number of unreachable blocks unlinked by the last run
+      * @return number of blocks
+      * */
+    int getNumBlocks() {
+	return numBlocks;
+    }
+}
@@ -0,0 +1,543 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>SSA</tt> class converts the control flow graph of a
+  * subroutine (whose operands have been numbered, see
+  * BasicBlock.numberOperands) into static single assignment (SSA)
+  * form and back.
+  *
+  * In SSA form every variable is defined by exactly one instruction:
+  * each definition of a parameter, local, or temporary x defines a new
+  * version x.N (see OperandTable.getBase), and a phi instruction (see
+  * PhiInst) at the start of a join block merges the versions reaching
+  * it from its predecessors.  The original name x serves as version 0,
+  * i.e., the value on entrance (parameters) or an undefined value.
+  * Fields of <tt>this</tt> live in memory, where calls can change them,
+  * so they are not renamed.
+  *
+  * Phis are placed at the iterated dominance frontiers of the blocks
+  * defining each variable (see Dominators), which gives minimal SSA;
+  * pruned SSA further skips the phis of variables that are not live at
+  * the join (see Liveness).  Variables are then renamed by a walk over
+  * the dominator tree.  Both steps are linear in the size of the
+  * subroutine plus the number of phis placed.
+  *
+  * Translating out of SSA replaces the phis of each join block with
+  * copies at the end of its predecessors, first splitting critical
+  * edges (from a block with several successors to one with several
+  * predecessors) so that the copies only run on their edge.  The
+  * copies of an edge happen in parallel, so they are sequentialized,
+  * breaking cycles such as swaps with a fresh version.  Finally, the
+  * versions of a variable that never interfere (no version is live
+  * where another is defined, except as the source of a copy) are
+  * renamed back to the variable, which removes the copies between
+  * them; the others keep their version names, as ordinary variables.
+  * */
+class SSA {
+    /** Entrance block of the subroutine */
+    private BasicBlock entrance;
+
+    /** Operand table of the subroutine */
+    private OperandTable operands;
+
+    /** Last version number of each renamed variable (by base identifier,
+      * 0 for the variables that are not renamed) */
+    private int[] versions;
+
+    /** Number of phis placed by the last build */
+    private int numPhis;
+
+    /** Number of critical edges split by the last destroy (and still
+      * holding copies) */
+    private int numSplits;
+
+    /** SSA constructor
+      * @param entrance entrance block of a numbered subroutine
+      * */
+    SSA(BasicBlock entrance) {
+	this.entrance = entrance;
+	operands = entrance.getOperandTable();
+	if (operands == null)
+	    throw new RuntimeException("Internal error: SSA construction for " +
+				       "a subroutine that has not been numbered");
+    }
+
+    /** Is a variable renamed in SSA form?
+      * @param var identifier of a base variable
+      * @return flag indicating whether renamed
+      * */
+    private boolean isRenamed(int var) {
+	int kind = operands.getKind(var);
+	return kind == OperandTable.PARAM || kind == OperandTable.LOCAL ||
+	    kind == OperandTable.TEMP;
+    }
+
+    /** Create a new version of a variable
+      * @param var identifier of a base variable
+      * @return name of the new version
+      * */
+    private String newVersion(int var) {
+	if (var >= versions.length)
+	    versions = Arrays.copyOf(versions, Math.max(var + 1, versions.length * 2));
+	String name = operands.getName(var) + "." + (++versions[var]);
+	while (operands.lookup(name) >= 0)
+	    // taken by an earlier conversion
+	    name = operands.getName(var) + "." + (++versions[var]);
+	operands.intern(name);
+	return name;
+    }
+
+    /** Convert the subroutine into SSA form
+      * @param pruned flag indicating whether to build pruned SSA (else
+      * minimal SSA)
+      * */
+    void build(boolean pruned) {
+	Dominators doms = new Dominators(entrance);
+	Vector<BasicBlock> blocks = doms.getBlocks();
+	int n = blocks.size();
+	HashMap<BasicBlock, Integer> positions = new HashMap<BasicBlock, Integer>();
+	for (int i = 0; i < n; i++)
+	    positions.put(blocks.elementAt(i), i);
+
+	// unreachable blocks never run, but their edges into reachable
+	// blocks would need phi sources, so cut them
+	for (int i = 0; i < n; i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = bb.getNumInEdges() - 1; j >= 0; j--)
+		if (!positions.containsKey(bb.getNthInEdge(j)))
+		    bb.removeInEdge(bb.getNthInEdge(j));
+	}
+
+	int numVars = operands.size();
+	versions = new int[numVars];
+
+	// collect the blocks defining each renamed variable
+	Vector<Vector<Integer>> defBlocks = new Vector<Vector<Integer>>(numVars);
+	for (int v = 0; v < numVars; v++)
+	    defBlocks.add(null);
+	for (int i = 0; i < n; i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		int def = bb.getNthInst(j).getDefId();
+		if (def < 0 || !isRenamed(operands.getBase(def)))
+		    continue;
+		def = operands.getBase(def);
+		Vector<Integer> defs = defBlocks.elementAt(def);
+		if (defs == null)
+		    defBlocks.set(def, defs = new Vector<Integer>());
+		if (defs.size() == 0 || defs.lastElement() != i)
+		    defs.add(i);
+	    }
+	}
+
+	// place the phis at the iterated dominance frontiers, using
+	// the variable as a stamp so the arrays are not cleared
+	Liveness liveness = pruned ? new Liveness(entrance) : null;
+	int[] hasPhi = new int[n], queued = new int[n];
+	Arrays.fill(hasPhi, -1);
+	Arrays.fill(queued, -1);
+	Vector<Integer> worklist = new Vector<Integer>();
+	numPhis = 0;
+	for (int v = 0; v < numVars; v++) {
+	    Vector<Integer> defs = defBlocks.elementAt(v);
+	    if (defs == null)
+		continue;
+	    String var = operands.getName(v);
+	    for (int i = 0; i < defs.size(); i++) {
+		queued[defs.elementAt(i)] = v;
+		worklist.add(defs.elementAt(i));
+	    }
+	    while (worklist.size() > 0) {
+		BasicBlock bb = blocks.elementAt(worklist.remove(worklist.size() - 1));
+		Vector<BasicBlock> frontier = doms.getFrontier(bb);
+		for (int i = 0; i < frontier.size(); i++) {
+		    BasicBlock join = frontier.elementAt(i);
+		    int b = positions.get(join);
+		    if (hasPhi[b] == v)
+			continue;
+		    hasPhi[b] = v;
+		    if (liveness != null && !liveness.getIn(join).get(v))
+			continue;
+		    PhiInst phi = new PhiInst(var);
+		    for (int j = 0; j < join.getNumInEdges(); j++)
+			phi.addSource(join.getNthInEdge(j), var);
+		    join.addInst(phi, 0);
+		    numPhis++;
+		    // the phi is a new definition of the variable
+		    if (queued[b] != v) {
+			queued[b] = v;
+			worklist.add(b);
+		    }
+		}
+	    }
+	}
+
+	rename(doms, numVars);
+    }
+
+    /** Rename the variables, walking the dominator tree in preorder
+      * while keeping the current version of each variable, and undoing
+      * the renamings of a subtree when leaving it
+      * @param doms dominators of the subroutine
+      * @param numVars number of base variables when renaming started
+      * */
+    private void rename(Dominators doms, int numVars) {
+	// current version of each base variable (null for version 0)
+	String[] current = new String[numVars];
+
+	// renamings to undo: base variable and previous version
+	Vector<Integer> undoVars = new Vector<Integer>();
+	Vector<String> undoVersions = new Vector<String>();
+
+	// explicit stack of the walk: block and undo log size on entry
+	// (negative once the children have been pushed)
+	Vector<BasicBlock> stack = new Vector<BasicBlock>();
+	Vector<Integer> marks = new Vector<Integer>();
+	stack.add(entrance);
+	marks.add(0);
+	while (stack.size() > 0) {
+	    int top = stack.size() - 1;
+	    BasicBlock bb = stack.elementAt(top);
+	    int mark = marks.elementAt(top);
+	    if (mark < 0) {
+		// leaving the subtree: restore the versions
+		for (int i = undoVars.size() - 1; i >= -mark - 1; i--) {
+		    current[undoVars.elementAt(i)] = undoVersions.elementAt(i);
+		    undoVars.removeElementAt(i);
+		    undoVersions.removeElementAt(i);
+		}
+		stack.removeElementAt(top);
+		marks.removeElementAt(top);
+		continue;
+	    }
+	    marks.set(top, -undoVars.size() - 1);
+
+	    for (int i = 0; i < bb.getNumInsn(); i++) {
+		TACInst inst = bb.getNthInst(i);
+
+		// rename the uses (phi sources are renamed by predecessors)
+		if (!inst.isPhi()) {
+		    int[] uses = inst.getUseIds();
+		    for (int j = 0; j < uses.length; j++) {
+			int var = uses[j];
+			if (var < numVars && isRenamed(var) && current[var] != null)
+			    inst.setUse(j, current[var]);
+		    }
+		}
+
+		// rename the definition
+		int def = inst.getDefId();
+		if (def >= 0 && def < numVars && isRenamed(def)) {
+		    undoVars.add(def);
+		    undoVersions.add(current[def]);
+		    current[def] = newVersion(def);
+		    inst.setDef(current[def]);
+		}
+	    }
+
+	    // fill in the phi sources of the successors
+	    for (int i = 0; i < bb.getNumOutEdges(); i++) {
+		BasicBlock succ = bb.getNthOutEdge(i);
+		for (int j = 0; j < succ.getNumInsn() && succ.getNthInst(j).isPhi(); j++) {
+		    PhiInst phi = (PhiInst)succ.getNthInst(j);
+		    String source = current[operands.getBase(phi.getDefId())];
+		    if (source != null)
+			phi.setSource(bb, source);
+		}
+	    }
+
+	    // visit the children (in reverse, so they are visited in order)
+	    Vector<BasicBlock> children = doms.getChildren(bb);
+	    for (int i = children.size() - 1; i >= 0; i--) {
+		stack.add(children.elementAt(i));
+		marks.add(0);
+	    }
+	}
+    }
+
+    /** Translate the subroutine out of SSA form, replacing the phis with
+      * copies
+      * */
+    void destroy() {
+	if (versions == null)
+	    versions = new int[operands.size()];
+	Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrance);
+	Vector<BasicBlock> splits = new Vector<BasicBlock>();
+
+	// split the critical edges into blocks with phis
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    if (bb.getNumInsn() == 0 || !bb.getNthInst(0).isPhi())
+		continue;
+	    for (int j = 0; j < bb.getNumInEdges(); j++) {
+		BasicBlock pred = bb.getNthInEdge(j);
+		if (pred.getNumOutEdges() < 2)
+		    continue;
+		BasicBlock split = new BasicBlock(bb.getStartLineNum(),
+						  pred.getLoopCnt(), pred.getIfCnt());
+		pred.replaceOutEdge(bb, split);
+		split.addOutEdge(bb);
+		for (int k = 0; k < bb.getNumInsn() && bb.getNthInst(k).isPhi(); k++)
+		    ((PhiInst)bb.getNthInst(k)).replacePred(pred, split);
+		splits.add(split);
+		j--;  // the split block was appended to the in edges
+	    }
+	}
+	if (splits.size() > 0)
+	    // give the new blocks the operand table
+	    entrance.numberOperands();
+
+	// replace the phis with copies at the end of the predecessors
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    int numPhis = 0;
+	    while (numPhis < bb.getNumInsn() && bb.getNthInst(numPhis).isPhi())
+		numPhis++;
+	    if (numPhis == 0)
+		continue;
+	    for (int j = 0; j < bb.getNumInEdges(); j++) {
+		BasicBlock pred = bb.getNthInEdge(j);
+		Vector<String> dests = new Vector<String>(), sources = new Vector<String>();
+		for (int k = 0; k < numPhis; k++) {
+		    PhiInst phi = (PhiInst)bb.getNthInst(k);
+		    String source = phi.getSource(pred);
+		    if (source == null)
+			throw new RuntimeException("Internal error: phi without a source " +
+						   "for " + pred + " in " + bb);
+		    dests.add(phi.getDestination());
+		    sources.add(source);
+		}
+		sequentialize(dests, sources, pred);
+	    }
+	    for (int k = 0; k < numPhis; k++)
+		bb.removeNthInst(0);
+	}
+
+	coalesce();
+
+	// join the edges whose copies were all coalesced away
+	numSplits = 0;
+	for (int i = 0; i < splits.size(); i++) {
+	    BasicBlock split = splits.elementAt(i);
+	    if (split.getNumInsn() > 0) {
+		numSplits++;
+		continue;
+	    }
+	    BasicBlock pred = split.getNthInEdge(0), succ = split.getNthOutEdge(0);
+	    split.removeOutEdge(succ);
+	    pred.replaceOutEdge(split, succ);
+	}
+    }
+
+    /** Rename the versions of each variable back to the variable when
+      * none of them interfere, removing the copies that become
+      * self-copies
+      * */
+    private void coalesce() {
+	Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrance);
+	int numOperands = operands.size();
+
+	// group the versions by base variable
+	Vector<Vector<Integer>> groups = new Vector<Vector<Integer>>(numOperands);
+	for (int id = 0; id < numOperands; id++)
+	    groups.add(null);
+	for (int id = 0; id < numOperands; id++) {
+	    int base = operands.getBase(id);
+	    if (base == id)
+		continue;
+	    if (groups.elementAt(base) == null) {
+		groups.set(base, new Vector<Integer>());
+		groups.elementAt(base).add(base);
+	    }
+	    groups.elementAt(base).add(id);
+	}
+
+	// a definition interferes with the other versions live after it,
+	// except the source of a copy: walk each block backward from its
+	// live-out variables, counting the live versions of each variable
+	boolean[] conflicts = new boolean[numOperands];
+	int[] liveCounts = new int[numOperands];
+	Liveness liveness = new Liveness(entrance);
+	BitSet live = new BitSet(), gen = new BitSet(), kill = new BitSet();
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    live.clear();
+	    live.or(liveness.getOut(bb));
+	    for (int v = live.nextSetBit(0); v >= 0; v = live.nextSetBit(v + 1))
+		liveCounts[operands.getBase(v)]++;
+	    for (int j = bb.getNumInsn() - 1; j >= 0; j--) {
+		TACInst inst = bb.getNthInst(j);
+		int def = inst.getDefId();
+		if (def >= 0 && groups.elementAt(operands.getBase(def)) != null) {
+		    int base = operands.getBase(def);
+		    int others = liveCounts[base] - (live.get(def) ? 1 : 0);
+		    if (inst.getOpcode() == TACInst.LDVAR) {
+			int source = inst.getUseIds()[0];
+			if (source != def && operands.getBase(source) == base && live.get(source))
+			    others--;
+		    }
+		    if (others > 0)
+			conflicts[base] = true;
+		}
+		gen.clear();
+		kill.clear();
+		liveness.transfer(inst, gen, kill);
+		for (int v = kill.nextSetBit(0); v >= 0; v = kill.nextSetBit(v + 1))
+		    if (live.get(v)) {
+			live.clear(v);
+			liveCounts[operands.getBase(v)]--;
+		    }
+		for (int v = gen.nextSetBit(0); v >= 0; v = gen.nextSetBit(v + 1))
+		    if (!live.get(v)) {
+			live.set(v);
+			liveCounts[operands.getBase(v)]++;
+		    }
+	    }
+	    for (int v = live.nextSetBit(0); v >= 0; v = live.nextSetBit(v + 1))
+		liveCounts[operands.getBase(v)]--;
+	}
+	// values on entrance (parameters) must not meet another version
+	BitSet entranceLive = liveness.getIn(entrance);
+	for (int base = 0; base < numOperands; base++) {
+	    Vector<Integer> group = groups.elementAt(base);
+	    if (group == null || !entranceLive.get(base))
+		continue;
+	    for (int k = 1; k < group.size(); k++)
+		if (entranceLive.get(group.elementAt(k)))
+		    conflicts[base] = true;
+	}
+
+	// rename the versions of the variables without conflicts
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		int[] uses = inst.getUseIds();
+		for (int k = 0; k < uses.length; k++) {
+		    int base = operands.getBase(uses[k]);
+		    if (base != uses[k] && !conflicts[base])
+			inst.setUse(k, operands.getName(base));
+		}
+		int def = inst.getDefId();
+		if (def >= 0 && operands.getBase(def) != def && !conflicts[operands.getBase(def)])
+		    inst.setDef(operands.getName(operands.getBase(def)));
+		if (inst.getOpcode() == TACInst.LDVAR && inst.getDefId() == inst.getUseIds()[0])
+		    bb.removeNthInst(j--);
+	    }
+	}
+    }
+
+    /** Sequentialize parallel copies, appending them to a block, so
+      * that each destination gets the value its source had before the
+      * copies: a copy is emitted once its destination is no longer
+      * needed as a source, and a cycle (e.g., a swap) is broken by
+      * saving one of its variables in a fresh version
+      * (after Boissinot et al., "Revisiting Out-of-SSA Translation")
+      * @param dests destination variables (distinct)
+      * @param sources source operands (parallel to dests)
+      * @param bb block the copies are appended to
+      * */
+    private void sequentialize(Vector<String> dests, Vector<String> sources, BasicBlock bb) {
+	// pred maps a destination to its source, loc maps a source
+	// to the variable currently holding its value
+	HashMap<String, String> pred = new HashMap<String, String>();
+	HashMap<String, String> loc = new HashMap<String, String>();
+	HashSet<String> emitted = new HashSet<String>();
+	Vector<String> todo = new Vector<String>(), ready = new Vector<String>();
+	for (int i = 0; i < dests.size(); i++) {
+	    String dest = dests.elementAt(i), source = sources.elementAt(i);
+	    if (dest.equals(source))
+		continue;
+	    loc.put(source, source);
+	    pred.put(dest, source);
+	    todo.add(dest);
+	}
+	// destinations that are not sources can be written right away
+	for (int i = 0; i < todo.size(); i++)
+	    if (!loc.containsKey(todo.elementAt(i)))
+		ready.add(todo.elementAt(i));
+
+	while (todo.size() > 0) {
+	    while (ready.size() > 0) {
+		String dest = ready.remove(ready.size() - 1);
+		if (!emitted.add(dest))
+		    continue;
+		String source = pred.get(dest);
+		String value = loc.get(source);
+		addCopy(bb, dest, value);
+		loc.put(source, dest);
+		// once its value is saved, a source that is also a
+		// destination can be written
+		if (source.equals(value) && pred.containsKey(source))
+		    ready.add(source);
+	    }
+	    // the destinations left are all still needed as sources,
+	    // i.e., they form cycles: save one to break its cycle
+	    String dest = todo.remove(todo.size() - 1);
+	    if (!emitted.contains(dest)) {
+		String temp = newVersion(operands.getBase(operands.lookup(dest)));
+		addCopy(bb, temp, dest);
+		loc.put(dest, temp);
+		ready.add(dest);
+	    }
+	}
+    }
+
+    /** Append a copy to a block (before a final IF, which can only
+      * occur if both its targets are the same block)
+      * @param bb block
+      * @param dest destination variable
+      * @param source source operand
+      * */
+    private void addCopy(BasicBlock bb, String dest, String source) {
+	TACInst copy = TACInst.checkConst(source) ?
+	    new LoadConstInst(dest, source) : new LoadVarInst(dest, source);
+	int n = bb.getNumInsn();
+	if (n > 0 && bb.getNthInst(n - 1).isIf())
+	    n--;
+	bb.addInst(copy, n);
+    }
+
+    /** Get the number of phis placed by the last build
+      * @return number of phis
+      * */
+    int getNumPhis() {
+	return numPhis;
+    }
+
+    /** Get the number of critical edges split by the last destroy that
+      * still hold copies
+      * @return number of split edges
+      * */
+    int getNumSplits() {
+	return numSplits;
+    }
+}
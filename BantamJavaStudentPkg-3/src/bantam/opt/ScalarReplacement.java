@@ -0,0 +1,380 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>ScalarReplacement</tt> class finds the objects of a
+  * subroutine in SSA form (see SSA) that do not escape it, and replaces
+  * their fields by locals, so they are never allocated.
+  *
+  * An object is created by cloning the template of its class (see
+  * CFGBuilder); its initialization is a call, unless inlined (see
+  * Inliner), so the analysis is intra-procedural but sees through the
+  * inlined calls.  In SSA form, the variables that may hold the object
+  * are the result of the clone and its copies.  The object does not
+  * escape if these are only used as the base of a load or store at a
+  * constant index of one of its fields, to load its class id, or to be
+  * compared to null: anything else (a parameter, a return, a store of
+  * the object itself, a phi, a copy into a field) may let code that is
+  * not seen reach it, so it is left alone.  The class id of an object
+  * created in the subroutine is known even if it escapes, so its loads
+  * are first made constants: constant propagation then removes the
+  * failing branches of the casts, whose error blocks use the object.
+  *
+  * The fields of an object that does not escape become fresh locals
+  * set to the defaults of their types where it was created, its loads
+  * and stores become copies from and into them, its class id a
+  * constant, and its comparisons to null false (it cannot be null).
+  * The clone and the copies of the object are removed.  The new locals
+  * are defined several times, so the subroutine must be translated out
+  * of SSA form and back before the sparse optimizations see them.
+  * */
+class ScalarReplacement {
+    /** Entrance block of the subroutine */
+    private BasicBlock entrance;
+
+    /** Operand table of the subroutine */
+    private OperandTable operands;
+
+    /** Class hierarchy of the program (field layout and class ids) */
+    private ClassHierarchy hierarchy;
+
+    /** Defining instruction of each variable (by operand identifier) */
+    private TACInst[] defs;
+
+    /** Instructions using each variable (by operand identifier) */
+    private Vector<Vector<TACInst>> users;
+
+    /** Block of each instruction */
+    private IdentityHashMap<TACInst, BasicBlock> blockOf;
+
+    /** Number of objects replaced */
+    private int numReplaced;
+
+    /** ScalarReplacement constructor
+      * @param entrance entrance block of a numbered subroutine in SSA form
+      * @param hierarchy class hierarchy of the program
+      * */
+    ScalarReplacement(BasicBlock entrance, ClassHierarchy hierarchy) {
+	this.entrance = entrance;
+	this.hierarchy = hierarchy;
+	operands = entrance.getOperandTable();
+	if (operands == null)
+	    throw new RuntimeException("Internal error: scalar replacement in " +
+				       "a subroutine that has not been numbered");
+    }
+
+    /** Index the instructions of the subroutine, and find the clones
+      * of templates
+      * @return calls to Object.clone creating an object
+      * */
+    private Vector<TACInst> index() {
+	Vector<BasicBlock> blocks = Dataflow.reversePostorder(entrance);
+	int numOperands = operands.size();
+	defs = new TACInst[numOperands];
+	users = new Vector<Vector<TACInst>>(numOperands);
+	for (int id = 0; id < numOperands; id++)
+	    users.add(null);
+	blockOf = new IdentityHashMap<TACInst, BasicBlock>();
+	Vector<TACInst> clones = new Vector<TACInst>();
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		blockOf.put(inst, bb);
+		if (inst.getDefId() >= 0)
+		    defs[inst.getDefId()] = inst;
+		int[] uses = inst.getUseIds();
+		for (int k = 0; k < uses.length; k++) {
+		    if (!operands.isVar(uses[k]))
+			continue;
+		    if (users.elementAt(uses[k]) == null)
+			users.set(uses[k], new Vector<TACInst>());
+		    users.elementAt(uses[k]).add(inst);
+		}
+		if (inst.getOpcode() == TACInst.DIRCALL && inst.getDefId() >= 0 &&
+		    ((CallInst)inst).getTarget().equals("Object.clone"))
+		    clones.add(inst);
+	    }
+	}
+	for (int i = clones.size() - 1; i >= 0; i--)
+	    if (templateType(clones.elementAt(i)) == null)
+		clones.remove(i);
+	return clones;
+    }
+
+    /** Replace the loads of the class id of the objects created in the
+      * subroutine (escaping or not) by constants, so that constant
+      * propagation can resolve the type tests on them (a failed cast
+      * passes the object to its error subroutine, which would make it
+      * escape)
+      * @return number of loads replaced
+      * */
+    int foldClassIds() {
+	Vector<TACInst> clones = index();
+	int numFolded = 0;
+	for (int i = 0; i < clones.size(); i++) {
+	    TACInst clone = clones.elementAt(i);
+	    String classId = String.valueOf(hierarchy.getClassId(templateType(clone)));
+	    Vector<Integer> copies = findCopies(clone.getDefId());
+	    for (int c = 0; c < copies.size(); c++) {
+		Vector<TACInst> instUsers = users.elementAt(copies.elementAt(c));
+		for (int k = 0; instUsers != null && k < instUsers.size(); k++) {
+		    TACInst inst = instUsers.elementAt(k);
+		    int[] uses = inst.getUseIds();
+		    if (inst.getOpcode() != TACInst.LDENTRY || uses[0] != copies.elementAt(c) ||
+			constIndex(uses[1]) != CFGBuilder.CLASS_ID_INDEX)
+			continue;
+		    BasicBlock bb = blockOf.get(inst);
+		    bb.setNthInst(bb.indexOf(inst), new LoadConstInst(inst.getDef(), classId));
+		    numFolded++;
+		}
+	    }
+	}
+	return numFolded;
+    }
+
+    /** Replace the objects that do not escape
+      * @return flag indicating whether the subroutine changed (it is then
+      * no longer in SSA form)
+      * */
+    boolean run() {
+	numReplaced = 0;
+	Vector<TACInst> clones = index();
+	for (int i = 0; i < clones.size(); i++) {
+	    TACInst clone = clones.elementAt(i);
+	    String type = templateType(clone);
+	    Vector<Integer> aliases = findAliases(clone.getDefId(), type);
+	    if (aliases != null) {
+		replace(clone, type, aliases);
+		numReplaced++;
+	    }
+	}
+	return numReplaced > 0;
+    }
+
+    /** Get the class of the object created by a clone of a template
+      * @param clone call to Object.clone
+      * @return class name, null if the call does not clone a template
+      * (it is then a clone of an object, see Object.clone)
+      * */
+    private String templateType(TACInst clone) {
+	BasicBlock bb = blockOf.get(clone);
+	int j = bb.indexOf(clone);
+	if (j == 0 || bb.getNthInst(j - 1).getOpcode() != TACInst.REFPARAM)
+	    return null;
+	int receiver = bb.getNthInst(j - 1).getUseIds()[0];
+	if (!operands.isVar(receiver) || defs[receiver] == null ||
+	    defs[receiver].getOpcode() != TACInst.LDADDR)
+	    return null;
+	String label = ((LoadAddrInst)defs[receiver]).getSource();
+	if (!label.endsWith("_template"))
+	    return null;
+	return label.substring(0, label.length() - "_template".length());
+    }
+
+    /** Find the variables holding an object: the result of the clone
+      * creating it and its copies (into parameters, locals, and
+      * temporaries, each defined once in SSA form)
+      * @param obj identifier of the result of the clone
+      * @return identifiers of the variables
+      * */
+    private Vector<Integer> findCopies(int obj) {
+	Vector<Integer> copies = new Vector<Integer>();
+	copies.add(obj);
+	for (int c = 0; c < copies.size(); c++) {
+	    Vector<TACInst> instUsers = users.elementAt(copies.elementAt(c));
+	    for (int i = 0; instUsers != null && i < instUsers.size(); i++) {
+		TACInst inst = instUsers.elementAt(i);
+		if (inst.getOpcode() != TACInst.LDVAR)
+		    continue;
+		int def = inst.getDefId(), kind = operands.getKind(def);
+		if ((kind == OperandTable.PARAM || kind == OperandTable.LOCAL ||
+		     kind == OperandTable.TEMP) && !copies.contains(def))
+		    copies.add(def);
+	    }
+	}
+	return copies;
+    }
+
+    /** Find the variables holding an object, if it does not escape
+      * @param obj identifier of the result of the clone creating it
+      * @param type class of the object
+      * @return identifiers of the variables (see findCopies), null if
+      * the object escapes
+      * */
+    private Vector<Integer> findAliases(int obj, String type) {
+	int numFields = hierarchy.getFields(type).size();
+	Vector<Integer> aliases = findCopies(obj);
+	for (int a = 0; a < aliases.size(); a++) {
+	    int alias = aliases.elementAt(a);
+	    Vector<TACInst> instUsers = users.elementAt(alias);
+	    for (int i = 0; instUsers != null && i < instUsers.size(); i++) {
+		TACInst inst = instUsers.elementAt(i);
+		int[] uses = inst.getUseIds();
+		switch (inst.getOpcode()) {
+		case TACInst.LDVAR:
+		    // a copy into a field
+		    if (!aliases.contains(inst.getDefId()))
+			return null;
+		    break;
+		case TACInst.LDENTRY:
+		    int index = constIndex(uses[1]);
+		    if (uses[0] != alias ||
+			(index != CFGBuilder.CLASS_ID_INDEX && !isField(index, numFields)))
+			return null;
+		    break;
+		case TACInst.STENTRY:
+		    // the object may only be the base
+		    if (uses[0] != alias || aliases.contains(uses[1]) ||
+			!isField(constIndex(uses[2]), numFields))
+			return null;
+		    break;
+		case TACInst.IF:
+		    if (operands.getKind(uses[0]) != OperandTable.NULL_CONST &&
+			operands.getKind(uses[1]) != OperandTable.NULL_CONST)
+			return null;
+		    break;
+		default:
+		    return null;
+		}
+	    }
+	}
+	return aliases;
+    }
+
+    /** Get the value of a constant index
+      * @param index identifier of the index operand
+      * @return value, -1 if not an int constant
+      * */
+    private int constIndex(int index) {
+	if (operands.getKind(index) != OperandTable.INT_CONST)
+	    return -1;
+	return operands.getIntValue(index);
+    }
+
+    /** Is an index that of a field?
+      * @param index index (-1 if not constant)
+      * @param numFields number of fields of the object
+      * @return flag indicating whether it is the entry of a field
+      * */
+    private static boolean isField(int index, int numFields) {
+	return index >= CFGBuilder.FIELDS_INDEX &&
+	    index < CFGBuilder.FIELDS_INDEX + numFields;
+    }
+
+    /** Replace an object that does not escape by locals
+      * @param clone call to Object.clone creating it
+      * @param type class of the object
+      * @param aliases variables holding it (see findAliases)
+      * */
+    private void replace(TACInst clone, String type, Vector<Integer> aliases) {
+	Vector<String> fields = hierarchy.getFields(type);
+	String[] scalars = new String[fields.size()];
+	for (int f = 0; f < fields.size(); f++)
+	    scalars[f] = newLocal(fields.elementAt(f));
+
+	// initialize the locals instead of cloning the template
+	BasicBlock bb = blockOf.get(clone);
+	int j = bb.indexOf(clone);
+	bb.removeNthInst(j);
+	bb.removeNthInst(--j);
+	for (int f = 0; f < fields.size(); f++)
+	    bb.addInst(Inliner.move(scalars[f], defaultValue(fields.elementAt(f))), j++);
+
+	for (int a = 0; a < aliases.size(); a++) {
+	    Vector<TACInst> instUsers = users.elementAt(aliases.elementAt(a));
+	    for (int i = 0; instUsers != null && i < instUsers.size(); i++) {
+		TACInst inst = instUsers.elementAt(i);
+		bb = blockOf.get(inst);
+		j = bb.indexOf(inst);
+		int[] uses = inst.getUseIds();
+		switch (inst.getOpcode()) {
+		case TACInst.LDVAR:
+		    bb.removeNthInst(j);
+		    break;
+		case TACInst.LDENTRY:
+		    int index = operands.getIntValue(uses[1]);
+		    String source = (index == CFGBuilder.CLASS_ID_INDEX) ?
+			String.valueOf(hierarchy.getClassId(type)) :
+			scalars[index - CFGBuilder.FIELDS_INDEX];
+		    bb.setNthInst(j, Inliner.move(inst.getDef(), source));
+		    break;
+		case TACInst.STENTRY:
+		    index = operands.getIntValue(uses[2]);
+		    bb.setNthInst(j, Inliner.move(scalars[index - CFGBuilder.FIELDS_INDEX],
+						  inst.getUses()[1]));
+		    break;
+		default:
+		    // never null: 0 == 1 is false, 0 != 1 true
+		    ((IfInst)inst).setLeftSource("0");
+		    ((IfInst)inst).setRightSource("1");
+		    break;
+		}
+	    }
+	}
+    }
+
+    /** Create a fresh local for a field
+      * @param field field variable (<tt>x@f_C</tt>)
+      * @return local name
+      * */
+    private String newLocal(String field) {
+	String base = field.substring(0, field.indexOf('@'));
+	for (int k = 1; ; k++) {
+	    String var = base + "_" + k + "@l";
+	    if (operands.lookup(var) < 0) {
+		operands.intern(var);
+		return var;
+	    }
+	}
+    }
+
+    /** Get the default value of a field (that of its entry in the
+      * template of its class)
+      * @param field field variable
+      * @return constant
+      * */
+    private String defaultValue(String field) {
+	String type = hierarchy.getFieldType(field);
+	if (type.equals("int"))
+	    return "0";
+	if (type.equals("boolean"))
+	    return "false";
+	return "null";
+    }
+
+    /** Get the number of objects replaced by the last run
+      * @return number of objects
+      * */
+    int getNumReplaced() {
+	return numReplaced;
+    }
+}
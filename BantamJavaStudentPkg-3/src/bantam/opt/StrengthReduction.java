@@ -0,0 +1,327 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>StrengthReduction</tt> class finds the induction variables
+  * of the loops of a subroutine in SSA form (see SSA), and replaces the
+  * multiplications of an induction variable by a loop-invariant value
+  * with additions.
+  *
+  * A basic induction variable is a phi of a loop header whose sources
+  * are an initial value from the preheader (see LoopNest) and, from the
+  * only back edge, the variable plus or minus a loop-invariant step (a
+  * constant or a variable defined outside the loop).  A multiplication
+  * <tt>x = i * k</tt> of such a variable by an invariant <tt>k</tt>
+  * then gets a new induction variable of its own: a header phi set to
+  * <tt>init * k</tt> in the preheader and stepped by <tt>step * k</tt>
+  * next to the step of <tt>i</tt>, both products computed once in the
+  * preheader (or folded, for constants).  The two phis change together,
+  * so the new one equals <tt>i * k</tt> wherever <tt>x</tt> is used, and
+  * replaces it.  Integer arithmetic wraps around, and multiplication
+  * distributes over addition modulo 2^32, so overflow does not matter.
+  *
+  * The elements of an array are entries at <tt>index + 4</tt> (see
+  * CFGBuilder): the code generator scales entry indices into byte
+  * offsets, so the TAC never multiplies an index, and the products
+  * reduced here come from the program (a row times a row length, a
+  * multiple of a loop counter).  Loops are processed innermost first,
+  * after LICM, so the products of an outer variable by an invariant
+  * have left the inner loops, and are reduced in the outer loop.
+  * */
+class StrengthReduction {
+    /** Entrance block of the subroutine */
+    private BasicBlock entrance;
+
+    /** Operand table of the subroutine */
+    private OperandTable operands;
+
+    /** Defining instruction of each variable (by operand identifier) */
+    private TACInst[] defs;
+
+    /** Block of each defining instruction (by operand identifier) */
+    private BasicBlock[] defBlocks;
+
+    /** Number of the next temporary created */
+    private int nextTemp;
+
+    /** Number of multiplications replaced */
+    private int numReduced;
+
+    /** StrengthReduction constructor
+      * @param entrance entrance block of a numbered subroutine in SSA form
+      * */
+    StrengthReduction(BasicBlock entrance) {
+	this.entrance = entrance;
+	operands = entrance.getOperandTable();
+	if (operands == null)
+	    throw new RuntimeException("Internal error: strength reduction in " +
+				       "a subroutine that has not been numbered");
+    }
+
+    /** Replace the multiplications of induction variables in the loops
+      * that have a preheader
+      * @return flag indicating whether the subroutine changed
+      * */
+    boolean run() {
+	numReduced = 0;
+	LoopNest nest = new LoopNest(entrance);
+	if (nest.getLoops().size() == 0)
+	    return false;
+	Vector<BasicBlock> blocks = nest.getDominators().getBlocks();
+	defs = new TACInst[operands.size()];
+	defBlocks = new BasicBlock[operands.size()];
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		if (inst.getDefId() >= 0) {
+		    defs[inst.getDefId()] = inst;
+		    defBlocks[inst.getDefId()] = bb;
+		}
+	    }
+	}
+	nextTemp = 0;
+	for (int id = 0; id < operands.size(); id++)
+	    if (operands.getKind(id) == OperandTable.TEMP && operands.getBase(id) == id)
+		nextTemp = Math.max(nextTemp,
+				    Integer.parseInt(operands.getName(id).substring(2)) + 1);
+
+	for (int l = 0; l < nest.getLoops().size(); l++)
+	    reduce(nest.getLoops().elementAt(l), blocks);
+	if (numReduced > 0)
+	    entrance.numberOperands();
+	return numReduced > 0;
+    }
+
+    /** Replace the multiplications of the basic induction variables of
+      * a loop
+      * @param loop loop
+      * @param blocks blocks of the subroutine (searched for the uses of
+      * the products)
+      * */
+    private void reduce(Loop loop, Vector<BasicBlock> blocks) {
+	BasicBlock header = loop.getHeader(), preheader = loop.getPreheader();
+	if (preheader == null || header.getNumInEdges() != 2)
+	    return;
+	BasicBlock latch = header.getNthInEdge(0) == preheader ?
+	    header.getNthInEdge(1) : header.getNthInEdge(0);
+
+	// the steps of the basic induction variables (by operand
+	// identifier of the phi)
+	HashMap<Integer, TACInst> steps = new HashMap<Integer, TACInst>();
+	for (int j = 0; j < header.getNumInsn() && header.getNthInst(j).isPhi(); j++) {
+	    PhiInst phi = (PhiInst)header.getNthInst(j);
+	    TACInst step = getStep(phi, latch, loop);
+	    if (step != null)
+		steps.put(phi.getDefId(), step);
+	}
+	if (steps.size() == 0)
+	    return;
+
+	// find the products first: the new instructions move the others
+	Vector<TACInst> products = new Vector<TACInst>();
+	Vector<BasicBlock> productBlocks = new Vector<BasicBlock>();
+	Vector<BasicBlock> body = loop.getBlocks();
+	for (int i = 0; i < body.size(); i++) {
+	    BasicBlock bb = body.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		if (inst.getOpcode() == TACInst.BINMUL && isLocal(inst.getDefId())) {
+		    products.add(inst);
+		    productBlocks.add(bb);
+		}
+	    }
+	}
+	for (int p = 0; p < products.size(); p++) {
+	    TACInst inst = products.elementAt(p);
+	    int[] uses = inst.getUseIds();
+	    for (int side = 0; side < 2; side++) {
+		int var = uses[side], factor = uses[1 - side];
+		if (!steps.containsKey(var) || !isInvariant(factor, loop))
+		    continue;
+		String product = addVariable((PhiInst)defs[var], steps.get(var), factor,
+					     header, preheader, latch);
+		BasicBlock bb = productBlocks.elementAt(p);
+		bb.removeNthInst(bb.indexOf(inst));
+		replaceUses(inst.getDefId(), product, blocks);
+		numReduced++;
+		break;
+	    }
+	}
+    }
+
+    /** Get the step of a basic induction variable
+      * @param phi phi of the loop header
+      * @param latch source block of the back edge
+      * @param loop loop
+      * @return instruction adding an invariant to the phi, or
+      * subtracting one from it, whose result is the source of the phi
+      * for the back edge (null if the phi is not an induction variable)
+      * */
+    private TACInst getStep(PhiInst phi, BasicBlock latch, Loop loop) {
+	if (phi.getNumSources() != 2 || !isLocal(phi.getDefId()))
+	    return null;
+	int next = operands.lookup(phi.getSource(latch));
+	if (!isLocal(next) || next >= defs.length || defs[next] == null ||
+	    !loop.contains(defBlocks[next]))
+	    return null;
+	TACInst step = defs[next];
+	int[] uses = step.getUseIds();
+	switch (step.getOpcode()) {
+	case TACInst.BINADD:
+	    if ((uses[0] == phi.getDefId() && isInvariant(uses[1], loop)) ||
+		(uses[1] == phi.getDefId() && isInvariant(uses[0], loop)))
+		return step;
+	    return null;
+	case TACInst.BINSUB:
+	    return (uses[0] == phi.getDefId() && isInvariant(uses[1], loop)) ? step : null;
+	default:
+	    return null;
+	}
+    }
+
+    /** Create the induction variable holding the product of a basic
+      * induction variable and an invariant
+      * @param phi phi of the basic induction variable
+      * @param step instruction stepping the basic induction variable
+      * @param factor identifier of the invariant
+      * @param header header block of the loop
+      * @param preheader preheader of the loop
+      * @param latch source block of the back edge
+      * @return name of the phi of the new induction variable
+      * */
+    private String addVariable(PhiInst phi, TACInst step, int factor, BasicBlock header,
+			       BasicBlock preheader, BasicBlock latch) {
+	// the new variable is defined three times, by versions of a fresh
+	// temporary, so translating out of SSA can coalesce them
+	String base = newTemp();
+	String product = base + ".1", init = base + ".2", next = base + ".3";
+	init = multiply(phi.getSource(preheader), factor, init, preheader);
+	int[] uses = step.getUseIds();
+	int increment = (uses[0] == phi.getDefId()) ? uses[1] : uses[0];
+	String stride = multiply(operands.getName(increment), factor, newTemp(), preheader);
+
+	PhiInst newPhi = new PhiInst(product);
+	newPhi.addSource(preheader, init);
+	newPhi.addSource(latch, next);
+	header.addInst(newPhi, 0);
+
+	// step at the end of the block of the basic step (before its IF),
+	// after the uses of the product in the block
+	BasicBlock bb = defBlocks[step.getDefId()];
+	int n = bb.getNumInsn();
+	if (bb.getNthInst(n - 1).isIf())
+	    n--;
+	bb.addInst(step.getOpcode() == TACInst.BINADD ?
+		   new BinaryAddInst(next, product, stride) :
+		   new BinarySubInst(next, product, stride), n);
+	return product;
+    }
+
+    /** Multiply an operand by an invariant at the end of the preheader
+      * @param operand operand (a constant or a variable defined before
+      * the loop)
+      * @param factor identifier of the invariant
+      * @param product variable to hold the product
+      * @param preheader preheader of the loop
+      * @return operand holding the product (a constant if both are)
+      * */
+    private String multiply(String operand, int factor, String product, BasicBlock preheader) {
+	String name = operands.getName(factor);
+	int id = operands.lookup(operand);
+	if (isLocal(id) && id < defs.length && defs[id] != null &&
+	    defs[id].getOpcode() == TACInst.LDCONST)
+	    operand = ((LoadInst)defs[id]).getSource();
+	if (TACInst.checkIntConst(operand) && operands.getKind(factor) == OperandTable.INT_CONST)
+	    return String.valueOf(Integer.parseInt(operand) * operands.getIntValue(factor));
+	preheader.addInst(new BinaryMulInst(product, operand, name));
+	return product;
+    }
+
+    /** Replace the uses of a variable
+      * @param var identifier of the variable
+      * @param operand replacing operand
+      * @param blocks blocks of the subroutine
+      * */
+    private void replaceUses(int var, String operand, Vector<BasicBlock> blocks) {
+	for (int i = 0; i < blocks.size(); i++) {
+	    BasicBlock bb = blocks.elementAt(i);
+	    for (int j = 0; j < bb.getNumInsn(); j++) {
+		TACInst inst = bb.getNthInst(j);
+		int[] uses = inst.getUseIds();
+		for (int k = 0; k < uses.length; k++)
+		    if (uses[k] == var)
+			inst.setUse(k, operand);
+	    }
+	}
+    }
+
+    /** Is an operand invariant in a loop?
+      * @param id identifier of the operand
+      * @param loop loop
+      * @return flag indicating whether it is an int constant or a
+      * parameter, local, or temporary defined outside the loop
+      * */
+    private boolean isInvariant(int id, Loop loop) {
+	if (operands.getKind(id) == OperandTable.INT_CONST)
+	    return true;
+	// the temporaries created by this pass are not tracked
+	return isLocal(id) && id < defBlocks.length &&
+	    (defBlocks[id] == null || !loop.contains(defBlocks[id]));
+    }
+
+    /** Is an operand a parameter, local, or temporary (a variable
+      * defined once in SSA form)?
+      * @param id identifier of an operand (-1 for none)
+      * @return flag indicating whether local
+      * */
+    private boolean isLocal(int id) {
+	if (id < 0)
+	    return false;
+	int kind = operands.getKind(id);
+	return kind == OperandTable.PARAM || kind == OperandTable.LOCAL ||
+	    kind == OperandTable.TEMP;
+    }
+
+    /** Create a fresh int temporary
+      * @return temporary name
+      * */
+    private String newTemp() {
+	return "@t" + nextTemp++;
+    }
+
+    /** Get the number of multiplications replaced by the last run
+      * @return number of multiplications
+      * */
+    int getNumReduced() {
+	return numReduced;
+    }
+}
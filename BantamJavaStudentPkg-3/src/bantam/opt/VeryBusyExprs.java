@@ -0,0 +1,91 @@
+/* Bantam Java Compiler and Language Toolset.
+   Copyright (C) 2009 by Marc Corliss (corliss@hws.edu) and
+                         David Furcy (furcyd@uwosh.edu) and
+                         E Christopher Lewis (lewis@vmware.com).
+   ALL RIGHTS RESERVED.
+
+   The Bantam Java toolset is distributed under the following
+   conditions:
+
+     You may make copies of the toolset for your own use and
+     modify those copies.
+
+     All copies of the toolset must retain the author names and
+     copyright notice.
+
+     You may not sell the toolset or distribute it in
+     conjunction with a commerical product or service without
+     the expressed written consent of the authors.
+
+   THIS SOFTWARE IS PROVIDED ``AS IS'' AND WITHOUT ANY EXPRESS
+   OR IMPLIED WARRANTIES, INCLUDING, WITHOUT LIMITATION, THE
+   IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+   PARTICULAR PURPOSE.
+*/
+
+package bantam.opt;
+
+import bantam.cfg.*;
+
+import java.util.*;
+
+/** The <tt>VeryBusyExprs</tt> class computes the very busy
+  * (anticipated) expressions of a subroutine: a backward "must"
+  * problem whose facts are the expressions of an ExprTable.  An
+  * expression is very busy at a point if every path from the point
+  * computes it before redefining its operands.  A call kills the
+  * expressions reading fields.
+  * */
+class VeryBusyExprs extends Dataflow {
+    /** Expressions of the subroutine */
+    private ExprTable exprs;
+
+    /** VeryBusyExprs constructor (solves the problem)
+      * @param entrance entrance block of a numbered subroutine
+      * @param exprs expressions of the subroutine (shared with other analyses)
+      * */
+    VeryBusyExprs(BasicBlock entrance, ExprTable exprs) {
+	super(entrance, false, false);
+	this.exprs = exprs;
+	solve();
+    }
+
+    /** Get the number of facts
+      * @return number of expressions
+      * */
+    int size() {
+	exprs.scan(entrance);
+	return exprs.size();
+    }
+
+    /** Get the value at the exits
+      * @return no expressions
+      * */
+    BitSet boundary() {
+	return new BitSet();
+    }
+
+    /** Compute the gen and kill sets of an instruction
+      * @param inst instruction
+      * @param gen empty set receiving the expression computed
+      * @param kill empty set receiving the expressions reading the
+      * variable defined
+      * */
+    void transfer(TACInst inst, BitSet gen, BitSet kill) {
+	int def = inst.getDefId();
+	if (def >= 0)
+	    exprs.addUsers(def, kill);
+	if (inst.isCall())
+	    exprs.addUsers(getFields(), kill);
+	int e = exprs.lookup(inst);
+	if (e >= 0)
+	    gen.set(e);
+    }
+
+    /** Get the expressions this analysis works on
+      * @return expression table
+      * */
+    ExprTable getExprTable() {
+	return exprs;
+    }
+}
@@ -1,7 +1,7 @@
 
 //----------------------------------------------------
 // The following code was generated by CUP v0.10k
-// Tue Feb 21 18:52:09 EST 2017
+// Sun Oct 18 14:23:32 UTC 2026
 //----------------------------------------------------
 
 package bantam.parser;
@@ -12,7 +12,7 @@ import bantam.util.ErrorHandler;
 import java_cup.runtime.Symbol;
 
 /** CUP v0.10k generated parser.
-  * @version Tue Feb 21 18:52:09 EST 2017
+  * @version Sun Oct 18 14:23:32 UTC 2026
   */
 public class Parser extends java_cup.runtime.lr_parser {
 
@@ -25,25 +25,46 @@ public class Parser extends java_cup.runtime.lr_parser {
   /** Production table. */
   protected static final short _production_table[][] = 
     unpackFromStrings(new String[] {
-    "\000\073\000\002\003\003\000\002\002\004\000\002\004" +
+    "\000\201\000\002\003\003\000\002\002\004\000\002\004" +
     "\003\000\002\004\004\000\002\005\007\000\002\005\011" +
     "\000\002\006\003\000\002\006\004\000\002\006\002\000" +
-    "\002\010\012\000\002\010\014\000\002\011\004\000\002" +
-    "\011\006\000\002\011\010\000\002\011\006\000\002\013" +
-    "\004\000\002\013\006\000\002\016\004\000\002\017\007" +
+    "\002\007\003\000\002\007\003\000\002\010\012\000\002" +
+    "\010\014\000\002\011\005\000\002\011\007\000\002\011" +
+    "\011\000\002\011\007\000\002\012\003\000\002\012\005" +
+    "\000\002\012\002\000\002\013\004\000\002\013\006\000" +
+    "\002\015\003\000\002\015\003\000\002\015\003\000\002" +
+    "\015\003\000\002\015\003\000\002\015\003\000\002\015" +
+    "\003\000\002\015\003\000\002\016\004\000\002\017\007" +
     "\000\002\017\011\000\002\020\007\000\002\020\011\000" +
     "\002\021\007\000\002\022\010\000\002\022\013\000\002" +
     "\022\011\000\002\022\012\000\002\022\011\000\002\022" +
-    "\012\000\002\022\012\000\002\023\004\000\002\024\004" +
-    "\000\002\024\005\000\002\025\004\000\002\025\005\000" +
+    "\011\000\002\022\012\000\002\022\012\000\002\023\004" +
+    "\000\002\024\004\000\002\024\005\000\002\025\005\000" +
     "\002\014\003\000\002\014\004\000\002\014\002\000\002" +
-    "\027\005\000\002\032\005\000\002\032\007\000\002\033" +
-    "\010\000\002\033\012\000\002\040\003\000\002\041\003" +
-    "\000\002\042\003\000\002\043\005\000\002\044\005\000" +
-    "\002\046\005\000\002\045\005\000\002\047\005\000\002" +
-    "\050\005\000\002\051\005\000\002\052\005\000\002\053" +
-    "\005\000\002\054\005\000\002\055\005\000\002\056\005" +
-    "\000\002\057\005" });
+    "\026\003\000\002\026\003\000\002\026\003\000\002\026" +
+    "\003\000\002\026\003\000\002\026\003\000\002\026\003" +
+    "\000\002\026\003\000\002\026\003\000\002\026\003\000" +
+    "\002\026\003\000\002\026\003\000\002\026\005\000\002" +
+    "\042\012\000\002\042\010\000\002\027\007\000\002\027" +
+    "\005\000\002\040\005\000\002\040\003\000\002\041\010" +
+    "\000\002\041\006\000\002\033\005\000\002\033\007\000" +
+    "\002\030\006\000\002\030\010\000\002\030\010\000\002" +
+    "\072\003\000\002\072\005\000\002\072\002\000\002\031" +
+    "\006\000\002\032\007\000\002\034\010\000\002\034\012" +
+    "\000\002\035\003\000\002\035\003\000\002\035\003\000" +
+    "\002\036\003\000\002\036\003\000\002\036\003\000\002" +
+    "\036\003\000\002\037\003\000\002\037\003\000\002\037" +
+    "\003\000\002\043\003\000\002\044\003\000\002\045\003" +
+    "\000\002\046\003\000\002\046\003\000\002\046\003\000" +
+    "\002\046\003\000\002\046\003\000\002\047\005\000\002" +
+    "\050\005\000\002\052\005\000\002\051\005\000\002\053" +
+    "\005\000\002\054\003\000\002\054\003\000\002\054\003" +
+    "\000\002\054\003\000\002\054\003\000\002\054\003\000" +
+    "\002\055\005\000\002\056\005\000\002\057\005\000\002" +
+    "\060\005\000\002\061\005\000\002\062\005\000\002\063" +
+    "\003\000\002\063\003\000\002\064\005\000\002\065\005" +
+    "\000\002\066\004\000\002\067\004\000\002\070\004\000" +
+    "\002\070\004\000\002\071\004\000\002\071\004" });
 
   /** Access to production table. */
   public short[][] production_table() {return _production_table;}
@@ -51,16 +72,611 @@ public class Parser extends java_cup.runtime.lr_parser {
   /** Parse-action table. */
   protected static final short[][] _action_table = 
     unpackFromStrings(new String[] {
-    "\000\022\000\004\005\007\001\002\000\006\002\001\005" +
-    "\007\001\002\000\004\002\023\001\002\000\006\002\uffff" +
+    "\000\u0102\000\004\005\007\001\002\000\006\002\001\005" +
+    "\007\001\002\000\004\002\u0103\001\002\000\006\002\uffff" +
     "\005\uffff\001\002\000\004\051\010\001\002\000\006\006" +
-    "\012\042\011\001\002\000\004\043\ufff9\001\002\000\004" +
-    "\051\013\001\002\000\004\042\014\001\002\000\004\043" +
-    "\ufff9\001\002\000\004\043\017\001\002\000\004\043\ufffb" +
-    "\001\002\000\006\002\ufffc\005\ufffc\001\002\000\004\043" +
-    "\ufffa\001\002\000\004\043\022\001\002\000\006\002\ufffd" +
-    "\005\ufffd\001\002\000\004\002\000\001\002\000\006\002" +
-    "\ufffe\005\ufffe\001\002" });
+    "\012\042\011\001\002\000\006\043\ufff9\051\015\001\002" +
+    "\000\004\051\013\001\002\000\004\042\014\001\002\000" +
+    "\006\043\ufff9\051\015\001\002\000\006\044\025\051\024" +
+    "\001\002\000\006\043\022\051\015\001\002\000\006\043" +
+    "\ufff8\051\ufff8\001\002\000\006\043\ufffb\051\ufffb\001\002" +
+    "\000\006\043\ufff7\051\ufff7\001\002\000\006\002\ufffc\005" +
+    "\ufffc\001\002\000\006\043\ufffa\051\ufffa\001\002\000\010" +
+    "\035\371\040\370\046\367\001\002\000\004\045\026\001" +
+    "\002\000\004\051\027\001\002\000\010\035\032\040\031" +
+    "\046\030\001\002\000\006\043\ufff1\051\ufff1\001\002\000" +
+    "\010\041\uffee\047\uffee\051\237\001\002\000\026\014\064" +
+    "\020\044\024\050\036\041\037\040\040\037\051\061\052" +
+    "\063\053\106\054\107\001\002\000\054\016\uffcb\017\uffcb" +
+    "\020\uffcb\021\uffcb\022\uffcb\023\uffcb\025\uffcb\026\uffcb\027" +
+    "\uffcb\030\uffcb\031\uffcb\032\uffcb\033\uffcb\034\uffcb\036\uffcb" +
+    "\037\uffcb\041\uffcb\045\uffcb\046\uffcb\047\uffcb\050\uffcb\001" +
+    "\002\000\054\016\uffc4\017\uffc4\020\uffc4\021\uffc4\022\uffc4" +
+    "\023\uffc4\025\uffc4\026\uffc4\027\uffc4\030\uffc4\031\uffc4\032" +
+    "\uffc4\033\uffc4\034\uffc4\036\uffc4\037\uffc4\041\uffc4\045\uffc4" +
+    "\046\uffc4\047\uffc4\050\uffc4\001\002\000\054\016\uffc3\017" +
+    "\uffc3\020\uffc3\021\uffc3\022\uffc3\023\uffc3\025\uffc3\026\uffc3" +
+    "\027\uffc3\030\uffc3\031\uffc3\032\uffc3\033\uffc3\034\uffc3\036" +
+    "\uffc3\037\uffc3\041\uffc3\045\uffc3\046\uffc3\047\uffc3\050\uffc3" +
+    "\001\002\000\054\016\uff9f\017\uff9f\020\uff9f\021\uff9f\022" +
+    "\uff9f\023\uff9f\025\uff9f\026\uff9f\027\uff9f\030\uff9f\031\uff9f" +
+    "\032\uff9f\033\uff9f\034\uff9f\036\uff9f\037\uff9f\041\uff9f\045" +
+    "\uff9f\046\uff9f\047\uff9f\050\uff9f\001\002\000\026\014\064" +
+    "\020\044\024\050\036\041\037\040\040\037\051\222\052" +
+    "\063\053\106\054\107\001\002\000\026\014\064\020\044" +
+    "\024\050\036\041\037\040\040\037\051\061\052\063\053" +
+    "\106\054\107\001\002\000\026\014\064\020\044\024\050" +
+    "\036\041\037\040\040\037\051\061\052\063\053\106\054" +
+    "\107\001\002\000\054\016\uff92\017\uff92\020\uff92\021\uff92" +
+    "\022\uff92\023\uff92\025\uff92\026\uff92\027\uff92\030\uff92\031" +
+    "\uff92\032\uff92\033\uff92\034\uff92\036\uff92\037\uff92\041\uff92" +
+    "\045\uff92\046\uff92\047\uff92\050\uff92\001\002\000\054\016" +
+    "\uffa4\017\uffa4\020\uffa4\021\uffa4\022\uffa4\023\uffa4\025\uffa4" +
+    "\026\uffa4\027\uffa4\030\uffa4\031\uffa4\032\uffa4\033\uffa4\034" +
+    "\uffa4\036\uffa4\037\uffa4\041\uffa4\045\uffa4\046\uffa4\047\uffa4" +
+    "\050\uffa4\001\002\000\026\014\064\020\044\024\050\036" +
+    "\041\037\040\040\037\051\061\052\063\053\106\054\107" +
+    "\001\002\000\054\016\uffa8\017\uffa8\020\uffa8\021\uffa8\022" +
+    "\uffa8\023\uffa8\025\uffa8\026\uffa8\027\uffa8\030\uffa8\031\uffa8" +
+    "\032\uffa8\033\uffa8\034\uffa8\036\uffa8\037\uffa8\041\uffa8\045" +
+    "\uffa8\046\uffa8\047\uffa8\050\uffa8\001\002\000\054\016\uffce" +
+    "\017\uffce\020\uffce\021\uffce\022\uffce\023\uffce\025\uffce\026" +
+    "\uffce\027\uffce\030\uffce\031\uffce\032\uffce\033\uffce\034\uffce" +
+    "\036\uffce\037\uffce\041\uffce\045\uffce\046\uffce\047\uffce\050" +
+    "\uffce\001\002\000\054\016\uffcc\017\uffcc\020\uffcc\021\uffcc" +
+    "\022\uffcc\023\uffcc\025\uffcc\026\uffcc\027\uffcc\030\uffcc\031" +
+    "\uffcc\032\uffcc\033\uffcc\034\uffcc\036\uffcc\037\uffcc\041\uffcc" +
+    "\045\uffcc\046\uffcc\047\uffcc\050\uffcc\001\002\000\026\014" +
+    "\064\020\044\024\050\036\041\037\040\040\037\051\061" +
+    "\052\063\053\106\054\107\001\002\000\054\016\uffc6\017" +
+    "\uffc6\020\uffc6\021\uffc6\022\uffc6\023\uffc6\025\uffc6\026\uffc6" +
+    "\027\uffc6\030\uffc6\031\uffc6\032\uffc6\033\uffc6\034\uffc6\036" +
+    "\uffc6\037\uffc6\041\uffc6\045\uffc6\046\uffc6\047\uffc6\050\uffc6" +
+    "\001\002\000\054\016\uff89\017\uff89\020\uff89\021\uff89\022" +
+    "\uff89\023\uff89\025\uff89\026\uff89\027\uff89\030\uff89\031\uff89" +
+    "\032\uff89\033\uff89\034\uff89\036\uff89\037\uff89\041\uff89\045" +
+    "\uff89\046\uff89\047\uff89\050\uff89\001\002\000\054\016\uffac" +
+    "\017\uffac\020\uffac\021\uffac\022\uffac\023\uffac\025\uffac\026" +
+    "\uffac\027\uffac\030\uffac\031\uffac\032\uffac\033\uffac\034\uffac" +
+    "\036\uffac\037\uffac\041\uffac\045\uffac\046\uffac\047\uffac\050" +
+    "\uffac\001\002\000\054\016\uffc5\017\uffc5\020\uffc5\021\uffc5" +
+    "\022\uffc5\023\uffc5\025\uffc5\026\uffc5\027\uffc5\030\uffc5\031" +
+    "\uffc5\032\uffc5\033\uffc5\034\uffc5\036\uffc5\037\uffc5\041\uffc5" +
+    "\045\uffc5\046\uffc5\047\uffc5\050\uffc5\001\002\000\054\016" +
+    "\uffa7\017\uffa7\020\uffa7\021\uffa7\022\uffa7\023\uffa7\025\uffa7" +
+    "\026\uffa7\027\uffa7\030\uffa7\031\uffa7\032\uffa7\033\uffa7\034" +
+    "\uffa7\036\uffa7\037\uffa7\041\uffa7\045\uffa7\046\uffa7\047\uffa7" +
+    "\050\uffa7\001\002\000\054\016\uffc9\017\uffc9\020\uffc9\021" +
+    "\uffc9\022\uffc9\023\uffc9\025\uffc9\026\uffc9\027\uffc9\030\uffc9" +
+    "\031\uffc9\032\uffc9\033\uffc9\034\uffc9\036\uffc9\037\uffc9\041" +
+    "\uffc9\045\uffc9\046\uffc9\047\uffc9\050\uffc9\001\002\000\054" +
+    "\016\uffa0\017\uffa0\020\uffa0\021\uffa0\022\uffa0\023\uffa0\025" +
+    "\uffa0\026\uffa0\027\uffa0\030\uffa0\031\uffa0\032\uffa0\033\uffa0" +
+    "\034\uffa0\036\uffa0\037\uffa0\041\uffa0\045\uffa0\046\uffa0\047" +
+    "\uffa0\050\uffa0\001\002\000\054\016\uffa6\017\uffa6\020\uffa6" +
+    "\021\uffa6\022\uffa6\023\uffa6\025\uffa6\026\uffa6\027\uffa6\030" +
+    "\uffa6\031\uffa6\032\uffa6\033\uffa6\034\uffa6\036\uffa6\037\uffa6" +
+    "\041\uffa6\045\uffa6\046\uffa6\047\uffa6\050\uffa6\001\002\000" +
+    "\062\016\uffbc\017\uffbc\020\uffbc\021\uffbc\022\uffbc\023\uffbc" +
+    "\025\uffbc\026\uffbc\027\uffbc\030\uffbc\031\uffbc\032\uffbc\033" +
+    "\uffbc\034\uffbc\035\172\036\uffbc\037\uffbc\040\171\041\uffbc" +
+    "\044\170\045\uffbc\046\uffbc\047\uffbc\050\173\001\002\000" +
+    "\054\016\uffad\017\uffad\020\uffad\021\uffad\022\uffad\023\uffad" +
+    "\025\uffad\026\uffad\027\uffad\030\uffad\031\uffad\032\uffad\033" +
+    "\uffad\034\uffad\036\uffad\037\uffad\041\uffad\045\uffad\046\uffad" +
+    "\047\uffad\050\uffad\001\002\000\054\016\uffa3\017\uffa3\020" +
+    "\uffa3\021\uffa3\022\uffa3\023\uffa3\025\uffa3\026\uffa3\027\uffa3" +
+    "\030\uffa3\031\uffa3\032\uffa3\033\uffa3\034\uffa3\036\uffa3\037" +
+    "\uffa3\041\uffa3\045\uffa3\046\uffa3\047\uffa3\050\uffa3\001\002" +
+    "\000\004\051\162\001\002\000\054\016\uff96\017\uff96\020" +
+    "\uff96\021\uff96\022\uff96\023\uff96\025\uff96\026\uff96\027\uff96" +
+    "\030\uff96\031\uff96\032\uff96\033\uff96\034\uff96\036\uff96\037" +
+    "\uff96\041\uff96\045\uff96\046\uff96\047\uff96\050\uff96\001\002" +
+    "\000\054\016\uff95\017\uff95\020\uff95\021\uff95\022\uff95\023" +
+    "\uff95\025\uff95\026\uff95\027\uff95\030\uff95\031\uff95\032\uff95" +
+    "\033\uff95\034\uff95\036\uff95\037\uff95\041\uff95\045\uff95\046" +
+    "\uff95\047\uff95\050\uff95\001\002\000\054\016\uffa9\017\uffa9" +
+    "\020\uffa9\021\uffa9\022\uffa9\023\uffa9\025\uffa9\026\uffa9\027" +
+    "\uffa9\030\uffa9\031\uffa9\032\uffa9\033\uffa9\034\uffa9\036\uffa9" +
+    "\037\uffa9\041\uffa9\045\uffa9\046\uffa9\047\uffa9\050\uffa9\001" +
+    "\002\000\054\016\uff9c\017\uff9c\020\uff9c\021\uff9c\022\uff9c" +
+    "\023\uff9c\025\uff9c\026\uff9c\027\uff9c\030\uff9c\031\uff9c\032" +
+    "\uff9c\033\uff9c\034\uff9c\036\uff9c\037\uff9c\041\uff9c\045\uff9c" +
+    "\046\uff9c\047\uff9c\050\uff9c\001\002\000\054\016\uffc7\017" +
+    "\uffc7\020\uffc7\021\uffc7\022\uffc7\023\uffc7\025\uffc7\026\uffc7" +
+    "\027\uffc7\030\uffc7\031\uffc7\032\uffc7\033\uffc7\034\uffc7\036" +
+    "\uffc7\037\uffc7\041\uffc7\045\uffc7\046\uffc7\047\uffc7\050\uffc7" +
+    "\001\002\000\054\016\uffa5\017\uffa5\020\uffa5\021\uffa5\022" +
+    "\uffa5\023\uffa5\025\uffa5\026\uffa5\027\uffa5\030\uffa5\031\uffa5" +
+    "\032\uffa5\033\uffa5\034\uffa5\036\uffa5\037\uffa5\041\uffa5\045" +
+    "\uffa5\046\uffa5\047\uffa5\050\uffa5\001\002\000\054\016\uff9d" +
+    "\017\uff9d\020\uff9d\021\uff9d\022\uff9d\023\uff9d\025\uff9d\026" +
+    "\uff9d\027\uff9d\030\uff9d\031\uff9d\032\uff9d\033\uff9d\034\uff9d" +
+    "\036\uff9d\037\uff9d\041\uff9d\045\uff9d\046\uff9d\047\uff9d\050" +
+    "\uff9d\001\002\000\054\016\uffab\017\uffab\020\uffab\021\uffab" +
+    "\022\uffab\023\uffab\025\uffab\026\uffab\027\uffab\030\uffab\031" +
+    "\uffab\032\uffab\033\uffab\034\uffab\036\uffab\037\uffab\041\uffab" +
+    "\045\uffab\046\uffab\047\uffab\050\uffab\001\002\000\054\016" +
+    "\uff91\017\uff91\020\uff91\021\uff91\022\uff91\023\uff91\025\uff91" +
+    "\026\uff91\027\uff91\030\uff91\031\uff91\032\uff91\033\uff91\034" +
+    "\uff91\036\uff91\037\uff91\041\uff91\045\uff91\046\uff91\047\uff91" +
+    "\050\uff91\001\002\000\054\016\uffc8\017\uffc8\020\uffc8\021" +
+    "\uffc8\022\uffc8\023\uffc8\025\uffc8\026\uffc8\027\uffc8\030\uffc8" +
+    "\031\uffc8\032\uffc8\033\uffc8\034\uffc8\036\uffc8\037\uffc8\041" +
+    "\uffc8\045\uffc8\046\uffc8\047\uffc8\050\uffc8\001\002\000\054" +
+    "\016\uff9e\017\uff9e\020\uff9e\021\uff9e\022\uff9e\023\uff9e\025" +
+    "\uff9e\026\uff9e\027\uff9e\030\uff9e\031\uff9e\032\uff9e\033\uff9e" +
+    "\034\uff9e\036\uff9e\037\uff9e\041\uff9e\045\uff9e\046\uff9e\047" +
+    "\uff9e\050\uff9e\001\002\000\054\016\uffca\017\uffca\020\uffca" +
+    "\021\uffca\022\uffca\023\uffca\025\uffca\026\uffca\027\uffca\030" +
+    "\uffca\031\uffca\032\uffca\033\uffca\034\uffca\036\uffca\037\uffca" +
+    "\041\uffca\045\uffca\046\uffca\047\uffca\050\uffca\001\002\000" +
+    "\054\016\uffcd\017\uffcd\020\uffcd\021\uffcd\022\uffcd\023\uffcd" +
+    "\025\uffcd\026\uffcd\027\uffcd\030\uffcd\031\uffcd\032\uffcd\033" +
+    "\uffcd\034\uffcd\036\uffcd\037\uffcd\041\uffcd\045\uffcd\046\uffcd" +
+    "\047\uffcd\050\uffcd\001\002\000\046\016\131\017\117\020" +
+    "\125\021\111\022\124\023\132\025\113\026\120\027\127" +
+    "\030\115\031\114\032\130\033\123\034\112\036\116\037" +
+    "\122\046\121\050\126\001\002\000\054\016\uffaa\017\uffaa" +
+    "\020\uffaa\021\uffaa\022\uffaa\023\uffaa\025\uffaa\026\uffaa\027" +
+    "\uffaa\030\uffaa\031\uffaa\032\uffaa\033\uffaa\034\uffaa\036\uffaa" +
+    "\037\uffaa\041\uffaa\045\uffaa\046\uffaa\047\uffaa\050\uffaa\001" +
+    "\002\000\054\016\uff94\017\uff94\020\uff94\021\uff94\022\uff94" +
+    "\023\uff94\025\uff94\026\uff94\027\uff94\030\uff94\031\uff94\032" +
+    "\uff94\033\uff94\034\uff94\036\uff94\037\uff94\041\uff94\045\uff94" +
+    "\046\uff94\047\uff94\050\uff94\001\002\000\054\016\uff8a\017" +
+    "\uff8a\020\uff8a\021\uff8a\022\uff8a\023\uff8a\025\uff8a\026\uff8a" +
+    "\027\uff8a\030\uff8a\031\uff8a\032\uff8a\033\uff8a\034\uff8a\036" +
+    "\uff8a\037\uff8a\041\uff8a\045\uff8a\046\uff8a\047\uff8a\050\uff8a" +
+    "\001\002\000\054\016\uffa2\017\uffa2\020\uffa2\021\uffa2\022" +
+    "\uffa2\023\uffa2\025\uffa2\026\uffa2\027\uffa2\030\uffa2\031\uffa2" +
+    "\032\uffa2\033\uffa2\034\uffa2\036\uffa2\037\uffa2\041\uffa2\045" +
+    "\uffa2\046\uffa2\047\uffa2\050\uffa2\001\002\000\054\016\uffa1" +
+    "\017\uffa1\020\uffa1\021\uffa1\022\uffa1\023\uffa1\025\uffa1\026" +
+    "\uffa1\027\uffa1\030\uffa1\031\uffa1\032\uffa1\033\uffa1\034\uffa1" +
+    "\036\uffa1\037\uffa1\041\uffa1\045\uffa1\046\uffa1\047\uffa1\050" +
+    "\uffa1\001\002\000\054\016\uff93\017\uff93\020\uff93\021\uff93" +
+    "\022\uff93\023\uff93\025\uff93\026\uff93\027\uff93\030\uff93\031" +
+    "\uff93\032\uff93\033\uff93\034\uff93\036\uff93\037\uff93\041\uff93" +
+    "\045\uff93\046\uff93\047\uff93\050\uff93\001\002\000\026\014" +
+    "\064\020\044\024\050\036\041\037\040\040\037\051\061" +
+    "\052\063\053\106\054\107\001\002\000\026\014\064\020" +
+    "\044\024\050\036\041\037\040\040\037\051\061\052\063" +
+    "\053\106\054\107\001\002\000\026\014\064\020\044\024" +
+    "\050\036\041\037\040\040\037\051\061\052\063\053\106" +
+    "\054\107\001\002\000\026\014\064\020\044\024\050\036" +
+    "\041\037\040\040\037\051\061\052\063\053\106\054\107" +
+    "\001\002\000\026\014\064\020\044\024\050\036\041\037" +
+    "\040\040\037\051\061\052\063\053\106\054\107\001\002" +
+    "\000\054\016\uff83\017\uff83\020\uff83\021\uff83\022\uff83\023" +
+    "\uff83\025\uff83\026\uff83\027\uff83\030\uff83\031\uff83\032\uff83" +
+    "\033\uff83\034\uff83\036\uff83\037\uff83\041\uff83\045\uff83\046" +
+    "\uff83\047\uff83\050\uff83\001\002\000\026\014\064\020\044" +
+    "\024\050\036\041\037\040\040\037\051\061\052\063\053" +
+    "\106\054\107\001\002\000\026\014\064\020\044\024\050" +
+    "\036\041\037\040\040\037\051\061\052\063\053\106\054" +
+    "\107\001\002\000\006\043\ufff2\051\ufff2\001\002\000\054" +
+    "\016\uff81\017\uff81\020\uff81\021\uff81\022\uff81\023\uff81\025" +
+    "\uff81\026\uff81\027\uff81\030\uff81\031\uff81\032\uff81\033\uff81" +
+    "\034\uff81\036\uff81\037\uff81\041\uff81\045\uff81\046\uff81\047" +
+    "\uff81\050\uff81\001\002\000\026\014\064\020\044\024\050" +
+    "\036\041\037\040\040\037\051\061\052\063\053\106\054" +
+    "\107\001\002\000\026\014\064\020\044\024\050\036\041" +
+    "\037\040\040\037\051\061\052\063\053\106\054\107\001" +
+    "\002\000\026\014\064\020\044\024\050\036\041\037\040" +
+    "\040\037\051\061\052\063\053\106\054\107\001\002\000" +
+    "\004\051\141\001\002\000\026\014\064\020\044\024\050" +
+    "\036\041\037\040\040\037\051\061\052\063\053\106\054" +
+    "\107\001\002\000\026\014\064\020\044\024\050\036\041" +
+    "\037\040\040\037\051\061\052\063\053\106\054\107\001" +
+    "\002\000\004\051\134\001\002\000\026\014\064\020\044" +
+    "\024\050\036\041\037\040\040\037\051\061\052\063\053" +
+    "\106\054\107\001\002\000\054\016\uff98\017\uff98\020\uff98" +
+    "\021\uff98\022\uff98\023\uff98\025\uff98\026\uff98\027\uff98\030" +
+    "\uff98\031\uff98\032\uff98\033\uff98\034\uff98\036\116\037\122" +
+    "\041\uff98\045\uff98\046\uff98\047\uff98\050\126\001\002\000" +
+    "\056\016\uffb9\017\uffb9\020\uffb9\021\uffb9\022\uffb9\023\uffb9" +
+    "\025\uffb9\026\uffb9\027\uffb9\030\uffb9\031\uffb9\032\uffb9\033" +
+    "\uffb9\034\uffb9\036\uffb9\037\uffb9\041\uffb9\044\135\045\uffb9" +
+    "\046\uffb9\047\uffb9\050\uffb9\001\002\000\004\045\136\001" +
+    "\002\000\054\016\uffb8\017\uffb8\020\uffb8\021\uffb8\022\uffb8" +
+    "\023\uffb8\025\uffb8\026\uffb8\027\uffb8\030\uffb8\031\uffb8\032" +
+    "\uffb8\033\uffb8\034\uffb8\036\uffb8\037\uffb8\041\uffb8\045\uffb8" +
+    "\046\uffb8\047\uffb8\050\uffb8\001\002\000\054\016\uff8d\017" +
+    "\117\020\125\021\111\022\124\023\132\025\uff8d\026\uff8d" +
+    "\027\uff8d\030\uff8d\031\uff8d\032\uff8d\033\uff8d\034\uff8d\036" +
+    "\116\037\122\041\uff8d\045\uff8d\046\uff8d\047\uff8d\050\126" +
+    "\001\002\000\054\016\uff90\017\117\020\125\021\111\022" +
+    "\124\023\132\025\uff90\026\uff90\027\uff90\030\uff90\031\114" +
+    "\032\130\033\123\034\112\036\116\037\122\041\uff90\045" +
+    "\uff90\046\uff90\047\uff90\050\126\001\002\000\004\040\142" +
+    "\001\002\000\032\014\064\020\044\024\050\036\041\037" +
+    "\040\040\037\041\uffb2\047\uffb2\051\061\052\063\053\106" +
+    "\054\107\001\002\000\050\016\131\017\117\020\125\021" +
+    "\111\022\124\023\132\025\113\026\120\027\127\030\115" +
+    "\031\114\032\130\033\123\034\112\036\116\037\122\041" +
+    "\uffb4\047\uffb4\050\126\001\002\000\006\041\146\047\145" +
+    "\001\002\000\026\014\064\020\044\024\050\036\041\037" +
+    "\040\040\037\051\061\052\063\053\106\054\107\001\002" +
+    "\000\054\016\uffb6\017\uffb6\020\uffb6\021\uffb6\022\uffb6\023" +
+    "\uffb6\025\uffb6\026\uffb6\027\uffb6\030\uffb6\031\uffb6\032\uffb6" +
+    "\033\uffb6\034\uffb6\036\uffb6\037\uffb6\041\uffb6\045\uffb6\046" +
+    "\uffb6\047\uffb6\050\uffb6\001\002\000\050\016\131\017\117" +
+    "\020\125\021\111\022\124\023\132\025\113\026\120\027" +
+    "\127\030\115\031\114\032\130\033\123\034\112\036\116" +
+    "\037\122\041\uffb3\047\uffb3\050\126\001\002\000\054\016" +
+    "\uff9a\017\uff9a\020\uff9a\021\111\022\124\023\132\025\uff9a" +
+    "\026\uff9a\027\uff9a\030\uff9a\031\uff9a\032\uff9a\033\uff9a\034" +
+    "\uff9a\036\116\037\122\041\uff9a\045\uff9a\046\uff9a\047\uff9a" +
+    "\050\126\001\002\000\054\016\uff9b\017\uff9b\020\uff9b\021" +
+    "\uff9b\022\uff9b\023\uff9b\025\uff9b\026\uff9b\027\uff9b\030\uff9b" +
+    "\031\uff9b\032\uff9b\033\uff9b\034\uff9b\036\116\037\122\041" +
+    "\uff9b\045\uff9b\046\uff9b\047\uff9b\050\126\001\002\000\054" +
+    "\016\uff8e\017\117\020\125\021\111\022\124\023\132\025" +
+    "\uff8e\026\uff8e\027\uff8e\030\uff8e\031\uff8e\032\uff8e\033\uff8e" +
+    "\034\uff8e\036\116\037\122\041\uff8e\045\uff8e\046\uff8e\047" +
+    "\uff8e\050\126\001\002\000\054\016\uff87\017\117\020\125" +
+    "\021\111\022\124\023\132\025\113\026\uff87\027\127\030" +
+    "\115\031\114\032\130\033\123\034\112\036\116\037\122" +
+    "\041\uff87\045\uff87\046\uff87\047\uff87\050\126\001\002\000" +
+    "\054\016\uff99\017\uff99\020\uff99\021\111\022\124\023\132" +
+    "\025\uff99\026\uff99\027\uff99\030\uff99\031\uff99\032\uff99\033" +
+    "\uff99\034\uff99\036\116\037\122\041\uff99\045\uff99\046\uff99" +
+    "\047\uff99\050\126\001\002\000\054\016\uff8b\017\117\020" +
+    "\125\021\111\022\124\023\132\025\uff8b\026\uff8b\027\uff8b" +
+    "\030\uff8b\031\114\032\130\033\123\034\112\036\116\037" +
+    "\122\041\uff8b\045\uff8b\046\uff8b\047\uff8b\050\126\001\002" +
+    "\000\054\016\uff8c\017\117\020\125\021\111\022\124\023" +
+    "\132\025\uff8c\026\uff8c\027\uff8c\030\uff8c\031\uff8c\032\uff8c" +
+    "\033\uff8c\034\uff8c\036\116\037\122\041\uff8c\045\uff8c\046" +
+    "\uff8c\047\uff8c\050\126\001\002\000\054\016\uff88\017\117" +
+    "\020\125\021\111\022\124\023\132\025\uff88\026\uff88\027" +
+    "\127\030\115\031\114\032\130\033\123\034\112\036\116" +
+    "\037\122\041\uff88\045\uff88\046\uff88\047\uff88\050\126\001" +
+    "\002\000\054\016\uff8f\017\117\020\125\021\111\022\124" +
+    "\023\132\025\uff8f\026\uff8f\027\uff8f\030\uff8f\031\uff8f\032" +
+    "\uff8f\033\uff8f\034\uff8f\036\116\037\122\041\uff8f\045\uff8f" +
+    "\046\uff8f\047\uff8f\050\126\001\002\000\054\016\uff97\017" +
+    "\uff97\020\uff97\021\uff97\022\uff97\023\uff97\025\uff97\026\uff97" +
+    "\027\uff97\030\uff97\031\uff97\032\uff97\033\uff97\034\uff97\036" +
+    "\116\037\122\041\uff97\045\uff97\046\uff97\047\uff97\050\126" +
+    "\001\002\000\006\040\164\044\163\001\002\000\026\014" +
+    "\064\020\044\024\050\036\041\037\040\040\037\051\061" +
+    "\052\063\053\106\054\107\001\002\000\004\041\165\001" +
+    "\002\000\054\016\uffb1\017\uffb1\020\uffb1\021\uffb1\022\uffb1" +
+    "\023\uffb1\025\uffb1\026\uffb1\027\uffb1\030\uffb1\031\uffb1\032" +
+    "\uffb1\033\uffb1\034\uffb1\036\uffb1\037\uffb1\041\uffb1\045\uffb1" +
+    "\046\uffb1\047\uffb1\050\uffb1\001\002\000\046\016\131\017" +
+    "\117\020\125\021\111\022\124\023\132\025\113\026\120" +
+    "\027\127\030\115\031\114\032\130\033\123\034\112\036" +
+    "\116\037\122\045\167\050\126\001\002\000\054\016\uffb0" +
+    "\017\uffb0\020\uffb0\021\uffb0\022\uffb0\023\uffb0\025\uffb0\026" +
+    "\uffb0\027\uffb0\030\uffb0\031\uffb0\032\uffb0\033\uffb0\034\uffb0" +
+    "\036\uffb0\037\uffb0\041\uffb0\045\uffb0\046\uffb0\047\uffb0\050" +
+    "\uffb0\001\002\000\026\014\064\020\044\024\050\036\041" +
+    "\037\040\040\037\051\061\052\063\053\106\054\107\001" +
+    "\002\000\032\014\064\020\044\024\050\036\041\037\040" +
+    "\040\037\041\uffb2\047\uffb2\051\061\052\063\053\106\054" +
+    "\107\001\002\000\026\014\064\020\044\024\050\036\041" +
+    "\037\040\040\037\051\061\052\063\053\106\054\107\001" +
+    "\002\000\004\051\174\001\002\000\062\016\uffbd\017\uffbd" +
+    "\020\uffbd\021\uffbd\022\uffbd\023\uffbd\025\uffbd\026\uffbd\027" +
+    "\uffbd\030\uffbd\031\uffbd\032\uffbd\033\uffbd\034\uffbd\035\177" +
+    "\036\uffbd\037\uffbd\040\176\041\uffbd\044\175\045\uffbd\046" +
+    "\uffbd\047\uffbd\050\uffbd\001\002\000\026\014\064\020\044" +
+    "\024\050\036\041\037\040\040\037\051\061\052\063\053" +
+    "\106\054\107\001\002\000\032\014\064\020\044\024\050" +
+    "\036\041\037\040\040\037\041\uffb2\047\uffb2\051\061\052" +
+    "\063\053\106\054\107\001\002\000\026\014\064\020\044" +
+    "\024\050\036\041\037\040\040\037\051\061\052\063\053" +
+    "\106\054\107\001\002\000\054\016\uffbf\017\117\020\125" +
+    "\021\111\022\124\023\132\025\113\026\120\027\127\030" +
+    "\115\031\114\032\130\033\123\034\112\036\116\037\122" +
+    "\041\uffbf\045\uffbf\046\uffbf\047\uffbf\050\126\001\002\000" +
+    "\006\041\202\047\145\001\002\000\054\016\uffb5\017\uffb5" +
+    "\020\uffb5\021\uffb5\022\uffb5\023\uffb5\025\uffb5\026\uffb5\027" +
+    "\uffb5\030\uffb5\031\uffb5\032\uffb5\033\uffb5\034\uffb5\036\uffb5" +
+    "\037\uffb5\041\uffb5\045\uffb5\046\uffb5\047\uffb5\050\uffb5\001" +
+    "\002\000\046\016\131\017\117\020\125\021\111\022\124" +
+    "\023\132\025\113\026\120\027\127\030\115\031\114\032" +
+    "\130\033\123\034\112\036\116\037\122\045\204\050\126" +
+    "\001\002\000\056\016\uffbb\017\uffbb\020\uffbb\021\uffbb\022" +
+    "\uffbb\023\uffbb\025\uffbb\026\uffbb\027\uffbb\030\uffbb\031\uffbb" +
+    "\032\uffbb\033\uffbb\034\uffbb\035\205\036\uffbb\037\uffbb\041" +
+    "\uffbb\045\uffbb\046\uffbb\047\uffbb\050\uffbb\001\002\000\026" +
+    "\014\064\020\044\024\050\036\041\037\040\040\037\051" +
+    "\061\052\063\053\106\054\107\001\002\000\054\016\uffc1" +
+    "\017\117\020\125\021\111\022\124\023\132\025\113\026" +
+    "\120\027\127\030\115\031\114\032\130\033\123\034\112" +
+    "\036\116\037\122\041\uffc1\045\uffc1\046\uffc1\047\uffc1\050" +
+    "\126\001\002\000\054\016\uffbe\017\117\020\125\021\111" +
+    "\022\124\023\132\025\113\026\120\027\127\030\115\031" +
+    "\114\032\130\033\123\034\112\036\116\037\122\041\uffbe" +
+    "\045\uffbe\046\uffbe\047\uffbe\050\126\001\002\000\006\041" +
+    "\211\047\145\001\002\000\054\016\uffb7\017\uffb7\020\uffb7" +
+    "\021\uffb7\022\uffb7\023\uffb7\025\uffb7\026\uffb7\027\uffb7\030" +
+    "\uffb7\031\uffb7\032\uffb7\033\uffb7\034\uffb7\036\uffb7\037\uffb7" +
+    "\041\uffb7\045\uffb7\046\uffb7\047\uffb7\050\uffb7\001\002\000" +
+    "\046\016\131\017\117\020\125\021\111\022\124\023\132" +
+    "\025\113\026\120\027\127\030\115\031\114\032\130\033" +
+    "\123\034\112\036\116\037\122\045\213\050\126\001\002" +
+    "\000\056\016\uffba\017\uffba\020\uffba\021\uffba\022\uffba\023" +
+    "\uffba\025\uffba\026\uffba\027\uffba\030\uffba\031\uffba\032\uffba" +
+    "\033\uffba\034\uffba\035\214\036\uffba\037\uffba\041\uffba\045" +
+    "\uffba\046\uffba\047\uffba\050\uffba\001\002\000\026\014\064" +
+    "\020\044\024\050\036\041\037\040\040\037\051\061\052" +
+    "\063\053\106\054\107\001\002\000\054\016\uffc0\017\117" +
+    "\020\125\021\111\022\124\023\132\025\113\026\120\027" +
+    "\127\030\115\031\114\032\130\033\123\034\112\036\116" +
+    "\037\122\041\uffc0\045\uffc0\046\uffc0\047\uffc0\050\126\001" +
+    "\002\000\054\016\uff85\017\uff85\020\uff85\021\uff85\022\uff85" +
+    "\023\uff85\025\uff85\026\uff85\027\uff85\030\uff85\031\uff85\032" +
+    "\uff85\033\uff85\034\uff85\036\uff85\037\uff85\041\uff85\045\uff85" +
+    "\046\uff85\047\uff85\050\126\001\002\000\054\016\uff86\017" +
+    "\uff86\020\uff86\021\111\022\124\023\132\025\uff86\026\uff86" +
+    "\027\uff86\030\uff86\031\uff86\032\uff86\033\uff86\034\uff86\036" +
+    "\116\037\122\041\uff86\045\uff86\046\uff86\047\uff86\050\126" +
+    "\001\002\000\054\016\uff84\017\uff84\020\uff84\021\uff84\022" +
+    "\uff84\023\uff84\025\uff84\026\uff84\027\uff84\030\uff84\031\uff84" +
+    "\032\uff84\033\uff84\034\uff84\036\uff84\037\uff84\041\uff84\045" +
+    "\uff84\046\uff84\047\uff84\050\126\001\002\000\054\016\uff82" +
+    "\017\uff82\020\uff82\021\uff82\022\uff82\023\uff82\025\uff82\026" +
+    "\uff82\027\uff82\030\uff82\031\uff82\032\uff82\033\uff82\034\uff82" +
+    "\036\uff82\037\uff82\041\uff82\045\uff82\046\uff82\047\uff82\050" +
+    "\126\001\002\000\054\016\uffbc\017\uffbc\020\uffbc\021\uffbc" +
+    "\022\uffbc\023\uffbc\025\uffbc\026\uffbc\027\uffbc\030\uffbc\031" +
+    "\uffbc\032\uffbc\033\uffbc\034\uffbc\035\172\036\uffbc\037\uffbc" +
+    "\040\171\041\225\044\226\050\173\001\002\000\046\016" +
+    "\131\017\117\020\125\021\111\022\124\023\132\025\113" +
+    "\026\120\027\127\030\115\031\114\032\130\033\123\034" +
+    "\112\036\116\037\122\041\224\050\126\001\002\000\054" +
+    "\016\uffc2\017\uffc2\020\uffc2\021\uffc2\022\uffc2\023\uffc2\025" +
+    "\uffc2\026\uffc2\027\uffc2\030\uffc2\031\uffc2\032\uffc2\033\uffc2" +
+    "\034\uffc2\036\uffc2\037\uffc2\041\uffc2\045\uffc2\046\uffc2\047" +
+    "\uffc2\050\uffc2\001\002\000\004\040\234\001\002\000\030" +
+    "\014\064\020\044\024\050\036\041\037\040\040\037\045" +
+    "\227\051\061\052\063\053\106\054\107\001\002\000\004" +
+    "\041\230\001\002\000\004\040\231\001\002\000\026\014" +
+    "\064\020\044\024\050\036\041\037\040\040\037\051\061" +
+    "\052\063\053\106\054\107\001\002\000\046\016\131\017" +
+    "\117\020\125\021\111\022\124\023\132\025\113\026\120" +
+    "\027\127\030\115\031\114\032\130\033\123\034\112\036" +
+    "\116\037\122\041\233\050\126\001\002\000\054\016\uffae" +
+    "\017\uffae\020\uffae\021\uffae\022\uffae\023\uffae\025\uffae\026" +
+    "\uffae\027\uffae\030\uffae\031\uffae\032\uffae\033\uffae\034\uffae" +
+    "\036\uffae\037\uffae\041\uffae\045\uffae\046\uffae\047\uffae\050" +
+    "\uffae\001\002\000\026\014\064\020\044\024\050\036\041" +
+    "\037\040\040\037\051\061\052\063\053\106\054\107\001" +
+    "\002\000\046\016\131\017\117\020\125\021\111\022\124" +
+    "\023\132\025\113\026\120\027\127\030\115\031\114\032" +
+    "\130\033\123\034\112\036\116\037\122\041\236\050\126" +
+    "\001\002\000\054\016\uffaf\017\uffaf\020\uffaf\021\uffaf\022" +
+    "\uffaf\023\uffaf\025\uffaf\026\uffaf\027\uffaf\030\uffaf\031\uffaf" +
+    "\032\uffaf\033\uffaf\034\uffaf\036\uffaf\037\uffaf\041\uffaf\045" +
+    "\uffaf\046\uffaf\047\uffaf\050\uffaf\001\002\000\006\044\364" +
+    "\051\363\001\002\000\006\041\243\047\242\001\002\000" +
+    "\006\041\ufff0\047\ufff0\001\002\000\004\051\237\001\002" +
+    "\000\004\042\244\001\002\000\044\007\251\011\263\012" +
+    "\246\013\260\014\064\015\255\020\044\024\050\036\041" +
+    "\037\040\040\037\042\262\043\uffcf\051\252\052\063\053" +
+    "\106\054\107\001\002\000\046\007\uffe7\010\uffe7\011\uffe7" +
+    "\012\uffe7\013\uffe7\014\uffe7\015\uffe7\020\uffe7\024\uffe7\036" +
+    "\uffe7\037\uffe7\040\uffe7\042\uffe7\043\uffe7\051\uffe7\052\uffe7" +
+    "\053\uffe7\054\uffe7\001\002\000\004\040\324\001\002\000" +
+    "\046\007\uffe6\010\uffe6\011\uffe6\012\uffe6\013\uffe6\014\uffe6" +
+    "\015\uffe6\020\uffe6\024\uffe6\036\uffe6\037\uffe6\040\uffe6\042" +
+    "\uffe6\043\uffe6\051\uffe6\052\uffe6\053\uffe6\054\uffe6\001\002" +
+    "\000\046\007\uffe5\010\uffe5\011\uffe5\012\uffe5\013\uffe5\014" +
+    "\uffe5\015\uffe5\020\uffe5\024\uffe5\036\uffe5\037\uffe5\040\uffe5" +
+    "\042\uffe5\043\uffe5\051\uffe5\052\uffe5\053\uffe5\054\uffe5\001" +
+    "\002\000\004\040\316\001\002\000\056\016\uffbc\017\uffbc" +
+    "\020\uffbc\021\uffbc\022\uffbc\023\uffbc\025\uffbc\026\uffbc\027" +
+    "\uffbc\030\uffbc\031\uffbc\032\uffbc\033\uffbc\034\uffbc\035\172" +
+    "\036\uffbc\037\uffbc\040\171\044\305\046\uffbc\050\173\051" +
+    "\304\001\002\000\046\007\uffea\010\uffea\011\uffea\012\uffea" +
+    "\013\uffea\014\uffea\015\uffea\020\uffea\024\uffea\036\uffea\037" +
+    "\uffea\040\uffea\042\uffea\043\uffea\051\uffea\052\uffea\053\uffea" +
+    "\054\uffea\001\002\000\046\007\uffe4\010\uffe4\011\uffe4\012" +
+    "\uffe4\013\uffe4\014\uffe4\015\uffe4\020\uffe4\024\uffe4\036\uffe4" +
+    "\037\uffe4\040\uffe4\042\uffe4\043\uffe4\051\uffe4\052\uffe4\053" +
+    "\uffe4\054\uffe4\001\002\000\030\014\064\020\044\024\050" +
+    "\036\041\037\040\040\037\046\301\051\061\052\063\053" +
+    "\106\054\107\001\002\000\046\007\uffeb\010\uffeb\011\uffeb" +
+    "\012\uffeb\013\uffeb\014\uffeb\015\uffeb\020\uffeb\024\uffeb\036" +
+    "\uffeb\037\uffeb\040\uffeb\042\uffeb\043\uffeb\051\uffeb\052\uffeb" +
+    "\053\uffeb\054\uffeb\001\002\000\046\007\uffe8\010\uffe8\011" +
+    "\uffe8\012\uffe8\013\uffe8\014\uffe8\015\uffe8\020\uffe8\024\uffe8" +
+    "\036\uffe8\037\uffe8\040\uffe8\042\uffe8\043\uffe8\051\uffe8\052" +
+    "\uffe8\053\uffe8\054\uffe8\001\002\000\004\046\300\001\002" +
+    "\000\044\007\251\011\263\012\246\013\260\014\064\015" +
+    "\255\020\044\024\050\036\041\037\040\040\037\042\262" +
+    "\043\277\051\252\052\063\053\106\054\107\001\002\000" +
+    "\044\007\251\011\263\012\246\013\260\014\064\015\255" +
+    "\020\044\024\050\036\041\037\040\040\037\042\262\043" +
+    "\uffcf\051\252\052\063\053\106\054\107\001\002\000\004" +
+    "\040\270\001\002\000\046\016\131\017\117\020\125\021" +
+    "\111\022\124\023\132\025\113\026\120\027\127\030\115" +
+    "\031\114\032\130\033\123\034\112\036\116\037\122\046" +
+    "\267\050\126\001\002\000\046\007\uffe9\010\uffe9\011\uffe9" +
+    "\012\uffe9\013\uffe9\014\uffe9\015\uffe9\020\uffe9\024\uffe9\036" +
+    "\uffe9\037\uffe9\040\uffe9\042\uffe9\043\uffe9\051\uffe9\052\uffe9" +
+    "\053\uffe9\054\uffe9\001\002\000\044\007\uffd1\011\uffd1\012" +
+    "\uffd1\013\uffd1\014\uffd1\015\uffd1\020\uffd1\024\uffd1\036\uffd1" +
+    "\037\uffd1\040\uffd1\042\uffd1\043\uffd1\051\uffd1\052\uffd1\053" +
+    "\uffd1\054\uffd1\001\002\000\046\007\uffe3\010\uffe3\011\uffe3" +
+    "\012\uffe3\013\uffe3\014\uffe3\015\uffe3\020\uffe3\024\uffe3\036" +
+    "\uffe3\037\uffe3\040\uffe3\042\uffe3\043\uffe3\051\uffe3\052\uffe3" +
+    "\053\uffe3\054\uffe3\001\002\000\026\014\064\020\044\024" +
+    "\050\036\041\037\040\040\037\051\061\052\063\053\106" +
+    "\054\107\001\002\000\046\016\131\017\117\020\125\021" +
+    "\111\022\124\023\132\025\113\026\120\027\127\030\115" +
+    "\031\114\032\130\033\123\034\112\036\116\037\122\041" +
+    "\272\050\126\001\002\000\042\007\251\011\263\012\246" +
+    "\013\260\014\064\015\255\020\044\024\050\036\041\037" +
+    "\040\040\037\042\262\051\252\052\063\053\106\054\107" +
+    "\001\002\000\046\007\uffde\010\uffde\011\uffde\012\uffde\013" +
+    "\uffde\014\uffde\015\uffde\020\uffde\024\uffde\036\uffde\037\uffde" +
+    "\040\uffde\042\uffde\043\uffde\051\uffde\052\uffde\053\uffde\054" +
+    "\uffde\001\002\000\044\007\251\011\263\012\246\013\260" +
+    "\014\064\015\255\020\044\024\050\036\041\037\040\040" +
+    "\037\042\262\043\275\051\252\052\063\053\106\054\107" +
+    "\001\002\000\046\007\uffd2\010\uffd2\011\uffd2\012\uffd2\013" +
+    "\uffd2\014\uffd2\015\uffd2\020\uffd2\024\uffd2\036\uffd2\037\uffd2" +
+    "\040\uffd2\042\uffd2\043\uffd2\051\uffd2\052\uffd2\053\uffd2\054" +
+    "\uffd2\001\002\000\044\007\uffd0\011\uffd0\012\uffd0\013\uffd0" +
+    "\014\uffd0\015\uffd0\020\uffd0\024\uffd0\036\uffd0\037\uffd0\040" +
+    "\uffd0\042\uffd0\043\uffd0\051\uffd0\052\uffd0\053\uffd0\054\uffd0" +
+    "\001\002\000\006\043\ufff5\051\ufff5\001\002\000\046\007" +
+    "\uffd5\010\uffd5\011\uffd5\012\uffd5\013\uffd5\014\uffd5\015\uffd5" +
+    "\020\uffd5\024\uffd5\036\uffd5\037\uffd5\040\uffd5\042\uffd5\043" +
+    "\uffd5\051\uffd5\052\uffd5\053\uffd5\054\uffd5\001\002\000\046" +
+    "\007\uffd4\010\uffd4\011\uffd4\012\uffd4\013\uffd4\014\uffd4\015" +
+    "\uffd4\020\uffd4\024\uffd4\036\uffd4\037\uffd4\040\uffd4\042\uffd4" +
+    "\043\uffd4\051\uffd4\052\uffd4\053\uffd4\054\uffd4\001\002\000" +
+    "\046\016\131\017\117\020\125\021\111\022\124\023\132" +
+    "\025\113\026\120\027\127\030\115\031\114\032\130\033" +
+    "\123\034\112\036\116\037\122\046\303\050\126\001\002" +
+    "\000\046\007\uffd3\010\uffd3\011\uffd3\012\uffd3\013\uffd3\014" +
+    "\uffd3\015\uffd3\020\uffd3\024\uffd3\036\uffd3\037\uffd3\040\uffd3" +
+    "\042\uffd3\043\uffd3\051\uffd3\052\uffd3\053\uffd3\054\uffd3\001" +
+    "\002\000\004\035\313\001\002\000\030\014\064\020\044" +
+    "\024\050\036\041\037\040\040\037\045\306\051\061\052" +
+    "\063\053\106\054\107\001\002\000\004\051\307\001\002" +
+    "\000\004\035\310\001\002\000\026\014\064\020\044\024" +
+    "\050\036\041\037\040\040\037\051\061\052\063\053\106" +
+    "\054\107\001\002\000\046\016\131\017\117\020\125\021" +
+    "\111\022\124\023\132\025\113\026\120\027\127\030\115" +
+    "\031\114\032\130\033\123\034\112\036\116\037\122\046" +
+    "\312\050\126\001\002\000\046\007\uffe1\010\uffe1\011\uffe1" +
+    "\012\uffe1\013\uffe1\014\uffe1\015\uffe1\020\uffe1\024\uffe1\036" +
+    "\uffe1\037\uffe1\040\uffe1\042\uffe1\043\uffe1\051\uffe1\052\uffe1" +
+    "\053\uffe1\054\uffe1\001\002\000\026\014\064\020\044\024" +
+    "\050\036\041\037\040\040\037\051\061\052\063\053\106" +
+    "\054\107\001\002\000\046\016\131\017\117\020\125\021" +
+    "\111\022\124\023\132\025\113\026\120\027\127\030\115" +
+    "\031\114\032\130\033\123\034\112\036\116\037\122\046" +
+    "\315\050\126\001\002\000\046\007\uffe2\010\uffe2\011\uffe2" +
+    "\012\uffe2\013\uffe2\014\uffe2\015\uffe2\020\uffe2\024\uffe2\036" +
+    "\uffe2\037\uffe2\040\uffe2\042\uffe2\043\uffe2\051\uffe2\052\uffe2" +
+    "\053\uffe2\054\uffe2\001\002\000\026\014\064\020\044\024" +
+    "\050\036\041\037\040\040\037\051\061\052\063\053\106" +
+    "\054\107\001\002\000\046\016\131\017\117\020\125\021" +
+    "\111\022\124\023\132\025\113\026\120\027\127\030\115" +
+    "\031\114\032\130\033\123\034\112\036\116\037\122\041" +
+    "\320\050\126\001\002\000\042\007\251\011\263\012\246" +
+    "\013\260\014\064\015\255\020\044\024\050\036\041\037" +
+    "\040\040\037\042\262\051\252\052\063\053\106\054\107" +
+    "\001\002\000\046\007\uffe0\010\322\011\uffe0\012\uffe0\013" +
+    "\uffe0\014\uffe0\015\uffe0\020\uffe0\024\uffe0\036\uffe0\037\uffe0" +
+    "\040\uffe0\042\uffe0\043\uffe0\051\uffe0\052\uffe0\053\uffe0\054" +
+    "\uffe0\001\002\000\042\007\251\011\263\012\246\013\260" +
+    "\014\064\015\255\020\044\024\050\036\041\037\040\040" +
+    "\037\042\262\051\252\052\063\053\106\054\107\001\002" +
+    "\000\046\007\uffdf\010\uffdf\011\uffdf\012\uffdf\013\uffdf\014" +
+    "\uffdf\015\uffdf\020\uffdf\024\uffdf\036\uffdf\037\uffdf\040\uffdf" +
+    "\042\uffdf\043\uffdf\051\uffdf\052\uffdf\053\uffdf\054\uffdf\001" +
+    "\002\000\030\014\064\020\044\024\050\036\041\037\040" +
+    "\040\037\046\325\051\061\052\063\053\106\054\107\001" +
+    "\002\000\030\014\064\020\044\024\050\036\041\037\040" +
+    "\040\037\046\345\051\061\052\063\053\106\054\107\001" +
+    "\002\000\046\016\131\017\117\020\125\021\111\022\124" +
+    "\023\132\025\113\026\120\027\127\030\115\031\114\032" +
+    "\130\033\123\034\112\036\116\037\122\046\327\050\126" +
+    "\001\002\000\030\014\064\020\044\024\050\036\041\037" +
+    "\040\040\037\046\330\051\061\052\063\053\106\054\107" +
+    "\001\002\000\030\014\064\020\044\024\050\036\041\037" +
+    "\040\040\037\041\340\051\061\052\063\053\106\054\107" +
+    "\001\002\000\046\016\131\017\117\020\125\021\111\022" +
+    "\124\023\132\025\113\026\120\027\127\030\115\031\114" +
+    "\032\130\033\123\034\112\036\116\037\122\046\332\050" +
+    "\126\001\002\000\030\014\064\020\044\024\050\036\041" +
+    "\037\040\040\037\041\333\051\061\052\063\053\106\054" +
+    "\107\001\002\000\042\007\251\011\263\012\246\013\260" +
+    "\014\064\015\255\020\044\024\050\036\041\037\040\040" +
+    "\037\042\262\051\252\052\063\053\106\054\107\001\002" +
+    "\000\046\016\131\017\117\020\125\021\111\022\124\023" +
+    "\132\025\113\026\120\027\127\030\115\031\114\032\130" +
+    "\033\123\034\112\036\116\037\122\041\335\050\126\001" +
+    "\002\000\042\007\251\011\263\012\246\013\260\014\064" +
+    "\015\255\020\044\024\050\036\041\037\040\040\037\042" +
+    "\262\051\252\052\063\053\106\054\107\001\002\000\046" +
+    "\007\uffdc\010\uffdc\011\uffdc\012\uffdc\013\uffdc\014\uffdc\015" +
+    "\uffdc\020\uffdc\024\uffdc\036\uffdc\037\uffdc\040\uffdc\042\uffdc" +
+    "\043\uffdc\051\uffdc\052\uffdc\053\uffdc\054\uffdc\001\002\000" +
+    "\046\007\uffd6\010\uffd6\011\uffd6\012\uffd6\013\uffd6\014\uffd6" +
+    "\015\uffd6\020\uffd6\024\uffd6\036\uffd6\037\uffd6\040\uffd6\042" +
+    "\uffd6\043\uffd6\051\uffd6\052\uffd6\053\uffd6\054\uffd6\001\002" +
+    "\000\042\007\251\011\263\012\246\013\260\014\064\015" +
+    "\255\020\044\024\050\036\041\037\040\040\037\042\262" +
+    "\051\252\052\063\053\106\054\107\001\002\000\046\016" +
+    "\131\017\117\020\125\021\111\022\124\023\132\025\113" +
+    "\026\120\027\127\030\115\031\114\032\130\033\123\034" +
+    "\112\036\116\037\122\041\342\050\126\001\002\000\042" +
+    "\007\251\011\263\012\246\013\260\014\064\015\255\020" +
+    "\044\024\050\036\041\037\040\040\037\042\262\051\252" +
+    "\052\063\053\106\054\107\001\002\000\046\007\uffd7\010" +
+    "\uffd7\011\uffd7\012\uffd7\013\uffd7\014\uffd7\015\uffd7\020\uffd7" +
+    "\024\uffd7\036\uffd7\037\uffd7\040\uffd7\042\uffd7\043\uffd7\051" +
+    "\uffd7\052\uffd7\053\uffd7\054\uffd7\001\002\000\046\007\uffd9" +
+    "\010\uffd9\011\uffd9\012\uffd9\013\uffd9\014\uffd9\015\uffd9\020" +
+    "\uffd9\024\uffd9\036\uffd9\037\uffd9\040\uffd9\042\uffd9\043\uffd9" +
+    "\051\uffd9\052\uffd9\053\uffd9\054\uffd9\001\002\000\030\014" +
+    "\064\020\044\024\050\036\041\037\040\040\037\041\355" +
+    "\051\061\052\063\053\106\054\107\001\002\000\046\016" +
+    "\131\017\117\020\125\021\111\022\124\023\132\025\113" +
+    "\026\120\027\127\030\115\031\114\032\130\033\123\034" +
+    "\112\036\116\037\122\046\347\050\126\001\002\000\030" +
+    "\014\064\020\044\024\050\036\041\037\040\040\037\041" +
+    "\350\051\061\052\063\053\106\054\107\001\002\000\042" +
+    "\007\251\011\263\012\246\013\260\014\064\015\255\020" +
+    "\044\024\050\036\041\037\040\040\037\042\262\051\252" +
+    "\052\063\053\106\054\107\001\002\000\046\016\131\017" +
+    "\117\020\125\021\111\022\124\023\132\025\113\026\120" +
+    "\027\127\030\115\031\114\032\130\033\123\034\112\036" +
+    "\116\037\122\041\352\050\126\001\002\000\042\007\251" +
+    "\011\263\012\246\013\260\014\064\015\255\020\044\024" +
+    "\050\036\041\037\040\040\037\042\262\051\252\052\063" +
+    "\053\106\054\107\001\002\000\046\007\uffda\010\uffda\011" +
+    "\uffda\012\uffda\013\uffda\014\uffda\015\uffda\020\uffda\024\uffda" +
+    "\036\uffda\037\uffda\040\uffda\042\uffda\043\uffda\051\uffda\052" +
+    "\uffda\053\uffda\054\uffda\001\002\000\046\007\uffd8\010\uffd8" +
+    "\011\uffd8\012\uffd8\013\uffd8\014\uffd8\015\uffd8\020\uffd8\024" +
+    "\uffd8\036\uffd8\037\uffd8\040\uffd8\042\uffd8\043\uffd8\051\uffd8" +
+    "\052\uffd8\053\uffd8\054\uffd8\001\002\000\042\007\251\011" +
+    "\263\012\246\013\260\014\064\015\255\020\044\024\050" +
+    "\036\041\037\040\040\037\042\262\051\252\052\063\053" +
+    "\106\054\107\001\002\000\046\016\131\017\117\020\125" +
+    "\021\111\022\124\023\132\025\113\026\120\027\127\030" +
+    "\115\031\114\032\130\033\123\034\112\036\116\037\122" +
+    "\041\357\050\126\001\002\000\042\007\251\011\263\012" +
+    "\246\013\260\014\064\015\255\020\044\024\050\036\041" +
+    "\037\040\040\037\042\262\051\252\052\063\053\106\054" +
+    "\107\001\002\000\046\007\uffdb\010\uffdb\011\uffdb\012\uffdb" +
+    "\013\uffdb\014\uffdb\015\uffdb\020\uffdb\024\uffdb\036\uffdb\037" +
+    "\uffdb\040\uffdb\042\uffdb\043\uffdb\051\uffdb\052\uffdb\053\uffdb" +
+    "\054\uffdb\001\002\000\046\007\uffdd\010\uffdd\011\uffdd\012" +
+    "\uffdd\013\uffdd\014\uffdd\015\uffdd\020\uffdd\024\uffdd\036\uffdd" +
+    "\037\uffdd\040\uffdd\042\uffdd\043\uffdd\051\uffdd\052\uffdd\053" +
+    "\uffdd\054\uffdd\001\002\000\006\041\uffef\047\uffef\001\002" +
+    "\000\006\041\uffed\047\uffed\001\002\000\004\045\365\001" +
+    "\002\000\004\051\366\001\002\000\006\041\uffec\047\uffec" +
+    "\001\002\000\006\043\ufff4\051\ufff4\001\002\000\010\041" +
+    "\uffee\047\uffee\051\237\001\002\000\026\014\064\020\044" +
+    "\024\050\036\041\037\040\040\037\051\061\052\063\053" +
+    "\106\054\107\001\002\000\046\016\131\017\117\020\125" +
+    "\021\111\022\124\023\132\025\113\026\120\027\127\030" +
+    "\115\031\114\032\130\033\123\034\112\036\116\037\122" +
+    "\046\373\050\126\001\002\000\006\043\ufff3\051\ufff3\001" +
+    "\002\000\006\041\375\047\242\001\002\000\004\042\376" +
+    "\001\002\000\044\007\251\011\263\012\246\013\260\014" +
+    "\064\015\255\020\044\024\050\036\041\037\040\040\037" +
+    "\042\262\043\uffcf\051\252\052\063\053\106\054\107\001" +
+    "\002\000\044\007\251\011\263\012\246\013\260\014\064" +
+    "\015\255\020\044\024\050\036\041\037\040\040\037\042" +
+    "\262\043\u0100\051\252\052\063\053\106\054\107\001\002" +
+    "\000\006\043\ufff6\051\ufff6\001\002\000\006\043\u0102\051" +
+    "\015\001\002\000\006\002\ufffd\005\ufffd\001\002\000\004" +
+    "\002\000\001\002\000\006\002\ufffe\005\ufffe\001\002" });
 
   /** Access to parse-action table. */
   public short[][] action_table() {return _action_table;}
@@ -68,14 +684,469 @@ public class Parser extends java_cup.runtime.lr_parser {
   /** <code>reduce_goto</code> table. */
   protected static final short[][] _reduce_table = 
     unpackFromStrings(new String[] {
-    "\000\022\000\010\003\004\004\003\005\005\001\001\000" +
-    "\004\005\023\001\001\000\002\001\001\000\002\001\001" +
-    "\000\002\001\001\000\002\001\001\000\006\006\020\007" +
-    "\015\001\001\000\002\001\001\000\002\001\001\000\006" +
-    "\006\014\007\015\001\001\000\004\007\017\001\001\000" +
-    "\002\001\001\000\002\001\001\000\002\001\001\000\004" +
-    "\007\017\001\001\000\002\001\001\000\002\001\001\000" +
-    "\002\001\001" });
+    "\000\u0102\000\010\003\004\004\003\005\005\001\001\000" +
+    "\004\005\u0103\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\012\006\u0100\007" +
+    "\017\010\020\011\016\001\001\000\002\001\001\000\002" +
+    "\001\001\000\012\006\015\007\017\010\020\011\016\001" +
+    "\001\000\002\001\001\000\010\007\022\010\020\011\016" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\002\001\001\000\006\012\237\013\240\001\001\000\112" +
+    "\026\101\027\045\030\046\031\032\032\077\033\055\034" +
+    "\075\035\070\036\050\037\053\040\033\041\034\042\100" +
+    "\043\057\044\071\045\042\046\061\047\056\050\035\051" +
+    "\072\052\076\053\067\054\052\055\064\056\065\057\103" +
+    "\060\107\061\041\062\074\063\073\064\104\065\051\066" +
+    "\102\067\066\070\044\071\054\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\112\026\222\027\045\030\046\031\032\032\077\033\055" +
+    "\034\075\035\070\036\050\037\053\040\033\041\034\042" +
+    "\100\043\057\044\071\045\042\046\061\047\056\050\035" +
+    "\051\072\052\076\053\067\054\052\055\064\056\065\057" +
+    "\103\060\107\061\041\062\074\063\073\064\104\065\051" +
+    "\066\102\067\066\070\044\071\054\001\001\000\112\026" +
+    "\220\027\045\030\046\031\032\032\077\033\055\034\075" +
+    "\035\070\036\050\037\053\040\033\041\034\042\100\043" +
+    "\057\044\071\045\042\046\061\047\056\050\035\051\072" +
+    "\052\076\053\067\054\052\055\064\056\065\057\103\060" +
+    "\107\061\041\062\074\063\073\064\104\065\051\066\102" +
+    "\067\066\070\044\071\054\001\001\000\112\026\217\027" +
+    "\045\030\046\031\032\032\077\033\055\034\075\035\070" +
+    "\036\050\037\053\040\033\041\034\042\100\043\057\044" +
+    "\071\045\042\046\061\047\056\050\035\051\072\052\076" +
+    "\053\067\054\052\055\064\056\065\057\103\060\107\061" +
+    "\041\062\074\063\073\064\104\065\051\066\102\067\066" +
+    "\070\044\071\054\001\001\000\002\001\001\000\002\001" +
+    "\001\000\112\026\216\027\045\030\046\031\032\032\077" +
+    "\033\055\034\075\035\070\036\050\037\053\040\033\041" +
+    "\034\042\100\043\057\044\071\045\042\046\061\047\056" +
+    "\050\035\051\072\052\076\053\067\054\052\055\064\056" +
+    "\065\057\103\060\107\061\041\062\074\063\073\064\104" +
+    "\065\051\066\102\067\066\070\044\071\054\001\001\000" +
+    "\002\001\001\000\002\001\001\000\002\001\001\000\112" +
+    "\026\215\027\045\030\046\031\032\032\077\033\055\034" +
+    "\075\035\070\036\050\037\053\040\033\041\034\042\100" +
+    "\043\057\044\071\045\042\046\061\047\056\050\035\051" +
+    "\072\052\076\053\067\054\052\055\064\056\065\057\103" +
+    "\060\107\061\041\062\074\063\073\064\104\065\051\066" +
+    "\102\067\066\070\044\071\054\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\002\001\001\000\002\001\001\000\002\001\001\000\002" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\002\001\001\000\002\001\001\000\002\001\001\000\002" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\002\001\001\000\002\001\001\000\112\026\160\027\045" +
+    "\030\046\031\032\032\077\033\055\034\075\035\070\036" +
+    "\050\037\053\040\033\041\034\042\100\043\057\044\071" +
+    "\045\042\046\061\047\056\050\035\051\072\052\076\053" +
+    "\067\054\052\055\064\056\065\057\103\060\107\061\041" +
+    "\062\074\063\073\064\104\065\051\066\102\067\066\070" +
+    "\044\071\054\001\001\000\112\026\157\027\045\030\046" +
+    "\031\032\032\077\033\055\034\075\035\070\036\050\037" +
+    "\053\040\033\041\034\042\100\043\057\044\071\045\042" +
+    "\046\061\047\056\050\035\051\072\052\076\053\067\054" +
+    "\052\055\064\056\065\057\103\060\107\061\041\062\074" +
+    "\063\073\064\104\065\051\066\102\067\066\070\044\071" +
+    "\054\001\001\000\112\026\156\027\045\030\046\031\032" +
+    "\032\077\033\055\034\075\035\070\036\050\037\053\040" +
+    "\033\041\034\042\100\043\057\044\071\045\042\046\061" +
+    "\047\056\050\035\051\072\052\076\053\067\054\052\055" +
+    "\064\056\065\057\103\060\107\061\041\062\074\063\073" +
+    "\064\104\065\051\066\102\067\066\070\044\071\054\001" +
+    "\001\000\112\026\155\027\045\030\046\031\032\032\077" +
+    "\033\055\034\075\035\070\036\050\037\053\040\033\041" +
+    "\034\042\100\043\057\044\071\045\042\046\061\047\056" +
+    "\050\035\051\072\052\076\053\067\054\052\055\064\056" +
+    "\065\057\103\060\107\061\041\062\074\063\073\064\104" +
+    "\065\051\066\102\067\066\070\044\071\054\001\001\000" +
+    "\112\026\154\027\045\030\046\031\032\032\077\033\055" +
+    "\034\075\035\070\036\050\037\053\040\033\041\034\042" +
+    "\100\043\057\044\071\045\042\046\061\047\056\050\035" +
+    "\051\072\052\076\053\067\054\052\055\064\056\065\057" +
+    "\103\060\107\061\041\062\074\063\073\064\104\065\051" +
+    "\066\102\067\066\070\044\071\054\001\001\000\002\001" +
+    "\001\000\112\026\153\027\045\030\046\031\032\032\077" +
+    "\033\055\034\075\035\070\036\050\037\053\040\033\041" +
+    "\034\042\100\043\057\044\071\045\042\046\061\047\056" +
+    "\050\035\051\072\052\076\053\067\054\052\055\064\056" +
+    "\065\057\103\060\107\061\041\062\074\063\073\064\104" +
+    "\065\051\066\102\067\066\070\044\071\054\001\001\000" +
+    "\112\026\152\027\045\030\046\031\032\032\077\033\055" +
+    "\034\075\035\070\036\050\037\053\040\033\041\034\042" +
+    "\100\043\057\044\071\045\042\046\061\047\056\050\035" +
+    "\051\072\052\076\053\067\054\052\055\064\056\065\057" +
+    "\103\060\107\061\041\062\074\063\073\064\104\065\051" +
+    "\066\102\067\066\070\044\071\054\001\001\000\002\001" +
+    "\001\000\002\001\001\000\112\026\151\027\045\030\046" +
+    "\031\032\032\077\033\055\034\075\035\070\036\050\037" +
+    "\053\040\033\041\034\042\100\043\057\044\071\045\042" +
+    "\046\061\047\056\050\035\051\072\052\076\053\067\054" +
+    "\052\055\064\056\065\057\103\060\107\061\041\062\074" +
+    "\063\073\064\104\065\051\066\102\067\066\070\044\071" +
+    "\054\001\001\000\112\026\150\027\045\030\046\031\032" +
+    "\032\077\033\055\034\075\035\070\036\050\037\053\040" +
+    "\033\041\034\042\100\043\057\044\071\045\042\046\061" +
+    "\047\056\050\035\051\072\052\076\053\067\054\052\055" +
+    "\064\056\065\057\103\060\107\061\041\062\074\063\073" +
+    "\064\104\065\051\066\102\067\066\070\044\071\054\001" +
+    "\001\000\112\026\147\027\045\030\046\031\032\032\077" +
+    "\033\055\034\075\035\070\036\050\037\053\040\033\041" +
+    "\034\042\100\043\057\044\071\045\042\046\061\047\056" +
+    "\050\035\051\072\052\076\053\067\054\052\055\064\056" +
+    "\065\057\103\060\107\061\041\062\074\063\073\064\104" +
+    "\065\051\066\102\067\066\070\044\071\054\001\001\000" +
+    "\002\001\001\000\112\026\137\027\045\030\046\031\032" +
+    "\032\077\033\055\034\075\035\070\036\050\037\053\040" +
+    "\033\041\034\042\100\043\057\044\071\045\042\046\061" +
+    "\047\056\050\035\051\072\052\076\053\067\054\052\055" +
+    "\064\056\065\057\103\060\107\061\041\062\074\063\073" +
+    "\064\104\065\051\066\102\067\066\070\044\071\054\001" +
+    "\001\000\112\026\136\027\045\030\046\031\032\032\077" +
+    "\033\055\034\075\035\070\036\050\037\053\040\033\041" +
+    "\034\042\100\043\057\044\071\045\042\046\061\047\056" +
+    "\050\035\051\072\052\076\053\067\054\052\055\064\056" +
+    "\065\057\103\060\107\061\041\062\074\063\073\064\104" +
+    "\065\051\066\102\067\066\070\044\071\054\001\001\000" +
+    "\002\001\001\000\112\026\132\027\045\030\046\031\032" +
+    "\032\077\033\055\034\075\035\070\036\050\037\053\040" +
+    "\033\041\034\042\100\043\057\044\071\045\042\046\061" +
+    "\047\056\050\035\051\072\052\076\053\067\054\052\055" +
+    "\064\056\065\057\103\060\107\061\041\062\074\063\073" +
+    "\064\104\065\051\066\102\067\066\070\044\071\054\001" +
+    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\002\001\001\000\114\026\142\027\045\030\046\031\032" +
+    "\032\077\033\055\034\075\035\070\036\050\037\053\040" +
+    "\033\041\034\042\100\043\057\044\071\045\042\046\061" +
+    "\047\056\050\035\051\072\052\076\053\067\054\052\055" +
+    "\064\056\065\057\103\060\107\061\041\062\074\063\073" +
+    "\064\104\065\051\066\102\067\066\070\044\071\054\072" +
+    "\143\001\001\000\002\001\001\000\002\001\001\000\112" +
+    "\026\146\027\045\030\046\031\032\032\077\033\055\034" +
+    "\075\035\070\036\050\037\053\040\033\041\034\042\100" +
+    "\043\057\044\071\045\042\046\061\047\056\050\035\051" +
+    "\072\052\076\053\067\054\052\055\064\056\065\057\103" +
+    "\060\107\061\041\062\074\063\073\064\104\065\051\066" +
+    "\102\067\066\070\044\071\054\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\002\001\001\000\002\001\001\000\002\001\001\000\002" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\002\001\001\000\112\026\165" +
+    "\027\045\030\046\031\032\032\077\033\055\034\075\035" +
+    "\070\036\050\037\053\040\033\041\034\042\100\043\057" +
+    "\044\071\045\042\046\061\047\056\050\035\051\072\052" +
+    "\076\053\067\054\052\055\064\056\065\057\103\060\107" +
+    "\061\041\062\074\063\073\064\104\065\051\066\102\067" +
+    "\066\070\044\071\054\001\001\000\002\001\001\000\002" +
+    "\001\001\000\002\001\001\000\002\001\001\000\112\026" +
+    "\211\027\045\030\046\031\032\032\077\033\055\034\075" +
+    "\035\070\036\050\037\053\040\033\041\034\042\100\043" +
+    "\057\044\071\045\042\046\061\047\056\050\035\051\072" +
+    "\052\076\053\067\054\052\055\064\056\065\057\103\060" +
+    "\107\061\041\062\074\063\073\064\104\065\051\066\102" +
+    "\067\066\070\044\071\054\001\001\000\114\026\142\027" +
+    "\045\030\046\031\032\032\077\033\055\034\075\035\070" +
+    "\036\050\037\053\040\033\041\034\042\100\043\057\044" +
+    "\071\045\042\046\061\047\056\050\035\051\072\052\076" +
+    "\053\067\054\052\055\064\056\065\057\103\060\107\061" +
+    "\041\062\074\063\073\064\104\065\051\066\102\067\066" +
+    "\070\044\071\054\072\207\001\001\000\112\026\206\027" +
+    "\045\030\046\031\032\032\077\033\055\034\075\035\070" +
+    "\036\050\037\053\040\033\041\034\042\100\043\057\044" +
+    "\071\045\042\046\061\047\056\050\035\051\072\052\076" +
+    "\053\067\054\052\055\064\056\065\057\103\060\107\061" +
+    "\041\062\074\063\073\064\104\065\051\066\102\067\066" +
+    "\070\044\071\054\001\001\000\002\001\001\000\002\001" +
+    "\001\000\112\026\202\027\045\030\046\031\032\032\077" +
+    "\033\055\034\075\035\070\036\050\037\053\040\033\041" +
+    "\034\042\100\043\057\044\071\045\042\046\061\047\056" +
+    "\050\035\051\072\052\076\053\067\054\052\055\064\056" +
+    "\065\057\103\060\107\061\041\062\074\063\073\064\104" +
+    "\065\051\066\102\067\066\070\044\071\054\001\001\000" +
+    "\114\026\142\027\045\030\046\031\032\032\077\033\055" +
+    "\034\075\035\070\036\050\037\053\040\033\041\034\042" +
+    "\100\043\057\044\071\045\042\046\061\047\056\050\035" +
+    "\051\072\052\076\053\067\054\052\055\064\056\065\057" +
+    "\103\060\107\061\041\062\074\063\073\064\104\065\051" +
+    "\066\102\067\066\070\044\071\054\072\200\001\001\000" +
+    "\112\026\177\027\045\030\046\031\032\032\077\033\055" +
+    "\034\075\035\070\036\050\037\053\040\033\041\034\042" +
+    "\100\043\057\044\071\045\042\046\061\047\056\050\035" +
+    "\051\072\052\076\053\067\054\052\055\064\056\065\057" +
+    "\103\060\107\061\041\062\074\063\073\064\104\065\051" +
+    "\066\102\067\066\070\044\071\054\001\001\000\002\001" +
+    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\112\026\205\027\045\030\046\031" +
+    "\032\032\077\033\055\034\075\035\070\036\050\037\053" +
+    "\040\033\041\034\042\100\043\057\044\071\045\042\046" +
+    "\061\047\056\050\035\051\072\052\076\053\067\054\052" +
+    "\055\064\056\065\057\103\060\107\061\041\062\074\063" +
+    "\073\064\104\065\051\066\102\067\066\070\044\071\054" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
+    "\000\112\026\214\027\045\030\046\031\032\032\077\033" +
+    "\055\034\075\035\070\036\050\037\053\040\033\041\034" +
+    "\042\100\043\057\044\071\045\042\046\061\047\056\050" +
+    "\035\051\072\052\076\053\067\054\052\055\064\056\065" +
+    "\057\103\060\107\061\041\062\074\063\073\064\104\065" +
+    "\051\066\102\067\066\070\044\071\054\001\001\000\002" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\112\026\211\027" +
+    "\045\030\046\031\032\032\077\033\055\034\075\035\070" +
+    "\036\050\037\053\040\033\041\034\042\100\043\057\044" +
+    "\071\045\042\046\061\047\056\050\035\051\072\052\076" +
+    "\053\067\054\052\055\064\056\065\057\103\060\107\061" +
+    "\041\062\074\063\073\064\104\065\051\066\102\067\066" +
+    "\070\044\071\054\001\001\000\002\001\001\000\002\001" +
+    "\001\000\112\026\231\027\045\030\046\031\032\032\077" +
+    "\033\055\034\075\035\070\036\050\037\053\040\033\041" +
+    "\034\042\100\043\057\044\071\045\042\046\061\047\056" +
+    "\050\035\051\072\052\076\053\067\054\052\055\064\056" +
+    "\065\057\103\060\107\061\041\062\074\063\073\064\104" +
+    "\065\051\066\102\067\066\070\044\071\054\001\001\000" +
+    "\002\001\001\000\002\001\001\000\112\026\234\027\045" +
+    "\030\046\031\032\032\077\033\055\034\075\035\070\036" +
+    "\050\037\053\040\033\041\034\042\100\043\057\044\071" +
+    "\045\042\046\061\047\056\050\035\051\072\052\076\053" +
+    "\067\054\052\055\064\056\065\057\103\060\107\061\041" +
+    "\062\074\063\073\064\104\065\051\066\102\067\066\070" +
+    "\044\071\054\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\004\013\361\001\001\000\002\001\001\000\136\014\260" +
+    "\015\265\016\255\017\252\020\264\021\256\022\244\023" +
+    "\246\024\247\025\253\026\263\027\045\030\046\031\032" +
+    "\032\077\033\055\034\075\035\070\036\050\037\053\040" +
+    "\033\041\034\042\100\043\057\044\071\045\042\046\061" +
+    "\047\056\050\035\051\072\052\076\053\067\054\052\055" +
+    "\064\056\065\057\103\060\107\061\041\062\074\063\073" +
+    "\064\104\065\051\066\102\067\066\070\044\071\054\001" +
+    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\002\001\001\000\002\001\001\000\112\026\301\027\045" +
+    "\030\046\031\032\032\077\033\055\034\075\035\070\036" +
+    "\050\037\053\040\033\041\034\042\100\043\057\044\071" +
+    "\045\042\046\061\047\056\050\035\051\072\052\076\053" +
+    "\067\054\052\055\064\056\065\057\103\060\107\061\041" +
+    "\062\074\063\073\064\104\065\051\066\102\067\066\070" +
+    "\044\071\054\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\134\015\275\016\255\017\252\020" +
+    "\264\021\256\022\244\023\246\024\247\025\253\026\263" +
+    "\027\045\030\046\031\032\032\077\033\055\034\075\035" +
+    "\070\036\050\037\053\040\033\041\034\042\100\043\057" +
+    "\044\071\045\042\046\061\047\056\050\035\051\072\052" +
+    "\076\053\067\054\052\055\064\056\065\057\103\060\107" +
+    "\061\041\062\074\063\073\064\104\065\051\066\102\067" +
+    "\066\070\044\071\054\001\001\000\136\014\273\015\265" +
+    "\016\255\017\252\020\264\021\256\022\244\023\246\024" +
+    "\247\025\253\026\263\027\045\030\046\031\032\032\077" +
+    "\033\055\034\075\035\070\036\050\037\053\040\033\041" +
+    "\034\042\100\043\057\044\071\045\042\046\061\047\056" +
+    "\050\035\051\072\052\076\053\067\054\052\055\064\056" +
+    "\065\057\103\060\107\061\041\062\074\063\073\064\104" +
+    "\065\051\066\102\067\066\070\044\071\054\001\001\000" +
+    "\002\001\001\000\002\001\001\000\002\001\001\000\002" +
+    "\001\001\000\002\001\001\000\112\026\270\027\045\030" +
+    "\046\031\032\032\077\033\055\034\075\035\070\036\050" +
+    "\037\053\040\033\041\034\042\100\043\057\044\071\045" +
+    "\042\046\061\047\056\050\035\051\072\052\076\053\067" +
+    "\054\052\055\064\056\065\057\103\060\107\061\041\062" +
+    "\074\063\073\064\104\065\051\066\102\067\066\070\044" +
+    "\071\054\001\001\000\002\001\001\000\134\015\272\016" +
+    "\255\017\252\020\264\021\256\022\244\023\246\024\247" +
+    "\025\253\026\263\027\045\030\046\031\032\032\077\033" +
+    "\055\034\075\035\070\036\050\037\053\040\033\041\034" +
+    "\042\100\043\057\044\071\045\042\046\061\047\056\050" +
+    "\035\051\072\052\076\053\067\054\052\055\064\056\065" +
+    "\057\103\060\107\061\041\062\074\063\073\064\104\065" +
+    "\051\066\102\067\066\070\044\071\054\001\001\000\002" +
+    "\001\001\000\134\015\275\016\255\017\252\020\264\021" +
+    "\256\022\244\023\246\024\247\025\253\026\263\027\045" +
+    "\030\046\031\032\032\077\033\055\034\075\035\070\036" +
+    "\050\037\053\040\033\041\034\042\100\043\057\044\071" +
+    "\045\042\046\061\047\056\050\035\051\072\052\076\053" +
+    "\067\054\052\055\064\056\065\057\103\060\107\061\041" +
+    "\062\074\063\073\064\104\065\051\066\102\067\066\070" +
+    "\044\071\054\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\002\001\001\000\002\001\001\000\002\001\001\000\112" +
+    "\026\211\027\045\030\046\031\032\032\077\033\055\034" +
+    "\075\035\070\036\050\037\053\040\033\041\034\042\100" +
+    "\043\057\044\071\045\042\046\061\047\056\050\035\051" +
+    "\072\052\076\053\067\054\052\055\064\056\065\057\103" +
+    "\060\107\061\041\062\074\063\073\064\104\065\051\066" +
+    "\102\067\066\070\044\071\054\001\001\000\002\001\001" +
+    "\000\002\001\001\000\112\026\310\027\045\030\046\031" +
+    "\032\032\077\033\055\034\075\035\070\036\050\037\053" +
+    "\040\033\041\034\042\100\043\057\044\071\045\042\046" +
+    "\061\047\056\050\035\051\072\052\076\053\067\054\052" +
+    "\055\064\056\065\057\103\060\107\061\041\062\074\063" +
+    "\073\064\104\065\051\066\102\067\066\070\044\071\054" +
+    "\001\001\000\002\001\001\000\002\001\001\000\112\026" +
+    "\313\027\045\030\046\031\032\032\077\033\055\034\075" +
+    "\035\070\036\050\037\053\040\033\041\034\042\100\043" +
+    "\057\044\071\045\042\046\061\047\056\050\035\051\072" +
+    "\052\076\053\067\054\052\055\064\056\065\057\103\060" +
+    "\107\061\041\062\074\063\073\064\104\065\051\066\102" +
+    "\067\066\070\044\071\054\001\001\000\002\001\001\000" +
+    "\002\001\001\000\112\026\316\027\045\030\046\031\032" +
+    "\032\077\033\055\034\075\035\070\036\050\037\053\040" +
+    "\033\041\034\042\100\043\057\044\071\045\042\046\061" +
+    "\047\056\050\035\051\072\052\076\053\067\054\052\055" +
+    "\064\056\065\057\103\060\107\061\041\062\074\063\073" +
+    "\064\104\065\051\066\102\067\066\070\044\071\054\001" +
+    "\001\000\002\001\001\000\134\015\320\016\255\017\252" +
+    "\020\264\021\256\022\244\023\246\024\247\025\253\026" +
+    "\263\027\045\030\046\031\032\032\077\033\055\034\075" +
+    "\035\070\036\050\037\053\040\033\041\034\042\100\043" +
+    "\057\044\071\045\042\046\061\047\056\050\035\051\072" +
+    "\052\076\053\067\054\052\055\064\056\065\057\103\060" +
+    "\107\061\041\062\074\063\073\064\104\065\051\066\102" +
+    "\067\066\070\044\071\054\001\001\000\002\001\001\000" +
+    "\134\015\322\016\255\017\252\020\264\021\256\022\244" +
+    "\023\246\024\247\025\253\026\263\027\045\030\046\031" +
+    "\032\032\077\033\055\034\075\035\070\036\050\037\053" +
+    "\040\033\041\034\042\100\043\057\044\071\045\042\046" +
+    "\061\047\056\050\035\051\072\052\076\053\067\054\052" +
+    "\055\064\056\065\057\103\060\107\061\041\062\074\063" +
+    "\073\064\104\065\051\066\102\067\066\070\044\071\054" +
+    "\001\001\000\002\001\001\000\112\026\325\027\045\030" +
+    "\046\031\032\032\077\033\055\034\075\035\070\036\050" +
+    "\037\053\040\033\041\034\042\100\043\057\044\071\045" +
+    "\042\046\061\047\056\050\035\051\072\052\076\053\067" +
+    "\054\052\055\064\056\065\057\103\060\107\061\041\062" +
+    "\074\063\073\064\104\065\051\066\102\067\066\070\044" +
+    "\071\054\001\001\000\112\026\345\027\045\030\046\031" +
+    "\032\032\077\033\055\034\075\035\070\036\050\037\053" +
+    "\040\033\041\034\042\100\043\057\044\071\045\042\046" +
+    "\061\047\056\050\035\051\072\052\076\053\067\054\052" +
+    "\055\064\056\065\057\103\060\107\061\041\062\074\063" +
+    "\073\064\104\065\051\066\102\067\066\070\044\071\054" +
+    "\001\001\000\002\001\001\000\112\026\330\027\045\030" +
+    "\046\031\032\032\077\033\055\034\075\035\070\036\050" +
+    "\037\053\040\033\041\034\042\100\043\057\044\071\045" +
+    "\042\046\061\047\056\050\035\051\072\052\076\053\067" +
+    "\054\052\055\064\056\065\057\103\060\107\061\041\062" +
+    "\074\063\073\064\104\065\051\066\102\067\066\070\044" +
+    "\071\054\001\001\000\112\026\340\027\045\030\046\031" +
+    "\032\032\077\033\055\034\075\035\070\036\050\037\053" +
+    "\040\033\041\034\042\100\043\057\044\071\045\042\046" +
+    "\061\047\056\050\035\051\072\052\076\053\067\054\052" +
+    "\055\064\056\065\057\103\060\107\061\041\062\074\063" +
+    "\073\064\104\065\051\066\102\067\066\070\044\071\054" +
+    "\001\001\000\002\001\001\000\112\026\333\027\045\030" +
+    "\046\031\032\032\077\033\055\034\075\035\070\036\050" +
+    "\037\053\040\033\041\034\042\100\043\057\044\071\045" +
+    "\042\046\061\047\056\050\035\051\072\052\076\053\067" +
+    "\054\052\055\064\056\065\057\103\060\107\061\041\062" +
+    "\074\063\073\064\104\065\051\066\102\067\066\070\044" +
+    "\071\054\001\001\000\134\015\336\016\255\017\252\020" +
+    "\264\021\256\022\244\023\246\024\247\025\253\026\263" +
+    "\027\045\030\046\031\032\032\077\033\055\034\075\035" +
+    "\070\036\050\037\053\040\033\041\034\042\100\043\057" +
+    "\044\071\045\042\046\061\047\056\050\035\051\072\052" +
+    "\076\053\067\054\052\055\064\056\065\057\103\060\107" +
+    "\061\041\062\074\063\073\064\104\065\051\066\102\067" +
+    "\066\070\044\071\054\001\001\000\002\001\001\000\134" +
+    "\015\335\016\255\017\252\020\264\021\256\022\244\023" +
+    "\246\024\247\025\253\026\263\027\045\030\046\031\032" +
+    "\032\077\033\055\034\075\035\070\036\050\037\053\040" +
+    "\033\041\034\042\100\043\057\044\071\045\042\046\061" +
+    "\047\056\050\035\051\072\052\076\053\067\054\052\055" +
+    "\064\056\065\057\103\060\107\061\041\062\074\063\073" +
+    "\064\104\065\051\066\102\067\066\070\044\071\054\001" +
+    "\001\000\002\001\001\000\002\001\001\000\134\015\343" +
+    "\016\255\017\252\020\264\021\256\022\244\023\246\024" +
+    "\247\025\253\026\263\027\045\030\046\031\032\032\077" +
+    "\033\055\034\075\035\070\036\050\037\053\040\033\041" +
+    "\034\042\100\043\057\044\071\045\042\046\061\047\056" +
+    "\050\035\051\072\052\076\053\067\054\052\055\064\056" +
+    "\065\057\103\060\107\061\041\062\074\063\073\064\104" +
+    "\065\051\066\102\067\066\070\044\071\054\001\001\000" +
+    "\002\001\001\000\134\015\342\016\255\017\252\020\264" +
+    "\021\256\022\244\023\246\024\247\025\253\026\263\027" +
+    "\045\030\046\031\032\032\077\033\055\034\075\035\070" +
+    "\036\050\037\053\040\033\041\034\042\100\043\057\044" +
+    "\071\045\042\046\061\047\056\050\035\051\072\052\076" +
+    "\053\067\054\052\055\064\056\065\057\103\060\107\061" +
+    "\041\062\074\063\073\064\104\065\051\066\102\067\066" +
+    "\070\044\071\054\001\001\000\002\001\001\000\002\001" +
+    "\001\000\112\026\355\027\045\030\046\031\032\032\077" +
+    "\033\055\034\075\035\070\036\050\037\053\040\033\041" +
+    "\034\042\100\043\057\044\071\045\042\046\061\047\056" +
+    "\050\035\051\072\052\076\053\067\054\052\055\064\056" +
+    "\065\057\103\060\107\061\041\062\074\063\073\064\104" +
+    "\065\051\066\102\067\066\070\044\071\054\001\001\000" +
+    "\002\001\001\000\112\026\350\027\045\030\046\031\032" +
+    "\032\077\033\055\034\075\035\070\036\050\037\053\040" +
+    "\033\041\034\042\100\043\057\044\071\045\042\046\061" +
+    "\047\056\050\035\051\072\052\076\053\067\054\052\055" +
+    "\064\056\065\057\103\060\107\061\041\062\074\063\073" +
+    "\064\104\065\051\066\102\067\066\070\044\071\054\001" +
+    "\001\000\134\015\353\016\255\017\252\020\264\021\256" +
+    "\022\244\023\246\024\247\025\253\026\263\027\045\030" +
+    "\046\031\032\032\077\033\055\034\075\035\070\036\050" +
+    "\037\053\040\033\041\034\042\100\043\057\044\071\045" +
+    "\042\046\061\047\056\050\035\051\072\052\076\053\067" +
+    "\054\052\055\064\056\065\057\103\060\107\061\041\062" +
+    "\074\063\073\064\104\065\051\066\102\067\066\070\044" +
+    "\071\054\001\001\000\002\001\001\000\134\015\352\016" +
+    "\255\017\252\020\264\021\256\022\244\023\246\024\247" +
+    "\025\253\026\263\027\045\030\046\031\032\032\077\033" +
+    "\055\034\075\035\070\036\050\037\053\040\033\041\034" +
+    "\042\100\043\057\044\071\045\042\046\061\047\056\050" +
+    "\035\051\072\052\076\053\067\054\052\055\064\056\065" +
+    "\057\103\060\107\061\041\062\074\063\073\064\104\065" +
+    "\051\066\102\067\066\070\044\071\054\001\001\000\002" +
+    "\001\001\000\002\001\001\000\134\015\360\016\255\017" +
+    "\252\020\264\021\256\022\244\023\246\024\247\025\253" +
+    "\026\263\027\045\030\046\031\032\032\077\033\055\034" +
+    "\075\035\070\036\050\037\053\040\033\041\034\042\100" +
+    "\043\057\044\071\045\042\046\061\047\056\050\035\051" +
+    "\072\052\076\053\067\054\052\055\064\056\065\057\103" +
+    "\060\107\061\041\062\074\063\073\064\104\065\051\066" +
+    "\102\067\066\070\044\071\054\001\001\000\002\001\001" +
+    "\000\134\015\357\016\255\017\252\020\264\021\256\022" +
+    "\244\023\246\024\247\025\253\026\263\027\045\030\046" +
+    "\031\032\032\077\033\055\034\075\035\070\036\050\037" +
+    "\053\040\033\041\034\042\100\043\057\044\071\045\042" +
+    "\046\061\047\056\050\035\051\072\052\076\053\067\054" +
+    "\052\055\064\056\065\057\103\060\107\061\041\062\074" +
+    "\063\073\064\104\065\051\066\102\067\066\070\044\071" +
+    "\054\001\001\000\002\001\001\000\002\001\001\000\002" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\002\001\001\000\006\012\373" +
+    "\013\240\001\001\000\112\026\371\027\045\030\046\031" +
+    "\032\032\077\033\055\034\075\035\070\036\050\037\053" +
+    "\040\033\041\034\042\100\043\057\044\071\045\042\046" +
+    "\061\047\056\050\035\051\072\052\076\053\067\054\052" +
+    "\055\064\056\065\057\103\060\107\061\041\062\074\063" +
+    "\073\064\104\065\051\066\102\067\066\070\044\071\054" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\136\014\376\015\265\016\255" +
+    "\017\252\020\264\021\256\022\244\023\246\024\247\025" +
+    "\253\026\263\027\045\030\046\031\032\032\077\033\055" +
+    "\034\075\035\070\036\050\037\053\040\033\041\034\042" +
+    "\100\043\057\044\071\045\042\046\061\047\056\050\035" +
+    "\051\072\052\076\053\067\054\052\055\064\056\065\057" +
+    "\103\060\107\061\041\062\074\063\073\064\104\065\051" +
+    "\066\102\067\066\070\044\071\054\001\001\000\134\015" +
+    "\275\016\255\017\252\020\264\021\256\022\244\023\246" +
+    "\024\247\025\253\026\263\027\045\030\046\031\032\032" +
+    "\077\033\055\034\075\035\070\036\050\037\053\040\033" +
+    "\041\034\042\100\043\057\044\071\045\042\046\061\047" +
+    "\056\050\035\051\072\052\076\053\067\054\052\055\064" +
+    "\056\065\057\103\060\107\061\041\062\074\063\073\064" +
+    "\104\065\051\066\102\067\066\070\044\071\054\001\001" +
+    "\000\002\001\001\000\010\007\022\010\020\011\016\001" +
+    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
+    "" });
 
   /** Access to <code>reduce_goto</code> table. */
   public short[][] reduce_table() {return _reduce_table;}
@@ -128,6 +1199,40 @@ public class Parser extends java_cup.runtime.lr_parser {
 	action_obj.getErrorHandler().checkErrors();
     }
 
+    /**
+     * Generates an appropriate error message based on the
+     * input error type
+     * @param t the relevant error Token
+     */
+    private String generateErrorMessage(Token t) {
+        String errorMessage = "";
+        switch(t.getName()) {
+            case "UNTERMINATED_COMMENT":
+                errorMessage = "unterminated comment detected";
+            case "LARGE_INT":
+                errorMessage = (
+                    "int value " + t.getAttribute() + "is too large. Bantam Java only " +
+                    "supports integers of size 2147483647 (2^32 - 1) or less"
+                );
+            case "ILLEGAL_ID":
+                errorMessage = "illegal id '" + t.getAttribute() + "'";
+            case "LARGE_STRING":
+                errorMessage = (
+                    "Bantam Java Strings cannot exceed 5000 chars." +
+                    "Found string of size: " + t.getAttribute()
+                );
+            case "ILLEGAL_ESCAPE_CHAR":
+                errorMessage = "illegal escape char: '" + t.getAttribute() + "'";
+            case "MULTILINE_STRING":
+                errorMessage = "multiline string detected";
+            case "UNTERMINATED_STRING":
+                errorMessage = "unterminated string: '" + t.getAttribute() + "'";
+            case "ILLEGAL_CHAR":
+                errorMessage = "illegal char: '" + t.getAttribute() + "'";
+        }
+        return errorMessage;
+    }
+
     /** overrides syntax_error in inherited class and handles syntax errors 
       * @param curr current symbol from the bantam.lexer
       * */
@@ -143,6 +1248,14 @@ public class Parser extends java_cup.runtime.lr_parser {
 	errorHandler.register(errorHandler.PARSE_ERROR, action_obj.getCurrFilename(), 
 			      action_obj.getCurrLineNum(), 
 			      "unexpected input near '" + t.getLexeme() + "'");
+
+    // handle lexer errors
+    // TODO figure out why "EOF" is detected as a LEX_ERROR whenever any error occurs
+    if(t.getName() != "EOF") {
+        errorHandler.register(errorHandler.LEX_ERROR, action_obj.getCurrFilename(),
+    			      action_obj.getCurrLineNum(),
+    			      generateErrorMessage(t));
+        }
     }
 
     /** override error_sync_size in inherited class and
@@ -199,235 +1312,832 @@ class CUP$Parser$actions {
       switch (CUP$Parser$act_num)
         {
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 58: // logic_or ::= expr OR expr 
+          case 128: // decr_expr ::= expr DECR 
+            {
+              UnaryExpr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
+		 RESULT = new UnaryDecrExpr(getCurrLineNum(), e, true); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(55/*decr_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 127: // decr_expr ::= DECR expr 
+            {
+              UnaryExpr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = new UnaryDecrExpr(getCurrLineNum(), e, false); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(55/*decr_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 126: // incr_expr ::= expr INCR 
+            {
+              UnaryExpr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
+		 RESULT = new UnaryIncrExpr(getCurrLineNum(), e, true); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(54/*incr_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 125: // incr_expr ::= INCR expr 
+            {
+              UnaryExpr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = new UnaryIncrExpr(getCurrLineNum(), e, false); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(54/*incr_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 124: // not_expr ::= NOT expr 
+            {
+              UnaryExpr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = new UnaryNotExpr(getCurrLineNum(), e); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(53/*not_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 123: // neg_expr ::= MINUS expr 
+            {
+              UnaryExpr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = new UnaryNegExpr(getCurrLineNum(), e); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(52/*neg_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 122: // logic_or ::= expr OR expr 
             {
               BinaryLogicExpr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new BinaryLogicOrExpr(getCurrLineNum(), e,e2); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(45/*logic_or*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(51/*logic_or*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 57: // logic_and ::= expr AND expr 
+          case 121: // logic_and ::= expr AND expr 
             {
               BinaryLogicExpr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new BinaryLogicAndExpr(getCurrLineNum(), e,e2); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(44/*logic_and*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(50/*logic_and*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 120: // binary_logic_expr ::= logic_or 
+            {
+              BinaryLogicExpr RESULT = null;
+		BinaryLogicExpr l = (BinaryLogicExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = l; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(49/*binary_logic_expr*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 56: // comp_ne ::= expr NE expr 
+          case 119: // binary_logic_expr ::= logic_and 
+            {
+              BinaryLogicExpr RESULT = null;
+		BinaryLogicExpr l = (BinaryLogicExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = l; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(49/*binary_logic_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 118: // comp_ne ::= expr NE expr 
             {
               BinaryCompExpr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new BinaryCompNeExpr(getCurrLineNum(), e,e2); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(43/*comp_ne*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(48/*comp_ne*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 55: // comp_lt ::= expr LT expr 
+          case 117: // comp_lt ::= expr LT expr 
             {
               BinaryCompExpr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new BinaryCompLtExpr(getCurrLineNum(), e,e2); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(42/*comp_lt*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(47/*comp_lt*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 54: // comp_leq ::= expr LEQ expr 
+          case 116: // comp_leq ::= expr LEQ expr 
             {
               BinaryCompExpr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new BinaryCompLeqExpr(getCurrLineNum(), e,e2); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(41/*comp_leq*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(46/*comp_leq*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 53: // comp_gt ::= expr GT expr 
+          case 115: // comp_gt ::= expr GT expr 
             {
               BinaryCompExpr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new BinaryCompGtExpr(getCurrLineNum(), e,e2); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(40/*comp_gt*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(45/*comp_gt*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 52: // comp_geq ::= expr GEQ expr 
+          case 114: // comp_geq ::= expr GEQ expr 
             {
               BinaryCompExpr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new BinaryCompGeqExpr(getCurrLineNum(), e,e2); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(39/*comp_geq*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(44/*comp_geq*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 51: // comp_eq ::= expr EQ expr 
+          case 113: // comp_eq ::= expr EQ expr 
             {
               BinaryCompExpr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new BinaryCompEqExpr(getCurrLineNum(), e,e2); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(38/*comp_eq*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(43/*comp_eq*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 112: // binary_comp_expr ::= comp_ne 
+            {
+              BinaryCompExpr RESULT = null;
+		BinaryCompExpr c = (BinaryCompExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = c; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(42/*binary_comp_expr*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 50: // binary_arith_times ::= expr TIMES expr 
+          case 111: // binary_comp_expr ::= comp_lt 
+            {
+              BinaryCompExpr RESULT = null;
+		BinaryCompExpr c = (BinaryCompExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = c; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(42/*binary_comp_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 110: // binary_comp_expr ::= comp_leq 
+            {
+              BinaryCompExpr RESULT = null;
+		BinaryCompExpr c = (BinaryCompExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = c; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(42/*binary_comp_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 109: // binary_comp_expr ::= comp_gt 
+            {
+              BinaryCompExpr RESULT = null;
+		BinaryCompExpr c = (BinaryCompExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = c; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(42/*binary_comp_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 108: // binary_comp_expr ::= comp_geq 
+            {
+              BinaryCompExpr RESULT = null;
+		BinaryCompExpr c = (BinaryCompExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = c; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(42/*binary_comp_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 107: // binary_comp_expr ::= comp_eq 
+            {
+              BinaryCompExpr RESULT = null;
+		BinaryCompExpr c = (BinaryCompExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = c; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(42/*binary_comp_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 106: // binary_arith_times ::= expr TIMES expr 
             {
               BinaryArithExpr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new BinaryArithTimesExpr(getCurrLineNum(), e,e2); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(37/*binary_arith_times*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(41/*binary_arith_times*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 49: // binary_arith_mod ::= expr MODULUS expr 
+          case 105: // binary_arith_mod ::= expr MODULUS expr 
             {
               BinaryArithExpr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new BinaryArithModulusExpr(getCurrLineNum(), e,e2); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(35/*binary_arith_mod*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(39/*binary_arith_mod*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 48: // binary_arith_plus ::= expr PLUS expr 
+          case 104: // binary_arith_plus ::= expr PLUS expr 
             {
               BinaryArithExpr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new BinaryArithPlusExpr(getCurrLineNum(), e,e2); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(36/*binary_arith_plus*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(40/*binary_arith_plus*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 47: // binary_arith_minus ::= expr MINUS expr 
+          case 103: // binary_arith_minus ::= expr MINUS expr 
             {
               BinaryArithExpr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new BinaryArithMinusExpr(getCurrLineNum(), e,e2); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(34/*binary_arith_minus*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(38/*binary_arith_minus*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 46: // binary_arith_div ::= expr DIVIDE expr 
+          case 102: // binary_arith_div ::= expr DIVIDE expr 
             {
               BinaryArithExpr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new BinaryArithDivideExpr(getCurrLineNum(), e,e2); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(33/*binary_arith_div*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(37/*binary_arith_div*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 45: // const_string ::= STRING_CONST 
+          case 101: // binary_arith_expr ::= binary_arith_times 
             {
-              Expr RESULT = null;
+              BinaryArithExpr RESULT = null;
+		BinaryArithExpr i = (BinaryArithExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = i; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(36/*binary_arith_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 100: // binary_arith_expr ::= binary_arith_mod 
+            {
+              BinaryArithExpr RESULT = null;
+		BinaryArithExpr i = (BinaryArithExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = i; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(36/*binary_arith_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 99: // binary_arith_expr ::= binary_arith_plus 
+            {
+              BinaryArithExpr RESULT = null;
+		BinaryArithExpr i = (BinaryArithExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = i; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(36/*binary_arith_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 98: // binary_arith_expr ::= binary_arith_minus 
+            {
+              BinaryArithExpr RESULT = null;
+		BinaryArithExpr i = (BinaryArithExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = i; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(36/*binary_arith_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 97: // binary_arith_expr ::= binary_arith_div 
+            {
+              BinaryArithExpr RESULT = null;
+		BinaryArithExpr i = (BinaryArithExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = i; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(36/*binary_arith_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 96: // const_string ::= STRING_CONST 
+            {
+              ConstExpr RESULT = null;
 		Token value = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new ConstStringExpr(getCurrLineNum(), value.getAttribute()); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(32/*const_string*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(35/*const_string*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 44: // const_bool ::= BOOLEAN_CONST 
+          case 95: // const_bool ::= BOOLEAN_CONST 
             {
-              Expr RESULT = null;
+              ConstExpr RESULT = null;
 		Token value = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new ConstBooleanExpr(getCurrLineNum(), value.getAttribute()); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(31/*const_bool*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(34/*const_bool*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 43: // const_int ::= INT_CONST 
+          case 94: // const_int ::= INT_CONST 
             {
-              Expr RESULT = null;
+              ConstExpr RESULT = null;
 		Token value = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new ConstIntExpr(getCurrLineNum(), value.getAttribute()); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(30/*const_int*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(33/*const_int*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 93: // const_expr ::= const_string 
+            {
+              Expr RESULT = null;
+		ConstExpr i = (ConstExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = i; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(29/*const_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 92: // const_expr ::= const_bool 
+            {
+              Expr RESULT = null;
+		ConstExpr i = (ConstExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = i; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(29/*const_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 91: // const_expr ::= const_int 
+            {
+              Expr RESULT = null;
+		ConstExpr i = (ConstExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = i; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(29/*const_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 90: // unary_expr ::= decr_expr 
+            {
+              Expr RESULT = null;
+		UnaryExpr e = (UnaryExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(28/*unary_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 89: // unary_expr ::= incr_expr 
+            {
+              Expr RESULT = null;
+		UnaryExpr e = (UnaryExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(28/*unary_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 88: // unary_expr ::= not_expr 
+            {
+              Expr RESULT = null;
+		UnaryExpr e = (UnaryExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(28/*unary_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 87: // unary_expr ::= neg_expr 
+            {
+              Expr RESULT = null;
+		UnaryExpr e = (UnaryExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(28/*unary_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 86: // binary_expr ::= binary_logic_expr 
+            {
+              Expr RESULT = null;
+		BinaryLogicExpr e = (BinaryLogicExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(27/*binary_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 85: // binary_expr ::= binary_comp_expr 
+            {
+              Expr RESULT = null;
+		BinaryCompExpr e = (BinaryCompExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(27/*binary_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 84: // binary_expr ::= binary_arith_expr 
+            {
+              Expr RESULT = null;
+		BinaryArithExpr e = (BinaryArithExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(27/*binary_expr*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 42: // cast_expr ::= LPAREN ID LSQBRACE RSQBRACE RPAREN LPAREN expr RPAREN 
+          case 83: // cast_expr ::= LPAREN ID LSQBRACE RSQBRACE RPAREN LPAREN expr RPAREN 
             {
               Expr RESULT = null;
 		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-6)).value;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
-		 RESULT = new CastExpr(getCurrLineNum(), type.getAttribute(), e ); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(25/*cast_expr*/, RESULT);
+		 RESULT = new CastExpr(getCurrLineNum(), type.getAttribute()+"[]", e ); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(26/*cast_expr*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 41: // cast_expr ::= LPAREN ID RPAREN LPAREN expr RPAREN 
+          case 82: // cast_expr ::= LPAREN ID RPAREN LPAREN expr RPAREN 
             {
               Expr RESULT = null;
 		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-4)).value;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
 		 RESULT = new CastExpr(getCurrLineNum(), type.getAttribute(), e ); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(25/*cast_expr*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(26/*cast_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 81: // new_array_expr ::= NEW ID LSQBRACE expr RSQBRACE 
+            {
+              Expr RESULT = null;
+		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
+		 RESULT = new NewArrayExpr(getCurrLineNum(), type.getAttribute(), e ); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(24/*new_array_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 80: // new_expr ::= NEW ID LPAREN RPAREN 
+            {
+              Expr RESULT = null;
+		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
+		 RESULT = new NewExpr(getCurrLineNum(), type.getAttribute() ); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(23/*new_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 79: // expr_list ::= 
+            {
+              ExprList RESULT = null;
+		 RESULT = new ExprList(getCurrLineNum()); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(56/*expr_list*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 78: // expr_list ::= expr_list COMMA expr 
+            {
+              ExprList RESULT = null;
+		ExprList el = (ExprList)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = (ExprList)el.addElement(e); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(56/*expr_list*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 40: // instance_of_expr ::= expr INSTANCEOF ID LSQBRACE RSQBRACE 
+          case 77: // expr_list ::= expr 
+            {
+              ExprList RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = (ExprList)(new ExprList(getCurrLineNum()).addElement(e)); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(56/*expr_list*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 76: // dispatch_expr ::= ID DOT ID LPAREN expr_list RPAREN 
+            {
+              Expr RESULT = null;
+		Token id = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-5)).value;
+		Token name = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		ExprList el = (ExprList)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
+		 RESULT = new DispatchExpr(
+                            getCurrLineNum(),
+                            new VarExpr(
+                                getCurrLineNum(),
+                                null,
+                                id.getAttribute()
+                            ),
+                            name.getAttribute(),
+                            el
+           );
+        
+              CUP$Parser$result = new java_cup.runtime.Symbol(22/*dispatch_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 75: // dispatch_expr ::= expr DOT ID LPAREN expr_list RPAREN 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-5)).value;
+		Token name = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		ExprList el = (ExprList)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
+		 RESULT = new DispatchExpr(getCurrLineNum(), e, name.getAttribute(), el ); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(22/*dispatch_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 74: // dispatch_expr ::= ID LPAREN expr_list RPAREN 
+            {
+              Expr RESULT = null;
+		Token name = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		ExprList el = (ExprList)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
+		 RESULT = new DispatchExpr(getCurrLineNum(), null, name.getAttribute(),el ); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(22/*dispatch_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 73: // instance_of_expr ::= expr INSTANCEOF ID LSQBRACE RSQBRACE 
             {
               Expr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-4)).value;
 		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
-		 RESULT = new InstanceofExpr(getCurrLineNum(), e, type.getAttribute() ); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(24/*instance_of_expr*/, RESULT);
+		 RESULT = new InstanceofExpr(getCurrLineNum(), e, type.getAttribute()+"[]" ); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(25/*instance_of_expr*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 39: // instance_of_expr ::= expr INSTANCEOF ID 
+          case 72: // instance_of_expr ::= expr INSTANCEOF ID 
             {
               Expr RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
 		 RESULT = new InstanceofExpr(getCurrLineNum(), e, type.getAttribute() ); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(24/*instance_of_expr*/, RESULT);
+              CUP$Parser$result = new java_cup.runtime.Symbol(25/*instance_of_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 71: // array_expr ::= ID LSQBRACE expr RSQBRACE 
+            {
+              Expr RESULT = null;
+		Token id = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
+		 RESULT = new ArrayExpr(getCurrLineNum(), null, id.getAttribute(), e); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(31/*array_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 70: // array_expr ::= ID DOT ID LSQBRACE expr RSQBRACE 
+            {
+              Expr RESULT = null;
+		Token id1 = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-5)).value;
+		Token id2 = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
+		 RESULT = new ArrayExpr(getCurrLineNum(), new VarExpr(getCurrLineNum(),null, id1.getAttribute()), id2.getAttribute(), e); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(31/*array_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 69: // var_expr ::= ID 
+            {
+              Expr RESULT = null;
+		Token id = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = new VarExpr(getCurrLineNum(), null, id.getAttribute()); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(30/*var_expr*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 38: // assign_expr ::= var_expr ASSIGN expr 
+          case 68: // var_expr ::= ID DOT ID 
             {
               Expr RESULT = null;
-		VarExpr var = (VarExpr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
+		Token id1 = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
+		Token id2 = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = new VarExpr(getCurrLineNum(), new VarExpr(getCurrLineNum(),null, id1.getAttribute()), id2.getAttribute()); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(30/*var_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 67: // assign_expr ::= ID ASSIGN expr 
+            {
+              Expr RESULT = null;
+		Token var = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
-		 RESULT = new AssignExpr(getCurrLineNum(), null,var.getName(),e ); 
+		 RESULT = new AssignExpr(getCurrLineNum(), null, var.getAttribute(), e ); 
               CUP$Parser$result = new java_cup.runtime.Symbol(21/*assign_expr*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 37: // stmt_list ::= 
+          case 66: // assign_expr ::= ID DOT ID ASSIGN expr 
+            {
+              Expr RESULT = null;
+		Token ref = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-4)).value;
+		Token var = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = new AssignExpr(getCurrLineNum(), ref.getAttribute(), var.getAttribute(), e ); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(21/*assign_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 65: // array_assign_expr ::= ID LSQBRACE expr RSQBRACE ASSIGN expr 
+            {
+              Expr RESULT = null;
+		Token var = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-5)).value;
+		Expr e1 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = new ArrayAssignExpr(getCurrLineNum(), null, var.getAttribute(), e1, e2 ); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(32/*array_assign_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 64: // array_assign_expr ::= ID DOT ID LSQBRACE expr RSQBRACE ASSIGN expr 
+            {
+              Expr RESULT = null;
+		Token ref = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-7)).value;
+		Token var = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-5)).value;
+		Expr e1 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = new ArrayAssignExpr(getCurrLineNum(), ref.getAttribute(), var.getAttribute(), e1, e2 ); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(32/*array_assign_expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 63: // expr ::= LPAREN expr RPAREN 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(20/*expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 62: // expr ::= array_expr 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(20/*expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 61: // expr ::= var_expr 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(20/*expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 60: // expr ::= const_expr 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(20/*expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 59: // expr ::= unary_expr 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(20/*expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 58: // expr ::= binary_expr 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(20/*expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 57: // expr ::= cast_expr 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(20/*expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 56: // expr ::= instance_of_expr 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(20/*expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 55: // expr ::= new_array_expr 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e;  
+              CUP$Parser$result = new java_cup.runtime.Symbol(20/*expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 54: // expr ::= new_expr 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(20/*expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 53: // expr ::= dispatch_expr 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(20/*expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 52: // expr ::= array_assign_expr 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(20/*expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 51: // expr ::= assign_expr 
+            {
+              Expr RESULT = null;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = e; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(20/*expr*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 50: // stmt_list ::= 
             {
               StmtList RESULT = null;
 		 RESULT = new StmtList(getCurrLineNum()); 
@@ -436,7 +2146,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 36: // stmt_list ::= stmt_list stmt 
+          case 49: // stmt_list ::= stmt_list stmt 
             {
               StmtList RESULT = null;
 		StmtList st = (StmtList)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
@@ -447,7 +2157,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 35: // stmt_list ::= stmt 
+          case 48: // stmt_list ::= stmt 
             {
               StmtList RESULT = null;
 		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
@@ -457,7 +2167,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 34: // block_stmt ::= LBRACE stmt_list RBRACE 
+          case 47: // block_stmt ::= LBRACE stmt_list RBRACE 
             {
               Stmt RESULT = null;
 		StmtList st = (StmtList)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
@@ -467,16 +2177,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 33: // block_stmt ::= LBRACE RBRACE 
-            {
-              Stmt RESULT = null;
-		 RESULT = new BlockStmt(getCurrLineNum(), null); 
-              CUP$Parser$result = new java_cup.runtime.Symbol(19/*block_stmt*/, RESULT);
-            }
-          return CUP$Parser$result;
-
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 32: // return_stmt ::= RETURN expr SEMI 
+          case 46: // return_stmt ::= RETURN expr SEMI 
             {
               Stmt RESULT = null;
 		Expr e1 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
@@ -486,7 +2187,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 31: // return_stmt ::= RETURN SEMI 
+          case 45: // return_stmt ::= RETURN SEMI 
             {
               Stmt RESULT = null;
 		 RESULT = new ReturnStmt(getCurrLineNum(), null); 
@@ -495,7 +2196,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 30: // break_stmt ::= BREAK SEMI 
+          case 44: // break_stmt ::= BREAK SEMI 
             {
               Stmt RESULT = null;
 		 RESULT = new BreakStmt(getCurrLineNum()); 
@@ -504,7 +2205,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 29: // for_stmt ::= FOR LPAREN expr SEMI expr SEMI RPAREN stmt 
+          case 43: // for_stmt ::= FOR LPAREN expr SEMI expr SEMI RPAREN stmt 
             {
               Stmt RESULT = null;
 		Expr e1 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-5)).value;
@@ -516,7 +2217,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 28: // for_stmt ::= FOR LPAREN expr SEMI SEMI expr RPAREN stmt 
+          case 42: // for_stmt ::= FOR LPAREN expr SEMI SEMI expr RPAREN stmt 
             {
               Stmt RESULT = null;
 		Expr e1 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-5)).value;
@@ -528,7 +2229,18 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 27: // for_stmt ::= FOR LPAREN expr SEMI SEMI RPAREN stmt 
+          case 41: // for_stmt ::= FOR LPAREN SEMI expr SEMI RPAREN stmt 
+            {
+              Stmt RESULT = null;
+		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = new ForStmt(getCurrLineNum(),null,e2,null, s); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(16/*for_stmt*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 40: // for_stmt ::= FOR LPAREN expr SEMI SEMI RPAREN stmt 
             {
               Stmt RESULT = null;
 		Expr e1 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-4)).value;
@@ -539,7 +2251,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 26: // for_stmt ::= FOR LPAREN SEMI expr SEMI expr RPAREN stmt 
+          case 39: // for_stmt ::= FOR LPAREN SEMI expr SEMI expr RPAREN stmt 
             {
               Stmt RESULT = null;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-4)).value;
@@ -551,7 +2263,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 25: // for_stmt ::= FOR LPAREN SEMI SEMI expr RPAREN stmt 
+          case 38: // for_stmt ::= FOR LPAREN SEMI SEMI expr RPAREN stmt 
             {
               Stmt RESULT = null;
 		Expr e3 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
@@ -562,7 +2274,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 24: // for_stmt ::= FOR LPAREN expr SEMI expr SEMI expr RPAREN stmt 
+          case 37: // for_stmt ::= FOR LPAREN expr SEMI expr SEMI expr RPAREN stmt 
             {
               Stmt RESULT = null;
 		Expr e1 = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-6)).value;
@@ -575,7 +2287,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 23: // for_stmt ::= FOR LPAREN SEMI SEMI RPAREN stmt 
+          case 36: // for_stmt ::= FOR LPAREN SEMI SEMI RPAREN stmt 
             {
               Stmt RESULT = null;
 		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
@@ -585,7 +2297,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 22: // while_stmt ::= WHILE LPAREN expr RPAREN stmt 
+          case 35: // while_stmt ::= WHILE LPAREN expr RPAREN stmt 
             {
               Stmt RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
@@ -596,7 +2308,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 21: // if_stmt ::= IF LPAREN expr RPAREN stmt ELSE stmt 
+          case 34: // if_stmt ::= IF LPAREN expr RPAREN stmt ELSE stmt 
             {
               Stmt RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-4)).value;
@@ -608,7 +2320,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 20: // if_stmt ::= IF LPAREN expr RPAREN stmt 
+          case 33: // if_stmt ::= IF LPAREN expr RPAREN stmt 
             {
               Stmt RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
@@ -619,33 +2331,33 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 19: // decl_stmt ::= ID LSQBRACE RSQBRACE ID ASSIGN expr SEMI 
+          case 32: // decl_stmt ::= ID LSQBRACE RSQBRACE ID ASSIGN expr SEMI 
             {
               Stmt RESULT = null;
 		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-6)).value;
-		Token nam = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		Token name = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
 		 RESULT = new DeclStmt(getCurrLineNum(), type.getAttribute()+"[]",
-                                               nam.getAttribute(), e); 
+                                               name.getAttribute(), e); 
               CUP$Parser$result = new java_cup.runtime.Symbol(13/*decl_stmt*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 18: // decl_stmt ::= ID ID ASSIGN expr SEMI 
+          case 31: // decl_stmt ::= ID ID ASSIGN expr SEMI 
             {
               Stmt RESULT = null;
 		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-4)).value;
-		Token nam = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		Token name = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
 		 RESULT = new DeclStmt(getCurrLineNum(), type.getAttribute(),
-                                       nam.getAttribute(), e); 
+                                       name.getAttribute(), e); 
               CUP$Parser$result = new java_cup.runtime.Symbol(13/*decl_stmt*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 17: // expr_stmt ::= expr SEMI 
+          case 30: // expr_stmt ::= expr SEMI 
             {
               Stmt RESULT = null;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
@@ -655,7 +2367,87 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 16: // formal ::= ID LSQBRACE RSQBRACE ID 
+          case 29: // stmt ::= block_stmt 
+            {
+              Stmt RESULT = null;
+		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = s; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(11/*stmt*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 28: // stmt ::= return_stmt 
+            {
+              Stmt RESULT = null;
+		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = s; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(11/*stmt*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 27: // stmt ::= break_stmt 
+            {
+              Stmt RESULT = null;
+		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = s; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(11/*stmt*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 26: // stmt ::= for_stmt 
+            {
+              Stmt RESULT = null;
+		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = s; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(11/*stmt*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 25: // stmt ::= while_stmt 
+            {
+              Stmt RESULT = null;
+		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = s; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(11/*stmt*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 24: // stmt ::= if_stmt 
+            {
+              Stmt RESULT = null;
+		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = s; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(11/*stmt*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 23: // stmt ::= decl_stmt 
+            {
+              Stmt RESULT = null;
+		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = s; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(11/*stmt*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 22: // stmt ::= expr_stmt 
+            {
+              Stmt RESULT = null;
+		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = s; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(11/*stmt*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 21: // formal ::= ID LSQBRACE RSQBRACE ID 
             {
               Formal RESULT = null;
 		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
@@ -667,7 +2459,7 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 15: // formal ::= ID ID 
+          case 20: // formal ::= ID ID 
             {
               Formal RESULT = null;
 		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
@@ -679,83 +2471,133 @@ class CUP$Parser$actions {
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 14: // field ::= ID LSQBRACE RSQBRACE ID 
+          case 19: // formal_list ::= 
+            {
+              FormalList RESULT = null;
+		 RESULT = new FormalList(getCurrLineNum()); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(8/*formal_list*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 18: // formal_list ::= formal_list COMMA formal 
+            {
+              FormalList RESULT = null;
+		FormalList fl = (FormalList)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
+		Formal f = (Formal)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = (FormalList)fl.addElement(f); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(8/*formal_list*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 17: // formal_list ::= formal 
+            {
+              FormalList RESULT = null;
+		Formal f = (Formal)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = (FormalList)(new FormalList(getCurrLineNum()).addElement(f)); 
+              CUP$Parser$result = new java_cup.runtime.Symbol(8/*formal_list*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 16: // field ::= ID LSQBRACE RSQBRACE ID SEMI 
             {
               Field RESULT = null;
-		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
-		Token nam = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-4)).value;
+		Token name = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
 		 RESULT = new Field(getCurrLineNum(), type.getAttribute()+"[]",
-                                 nam.getAttribute(), null ); 
+                                 name.getAttribute(), null ); 
               CUP$Parser$result = new java_cup.runtime.Symbol(7/*field*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 13: // field ::= ID LSQBRACE RSQBRACE ID ASSIGN expr 
+          case 15: // field ::= ID LSQBRACE RSQBRACE ID ASSIGN expr SEMI 
             {
               Field RESULT = null;
-		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-5)).value;
-		Token nam = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
-		Expr exp = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-6)).value;
+		Token name = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		Expr exp = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
 		 RESULT = new Field(getCurrLineNum(), type.getAttribute()+"[]",
-                              nam.getAttribute(), exp ); 
+                              name.getAttribute(), exp ); 
               CUP$Parser$result = new java_cup.runtime.Symbol(7/*field*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 12: // field ::= ID ID ASSIGN expr 
+          case 14: // field ::= ID ID ASSIGN expr SEMI 
             {
               Field RESULT = null;
-		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
-		Token nam = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
-		Expr exp = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-4)).value;
+		Token name = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		Expr exp = (Expr)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
 		 RESULT = new Field(getCurrLineNum(), type.getAttribute(),
-                                  nam.getAttribute(), exp ); 
+                                  name.getAttribute(), exp ); 
               CUP$Parser$result = new java_cup.runtime.Symbol(7/*field*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 11: // field ::= ID ID 
+          case 13: // field ::= ID ID SEMI 
             {
               Field RESULT = null;
-		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
-		Token nam = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		Token type = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
+		Token name = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
 		 RESULT = new Field(getCurrLineNum(), type.getAttribute(),
-                                  nam.getAttribute(), null); 
+                                  name.getAttribute(), null); 
               CUP$Parser$result = new java_cup.runtime.Symbol(7/*field*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 10: // method ::= ID LSQBRACE RSQBRACE ID LPAREN formal_list RPAREN LBRACE stmt_list RBRACE 
+          case 12: // method ::= ID LSQBRACE RSQBRACE ID LPAREN formal_list RPAREN LBRACE stmt_list RBRACE 
             {
               Method RESULT = null;
 		Token id = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-9)).value;
-		Token nam = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-6)).value;
+		Token name = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-6)).value;
 		FormalList fl = (FormalList)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-4)).value;
 		StmtList sl = (StmtList)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
 		 RESULT = new Method(getCurrLineNum(), id.getAttribute() + "[]",
-                                           nam.getAttribute(), fl, sl); 
+                                           name.getAttribute(), fl, sl); 
               CUP$Parser$result = new java_cup.runtime.Symbol(6/*method*/, RESULT);
             }
           return CUP$Parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 9: // method ::= ID ID LPAREN formal_list RPAREN LBRACE stmt_list RBRACE 
+          case 11: // method ::= ID ID LPAREN formal_list RPAREN LBRACE stmt_list RBRACE 
             {
               Method RESULT = null;
 		Token id = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-7)).value;
-		Token nam = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-6)).value;
+		Token name = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-6)).value;
 		FormalList fl = (FormalList)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-4)).value;
 		StmtList sl = (StmtList)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
 		 RESULT = new Method(getCurrLineNum(), id.getAttribute(),
-                                   nam.getAttribute(), fl, sl); 
+                                   name.getAttribute(), fl, sl); 
               CUP$Parser$result = new java_cup.runtime.Symbol(6/*method*/, RESULT);
             }
           return CUP$Parser$result;
 
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 10: // member ::= method 
+            {
+              Member RESULT = null;
+		Method m = (Method)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = m; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(5/*member*/, RESULT);
+            }
+          return CUP$Parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 9: // member ::= field 
+            {
+              Member RESULT = null;
+		Field f = (Field)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-0)).value;
+		 RESULT = f; 
+              CUP$Parser$result = new java_cup.runtime.Symbol(5/*member*/, RESULT);
+            }
+          return CUP$Parser$result;
+
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 8: // member_list ::= 
             {
@@ -791,11 +2633,11 @@ class CUP$Parser$actions {
             {
               Class_ RESULT = null;
 		Token t = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-6)).value;
-		Token nam = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-5)).value;
+		Token name = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-5)).value;
 		Token parent = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
 		MemberList ml = (MemberList)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
-		 RESULT = new Class_(t.getLineNum(), getCurrFilename(), 
-				   nam.getAttribute(),
+		 RESULT = new Class_(t.getLineNum(), getCurrFilename(),
+				   name.getAttribute(),
 				   parent.getAttribute(), ml); 
               CUP$Parser$result = new java_cup.runtime.Symbol(3/*class*/, RESULT);
             }
@@ -806,10 +2648,10 @@ class CUP$Parser$actions {
             {
               Class_ RESULT = null;
 		Token t = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-4)).value;
-		Token nam = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
+		Token name = (Token)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
 		MemberList ml = (MemberList)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
 		 RESULT = new Class_(t.getLineNum(), getCurrFilename(), 
-				   nam.getAttribute(), "Object", ml); 
+				   name.getAttribute(), "Object", ml); 
               CUP$Parser$result = new java_cup.runtime.Symbol(3/*class*/, RESULT);
             }
           return CUP$Parser$result;
@@ -1,7 +1,7 @@
 
 //----------------------------------------------------
 // The following code was generated by CUP v0.10k
-// Sat Feb 11 16:58:42 EST 2017
+// Sun Oct 18 14:23:32 UTC 2026
 //----------------------------------------------------
 
 package bantam.parser;
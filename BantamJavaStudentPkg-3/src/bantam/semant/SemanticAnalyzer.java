@@ -301,6 +301,7 @@ public class SemanticAnalyzer {
      */
     private void populateMethodTables() {
         MethodSymbolTableVisitor methodVisitor = new MethodSymbolTableVisitor();
+        methodVisitor.populateSymbolTable(getBuiltinProgram(), this.classMap, this.errorHandler);
         methodVisitor.populateSymbolTable(this.program, this.classMap, this.errorHandler);
     }
 
@@ -309,9 +310,23 @@ public class SemanticAnalyzer {
      */
     private void populateVarTables() {
         VarSymbolTableVisitor varVisitor = new VarSymbolTableVisitor();
+        varVisitor.populateSymbolTable(getBuiltinProgram(), this.classMap, this.errorHandler);
         varVisitor.populateSymbolTable(this.program, this.classMap, this.errorHandler);
     }
 
+    /**
+     * Wraps the AST nodes of the built-in classes in a program so that the
+     * symbol table visitors can populate their tables like any other class
+     * @return a program containing only the built-in classes
+     */
+    private Program getBuiltinProgram() {
+        ClassList builtins = new ClassList(-1);
+        for (String name : new String[]{"Object", "String", "TextIO", "Sys"}) {
+            builtins.addElement(classMap.get(name).getASTNode());
+        }
+        return new Program(-1, builtins);
+    }
+
     /**
      * Checks the program to see if it has a Main class with
      * a main method in it
@@ -39,7 +39,8 @@ public class SemanticTools {
      */
     public static boolean isReservedWord(String word) {
         for ( reservedWords r : reservedWords.values()) {
-            if (r.name().equalsIgnoreCase(word)) { return true; }
+            // keywords are case sensitive: Boolean is a class, boolean is not
+            if (r.name().toLowerCase().equals(word)) { return true; }
         }
         return false;
     }
@@ -51,7 +52,7 @@ public class SemanticTools {
      */
     public static boolean isPrimitive(String word) {
         for ( primitives p : primitives.values()) {
-            if (p.name().equalsIgnoreCase(word)) { return true; }
+            if (p.name().toLowerCase().equals(word)) { return true; }
         }
         return false;
     }
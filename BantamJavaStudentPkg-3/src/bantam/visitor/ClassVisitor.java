@@ -44,8 +44,10 @@ public class ClassVisitor extends Visitor{
         this.classMap=classMap;
 
         //Manually intialize variable scopes for built in classes
-        classMap.get("Object").getVarSymbolTable().enterScope();
-        classMap.get("Object").getMethodSymbolTable().enterScope();
+        for (ClassTreeNode builtin : classMap.values()) {
+            builtin.getVarSymbolTable().enterScope();
+            builtin.getMethodSymbolTable().enterScope();
+        }
 
         program.accept(this);
 
@@ -33,6 +33,9 @@ public class TypeCheckVisitor extends Visitor {
     private final String VOID = "void";
     private final String THIS = "this";
     private final String SUPER = "super";
+    private final String NULL = "null";
+    private final String LENGTH = "length";
+    private final String ARRAY = "[]";
 
     /** Error Handler to register semantic errors in class declarations */
     private ErrorHandler errorHandler;
@@ -70,7 +73,8 @@ public class TypeCheckVisitor extends Visitor {
     @Override
     public Object visit(Field node) {
         super.visit(node);
-        if(this.currentVarSymbolTable.lookup(node.getName()) != null) {
+        if(this.currentVarSymbolTable.lookup(node.getName()) != null
+                && node.getInit() != null) {
             checkType(node.getType(), node.getInit().getExprType(), node, true);
         }
         return null;
@@ -134,7 +138,7 @@ public class TypeCheckVisitor extends Visitor {
     @Override
     public Object visit(IfStmt node) {
         node.getPredExpr().accept(this);
-        if(!node.getPredExpr().getExprType().equals(BOOLEAN)) {
+        if(!BOOLEAN.equals(node.getPredExpr().getExprType())) {
             errorHandler.register(errorHandler.SEMANT_ERROR,
                     this.currentClass,
                     node.getLineNum(),
@@ -155,7 +159,7 @@ public class TypeCheckVisitor extends Visitor {
     public Object visit(WhileStmt node) {
         node.getPredExpr().accept(this);
 
-        if(!node.getPredExpr().getExprType().equals(BOOLEAN)) {
+        if(!BOOLEAN.equals(node.getPredExpr().getExprType())) {
             errorHandler.register(errorHandler.SEMANT_ERROR,
                     this.currentClass,
                     node.getLineNum(),
@@ -175,7 +179,7 @@ public class TypeCheckVisitor extends Visitor {
         }
         if(node.getPredExpr() != null) {
             node.getPredExpr().accept(this);
-            if(!node.getPredExpr().getExprType().equals(BOOLEAN)) {
+            if(!BOOLEAN.equals(node.getPredExpr().getExprType())) {
                 errorHandler.register(errorHandler.SEMANT_ERROR,
                         this.currentClass,
                         node.getLineNum(),
@@ -234,12 +238,12 @@ public class TypeCheckVisitor extends Visitor {
         if (node.getRefExpr() != null) {
             node.getRefExpr().accept(this);
             referenceType = node.getRefExpr().getExprType();
-        } else {
-            if(((VarExpr) node.getRefExpr()).getName().equals(THIS)) {
-                referenceType = this.currentClass;
-            } else {
-            referenceType = ((VarExpr) node.getRefExpr()).getName();
+            if(isArrayType(referenceType)) {
+                // arrays only inherit the methods of Object
+                referenceType = OBJECT;
             }
+        } else {
+            referenceType = this.currentClass;
         }
 
         node.getActualList().accept(this);
@@ -296,8 +300,9 @@ public class TypeCheckVisitor extends Visitor {
     @Override
     public Object visit(NewArrayExpr node) {
         //make sure expr evaluates to int
-        node.setExprType(node.getType());
-        if(node.getSize().getExprType() != INT) {
+        node.getSize().accept(this);
+        node.setExprType(node.getType() + ARRAY);
+        if(!INT.equals(node.getSize().getExprType())) {
             errorHandler.register(errorHandler.SEMANT_ERROR,
                     this.currentClass,
                     node.getLineNum(),
@@ -360,8 +365,9 @@ public class TypeCheckVisitor extends Visitor {
         String variableType;
         if(node.getRefName()!=null) {
             //check the class map
-            if(classMap.containsKey(node.getRefName())) {
-                variableType = (String)classMap.get(node.getRefName()).getVarSymbolTable().lookup(node.getName());
+            String refClass = getRefClass(node.getRefName());
+            if(classMap.containsKey(refClass)) {
+                variableType = (String)classMap.get(refClass).getVarSymbolTable().lookup(node.getName());
                 if(variableType != null) {
                     boolean legal = checkType(variableType, node.getExpr().getExprType(), node, true);
                     if(legal) {
@@ -399,14 +405,23 @@ public class TypeCheckVisitor extends Visitor {
 
     @Override
     public Object visit(ArrayAssignExpr node) {
+        node.getIndex().accept(this);
         node.getExpr().accept(this);
         node.setExprType(OBJECT);
+        if(!INT.equals(node.getIndex().getExprType())) {
+            errorHandler.register(errorHandler.SEMANT_ERROR,
+                    this.currentClass,
+                    node.getLineNum(),
+                    "Array index does not evaluate to int");
+        }
         String variableType;
         if(node.getRefName()!=null) {
             //check the class map
-            if(classMap.containsKey(node.getRefName())) {
-                variableType = (String)classMap.get(node.getRefName()).getVarSymbolTable().lookup(node.getName());
+            String refClass = getRefClass(node.getRefName());
+            if(classMap.containsKey(refClass)) {
+                variableType = (String)classMap.get(refClass).getVarSymbolTable().lookup(node.getName());
                 if(variableType != null) {
+                    variableType = getElementType(variableType, node);
                     boolean legal = checkType(variableType, node.getExpr().getExprType(), node, true);
                     if(legal) {
                         node.setExprType(variableType);
@@ -427,6 +442,7 @@ public class TypeCheckVisitor extends Visitor {
         } else {
             variableType = (String) this.currentVarSymbolTable.lookup(node.getName());
             if(variableType != null) {
+                variableType = getElementType(variableType, node);
                 boolean legal = checkType(variableType, node.getExpr().getExprType(), node, true);
                 if(legal) {
                     node.setExprType(variableType);
@@ -550,14 +566,14 @@ public class TypeCheckVisitor extends Visitor {
     public Object visit(UnaryIncrExpr node) {
         super.visit(node);
         checkUnaryExpr(node);
-        return false;
+        return true;
     }
 
     @Override
     public Object visit(UnaryDecrExpr node) {
         super.visit(node);
         checkUnaryExpr(node);
-        return false;
+        return true;
     }
 
     /**
@@ -580,12 +596,21 @@ public class TypeCheckVisitor extends Visitor {
                         varType = (String) currClass.getVarSymbolTable().lookup(node.getName());
                     }
                 }
+            } else if(isArrayType(node.getRef().getExprType())
+                    && node.getName().equals(LENGTH)) {
+                varType = INT;
             } else {
                 errorHandler.register(errorHandler.SEMANT_ERROR,
                         this.currentClass,
                         node.getLineNum(),
                         "Only super or this are allowed for variable references");
             }
+        } else if(node.getName().equals(THIS)) {
+            varType = this.currentClass;
+        } else if(node.getName().equals(SUPER)) {
+            varType = classMap.get(currentClass).getParent().getName();
+        } else if(node.getName().equals(NULL)) {
+            varType = NULL;
         } else {
             varType = (String) currentVarSymbolTable.lookup(node.getName());
         }
@@ -602,7 +627,13 @@ public class TypeCheckVisitor extends Visitor {
 
     @Override
     public Object visit(ArrayExpr node) {
-        super.visit(node);
+        node.getIndex().accept(this);
+        if(!INT.equals(node.getIndex().getExprType())) {
+            errorHandler.register(errorHandler.SEMANT_ERROR,
+                    this.currentClass,
+                    node.getLineNum(),
+                    "Array index does not evaluate to int");
+        }
         String varType = null;
         if (node.getRef() != null) {
             node.getRef().accept(this);
@@ -626,15 +657,16 @@ public class TypeCheckVisitor extends Visitor {
             varType = (String) currentVarSymbolTable.lookup(node.getName());
         }
         if (varType != null) {
-            node.setExprType(varType);
+            node.setExprType(getElementType(varType, node));
         } else {
+            node.setExprType(OBJECT);
             errorHandler.register(errorHandler.SEMANT_ERROR,
                     this.currentClass,
                     node.getLineNum(),
                     "Undeclared variable " + node.getName());
         }
 
-        return null;
+        return false;
     }
 
     @Override
@@ -664,6 +696,10 @@ public class TypeCheckVisitor extends Visitor {
      * @param debug true if one wishes to report errors to the errorhandler
      */
     private boolean checkType(String type, String subtype, ASTNode ast, boolean debug) {
+        //null and array types are not in the class map so handle them first
+        if(type.equals(NULL) || subtype.equals(NULL) || isArrayType(type) || isArrayType(subtype)) {
+            return checkReferenceType(type, subtype, ast, debug);
+        }
         if(type.equals(subtype)) {
             if(!(SemanticTools.isPrimitive(subtype) && SemanticTools.isPrimitive(type))) {
                 if(!(classMap.containsKey(type) && classMap.containsKey(subtype))) {
@@ -732,6 +768,89 @@ public class TypeCheckVisitor extends Visitor {
         return false;
     }
 
+    /**
+     * Checks compatibility when either type is null or an array type:
+     * null is a subtype of every reference type, every array is a subtype
+     * of Object, and reference arrays are covariant in their element type
+     * @param type parent type
+     * @param subtype possible subtype
+     * @param ast the associated ast node for error printing
+     * @param debug true if one wishes to report errors to the errorhandler
+     */
+    private boolean checkReferenceType(String type, String subtype, ASTNode ast, boolean debug) {
+        if(SemanticTools.isPrimitive(type) || SemanticTools.isPrimitive(subtype)) {
+            if(debug) {
+                errorHandler.register(errorHandler.SEMANT_ERROR,
+                        this.currentClass,
+                        ast.getLineNum(),
+                        "Incompatible types " + type + " and " + subtype);
+            }
+            return false;
+        }
+        if(subtype.equals(NULL) || type.equals(NULL)
+                || (type.equals(OBJECT) && isArrayType(subtype))) {
+            return true;
+        }
+        if(isArrayType(type) && isArrayType(subtype)) {
+            String elementType = type.substring(0, type.length() - ARRAY.length());
+            String elementSubtype = subtype.substring(0, subtype.length() - ARRAY.length());
+            if(SemanticTools.isPrimitive(elementType) || SemanticTools.isPrimitive(elementSubtype)) {
+                if(elementType.equals(elementSubtype)) {
+                    return true;
+                }
+            } else {
+                return checkType(elementType, elementSubtype, ast, debug);
+            }
+        }
+        if(debug) {
+            errorHandler.register(errorHandler.SEMANT_ERROR,
+                    this.currentClass,
+                    ast.getLineNum(),
+                    "Incompatible types " + type + " and " + subtype);
+        }
+        return false;
+    }
+
+    /**
+     * Maps the this/super reference of an assignment to a class name
+     * @param refName the reference name of the assignment
+     * @return the name of the class whose fields are being assigned
+     */
+    private String getRefClass(String refName) {
+        if(refName.equals(THIS)) {
+            return this.currentClass;
+        } else if(refName.equals(SUPER)) {
+            return classMap.get(this.currentClass).getParent().getName();
+        }
+        return refName;
+    }
+
+    /**
+     * @param type a type name
+     * @return true if the type is an array type
+     */
+    private boolean isArrayType(String type) {
+        return type != null && type.endsWith(ARRAY);
+    }
+
+    /**
+     * Gets the element type of an array type, reporting an error
+     * if the type is not an array type
+     * @param type the type being indexed
+     * @param ast the indexing node for error printing
+     * @return the element type
+     */
+    private String getElementType(String type, ASTNode ast) {
+        if(!isArrayType(type)) {
+            errorHandler.register(errorHandler.SEMANT_ERROR,
+                    this.currentClass,
+                    ast.getLineNum(),
+                    "Indexed variable is not an array");
+            return OBJECT;
+        }
+        return type.substring(0, type.length() - ARRAY.length());
+    }
+
     /**
      * Check types for a binary expr
      * reports error if not legal
@@ -755,6 +874,7 @@ public class TypeCheckVisitor extends Visitor {
             }
         } else {
             // if operandtype isnt defined for some crazy reason
+            node.setExprType(node.getOpType());
             if(SemanticTools.isPrimitive(leftType) || SemanticTools.isPrimitive(rightType)) {
                 if(!leftType.equals(rightType)) {
                     errorHandler.register(errorHandler.SEMANT_ERROR,
@@ -0,0 +1,108 @@
+/**
+ * File: AllocationTest.java
+ * Class: CS461
+ * Project: 4
+ */
+
+package bantam.interp;
+
+import bantam.ast.Program;
+import bantam.lexer.Lexer;
+import bantam.parser.Parser;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.ClassTreeNode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the bytes the running thread allocates while Fib interprets
+ * (com.sun.management.ThreadMXBean.getThreadAllocatedBytes) for two
+ * values of n, on every engine, and checks that they stay constant as n
+ * grows: ints are never boxed and frames are recycled, so the ten times
+ * more calls of the larger n allocate nothing.
+ */
+public class AllocationTest
+{
+    /** the smaller and the larger number of Fibonacci numbers (fib is
+     *  called about 22000 and 240000 times) */
+    private static final int SMALL_N = 20, LARGE_N = 25;
+
+    /** most bytes the larger n may allocate beyond the smaller one (for
+     *  its few more lines of output; a single byte per call would be
+     *  over 200000) */
+    private static final long MAX_GROWTH = 16 * 1024;
+
+    /** tests the tree-walking engine */
+    @Test
+    public void astTest() throws Exception {
+        checkConstant(Interpreter.ENGINE_AST);
+    }
+
+    /** tests the VM without the JIT */
+    @Test
+    public void vmInterpretedTest() throws Exception {
+        checkConstant(Interpreter.ENGINE_VM_INTERPRETED);
+    }
+
+    /** tests the VM, where fib is compiled with both values of n */
+    @Test
+    public void vmTest() throws Exception {
+        checkConstant(Interpreter.ENGINE_VM);
+    }
+
+    /**
+     * Runs Fib for both values of n (after a run to load and initialize
+     * the classes involved) and compares the bytes they allocate
+     * @param engine the engine (Interpreter.ENGINE_AST, ENGINE_VM or
+     *               ENGINE_VM_INTERPRETED)
+     * @throws Exception parser errors could be thrown
+     */
+    private void checkConstant(int engine) throws Exception {
+        Parser parser = new Parser(new Lexer(new String[]{"testfiles/Fib.btm"}, false));
+        Program program = (Program) parser.parse().value;
+        ClassTreeNode root = new SemanticAnalyzer(program, false).analyze();
+
+        allocatedBytes(root, engine, SMALL_N);
+        long small = allocatedBytes(root, engine, SMALL_N);
+        long large = allocatedBytes(root, engine, LARGE_N);
+        System.out.println(String.format("engine %d: n=%d %8d bytes, n=%d %8d bytes",
+                engine, SMALL_N, small, LARGE_N, large));
+        assertTrue(small + " bytes for n=" + SMALL_N + ", " + large + " for n=" + LARGE_N,
+                large - small <= MAX_GROWTH);
+    }
+
+    /**
+     * Interprets Fib and measures the bytes the thread allocates meanwhile
+     * @param root the root of the analyzed class tree of Fib
+     * @param engine the engine
+     * @param n the number of Fibonacci numbers to print
+     * @return the bytes allocated by interpret()
+     */
+    private static long allocatedBytes(ClassTreeNode root, int engine, int n) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        PrintStream outStream = new PrintStream(out, false);
+        Interpreter interpreter = new Interpreter(root, false, engine,
+                new ByteArrayInputStream((n + "\n").getBytes()), outStream,
+                new PrintStream(new ByteArrayOutputStream()));
+        long before = threads.getThreadAllocatedBytes(thread);
+        assertEquals(0, interpreter.interpret());
+        long bytes = threads.getThreadAllocatedBytes(thread) - before;
+
+        outStream.flush();
+        int[] last = {4181, 46368};
+        assertTrue(out.toString().contains("Fibonacci number " + (n - 1) + ": "
+                + last[n == SMALL_N ? 0 : 1]));
+        return bytes;
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * File: EngineBenchmarkTest.java
+ * Class: CS461
+ * Project: 4
+ */
+
+package bantam.interp;
+
+import bantam.ast.Program;
+import bantam.lexer.Lexer;
+import bantam.parser.Parser;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.ClassTreeNode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmarks the bytecode VM (-int vm, which compiles hot code with its
+ * JIT) against the tree-walking engine (-int ast) on the CPU-bound
+ * testfiles, printing the best time of each engine, of the VM without
+ * the JIT (-int vm-nojit) and the speedups.  The target of the VM is a
+ * 5-10x speedup; each test checks that the engines print the same output
+ * and that the VM reaches a minimum speedup, which leaves headroom for
+ * a noisy host and is below the target where the program spends its
+ * time outside the compiled loops (in the calls of Fib, or in the
+ * built-in I/O of Nim).
+ */
+public class EngineBenchmarkTest
+{
+    /** speedup the VM is meant to reach over the tree-walking engine */
+    private static final double TARGET_SPEEDUP = 5.0;
+
+    /** smallest speedup accepted for the loops of int arithmetic */
+    private static final double MIN_SPEEDUP = 4.0;
+
+    /** number of runs of each program per engine to warm up the JVM */
+    private static final int NUM_WARMUP_RUNS = 40;
+
+    /** number of runs of each program timed per engine */
+    private static final int NUM_RUNS = 10;
+
+    /** benchmarks CountDivisors (nested loops of int arithmetic) */
+    @Test
+    public void countDivisorsTest() throws Exception {
+        benchmark("CountDivisors.btm", "3000\n", MIN_SPEEDUP);
+    }
+
+    /** benchmarks Primes (nested loops with an early exit) */
+    @Test
+    public void primesTest() throws Exception {
+        benchmark("Primes.btm", "4000\n", MIN_SPEEDUP);
+    }
+
+    /** benchmarks Fib (recursive calls, each allocating the registers of its callee) */
+    @Test
+    public void fibTest() throws Exception {
+        benchmark("Fib.btm", "22\n", 1.5);
+    }
+
+    /**
+     * benchmarks Nim (string output and input, few instructions per line);
+     * its time goes to the built-in I/O that the engines share, so only
+     * its output is checked
+     */
+    @Test
+    public void nimTest() throws Exception {
+        StringBuilder input = new StringBuilder("Ann\nBob\n3000\n");
+        for (int i = 0; i < 1000; i++) {
+            input.append("3\n");
+        }
+        benchmark("Nim.btm", input.toString(), 0.0);
+    }
+
+    /**
+     * Times a program under the engines, prints the speedups and checks
+     * the speedup of the VM
+     * @param filename the btm file in testfiles
+     * @param input the standard input of the program
+     * @param minSpeedup the smallest speedup of the VM accepted
+     * @throws Exception parser errors could be thrown
+     */
+    private void benchmark(String filename, String input, double minSpeedup)
+            throws Exception {
+        ClassTreeNode root = analyze(filename);
+        String astOutput = run(root, Interpreter.ENGINE_AST, input);
+        assertEquals(filename, astOutput, run(root, Interpreter.ENGINE_VM, input));
+        assertEquals(filename, astOutput,
+                run(root, Interpreter.ENGINE_VM_INTERPRETED, input));
+
+        long[] nanos = time(root, input, Interpreter.ENGINE_AST,
+                Interpreter.ENGINE_VM, Interpreter.ENGINE_VM_INTERPRETED);
+        long astNanos = nanos[0];
+        long vmNanos = nanos[1];
+        long noJitNanos = nanos[2];
+        double speedup = (double) astNanos / vmNanos;
+        System.out.println(String.format(
+                "%-18s ast %8.2f ms  vm %8.2f ms (%.2fx%s)  vm-nojit %8.2f ms (%.2fx)",
+                filename, astNanos / 1e6, vmNanos / 1e6, speedup,
+                speedup < TARGET_SPEEDUP ? ", target " + TARGET_SPEEDUP + "x" : "",
+                noJitNanos / 1e6, (double) astNanos / noJitNanos));
+        assertTrue(filename + ": speedup " + speedup + "x is below " + minSpeedup + "x",
+                speedup >= minSpeedup);
+    }
+
+    /**
+     * Gets the best time of a program under each engine, alternating
+     * between the engines so that a slow period of the host slows all
+     * of them
+     * @param root the root of the class hierarchy tree
+     * @param input the standard input of the program
+     * @param engines the engines (Interpreter.ENGINE_AST, ENGINE_VM or
+     *                ENGINE_VM_INTERPRETED)
+     * @return the shortest run time of each engine in nanoseconds
+     */
+    private long[] time(ClassTreeNode root, String input, int... engines) {
+        for (int i = 0; i < NUM_WARMUP_RUNS; i++) {
+            for (int engine : engines) {
+                run(root, engine, input);
+            }
+        }
+        long[] best = new long[engines.length];
+        Arrays.fill(best, Long.MAX_VALUE);
+        for (int i = 0; i < NUM_RUNS; i++) {
+            for (int j = 0; j < engines.length; j++) {
+                long start = System.nanoTime();
+                run(root, engines[j], input);
+                best[j] = Math.min(best[j], System.nanoTime() - start);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Runs a program
+     * @param root the root of the class hierarchy tree
+     * @param engine the engine (Interpreter.ENGINE_AST, ENGINE_VM or ENGINE_VM_INTERPRETED)
+     * @param input the standard input of the program
+     * @return its standard output followed by its exit status
+     */
+    private String run(ClassTreeNode root, int engine, String input) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream outStream = new PrintStream(out, false);
+        Interpreter interpreter = new Interpreter(root, false, engine,
+                new ByteArrayInputStream(input.getBytes()), outStream,
+                new PrintStream(new ByteArrayOutputStream()));
+        int status = interpreter.interpret();
+        outStream.flush();
+        return out + "\nexit status " + status;
+    }
+
+    /**
+     * Parses and analyzes a program
+     * @param filename the btm file in testfiles
+     * @return the root of its class hierarchy tree
+     * @throws Exception parser errors could be thrown
+     */
+    private ClassTreeNode analyze(String filename) throws Exception {
+        Parser parser = new Parser(new Lexer(new String[]{"testfiles/" + filename}, false));
+        Program program = (Program) parser.parse().value;
+        return new SemanticAnalyzer(program, false).analyze();
+    }
+}
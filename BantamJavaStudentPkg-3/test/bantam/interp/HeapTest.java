@@ -0,0 +1,188 @@
+/**
+ * File: HeapTest.java
+ * Class: CS461
+ * Project: 4
+ */
+
+package bantam.interp;
+
+import bantam.ast.Program;
+import bantam.lexer.Lexer;
+import bantam.parser.Parser;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.ClassTreeNode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs a program that keeps a linked list alive while it allocates
+ * garbage in a small heap (-heap), on every engine, and checks that it
+ * runs out of memory without garbage collection (-gc) and that with it
+ * the list survives every collection and the program prints what it
+ * prints in an unlimited heap.
+ */
+public class HeapTest
+{
+    /** the number of nodes of the list (each node is 20 bytes) */
+    private static final int NODES = 500;
+
+    /** the heap size: about three times the live data */
+    private static final long HEAP_SIZE = 32 * 1024;
+
+    /** a heap smaller than the live data */
+    private static final long SMALL_HEAP_SIZE = 8 * 1024;
+
+    /** builds a list of n nodes, then, on each of 20 rounds, allocates
+     *  1000 garbage nodes, adds a node to the list, and prints the length
+     *  of the list and a checksum of its values (which depends on their
+     *  order) */
+    private static final String PROGRAM =
+            "class Node {\n" +
+            "    int value = 0;\n" +
+            "    Node next = null;\n" +
+            "    Node init(int value, Node next) { this.value = value; this.next = next; return this; }\n" +
+            "    int getValue() { return value; }\n" +
+            "    Node getNext() { return next; }\n" +
+            "}\n" +
+            "class Main {\n" +
+            "    void main() {\n" +
+            "        TextIO io = new TextIO();\n" +
+            "        int n = io.getInt();\n" +
+            "        Node list = null;\n" +
+            "        int i = 0;\n" +
+            "        while (i < n) { list = new Node().init(i, list); i++; }\n" +
+            "        int round = 0;\n" +
+            "        while (round < 20) {\n" +
+            "            int j = 0;\n" +
+            "            while (j < 1000) { Node garbage = new Node().init(j, null); j++; }\n" +
+            "            list = new Node().init(n + round, list);\n" +
+            "            io.putInt(length(list)).putString(\" \").putInt(checksum(list)).putString(\"\\n\");\n" +
+            "            round++;\n" +
+            "        }\n" +
+            "    }\n" +
+            "    int length(Node list) {\n" +
+            "        int length = 0;\n" +
+            "        while (list != null) { length++; list = list.getNext(); }\n" +
+            "        return length;\n" +
+            "    }\n" +
+            "    int checksum(Node list) {\n" +
+            "        int sum = 0;\n" +
+            "        while (list != null) { sum = sum * 31 + list.getValue(); list = list.getNext(); }\n" +
+            "        return sum;\n" +
+            "    }\n" +
+            "}\n";
+
+    /** tests the tree-walking engine */
+    @Test
+    public void astTest() throws Exception {
+        checkEngine(Interpreter.ENGINE_AST);
+    }
+
+    /** tests the VM without the JIT */
+    @Test
+    public void vmInterpretedTest() throws Exception {
+        checkEngine(Interpreter.ENGINE_VM_INTERPRETED);
+    }
+
+    /** tests the VM with low JIT thresholds, so that the collections also
+     *  run under compiled code */
+    @Test
+    public void vmTest() throws Exception {
+        checkEngine(Interpreter.ENGINE_VM);
+    }
+
+    /**
+     * Runs the program in the small heaps, with and without collection,
+     * and compares it with a run in an unlimited heap
+     * @param engine the engine (Interpreter.ENGINE_AST, ENGINE_VM or
+     *               ENGINE_VM_INTERPRETED)
+     * @throws Exception parser errors could be thrown
+     */
+    private void checkEngine(int engine) throws Exception {
+        ClassTreeNode root = analyze();
+        String expected = run(root, Interpreter.ENGINE_AST, 0, false).output;
+        assertTrue(expected, expected.endsWith("\nexit status 0"));
+
+        // without collection, the garbage fills the heap
+        Run run = run(root, engine, HEAP_SIZE, false);
+        assertTrue(run.output, run.output.endsWith("\nexit status 1"));
+        assertTrue(run.error, run.exceededLimit && run.error.contains("out of memory"));
+
+        // with it, the list survives several collections
+        run = run(root, engine, HEAP_SIZE, true);
+        assertEquals(run.error, expected, run.output);
+        assertTrue(run.heapReport, run.collections >= 5);
+
+        // the live data must still fit
+        run = run(root, engine, SMALL_HEAP_SIZE, true);
+        assertTrue(run.output, run.output.endsWith("\nexit status 1"));
+        assertTrue(run.error, run.exceededLimit && run.error.contains("out of memory"));
+    }
+
+    /** the results of a run */
+    private static class Run
+    {
+        /** its standard output followed by its exit status */
+        String output;
+
+        /** its standard error */
+        String error;
+
+        /** whether it was stopped by a limit */
+        boolean exceededLimit;
+
+        /** the number of collections and the heap report */
+        int collections;
+        String heapReport;
+    }
+
+    /**
+     * Runs the program
+     * @param root the root of the class hierarchy tree
+     * @param engine the engine
+     * @param heapSize the heap size (0 for no limit)
+     * @param collect whether to collect garbage
+     * @return the results of the run
+     */
+    private Run run(ClassTreeNode root, int engine, long heapSize, boolean collect) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream outStream = new PrintStream(out, false);
+        PrintStream errStream = new PrintStream(err, false);
+        Interpreter interpreter = new Interpreter(root, false, engine,
+                new ByteArrayInputStream((NODES + "\n").getBytes()), outStream, errStream);
+        interpreter.setHeap(heapSize, collect);
+        if (engine == Interpreter.ENGINE_VM) {
+            interpreter.setJitThresholds(2, 3);
+        }
+        int status = interpreter.interpret();
+        outStream.flush();
+        errStream.flush();
+
+        Run run = new Run();
+        run.output = out + "\nexit status " + status;
+        run.error = err.toString();
+        run.exceededLimit = interpreter.exceededLimit();
+        run.collections = interpreter.getCollections();
+        run.heapReport = interpreter.getHeapReport();
+        return run;
+    }
+
+    /**
+     * Parses and analyzes the program
+     * @return the root of its class hierarchy tree
+     * @throws Exception parser errors could be thrown
+     */
+    private ClassTreeNode analyze() throws Exception {
+        Parser parser = new Parser(new Lexer(new StringReader(PROGRAM)));
+        Program program = (Program) parser.parse().value;
+        return new SemanticAnalyzer(program, false).analyze();
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * File: InlineCacheTest.java
+ * Class: CS461
+ * Project: 4
+ */
+
+package bantam.interp;
+
+import bantam.ast.Program;
+import bantam.lexer.Lexer;
+import bantam.parser.Parser;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.ClassTreeNode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs a program whose call sites see 1, 3 and 5 receiver classes on
+ * every engine, and checks the state and the counts the report of each
+ * site's inline cache (-di) gives: the first lookup of each class misses
+ * and the others hit, until a fifth class makes the site megamorphic.
+ */
+public class InlineCacheTest
+{
+    /** the number of times each call site is executed */
+    private static final int CALLS = 15 * 20;
+
+    /** classes A to E each override one(), three() and five(); the loop
+     *  calls one() on A, three() on A to C, and five() on A to E */
+    private static final String PROGRAM =
+            "class A { int one() { return 0; } int three() { return 0; } int five() { return 0; } }\n" +
+            "class B extends A { int one() { return 1; } int three() { return 1; } int five() { return 1; } }\n" +
+            "class C extends A { int one() { return 2; } int three() { return 2; } int five() { return 2; } }\n" +
+            "class D extends A { int one() { return 3; } int three() { return 3; } int five() { return 3; } }\n" +
+            "class E extends A { int one() { return 4; } int three() { return 4; } int five() { return 4; } }\n" +
+            "class Main {\n" +
+            "    void main() {\n" +
+            "        A[] objects = new A[5];\n" +
+            "        objects[0] = new A(); objects[1] = new B(); objects[2] = new C();\n" +
+            "        objects[3] = new D(); objects[4] = new E();\n" +
+            "        int sum = 0;\n" +
+            "        int i = 0;\n" +
+            "        while (i < " + CALLS + ") {\n" +
+            "            sum = sum + objects[0].one() + objects[i % 3].three() + objects[i % 5].five();\n" +
+            "            i = i + 1;\n" +
+            "        }\n" +
+            "        (new TextIO()).putInt(sum).putString(\"\\n\");\n" +
+            "    }\n" +
+            "}\n";
+
+    /** tests the caches of the tree-walking engine */
+    @Test
+    public void astTest() throws Exception {
+        checkCaches(Interpreter.ENGINE_AST);
+    }
+
+    /** tests the caches of the VM without the JIT (whose calls quicken
+     *  once their site is monomorphic) */
+    @Test
+    public void vmInterpretedTest() throws Exception {
+        checkCaches(Interpreter.ENGINE_VM_INTERPRETED);
+    }
+
+    /** tests the caches of the VM with low JIT thresholds, where the loop
+     *  of main is compiled early and looks up the targets of its calls in
+     *  the same caches */
+    @Test
+    public void vmTest() throws Exception {
+        checkCaches(Interpreter.ENGINE_VM);
+    }
+
+    /**
+     * Runs the program with debugging enabled and checks the report line
+     * of each of its three call sites
+     * @param engine the engine (Interpreter.ENGINE_AST, ENGINE_VM or
+     *               ENGINE_VM_INTERPRETED)
+     * @throws Exception parser errors could be thrown
+     */
+    private void checkCaches(int engine) throws Exception {
+        Parser parser = new Parser(new Lexer(new StringReader(PROGRAM)));
+        Program program = (Program) parser.parse().value;
+        ClassTreeNode root = new SemanticAnalyzer(program, false).analyze();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream outStream = new PrintStream(out, false);
+        PrintStream errStream = new PrintStream(err, false);
+        Interpreter interpreter = new Interpreter(root, true, engine,
+                new ByteArrayInputStream(new byte[0]), outStream, errStream);
+        if (engine == Interpreter.ENGINE_VM) {
+            interpreter.setJitThresholds(2, 3);
+            interpreter.setJitLog(true);
+        }
+        assertEquals(0, interpreter.interpret());
+        outStream.flush();
+        errStream.flush();
+        // three() returns 0 to 2 and five() 0 to 4, in turn
+        assertEquals((CALLS / 3 * 3 + CALLS / 5 * 10) + "\n", out.toString());
+
+        String report = err.toString();
+        if (engine == Interpreter.ENGINE_VM) {
+            assertTrue(report, report.contains("JIT: compiled Main.main "));
+        }
+        checkSite(report, "one", CALLS - 1, 1, 0, 1, "monomorphic");
+        checkSite(report, "three", CALLS - 3, 3, 0, 3, "polymorphic");
+        checkSite(report, "five", 0, 5, CALLS - 5, 5, "megamorphic");
+    }
+
+    /**
+     * Checks the report line of the call site of a method
+     * @param report the standard error of the run
+     * @param method the name of the called method
+     * @param hits the expected hits
+     * @param misses the expected misses
+     * @param megamorphic the expected megamorphic lookups
+     * @param classes the expected number of receiver classes
+     * @param state the expected state of the cache
+     */
+    private static void checkSite(String report, String method, long hits, long misses,
+                                  long megamorphic, int classes, String state) {
+        String site = null;
+        for (String line : report.split("\n")) {
+            if (line.contains(" " + method + "(): ")) {
+                assertTrue(report, site == null);
+                site = line;
+            }
+        }
+        assertTrue(report, site != null);
+        assertTrue(site, site.contains(String.format(
+                " %s(): %d call(s), %d hit(s), %d miss(es), %d megamorphic (",
+                method, CALLS, hits, misses, megamorphic)));
+        assertTrue(site, site.endsWith(String.format(
+                "%% hits), %d class(es), %s", classes, state)));
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * File: JitCompilerTest.java
+ * Class: CS461
+ * Project: 4
+ */
+
+package bantam.interp;
+
+import bantam.ast.Program;
+import bantam.lexer.Lexer;
+import bantam.parser.Parser;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.ClassTreeNode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs programs under the VM with low JIT thresholds, so that their hot
+ * code is compiled early, and checks the JIT log (-dj) and that the
+ * output matches the tree-walking engine.
+ */
+public class JitCompilerTest
+{
+    /** tests that a recursive method tiers up after a few calls */
+    @Test
+    public void tierUpTest() throws Exception {
+        ClassTreeNode root = analyze("Fib.btm");
+        String expected = run(root, Interpreter.ENGINE_AST, "15\n", 0, 0, null);
+
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        assertEquals(expected, run(root, Interpreter.ENGINE_VM, "15\n", 2, 3, log));
+        String text = log.toString();
+        assertTrue(text, text.contains("JIT: compiled Main.fib "));
+        assertTrue(text, text.contains(" block(s) compiled (thresholds: 2 call(s), 3 back-edge(s))"));
+    }
+
+    /**
+     * tests that a run below the thresholds reuses, from the first call
+     * on, the class an earlier run generated for the same code
+     */
+    @Test
+    public void sharedClassTest() throws Exception {
+        ClassTreeNode root = analyze("Fib.btm");
+        String expected = run(root, Interpreter.ENGINE_AST, "10\n", 0, 0, null);
+        assertEquals(expected, run(root, Interpreter.ENGINE_VM, "10\n", 2, 3, null));
+
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        assertEquals(expected, run(root, Interpreter.ENGINE_VM, "10\n", 1000, 10000, log));
+        String text = log.toString();
+        assertTrue(text, text.contains("JIT: compiled Main.fib at "));
+        assertTrue(text, text.contains("on its first call, reusing the class of an earlier compilation"));
+    }
+
+    /**
+     * tests that main, called once, leaves its hot loop for compiled code
+     * (on-stack replacement) with the int and reference registers it holds
+     * live across the loop, and prints what it prints on the tree-walking
+     * engine
+     */
+    @Test
+    public void osrTest() throws Exception {
+        ClassTreeNode root = analyzeSource(
+                "class Counter { int count = 0; int add(int n) { count = count + n; return count; } }\n" +
+                "class Main {\n" +
+                "    void main() {\n" +
+                "        TextIO io = new TextIO();\n" +
+                "        int n = io.getInt();\n" +
+                "        int sum = 0;\n" +
+                "        int product = 1;\n" +
+                "        int untouched = 461;\n" +
+                "        boolean odd = false;\n" +
+                "        String text = \"x\";\n" +
+                "        Counter counter = new Counter();\n" +
+                "        int i = 0;\n" +
+                "        while (i < n) {\n" +
+                "            sum = sum + i;\n" +
+                "            product = (product * 3 + i) % 1000003;\n" +
+                "            odd = !odd;\n" +
+                "            if (i % 100 == 0) text = text.concat(\"y\");\n" +
+                "            counter.add(i % 7);\n" +
+                "            i++;\n" +
+                "        }\n" +
+                "        io.putInt(sum).putString(\" \").putInt(product).putString(\" \");\n" +
+                "        io.putInt(untouched).putString(\" \").putString(text).putString(\" \");\n" +
+                "        io.putInt(counter.add(0));\n" +
+                "        if (odd) io.putString(\" odd\\n\"); else io.putString(\" even\\n\");\n" +
+                "    }\n" +
+                "}\n");
+        String expected = run(root, Interpreter.ENGINE_AST, "1001\n", 0, 0, null);
+        assertTrue(expected, expected.endsWith(" odd\n\nexit status 0"));
+
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        assertEquals(expected, run(root, Interpreter.ENGINE_VM, "1001\n", 10000, 50, log));
+        String text = log.toString();
+        assertTrue(text, text.contains("JIT: compiled Main.main for OSR at "));
+        assertTrue(text, text.contains("  Main.main: 1 interpreted call(s) at "));
+        assertTrue(text, text.contains(", 1 OSR entry\n"));
+    }
+
+    /**
+     * Runs a program
+     * @param root the root of the class hierarchy tree
+     * @param engine the engine (Interpreter.ENGINE_AST or ENGINE_VM)
+     * @param input the standard input of the program
+     * @param calls the call threshold of the JIT
+     * @param loops the back-edge threshold of the JIT
+     * @param log the stream the JIT log goes to (null for no log)
+     * @return its standard output followed by its exit status
+     */
+    private String run(ClassTreeNode root, int engine, String input,
+                       int calls, int loops, ByteArrayOutputStream log) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream outStream = new PrintStream(out, false);
+        PrintStream errStream = new PrintStream(
+                (log != null) ? log : new ByteArrayOutputStream(), false);
+        Interpreter interpreter = new Interpreter(root, false, engine,
+                new ByteArrayInputStream(input.getBytes()), outStream, errStream);
+        if (engine == Interpreter.ENGINE_VM) {
+            interpreter.setJitThresholds(calls, loops);
+            interpreter.setJitLog(log != null);
+        }
+        int status = interpreter.interpret();
+        outStream.flush();
+        errStream.flush();
+        return out + "\nexit status " + status;
+    }
+
+    /**
+     * Parses and analyzes a program
+     * @param filename the btm file in testfiles
+     * @return the root of its class hierarchy tree
+     * @throws Exception parser errors could be thrown
+     */
+    private ClassTreeNode analyze(String filename) throws Exception {
+        Parser parser = new Parser(new Lexer(new String[]{"testfiles/" + filename}, false));
+        Program program = (Program) parser.parse().value;
+        return new SemanticAnalyzer(program, false).analyze();
+    }
+
+    /**
+     * Parses and analyzes the source of a program
+     * @param source the program
+     * @return the root of its class hierarchy tree
+     * @throws Exception parser errors could be thrown
+     */
+    private ClassTreeNode analyzeSource(String source) throws Exception {
+        Parser parser = new Parser(new Lexer(new StringReader(source)));
+        Program program = (Program) parser.parse().value;
+        return new SemanticAnalyzer(program, false).analyze();
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * File: ProfilerTest.java
+ * Class: CS461
+ * Project: 4
+ */
+
+package bantam.interp;
+
+import bantam.ast.Program;
+import bantam.lexer.Lexer;
+import bantam.parser.Parser;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.ClassTreeNode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Profiles Fib on every engine and checks that the report (-prof) puts
+ * its hot method, Main.fib, on top with its exact number of calls, and
+ * that most of the time in the collapsed stacks is spent in it.
+ */
+public class ProfilerTest
+{
+    /** the number of Fibonacci numbers Fib prints */
+    private static final int N = 25;
+
+    /** tests the profile of Fib on the tree-walking engine */
+    @Test
+    public void astTest() throws Exception {
+        profile(Interpreter.ENGINE_AST);
+    }
+
+    /** tests the profile of Fib on the VM without the JIT */
+    @Test
+    public void vmInterpretedTest() throws Exception {
+        profile(Interpreter.ENGINE_VM_INTERPRETED);
+    }
+
+    /** tests the profile of Fib on the VM, where fib is compiled and
+     *  calls itself directly */
+    @Test
+    public void vmTest() throws Exception {
+        profile(Interpreter.ENGINE_VM);
+    }
+
+    /**
+     * Profiles Fib and checks the report and the collapsed stacks
+     * @param engine the engine (Interpreter.ENGINE_AST, ENGINE_VM or
+     *               ENGINE_VM_INTERPRETED)
+     * @throws Exception parser errors could be thrown
+     */
+    private void profile(int engine) throws Exception {
+        Parser parser = new Parser(new Lexer(new String[]{"testfiles/Fib.btm"}, false));
+        Program program = (Program) parser.parse().value;
+        ClassTreeNode root = new SemanticAnalyzer(program, false).analyze();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream outStream = new PrintStream(out, false);
+        Interpreter interpreter = new Interpreter(root, false, engine,
+                new ByteArrayInputStream((N + "\n").getBytes()), outStream,
+                new PrintStream(new ByteArrayOutputStream()));
+        interpreter.setProfiling(true);
+        assertEquals(0, interpreter.interpret());
+        outStream.flush();
+        assertTrue(out.toString().contains("Fibonacci number " + (N - 1) + ": 46368"));
+
+        // fib(i) makes 2 * fib(i + 1) - 1 calls, for i from 0 to N - 1
+        long calls = 0;
+        for (int i = 0, a = 0, b = 1; i < N; i++) {
+            int next = a + b;
+            a = b;
+            b = next;
+            calls += 2 * a - 1;
+        }
+
+        String report = interpreter.getProfileReport();
+        String[] lines = report.split("\n");
+        String topMethod = lines[indexOf(lines, "Methods by self time:") + 2];
+        assertTrue(report, topMethod.contains("Main.fib (testfiles/Fib.btm:"));
+        assertEquals(report, calls, Long.parseLong(topMethod.trim().split(" +")[4]));
+        String topLine = lines[indexOf(lines, "Lines by self time:") + 2];
+        assertTrue(report, topLine.contains("testfiles/Fib.btm:") && topLine.endsWith("(Main.fib)"));
+
+        ByteArrayOutputStream stacks = new ByteArrayOutputStream();
+        interpreter.writeCollapsedStacks(new PrintStream(stacks, false));
+        long total = 0, inFib = 0;
+        for (String stack : stacks.toString().split("\n")) {
+            if (stack.isEmpty()) {
+                continue;
+            }
+            assertTrue(stack, stack.startsWith("Main.main"));
+            long micros = Long.parseLong(stack.substring(stack.lastIndexOf(' ') + 1));
+            total += micros;
+            if (stack.contains(";Main.fib ")) {
+                inFib += micros;
+            }
+        }
+        assertTrue(stacks.toString(), total > 0 && inFib * 2 > total);
+    }
+
+    /**
+     * Finds a line of the report
+     * @param lines the lines of the report
+     * @param line the line to find
+     * @return its index
+     */
+    private static int indexOf(String[] lines, String line) {
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].equals(line)) {
+                return i;
+            }
+        }
+        throw new AssertionError("no line '" + line + "' in the report");
+    }
+}
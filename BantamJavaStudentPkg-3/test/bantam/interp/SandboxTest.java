@@ -0,0 +1,183 @@
+/**
+ * File: SandboxTest.java
+ * Class: CS461
+ * Project: 4
+ */
+
+package bantam.interp;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs batches of programs in the Sandbox and checks that the results come
+ * back in the order of the programs, that a runaway program only stops
+ * itself (by its instruction budget, its output limit or the depth of its
+ * recursion), and that programs cannot open files.  The programs that do
+ * not come from testfiles are written to a temporary directory.
+ */
+public class SandboxTest
+{
+    /** the directory the test programs are written to */
+    private static Path dir;
+
+    /** creates the temporary directory */
+    @BeforeClass
+    public static void createDirectory() throws IOException {
+        dir = Files.createTempDirectory("sandbox");
+    }
+
+    /** deletes the temporary directory and the programs in it */
+    @AfterClass
+    public static void deleteDirectory() throws IOException {
+        for (File file : dir.toFile().listFiles()) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(dir);
+    }
+
+    /** tests that the results are in the order of the programs and that a
+     *  runaway program does not disturb the others */
+    @Test
+    public void orderAndIsolationTest() throws Exception {
+        String loop = write("Loop.btm", "class Main { void main() { while (true) { } } }");
+        String bad = write("Bad.btm", "class Main { void main() { int x = true; } }");
+        String fib = "testfiles/Fib.btm";
+        String hello = "testfiles/HelloWorld.btm";
+
+        Sandbox alone = new Sandbox(1, Interpreter.ENGINE_VM);
+        alone.setInput("10\n".getBytes());
+        String fibOutput = alone.run(programs(fib)).get(0).getOutput();
+        String helloOutput = alone.run(programs(hello)).get(0).getOutput();
+
+        for (int engine : new int[]{Interpreter.ENGINE_AST, Interpreter.ENGINE_VM}) {
+            Sandbox sandbox = new Sandbox(3, engine);
+            sandbox.setInput("10\n".getBytes());
+            sandbox.setLimits(1000000, 60000);
+            List<String[]> programs = programs(fib, loop, hello, bad, fib,
+                    "testfiles/Missing.btm", hello, loop, fib);
+            List<Sandbox.Result> results = sandbox.run(programs);
+
+            assertEquals(programs.size(), results.size());
+            for (int i = 0; i < programs.size(); i++) {
+                assertArrayEquals(programs.get(i), results.get(i).getFiles());
+            }
+            int[] outcomes = {
+                    Sandbox.Result.EXITED, Sandbox.Result.LIMIT_EXCEEDED, Sandbox.Result.EXITED,
+                    Sandbox.Result.COMPILE_ERROR, Sandbox.Result.EXITED,
+                    Sandbox.Result.COMPILE_ERROR, Sandbox.Result.EXITED,
+                    Sandbox.Result.LIMIT_EXCEEDED, Sandbox.Result.EXITED
+            };
+            for (int i = 0; i < outcomes.length; i++) {
+                assertEquals(i + ": " + results.get(i).getErrors(),
+                        outcomes[i], results.get(i).getOutcome());
+            }
+            for (int i : new int[]{0, 4, 8}) {
+                assertEquals(fibOutput, results.get(i).getOutput());
+                assertEquals(0, results.get(i).getStatus());
+            }
+            assertEquals(helloOutput, results.get(2).getOutput());
+            assertEquals(helloOutput, results.get(6).getOutput());
+            assertTrue(results.get(1).getErrors().contains("instruction budget"));
+            assertTrue(results.get(5).getErrors().contains("not found"));
+        }
+    }
+
+    /** tests that a program printing without end is stopped at the output limit */
+    @Test
+    public void outputLimitTest() throws Exception {
+        String flood = write("Flood.btm", "class Main { void main() { TextIO io = new TextIO(); "
+                + "while (true) { io.putString(\"0123456789\"); } } }");
+        for (int engine : new int[]{Interpreter.ENGINE_AST, Interpreter.ENGINE_VM}) {
+            Sandbox sandbox = new Sandbox(2, engine);
+            sandbox.setLimits(0, 60000);
+            sandbox.setMaxOutput(1005);
+            Sandbox.Result result = sandbox.run(programs(flood)).get(0);
+
+            assertEquals(Sandbox.Result.LIMIT_EXCEEDED, result.getOutcome());
+            assertEquals(1, result.getStatus());
+            assertEquals(1005, result.getOutput().length());
+            assertTrue(result.getErrors(), result.getErrors().contains(
+                    "limit exceeded: standard output limit of 1005 bytes exceeded"));
+        }
+    }
+
+    /** tests that unbounded recursion is stopped as a limit, not a failure of the toolset */
+    @Test
+    public void stackOverflowTest() throws Exception {
+        String deep = write("Deep.btm", "class Main { int down(int n) { return down(n + 1); } "
+                + "void main() { down(0); } }");
+        for (int engine : new int[]{Interpreter.ENGINE_AST, Interpreter.ENGINE_VM,
+                Interpreter.ENGINE_VM_INTERPRETED}) {
+            Sandbox sandbox = new Sandbox(2, engine);
+            List<Sandbox.Result> results = sandbox.run(programs(deep, "testfiles/HelloWorld.btm"));
+
+            assertEquals(Sandbox.Result.LIMIT_EXCEEDED, results.get(0).getOutcome());
+            assertEquals(1, results.get(0).getStatus());
+            assertTrue(results.get(0).getErrors().contains("limit exceeded: stack overflow"));
+            assertEquals(Sandbox.Result.EXITED, results.get(1).getOutcome());
+        }
+    }
+
+    /** tests that programs in the sandbox can neither write nor read files */
+    @Test
+    public void fileAccessTest() throws Exception {
+        File target = dir.resolve("written.txt").toFile();
+        String writer = write("Writer.btm", "class Main { void main() { TextIO io = new TextIO(); "
+                + "io.writeFile(\"" + target.getAbsolutePath() + "\"); io.putString(\"x\\n\"); } }");
+        String reader = write("Reader.btm", "class Main { void main() { TextIO io = new TextIO(); "
+                + "io.readFile(\"testfiles/FileIO-input.txt\"); io.getString(); } }");
+        Sandbox sandbox = new Sandbox(2, Interpreter.ENGINE_VM);
+        List<Sandbox.Result> results = sandbox.run(programs(writer, reader));
+
+        for (Sandbox.Result result : results) {
+            assertEquals(Sandbox.Result.EXITED, result.getOutcome());
+            assertEquals(1, result.getStatus());
+            assertTrue(result.getErrors(), result.getErrors().contains("(file access is disabled)"));
+        }
+        assertTrue(results.get(0).getErrors().contains("can't write to file"));
+        assertTrue(results.get(1).getErrors().contains("can't read from file"));
+        assertFalse(target.exists());
+    }
+
+    /**
+     * Makes a batch of single-file programs
+     * @param files the source file of each program
+     * @return the programs
+     */
+    private static List<String[]> programs(String... files) {
+        List<String[]> programs = new ArrayList<String[]>();
+        for (String file : files) {
+            programs.add(new String[]{file});
+        }
+        return programs;
+    }
+
+    /**
+     * Writes a program to the temporary directory
+     * @param name the file name
+     * @param source the source of the program
+     * @return the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    private static String write(String name, String source) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, Arrays.asList(source), StandardCharsets.UTF_8);
+        return file.toString();
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * File: VMTest.java
+ * Class: CS461
+ * Project: 4
+ */
+
+package bantam.interp;
+
+import bantam.ast.Program;
+import bantam.lexer.Lexer;
+import bantam.parser.Parser;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.ClassTreeNode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs a loop under the VM without the JIT and with debugging enabled
+ * (-di), and checks in the listing and in the dispatch counts that its
+ * calls and allocations quicken (CALL to CALLQ, NEW to NEWQ) and that its
+ * hot pairs of instructions run as superinstructions, while the program
+ * prints what it prints on the tree-walking engine.
+ */
+public class VMTest
+{
+    /** the number of iterations of the loop */
+    private static final int N = 100;
+
+    /** calls square.area() and counter.increment() (one receiver class
+     *  each) and shape.area() (two, in turn), and creates a Point (no
+     *  field initializers) and a Square (one), on every iteration */
+    private static final String PROGRAM =
+            "class Shape { int area() { return 0; } }\n" +
+            "class Square extends Shape { int side = 2; int area() { return side * side; } }\n" +
+            "class Circle extends Shape { int area() { return 3; } }\n" +
+            "class Point { int x; int y; }\n" +
+            "class Counter { int count; void increment() { count = count + 1; } int get() { return count; } }\n" +
+            "class Main {\n" +
+            "    void main() {\n" +
+            "        TextIO io = new TextIO();\n" +
+            "        int n = io.getInt();\n" +
+            "        Shape square = new Square();\n" +
+            "        Shape circle = new Circle();\n" +
+            "        Counter counter = new Counter();\n" +
+            "        int total = 0;\n" +
+            "        int i = 0;\n" +
+            "        while (i < n) {\n" +
+            "            Shape shape = square;\n" +
+            "            if (i % 2 == 0) shape = circle;\n" +
+            "            Point point = new Point();\n" +
+            "            Square other = new Square();\n" +
+            "            total = total + square.area() + shape.area();\n" +
+            "            counter.increment();\n" +
+            "            i = i + 1;\n" +
+            "        }\n" +
+            "        io.putInt(total).putString(\" \").putInt(counter.get()).putString(\"\\n\");\n" +
+            "    }\n" +
+            "}\n";
+
+    /** the calls made once, outside the loop */
+    private static final int CALLS_OUTSIDE = 6;
+
+    /** the objects created once, outside the loop */
+    private static final int NEWS_OUTSIDE = 4;
+
+    /**
+     * tests that monomorphic calls and allocations without initializers
+     * quicken after their first execution, and that a call that sees a
+     * second receiver class goes back to its inline cache for good
+     */
+    @Test
+    public void quickeningTest() throws Exception {
+        Run run = run();
+
+        // square.area() and counter.increment() quicken on their first
+        // call; shape.area() quickens too, but leaves CALLQ on its second
+        assertEquals(run.error, 2 * (N - 1) + 1, run.dispatches("CALLQ"));
+        assertEquals(run.error, 2 + (N - 1) + CALLS_OUTSIDE, run.dispatches("CALL"));
+
+        // new Point() quickens on its first execution; new Square() must
+        // run the initializer of side and stays NEW
+        assertEquals(run.error, N - 1, run.dispatches("NEWQ"));
+        assertEquals(run.error, 1 + N + NEWS_OUTSIDE, run.dispatches("NEW"));
+    }
+
+    /**
+     * tests that the increment and the test of the loop run as IADDI_IFLT
+     * and the field increment as GETI_IADDI, so that no IADDI is
+     * dispatched on its own
+     */
+    @Test
+    public void superinstructionTest() throws Exception {
+        Run run = run();
+        String main = run.error.substring(run.error.indexOf("Main.main: "));
+        assertTrue(main, main.contains("IADDI_IFLT i2, i2, 1\n"));
+        assertEquals(run.error, N, run.dispatches("IADDI_IFLT"));
+        assertEquals(run.error, N, run.dispatches("GETI_IADDI"));
+        assertEquals(run.error, 0, run.dispatches("IADDI"));
+    }
+
+    /** the results of a run */
+    private static class Run
+    {
+        /** its standard error: the listing, the inline caches, and the
+         *  dispatch counts */
+        String error;
+
+        /** the dispatch counts, by mnemonic */
+        HashMap<String, Long> counts = new HashMap<String, Long>();
+
+        /**
+         * Gets the number of dispatches of an opcode
+         * @param name the mnemonic of the opcode
+         * @return the number of dispatches (0 if it was not listed)
+         */
+        long dispatches(String name) {
+            Long count = counts.get(name);
+            return (count != null) ? count : 0;
+        }
+    }
+
+    /**
+     * Runs the program under the VM without the JIT, and checks that it
+     * prints what it prints on the tree-walking engine
+     * @return the results of the run
+     * @throws Exception parser errors could be thrown
+     */
+    private Run run() throws Exception {
+        Parser parser = new Parser(new Lexer(new StringReader(PROGRAM)));
+        Program program = (Program) parser.parse().value;
+        ClassTreeNode root = new SemanticAnalyzer(program, false).analyze();
+
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        String expected = interpret(root, Interpreter.ENGINE_AST, new ByteArrayOutputStream());
+        assertTrue(expected, expected.endsWith("\nexit status 0"));
+        assertEquals(expected, interpret(root, Interpreter.ENGINE_VM_INTERPRETED, err));
+
+        Run run = new Run();
+        run.error = err.toString();
+        String[] lines = run.error.split("\n");
+        int line = 0;
+        while (!lines[line].startsWith("Dispatches (")) {
+            line++;
+        }
+        for (line++; !lines[line].startsWith("Pairs of consecutive instructions:"); line++) {
+            String[] fields = lines[line].trim().split(" +");
+            run.counts.put(fields[0], Long.parseLong(fields[1]));
+        }
+        return run;
+    }
+
+    /**
+     * Interprets the program with debugging enabled
+     * @param root the root of the class hierarchy tree
+     * @param engine the engine
+     * @param err the stream the standard error goes to
+     * @return its standard output followed by its exit status
+     */
+    private static String interpret(ClassTreeNode root, int engine, ByteArrayOutputStream err) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream outStream = new PrintStream(out, false);
+        PrintStream errStream = new PrintStream(err, false);
+        Interpreter interpreter = new Interpreter(root, true, engine,
+                new ByteArrayInputStream((N + "\n").getBytes()), outStream, errStream);
+        int status = interpreter.interpret();
+        outStream.flush();
+        errStream.flush();
+        return out + "\nexit status " + status;
+    }
+}
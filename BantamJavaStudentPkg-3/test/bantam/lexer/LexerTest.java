@@ -229,6 +229,28 @@ public class LexerTest
         checkToken("\\ ", "ILLEGAL_CHAR");
     }
 
+    /**
+     * Check that prefix and postfix increments and decrements are split
+     * from their operands
+     */
+    @Test
+    public void incrDecrTokens() throws Exception {
+        checkTokens("++i", "INCR", "ID");
+        checkTokens("--i", "DECR", "ID");
+        checkTokens("i++", "ID", "INCR");
+        checkTokens("i--;", "ID", "DECR", "SEMI");
+    }
+
+    /**
+     * Check that two string literals on one line are two tokens, not one
+     * literal running from the first quote to the last
+     */
+    @Test
+    public void twoStringsOnOneLine() throws Exception {
+        checkTokens("\"a\" + \"b\"", "STRING_CONST", "PLUS", "STRING_CONST");
+        checkTokens("\"a\\\"b\" + \"c\"", "STRING_CONST", "PLUS", "STRING_CONST");
+    }
+
     /**
      * Checks equality of String with the expected token from the Lexer
      */
@@ -238,4 +260,16 @@ public class LexerTest
         String s = ((Token)token.value).getName();
         assertEquals(expectedToken,s);
     }
+
+    /**
+     * Checks the names of the tokens the Lexer returns for a String, in order
+     */
+    private void checkTokens(String str, String... expectedTokens) throws Exception {
+        Lexer lexer = new Lexer(new StringReader(str));
+        for (String expectedToken : expectedTokens) {
+            Symbol token = lexer.next_token();
+            assertEquals(expectedToken, ((Token)token.value).getName());
+        }
+        assertEquals("EOF", ((Token)lexer.next_token().value).getName());
+    }
 }
\ No newline at end of file
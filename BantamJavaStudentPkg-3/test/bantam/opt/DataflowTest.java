@@ -0,0 +1,371 @@
+/**
+ * File: DataflowTest.java
+ * Class: CS461
+ * Project: 4
+ */
+
+package bantam.opt;
+
+import bantam.ast.Program;
+import bantam.cfg.BasicBlock;
+import bantam.cfg.OperandTable;
+import bantam.cfg.TACInst;
+import bantam.lexer.Lexer;
+import bantam.parser.Parser;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.ClassTreeNode;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Vector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmarks the four data-flow analyses on a generated method of more
+ * than 1000 blocks of nested loops and ifs.  Each test prints the number
+ * of block visits and the time per solve, and checks that the solution
+ * is a fixed point of the data-flow equations and that the solver made
+ * at most (loop nesting depth + 2) sweeps over the blocks.  A last test
+ * builds a program of 10000 small methods and prints the memory of their
+ * IR and the time of liveness and reaching definitions over all of them.
+ */
+public class DataflowTest
+{
+    /** number of solves timed per analysis (after as many to warm up) */
+    private static final int NUM_SOLVES = 20;
+
+    /** deepest nesting of the generated statements */
+    private static final int MAX_DEPTH = 4;
+
+    /** number of classes and of methods per class of the large program */
+    private static final int NUM_CLASSES = 100, NUM_METHODS = 100;
+
+    /** most bytes of IR per instruction of the large program (each
+     *  operand string was an object of its own at about 340) */
+    private static final int MAX_IR_BYTES = 300;
+
+    /** entrance of the generated method */
+    private static BasicBlock entrance;
+
+    /** deepest loop nesting of the generated method */
+    private static int maxLoopCnt;
+
+    /** builds the CFG of the generated method */
+    @BeforeClass
+    public static void buildMethod() throws Exception {
+        Parser parser = new Parser(new Lexer(new StringReader(generateProgram(461, 250))));
+        Program program = (Program) parser.parse().value;
+        ClassTreeNode root = new SemanticAnalyzer(program, false).analyze();
+        new Optimizer(root, 0, false).optimize();
+        entrance = (BasicBlock) root.lookupClass("Main").getMethodSymbolTable().lookup("Main.main");
+        for (BasicBlock bb : Dataflow.reversePostorder(entrance)) {
+            maxLoopCnt = Math.max(maxLoopCnt, bb.getLoopCnt());
+        }
+        int numBlocks = Dataflow.reversePostorder(entrance).size();
+        assertTrue(numBlocks + " blocks", numBlocks >= 1000);
+    }
+
+    /** benchmarks liveness (backward, union) */
+    @Test
+    public void livenessTest() {
+        Dataflow liveness = new Liveness(entrance);
+        benchmark("Liveness", liveness);
+        checkSolution(liveness, false, true);
+    }
+
+    /** benchmarks reaching definitions (forward, union) */
+    @Test
+    public void reachingDefsTest() {
+        Dataflow reachingDefs = new ReachingDefs(entrance);
+        benchmark("ReachingDefs", reachingDefs);
+        checkSolution(reachingDefs, true, true);
+    }
+
+    /** benchmarks available expressions (forward, intersection) */
+    @Test
+    public void availableExprsTest() {
+        Dataflow availableExprs = new AvailableExprs(entrance, new ExprTable(entrance));
+        benchmark("AvailableExprs", availableExprs);
+        checkSolution(availableExprs, true, false);
+    }
+
+    /** benchmarks very busy expressions (backward, intersection) */
+    @Test
+    public void veryBusyExprsTest() {
+        Dataflow veryBusyExprs = new VeryBusyExprs(entrance, new ExprTable(entrance));
+        benchmark("VeryBusyExprs", veryBusyExprs);
+        checkSolution(veryBusyExprs, false, false);
+    }
+
+    /** measures the IR of 10000 methods and times two analyses over them,
+     *  and checks that the operands of the instructions are held in the
+     *  operand tables (their strings are the tables') */
+    @Test
+    public void largeProgramTest() throws Exception {
+        Parser parser = new Parser(new Lexer(new StringReader(
+                generateClasses(461, NUM_CLASSES, NUM_METHODS))));
+        Program program = (Program) parser.parse().value;
+        ClassTreeNode root = new SemanticAnalyzer(program, false).analyze();
+        long before = usedMemory();
+        new Optimizer(root, 0, false).optimize();
+        long bytes = usedMemory() - before;
+
+        List<BasicBlock> entrances = new ArrayList<BasicBlock>();
+        int numInsts = 0;
+        for (int i = 0; i < NUM_CLASSES; i++) {
+            ClassTreeNode ctn = root.lookupClass("C" + i);
+            for (int j = 0; j < NUM_METHODS; j++) {
+                BasicBlock entrance = (BasicBlock) ctn.getMethodSymbolTable().lookup("C" + i + ".m" + j);
+                entrances.add(entrance);
+                OperandTable operands = entrance.getOperandTable();
+                for (BasicBlock bb : Dataflow.reversePostorder(entrance)) {
+                    for (int k = 0; k < bb.getNumInsn(); k++) {
+                        TACInst inst = bb.getNthInst(k);
+                        if (inst.getDefId() >= 0) {
+                            assertTrue(inst.toString(), inst.getDef() == operands.getName(inst.getDefId()));
+                        }
+                        for (int n = 0; n < inst.getNumUses(); n++) {
+                            assertTrue(inst.toString(), inst.getUse(n) == operands.getName(inst.getUseIds()[n]));
+                        }
+                        numInsts++;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < 2; i++) {
+            analyze(entrances);
+        }
+        long start = System.nanoTime();
+        analyze(entrances);
+        double millis = (System.nanoTime() - start) / 1e6;
+        System.out.println(String.format("%d methods %7d insts %6.1f MB IR (%d bytes/inst) "
+                + "%8.1f ms liveness and reaching defs", entrances.size(), numInsts, bytes / 1e6,
+                bytes / numInsts, millis));
+        assertTrue(bytes / numInsts + " bytes/inst", bytes / numInsts <= MAX_IR_BYTES);
+    }
+
+    /**
+     * Solves liveness and reaching definitions for subroutines
+     * @param entrances the entrances of the subroutines
+     */
+    private static void analyze(List<BasicBlock> entrances) {
+        for (BasicBlock entrance : entrances) {
+            new Liveness(entrance);
+            new ReachingDefs(entrance);
+        }
+    }
+
+    /**
+     * Gets the memory in use after collecting the garbage
+     * @return the bytes in use
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Times the solves of an analysis and prints the number of visits and
+     * the time per solve, then checks the number of sweeps
+     * @param name the name of the analysis
+     * @param analysis the analysis (already solved once)
+     */
+    private void benchmark(String name, Dataflow analysis) {
+        for (int i = 0; i < NUM_SOLVES; i++) {
+            analysis.solve();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < NUM_SOLVES; i++) {
+            analysis.solve();
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / NUM_SOLVES;
+        int numBlocks = analysis.getBlocks().size();
+        int numVisits = analysis.getNumVisits();
+        System.out.println(String.format("%-15s %5d blocks %6d visits (%.2f per block) %8.3f ms/solve",
+                name, numBlocks, numVisits, (double) numVisits / numBlocks, millis));
+        assertTrue(name + " visits", numVisits <= numBlocks * (maxLoopCnt + 2));
+    }
+
+    /**
+     * Checks that the values of an analysis satisfy its equations: the
+     * value before each block is the meet of the values after its
+     * predecessors (the boundary value where there are none), and the
+     * value after it is the value before it transformed by its instructions
+     * @param analysis the analysis
+     * @param forward whether the analysis is forward
+     * @param union whether the meet is union
+     */
+    private void checkSolution(Dataflow analysis, boolean forward, boolean union) {
+        Vector<BasicBlock> blocks = analysis.getBlocks();
+        for (BasicBlock bb : blocks) {
+            BitSet meet = null;
+            int numPreds = forward ? bb.getNumInEdges() : bb.getNumOutEdges();
+            for (int i = 0; i < numPreds; i++) {
+                BasicBlock pred = forward ? bb.getNthInEdge(i) : bb.getNthOutEdge(i);
+                if (!blocks.contains(pred)) {
+                    continue;
+                }
+                BitSet value = forward ? analysis.getOut(pred) : analysis.getIn(pred);
+                if (meet == null) {
+                    meet = (BitSet) value.clone();
+                }
+                else if (union) {
+                    meet.or(value);
+                }
+                else {
+                    meet.and(value);
+                }
+            }
+            if (meet == null) {
+                meet = analysis.boundary();
+            }
+            BitSet[] values = analysis.getInstValues(bb);
+            if (forward) {
+                assertEquals(meet, analysis.getIn(bb));
+                assertEquals(values[values.length - 1], analysis.getOut(bb));
+            }
+            else {
+                assertEquals(meet, analysis.getOut(bb));
+                assertEquals(values[0], analysis.getIn(bb));
+            }
+        }
+    }
+
+    /**
+     * Generates a program whose main method is a long sequence of nested
+     * whiles and ifs over a few locals and fields, with repeated
+     * expressions and calls (which use and define the fields)
+     * @param seed the seed of the random generator
+     * @param numStmts the number of top-level statements
+     * @return the source of the program
+     */
+    private static String generateProgram(long seed, int numStmts) {
+        Random random = new Random(seed);
+        StringBuilder source = new StringBuilder("class Main {\n");
+        for (int i = 0; i < 4; i++) {
+            source.append("    int f").append(i).append(" = ").append(i).append(";\n");
+        }
+        source.append("    int m(int x) { f1 = f1 + x; return f0 * x; }\n");
+        source.append("    void main() {\n");
+        for (int i = 0; i < 8; i++) {
+            source.append("        int v").append(i).append(" = ").append(i).append(";\n");
+        }
+        for (int i = 0; i < numStmts; i++) {
+            generateStmt(random, source, 1);
+        }
+        return source.append("    }\n}\n").toString();
+    }
+
+    /**
+     * Generates a program of many classes of small methods, each with a
+     * few locals, loops and ifs over them and the fields of its class
+     * @param seed the seed of the random generator
+     * @param numClasses the number of classes (C0, C1, ...)
+     * @param numMethods the number of methods per class (m0, m1, ...)
+     * @return the source of the program
+     */
+    private static String generateClasses(long seed, int numClasses, int numMethods) {
+        Random random = new Random(seed);
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < numClasses; i++) {
+            source.append("class C").append(i).append(" {\n    int f0 = 0;\n    int f1 = 1;\n");
+            for (int j = 0; j < numMethods; j++) {
+                source.append("    int m").append(j).append("(int p) {\n");
+                for (int k = 0; k < 4; k++) {
+                    source.append("        int v").append(k).append(" = p + ").append(k).append(";\n");
+                }
+                for (int k = 0; k < 6; k++) {
+                    String a = "v" + random.nextInt(4);
+                    String b = "v" + random.nextInt(4);
+                    int kind = random.nextInt(3);
+                    if (kind == 0) {
+                        source.append("        while (").append(a).append(" < 10) { ").append(a)
+                                .append(" = ").append(a).append(" + ").append(b).append("; f0 = f0 + 1; }\n");
+                    }
+                    else if (kind == 1) {
+                        source.append("        if (").append(a).append(" > ").append(b).append(") { f1 = ")
+                                .append(a).append(" * 2; } else { ").append(b).append(" = f1 - ")
+                                .append(a).append("; }\n");
+                    }
+                    else {
+                        source.append("        ").append(a).append(" = ").append(b).append(" * ")
+                                .append(a).append(" + f0;\n");
+                    }
+                }
+                source.append("        return v0 + v1 + v2 + v3;\n    }\n");
+            }
+            source.append("}\n");
+        }
+        return source.append("class Main { void main() { } }\n").toString();
+    }
+
+    /**
+     * Generates a random statement
+     * @param random the random generator
+     * @param source the source receiving the statement
+     * @param depth the nesting depth of the statement
+     */
+    private static void generateStmt(Random random, StringBuilder source, int depth) {
+        String indent = new String(new char[4 * depth + 4]).replace('\0', ' ');
+        int kind = depth < MAX_DEPTH ? random.nextInt(6) : random.nextInt(3);
+        if (kind < 3) {
+            source.append(indent).append(variable(random)).append(" = ")
+                    .append(kind == 2 ? "m(" + expr(random) + ")" : expr(random)).append(";\n");
+            return;
+        }
+        String counter = "v" + random.nextInt(8);
+        if (kind == 3) {
+            source.append(indent).append("while (").append(counter).append(" < ")
+                    .append(10 + random.nextInt(90)).append(") {\n");
+        }
+        else {
+            source.append(indent).append("if (").append(expr(random)).append(" > ")
+                    .append(variable(random)).append(") {\n");
+        }
+        int numStmts = 1 + random.nextInt(3);
+        for (int i = 0; i < numStmts; i++) {
+            generateStmt(random, source, depth + 1);
+        }
+        if (kind == 3) {
+            source.append(indent).append("    ").append(counter).append(" = ")
+                    .append(counter).append(" + 1;\n");
+        }
+        else if (kind == 5) {
+            source.append(indent).append("}\n").append(indent).append("else {\n");
+            generateStmt(random, source, depth + 1);
+        }
+        source.append(indent).append("}\n");
+    }
+
+    /**
+     * Generates a binary expression over two variables (from a small set,
+     * so expressions repeat)
+     * @param random the random generator
+     * @return the expression
+     */
+    private static String expr(Random random) {
+        String[] ops = {"+", "-", "*"};
+        return variable(random) + " " + ops[random.nextInt(ops.length)] + " " + variable(random);
+    }
+
+    /**
+     * Picks a variable: mostly locals, sometimes fields
+     * @param random the random generator
+     * @return the variable
+     */
+    private static String variable(Random random) {
+        int i = random.nextInt(10);
+        return i < 8 ? "v" + i : "f" + (i - 8);
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * File: OptimizerTest.java
+ * Class: CS461
+ * Project: 4
+ */
+
+package bantam.opt;
+
+import bantam.ast.Program;
+import bantam.interp.Interpreter;
+import bantam.lexer.Lexer;
+import bantam.parser.Parser;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.ClassTreeNode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs the testfiles through the Optimizer at every level and checks that
+ * the code it builds (run by TacInterpreter) prints what the interpreter
+ * prints and exits with the same status.  IOWriteError.btm, FileIO.btm and
+ * IOReadError.btm are left out since they use files.
+ */
+public class OptimizerTest
+{
+    /** a program: its source files (libraries last) and its standard input */
+    private static class TestProgram
+    {
+        final String input;
+        final String[] files;
+
+        TestProgram(String input, String... files) {
+            this.input = input;
+            this.files = new String[files.length];
+            for (int i = 0; i < files.length; i++) {
+                this.files[i] = "testfiles/" + files[i];
+            }
+        }
+    }
+
+    /** the programs run at each level */
+    private static final TestProgram[] PROGRAMS = {
+            new TestProgram("", "ArrayIndexNegative.btm"),
+            new TestProgram("", "ArrayIndexTooLarge.btm"),
+            new TestProgram("", "ArraySizeNegative.btm"),
+            new TestProgram("", "ArraySizeTooLarge.btm"),
+            new TestProgram("", "ArrayStoreError1.btm"),
+            new TestProgram("", "ArrayStoreError2.btm"),
+            new TestProgram("", "ArrayStoreError3.btm"),
+            new TestProgram("", "ArrayTest2.btm"),
+            new TestProgram("", "ArrayTest3.btm"),
+            new TestProgram("", "Assign.btm"),
+            new TestProgram("", "ClassCastError.btm"),
+            new TestProgram("", "Clone.btm"),
+            new TestProgram("", "Concat.btm"),
+            new TestProgram("100\n", "CountDivisors.btm"),
+            new TestProgram("", "DivideByZero.btm"),
+            new TestProgram("", "EmptyProgram.btm"),
+            new TestProgram("", "Equals.btm", "Integer.btm", "Boolean.btm"),
+            new TestProgram("10\n", "Fact.btm"),
+            new TestProgram("15\n", "Fib.btm"),
+            new TestProgram("3\n7\n-2\n5\n", "FindMin.btm"),
+            new TestProgram("", "ForBreakIncDecTest2.btm"),
+            new TestProgram("", "GCTest.btm", "Vector.btm"),
+            new TestProgram("", "HelloWorld.btm"),
+            new TestProgram("2\nabc\nxyz\n", "IO.btm"),
+            new TestProgram("", "InstanceofCastTest1.btm"),
+            new TestProgram("", "InstanceofCastTest2.btm"),
+            new TestProgram("", "ModByZero.btm"),
+            new TestProgram("Ann\nBob\n10\n4\n3\n3\n2\n1\n1\n", "Nim.btm"),
+            new TestProgram("", "NullArrayAssign.btm"),
+            new TestProgram("", "NullArrayUse.btm"),
+            new TestProgram("30\n", "Primes.btm"),
+            new TestProgram("50\n", "PrimesSieves.btm", "Vector.btm", "Boolean.btm"),
+            new TestProgram("hello\n", "Repeat.btm"),
+            new TestProgram("42\n", "RepeatNum.btm"),
+            new TestProgram("", "SimpleCalc.btm"),
+            new TestProgram("", "StringEquals.btm"),
+            new TestProgram("", "Strings.btm"),
+            new TestProgram("", "SubStringError1.btm"),
+            new TestProgram("", "SubStringError2.btm"),
+            new TestProgram("", "SubStringError3.btm"),
+            new TestProgram("5\n1\n9\n3\n7\n2\n4\n6\n8\n", "TicTacToe.btm"),
+            new TestProgram("", "ToString.btm", "Integer.btm"),
+            new TestProgram("", "VectorTest.btm", "Vector.btm", "Boolean.btm", "Integer.btm")
+    };
+
+    /** tests the code built without optimizations */
+    @Test
+    public void level0Test() throws Exception {
+        checkLevel(0);
+    }
+
+    /** tests the code after CFG cleanup and linear-scan register allocation */
+    @Test
+    public void level1Test() throws Exception {
+        checkLevel(1);
+    }
+
+    /** tests the code after inlining, the SSA optimizations and unrolling */
+    @Test
+    public void level2Test() throws Exception {
+        checkLevel(2);
+    }
+
+    /** tests the code with the level 3 limits and graph coloring */
+    @Test
+    public void level3Test() throws Exception {
+        checkLevel(3);
+    }
+
+    /** tests the code with the level 4 limits (recursive inlining) */
+    @Test
+    public void level4Test() throws Exception {
+        checkLevel(4);
+    }
+
+    /**
+     * Checks that every program optimized at a level runs like it does
+     * under the interpreter
+     * @param level the optimization level
+     * @throws Exception parser errors could be thrown
+     */
+    private void checkLevel(int level) throws Exception {
+        for (TestProgram program : PROGRAMS) {
+            String expected = interpret(program);
+            String actual = runOptimized(program, level);
+            assertEquals(program.files[0] + " at level " + level, expected, actual);
+        }
+    }
+
+    /**
+     * Runs a program under the interpreter (AST engine)
+     * @param program the program
+     * @return its standard output followed by its exit status
+     * @throws Exception parser errors could be thrown
+     */
+    private String interpret(TestProgram program) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream outStream = new PrintStream(out, false);
+        Interpreter interpreter = new Interpreter(analyze(program), false,
+                Interpreter.ENGINE_AST, new ByteArrayInputStream(program.input.getBytes()),
+                outStream, new PrintStream(new ByteArrayOutputStream()));
+        interpreter.setLimits(0, 60000);
+        int status = interpreter.interpret();
+        outStream.flush();
+        return out + "\nexit status " + status;
+    }
+
+    /**
+     * Optimizes a program and runs the code built by the optimizer
+     * @param program the program
+     * @param level the optimization level
+     * @return its standard output followed by its exit status
+     * @throws Exception parser errors could be thrown
+     */
+    private String runOptimized(TestProgram program, int level) throws Exception {
+        ClassTreeNode root = analyze(program);
+        new Optimizer(root, level, false).optimize();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream outStream = new PrintStream(out, false);
+        TacInterpreter interpreter = new TacInterpreter(root,
+                new ByteArrayInputStream(program.input.getBytes()), outStream,
+                new PrintStream(new ByteArrayOutputStream()));
+        int status = interpreter.run();
+        return out + "\nexit status " + status;
+    }
+
+    /**
+     * Parses and analyzes a program
+     * @param program the program
+     * @return the root of its class hierarchy tree
+     * @throws Exception parser errors could be thrown
+     */
+    private ClassTreeNode analyze(TestProgram program) throws Exception {
+        Parser parser = new Parser(new Lexer(program.files, false));
+        Program ast = (Program) parser.parse().value;
+        return new SemanticAnalyzer(ast, false).analyze();
+    }
+}
@@ -0,0 +1,240 @@
+/**
+ * File: RegisterAllocatorTest.java
+ * Class: CS461
+ * Project: 4
+ */
+
+package bantam.opt;
+
+import bantam.ast.ASTNode;
+import bantam.ast.Method;
+import bantam.ast.Program;
+import bantam.cfg.BasicBlock;
+import bantam.cfg.OperandTable;
+import bantam.cfg.TACInst;
+import bantam.lexer.Lexer;
+import bantam.parser.Parser;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.ClassTreeNode;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the register allocations of the subroutines of the testfiles:
+ * no two variables live at the same point share a register (a definition
+ * does not overwrite the register of a live variable), only parameters,
+ * locals and temporaries get registers, and a variable live across a
+ * call only gets a callee-saved register.
+ */
+public class RegisterAllocatorTest
+{
+    /** the programs whose subroutines are allocated (libraries last) */
+    private static final String[][] PROGRAMS = {
+            {"ArrayTest2.btm"}, {"ArrayTest3.btm"}, {"Assign.btm"}, {"Clone.btm"},
+            {"Concat.btm"}, {"CountDivisors.btm"}, {"Fact.btm"}, {"Fib.btm"},
+            {"FindMin.btm"}, {"ForBreakIncDecTest2.btm"}, {"InstanceofCastTest1.btm"},
+            {"InstanceofCastTest2.btm"}, {"Nim.btm"}, {"Primes.btm"}, {"StringEquals.btm"},
+            {"Strings.btm"}, {"TicTacToe.btm"},
+            {"GCTest.btm", "Vector.btm"},
+            {"PrimesSieves.btm", "Vector.btm", "Boolean.btm"},
+            {"VectorTest.btm", "Vector.btm", "Boolean.btm", "Integer.btm"}
+    };
+
+    /** number of variables given a register by the allocations checked */
+    private int numAllocated;
+
+    /** number of variables spilled by the allocations checked */
+    private int numSpilled;
+
+    /** number of copies coalesced by the graph colorings checked */
+    private int numCoalesced;
+
+    /** tests linear scan on the code of level 1 */
+    @Test
+    public void linearScanTest() throws Exception {
+        checkAllocations(1, false, Optimizer.NUM_CALLER_SAVED, Optimizer.NUM_CALLEE_SAVED);
+        assertTrue(numAllocated > 0);
+    }
+
+    /** tests linear scan on the code transformed by the level 2 passes */
+    @Test
+    public void linearScanOptimizedTest() throws Exception {
+        checkAllocations(2, false, Optimizer.NUM_CALLER_SAVED, Optimizer.NUM_CALLEE_SAVED);
+        assertTrue(numAllocated > 0);
+    }
+
+    /** tests linear scan with too few registers, so that it spills */
+    @Test
+    public void linearScanPressureTest() throws Exception {
+        checkAllocations(2, false, 2, 1);
+        assertTrue(numAllocated > 0);
+        assertTrue(numSpilled > 0);
+    }
+
+    /** tests graph coloring (with coalescing) on the code of level 3 */
+    @Test
+    public void graphColoringTest() throws Exception {
+        checkAllocations(3, true, Optimizer.NUM_CALLER_SAVED, Optimizer.NUM_CALLEE_SAVED);
+        assertTrue(numAllocated > 0);
+        assertTrue(numCoalesced > 0);
+    }
+
+    /** tests graph coloring on the code of level 4 (recursive inlining) */
+    @Test
+    public void graphColoringLevel4Test() throws Exception {
+        checkAllocations(4, true, Optimizer.NUM_CALLER_SAVED, Optimizer.NUM_CALLEE_SAVED);
+        assertTrue(numAllocated > 0);
+    }
+
+    /** tests graph coloring with too few registers, so that it spills */
+    @Test
+    public void graphColoringPressureTest() throws Exception {
+        checkAllocations(3, true, 2, 1);
+        assertTrue(numAllocated > 0);
+        assertTrue(numSpilled > 0);
+    }
+
+    /**
+     * Optimizes the programs at a level, then allocates the registers of
+     * each subroutine again with the given registers and checks them
+     * @param level the optimization level
+     * @param coloring whether to allocate by graph coloring (else linear scan)
+     * @param numCallerSaved the number of caller-saved registers
+     * @param numCalleeSaved the number of callee-saved registers
+     * @throws Exception parser errors could be thrown
+     */
+    private void checkAllocations(int level, boolean coloring, int numCallerSaved,
+                                  int numCalleeSaved) throws Exception {
+        for (String[] files : PROGRAMS) {
+            String[] paths = new String[files.length];
+            for (int i = 0; i < files.length; i++) {
+                paths[i] = "testfiles/" + files[i];
+            }
+            Program program = (Program) new Parser(new Lexer(paths, false)).parse().value;
+            ClassTreeNode root = new SemanticAnalyzer(program, false).analyze();
+            new Optimizer(root, level, false).optimize();
+            checkClass(root, coloring, numCallerSaved, numCalleeSaved);
+        }
+    }
+
+    /**
+     * Allocates and checks the registers of the subroutines of a class and
+     * its descendants
+     * @param ctn the class tree node
+     * @param coloring whether to allocate by graph coloring (else linear scan)
+     * @param numCallerSaved the number of caller-saved registers
+     * @param numCalleeSaved the number of callee-saved registers
+     */
+    private void checkClass(ClassTreeNode ctn, boolean coloring, int numCallerSaved,
+                            int numCalleeSaved) {
+        String name = ctn.getName() + "_init";
+        checkSubroutine(name, (BasicBlock) ctn.getMethodSymbolTable().lookup(name),
+                coloring, numCallerSaved, numCalleeSaved);
+        if (!ctn.isBuiltIn()) {
+            for (Iterator<ASTNode> it = ctn.getASTNode().getMemberList().iterator(); it.hasNext(); ) {
+                ASTNode member = it.next();
+                if (member instanceof Method) {
+                    name = ctn.getName() + "." + ((Method) member).getName();
+                    checkSubroutine(name, (BasicBlock) ctn.getMethodSymbolTable().lookup(name),
+                            coloring, numCallerSaved, numCalleeSaved);
+                }
+            }
+        }
+        for (Iterator<ClassTreeNode> it = ctn.getChildrenList(); it.hasNext(); ) {
+            checkClass(it.next(), coloring, numCallerSaved, numCalleeSaved);
+        }
+    }
+
+    /**
+     * Allocates the registers of a subroutine and checks them
+     * @param name the name of the subroutine
+     * @param entrance its entrance block
+     * @param coloring whether to allocate by graph coloring (else linear scan)
+     * @param numCallerSaved the number of caller-saved registers
+     * @param numCalleeSaved the number of callee-saved registers
+     */
+    private void checkSubroutine(String name, BasicBlock entrance, boolean coloring,
+                                 int numCallerSaved, int numCalleeSaved) {
+        RegisterAllocator allocator = coloring
+                ? new GraphColoring(entrance, numCallerSaved, numCalleeSaved)
+                : new LinearScan(entrance, numCallerSaved, numCalleeSaved);
+        allocator.run();
+        numAllocated += allocator.getNumAllocated();
+        numSpilled += allocator.getNumSpilled();
+        if (coloring) {
+            numCoalesced += ((GraphColoring) allocator).getNumCoalesced();
+        }
+
+        OperandTable operands = entrance.getOperandTable();
+        int numRegisters = numCallerSaved + numCalleeSaved;
+        int numInRegisters = 0;
+        for (int id = 0; id < operands.size(); id++) {
+            int reg = operands.getRegister(id);
+            if (reg >= 0) {
+                numInRegisters++;
+                assertTrue(name + ": " + operands.getName(id) + " cannot get a register",
+                        RegisterAllocator.isCandidate(operands, id));
+                assertTrue(name + ": " + operands.getName(id) + " in register " + reg,
+                        reg < numRegisters);
+            }
+        }
+        assertEquals(name, allocator.getNumAllocated(), numInRegisters);
+
+        Liveness liveness = new Liveness(entrance);
+        for (BasicBlock bb : Dataflow.reversePostorder(entrance)) {
+            BitSet[] live = liveness.getInstValues(bb);
+            for (BitSet values : live) {
+                checkLive(name, operands, values, numRegisters);
+            }
+            for (int i = 0; i < bb.getNumInsn(); i++) {
+                TACInst inst = bb.getNthInst(i);
+                int def = inst.getDefId();
+                BitSet after = live[i + 1];
+                for (int id = after.nextSetBit(0); id >= 0; id = after.nextSetBit(id + 1)) {
+                    if (id == def || operands.getRegister(id) < 0) {
+                        continue;
+                    }
+                    if (def >= 0 && operands.getRegister(def) == operands.getRegister(id)) {
+                        fail(name + ": " + inst + " overwrites the register of " +
+                                operands.getName(id));
+                    }
+                    if (inst.isCall() && live[i].get(id) &&
+                            operands.getRegister(id) < numCallerSaved) {
+                        fail(name + ": " + operands.getName(id) + " is live across " + inst +
+                                " in caller-saved register " + operands.getRegister(id));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that the variables live at a point are in different registers
+     * @param name the name of the subroutine
+     * @param operands its operand table
+     * @param live the variables live at the point
+     * @param numRegisters the number of registers
+     */
+    private void checkLive(String name, OperandTable operands, BitSet live, int numRegisters) {
+        int[] owners = new int[numRegisters];
+        Arrays.fill(owners, -1);
+        for (int id = live.nextSetBit(0); id >= 0; id = live.nextSetBit(id + 1)) {
+            int reg = operands.getRegister(id);
+            if (reg < 0) {
+                continue;
+            }
+            if (owners[reg] >= 0) {
+                fail(name + ": " + operands.getName(owners[reg]) + " and " +
+                        operands.getName(id) + " are live in register " + reg);
+            }
+            owners[reg] = id;
+        }
+    }
+}
@@ -0,0 +1,844 @@
+/**
+ * File: TacInterpreter.java
+ * Class: CS461
+ * Project: 4
+ */
+
+package bantam.opt;
+
+import bantam.ast.ASTNode;
+import bantam.ast.Field;
+import bantam.ast.Formal;
+import bantam.ast.Member;
+import bantam.ast.Method;
+import bantam.cfg.BasicBlock;
+import bantam.cfg.BinaryInst;
+import bantam.cfg.CallInst;
+import bantam.cfg.IfInst;
+import bantam.cfg.LoadEntryInst;
+import bantam.cfg.LoadInst;
+import bantam.cfg.ParamInst;
+import bantam.cfg.PhiInst;
+import bantam.cfg.ReturnInst;
+import bantam.cfg.StoreEntryInst;
+import bantam.cfg.TACInst;
+import bantam.cfg.UnaryInst;
+import bantam.util.ClassTreeNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+/**
+ * Runs the control flow graphs built by the Optimizer, so the tests can
+ * check that the code of every optimization level does what the program
+ * does under the interpreter.  Objects follow the layout of the runtime
+ * described in CFGBuilder (class id, size, dispatch table, then the
+ * fields), with the dispatch tables holding the labels of the methods.
+ * The built-in methods behave like those of bantam.interp.Builtins,
+ * including the pseudo addresses printed by Object.toString().
+ *
+ * A run-time error of the program (a call to an error subroutine of the
+ * runtime) ends the run with status 1, like the interpreter.  Code that
+ * the runtime could not run (reading an undefined variable, a branch to
+ * a block that is not a successor, a wrong number of parameters, ...)
+ * throws an IllegalStateException.
+ */
+class TacInterpreter
+{
+    /** Largest number of instructions run before giving up */
+    private static final long MAX_STEPS = 200000000L;
+
+    /** Longest string String.concat() creates */
+    private static final int MAX_CONCAT = 5000;
+
+    /** First pseudo address printed by Object.toString() */
+    private static final int FIRST_ADDRESS = 0x10040000;
+
+    /** Value of a variable not yet defined on the path taken (phi sources) */
+    private static final Object UNDEFINED = new Object();
+
+    /** An object, array, or dispatch table of the running program */
+    private static class Entries
+    {
+        /** the entries (class id, size, dispatch table, fields, ...) */
+        Object[] entries;
+
+        /** the characters of a String object */
+        String value;
+
+        Entries(int size) {
+            entries = new Object[size];
+        }
+    }
+
+    /** Thrown to stop the program with an exit status */
+    private static class Exit extends RuntimeException
+    {
+        /** serialization version */
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        Exit(int status) {
+            this.status = status;
+        }
+    }
+
+    /** Classes in depth-first order (the order of their ids) */
+    private Vector<ClassTreeNode> classes = new Vector<>();
+
+    /** Templates of the objects by class name */
+    private HashMap<String, Entries> templates = new HashMap<>();
+
+    /** Entrances of the subroutines by label ("C_init" and "C.m") */
+    private HashMap<String, BasicBlock> subroutines = new HashMap<>();
+
+    /** Names of the parameters of the methods by label */
+    private HashMap<String, List<String>> formals = new HashMap<>();
+
+    /** Index of each field ("x@f_C") in its objects */
+    private HashMap<String, Integer> fieldIndices = new HashMap<>();
+
+    /** Id of the last descendant of each class, by class id */
+    private Entries maxIdTable;
+
+    /** String constants by their TAC form (quoted) */
+    private HashMap<String, Entries> constants = new HashMap<>();
+
+    /** Pseudo addresses handed out by Object.toString() */
+    private IdentityHashMap<Entries, Integer> addresses = new IdentityHashMap<>();
+
+    /** Standard input and output of the program */
+    private BufferedReader in;
+    private PrintStream out;
+
+    /** Standard error, where run-time errors are reported */
+    private PrintStream err;
+
+    /** Number of instructions run */
+    private long steps;
+
+    /**
+     * Prepares a program optimized by the Optimizer to be run
+     * @param root the root of the class hierarchy tree
+     * @param in the standard input of the program
+     * @param out the standard output of the program
+     * @param err the standard error of the program
+     */
+    TacInterpreter(ClassTreeNode root, InputStream in, PrintStream out, PrintStream err) {
+        this.in = new BufferedReader(new InputStreamReader(in));
+        this.out = out;
+        this.err = err;
+        addClasses(root);
+        HashMap<String, Vector<String>> dispatchTables = new HashMap<>();
+        HashMap<String, Vector<Field>> fields = new HashMap<>();
+        for (ClassTreeNode ctn : classes) {
+            Vector<String> table = new Vector<>();
+            Vector<Field> classFields = new Vector<>();
+            if (ctn.getParent() != null) {
+                table.addAll(dispatchTables.get(ctn.getParent().getName()));
+                classFields.addAll(fields.get(ctn.getParent().getName()));
+            }
+            addMembers(ctn, table, classFields);
+            dispatchTables.put(ctn.getName(), table);
+            fields.put(ctn.getName(), classFields);
+            templates.put(ctn.getName(), newTemplate(ctn, table, classFields));
+        }
+        maxIdTable = new Entries(classes.size());
+        for (int i = 0; i < classes.size(); i++) {
+            maxIdTable.entries[i] = i + classes.get(i).getNumDescendants();
+        }
+    }
+
+    /**
+     * Adds a class and its descendants to the class list (depth-first order)
+     * @param ctn the class tree node
+     */
+    private void addClasses(ClassTreeNode ctn) {
+        classes.add(ctn);
+        for (Iterator<ClassTreeNode> it = ctn.getChildrenList(); it.hasNext(); ) {
+            addClasses(it.next());
+        }
+    }
+
+    /**
+     * Registers the subroutines of a class, and adds its methods to its
+     * dispatch table (overriding methods take the slot of the method they
+     * override) and its fields to those inherited
+     * @param ctn the class tree node
+     * @param table the dispatch table inherited from the parent
+     * @param classFields the fields inherited from the parent
+     */
+    private void addMembers(ClassTreeNode ctn, Vector<String> table, Vector<Field> classFields) {
+        String className = ctn.getName();
+        subroutines.put(className + "_init",
+                (BasicBlock) ctn.getMethodSymbolTable().lookup(className + "_init"));
+        for (Iterator<ASTNode> it = ctn.getASTNode().getMemberList().iterator(); it.hasNext(); ) {
+            Member member = (Member) it.next();
+            if (member instanceof Field) {
+                fieldIndices.put(((Field) member).getName() + "@f_" + className,
+                        CFGBuilder.FIELDS_INDEX + classFields.size());
+                classFields.add((Field) member);
+                continue;
+            }
+            Method method = (Method) member;
+            String label = className + "." + method.getName();
+            int slot = -1;
+            for (int i = 0; i < table.size(); i++) {
+                if (table.get(i).endsWith("." + method.getName())) {
+                    slot = i;
+                }
+            }
+            if (slot >= 0) {
+                table.set(slot, label);
+            }
+            else {
+                table.add(label);
+            }
+            List<String> names = new ArrayList<>();
+            for (Iterator<ASTNode> f = method.getFormalList().iterator(); f.hasNext(); ) {
+                names.add(((Formal) f.next()).getName() + "@p");
+            }
+            formals.put(label, names);
+            if (!ctn.isBuiltIn()) {
+                subroutines.put(label, (BasicBlock) ctn.getMethodSymbolTable().lookup(label));
+            }
+        }
+    }
+
+    /**
+     * Creates the template of the objects of a class: its id, its size, its
+     * dispatch table, and the default values of its fields
+     * @param ctn the class tree node
+     * @param table the dispatch table of the class
+     * @param classFields the fields of the objects of the class
+     * @return the template
+     */
+    private Entries newTemplate(ClassTreeNode ctn, Vector<String> table, Vector<Field> classFields) {
+        Entries dispatchTable = new Entries(table.size());
+        table.toArray(dispatchTable.entries);
+        int size = CFGBuilder.FIELDS_INDEX + classFields.size();
+        Entries template = new Entries(size);
+        template.entries[CFGBuilder.CLASS_ID_INDEX] = classes.indexOf(ctn);
+        template.entries[1] = size;
+        template.entries[CFGBuilder.DISPATCH_INDEX] = dispatchTable;
+        for (int i = 0; i < classFields.size(); i++) {
+            template.entries[CFGBuilder.FIELDS_INDEX + i] =
+                    defaultValue(classFields.get(i).getType());
+        }
+        return template;
+    }
+
+    /**
+     * Gets the default value of a field or array element
+     * @param type the type of the field or element
+     * @return 0 for ints, false for booleans, and null for references
+     */
+    private static Object defaultValue(String type) {
+        if (type.equals("int")) {
+            return 0;
+        }
+        return type.equals("boolean") ? (Object) false : null;
+    }
+
+    /**
+     * Runs the program: creates a Main object and calls its main method
+     * @return the exit status (0 at the end of main, the argument of
+     * Sys.exit(), or 1 after a run-time error)
+     */
+    int run() {
+        try {
+            Entries main = copy(templates.get("Main"));
+            call("Main_init", new Object[]{main});
+            for (Object label : ((Entries) main.entries[CFGBuilder.DISPATCH_INDEX]).entries) {
+                if (((String) label).endsWith(".main")) {
+                    call((String) label, new Object[]{main});
+                }
+            }
+            return 0;
+        } catch (Exit e) {
+            return e.status;
+        } finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Gets the number of instructions run
+     * @return the number of instructions
+     */
+    long getSteps() {
+        return steps;
+    }
+
+    /** The variables of a running subroutine */
+    private class Frame
+    {
+        /** values of the locals, parameters, and temporaries */
+        HashMap<String, Object> values = new HashMap<>();
+
+        /** the receiver (this) */
+        Entries self;
+
+        /**
+         * Gets the value of an operand
+         * @param operand a variable or a constant
+         * @return its value
+         */
+        Object get(String operand) {
+            if (!TACInst.checkVar(operand)) {
+                return constant(operand);
+            }
+            if (operand.equals("this")) {
+                return self;
+            }
+            if (operand.contains("@f_")) {
+                return self.entries[fieldIndex(operand)];
+            }
+            Object value = values.get(operand);
+            if (value == null && !values.containsKey(operand) || value == UNDEFINED) {
+                throw new IllegalStateException("TAC: read of undefined " + operand);
+            }
+            return value;
+        }
+
+        /**
+         * Gets the value of a phi source, which may be undefined when the
+         * variable is not used on the path taken
+         * @param operand a variable or a constant
+         * @return its value, or UNDEFINED
+         */
+        Object getSource(String operand) {
+            if (TACInst.checkVar(operand) && !operand.equals("this") &&
+                    !operand.contains("@f_") && !values.containsKey(operand)) {
+                return UNDEFINED;
+            }
+            return values.get(operand) == UNDEFINED ? UNDEFINED : get(operand);
+        }
+
+        /**
+         * Sets the value of a variable
+         * @param variable the variable
+         * @param value its new value
+         */
+        void set(String variable, Object value) {
+            if (variable.contains("@f_")) {
+                self.entries[fieldIndex(variable)] = value;
+            }
+            else {
+                values.put(variable, value);
+            }
+        }
+    }
+
+    /**
+     * Gets the index of a field in the objects holding it
+     * @param field the field variable ("x@f_C")
+     * @return the index
+     */
+    private int fieldIndex(String field) {
+        Integer index = fieldIndices.get(field);
+        if (index == null) {
+            throw new IllegalStateException("TAC: unknown field " + field);
+        }
+        return index;
+    }
+
+    /**
+     * Gets the value of a constant
+     * @param constant an int, boolean, string, or null constant
+     * @return its value
+     */
+    private Object constant(String constant) {
+        if (TACInst.checkIntConst(constant)) {
+            return Integer.parseInt(constant);
+        }
+        if (constant.equals("true") || constant.equals("false")) {
+            return Boolean.valueOf(constant);
+        }
+        if (constant.equals("null")) {
+            return null;
+        }
+        if (!TACInst.checkStrConst(constant)) {
+            throw new IllegalStateException("TAC: bad constant " + constant);
+        }
+        Entries string = constants.get(constant);
+        if (string == null) {
+            string = newString(unescape(constant.substring(1, constant.length() - 1)));
+            constants.put(constant, string);
+        }
+        return string;
+    }
+
+    /**
+     * Replaces the escape sequences of a string constant by their characters
+     * @param text the characters between the quotes
+     * @return the string
+     */
+    private static String unescape(String text) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                c = text.charAt(++i);
+                c = c == 'n' ? '\n' : c == 't' ? '\t' : c == 'f' ? '\f' : c;
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Copies an object (Object.clone() and creation from a template)
+     * @param object the object
+     * @return the copy
+     */
+    private static Entries copy(Entries object) {
+        Entries copy = new Entries(0);
+        copy.entries = object.entries.clone();
+        copy.value = object.value;
+        return copy;
+    }
+
+    /**
+     * Creates a String object
+     * @param value the characters of the string
+     * @return the String object
+     */
+    private Entries newString(String value) {
+        Entries string = copy(templates.get("String"));
+        string.value = value;
+        string.entries[CFGBuilder.FIELDS_INDEX] = value.length();
+        return string;
+    }
+
+    /**
+     * Calls a subroutine
+     * @param label the label of the subroutine
+     * @param args the receiver followed by the arguments
+     * @return the value returned (null if none)
+     */
+    private Object call(String label, Object[] args) {
+        BasicBlock entrance = subroutines.get(label);
+        if (entrance == null) {
+            return callBuiltin(label, args);
+        }
+        Frame frame = new Frame();
+        frame.self = (Entries) args[0];
+        List<String> names = formals.get(label);
+        if (names != null) {
+            for (int i = 0; i < names.size(); i++) {
+                frame.values.put(names.get(i), args[i + 1]);
+            }
+        }
+        List<Object> params = new ArrayList<>();
+        List<Object> errParams = new ArrayList<>();
+        BasicBlock prev = null;
+        BasicBlock block = entrance;
+        while (true) {
+            // the phis of a block read their sources at once
+            int i = 0;
+            HashMap<String, Object> phiValues = new HashMap<>();
+            for (; i < block.getNumInsn() && block.getNthInst(i) instanceof PhiInst; i++) {
+                PhiInst phi = (PhiInst) block.getNthInst(i);
+                String source = phi.getSource(prev);
+                if (source == null) {
+                    throw new IllegalStateException("TAC: no phi source for the edge from " +
+                            prev + " in " + block);
+                }
+                phiValues.put(phi.getDestination(), frame.getSource(source));
+            }
+            for (Map.Entry<String, Object> entry : phiValues.entrySet()) {
+                frame.set(entry.getKey(), entry.getValue());
+            }
+
+            BasicBlock next = null;
+            for (; i < block.getNumInsn(); i++) {
+                TACInst inst = block.getNthInst(i);
+                if (++steps > MAX_STEPS) {
+                    throw new IllegalStateException("TAC: more than " + MAX_STEPS + " steps");
+                }
+                switch (inst.getOpcode()) {
+                    case TACInst.RETN:
+                        String source = ((ReturnInst) inst).getSource();
+                        return source == null ? null : frame.get(source);
+                    case TACInst.IF:
+                        next = branch(frame, (IfInst) inst);
+                        break;
+                    case TACInst.STDPARAM:
+                    case TACInst.REFPARAM:
+                        params.add(frame.get(((ParamInst) inst).getSource()));
+                        break;
+                    case TACInst.ERRPARAM:
+                        errParams.add(frame.get(((ParamInst) inst).getSource()));
+                        break;
+                    case TACInst.DIRCALL:
+                    case TACInst.INDIRCALL:
+                        run(frame, (CallInst) inst, params, errParams);
+                        params.clear();
+                        errParams.clear();
+                        break;
+                    default:
+                        run(frame, inst);
+                }
+            }
+            if (next == null) {
+                if (block.getNumOutEdges() != 1) {
+                    throw new IllegalStateException("TAC: fell off " + block + " with " +
+                            block.getNumOutEdges() + " successors");
+                }
+                next = block.getNthOutEdge(0);
+            }
+            else if (!block.containsOutEdge(next)) {
+                throw new IllegalStateException("TAC: branch target not a successor of " + block);
+            }
+            prev = block;
+            block = next;
+        }
+    }
+
+    /**
+     * Runs an instruction that only assigns a variable or an entry
+     * @param frame the variables of the subroutine
+     * @param inst the instruction
+     */
+    private void run(Frame frame, TACInst inst) {
+        switch (inst.getOpcode()) {
+            case TACInst.LDVAR:
+            case TACInst.LDCONST: {
+                LoadInst load = (LoadInst) inst;
+                frame.set(load.getDestination(), frame.get(load.getSource()));
+                break;
+            }
+            case TACInst.LDADDR: {
+                LoadInst load = (LoadInst) inst;
+                String label = load.getSource();
+                Object address;
+                if (label.endsWith("_template")) {
+                    address = templates.get(label.substring(0, label.length() - 9));
+                }
+                else if (label.equals("class_max_id_table")) {
+                    address = maxIdTable;
+                }
+                else {
+                    throw new IllegalStateException("TAC: unknown label " + label);
+                }
+                frame.set(load.getDestination(), address);
+                break;
+            }
+            case TACInst.LDENTRY: {
+                LoadEntryInst load = (LoadEntryInst) inst;
+                Entries object = entries(frame.get(load.getSource()), inst);
+                int index = entryIndex(object, frame.get(load.getIndex()), inst);
+                frame.set(load.getDestination(), object.entries[index]);
+                break;
+            }
+            case TACInst.STENTRY: {
+                StoreEntryInst store = (StoreEntryInst) inst;
+                Entries object = entries(frame.get(store.getDestination()), inst);
+                int index = entryIndex(object, frame.get(store.getIndex()), inst);
+                object.entries[index] = frame.get(store.getSource());
+                break;
+            }
+            case TACInst.UNNEG: {
+                UnaryInst unary = (UnaryInst) inst;
+                frame.set(unary.getDestination(), -(Integer) frame.get(unary.getSource()));
+                break;
+            }
+            case TACInst.UNNOT: {
+                UnaryInst unary = (UnaryInst) inst;
+                frame.set(unary.getDestination(), !(Boolean) frame.get(unary.getSource()));
+                break;
+            }
+            case TACInst.BINAND:
+            case TACInst.BINOR: {
+                BinaryInst binary = (BinaryInst) inst;
+                boolean left = (Boolean) frame.get(binary.getLeftSource());
+                boolean right = (Boolean) frame.get(binary.getRightSource());
+                frame.set(binary.getDestination(),
+                        inst.getOpcode() == TACInst.BINAND ? left && right : left || right);
+                break;
+            }
+            default: {
+                BinaryInst binary = (BinaryInst) inst;
+                int left = (Integer) frame.get(binary.getLeftSource());
+                int right = (Integer) frame.get(binary.getRightSource());
+                frame.set(binary.getDestination(), arithmetic(inst, left, right));
+            }
+        }
+    }
+
+    /**
+     * Computes an arithmetic instruction
+     * @param inst the instruction (BINADD to BINMOD)
+     * @param left the value of the left operand
+     * @param right the value of the right operand
+     * @return the result
+     */
+    private static int arithmetic(TACInst inst, int left, int right) {
+        switch (inst.getOpcode()) {
+            case TACInst.BINADD:
+                return left + right;
+            case TACInst.BINSUB:
+                return left - right;
+            case TACInst.BINMUL:
+                return left * right;
+            case TACInst.BINDIV:
+            case TACInst.BINMOD:
+                // the builder checks the divisor before dividing
+                if (right == 0) {
+                    throw new IllegalStateException("TAC: unchecked division by zero " + inst);
+                }
+                return inst.getOpcode() == TACInst.BINDIV ? left / right : left % right;
+            default:
+                throw new IllegalStateException("TAC: unknown instruction " + inst);
+        }
+    }
+
+    /**
+     * Checks that the operand of an entry instruction is an object
+     * @param value the value of the operand
+     * @param inst the instruction
+     * @return the object
+     */
+    private static Entries entries(Object value, TACInst inst) {
+        if (!(value instanceof Entries)) {
+            throw new IllegalStateException("TAC: entry of " + value + " in " + inst);
+        }
+        return (Entries) value;
+    }
+
+    /**
+     * Checks the index of an entry instruction
+     * @param object the object
+     * @param value the value of the index
+     * @param inst the instruction
+     * @return the index
+     */
+    private static int entryIndex(Entries object, Object value, TACInst inst) {
+        int index = (Integer) value;
+        if (index < 0 || index >= object.entries.length) {
+            throw new IllegalStateException("TAC: entry out of range in " + inst);
+        }
+        return index;
+    }
+
+    /**
+     * Evaluates the condition of an IF
+     * @param frame the variables of the subroutine
+     * @param inst the instruction
+     * @return the block branched to
+     */
+    private BasicBlock branch(Frame frame, IfInst inst) {
+        Object left = frame.get(inst.getLeftSource());
+        Object right = frame.get(inst.getRightSource());
+        boolean taken;
+        if (left instanceof Integer && right instanceof Integer) {
+            int l = (Integer) left;
+            int r = (Integer) right;
+            switch (inst.getType()) {
+                case IfInst.EQ: taken = l == r; break;
+                case IfInst.NE: taken = l != r; break;
+                case IfInst.LT: taken = l < r; break;
+                case IfInst.LE: taken = l <= r; break;
+                case IfInst.GT: taken = l > r; break;
+                default: taken = l >= r;
+            }
+        }
+        else if (inst.getType() == IfInst.EQ || inst.getType() == IfInst.NE) {
+            // booleans by value, references by identity
+            taken = left instanceof Boolean ? left.equals(right) : left == right;
+            taken = taken == (inst.getType() == IfInst.EQ);
+        }
+        else {
+            throw new IllegalStateException("TAC: ordered comparison of " + left +
+                    " and " + right + " in " + inst);
+        }
+        return taken ? inst.getTrueTarg() : inst.getFalseTarg();
+    }
+
+    /**
+     * Runs a call, passing the parameters pushed before it
+     * @param frame the variables of the subroutine
+     * @param inst the call
+     * @param params the parameters (receiver first)
+     * @param errParams the error parameters (file name and line number)
+     */
+    private void run(Frame frame, CallInst inst, List<Object> params, List<Object> errParams) {
+        String target = inst.getTarget();
+        if (inst.getOpcode() == TACInst.INDIRCALL) {
+            Object label = frame.get(target);
+            if (!(label instanceof String)) {
+                throw new IllegalStateException("TAC: indirect call of " + label);
+            }
+            target = (String) label;
+        }
+        if (target.startsWith("_") && !target.equals("_new_array")) {
+            error(((Entries) errParams.get(0)).value + ":" + errParams.get(1) +
+                    ":runtime error: " + target.substring(1).replace('_', ' '));
+        }
+        if (params.size() != inst.getNumParam()) {
+            throw new IllegalStateException("TAC: " + params.size() +
+                    " parameter(s) passed to " + inst);
+        }
+        Object result = call(target, params.toArray());
+        if (inst.getDestVar() != null) {
+            frame.set(inst.getDestVar(), result);
+        }
+    }
+
+    /**
+     * Reports a run-time error of the program and stops it
+     * @param message the message
+     */
+    private void error(String message) {
+        out.flush();
+        err.println(message);
+        throw new Exit(1);
+    }
+
+    /**
+     * Calls a built-in method or the runtime's _new_array
+     * @param label the label of the method
+     * @param args the receiver followed by the arguments
+     * @return the value returned (null if none)
+     */
+    private Object callBuiltin(String label, Object[] args) {
+        Entries self = args.length > 0 && args[0] instanceof Entries ? (Entries) args[0] : null;
+        switch (label) {
+            case "_new_array":
+                return newArray((Integer) args[0], (Integer) args[1]);
+            case "Object.clone":
+                return copy(self);
+            case "Object.equals":
+                return self == args[1];
+            case "Object.toString":
+                Integer address = addresses.get(self);
+                if (address == null) {
+                    address = FIRST_ADDRESS + 16 * addresses.size();
+                    addresses.put(self, address);
+                }
+                String className = classes.get((Integer) self.entries[0]).getName();
+                return newString(className + "@" + address);
+            case "String.length":
+                return self.value.length();
+            case "String.equals":
+                checkArgument(args[1]);
+                return self.value.equals(((Entries) args[1]).value);
+            case "String.toString":
+                return self;
+            case "String.substring":
+                int begin = (Integer) args[1];
+                int end = (Integer) args[2];
+                // the beginning index must be strictly less than the length
+                if (begin < 0 || begin >= self.value.length() || end < 0 ||
+                        end > self.value.length() || begin > end) {
+                    error("runtime error: bad string index");
+                }
+                return newString(self.value.substring(begin, end));
+            case "String.concat":
+                checkArgument(args[1]);
+                String result = self.value + ((Entries) args[1]).value;
+                if (result.length() > MAX_CONCAT) {
+                    error("runtime error: concatenated string too long");
+                }
+                return newString(result);
+            case "TextIO.readStdin":
+            case "TextIO.writeStdout":
+            case "TextIO.writeStderr":
+                return null;
+            case "TextIO.getString":
+                String line = readLine();
+                return line == null ? null : newString(line);
+            case "TextIO.getInt":
+                return parseInt(readLine());
+            case "TextIO.putString":
+                checkArgument(args[1]);
+                out.print(((Entries) args[1]).value);
+                return self;
+            case "TextIO.putInt":
+                out.print(args[1]);
+                return self;
+            case "Sys.exit":
+                throw new Exit((Integer) args[1]);
+            default:
+                throw new IllegalStateException("TAC: unsupported built-in " + label);
+        }
+    }
+
+    /**
+     * Stops the program if a string argument of a built-in method is null
+     * @param arg the argument
+     */
+    private void checkArgument(Object arg) {
+        if (arg == null) {
+            error("runtime error: string argument is null");
+        }
+    }
+
+    /**
+     * Creates an array (the runtime's _new_array)
+     * @param length the number of elements
+     * @param type the type id of the array
+     * @return the array
+     */
+    private Entries newArray(int length, int type) {
+        Entries array = new Entries(CFGBuilder.ELEMENTS_INDEX + length);
+        array.entries[CFGBuilder.CLASS_ID_INDEX] = type;
+        array.entries[1] = array.entries.length;
+        array.entries[CFGBuilder.DISPATCH_INDEX] =
+                templates.get("Object").entries[CFGBuilder.DISPATCH_INDEX];
+        array.entries[CFGBuilder.LENGTH_INDEX] = length;
+        Object element = type == 2 * classes.size() ? (Object) 0 :
+                type == 2 * classes.size() + 1 ? (Object) false : null;
+        for (int i = 0; i < length; i++) {
+            array.entries[CFGBuilder.ELEMENTS_INDEX + i] = element;
+        }
+        return array;
+    }
+
+    /**
+     * Reads a line of the standard input
+     * @return the line, or null at the end of the input
+     */
+    private String readLine() {
+        out.flush();
+        try {
+            return in.readLine();
+        } catch (IOException e) {
+            throw new IllegalStateException("TAC: cannot read the input", e);
+        }
+    }
+
+    /**
+     * Converts a line to an int like the interpreter (an optional '-'
+     * followed by digits, otherwise 0)
+     * @param line the line (null at the end of the input)
+     * @return the int
+     */
+    private static int parseInt(String line) {
+        if (line == null) {
+            return 0;
+        }
+        int i = line.startsWith("-") ? 1 : 0;
+        int value = 0;
+        for (; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return line.startsWith("-") ? -value : value;
+    }
+}
@@ -14,7 +14,12 @@ package bantam.parser;
 
 import bantam.ast.ClassList;
 import bantam.ast.Class_;
+import bantam.ast.Expr;
+import bantam.ast.ExprStmt;
+import bantam.ast.Method;
 import bantam.ast.Program;
+import bantam.ast.UnaryExpr;
+import bantam.ast.UnaryIncrExpr;
 import com.sun.rmi.rmid.ExecPermission;
 import java_cup.parser;
 import java_cup.runtime.Symbol;
@@ -283,6 +288,26 @@ public class ParserTest
         legalCodetest("/**/ S h = \"b\";\n void b() { a = \"r\"; }");
     }
 
+    /**
+     * tests that ++ and -- before an operand are parsed as prefix
+     * operators, and after it as postfix ones
+     */
+    @Test
+    public void prefixIncrDecrTest() throws Exception {
+        Parser parser = new Parser(new Lexer(new StringReader(
+                "class A { void m() { ++a; --a; a++; a--; } }")));
+        Program program = (Program) parser.parse().value;
+        Method method = (Method) ((Class_) program.getClassList().get(0))
+                .getMemberList().get(0);
+        boolean[] incr = {true, false, true, false};
+        boolean[] postfix = {false, false, true, true};
+        for (int i = 0; i < postfix.length; i++) {
+            Expr expr = ((ExprStmt) method.getStmtList().get(i)).getExpr();
+            assertEquals(incr[i], expr instanceof UnaryIncrExpr);
+            assertEquals(postfix[i], ((UnaryExpr) expr).isPostfix());
+        }
+    }
+
     /**
      * A generic legality test, the input string should be a representation of
      * a legal bantam java file
@@ -260,19 +260,74 @@ public class SemanticAnalyzerTest
         assertTrue(thrown);
     }
 
+    /**
+     * Tests that the programs built from several testfiles, with the
+     * library classes Vector, Boolean and Integer, get through semantic
+     * analysis (class names like Boolean are not keywords)
+     * @throws Exception Can throw parser errors
+     */
+    @Test
+    public void testLibraryPrograms() throws Exception {
+        assertAnalyzes("VectorTest.btm", "Vector.btm", "Boolean.btm", "Integer.btm");
+        assertAnalyzes("GCTest.btm", "Vector.btm");
+        assertAnalyzes("PrimesSieves.btm", "Vector.btm", "Boolean.btm");
+        assertAnalyzes("ToString.btm", "Integer.btm");
+        assertAnalyzes("Equals.btm", "Integer.btm", "Boolean.btm");
+    }
+
+    /**
+     * Tests that the single-file testfiles meant to compile get through
+     * semantic analysis
+     * @throws Exception Can throw parser errors
+     */
+    @Test
+    public void testPrograms() throws Exception {
+        String[] programs = {"ArrayTest2.btm", "ArrayTest3.btm",
+                "Assign.btm", "Clone.btm", "Concat.btm", "CountDivisors.btm",
+                "Fact.btm", "Fib.btm", "FindMin.btm", "HelloWorld.btm",
+                "InstanceofCastTest1.btm", "InstanceofCastTest2.btm", "Nim.btm",
+                "Primes.btm", "StringEquals.btm", "Strings.btm",
+                "TicTacToe.btm"};
+        for (String program : programs) {
+            assertAnalyzes(program);
+        }
+    }
+
+    /**
+     * Asserts that a program analyzes without errors, printing them if not
+     * @param filenames the btm files making up the program
+     * @throws Exception parser errors could be thrown
+     */
+    private void assertAnalyzes(String... filenames) throws Exception {
+        SemanticAnalyzer analyzer = setupSemanFromFile(filenames);
+        boolean thrown = false;
+        try {
+            analyzer.analyze();
+        } catch (RuntimeException e) {
+            thrown = true;
+            analyzer.getErrorHandler().getErrorList().forEach( error ->
+                    System.out.println(filenames[0] + ": " + error)
+            );
+        }
+        assertFalse(filenames[0], thrown);
+    }
+
     /**
      * generates a Semantic Analyzer from the input testfile
-     * @param filename the btm file
+     * @param filenames the btm file, followed by the files of the
+     *                  classes it uses, if any
      * @return a Semantic Analyzer Object for the input file
      * @throws Exception parser errors could be thrown
      */
-    private SemanticAnalyzer setupSemanFromFile(String filename) throws Exception {
-        //Generate the AST from the btm file
+    private SemanticAnalyzer setupSemanFromFile(String... filenames) throws Exception {
+        //Generate the AST from the btm files
+        StringBuilder source = new StringBuilder();
+        for (String filename : filenames) {
+            source.append(SemanticTools.generateStringFromTestfile(filename)).append("\n");
+        }
         Parser parser = new Parser(
                 new Lexer(
-                        new StringReader(
-                                SemanticTools.generateStringFromTestfile(filename)
-                        )
+                        new StringReader(source.toString())
                 )
         );
         Program program = (Program) parser.parse().value;
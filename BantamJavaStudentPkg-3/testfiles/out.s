@@ -0,0 +1,690 @@
+	# Authors: Vivek Sah, Alex Rinker, Ed Zhou
+	# Date: October 2026
+	# Compiled From Sources: Integer.btm
+
+	.data
+	.globl	gc_flag
+	.globl	class_name_table
+gc_flag:
+	.word	0
+label0:
+	.word	1
+	.word	36
+	.word	String_dispatch_table
+	.word	16
+	.ascii	"<built-in class>"
+	.byte	0
+	.align	2
+label1:
+	.word	1
+	.word	32
+	.word	String_dispatch_table
+	.word	11
+	.ascii	"Boolean.btm"
+	.byte	0
+	.align	2
+label2:
+	.word	1
+	.word	32
+	.word	String_dispatch_table
+	.word	11
+	.ascii	"Integer.btm"
+	.byte	0
+	.align	2
+StringConst_42:
+	.word	1
+	.word	64
+	.word	String_dispatch_table
+	.word	43
+	.ascii	"OK: String "
+	.ascii	"bc"
+	.ascii	"does not equal Integer 2"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_15:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"a"
+	.byte	0
+	.align	2
+StringConst_8:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"8"
+	.byte	0
+	.align	2
+StringConst_45:
+	.word	1
+	.word	60
+	.word	String_dispatch_table
+	.word	42
+	.ascii	"ERROR: String "
+	.ascii	"bc"
+	.ascii	"equals Boolean false"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_21:
+	.word	1
+	.word	56
+	.word	String_dispatch_table
+	.word	35
+	.ascii	"ERROR: Integer 2 equals Integer 5"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_38:
+	.word	1
+	.word	68
+	.word	String_dispatch_table
+	.word	49
+	.ascii	"ERROR: String "
+	.ascii	"bc"
+	.ascii	"does not equal String "
+	.ascii	"bc"
+	.ascii	"n"
+	.byte	0
+	.align	2
+StringConst_4:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"4"
+	.byte	0
+	.align	2
+StringConst_32:
+	.word	1
+	.word	68
+	.word	String_dispatch_table
+	.word	47
+	.ascii	"OK: Boolean true does not equal Boolean false"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_11:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"0"
+	.byte	0
+	.align	2
+StringConst_27:
+	.word	1
+	.word	56
+	.word	String_dispatch_table
+	.word	38
+	.ascii	"ERROR: Integer 2 equals String "
+	.ascii	"bc"
+	.ascii	"n"
+	.byte	0
+	.align	2
+StringConst_29:
+	.word	1
+	.word	56
+	.word	String_dispatch_table
+	.word	38
+	.ascii	"OK: Boolean true equals Boolean true"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_13:
+	.word	1
+	.word	60
+	.word	String_dispatch_table
+	.word	40
+	.ascii	"Integer.equals called with null object"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_16:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"b"
+	.byte	0
+	.align	2
+StringConst_34:
+	.word	1
+	.word	64
+	.word	String_dispatch_table
+	.word	43
+	.ascii	"OK: Boolean true does not equal Integer 2"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_35:
+	.word	1
+	.word	60
+	.word	String_dispatch_table
+	.word	41
+	.ascii	"ERROR: Boolean true equals String "
+	.ascii	"bc"
+	.ascii	"n"
+	.byte	0
+	.align	2
+StringConst_33:
+	.word	1
+	.word	56
+	.word	String_dispatch_table
+	.word	38
+	.ascii	"ERROR: Boolean true equals Integer 2"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_47:
+	.word	1
+	.word	24
+	.word	String_dispatch_table
+	.word	5
+	.ascii	"false"
+	.byte	0
+	.align	2
+StringConst_9:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"9"
+	.byte	0
+	.align	2
+StringConst_19:
+	.word	1
+	.word	52
+	.word	String_dispatch_table
+	.word	32
+	.ascii	"OK: Integer 2 equals Integer 2"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_14:
+	.word	1
+	.word	24
+	.word	String_dispatch_table
+	.word	3
+	.ascii	"abc"
+	.byte	0
+	.align	2
+StringConst_5:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"5"
+	.byte	0
+	.align	2
+StringConst_36:
+	.word	1
+	.word	64
+	.word	String_dispatch_table
+	.word	46
+	.ascii	"OK: Boolean true does not equal String "
+	.ascii	"bc"
+	.ascii	"n"
+	.byte	0
+	.align	2
+StringConst_44:
+	.word	1
+	.word	64
+	.word	String_dispatch_table
+	.word	46
+	.ascii	"OK: String "
+	.ascii	"bc"
+	.ascii	"does not equal Boolean true"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_1:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"1"
+	.byte	0
+	.align	2
+StringConst_12:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"-"
+	.byte	0
+	.align	2
+StringConst_10:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	0
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_17:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"c"
+	.byte	0
+	.align	2
+StringConst_30:
+	.word	1
+	.word	64
+	.word	String_dispatch_table
+	.word	46
+	.ascii	"OK: Boolean true does not equal Boolean true"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_46:
+	.word	1
+	.word	68
+	.word	String_dispatch_table
+	.word	47
+	.ascii	"OK: String "
+	.ascii	"bc"
+	.ascii	"does not equal Boolean false"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_6:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"6"
+	.byte	0
+	.align	2
+StringConst_20:
+	.word	1
+	.word	64
+	.word	String_dispatch_table
+	.word	43
+	.ascii	"ERROR: Integer 2 does not equal Integer 2"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_37:
+	.word	1
+	.word	56
+	.word	String_dispatch_table
+	.word	38
+	.ascii	"OK: String "
+	.ascii	"bc"
+	.ascii	"equals String "
+	.ascii	"bc"
+	.ascii	"n"
+	.byte	0
+	.align	2
+StringConst_26:
+	.word	1
+	.word	64
+	.word	String_dispatch_table
+	.word	44
+	.ascii	"OK: Integer 2 does not equal Boolean false"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_18:
+	.word	1
+	.word	24
+	.word	String_dispatch_table
+	.word	3
+	.ascii	"def"
+	.byte	0
+	.align	2
+StringConst_22:
+	.word	1
+	.word	60
+	.word	String_dispatch_table
+	.word	40
+	.ascii	"OK: Integer 2 does not equal Integer 5"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_2:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"2"
+	.byte	0
+	.align	2
+StringConst_41:
+	.word	1
+	.word	56
+	.word	String_dispatch_table
+	.word	38
+	.ascii	"ERROR: String "
+	.ascii	"bc"
+	.ascii	"equals Integer 2"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_25:
+	.word	1
+	.word	60
+	.word	String_dispatch_table
+	.word	39
+	.ascii	"ERROR: Integer 2 equals Boolean false"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_24:
+	.word	1
+	.word	64
+	.word	String_dispatch_table
+	.word	43
+	.ascii	"OK: Integer 2 does not equal Boolean true"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_49:
+	.word	1
+	.word	60
+	.word	String_dispatch_table
+	.word	40
+	.ascii	"Boolean.equals called with null object"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_23:
+	.word	1
+	.word	56
+	.word	String_dispatch_table
+	.word	38
+	.ascii	"ERROR: Integer 2 equals Boolean true"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_28:
+	.word	1
+	.word	64
+	.word	String_dispatch_table
+	.word	43
+	.ascii	"OK: Integer 2 does not equal String "
+	.ascii	"bc"
+	.ascii	"n"
+	.byte	0
+	.align	2
+StringConst_43:
+	.word	1
+	.word	60
+	.word	String_dispatch_table
+	.word	41
+	.ascii	"ERROR: String "
+	.ascii	"bc"
+	.ascii	"equals Boolean true"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+StringConst_7:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"7"
+	.byte	0
+	.align	2
+StringConst_48:
+	.word	1
+	.word	24
+	.word	String_dispatch_table
+	.word	4
+	.ascii	"true"
+	.byte	0
+	.align	2
+StringConst_3:
+	.word	1
+	.word	20
+	.word	String_dispatch_table
+	.word	1
+	.ascii	"3"
+	.byte	0
+	.align	2
+StringConst_39:
+	.word	1
+	.word	60
+	.word	String_dispatch_table
+	.word	41
+	.ascii	"ERROR: String "
+	.ascii	"bc"
+	.ascii	"equals String "
+	.ascii	"ef"
+	.ascii	"n"
+	.byte	0
+	.align	2
+StringConst_40:
+	.word	1
+	.word	64
+	.word	String_dispatch_table
+	.word	46
+	.ascii	"OK: String "
+	.ascii	"bc"
+	.ascii	"does not equal String "
+	.ascii	"ef"
+	.ascii	"n"
+	.byte	0
+	.align	2
+StringConst_31:
+	.word	1
+	.word	60
+	.word	String_dispatch_table
+	.word	42
+	.ascii	"ERROR: Boolean true equals Boolean false"
+	.byte	0xA
+	.ascii	""
+	.byte	0
+	.align	2
+class_name_0:
+	.word	1
+	.word	24
+	.word	String_dispatch_table
+	.word	6
+	.ascii	"Object"
+	.byte	0
+	.align	2
+class_name_1:
+	.word	1
+	.word	24
+	.word	String_dispatch_table
+	.word	6
+	.ascii	"String"
+	.byte	0
+	.align	2
+class_name_2:
+	.word	1
+	.word	28
+	.word	String_dispatch_table
+	.word	7
+	.ascii	"Integer"
+	.byte	0
+	.align	2
+class_name_3:
+	.word	1
+	.word	24
+	.word	String_dispatch_table
+	.word	6
+	.ascii	"TextIO"
+	.byte	0
+	.align	2
+class_name_4:
+	.word	1
+	.word	24
+	.word	String_dispatch_table
+	.word	4
+	.ascii	"Main"
+	.byte	0
+	.align	2
+class_name_5:
+	.word	1
+	.word	24
+	.word	String_dispatch_table
+	.word	3
+	.ascii	"Sys"
+	.byte	0
+	.align	2
+class_name_6:
+	.word	1
+	.word	28
+	.word	String_dispatch_table
+	.word	7
+	.ascii	"Boolean"
+	.byte	0
+	.align	2
+class_name_table:
+	.word	class_name_0
+	.word	class_name_1
+	.word	class_name_2
+	.word	class_name_3
+	.word	class_name_4
+	.word	class_name_5
+	.word	class_name_6
+	.globl	Integer_template
+	.globl	Object_template
+	.globl	String_template
+	.globl	Sys_template
+	.globl	Boolean_template
+	.globl	TextIO_template
+	.globl	Main_template
+Object_template:
+	.word	0
+	.word	12
+	.word	Object_dispatch_table
+Integer_template:
+	.word	2
+	.word	16
+	.word	Integer_dispatch_table
+	.word	0
+String_template:
+	.word	1
+	.word	16
+	.word	String_dispatch_table
+	.word	0
+Sys_template:
+	.word	5
+	.word	12
+	.word	Sys_dispatch_table
+Main_template:
+	.word	4
+	.word	12
+	.word	Main_dispatch_table
+TextIO_template:
+	.word	3
+	.word	20
+	.word	TextIO_dispatch_table
+	.word	0
+	.word	0
+Boolean_template:
+	.word	6
+	.word	16
+	.word	Boolean_dispatch_table
+	.word	0
+Object_dispatch_table:
+	.word	Object.clone
+	.word	Object.equals
+	.word	Object.toString
+Integer_dispatch_table:
+	.word	Object.clone
+	.word	Integer.equals
+	.word	Integer.toString
+	.word	Integer.intValue
+	.word	Integer.init
+	.word	Integer.digitToString
+String_dispatch_table:
+	.word	Object.clone
+	.word	String.equals
+	.word	String.toString
+	.word	String.length
+	.word	String.substring
+	.word	String.concat
+Sys_dispatch_table:
+	.word	Object.clone
+	.word	Object.equals
+	.word	Object.toString
+	.word	Sys.exit
+	.word	Sys.time
+	.word	Sys.random
+Main_dispatch_table:
+	.word	Object.clone
+	.word	Object.equals
+	.word	Object.toString
+	.word	Main.main
+TextIO_dispatch_table:
+	.word	Object.clone
+	.word	Object.equals
+	.word	Object.toString
+	.word	TextIO.readStdin
+	.word	TextIO.readFile
+	.word	TextIO.writeStdout
+	.word	TextIO.writeStderr
+	.word	TextIO.writeFile
+	.word	TextIO.getString
+	.word	TextIO.getInt
+	.word	TextIO.putString
+	.word	TextIO.putInt
+Boolean_dispatch_table:
+	.word	Object.clone
+	.word	Boolean.equals
+	.word	Boolean.toString
+	.word	Boolean.booleanValue
+	.word	Boolean.init
+	.globl	Integer_dispatch_table
+	.globl	Object_dispatch_table
+	.globl	String_dispatch_table
+	.globl	Sys_dispatch_table
+	.globl	Boolean_dispatch_table
+	.globl	TextIO_dispatch_table
+	.globl	Main_dispatch_table
+
+	.text
+	.globl	main
+	.globl	Main_init
+	.globl	Main.main
+main:
+	jal __start
+Integer_init:
+Object_init:
+String_init:
+Sys_init:
+Boolean_init:
+TextIO_init:
+Main_init:
+Integer.init:
+Integer.intValue:
+Integer.equals:
+Integer.digitToString:
+Integer.toString:
+Boolean.init:
+Boolean.equals:
+Boolean.booleanValue:
+Boolean.toString:
+Main.main:
+	jr $ra